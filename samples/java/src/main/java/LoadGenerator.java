@@ -0,0 +1,508 @@
+import com.sun.management.GarbageCollectionNotificationInfo;
+import org.hyperledger.indy.sdk.anoncreds.AnoncredsResults;
+import org.hyperledger.indy.sdk.anoncreds.CredentialsSearchForProofReq;
+import org.hyperledger.indy.sdk.wallet.Wallet;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import utils.LatencyHistogram;
+
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.hyperledger.indy.sdk.anoncreds.Anoncreds.*;
+
+/**
+ * Load generator for the issuance and verification flow of the Anoncreds sample.
+ *
+ * Every actor owns a prover wallet and runs the flow in a closed loop against one shared issuer: it
+ * requests, stores and proves a fresh credential, and verifies the proof as the verifier. Each step is
+ * timed separately. After the warm-up iterations the generator reports throughput, p50/p99/p999 latency
+ * per step, JVM allocation rate and GC pauses, on stdout and as a JSON report. A failed flow during the
+ * warm-up, or any other error that stops an actor, fails the whole run and no report is written.
+ *
+ * Usage: LoadGenerator [--actors N] [--iterations N] [--warmup N] [--report file]
+ */
+class LoadGenerator {
+
+	private static final String[] STEPS = {
+			"issuerCreateCredentialOffer",
+			"proverCreateCredentialReq",
+			"issuerCreateCredential",
+			"proverStoreCredential",
+			"proverSearchCredentialsForProofReq",
+			"proverCreateProof",
+			"verifierVerifyProof"
+	};
+
+	private static final String ISSUER_DID = "NcYxiDXkpYi6ov5FcYDi1e";
+	private static final String PROVER_DID = "VsKV7grR1BUE29mG2Fm2kX";
+
+	private final int actors;
+	private final int iterations;
+	private final int warmup;
+
+	private final LatencyHistogram[] steps = new LatencyHistogram[STEPS.length];
+	private final AtomicLongArray stepFailures = new AtomicLongArray(STEPS.length);
+	private final LatencyHistogram flows = new LatencyHistogram();
+	private final LatencyHistogram gcPauses = new LatencyHistogram();
+	private final AtomicLong failures = new AtomicLong();
+
+	private volatile boolean measuring;
+	private volatile long startNanos;
+	private volatile Map<Long, Long> startAllocations;
+
+	private String runId;
+	private Wallet issuerWallet;
+	private String issuerWalletConfig;
+	private String schemaId;
+	private String schemaJson;
+	private String credDefId;
+	private String credDefJson;
+
+	private LoadGenerator(int actors, int iterations, int warmup) {
+
+		this.actors = actors;
+		this.iterations = iterations;
+		this.warmup = warmup;
+
+		for (int i = 0; i < STEPS.length; i++) this.steps[i] = new LatencyHistogram();
+	}
+
+	public static void main(String[] args) throws Exception {
+
+		int actors = 4;
+		int iterations = 20;
+		int warmup = 2;
+		String report = "load-report.json";
+
+		for (int i = 0; i < args.length; i++) {
+
+			String option = args[i];
+			if (i + 1 >= args.length) throw new IllegalArgumentException("Missing value for " + option);
+			String value = args[++i];
+
+			switch (option) {
+				case "--actors": actors = Integer.parseInt(value); break;
+				case "--iterations": iterations = Integer.parseInt(value); break;
+				case "--warmup": warmup = Integer.parseInt(value); break;
+				case "--report": report = value; break;
+				default: throw new IllegalArgumentException("Unknown option " + option);
+			}
+		}
+
+		if (actors < 1 || iterations < 1 || warmup < 0) throw new IllegalArgumentException("Invalid load parameters");
+
+		JSONObject result;
+		try {
+
+			result = new LoadGenerator(actors, iterations, warmup).run();
+		} catch (Exception e) {
+
+			System.err.println("Load run failed, no report written");
+			e.printStackTrace();
+			System.exit(1);
+			return;
+		}
+
+		Files.write(Paths.get(report), result.toString(2).getBytes(StandardCharsets.UTF_8));
+		System.out.println("Report written to " + report);
+
+		System.exit(0);
+	}
+
+	private JSONObject run() throws Exception {
+
+		System.out.println(String.format("Load generator -> %d actors, %d iterations, %d warm-up", this.actors, this.iterations, this.warmup));
+
+		this.runId = Long.toHexString(System.currentTimeMillis());
+		setUpIssuer();
+
+		NotificationListener gcListener = new NotificationListener() {
+
+			@Override
+			public void handleNotification(Notification notification, Object handback) {
+
+				if (! measuring) return;
+				if (! GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(notification.getType())) return;
+
+				GarbageCollectionNotificationInfo info = GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData());
+				gcPauses.record(info.getGcInfo().getDuration() * 1_000_000L);
+			}
+		};
+		for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+
+			if (gc instanceof NotificationEmitter) ((NotificationEmitter) gc).addNotificationListener(gcListener, null, null);
+		}
+
+		final CyclicBarrier barrier = new CyclicBarrier(this.actors, new Runnable() {
+
+			@Override
+			public void run() {
+
+				startMeasuring();
+			}
+		});
+
+		final AtomicReference<Exception> aborted = new AtomicReference<Exception>();
+
+		Thread[] threads = new Thread[this.actors];
+		for (int i = 0; i < this.actors; i++) {
+
+			final int actor = i;
+			threads[i] = new Thread(new Runnable() {
+
+				@Override
+				public void run() {
+
+					try {
+
+						runActor(actor, barrier);
+					} catch (Exception e) {
+
+						// The other actors then abort on the broken barrier; the first error is the cause
+						if (aborted.compareAndSet(null, e)) System.err.println("Actor " + actor + " aborted: " + e);
+						barrier.reset();
+					}
+				}
+			}, "load-actor-" + i);
+			threads[i].start();
+		}
+
+		for (Thread thread : threads) thread.join();
+
+		this.measuring = false;
+		long elapsedNanos = System.nanoTime() - this.startNanos;
+		long allocatedBytes = allocatedSince(this.startAllocations);
+
+		for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+
+			if (! (gc instanceof NotificationEmitter)) continue;
+			try {
+
+				((NotificationEmitter) gc).removeNotificationListener(gcListener);
+			} catch (Exception ignored) {
+
+			}
+		}
+
+		tearDownIssuer();
+
+		if (aborted.get() != null) throw new IllegalStateException("An actor aborted the run", aborted.get());
+
+		JSONObject report = report(elapsedNanos, allocatedBytes);
+		printSummary(report);
+		return report;
+	}
+
+	private void setUpIssuer() throws Exception {
+
+		this.issuerWalletConfig = new JSONObject().put("id", "loadIssuerWallet-" + this.runId).toString();
+		Wallet.createWallet(this.issuerWalletConfig, credentials("issuer")).get();
+		this.issuerWallet = Wallet.openWallet(this.issuerWalletConfig, credentials("issuer")).get();
+
+		String schemaAttributes = new JSONArray().put("name").put("age").put("sex").put("height").toString();
+		AnoncredsResults.IssuerCreateSchemaResult createSchemaResult =
+				issuerCreateSchema(ISSUER_DID, "gvt", "1.0", schemaAttributes).get();
+		this.schemaId = createSchemaResult.getSchemaId();
+		this.schemaJson = createSchemaResult.getSchemaJson();
+
+		String credDefConfigJson = new JSONObject().put("support_revocation", false).toString();
+		AnoncredsResults.IssuerCreateAndStoreCredentialDefResult createCredDefResult =
+				issuerCreateAndStoreCredentialDef(this.issuerWallet, ISSUER_DID, this.schemaJson, "Tag1", null, credDefConfigJson).get();
+		this.credDefId = createCredDefResult.getCredDefId();
+		this.credDefJson = createCredDefResult.getCredDefJson();
+	}
+
+	private void tearDownIssuer() throws Exception {
+
+		this.issuerWallet.closeWallet().get();
+		Wallet.deleteWallet(this.issuerWalletConfig, credentials("issuer")).get();
+	}
+
+	private static String credentials(String role) {
+
+		return new JSONObject().put("key", role + "_wallet_key").toString();
+	}
+
+	private void runActor(int actor, CyclicBarrier barrier) throws Exception {
+
+		String proverWalletConfig = new JSONObject().put("id", "loadProverWallet-" + this.runId + "-" + actor).toString();
+		Wallet.createWallet(proverWalletConfig, credentials("prover")).get();
+		Wallet proverWallet = Wallet.openWallet(proverWalletConfig, credentials("prover")).get();
+
+		try {
+
+			String masterSecretId = proverCreateMasterSecret(proverWallet, null).get();
+
+			for (int i = 0; i < this.warmup; i++) runFlow(proverWallet, masterSecretId, false);
+
+			barrier.await();
+
+			for (int i = 0; i < this.iterations; i++) runFlow(proverWallet, masterSecretId, true);
+		} finally {
+
+			proverWallet.closeWallet().get();
+			Wallet.deleteWallet(proverWalletConfig, credentials("prover")).get();
+		}
+	}
+
+	/**
+	 * Failures of measured flows are counted; a failure during the warm-up is thrown, since it would
+	 * otherwise go unnoticed.
+	 */
+	private void runFlow(Wallet proverWallet, String masterSecretId, boolean measured) {
+
+		int step = 0;
+		long flowStart = System.nanoTime();
+		long start = flowStart;
+
+		try {
+
+			String credOffer = issuerCreateCredentialOffer(this.issuerWallet, this.credDefId).get();
+			start = record(measured, step++, start);
+
+			AnoncredsResults.ProverCreateCredentialRequestResult createCredReqResult =
+					proverCreateCredentialReq(proverWallet, PROVER_DID, credOffer, this.credDefJson, masterSecretId).get();
+			start = record(measured, step++, start);
+
+			AnoncredsResults.IssuerCreateCredentialResult createCredentialResult =
+					issuerCreateCredential(this.issuerWallet, credOffer, createCredReqResult.getCredentialRequestJson(), credentialValues(), null, - 1).get();
+			start = record(measured, step++, start);
+
+			proverStoreCredential(proverWallet, null, createCredReqResult.getCredentialRequestMetadataJson(),
+					createCredentialResult.getCredentialJson(), this.credDefJson, null).get();
+			start = record(measured, step++, start);
+
+			String proofRequestJson = proofRequest(generateNonce().get());
+			CredentialsSearchForProofReq credentialsSearch = CredentialsSearchForProofReq.open(proverWallet, proofRequestJson, null).get();
+			String credentialIdForAttribute;
+			String credentialIdForPredicate;
+			try {
+
+				credentialIdForAttribute = firstReferent(credentialsSearch.fetchNextCredentials("attr1_referent", 1).get());
+				credentialIdForPredicate = firstReferent(credentialsSearch.fetchNextCredentials("predicate1_referent", 1).get());
+			} finally {
+
+				credentialsSearch.close();
+			}
+			start = record(measured, step++, start);
+
+			String requestedCredentialsJson = new JSONObject()
+					.put("self_attested_attributes", new JSONObject())
+					.put("requested_attributes", new JSONObject()
+							.put("attr1_referent", new JSONObject().put("cred_id", credentialIdForAttribute).put("revealed", true)))
+					.put("requested_predicates", new JSONObject()
+							.put("predicate1_referent", new JSONObject().put("cred_id", credentialIdForPredicate)))
+					.toString();
+			String schemas = new JSONObject().put(this.schemaId, new JSONObject(this.schemaJson)).toString();
+			String credentialDefs = new JSONObject().put(this.credDefId, new JSONObject(this.credDefJson)).toString();
+
+			String proofJson = proverCreateProof(proverWallet, proofRequestJson, requestedCredentialsJson,
+					masterSecretId, schemas, credentialDefs, "{}").get();
+			start = record(measured, step++, start);
+
+			Boolean valid = verifierVerifyProof(proofRequestJson, proofJson, schemas, credentialDefs, "{}", "{}").get();
+			if (! Boolean.TRUE.equals(valid)) throw new IllegalStateException("Proof was rejected");
+			record(measured, step, start);
+
+			if (measured) this.flows.record(System.nanoTime() - flowStart);
+		} catch (Exception e) {
+
+			if (! measured) throw new IllegalStateException("Warm-up flow failed in " + STEPS[step], e);
+
+			this.failures.incrementAndGet();
+			this.stepFailures.incrementAndGet(step);
+		}
+	}
+
+	private long record(boolean measured, int step, long start) {
+
+		long now = System.nanoTime();
+		if (measured) this.steps[step].record(now - start);
+		return now;
+	}
+
+	private static String credentialValues() {
+
+		return new JSONObject()
+				.put("sex", new JSONObject().put("raw", "male").put("encoded", "594465709955896723921094925839488742869205008160769251991705001"))
+				.put("name", new JSONObject().put("raw", "Alex").put("encoded", "1139481716457488690172217916278103335"))
+				.put("height", new JSONObject().put("raw", "175").put("encoded", "175"))
+				.put("age", new JSONObject().put("raw", "28").put("encoded", "28"))
+				.toString();
+	}
+
+	/**
+	 * Only the first match per referent is fetched, so the cost of the search step stays close to
+	 * constant while the actor's wallet fills up.
+	 */
+	private String proofRequest(String nonce) {
+
+		JSONArray restrictions = new JSONArray().put(new JSONObject().put("cred_def_id", this.credDefId));
+
+		return new JSONObject()
+				.put("nonce", nonce)
+				.put("name", "load_proof_req")
+				.put("version", "0.1")
+				.put("requested_attributes", new JSONObject()
+						.put("attr1_referent", new JSONObject().put("name", "name").put("restrictions", restrictions)))
+				.put("requested_predicates", new JSONObject()
+						.put("predicate1_referent", new JSONObject()
+								.put("name", "age")
+								.put("p_type", ">=")
+								.put("p_value", 18)
+								.put("restrictions", restrictions)))
+				.toString();
+	}
+
+	private static String firstReferent(String credentialsJson) {
+
+		JSONArray credentials = new JSONArray(credentialsJson);
+		if (credentials.length() == 0) throw new IllegalStateException("No credential matches the proof request");
+
+		return credentials.getJSONObject(0).getJSONObject("cred_info").getString("referent");
+	}
+
+	private void startMeasuring() {
+
+		this.startAllocations = allocations();
+		this.startNanos = System.nanoTime();
+		this.measuring = true;
+	}
+
+	/**
+	 * @return The bytes allocated so far by every live thread, or null when the JVM cannot tell.
+	 */
+	private static Map<Long, Long> allocations() {
+
+		ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+		if (! (threads instanceof com.sun.management.ThreadMXBean)) return null;
+
+		com.sun.management.ThreadMXBean sunThreads = (com.sun.management.ThreadMXBean) threads;
+		if (! sunThreads.isThreadAllocatedMemorySupported() || ! sunThreads.isThreadAllocatedMemoryEnabled()) return null;
+
+		long[] ids = sunThreads.getAllThreadIds();
+		long[] bytes = sunThreads.getThreadAllocatedBytes(ids);
+
+		Map<Long, Long> allocations = new HashMap<>();
+		for (int i = 0; i < ids.length; i++) {
+
+			if (bytes[i] >= 0) allocations.put(ids[i], bytes[i]);
+		}
+
+		return allocations;
+	}
+
+	/**
+	 * Threads that terminated in between are not counted, so this is a lower bound.
+	 */
+	private static long allocatedSince(Map<Long, Long> start) {
+
+		Map<Long, Long> end = allocations();
+		if (start == null || end == null) return - 1;
+
+		long allocated = 0;
+		for (Map.Entry<Long, Long> entry : end.entrySet()) {
+
+			Long before = start.get(entry.getKey());
+			allocated += Math.max(0, entry.getValue() - (before == null ? 0 : before));
+		}
+
+		return allocated;
+	}
+
+	private JSONObject report(long elapsedNanos, long allocatedBytes) {
+
+		double seconds = elapsedNanos / 1e9;
+
+		JSONObject steps = new JSONObject();
+		for (int i = 0; i < STEPS.length; i++) {
+
+			steps.put(STEPS[i], latency(this.steps[i])
+					.put("failures", this.stepFailures.get(i))
+					.put("throughputPerSec", this.steps[i].getCount() / seconds));
+		}
+
+		long completed = this.flows.getCount();
+
+		JSONObject allocation = new JSONObject();
+		if (allocatedBytes >= 0) {
+
+			allocation
+					.put("bytes", allocatedBytes)
+					.put("bytesPerSec", allocatedBytes / seconds)
+					.put("bytesPerFlow", completed == 0 ? 0 : allocatedBytes / completed);
+		}
+
+		return new JSONObject()
+				.put("config", new JSONObject()
+						.put("actors", this.actors)
+						.put("iterations", this.iterations)
+						.put("warmup", this.warmup))
+				.put("jvm", new JSONObject()
+						.put("version", System.getProperty("java.version"))
+						.put("vm", System.getProperty("java.vm.name"))
+						.put("availableProcessors", Runtime.getRuntime().availableProcessors())
+						.put("maxHeapBytes", Runtime.getRuntime().maxMemory()))
+				.put("durationMs", elapsedNanos / 1e6)
+				.put("flows", latency(this.flows)
+						.put("failures", this.failures.get())
+						.put("throughputPerSec", completed / seconds))
+				.put("steps", steps)
+				.put("allocation", allocation)
+				.put("gc", latency(this.gcPauses)
+						.put("totalMs", this.gcPauses.getSum() / 1e6));
+	}
+
+	private static JSONObject latency(LatencyHistogram histogram) {
+
+		return new JSONObject()
+				.put("count", histogram.getCount())
+				.put("meanMs", histogram.getMean() / 1e6)
+				.put("p50Ms", histogram.getPercentile(0.5) / 1e6)
+				.put("p99Ms", histogram.getPercentile(0.99) / 1e6)
+				.put("p999Ms", histogram.getPercentile(0.999) / 1e6)
+				.put("maxMs", histogram.getMax() / 1e6);
+	}
+
+	private static void printSummary(JSONObject report) {
+
+		JSONObject flows = report.getJSONObject("flows");
+		System.out.println(String.format("Flows: %d completed, %d failed, %.1f/s over %.0f ms",
+				flows.getLong("count"), flows.getLong("failures"), flows.getDouble("throughputPerSec"), report.getDouble("durationMs")));
+
+		System.out.println(String.format("%-36s %8s %10s %10s %10s %10s", "step", "count", "p50 ms", "p99 ms", "p999 ms", "max ms"));
+		JSONObject steps = report.getJSONObject("steps");
+		for (String step : STEPS) {
+
+			JSONObject stats = steps.getJSONObject(step);
+			System.out.println(String.format("%-36s %8d %10.2f %10.2f %10.2f %10.2f", step, stats.getLong("count"),
+					stats.getDouble("p50Ms"), stats.getDouble("p99Ms"), stats.getDouble("p999Ms"), stats.getDouble("maxMs")));
+		}
+
+		JSONObject allocation = report.getJSONObject("allocation");
+		if (allocation.has("bytesPerSec")) {
+
+			System.out.println(String.format("Allocation: %.1f MB/s, %d bytes per flow",
+					allocation.getDouble("bytesPerSec") / (1024 * 1024), allocation.getLong("bytesPerFlow")));
+		}
+
+		JSONObject gc = report.getJSONObject("gc");
+		System.out.println(String.format("GC: %d pauses, %.1f ms total, p99 %.2f ms, max %.2f ms",
+				gc.getLong("count"), gc.getDouble("totalMs"), gc.getDouble("p99Ms"), gc.getDouble("maxMs")));
+	}
+}
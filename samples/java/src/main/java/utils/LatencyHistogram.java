@@ -0,0 +1,97 @@
+package utils;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free histogram of durations in nanoseconds. Buckets are log-linear with 32 sub-buckets per
+ * power of two, so percentiles are accurate to about 3% over the whole range.
+ */
+public class LatencyHistogram {
+
+	private static final int LINEAR = 64;
+	private static final int SUB_BUCKETS = 32;
+	private static final int BUCKETS = LINEAR + (63 - 6) * SUB_BUCKETS;
+
+	private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+	private final AtomicLong count = new AtomicLong();
+	private final AtomicLong sum = new AtomicLong();
+	private final AtomicLong max = new AtomicLong();
+
+	private static int index(long value) {
+
+		if (value < LINEAR) return (int) value;
+
+		int msb = 63 - Long.numberOfLeadingZeros(value);
+		int shift = msb - 5;
+		return LINEAR + (msb - 6) * SUB_BUCKETS + (int) ((value >>> shift) - SUB_BUCKETS);
+	}
+
+	/**
+	 * @return The middle of the values falling into a bucket.
+	 */
+	private static long value(int index) {
+
+		if (index < LINEAR) return index;
+
+		int msb = (index - LINEAR) / SUB_BUCKETS + 6;
+		int shift = msb - 5;
+		long lower = (long) (SUB_BUCKETS + (index - LINEAR) % SUB_BUCKETS) << shift;
+		return lower + (1L << shift) / 2;
+	}
+
+	public void record(long nanos) {
+
+		if (nanos < 0) nanos = 0;
+
+		this.counts.incrementAndGet(index(nanos));
+		this.count.incrementAndGet();
+		this.sum.addAndGet(nanos);
+
+		long current;
+		while (nanos > (current = this.max.get()) && ! this.max.compareAndSet(current, nanos)) {
+
+		}
+	}
+
+	public long getCount() {
+
+		return this.count.get();
+	}
+
+	public long getMax() {
+
+		return this.max.get();
+	}
+
+	public long getSum() {
+
+		return this.sum.get();
+	}
+
+	public double getMean() {
+
+		long count = this.count.get();
+		return count == 0 ? 0 : (double) this.sum.get() / count;
+	}
+
+	/**
+	 * @param quantile The quantile, e.g. 0.99.
+	 * @return The value below which the quantile of the recorded values fall, in nanoseconds.
+	 */
+	public long getPercentile(double quantile) {
+
+		long count = this.count.get();
+		if (count == 0) return 0;
+
+		long rank = (long) Math.ceil(quantile * count);
+		long seen = 0;
+		for (int i = 0; i < BUCKETS; i++) {
+
+			seen += this.counts.get(i);
+			if (seen >= rank) return Math.min(value(i), this.max.get());
+		}
+
+		return this.max.get();
+	}
+}
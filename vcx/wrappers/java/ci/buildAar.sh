@@ -95,6 +95,9 @@ pushd ${SCRIPT_DIR} # we will work on relative paths from the script directory
         npm install
     popd
 
+    # The command registry shared with the libindy wrapper is resolved from the local Maven repository
+    mvn -B -f ../../../../wrappers/java-dispatch/pom.xml clean install -DskipTests
+
     # This pushd/popd block is for running the tests
     pushd ..
         # ANDROID_JNI_LIB=android/src/main/jniLibs
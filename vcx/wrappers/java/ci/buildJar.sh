@@ -8,6 +8,7 @@ SCRIPT_DIR="$(cd "$(dirname "${SCRIPT_PATH:-$PWD}")" 2>/dev/null 1>&2 && pwd)"
 
 pushd ${SCRIPT_DIR} # we will work on relative paths from the script directory
     pushd ..
+    mvn -B -f ../../../wrappers/java-dispatch/pom.xml clean install -DskipTests
     PACKAGE_VERSION=$version ./gradlew --no-daemon clean build -x test #skipping tests because they already run in jenkins CI
     mkdir -p artifacts/jar
     pushd build/libs
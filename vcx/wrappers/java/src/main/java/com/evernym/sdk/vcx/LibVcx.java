@@ -2,12 +2,20 @@ package com.evernym.sdk.vcx;
 
 import com.sun.jna.*;
 import com.sun.jna.ptr.PointerByReference;
+import org.hyperledger.indy.sdk.dispatch.CommandRegistry;
+import org.hyperledger.indy.sdk.dispatch.Instrumentation;
 import static com.sun.jna.Native.detach;
 
 import java.io.File;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.ConcurrentHashMap;
 
 public abstract class LibVcx {
     private static final String LIBRARY_NAME = "vcx";
+    private static final ConcurrentHashMap<String, org.slf4j.Logger> nativeLoggers = new ConcurrentHashMap<String, org.slf4j.Logger>();
     /*
      * Native library interface
      */
@@ -633,6 +641,8 @@ public abstract class LibVcx {
      */
 
     public static API api = null;
+    private static API nativeApi = null;
+    private static final CommandRegistry commands = new CommandRegistry();
 
     static {
 
@@ -653,7 +663,7 @@ public abstract class LibVcx {
     public static void init(String searchPath, String libraryName) {
 
         NativeLibrary.addSearchPath(libraryName, searchPath);
-        api = Native.loadLibrary(libraryName, API.class);
+        setApi(Native.loadLibrary(libraryName, API.class));
         initLogger();
     }
 
@@ -665,7 +675,7 @@ public abstract class LibVcx {
      */
     public static void init(File file) {
 
-        api = Native.loadLibrary(file.getAbsolutePath(), API.class);
+        setApi(Native.loadLibrary(file.getAbsolutePath(), API.class));
         initLogger();
     }
 
@@ -674,14 +684,14 @@ public abstract class LibVcx {
      */
     public static void init() {
 
-        api = Native.loadLibrary(LIBRARY_NAME, API.class);
+        setApi(Native.loadLibrary(LIBRARY_NAME, API.class));
         initLogger();
     }
 
     public static void initByLibraryName(String libraryName) {
 
         System.loadLibrary(libraryName);
-        api = Native.loadLibrary(libraryName, API.class);
+        setApi(Native.loadLibrary(libraryName, API.class));
         initLogger();
     }
 
@@ -696,7 +706,10 @@ public abstract class LibVcx {
     }
 
     public static void logMessage(String loggerName, int level, String message) {
-        org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(loggerName);
+        logMessage(org.slf4j.LoggerFactory.getLogger(loggerName), level, message);
+    }
+
+    private static void logMessage(org.slf4j.Logger logger, int level, String message) {
         switch (level) {
             case 1:
                 logger.error(message);
@@ -718,6 +731,33 @@ public abstract class LibVcx {
         }
     }
 
+    private static boolean isLevelEnabled(org.slf4j.Logger logger, int level) {
+        switch (level) {
+            case 1:
+                return logger.isErrorEnabled();
+            case 2:
+                return logger.isWarnEnabled();
+            case 3:
+                return logger.isInfoEnabled();
+            case 4:
+                return logger.isDebugEnabled();
+            case 5:
+                return logger.isTraceEnabled();
+            default:
+                return false;
+        }
+    }
+
+    private static org.slf4j.Logger nativeLogger(String target) {
+        org.slf4j.Logger logger = nativeLoggers.get(target);
+        if (logger == null) {
+            logger = org.slf4j.LoggerFactory.getLogger(LibVcx.class.getName() + ".native." + target.replace("::", "."));
+            org.slf4j.Logger existing = nativeLoggers.putIfAbsent(target, logger);
+            if (existing != null) logger = existing;
+        }
+        return logger;
+    }
+
     private static class Logger {
         private static Callback enabled = null;
 
@@ -728,6 +768,10 @@ public abstract class LibVcx {
 
                 detach(false);
 
+                // Resolve the logger once per target and skip records below its level before touching the message
+                org.slf4j.Logger logger = nativeLogger(target);
+                if (!isLevelEnabled(logger, level)) return;
+
                 // NOTE: We must restrict the size of the message because the message could be the whole
                 // contents of a file, like a 10 MB log file and we do not want all of that content logged
                 // into the log file itself... This is what the log statement would look like
@@ -736,15 +780,66 @@ public abstract class LibVcx {
                     // if message is more than 100K then log only 10K of the message
                     message = message.substring(0, 10240);
                 }
-                String loggerName = String.format("%s.native.%s", LibVcx.class.getName(), target.replace("::", "."));
-                String msg = String.format("%s:%d | %s", file, line, message);
-                logMessage(loggerName, level, msg);
+                logMessage(logger, level, file + ":" + line + " | " + message);
             }
         };
 
         private static Callback flush = null;
     }
 
+    private static synchronized void setApi(API loaded) {
+
+        nativeApi = loaded;
+        api = commands.getInstrumentation() == Instrumentation.NOOP ? loaded : instrument(loaded);
+    }
+
+    /**
+     * Gets the registry tracking the commands passed to libvcx, e.g. to set deadlines or read its stats.
+     * The libindy wrapper has a registry of its own.
+     *
+     * @return The registry.
+     */
+    public static CommandRegistry getCommandRegistry() {
+
+        return commands;
+    }
+
+    /**
+     * Sets the instrumentation notified about the libvcx calls made from now on; the libindy wrapper is set up
+     * separately through LibIndy.setInstrumentation. With any instrumentation
+     * other than {@link Instrumentation#NOOP}, calls go through a proxy that records the function each
+     * command is passed to.
+     *
+     * @param instrumentation The instrumentation, or {@link Instrumentation#NOOP} to disable it.
+     */
+    public static synchronized void setInstrumentation(Instrumentation instrumentation) {
+
+        ParamGuard.notNull(instrumentation, "instrumentation");
+
+        commands.setInstrumentation(instrumentation);
+        if (nativeApi != null) setApi(nativeApi);
+    }
+
+    private static API instrument(final API target) {
+
+        return (API) Proxy.newProxyInstance(API.class.getClassLoader(), new Class<?>[] {API.class}, new InvocationHandler() {
+
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+
+                // Asynchronous functions take the command handle first and the callback last
+                int commandHandle = args != null && args.length > 1 && args[0] instanceof Integer && args[args.length - 1] instanceof Callback ? (Integer) args[0] : 0;
+                if (commandHandle != 0) commands.tag(commandHandle, method.getName());
+
+                try {
+                    return method.invoke(target, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+            }
+        });
+    }
+
     private static void initLogger() {
         api.vcx_set_logger(null, Logger.enabled, Logger.log, Logger.flush);
     }
@@ -0,0 +1,103 @@
+package com.evernym.sdk.vcx;
+
+import org.hyperledger.indy.sdk.dispatch.BoundedBatch;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * Runs an asynchronous libvcx call over a sequence of inputs while keeping at most a fixed number of
+ * calls in flight. Inputs are pulled lazily, so a large sequence never has to be materialized, and
+ * every output is handed to a {@link Listener} as soon as it is available. The bounded fan-out itself is
+ * {@link BoundedBatch}, shared with the libindy wrapper.
+ */
+public final class VcxBatch {
+
+    private VcxBatch() {
+    }
+
+    /**
+     * An asynchronous operation applied to every input.
+     *
+     * @param <I> The input type.
+     * @param <O> The output type.
+     */
+    public interface Operation<I, O> {
+
+        CompletableFuture<O> apply(I input) throws VcxException;
+    }
+
+    /**
+     * Receives every output as soon as it is available, in completion order.
+     * Calls are not concurrent; the number of calls so far is the progress of the batch.
+     *
+     * @param <O> The output type.
+     */
+    public interface Listener<O> {
+
+        void onResult(int position, O output);
+    }
+
+    /**
+     * Applies the operation to all inputs with bounded parallelism.
+     *
+     * The returned future fails with the error of the first failed operation; no further inputs are
+     * pulled after a failure.
+     *
+     * @param inputs      The inputs, pulled lazily.
+     * @param parallelism The maximum number of operations in flight.
+     * @param operation   The operation.
+     * @param listener    Receives every output.
+     * @param <I>         The input type.
+     * @param <O>         The output type.
+     * @return A future resolving to the number of processed inputs.
+     */
+    public static <I, O> CompletableFuture<Integer> run(Iterator<I> inputs, int parallelism, final Operation<I, O> operation, final Listener<O> listener) {
+        ParamGuard.notNull(inputs, "inputs");
+        ParamGuard.notNull(operation, "operation");
+        ParamGuard.notNull(listener, "listener");
+        if (parallelism <= 0) throw new IllegalArgumentException("A positive value must be provided for the 'parallelism' parameter.");
+
+        return BoundedBatch.run(inputs, parallelism, new BoundedBatch.Operation<I, O>() {
+            @Override
+            public CompletableFuture<O> apply(I input) throws VcxException {
+                return operation.apply(input);
+            }
+        }, new BoundedBatch.Listener<O>() {
+            @Override
+            public void onResult(int position, O output) {
+                listener.onResult(position, output);
+            }
+        });
+    }
+
+    /**
+     * Applies the operation to all inputs with bounded parallelism and collects the outputs.
+     *
+     * @param inputs      The inputs, pulled lazily.
+     * @param parallelism The maximum number of operations in flight.
+     * @param operation   The operation.
+     * @param <I>         The input type.
+     * @param <O>         The output type.
+     * @return A future resolving to the outputs in input order.
+     */
+    public static <I, O> CompletableFuture<List<O>> collect(Iterator<I> inputs, int parallelism, Operation<I, O> operation) {
+        final List<O> outputs = new ArrayList<O>();
+
+        return run(inputs, parallelism, operation, new Listener<O>() {
+            @Override
+            public void onResult(int position, O output) {
+                while (outputs.size() <= position) outputs.add(null);
+                outputs.set(position, output);
+            }
+        }).thenApply(new Function<Integer, List<O>>() {
+            @Override
+            public List<O> apply(Integer count) {
+                return outputs;
+            }
+        });
+    }
+}
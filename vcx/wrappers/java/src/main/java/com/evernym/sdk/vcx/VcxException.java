@@ -66,21 +66,31 @@ import com.evernym.sdk.vcx.NoAgentInfoException;
 
 import com.sun.jna.ptr.PointerByReference;
 import org.json.JSONObject;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
 
 /**
  * Thrown when an Indy specific error has occurred.
+ *
+ * The error details reported by libvcx are captured when the exception is created, as they are only available
+ * on the thread that received the error, but are only parsed once requested. Exceptions for expected error codes
+ * can be created without a stack trace, see {@link #setStackless(ErrorCode...)}.
  */
 public class VcxException extends Exception {
 
-    private static final Logger logger = LoggerFactory.getLogger("VcxException");
+    private static final VcxLogger logger = VcxLogger.getLogger("VcxException");
     private static final long serialVersionUID = 2650355290834266234L;
+    private static volatile Set<ErrorCode> stacklessCodes = Collections.emptySet();
+    private static final ThreadLocal<Boolean> creatingStackless = new ThreadLocal<Boolean>();
     private int sdkErrorCode;
+    private String  sdkErrorDetails;
     private String  sdkMessage;
     private String  sdkFullMessage;
     private String  sdkCause;
     private String sdkBacktrace;
+    private boolean sdkErrorDetailsParsed;
 
     /**
      * Initializes a new VcxException with the specified message.
@@ -90,16 +100,26 @@ public class VcxException extends Exception {
     protected VcxException(String message, int sdkErrorCode) {
         super(message);
         this.sdkErrorCode = sdkErrorCode;
-        setSdkErrorDetails();
+        this.sdkErrorDetails = currentErrorDetails();
     }
 
-    private void setSdkErrorDetails(){
+    private static String currentErrorDetails() {
+        if (!LibVcx.isInitialized()) return null;
+
         PointerByReference errorDetailsJson = new PointerByReference();
 
         LibVcx.api.vcx_get_current_error(errorDetailsJson);
 
+        return errorDetailsJson.getValue() == null ? null : errorDetailsJson.getValue().getString(0);
+    }
+
+    private synchronized void parseSdkErrorDetails() {
+        if (sdkErrorDetailsParsed) return;
+        sdkErrorDetailsParsed = true;
+        if (sdkErrorDetails == null) return;
+
         try {
-            JSONObject errorDetails = new JSONObject(errorDetailsJson.getValue().getString(0));
+            JSONObject errorDetails = new JSONObject(sdkErrorDetails);
             this.sdkMessage = errorDetails.optString("error");
             this.sdkFullMessage = errorDetails.optString("message");
             this.sdkCause = errorDetails.optString("cause");
@@ -110,6 +130,40 @@ public class VcxException extends Exception {
         }
     }
 
+    /**
+     * Skips filling in the stack trace while an exception for a stackless error code is created.
+     */
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        if (creatingStackless.get() != null) return this;
+
+        return super.fillInStackTrace();
+    }
+
+    /**
+     * Sets the error codes that are expected in normal operation, e.g. {@link ErrorCode#WALLET_ITEM_NOT_FOUND}
+     * when a record is looked up before it is added. The exceptions for these codes are created without a stack
+     * trace, which makes them considerably cheaper. Replaces the codes set before; by default no code is stackless.
+     *
+     * @param errorCodes The error codes.
+     */
+    public static void setStackless(ErrorCode... errorCodes) {
+        Set<ErrorCode> codes = EnumSet.noneOf(ErrorCode.class);
+        Collections.addAll(codes, errorCodes);
+
+        stacklessCodes = Collections.unmodifiableSet(codes);
+    }
+
+    /**
+     * Indicates whether exceptions for the specified error code are created without a stack trace.
+     *
+     * @param errorCode The error code.
+     * @return true if the exceptions are stackless, otherwise false.
+     */
+    public static boolean isStackless(ErrorCode errorCode) {
+        return stacklessCodes.contains(errorCode);
+    }
+
     /**
      * Gets the SDK error code for the exception.
      *
@@ -124,28 +178,28 @@ public class VcxException extends Exception {
      *
      * @return The SDK error message used to construct the exception.
      */
-    public String  getSdkMessage() {return sdkMessage;}
+    public String  getSdkMessage() {parseSdkErrorDetails(); return sdkMessage;}
 
     /**
      * Gets the SDK full error message for the exception.
      *
      * @return The SDK full error message used to construct the exception.
      */
-    public String  getSdkFullMessage() {return sdkFullMessage;}
+    public String  getSdkFullMessage() {parseSdkErrorDetails(); return sdkFullMessage;}
 
     /**
      * Gets the SDK error cause for the exception.
      *
      * @return The SDK error cause used to construct the exception.
      */
-    public String  getSdkCause() {return sdkCause;}
+    public String  getSdkCause() {parseSdkErrorDetails(); return sdkCause;}
 
     /**
      * Gets the SDK error backtrace for the exception.
      *
      * @return The SDK error backtrace used to construct the exception.
      */
-    public String  getSdkBacktrace() {return sdkBacktrace;}
+    public String  getSdkBacktrace() {parseSdkErrorDetails(); return sdkBacktrace;}
 
     /**
      * Initializes a new VcxException using the specified SDK error code.
@@ -153,7 +207,7 @@ public class VcxException extends Exception {
      * @param sdkErrorCode The SDK error code to construct the exception from.
      */
     static VcxException fromSdkError(int sdkErrorCode) {
-        logger.debug("fromSdkError() called with: sdkErrorCode = [" + sdkErrorCode + "]");
+        if (logger.isDebugEnabled()) logger.debug("fromSdkError() called with: sdkErrorCode = [{}]", sdkErrorCode);
         ErrorCode errorCode = ErrorCode.UNKNOWN_ERROR;
         try {
             errorCode = ErrorCode.valueOf(sdkErrorCode);
@@ -164,6 +218,17 @@ public class VcxException extends Exception {
             //TODO: Log exception to logger
         }
 
+        if (!isStackless(errorCode)) return create(errorCode, sdkErrorCode);
+
+        creatingStackless.set(Boolean.TRUE);
+        try {
+            return create(errorCode, sdkErrorCode);
+        } finally {
+            creatingStackless.remove();
+        }
+    }
+
+    private static VcxException create(ErrorCode errorCode, int sdkErrorCode) {
         switch (errorCode) {
             case UNKNOWN_ERROR:
                 return new UnknownErrorException();
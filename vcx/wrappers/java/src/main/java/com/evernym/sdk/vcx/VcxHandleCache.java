@@ -0,0 +1,500 @@
+package com.evernym.sdk.vcx;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Keeps libvcx objects addressable by a stable key while bounding how many of them stay alive in
+ * native memory.
+ *
+ * Objects that have not been used for the configured idle time are evicted: they are serialized to a
+ * {@link Store} and their native handle is released. The next {@link #checkOut(String)} deserializes
+ * them again and returns the new handle, so callers never hold on to handles across check-outs.
+ *
+ * A handle returned by {@link #checkOut(String)} stays alive until the matching {@link #checkIn(String)};
+ * checked out objects are never evicted.
+ */
+public class VcxHandleCache {
+
+    private static final VcxLogger logger = VcxLogger.getLogger("VcxHandleCache");
+
+    /**
+     * Storage for the serialized form of evicted objects.
+     */
+    public interface Store {
+
+        void put(String key, String data);
+
+        String get(String key);
+
+        void remove(String key);
+    }
+
+    /**
+     * A {@link Store} keeping serialized objects on the Java heap.
+     */
+    public static class InMemoryStore implements Store {
+        private final ConcurrentHashMap<String, String> data = new ConcurrentHashMap<String, String>();
+
+        @Override
+        public void put(String key, String data) {
+            this.data.put(key, data);
+        }
+
+        @Override
+        public String get(String key) {
+            return data.get(key);
+        }
+
+        @Override
+        public void remove(String key) {
+            data.remove(key);
+        }
+    }
+
+    /**
+     * Counters of the cache.
+     */
+    public static class Stats extends VcxJava.Result {
+        private final int live, evicted;
+        private final long estimatedNativeBytes, evictions, rehydrations;
+
+        Stats(int live, int evicted, long estimatedNativeBytes, long evictions, long rehydrations) {
+            this.live = live;
+            this.evicted = evicted;
+            this.estimatedNativeBytes = estimatedNativeBytes;
+            this.evictions = evictions;
+            this.rehydrations = rehydrations;
+        }
+
+        /**
+         * @return The number of objects alive in native memory.
+         */
+        public int getLive() {
+            return live;
+        }
+
+        /**
+         * @return The number of objects only present in the store.
+         */
+        public int getEvicted() {
+            return evicted;
+        }
+
+        /**
+         * @return The estimated native memory held by live objects, based on the size of their serialized form.
+         */
+        public long getEstimatedNativeBytes() {
+            return estimatedNativeBytes;
+        }
+
+        /**
+         * @return The number of evictions since the cache was created.
+         */
+        public long getEvictions() {
+            return evictions;
+        }
+
+        /**
+         * @return The number of objects deserialized again since the cache was created.
+         */
+        public long getRehydrations() {
+            return rehydrations;
+        }
+    }
+
+    /**
+     * Native size assumed for objects whose serialized form has not been seen yet.
+     */
+    static final int DEFAULT_SIZE_ESTIMATE = 4096;
+
+    private static final class Entry {
+        private final String key;
+        private final VcxObjectType type;
+        private int handle;
+        private int checkOuts;
+        private long lastUsed;
+        private int sizeEstimate = DEFAULT_SIZE_ESTIMATE;
+        private boolean removed;
+        private CompletableFuture<Integer> eviction;
+        private CompletableFuture<Integer> loading;
+
+        private Entry(String key, VcxObjectType type, int handle, long lastUsed) {
+            this.key = key;
+            this.type = type;
+            this.handle = handle;
+            this.lastUsed = lastUsed;
+        }
+    }
+
+    private final Store store;
+    private final long idleNanos;
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<String, Entry>();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong rehydrations = new AtomicLong();
+
+    /**
+     * @param store    The store receiving the serialized form of evicted objects.
+     * @param idleTime How long an object must be unused before it can be evicted.
+     * @param unit     The unit of idleTime.
+     */
+    public VcxHandleCache(Store store, long idleTime, TimeUnit unit) {
+        ParamGuard.notNull(store, "store");
+        ParamGuard.notNull(unit, "unit");
+        if (idleTime < 0) throw new IllegalArgumentException("A non-negative value must be provided for the 'idleTime' parameter.");
+
+        this.store = store;
+        this.idleNanos = unit.toNanos(idleTime);
+    }
+
+    /**
+     * Starts tracking a live object.
+     *
+     * @param key    The key the object is addressed by.
+     * @param type   The kind of object.
+     * @param handle The live handle of the object.
+     */
+    public void put(String key, VcxObjectType type, int handle) {
+        ParamGuard.notNullOrWhiteSpace(key, "key");
+        ParamGuard.notNull(type, "type");
+
+        Entry previous = entries.put(key, new Entry(key, type, handle, System.nanoTime()));
+        if (previous != null) logger.warn("put() replaced the object tracked for key = [{}]", key);
+    }
+
+    /**
+     * Starts tracking an object that is only available in serialized form. It is deserialized on first check-out.
+     *
+     * @param key  The key the object is addressed by.
+     * @param type The kind of object.
+     * @param data The serialized object.
+     */
+    public void putSerialized(String key, VcxObjectType type, String data) {
+        ParamGuard.notNullOrWhiteSpace(key, "key");
+        ParamGuard.notNull(type, "type");
+        ParamGuard.notNull(data, "data");
+
+        store.put(key, data);
+        Entry entry = new Entry(key, type, 0, System.nanoTime());
+        entry.sizeEstimate = data.length();
+        entries.put(key, entry);
+    }
+
+    /**
+     * Gets the live handle of an object, deserializing it from the store if it was evicted.
+     * The object is not evicted until {@link #checkIn(String)} is called with the same key.
+     *
+     * @param key The key of the object.
+     * @return A future that resolves to the live handle.
+     */
+    public CompletableFuture<Integer> checkOut(String key) {
+        final Entry entry = getEntry(key);
+
+        synchronized (entry) {
+            entry.checkOuts++;
+            entry.lastUsed = System.nanoTime();
+
+            if (entry.handle != 0 && entry.eviction == null) return CompletableFuture.completedFuture(entry.handle);
+            if (entry.loading != null) return checkInOnFailure(entry, entry.loading);
+
+            CompletableFuture<?> previous = entry.eviction != null ? entry.eviction : CompletableFuture.completedFuture(null);
+            CompletableFuture<Integer> loading = previous.handle(new BiFunction<Object, Throwable, Void>() {
+                @Override
+                public Void apply(Object ignored, Throwable e) {
+                    return null;
+                }
+            }).thenCompose(new Function<Void, CompletionStage<Integer>>() {
+                @Override
+                public CompletionStage<Integer> apply(Void ignored) {
+                    return rehydrate(entry);
+                }
+            });
+
+            // rehydrate() clears the field under this lock, so it can only have done so already on this thread
+            if (!loading.isDone()) entry.loading = loading;
+
+            return checkInOnFailure(entry, loading);
+        }
+    }
+
+    /**
+     * Ends a check-out started with {@link #checkOut(String)}.
+     *
+     * @param key The key of the object.
+     */
+    public void checkIn(String key) {
+        Entry entry = getEntry(key);
+
+        synchronized (entry) {
+            if (entry.checkOuts > 0) entry.checkOuts--;
+            entry.lastUsed = System.nanoTime();
+        }
+    }
+
+    /**
+     * Evicts every object that is not checked out and has been idle for longer than the idle time.
+     *
+     * @return A future that resolves to the number of evicted objects.
+     */
+    public CompletableFuture<Integer> evictIdle() {
+        long now = System.nanoTime();
+        List<CompletableFuture<Integer>> evictions = new ArrayList<CompletableFuture<Integer>>();
+
+        for (Entry entry : entries.values()) {
+            synchronized (entry) {
+                if (now - entry.lastUsed < idleNanos) continue;
+            }
+            evictions.add(evict(entry));
+        }
+
+        return sum(evictions);
+    }
+
+    /**
+     * Evicts an object now unless it is checked out.
+     *
+     * @param key The key of the object.
+     * @return A future that resolves to 1 if the object was evicted, otherwise 0.
+     */
+    public CompletableFuture<Integer> evict(String key) {
+        return evict(getEntry(key));
+    }
+
+    /**
+     * Stops tracking an object, releasing its native handle and removing it from the store.
+     *
+     * @param key The key of the object.
+     * @throws VcxException Thrown if an error occurs when calling the underlying SDK.
+     */
+    public void remove(String key) throws VcxException {
+        ParamGuard.notNull(key, "key");
+
+        Entry entry = entries.remove(key);
+        if (entry == null) return;
+
+        int handle = 0;
+        synchronized (entry) {
+            // A pending eviction or rehydration sees the mark and releases the handle it ends up with
+            entry.removed = true;
+            if (entry.handle != 0 && entry.eviction == null) {
+                handle = entry.handle;
+                entry.handle = 0;
+            }
+        }
+
+        // An eviction only writes to the store under the entry lock, after checking the mark
+        store.remove(key);
+
+        if (handle != 0) entry.type.release(handle);
+    }
+
+    /**
+     * Checks whether an object is tracked.
+     *
+     * @param key The key of the object.
+     * @return true if the object is tracked, otherwise false.
+     */
+    public boolean contains(String key) {
+        return entries.containsKey(key);
+    }
+
+    /**
+     * @return The counters of the cache.
+     */
+    public Stats getStats() {
+        int live = 0, evicted = 0;
+        long bytes = 0;
+
+        for (Entry entry : entries.values()) {
+            synchronized (entry) {
+                if (entry.handle != 0) {
+                    live++;
+                    bytes += entry.sizeEstimate;
+                } else {
+                    evicted++;
+                }
+            }
+        }
+
+        return new Stats(live, evicted, bytes, evictions.get(), rehydrations.get());
+    }
+
+    /*
+     * EVICTION
+     */
+
+    private CompletableFuture<Integer> evict(final Entry entry) {
+        final int handle;
+
+        synchronized (entry) {
+            if (entry.checkOuts > 0 || entry.handle == 0 || entry.eviction != null || entry.loading != null) return CompletableFuture.completedFuture(0);
+
+            handle = entry.handle;
+            CompletableFuture<String> serialized;
+            try {
+                serialized = entry.type.serialize(handle);
+            } catch (VcxException e) {
+                return failed(e);
+            }
+
+            CompletableFuture<Integer> eviction = serialized.thenApply(new Function<String, Integer>() {
+                @Override
+                public Integer apply(String data) {
+                    boolean removed;
+                    synchronized (entry) {
+                        entry.eviction = null;
+                        removed = entry.removed;
+
+                        // Removed while being serialized: drop the state and release the handle remove() left alone
+                        if (removed) {
+                            entry.handle = 0;
+                        } else {
+                            store.put(entry.key, data);
+                            entry.sizeEstimate = data.length();
+
+                            // Checked out while being serialized: keep the object alive
+                            if (entry.checkOuts > 0 || entry.handle != handle) return 0;
+
+                            entry.handle = 0;
+                        }
+                    }
+
+                    release(entry, handle);
+                    if (removed) return 0;
+
+                    evictions.incrementAndGet();
+                    return 1;
+                }
+            });
+
+            eviction.whenComplete(new BiConsumer<Integer, Throwable>() {
+                @Override
+                public void accept(Integer evicted, Throwable e) {
+                    if (e == null) return;
+                    synchronized (entry) {
+                        entry.eviction = null;
+                        if (!entry.removed || entry.handle != handle) return;
+                        entry.handle = 0;
+                    }
+                    release(entry, handle);
+                }
+            });
+
+            // The callbacks above need this lock, so they can only have run already on this thread
+            if (!eviction.isDone()) entry.eviction = eviction;
+
+            return eviction;
+        }
+    }
+
+    private CompletableFuture<Integer> rehydrate(final Entry entry) {
+        synchronized (entry) {
+            if (entry.removed) {
+                entry.loading = null;
+                return failed(removed(entry));
+            }
+            if (entry.handle != 0) {
+                entry.loading = null;
+                return CompletableFuture.completedFuture(entry.handle);
+            }
+        }
+
+        CompletableFuture<Integer> deserialized;
+        String data = store.get(entry.key);
+
+        try {
+            if (data == null) throw new IllegalStateException("The store has no data for key " + entry.key);
+            deserialized = entry.type.deserialize(data);
+        } catch (VcxException | RuntimeException e) {
+            deserialized = failed(e);
+        }
+
+        return deserialized.handle(new BiFunction<Integer, Throwable, Integer>() {
+            @Override
+            public Integer apply(Integer handle, Throwable e) {
+                boolean removed;
+                synchronized (entry) {
+                    entry.loading = null;
+
+                    if (e != null) {
+                        throw e instanceof RuntimeException ? (RuntimeException) e : new CompletionException(e);
+                    }
+
+                    removed = entry.removed;
+                    if (!removed) entry.handle = handle;
+                }
+
+                // Removed while being deserialized: nobody else will release the new handle
+                if (removed) {
+                    release(entry, handle);
+                    throw removed(entry);
+                }
+
+                rehydrations.incrementAndGet();
+                return handle;
+            }
+        });
+    }
+
+    /**
+     * Ends the check-out of a caller whose handle could not be obtained.
+     */
+    private static CompletableFuture<Integer> checkInOnFailure(final Entry entry, CompletableFuture<Integer> loading) {
+        return loading.whenComplete(new BiConsumer<Integer, Throwable>() {
+            @Override
+            public void accept(Integer handle, Throwable e) {
+                if (e == null) return;
+                synchronized (entry) {
+                    if (entry.checkOuts > 0) entry.checkOuts--;
+                }
+            }
+        });
+    }
+
+    private static void release(Entry entry, int handle) {
+        try {
+            entry.type.release(handle);
+        } catch (VcxException e) {
+            logger.warn("Failed to release handle = [{}], key = [{}]", handle, entry.key);
+        }
+    }
+
+    private static IllegalStateException removed(Entry entry) {
+        return new IllegalStateException("The object for key " + entry.key + " was removed");
+    }
+
+    private Entry getEntry(String key) {
+        ParamGuard.notNull(key, "key");
+
+        Entry entry = entries.get(key);
+        if (entry == null) throw new IllegalArgumentException("No object is tracked for key " + key);
+
+        return entry;
+    }
+
+    private static CompletableFuture<Integer> sum(final List<CompletableFuture<Integer>> futures) {
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).thenApply(new Function<Void, Integer>() {
+            @Override
+            public Integer apply(Void ignored) {
+                int total = 0;
+                for (CompletableFuture<Integer> future : futures) total += future.join();
+                return total;
+            }
+        });
+    }
+
+    private static <T> CompletableFuture<T> failed(Throwable e) {
+        CompletableFuture<T> future = new CompletableFuture<T>();
+        future.completeExceptionally(e);
+        return future;
+    }
+}
@@ -5,14 +5,11 @@ import org.apache.commons.lang3.builder.EqualsBuilder;
 import org.apache.commons.lang3.builder.HashCodeBuilder;
 import org.apache.commons.lang3.builder.ToStringBuilder;
 import org.apache.commons.lang3.builder.ToStringStyle;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import org.hyperledger.indy.sdk.dispatch.CommandRegistry;
 
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicInteger;
 
 import java.util.concurrent.CompletableFuture;
 
@@ -22,7 +19,7 @@ import java.util.concurrent.CompletableFuture;
  */
 public class VcxJava {
 
-	private static final Logger logger = LoggerFactory.getLogger("VcxJava");
+	private static final VcxLogger logger = VcxLogger.getLogger("VcxJava");
 	/*
 	 * API
 	 */
@@ -36,8 +33,7 @@ public class VcxJava {
 		 * FUTURES
 		 */
 
-		private static AtomicInteger atomicInteger = new AtomicInteger();
-		private static Map<Integer, CompletableFuture<?>> futures = new ConcurrentHashMap<Integer, CompletableFuture<?>>();
+		private static final CommandRegistry commands = LibVcx.getCommandRegistry();
 
 		/**
 		 * Generates and returns a new command handle.
@@ -46,7 +42,7 @@ public class VcxJava {
 		 */
 		static int newCommandHandle() {
 
-			return atomicInteger.incrementAndGet();
+			return commands.newHandle();
 		}
 
 		/**
@@ -57,10 +53,8 @@ public class VcxJava {
 		 */
 		protected static int addFuture(CompletableFuture<?> future) {
 
-			int commandHandle = newCommandHandle();
-			assert(! futures.containsKey(commandHandle));
-			futures.put(commandHandle, future);
-			logger.debug("added future with command handle: {}", commandHandle);
+			int commandHandle = commands.add(future);
+			if (logger.isDebugEnabled()) logger.debug("added future with command handle: {}", commandHandle);
 			return commandHandle;
 		}
 
@@ -68,12 +62,13 @@ public class VcxJava {
 		 * Stops tracking the future associated with the provided command handle and returns it.
 		 * 
 		 * @param commandHandle The command handle for the future to stop tracking.
-		 * @return The future associated with the command handle.
+		 * @return The future associated with the command handle, or a detached future if the command already
+		 * timed out, so that late callbacks are dropped.
 		 */
 		protected static CompletableFuture<?> removeFuture(int commandHandle) {
-			logger.debug("removeFuture: callback completed for command handle: {}", commandHandle);
-			CompletableFuture<?> future = futures.remove(commandHandle);
-			assert(future != null);
+			if (logger.isDebugEnabled()) logger.debug("removeFuture: callback completed for command handle: {}", commandHandle);
+			CompletableFuture<?> future = commands.remove(commandHandle);
+			if (future == null) return new CompletableFuture<Void>();
 
 			return future;
 		}
@@ -102,6 +97,7 @@ public class VcxJava {
 			}
 
 			if (! ErrorCode.SUCCESS.equals(errorCode)) {
+				commands.getInstrumentation().errorReturned(err, errorCode.name());
 				future.completeExceptionally(VcxException.fromSdkError(err));
 
 				return false;
@@ -120,7 +116,10 @@ public class VcxJava {
 		protected static void checkCallback(int err) throws VcxException {
 
 			ErrorCode errorCode = ErrorCode.valueOf(err);
-			if (! ErrorCode.SUCCESS.equals(errorCode)) throw VcxException.fromSdkError(err);
+			if (! ErrorCode.SUCCESS.equals(errorCode)) {
+				commands.getInstrumentation().errorReturned(err, errorCode != null ? errorCode.name() : null);
+				throw VcxException.fromSdkError(err);
+			}
 		}
 
 		/**
@@ -132,9 +131,10 @@ public class VcxJava {
 		protected static void checkResult(int err) throws VcxException {
 			ErrorCode errorCode = ErrorCode.valueOf(err);
 			if (! ErrorCode.SUCCESS.equals(errorCode)){
+				commands.getInstrumentation().errorReturned(err, errorCode != null ? errorCode.name() : null);
 				throw VcxException.fromSdkError(err);
 			} else{
-				logger.debug("checkResult() returned: " + err);
+				if (logger.isDebugEnabled()) logger.debug("checkResult() returned: {}", err);
 			}
 		}
 
@@ -151,6 +151,7 @@ public class VcxJava {
 			ErrorCode errorCode = ErrorCode.valueOf(err);
 			if (! ErrorCode.SUCCESS.equals(errorCode)) {
 
+				commands.getInstrumentation().errorReturned(err, errorCode != null ? errorCode.name() : null);
 				VcxException vcxException = VcxException.fromSdkError(err);
 				future.completeExceptionally(vcxException);
 
@@ -160,6 +161,35 @@ public class VcxJava {
 			return true;
 		}
 
+		/**
+		 * Throws an VcxException if the error code returned by the native function does not indicate success.
+		 * The command was rejected synchronously and its callback will never come, so its future is no longer tracked.
+		 *
+		 * @param commandHandle The command handle the future is being tracked against.
+		 * @param err           The error code returned by the native function.
+		 * @throws VcxException Thrown if the error code does not indicate success.
+		 */
+		protected static void checkResult(int commandHandle, int err) throws VcxException {
+
+			if (err != ErrorCode.SUCCESS.value()) commands.discard(commandHandle);
+			checkResult(err);
+		}
+
+		/**
+		 * Sets the future of a command with an exception if the error code returned by the native function does
+		 * not indicate success, and stops tracking it.
+		 *
+		 * @param commandHandle The command handle the future is being tracked against.
+		 * @param future        The future.
+		 * @param err           The error code returned by the native function.
+		 * @return true if the error code indicated Success, otherwise false.
+		 */
+		protected static boolean checkResult(int commandHandle, CompletableFuture<?> future, int err) {
+
+			if (err != ErrorCode.SUCCESS.value()) commands.discard(commandHandle);
+			return checkResult(future, err);
+		}
+
 		/*
 		 * OBJECT METHODS
 		 */
@@ -0,0 +1,137 @@
+package com.evernym.sdk.vcx;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Logging facility used by the Java wrapper of libvcx.
+ *
+ * Messages are SLF4J format strings; arguments are only rendered when the message is written.
+ * Call sites that pass primitives guard the call with {@link #isDebugEnabled()} so that nothing is
+ * boxed or allocated while debug logging is off.
+ *
+ * Debug messages of a subsystem can be sampled so that only one in every N is written, either with
+ * {@link #setSampleRate(String, int)} or with the system property
+ * {@code com.evernym.sdk.vcx.log.sampleRate.<subsystem>}.
+ */
+public final class VcxLogger {
+
+    private static final String SAMPLE_RATE_PROPERTY_PREFIX = "com.evernym.sdk.vcx.log.sampleRate.";
+    private static final ConcurrentHashMap<String, VcxLogger> loggers = new ConcurrentHashMap<String, VcxLogger>();
+
+    private final String subsystem;
+    private final Logger logger;
+    private final AtomicLong counter = new AtomicLong();
+    private volatile int sampleRate;
+
+    private VcxLogger(String subsystem) {
+
+        this.subsystem = subsystem;
+        this.logger = LoggerFactory.getLogger(subsystem);
+        this.sampleRate = Math.max(1, Integer.getInteger(SAMPLE_RATE_PROPERTY_PREFIX + subsystem, 1));
+    }
+
+    /**
+     * Gets the logger of a subsystem. Loggers are created once per subsystem.
+     *
+     * @param subsystem The subsystem, also used as SLF4J logger name.
+     * @return The logger.
+     */
+    public static VcxLogger getLogger(String subsystem) {
+
+        ParamGuard.notNull(subsystem, "subsystem");
+
+        VcxLogger logger = loggers.get(subsystem);
+
+        if (logger == null) {
+            logger = new VcxLogger(subsystem);
+            VcxLogger existing = loggers.putIfAbsent(subsystem, logger);
+            if (existing != null) logger = existing;
+        }
+
+        return logger;
+    }
+
+    /**
+     * Writes only one in every sampleRate debug messages of a subsystem.
+     *
+     * @param subsystem  The subsystem.
+     * @param sampleRate The sample rate; 1 writes every message.
+     */
+    public static void setSampleRate(String subsystem, int sampleRate) {
+
+        if (sampleRate <= 0) throw new IllegalArgumentException("A positive value must be provided for the 'sampleRate' parameter.");
+
+        getLogger(subsystem).sampleRate = sampleRate;
+    }
+
+    /**
+     * Gets the subsystem of the logger.
+     *
+     * @return The subsystem.
+     */
+    public String getSubsystem() {
+
+        return subsystem;
+    }
+
+    /**
+     * Checks whether debug messages are enabled, without consuming a sample.
+     *
+     * @return true if debug messages may be written, otherwise false.
+     */
+    public boolean isDebugEnabled() {
+
+        return logger.isDebugEnabled();
+    }
+
+    public void debug(String message) {
+
+        if (logger.isDebugEnabled() && sample()) logger.debug(message);
+    }
+
+    public void debug(String format, Object argument) {
+
+        if (logger.isDebugEnabled() && sample()) logger.debug(format, argument);
+    }
+
+    public void debug(String format, Object argument1, Object argument2) {
+
+        if (logger.isDebugEnabled() && sample()) logger.debug(format, argument1, argument2);
+    }
+
+    public void debug(String format, Object... arguments) {
+
+        if (logger.isDebugEnabled() && sample()) logger.debug(format, arguments);
+    }
+
+    public void warn(String message) {
+
+        logger.warn(message);
+    }
+
+    public void warn(String format, Object... arguments) {
+
+        logger.warn(format, arguments);
+    }
+
+    public void error(String message) {
+
+        logger.error(message);
+    }
+
+    public void error(String format, Object... arguments) {
+
+        logger.error(format, arguments);
+    }
+
+    boolean sample() {
+
+        int rate = sampleRate;
+
+        return rate == 1 || counter.getAndIncrement() % rate == 0;
+    }
+}
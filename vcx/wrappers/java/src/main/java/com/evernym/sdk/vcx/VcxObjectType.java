@@ -0,0 +1,253 @@
+package com.evernym.sdk.vcx;
+
+import com.evernym.sdk.vcx.connection.ConnectionApi;
+import com.evernym.sdk.vcx.credential.CredentialApi;
+import com.evernym.sdk.vcx.credentialDef.CredentialDefApi;
+import com.evernym.sdk.vcx.issuer.IssuerApi;
+import com.evernym.sdk.vcx.proof.DisclosedProofApi;
+import com.evernym.sdk.vcx.proof.ProofApi;
+import com.evernym.sdk.vcx.schema.SchemaApi;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
+
+/**
+ * Kinds of libvcx objects that can be serialized, deserialized and released through a handle.
+ */
+public enum VcxObjectType {
+    CONNECTION {
+        @Override
+        public CompletableFuture<String> serialize(int handle) throws VcxException {
+            return ConnectionApi.connectionSerialize(handle);
+        }
+
+        @Override
+        public CompletableFuture<Integer> deserialize(String data) throws VcxException {
+            return ConnectionApi.connectionDeserialize(data);
+        }
+
+        @Override
+        public int release(int handle) throws VcxException {
+            return ConnectionApi.connectionRelease(handle);
+        }
+    },
+    ISSUER_CREDENTIAL {
+        @Override
+        public CompletableFuture<String> serialize(int handle) throws VcxException {
+            return IssuerApi.issuerCredentialSerialize(handle);
+        }
+
+        @Override
+        public CompletableFuture<Integer> deserialize(String data) throws VcxException {
+            return IssuerApi.issuerCredentialDeserialize(data);
+        }
+
+        @Override
+        public int release(int handle) throws VcxException {
+            return IssuerApi.issuerCredentialRelease(handle);
+        }
+    },
+    CREDENTIAL {
+        @Override
+        public CompletableFuture<String> serialize(int handle) throws VcxException {
+            return CredentialApi.credentialSerialize(handle);
+        }
+
+        @Override
+        public CompletableFuture<Integer> deserialize(String data) throws VcxException {
+            return CredentialApi.credentialDeserialize(data);
+        }
+
+        @Override
+        public int release(int handle) throws VcxException {
+            return CredentialApi.credentialRelease(handle);
+        }
+    },
+    PROOF {
+        @Override
+        public CompletableFuture<String> serialize(int handle) throws VcxException {
+            return ProofApi.proofSerialize(handle);
+        }
+
+        @Override
+        public CompletableFuture<Integer> deserialize(String data) throws VcxException {
+            return ProofApi.proofDeserialize(data);
+        }
+
+        @Override
+        public int release(int handle) throws VcxException {
+            return ProofApi.proofRelease(handle);
+        }
+    },
+    DISCLOSED_PROOF {
+        @Override
+        public CompletableFuture<String> serialize(int handle) throws VcxException {
+            return DisclosedProofApi.proofSerialize(handle);
+        }
+
+        @Override
+        public CompletableFuture<Integer> deserialize(String data) throws VcxException {
+            return DisclosedProofApi.proofDeserialize(data);
+        }
+
+        @Override
+        public int release(int handle) throws VcxException {
+            return DisclosedProofApi.proofRelease(handle);
+        }
+    },
+    SCHEMA {
+        @Override
+        public CompletableFuture<String> serialize(int handle) throws VcxException {
+            return SchemaApi.schemaSerialize(handle);
+        }
+
+        @Override
+        public CompletableFuture<Integer> deserialize(String data) throws VcxException {
+            return SchemaApi.schemaDeserialize(data);
+        }
+
+        @Override
+        public int release(int handle) throws VcxException {
+            return SchemaApi.schemaRelease(handle);
+        }
+    },
+    CREDENTIAL_DEF {
+        @Override
+        public CompletableFuture<String> serialize(int handle) throws VcxException {
+            return CredentialDefApi.credentialDefSerialize(handle);
+        }
+
+        @Override
+        public CompletableFuture<Integer> deserialize(String data) throws VcxException {
+            return CredentialDefApi.credentialDefDeserialize(data);
+        }
+
+        @Override
+        public int release(int handle) throws VcxException {
+            return CredentialDefApi.credentialDefRelease(handle);
+        }
+    };
+
+    /**
+     * Serializes the object of a handle.
+     *
+     * @param handle The handle.
+     * @return A future that resolves to the serialized object.
+     * @throws VcxException Thrown if an error occurs when calling the underlying SDK.
+     */
+    public abstract CompletableFuture<String> serialize(int handle) throws VcxException;
+
+    /**
+     * Creates an object from its serialized form.
+     *
+     * @param data The serialized object.
+     * @return A future that resolves to the handle of the new object.
+     * @throws VcxException Thrown if an error occurs when calling the underlying SDK.
+     */
+    public abstract CompletableFuture<Integer> deserialize(String data) throws VcxException;
+
+    /**
+     * Releases the object of a handle.
+     *
+     * @param handle The handle.
+     * @return The result code of the SDK.
+     * @throws VcxException Thrown if an error occurs when calling the underlying SDK.
+     */
+    public abstract int release(int handle) throws VcxException;
+
+    /**
+     * Serializes many objects with bounded parallelism, handing every serialized object to the
+     * listener as soon as it is available.
+     *
+     * @param handles     The handles.
+     * @param parallelism The maximum number of calls in flight.
+     * @param listener    Receives the serialized objects with the position of their handle.
+     * @return A future that resolves to the number of serialized objects.
+     */
+    public CompletableFuture<Integer> serializeAll(int[] handles, int parallelism, VcxBatch.Listener<String> listener) {
+        ParamGuard.notNull(handles, "handles");
+
+        return VcxBatch.run(iterator(handles), parallelism, new VcxBatch.Operation<Integer, String>() {
+            @Override
+            public CompletableFuture<String> apply(Integer handle) throws VcxException {
+                return serialize(handle);
+            }
+        }, listener);
+    }
+
+    /**
+     * Serializes many objects with bounded parallelism.
+     *
+     * @param handles     The handles.
+     * @param parallelism The maximum number of calls in flight.
+     * @return A future that resolves to the serialized objects in the order of their handles.
+     */
+    public CompletableFuture<List<String>> serializeAll(int[] handles, int parallelism) {
+        ParamGuard.notNull(handles, "handles");
+
+        return VcxBatch.collect(iterator(handles), parallelism, new VcxBatch.Operation<Integer, String>() {
+            @Override
+            public CompletableFuture<String> apply(Integer handle) throws VcxException {
+                return serialize(handle);
+            }
+        });
+    }
+
+    /**
+     * Deserializes many objects with bounded parallelism, handing every new handle to the listener
+     * as soon as it is available. The stream is consumed lazily.
+     *
+     * @param data        The serialized objects.
+     * @param parallelism The maximum number of calls in flight.
+     * @param listener    Receives the new handles with the position of their serialized object.
+     * @return A future that resolves to the number of deserialized objects.
+     */
+    public CompletableFuture<Integer> deserializeAll(Stream<String> data, int parallelism, VcxBatch.Listener<Integer> listener) {
+        ParamGuard.notNull(data, "data");
+
+        return VcxBatch.run(data.iterator(), parallelism, new VcxBatch.Operation<String, Integer>() {
+            @Override
+            public CompletableFuture<Integer> apply(String serialized) throws VcxException {
+                return deserialize(serialized);
+            }
+        }, listener);
+    }
+
+    /**
+     * Deserializes many objects with bounded parallelism.
+     *
+     * @param data        The serialized objects.
+     * @param parallelism The maximum number of calls in flight.
+     * @return A future that resolves to the new handles in the order of their serialized objects.
+     */
+    public CompletableFuture<List<Integer>> deserializeAll(Stream<String> data, int parallelism) {
+        ParamGuard.notNull(data, "data");
+
+        return VcxBatch.collect(data.iterator(), parallelism, new VcxBatch.Operation<String, Integer>() {
+            @Override
+            public CompletableFuture<Integer> apply(String serialized) throws VcxException {
+                return deserialize(serialized);
+            }
+        });
+    }
+
+    private static Iterator<Integer> iterator(final int[] handles) {
+        return new Iterator<Integer>() {
+            private int next;
+
+            @Override
+            public boolean hasNext() {
+                return next < handles.length;
+            }
+
+            @Override
+            public Integer next() {
+                if (next >= handles.length) throw new NoSuchElementException();
+                return handles[next++];
+            }
+        };
+    }
+}
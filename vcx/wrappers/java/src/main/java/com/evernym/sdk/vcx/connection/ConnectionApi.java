@@ -9,12 +9,10 @@ import com.evernym.sdk.vcx.LibVcx;
 import com.evernym.sdk.vcx.ParamGuard;
 import com.evernym.sdk.vcx.VcxException;
 import com.evernym.sdk.vcx.VcxJava;
+import com.evernym.sdk.vcx.VcxLogger;
 import com.sun.jna.Callback;
 import com.sun.jna.Pointer;
 
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-
 import java.util.concurrent.CompletableFuture;
 
 /**
@@ -23,14 +21,14 @@ import java.util.concurrent.CompletableFuture;
 
 public class ConnectionApi extends VcxJava.API {
 
-	private static final Logger logger = LoggerFactory.getLogger("ConnectionApi");
+	private static final VcxLogger logger = VcxLogger.getLogger("ConnectionApi");
 
 	private static Callback vcxConnectionCreateCB = new Callback() {
 		// TODO: This callback and jna definition needs to be fixed for this API
 		// it should accept connection handle as well
 		@SuppressWarnings({"unused", "unchecked"})
 		public void callback(int commandHandle, int err, int connectionHandle) {
-			logger.debug("callback() called with: commandHandle = [" + commandHandle + "], err = [" + err + "], connectionHandle = [" + connectionHandle + "]");
+			if (logger.isDebugEnabled()) logger.debug("callback() called with: commandHandle = [{}], err = [{}], connectionHandle = [{}]", commandHandle, err, connectionHandle);
 			CompletableFuture<Integer> future = (CompletableFuture<Integer>) removeFuture(commandHandle);
 			if (! checkCallback(future, err)) return;
 			Integer result = connectionHandle;
@@ -49,14 +47,14 @@ public class ConnectionApi extends VcxJava.API {
 				sourceId,
 				vcxConnectionCreateCB
 		);
-		checkResult(result);
+		checkResult(commandHandle, result);
 		return future;
 	}
 
 	private static Callback vcxUpdateStateCB = new Callback() {
 		@SuppressWarnings({"unused", "unchecked"})
 		public void callback(int commandHandle, int err, int s) {
-			logger.debug("callback() called with: commandHandle = [" + commandHandle + "], err = [" + err + "], s = [" + s + "]");
+			if (logger.isDebugEnabled()) logger.debug("callback() called with: commandHandle = [{}], err = [{}], s = [{}]", commandHandle, err, s);
 			CompletableFuture<Integer> future = (CompletableFuture<Integer>) removeFuture(commandHandle);
 			if (! checkCallback(future, err)) return;
 			Integer result = s;
@@ -65,7 +63,7 @@ public class ConnectionApi extends VcxJava.API {
 	};
 
 	public static CompletableFuture<Integer> vcxConnectionUpdateState(int connectionHandle) throws VcxException {
-		logger.debug("vcxConnectionUpdateState() called with: connectionHandle = [" + connectionHandle + "]");
+		if (logger.isDebugEnabled()) logger.debug("vcxConnectionUpdateState() called with: connectionHandle = [{}]", connectionHandle);
 		CompletableFuture<Integer> future = new CompletableFuture<>();
 		int commandHandle = addFuture(future);
 
@@ -74,12 +72,12 @@ public class ConnectionApi extends VcxJava.API {
 				connectionHandle,
 				vcxUpdateStateCB
 		);
-		checkResult(result);
+		checkResult(commandHandle, result);
 		return future;
 	}
 
 	public static CompletableFuture<Integer> vcxConnectionUpdateStateWithMessage(int connectionHandle, String message) throws VcxException {
-		logger.debug("vcxConnectionUpdateState() called with: connectionHandle = [" + connectionHandle + "]");
+		if (logger.isDebugEnabled()) logger.debug("vcxConnectionUpdateState() called with: connectionHandle = [{}]", connectionHandle);
 		CompletableFuture<Integer> future = new CompletableFuture<>();
 		int commandHandle = addFuture(future);
 
@@ -89,14 +87,14 @@ public class ConnectionApi extends VcxJava.API {
 				message,
 				vcxUpdateStateCB
 		);
-		checkResult(result);
+		checkResult(commandHandle, result);
 		return future;
 	}
 
 	private static Callback vcxCreateConnectionWithInviteCB = new Callback() {
 		@SuppressWarnings({"unused", "unchecked"})
 		public void callback(int commandHandle, int err, int connectionHandle) {
-			logger.debug("callback() called with: commandHandle = [" + commandHandle + "], err = [" + err + "], connectionHandle = [" + connectionHandle + "]");
+			if (logger.isDebugEnabled()) logger.debug("callback() called with: commandHandle = [{}], err = [{}], connectionHandle = [{}]", commandHandle, err, connectionHandle);
 			CompletableFuture<Integer> future = (CompletableFuture<Integer>) removeFuture(commandHandle);
 			if (! checkCallback(future, err)) return;
 			// TODO complete with exception if we find error
@@ -113,7 +111,7 @@ public class ConnectionApi extends VcxJava.API {
 	public static CompletableFuture<Integer> vcxCreateConnectionWithInvite(String invitationId, String inviteDetails) throws VcxException {
 		ParamGuard.notNullOrWhiteSpace(invitationId, "invitationId");
 		ParamGuard.notNullOrWhiteSpace(inviteDetails, "inviteDetails");
-		logger.debug("vcxCreateConnectionWithInvite() called with: invitationId = [" + invitationId + "], inviteDetails = [****]");
+		if (logger.isDebugEnabled()) logger.debug("vcxCreateConnectionWithInvite() called with: invitationId = [{}], inviteDetails = [****]", invitationId);
 		CompletableFuture<Integer> future = new CompletableFuture<>();
 		int commandHandle = addFuture(future);
 
@@ -123,14 +121,14 @@ public class ConnectionApi extends VcxJava.API {
 				inviteDetails,
 				vcxCreateConnectionWithInviteCB
 		);
-		checkResult(result);
+		checkResult(commandHandle, result);
 		return future;
 	}
 
 	private static Callback vcxConnectionConnectCB = new Callback() {
 		@SuppressWarnings({"unused", "unchecked"})
 		public void callback(int commandHandle, int err, String inviteDetails) {
-			logger.debug("callback() called with: commandHandle = [" + commandHandle + "], err = [" + err + "], inviteDetails = [****]");
+			if (logger.isDebugEnabled()) logger.debug("callback() called with: commandHandle = [{}], err = [{}], inviteDetails = [****]", commandHandle, err);
 			CompletableFuture<String> future = (CompletableFuture<String>) removeFuture(commandHandle);
 			if (! checkCallback(future, err)) return;
 			// TODO complete with exception if we find error
@@ -154,7 +152,7 @@ public class ConnectionApi extends VcxJava.API {
 	public static CompletableFuture<String> vcxConnectionConnect(int connectionHandle, String connectionType) throws VcxException {
 		ParamGuard.notNull(connectionHandle, "connectionHandle");
 		ParamGuard.notNullOrWhiteSpace(connectionType, "connectionType");
-		logger.debug("vcxAcceptInvitation() called with: connectionHandle = [" + connectionHandle + "], connectionType = [" + connectionType + "]");
+		if (logger.isDebugEnabled()) logger.debug("vcxAcceptInvitation() called with: connectionHandle = [{}], connectionType = [{}]", connectionHandle, connectionType);
 		CompletableFuture<String> future = new CompletableFuture<>();
 		int commandHandle = addFuture(future);
 
@@ -164,14 +162,14 @@ public class ConnectionApi extends VcxJava.API {
 				connectionType,
 				vcxConnectionConnectCB
 		);
-		checkResult(result);
+		checkResult(commandHandle, result);
 		return future;
 	}
 
 	private static Callback vcxConnectionRedirectCB = new Callback() {
 		@SuppressWarnings({"unused", "unchecked"})
 		public void callback(int commandHandle, int err) {
-			logger.debug("callback() called with: commandHandle = [" + commandHandle + "], err = [" + err + "]");
+			if (logger.isDebugEnabled()) logger.debug("callback() called with: commandHandle = [{}], err = [{}]", commandHandle, err);
 			CompletableFuture<Integer> future = (CompletableFuture<Integer>) removeFuture(commandHandle);
 			if (!checkCallback(future, err)) return;
 			future.complete(0);
@@ -181,7 +179,7 @@ public class ConnectionApi extends VcxJava.API {
 	public static CompletableFuture<Integer> vcxConnectionRedirect(int connectionHandle, int redirectConnectionHandle) throws VcxException {
 		ParamGuard.notNull(connectionHandle, "connectionHandle");
 		ParamGuard.notNull(redirectConnectionHandle, "redirectConnectionHandle");
-		logger.debug("vcxConnectionRedirect() called with: connectionHandle = [" + connectionHandle + "], redirectConnectionHandle = [" + redirectConnectionHandle + "]");
+		if (logger.isDebugEnabled()) logger.debug("vcxConnectionRedirect() called with: connectionHandle = [{}], redirectConnectionHandle = [{}]", connectionHandle, redirectConnectionHandle);
 		CompletableFuture<Integer> future = new CompletableFuture<>();
 		int commandHandle = addFuture(future);
 
@@ -191,14 +189,14 @@ public class ConnectionApi extends VcxJava.API {
 				redirectConnectionHandle,
 				vcxConnectionRedirectCB
 		);
-		checkResult(result);
+		checkResult(commandHandle, result);
 		return future;
 	}
 
 	private static Callback vcxConnectionGetRedirectDetailsCB = new Callback() {
 		@SuppressWarnings({"unused", "unchecked"})
 		public void callback(int commandHandle, int err, String redirectDetails) {
-			logger.debug("callback() called with: commandHandle = [" + commandHandle + "], err = [" + err + "], redirectDetails = [****]");
+			if (logger.isDebugEnabled()) logger.debug("callback() called with: commandHandle = [{}], err = [{}], redirectDetails = [****]", commandHandle, err);
 			CompletableFuture<String> future = (CompletableFuture<String>) removeFuture(commandHandle);
 			if (!checkCallback(future, err)) return;
 			String result = redirectDetails;
@@ -208,7 +206,7 @@ public class ConnectionApi extends VcxJava.API {
 
 	public static CompletableFuture<String> vcxConnectionGetRedirectDetails(int connectionHandle) throws VcxException {
 		ParamGuard.notNull(connectionHandle, "connectionHandle");
-		logger.debug("vcxConnectionGetRedirectDetails() called with: connectionHandle = [" + connectionHandle + "]");
+		if (logger.isDebugEnabled()) logger.debug("vcxConnectionGetRedirectDetails() called with: connectionHandle = [{}]", connectionHandle);
 		CompletableFuture<String> future = new CompletableFuture<>();
 		int commandHandle = addFuture(future);
 
@@ -217,7 +215,7 @@ public class ConnectionApi extends VcxJava.API {
 				connectionHandle,
 				vcxConnectionGetRedirectDetailsCB
 		);
-		checkResult(result);
+		checkResult(commandHandle, result);
 		return future;
 	}
 
@@ -225,7 +223,7 @@ public class ConnectionApi extends VcxJava.API {
 	private static Callback vcxConnectionSerializeCB = new Callback() {
 		@SuppressWarnings({"unused", "unchecked"})
 		public void callback(int commandHandle, int err, String serializedData) {
-			logger.debug("callback() called with: commandHandle = [" + commandHandle + "], err = [" + err + "], serializedData = [" + serializedData + "]");
+			if (logger.isDebugEnabled()) logger.debug("callback() called with: commandHandle = [{}], err = [{}], serializedData = [{}]", commandHandle, err, serializedData);
 			CompletableFuture<String> future = (CompletableFuture<String>) removeFuture(commandHandle);
 			if (! checkCallback(future, err)) return;
 			// TODO complete with exception if we find error
@@ -240,7 +238,7 @@ public class ConnectionApi extends VcxJava.API {
 
 	public static CompletableFuture<String> connectionSerialize(int connectionHandle) throws VcxException {
 		ParamGuard.notNull(connectionHandle, "connectionHandle");
-		logger.debug("connectionSerialize() called with: connectionHandle = [" + connectionHandle + "]");
+		if (logger.isDebugEnabled()) logger.debug("connectionSerialize() called with: connectionHandle = [{}]", connectionHandle);
 		CompletableFuture<String> future = new CompletableFuture<>();
 		int commandHandle = addFuture(future);
 
@@ -249,14 +247,14 @@ public class ConnectionApi extends VcxJava.API {
 				connectionHandle,
 				vcxConnectionSerializeCB
 		);
-		checkResult(result);
+		checkResult(commandHandle, result);
 		return future;
 	}
 
 	private static Callback vcxConnectionDeserializeCB = new Callback() {
 		@SuppressWarnings({"unused", "unchecked"})
 		public void callback(int commandHandle, int err, int connectionHandle) {
-			logger.debug("callback() called with: commandHandle = [" + commandHandle + "], err = [" + err + "], connectionHandle = [" + connectionHandle + "]");
+			if (logger.isDebugEnabled()) logger.debug("callback() called with: commandHandle = [{}], err = [{}], connectionHandle = [{}]", commandHandle, err, connectionHandle);
 			CompletableFuture<Integer> future = (CompletableFuture<Integer>) removeFuture(commandHandle);
 			if (! checkCallback(future, err)) return;
 			// TODO complete with exception if we find error
@@ -280,7 +278,7 @@ public class ConnectionApi extends VcxJava.API {
 				connectionData,
 				vcxConnectionDeserializeCB
 		);
-		checkResult(result);
+		checkResult(commandHandle, result);
 		return future;
 	}
 
@@ -288,7 +286,7 @@ public class ConnectionApi extends VcxJava.API {
 	private static Callback vcxConnectionDeleteCB = new Callback() {
 		@SuppressWarnings({"unused", "unchecked"})
 		public void callback(int commandHandle, int err) {
-			logger.debug("callback() called with: commandHandle = [" + commandHandle + "], err = [" + err + "]");
+			if (logger.isDebugEnabled()) logger.debug("callback() called with: commandHandle = [{}], err = [{}]", commandHandle, err);
 			CompletableFuture<Integer> future = (CompletableFuture<Integer>) removeFuture(commandHandle);
 			if (! checkCallback(future, err)) return;
 			future.complete(0);
@@ -296,19 +294,19 @@ public class ConnectionApi extends VcxJava.API {
 	};
 
 	public static CompletableFuture<Integer> deleteConnection(int connectionHandle) throws VcxException {
-		logger.debug("deleteConnection() called with: connectionHandle = [" + connectionHandle + "]");
+		if (logger.isDebugEnabled()) logger.debug("deleteConnection() called with: connectionHandle = [{}]", connectionHandle);
 		CompletableFuture<Integer> future = new CompletableFuture<>();
 		int commandHandle = addFuture(future);
 
 		int result = LibVcx.api.vcx_connection_delete_connection(commandHandle, connectionHandle, vcxConnectionDeleteCB);
-		checkResult(result);
+		checkResult(commandHandle, result);
 		return future;
 	}
 
 	private static Callback vcxConnectionInviteDetailsCB = new Callback() {
 		@SuppressWarnings({"unused", "unchecked"})
 		public void callback(int commandHandle, int err, String details) {
-			logger.debug("callback() called with: commandHandle = [" + commandHandle + "], err = [" + err + "], details = [****]");
+			if (logger.isDebugEnabled()) logger.debug("callback() called with: commandHandle = [{}], err = [{}], details = [****]", commandHandle, err);
 			CompletableFuture<String> future = (CompletableFuture<String>) removeFuture(commandHandle);
 			if (!checkCallback(future, err)) return;
 			future.complete(details);
@@ -316,17 +314,17 @@ public class ConnectionApi extends VcxJava.API {
 	};
 
 	public static CompletableFuture<String> connectionInviteDetails(int connectionHandle, int abbreviated) throws VcxException {
-		logger.debug("connectionInviteDetails() called with: connectionHandle = [" + connectionHandle + "], abbreviated = [****]");
+		if (logger.isDebugEnabled()) logger.debug("connectionInviteDetails() called with: connectionHandle = [{}], abbreviated = [****]", connectionHandle);
 		CompletableFuture<String> future = new CompletableFuture<>();
 		int commandHandle = addFuture(future);
 		int result = LibVcx.api.vcx_connection_invite_details(commandHandle, connectionHandle, abbreviated, vcxConnectionInviteDetailsCB);
-		checkResult(result);
+		checkResult(commandHandle, result);
 		return future;
 	}
 
 
 	public static int connectionRelease(int handle) throws VcxException {
-		logger.debug("connectionRelease() called with: handle = [" + handle + "]");
+		if (logger.isDebugEnabled()) logger.debug("connectionRelease() called with: handle = [{}]", handle);
 		ParamGuard.notNull(handle, "handle");
 		int result = LibVcx.api.vcx_connection_release(handle);
 		checkResult(result);
@@ -337,7 +335,7 @@ public class ConnectionApi extends VcxJava.API {
 	private static Callback vcxConnectionGetStateCB = new Callback() {
 		@SuppressWarnings({"unused", "unchecked"})
 		public void callback(int commandHandle, int err, int state) {
-			logger.debug("callback() called with: commandHandle = [" + commandHandle + "], err = [" + err + "], state = [" + state + "]");
+			if (logger.isDebugEnabled()) logger.debug("callback() called with: commandHandle = [{}], err = [{}], state = [{}]", commandHandle, err, state);
 			CompletableFuture<Integer> future = (CompletableFuture<Integer>) removeFuture(commandHandle);
 			if (! checkCallback(future, err)) return;
 			future.complete(state);
@@ -345,18 +343,18 @@ public class ConnectionApi extends VcxJava.API {
 	};
 
 	public static CompletableFuture<Integer> connectionGetState(int connnectionHandle) throws VcxException {
-		logger.debug("connectionGetState() called with: connnectionHandle = [" + connnectionHandle + "]");
+		if (logger.isDebugEnabled()) logger.debug("connectionGetState() called with: connnectionHandle = [{}]", connnectionHandle);
 		CompletableFuture<Integer> future = new CompletableFuture<>();
 		int commandHandle = addFuture(future);
 		int result = LibVcx.api.vcx_connection_get_state(commandHandle, connnectionHandle, vcxConnectionGetStateCB);
-		checkResult(result);
+		checkResult(commandHandle, result);
 		return future;
 	}
 
 	private static Callback voidCb = new Callback() {
 		@SuppressWarnings({"unused", "unchecked"})
 		public void callback(int commandHandle, int err) {
-			logger.debug("callback() called with: commandHandle = [" + commandHandle + "], err = [" + err + "]");
+			if (logger.isDebugEnabled()) logger.debug("callback() called with: commandHandle = [{}], err = [{}]", commandHandle, err);
 			CompletableFuture<Void> future = (CompletableFuture<Void>) removeFuture(commandHandle);
 			if (! checkCallback(future, err)) return;
 			Void result = null;
@@ -368,12 +366,12 @@ public class ConnectionApi extends VcxJava.API {
 			int connectionHandle,
 			String comment
 	) throws VcxException {
-		logger.debug("sendPing() called with: connectionHandle = [" + connectionHandle + "], comment = [" + comment + "]");
+		if (logger.isDebugEnabled()) logger.debug("sendPing() called with: connectionHandle = [{}], comment = [{}]", connectionHandle, comment);
 		CompletableFuture<Void> future = new CompletableFuture<>();
 		int commandHandle = addFuture(future);
 
 		int result = LibVcx.api.vcx_connection_send_ping(commandHandle, connectionHandle, comment, voidCb);
-		checkResult(result);
+		checkResult(commandHandle, result);
 
 		return future;
 	}
@@ -383,12 +381,12 @@ public class ConnectionApi extends VcxJava.API {
 			String query,
 			String comment
 	) throws VcxException {
-		logger.debug("connectionSendDiscoveryFeatures() called with: connectionHandle = [" + connectionHandle + "], query = [" + query + "], comment = [" + comment + "]");
+		if (logger.isDebugEnabled()) logger.debug("connectionSendDiscoveryFeatures() called with: connectionHandle = [{}], query = [{}], comment = [{}]", connectionHandle, query, comment);
 		CompletableFuture<Void> future = new CompletableFuture<>();
 		int commandHandle = addFuture(future);
 
 		int result = LibVcx.api.vcx_connection_send_discovery_features(commandHandle, connectionHandle, query, comment, voidCb);
-		checkResult(result);
+		checkResult(commandHandle, result);
 
 		return future;
 	}
@@ -396,7 +394,7 @@ public class ConnectionApi extends VcxJava.API {
     private static Callback vcxConnectionSendMessageCB = new Callback() {
         @SuppressWarnings({"unused", "unchecked"})
         public void callback(int commandHandle, int err, String msgId) {
-            logger.debug("callback() called with: commandHandle = [" + commandHandle + "], err = [" + err + "], msgId = [" + msgId + "]");
+            if (logger.isDebugEnabled()) logger.debug("callback() called with: commandHandle = [{}], err = [{}], msgId = [{}]", commandHandle, err, msgId);
             CompletableFuture<String> future = (CompletableFuture<String>) removeFuture(commandHandle);
             if (!checkCallback(future, err)) return;
             future.complete(msgId);
@@ -404,11 +402,11 @@ public class ConnectionApi extends VcxJava.API {
     };
 
     public static CompletableFuture<String> connectionSendMessage(int connectionHandle, String message, String sendMessageOptions) throws VcxException {
-        logger.debug("connectionSendMessage() called with: connectionHandle = [" + connectionHandle + "], message = [****], sendMessageOptions = [" + sendMessageOptions + "]");
+        if (logger.isDebugEnabled()) logger.debug("connectionSendMessage() called with: connectionHandle = [{}], message = [****], sendMessageOptions = [{}]", connectionHandle, sendMessageOptions);
         CompletableFuture<String> future = new CompletableFuture<>();
         int commandHandle = addFuture(future);
         int result = LibVcx.api.vcx_connection_send_message(commandHandle, connectionHandle, message, sendMessageOptions, vcxConnectionSendMessageCB);
-        checkResult(result);
+        checkResult(commandHandle, result);
         return future;
     }
 
@@ -436,7 +434,7 @@ public class ConnectionApi extends VcxJava.API {
         CompletableFuture<byte[]> future = new CompletableFuture<byte[]>();
         int commandHandle = addFuture(future);
         int result = LibVcx.api.vcx_connection_sign_data(commandHandle, connectionHandle, data, dataLength, vcxConnectionSignDataCB);
-        checkResult(future, result);
+        checkResult(commandHandle, future, result);
 
         return future;
     }
@@ -462,7 +460,7 @@ public class ConnectionApi extends VcxJava.API {
         CompletableFuture<Boolean> future = new CompletableFuture<Boolean>();
         int commandHandle = addFuture(future);
         int result = LibVcx.api.vcx_connection_verify_signature(commandHandle, connectionHandle, data, dataLength, signature, signatureLength, vcxConnectionVerifySignatureCB);
-        checkResult(future, result);
+        checkResult(commandHandle, future, result);
 
         return future;
     }
@@ -484,7 +482,7 @@ public class ConnectionApi extends VcxJava.API {
         CompletableFuture<String> future = new CompletableFuture<String>();
         int commandHandle = addFuture(future);
         int result = LibVcx.api.vcx_connection_get_pw_did(commandHandle, connectionHandle, vcxConnectionGetPwDidCB);
-        checkResult(result);
+        checkResult(commandHandle, result);
 
         return future;
     }
@@ -506,7 +504,7 @@ public class ConnectionApi extends VcxJava.API {
         CompletableFuture<String> future = new CompletableFuture<String>();
         int commandHandle = addFuture(future);
         int result = LibVcx.api.vcx_connection_get_pw_did(commandHandle, connectionHandle, vcxConnectionGetTheirPwDidCB);
-        checkResult(result);
+        checkResult(commandHandle, result);
 
         return future;
     }
@@ -514,7 +512,7 @@ public class ConnectionApi extends VcxJava.API {
 	private static Callback vcxConnectionInfoCB = new Callback() {
 		@SuppressWarnings({"unused", "unchecked"})
 		public void callback(int commandHandle, int err, String info) {
-			logger.debug("callback() called with: commandHandle = [" + commandHandle + "], err = [" + err + "], info = [" + info + "]");
+			if (logger.isDebugEnabled()) logger.debug("callback() called with: commandHandle = [{}], err = [{}], info = [{}]", commandHandle, err, info);
 			CompletableFuture<String> future = (CompletableFuture<String>) removeFuture(commandHandle);
 			if (! checkCallback(future, err)) return;
 			future.complete(info);
@@ -522,11 +520,11 @@ public class ConnectionApi extends VcxJava.API {
 	};
 
 	public static CompletableFuture<String> connectionInfo(int connectionHandle) throws VcxException {
-		logger.debug("connectionInfo() called with: connectionHandle = [" + connectionHandle + "]");
+		if (logger.isDebugEnabled()) logger.debug("connectionInfo() called with: connectionHandle = [{}]", connectionHandle);
 		CompletableFuture<String> future = new CompletableFuture<>();
 		int commandHandle = addFuture(future);
 		int result = LibVcx.api.vcx_connection_info(commandHandle, connectionHandle, vcxConnectionInfoCB);
-		checkResult(result);
+		checkResult(commandHandle, result);
 		return future;
 	}
 }
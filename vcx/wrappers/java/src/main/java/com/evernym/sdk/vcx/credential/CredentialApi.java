@@ -4,23 +4,21 @@ import com.evernym.sdk.vcx.LibVcx;
 import com.evernym.sdk.vcx.ParamGuard;
 import com.evernym.sdk.vcx.VcxException;
 import com.evernym.sdk.vcx.VcxJava;
+import com.evernym.sdk.vcx.VcxLogger;
 import com.sun.jna.Callback;
 
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-
 import java.util.concurrent.CompletableFuture;
 
 public class CredentialApi extends VcxJava.API {
 
-    private static final Logger logger = LoggerFactory.getLogger("CredentialApi");
+    private static final VcxLogger logger = VcxLogger.getLogger("CredentialApi");
     private CredentialApi() {
     }
 
     private static Callback vcxCredentialCreateWithMsgidCB = new Callback() {
         @SuppressWarnings({"unused", "unchecked"})
         public void callback(int command_handle, int err, int credentialHandle, String offer) {
-            logger.debug("callback() called with: command_handle = [" + command_handle + "], err = [" + err + "], credentialHandle = [" + credentialHandle + "], offer = [****]");
+            if (logger.isDebugEnabled()) logger.debug("callback() called with: command_handle = [{}], err = [{}], credentialHandle = [{}], offer = [****]", command_handle, err, credentialHandle);
             CompletableFuture<GetCredentialCreateMsgidResult> future = (CompletableFuture<GetCredentialCreateMsgidResult>) removeFuture(command_handle);
             if (!checkCallback(future, err)) return;
             GetCredentialCreateMsgidResult result = new GetCredentialCreateMsgidResult(credentialHandle, offer);
@@ -35,7 +33,7 @@ public class CredentialApi extends VcxJava.API {
     ) throws VcxException {
         ParamGuard.notNullOrWhiteSpace(sourceId, "sourceId");
         ParamGuard.notNullOrWhiteSpace(msgId, "msgId");
-        logger.debug("credentialCreateWithMsgid() called with: sourceId = [" + sourceId + "], connectionHandle = [" + connectionHandle + "], msgId = [" + msgId + "]");
+        if (logger.isDebugEnabled()) logger.debug("credentialCreateWithMsgid() called with: sourceId = [{}], connectionHandle = [{}], msgId = [{}]", sourceId, connectionHandle, msgId);
         CompletableFuture<GetCredentialCreateMsgidResult> future = new CompletableFuture<GetCredentialCreateMsgidResult>();
         int commandHandle = addFuture(future);
 
@@ -45,7 +43,7 @@ public class CredentialApi extends VcxJava.API {
                 connectionHandle,
                 msgId,
                 vcxCredentialCreateWithMsgidCB);
-        checkResult(result);
+        checkResult(commandHandle, result);
 
         return future;
 
@@ -54,7 +52,7 @@ public class CredentialApi extends VcxJava.API {
     private static Callback vcxCredentialSendRequestCB = new Callback() {
         @SuppressWarnings({"unused", "unchecked"})
         public void callback(int command_handle, int err) {
-            logger.debug("callback() called with: command_handle = [" + command_handle + "], err = [" + err + "]");
+            if (logger.isDebugEnabled()) logger.debug("callback() called with: command_handle = [{}], err = [{}]", command_handle, err);
             CompletableFuture<String> future = (CompletableFuture<String>) removeFuture(command_handle);
             if (!checkCallback(future,err)) return;
             // returning empty string from here because we don't want to complete future with null
@@ -67,7 +65,7 @@ public class CredentialApi extends VcxJava.API {
             int connectionHandle,
             int paymentHandle
     ) throws VcxException {
-        logger.debug("credentialSendRequest() called with: credentialHandle = [" + credentialHandle + "], connectionHandle = [" + connectionHandle + "], paymentHandle = [" + paymentHandle + "]");
+        if (logger.isDebugEnabled()) logger.debug("credentialSendRequest() called with: credentialHandle = [{}], connectionHandle = [{}], paymentHandle = [{}]", credentialHandle, connectionHandle, paymentHandle);
         CompletableFuture<String> future = new CompletableFuture<String>();
         int commandHandle = addFuture(future);
 
@@ -77,7 +75,7 @@ public class CredentialApi extends VcxJava.API {
                 connectionHandle,
                 paymentHandle,
                 vcxCredentialSendRequestCB);
-        checkResult(result);
+        checkResult(commandHandle, result);
 
         return future;
 
@@ -89,7 +87,7 @@ public class CredentialApi extends VcxJava.API {
             String theirPwDid,
             int paymentHandle
     ) throws VcxException {
-        logger.debug("credentialGetRequestMsg() called with: credentialHandle = [" + credentialHandle + "], myPwDid = [" + myPwDid + "], theirPwDid = [" + theirPwDid + "], paymentHandle = [" + paymentHandle + "]");
+        if (logger.isDebugEnabled()) logger.debug("credentialGetRequestMsg() called with: credentialHandle = [{}], myPwDid = [{}], theirPwDid = [{}], paymentHandle = [{}]", credentialHandle, myPwDid, theirPwDid, paymentHandle);
         CompletableFuture<String> future = new CompletableFuture<String>();
         int commandHandle = addFuture(future);
 
@@ -100,7 +98,7 @@ public class CredentialApi extends VcxJava.API {
                 theirPwDid,
                 paymentHandle,
                 vcxCredentialStringCB);
-        checkResult(result);
+        checkResult(commandHandle, result);
 
         return future;
 
@@ -109,7 +107,7 @@ public class CredentialApi extends VcxJava.API {
     private static Callback vcxCredentialStringCB = new Callback() {
         @SuppressWarnings({"unused", "unchecked"})
         public void callback(int command_handle, int err, String stringData) {
-            logger.debug("callback() called with: command_handle = [" + command_handle + "], err = [" + err + "], string = [" + stringData + "]");
+            if (logger.isDebugEnabled()) logger.debug("callback() called with: command_handle = [{}], err = [{}], string = [{}]", command_handle, err, stringData);
             CompletableFuture<String> future = (CompletableFuture<String>) removeFuture(command_handle);
             if (!checkCallback(future, err)) return;
             future.complete(stringData);
@@ -119,14 +117,14 @@ public class CredentialApi extends VcxJava.API {
     public static CompletableFuture<String> credentialSerialize(
             int credentailHandle
     ) throws VcxException {
-        logger.debug("credentialSerialize() called with: credentailHandle = [" + credentailHandle + "]");
+        if (logger.isDebugEnabled()) logger.debug("credentialSerialize() called with: credentailHandle = [{}]", credentailHandle);
         CompletableFuture<String> future = new CompletableFuture<String>();
         int commandHandle = addFuture(future);
 
         int result = LibVcx.api.vcx_credential_serialize(commandHandle,
                 credentailHandle,
                 vcxCredentialStringCB);
-        checkResult(result);
+        checkResult(commandHandle, result);
 
         return future;
 
@@ -135,7 +133,7 @@ public class CredentialApi extends VcxJava.API {
     private static Callback vcxCredentialDeserializeCB = new Callback() {
         @SuppressWarnings({"unused", "unchecked"})
         public void callback(int command_handle, int err, int credentialHandle) {
-            logger.debug("callback() called with: command_handle = [" + command_handle + "], err = [" + err + "], credentialHandle = [" + credentialHandle + "]");
+            if (logger.isDebugEnabled()) logger.debug("callback() called with: command_handle = [{}], err = [{}], credentialHandle = [{}]", command_handle, err, credentialHandle);
             CompletableFuture<Integer> future = (CompletableFuture<Integer>) removeFuture(command_handle);
             if (!checkCallback(future, err)) return;
             Integer result = credentialHandle;
@@ -154,7 +152,7 @@ public class CredentialApi extends VcxJava.API {
         int result = LibVcx.api.vcx_credential_deserialize(commandHandle,
                 serializedCredential,
                 vcxCredentialDeserializeCB);
-        checkResult(result);
+        checkResult(commandHandle, result);
 
         return future;
 
@@ -163,7 +161,7 @@ public class CredentialApi extends VcxJava.API {
     private static Callback vcxGetCredentialCB = new Callback() {
         @SuppressWarnings({"unused", "unchecked"})
         public void callback(int command_handle, int err, String credential) {
-            logger.debug("callback() called with: command_handle = [" + command_handle + "], err = [" + err + "], credential = [****]");
+            if (logger.isDebugEnabled()) logger.debug("callback() called with: command_handle = [{}], err = [{}], credential = [****]", command_handle, err);
             CompletableFuture<String> future = (CompletableFuture<String>) removeFuture(command_handle);
             if (!checkCallback(future, err)) return;
             future.complete(credential);
@@ -174,12 +172,12 @@ public class CredentialApi extends VcxJava.API {
             int credentialHandle
     ) throws VcxException {
         ParamGuard.notNull(credentialHandle, "credentialHandle");
-        logger.debug("getCredential() called with: credentialHandle = [" + credentialHandle + "]");
+        if (logger.isDebugEnabled()) logger.debug("getCredential() called with: credentialHandle = [{}]", credentialHandle);
         CompletableFuture<String> future = new CompletableFuture<String>();
         int commandHandle = addFuture(future);
 
         int result = LibVcx.api.vcx_get_credential(commandHandle, credentialHandle, vcxGetCredentialCB);
-        checkResult(result);
+        checkResult(commandHandle, result);
 
         return future;
     }
@@ -187,7 +185,7 @@ public class CredentialApi extends VcxJava.API {
     private static Callback vcxDeleteCredentialCB = new Callback() {
         @SuppressWarnings({"unused", "unchecked"})
         public void callback(int command_handle, int err) {
-            logger.debug("callback() called with: command_handle = [" + command_handle + "], err = [" + err + "]");
+            if (logger.isDebugEnabled()) logger.debug("callback() called with: command_handle = [{}], err = [{}]", command_handle, err);
             CompletableFuture<String> future = (CompletableFuture<String>) removeFuture(command_handle);
             if (!checkCallback(future,err)) return;
             // returning empty string from here because we don't want to complete future with null
@@ -199,12 +197,12 @@ public class CredentialApi extends VcxJava.API {
             int credentialHandle
     ) throws VcxException {
         ParamGuard.notNull(credentialHandle, "credentialHandle");
-        logger.debug("deleteCredential() called with: credentialHandle = [" + credentialHandle + "]");
+        if (logger.isDebugEnabled()) logger.debug("deleteCredential() called with: credentialHandle = [{}]", credentialHandle);
         CompletableFuture<String> future = new CompletableFuture<String>();
         int commandHandle = addFuture(future);
 
         int result = LibVcx.api.vcx_delete_credential(commandHandle, credentialHandle, vcxDeleteCredentialCB);
-        checkResult(result);
+        checkResult(commandHandle, result);
 
         return future;
     }
@@ -212,7 +210,7 @@ public class CredentialApi extends VcxJava.API {
     private static Callback vcxCredentialUpdateStateCB = new Callback() {
         @SuppressWarnings({"unused", "unchecked"})
         public void callback(int command_handle, int err, int state) {
-            logger.debug("callback() called with: command_handle = [" + command_handle + "], err = [" + err + "], state = [" + state + "]");
+            if (logger.isDebugEnabled()) logger.debug("callback() called with: command_handle = [{}], err = [{}], state = [{}]", command_handle, err, state);
             CompletableFuture<Integer> future = (CompletableFuture<Integer>) removeFuture(command_handle);
             if (!checkCallback(future, err)) return;
             Integer result = state;
@@ -224,12 +222,12 @@ public class CredentialApi extends VcxJava.API {
             int credentialHandle
     ) throws VcxException {
         ParamGuard.notNull(credentialHandle, "credentialHandle");
-        logger.debug("credentialUpdateState() called with: credentialHandle = [" + credentialHandle + "]");
+        if (logger.isDebugEnabled()) logger.debug("credentialUpdateState() called with: credentialHandle = [{}]", credentialHandle);
         CompletableFuture<Integer> future = new CompletableFuture<Integer>();
         int commandHandle = addFuture(future);
 
         int result = LibVcx.api.vcx_credential_update_state(commandHandle, credentialHandle, vcxCredentialUpdateStateCB);
-        checkResult(result);
+        checkResult(commandHandle, result);
 
         return future;
     }
@@ -239,12 +237,12 @@ public class CredentialApi extends VcxJava.API {
             String message
     ) throws VcxException {
         ParamGuard.notNull(credentialHandle, "credentialHandle");
-        logger.debug("credentialUpdateState() called with: credentialHandle = [" + credentialHandle + "]");
+        if (logger.isDebugEnabled()) logger.debug("credentialUpdateState() called with: credentialHandle = [{}]", credentialHandle);
         CompletableFuture<Integer> future = new CompletableFuture<Integer>();
         int commandHandle = addFuture(future);
 
         int result = LibVcx.api.vcx_credential_update_state_with_message(commandHandle, credentialHandle, message, vcxCredentialUpdateStateCB);
-        checkResult(result);
+        checkResult(commandHandle, result);
 
         return future;
     }
@@ -252,7 +250,7 @@ public class CredentialApi extends VcxJava.API {
     private static Callback vcxCredentialGetStateCB = new Callback() {
         @SuppressWarnings({"unused", "unchecked"})
         public void callback(int command_handle, int err, int state) {
-            logger.debug("callback() called with: command_handle = [" + command_handle + "], err = [" + err + "], state = [" + state + "]");
+            if (logger.isDebugEnabled()) logger.debug("callback() called with: command_handle = [{}], err = [{}], state = [{}]", command_handle, err, state);
             CompletableFuture<Integer> future = (CompletableFuture<Integer>) removeFuture(command_handle);
             if (!checkCallback(future, err)) return;
             Integer result = state;
@@ -264,19 +262,19 @@ public class CredentialApi extends VcxJava.API {
             int credentialHandle
     ) throws VcxException {
         ParamGuard.notNull(credentialHandle, "credentialHandle");
-        logger.debug("credentialGetState() called with: credentialHandle = [" + credentialHandle + "]");
+        if (logger.isDebugEnabled()) logger.debug("credentialGetState() called with: credentialHandle = [{}]", credentialHandle);
         CompletableFuture<Integer> future = new CompletableFuture<Integer>();
         int commandHandle = addFuture(future);
 
         int result = LibVcx.api.vcx_credential_get_state(commandHandle, credentialHandle, vcxCredentialGetStateCB);
-        checkResult(result);
+        checkResult(commandHandle, result);
 
         return future;
     }
 
     public static int credentialRelease(int credentialHandle) throws VcxException {
         ParamGuard.notNull(credentialHandle, "credentialHandle");
-        logger.debug("credentialRelease() called with: credentialHandle = [" + credentialHandle + "]");
+        if (logger.isDebugEnabled()) logger.debug("credentialRelease() called with: credentialHandle = [{}]", credentialHandle);
 
         int result = LibVcx.api.vcx_credential_release(credentialHandle);
         checkResult(result);
@@ -287,7 +285,7 @@ public class CredentialApi extends VcxJava.API {
     private static Callback vcxCredentialGetOffersCB = new Callback() {
         @SuppressWarnings({"unused", "unchecked"})
         public void callback(int command_handle, int err, String credential_offers) {
-            logger.debug("callback() called with: command_handle = [" + command_handle + "], err = [" + err + "], credential_offers = [****]");
+            if (logger.isDebugEnabled()) logger.debug("callback() called with: command_handle = [{}], err = [{}], credential_offers = [****]", command_handle, err);
             CompletableFuture<String> future = (CompletableFuture<String>) removeFuture(command_handle);
             if (!checkCallback(future, err)) return;
             future.complete(credential_offers);
@@ -298,12 +296,12 @@ public class CredentialApi extends VcxJava.API {
             int connectionHandle
     ) throws VcxException {
         ParamGuard.notNull(connectionHandle, "connectionHandle");
-        logger.debug("credentialGetOffers() called with: connectionHandle = [" + connectionHandle + "]");
+        if (logger.isDebugEnabled()) logger.debug("credentialGetOffers() called with: connectionHandle = [{}]", connectionHandle);
         CompletableFuture<String> future = new CompletableFuture<String>();
         int commandHandle = addFuture(future);
 
         int result = LibVcx.api.vcx_credential_get_offers(commandHandle, connectionHandle, vcxCredentialGetOffersCB);
-        checkResult(result);
+        checkResult(commandHandle, result);
 
         return future;
     }
@@ -311,7 +309,7 @@ public class CredentialApi extends VcxJava.API {
     private static Callback vcxCredentialCreateWithOfferCB = new Callback() {
         @SuppressWarnings({"unused", "unchecked"})
         public void callback(int command_handle, int err, int credential_handle) {
-            logger.debug("callback() called with: command_handle = [" + command_handle + "], err = [" + err + "], credential_handle = [" + credential_handle + "]");
+            if (logger.isDebugEnabled()) logger.debug("callback() called with: command_handle = [{}], err = [{}], credential_handle = [{}]", command_handle, err, credential_handle);
             CompletableFuture<Integer> future = (CompletableFuture<Integer>) removeFuture(command_handle);
             if (!checkCallback(future, err)) return;
             Integer result = credential_handle;
@@ -325,12 +323,12 @@ public class CredentialApi extends VcxJava.API {
     ) throws VcxException {
         ParamGuard.notNull(sourceId, "sourceId");
         ParamGuard.notNull(credentialOffer, "credentialOffer");
-        logger.debug("credentialCreateWithOffer() called with: sourceId = [" + sourceId + "], credentialOffer = [****]");
+        if (logger.isDebugEnabled()) logger.debug("credentialCreateWithOffer() called with: sourceId = [{}], credentialOffer = [****]", sourceId);
         CompletableFuture<Integer> future = new CompletableFuture<Integer>();
         int commandHandle = addFuture(future);
 
         int result = LibVcx.api.vcx_credential_create_with_offer(commandHandle, sourceId, credentialOffer, vcxCredentialCreateWithOfferCB);
-        checkResult(result);
+        checkResult(commandHandle, result);
 
         return future;
     }
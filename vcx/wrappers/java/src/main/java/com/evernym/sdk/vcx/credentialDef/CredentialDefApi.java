@@ -4,22 +4,20 @@ import com.evernym.sdk.vcx.LibVcx;
 import com.evernym.sdk.vcx.ParamGuard;
 import com.evernym.sdk.vcx.VcxException;
 import com.evernym.sdk.vcx.VcxJava;
+import com.evernym.sdk.vcx.VcxLogger;
 import com.sun.jna.Callback;
 
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-
 import java.util.concurrent.CompletableFuture;
 
 public class CredentialDefApi extends VcxJava.API {
 
-    private static final Logger logger = LoggerFactory.getLogger("CredentialDefApi");
+    private static final VcxLogger logger = VcxLogger.getLogger("CredentialDefApi");
     private static Callback credentialDefCreateCB = new Callback() {
         // TODO: This callback and jna definition needs to be fixed for this API
         // it should accept connection handle as well
         @SuppressWarnings({"unused", "unchecked"})
         public void callback(int commandHandle, int err, int credentialDefHandle) {
-            logger.debug("callback() called with: commandHandle = [" + commandHandle + "], err = [" + err + "], credentialDefHandle = [" + credentialDefHandle + "]");
+            if (logger.isDebugEnabled()) logger.debug("callback() called with: commandHandle = [{}], err = [{}], credentialDefHandle = [{}]", commandHandle, err, credentialDefHandle);
             CompletableFuture<Integer> future = (CompletableFuture<Integer>) removeFuture(commandHandle);
             if (!checkCallback(future, err)) return;
             Integer result = credentialDefHandle;
@@ -38,7 +36,7 @@ public class CredentialDefApi extends VcxJava.API {
         ParamGuard.notNullOrWhiteSpace(sourceId, "sourceId");
         ParamGuard.notNullOrWhiteSpace(credentialName, "credentialName");
         ParamGuard.notNullOrWhiteSpace(schemaId, "schemaId");
-        logger.debug("credentialDefCreate() called with: sourceId = [" + sourceId + "], credentialName = [" + credentialName + "], schemaId = [" + schemaId + "], issuerId = [****], tag = [" + tag + "], config = [" + config + "], paymentHandle = [" + paymentHandle + "]");
+        if (logger.isDebugEnabled()) logger.debug("credentialDefCreate() called with: sourceId = [{}], credentialName = [{}], schemaId = [{}], issuerId = [****], tag = [{}], config = [{}], paymentHandle = [{}]", sourceId, credentialName, schemaId, tag, config, paymentHandle);
         //TODO: Check for more mandatory params in vcx to add in PamaGuard
         CompletableFuture<Integer> future = new CompletableFuture<>();
         int commandHandle = addFuture(future);
@@ -54,14 +52,14 @@ public class CredentialDefApi extends VcxJava.API {
                 paymentHandle,
                 credentialDefCreateCB
         );
-        checkResult(result);
+        checkResult(commandHandle, result);
         return future;
     }
 
     private static Callback credentialDefSerializeCB = new Callback() {
         @SuppressWarnings({"unused", "unchecked"})
         public void callback(int commandHandle, int err, String serializedData) {
-            logger.debug("callback() called with: commandHandle = [" + commandHandle + "], err = [" + err + "], serializedData = [****]");
+            if (logger.isDebugEnabled()) logger.debug("callback() called with: commandHandle = [{}], err = [{}], serializedData = [****]", commandHandle, err);
             CompletableFuture<String> future = (CompletableFuture<String>) removeFuture(commandHandle);
             if (!checkCallback(future, err)) return;
             // TODO complete with exception if we find error
@@ -77,7 +75,7 @@ public class CredentialDefApi extends VcxJava.API {
 
     public static CompletableFuture<String> credentialDefSerialize(int credentialDefHandle) throws VcxException {
         ParamGuard.notNull(credentialDefHandle, "credentialDefHandle");
-        logger.debug("credentialDefSerialize() called with: credentialDefHandle = [" + credentialDefHandle + "]");
+        if (logger.isDebugEnabled()) logger.debug("credentialDefSerialize() called with: credentialDefHandle = [{}]", credentialDefHandle);
         CompletableFuture<String> future = new CompletableFuture<>();
         int commandHandle = addFuture(future);
 
@@ -86,14 +84,14 @@ public class CredentialDefApi extends VcxJava.API {
                 credentialDefHandle,
                 credentialDefSerializeCB
         );
-        checkResult(result);
+        checkResult(commandHandle, result);
         return future;
     }
 
     private static Callback credentialDefDeserialize = new Callback() {
         @SuppressWarnings({"unused", "unchecked"})
         public void callback(int commandHandle, int err, int credntialDefHandle) {
-            logger.debug("callback() called with: commandHandle = [" + commandHandle + "], err = [" + err + "], credntialDefHandle = [" + credntialDefHandle + "]");
+            if (logger.isDebugEnabled()) logger.debug("callback() called with: commandHandle = [{}], err = [{}], credntialDefHandle = [{}]", commandHandle, err, credntialDefHandle);
             CompletableFuture<Integer> future = (CompletableFuture<Integer>) removeFuture(commandHandle);
             if (!checkCallback(future, err)) return;
             // TODO complete with exception if we find error
@@ -118,7 +116,7 @@ public class CredentialDefApi extends VcxJava.API {
                 credentialDefData,
                 credentialDefDeserialize
         );
-        checkResult(result);
+        checkResult(commandHandle, result);
         return future;
     }
 
@@ -126,7 +124,7 @@ public class CredentialDefApi extends VcxJava.API {
     private static Callback credentialDefGetCredentialDefIdCb = new Callback() {
         @SuppressWarnings({"unused", "unchecked"})
         public void callback(int commandHandle, int err, String credentialDefId) {
-            logger.debug("callback() called with: commandHandle = [" + commandHandle + "], err = [" + err + "], credentialDefId = [" + credentialDefId + "]");
+            if (logger.isDebugEnabled()) logger.debug("callback() called with: commandHandle = [{}], err = [{}], credentialDefId = [{}]", commandHandle, err, credentialDefId);
             CompletableFuture<String> future = (CompletableFuture<String>) removeFuture(commandHandle);
             if (!checkCallback(future, err)) return;
             future.complete(credentialDefId);
@@ -135,17 +133,17 @@ public class CredentialDefApi extends VcxJava.API {
 
     public static CompletableFuture<String> credentialDefGetCredentialDefId(int credDefHandle) throws VcxException {
         ParamGuard.notNull(credDefHandle, "credDefHandle");
-        logger.debug("credentialDefGetCredentialDefId() called with: credDefHandle = [" + credDefHandle + "]");
+        if (logger.isDebugEnabled()) logger.debug("credentialDefGetCredentialDefId() called with: credDefHandle = [{}]", credDefHandle);
         CompletableFuture<String> future = new CompletableFuture<>();
         int commandHandle = addFuture(future);
         int result = LibVcx.api.vcx_credentialdef_get_cred_def_id(commandHandle,credDefHandle, credentialDefGetCredentialDefIdCb);
-        checkResult(result);
+        checkResult(commandHandle, result);
         return future;
     }
 
     public static int credentialDefRelease(int handle) throws VcxException {
         ParamGuard.notNull(handle, "handle");
-        logger.debug("credentialDefRelease() called with: handle = [" + handle + "]");
+        if (logger.isDebugEnabled()) logger.debug("credentialDefRelease() called with: handle = [{}]", handle);
 
         int result = LibVcx.api.vcx_credentialdef_release(handle);
         checkResult(result);
@@ -176,7 +174,7 @@ public class CredentialDefApi extends VcxJava.API {
 		ParamGuard.notNull(credentialName, "credentialName");
 		ParamGuard.notNull(schemaId, "schemaId");
 		ParamGuard.notNull(endorser, "endorser");
-		logger.debug("credentialDefCreate() called with: sourceId = [" + sourceId + "], credentialName = [" + credentialName + "], schemaId = [" + schemaId + "], issuerId = [" + issuerId + "], tag = [" + tag + "], config = [" + config + "], endorser = [" + endorser + "]");
+		if (logger.isDebugEnabled()) logger.debug("credentialDefCreate() called with: sourceId = [{}], credentialName = [{}], schemaId = [{}], issuerId = [{}], tag = [{}], config = [{}], endorser = [{}]", sourceId, credentialName, schemaId, issuerId, tag, config, endorser);
 		CompletableFuture<CredentialDefPrepareForEndorserResult> future = new CompletableFuture<CredentialDefPrepareForEndorserResult>();
 		int commandHandle = addFuture(future);
 
@@ -190,7 +188,7 @@ public class CredentialDefApi extends VcxJava.API {
 				config,
 				endorser,
 				credentialDefPrepareForEndorserCB);
-		checkResult(result);
+		checkResult(commandHandle, result);
 
 		return future;
 	}
@@ -198,7 +196,7 @@ public class CredentialDefApi extends VcxJava.API {
 	private static Callback vcxIntegerCB = new Callback() {
 		@SuppressWarnings({"unused", "unchecked"})
 		public void callback(int commandHandle, int err, int s) {
-			logger.debug("callback() called with: commandHandle = [" + commandHandle + "], err = [" + err + "], s = [" + s + "]");
+			if (logger.isDebugEnabled()) logger.debug("callback() called with: commandHandle = [{}], err = [{}], s = [{}]", commandHandle, err, s);
 			CompletableFuture<Integer> future = (CompletableFuture<Integer>) removeFuture(commandHandle);
 			if (! checkCallback(future, err)) return;
 			Integer result = s;
@@ -207,7 +205,7 @@ public class CredentialDefApi extends VcxJava.API {
 	};
 
 	public static CompletableFuture<Integer> credentialDefUpdateState(int handle) throws VcxException {
-		logger.debug("vcxSchemaUpdateState() called with: handle = [" + handle + "]");
+		if (logger.isDebugEnabled()) logger.debug("vcxSchemaUpdateState() called with: handle = [{}]", handle);
 		CompletableFuture<Integer> future = new CompletableFuture<>();
 		int commandHandle = addFuture(future);
 
@@ -216,12 +214,12 @@ public class CredentialDefApi extends VcxJava.API {
 				handle,
 				vcxIntegerCB
 		);
-		checkResult(result);
+		checkResult(commandHandle, result);
 		return future;
 	}
 
 	public static CompletableFuture<Integer> credentialDefGetState(int handle) throws VcxException {
-		logger.debug("schemaGetState() called with: handle = [" + handle + "]");
+		if (logger.isDebugEnabled()) logger.debug("schemaGetState() called with: handle = [{}]", handle);
 		CompletableFuture<Integer> future = new CompletableFuture<>();
 		int commandHandle = addFuture(future);
 
@@ -230,7 +228,7 @@ public class CredentialDefApi extends VcxJava.API {
 				handle,
 				vcxIntegerCB
 		);
-		checkResult(result);
+		checkResult(commandHandle, result);
 		return future;
 	}
 }
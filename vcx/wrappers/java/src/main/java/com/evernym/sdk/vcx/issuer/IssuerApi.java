@@ -4,22 +4,21 @@ import com.evernym.sdk.vcx.LibVcx;
 import com.evernym.sdk.vcx.ParamGuard;
 import com.evernym.sdk.vcx.VcxException;
 import com.evernym.sdk.vcx.VcxJava;
+import com.evernym.sdk.vcx.VcxLogger;
 import com.sun.jna.Callback;
 
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 import java.util.concurrent.CompletableFuture;
 
 
 public class IssuerApi extends VcxJava.API {
 
-    private static final Logger logger = LoggerFactory.getLogger("IssuerApi");
+    private static final VcxLogger logger = VcxLogger.getLogger("IssuerApi");
     private static final Callback issuerCreateCredentialCB = new Callback() {
         // TODO: This callback and jna definition needs to be fixed for this API
         // it should accept connection handle as well
         @SuppressWarnings({"unused", "unchecked"})
         public void callback(int commandHandle, int err, int credentialHandle) {
-            logger.debug("callback() called with: commandHandle = [" + commandHandle + "], err = [" + err + "], credentialHandle = [" + credentialHandle + "]");
+            if (logger.isDebugEnabled()) logger.debug("callback() called with: commandHandle = [{}], err = [{}], credentialHandle = [{}]", commandHandle, err, credentialHandle);
             CompletableFuture<Integer> future = (CompletableFuture<Integer>) removeFuture(commandHandle);
             if (!checkCallback(future, err)) return;
             Integer result = credentialHandle;
@@ -37,7 +36,7 @@ public class IssuerApi extends VcxJava.API {
         ParamGuard.notNullOrWhiteSpace(credentialData, "credentialData");
         ParamGuard.notNullOrWhiteSpace(credentialName, "credentialName");
 
-        logger.debug("issuerCreateCredential() called with: sourceId = [" + sourceId + "], credentialDefHandle = [" + credentialDefHandle + "], issuerId = [" + issuerId + "], credentialData = [" + credentialData + "], credentialName = [" + credentialName + "], price = [" + price + "]");
+        if (logger.isDebugEnabled()) logger.debug("issuerCreateCredential() called with: sourceId = [{}], credentialDefHandle = [{}], issuerId = [{}], credentialData = [{}], credentialName = [{}], price = [{}]", sourceId, credentialDefHandle, issuerId, credentialData, credentialName, price);
         //TODO: Check for more mandatory params in vcx to add in PamaGuard
         CompletableFuture<Integer> future = new CompletableFuture<>();
         int issue = addFuture(future);
@@ -51,14 +50,14 @@ public class IssuerApi extends VcxJava.API {
                 credentialName,
                 String.valueOf(price),
                 issuerCreateCredentialCB);
-        checkResult(result);
+        checkResult(issue, result);
         return future;
     }
 
     private static Callback issuerSendCredentialOfferCB = new Callback() {
         @SuppressWarnings({"unused", "unchecked"})
         public void callback(int commandHandle, int err) {
-            logger.debug("callback() called with: commandHandle = [" + commandHandle + "], err = [" + err + "]");
+            if (logger.isDebugEnabled()) logger.debug("callback() called with: commandHandle = [{}], err = [{}]", commandHandle, err);
             CompletableFuture<Integer> future = (CompletableFuture<Integer>) removeFuture(commandHandle);
             if (!checkCallback(future, err)) return;
             // TODO complete with exception if we find error
@@ -75,7 +74,7 @@ public class IssuerApi extends VcxJava.API {
                                                                        int connectionHandle) throws VcxException {
         ParamGuard.notNull(credentialHandle, "credentialHandle");
         ParamGuard.notNull(connectionHandle, "connectionHandle");
-        logger.debug("issuerSendcredentialOffer() called with: credentialOffer = [" + credentialHandle + "], connectionHandle = [" + connectionHandle + "]");
+        if (logger.isDebugEnabled()) logger.debug("issuerSendcredentialOffer() called with: credentialOffer = [{}], connectionHandle = [{}]", credentialHandle, connectionHandle);
         CompletableFuture<Integer> future = new CompletableFuture<>();
         int issue = addFuture(future);
 
@@ -85,7 +84,7 @@ public class IssuerApi extends VcxJava.API {
                 connectionHandle,
                 issuerSendCredentialOfferCB
         );
-        checkResult(result);
+        checkResult(issue, result);
         return future;
     }
 
@@ -100,14 +99,14 @@ public class IssuerApi extends VcxJava.API {
                 credentialHandle,
                 issuerCredentialStringCB
         );
-        checkResult(result);
+        checkResult(issue, result);
         return future;
     }
 
     private static Callback issuerCredentialUpdateStateCB = new Callback() {
         @SuppressWarnings({"unused", "unchecked"})
         public void callback(int commandHandle, int err,int state) {
-            logger.debug("callback() called with: commandHandle = [" + commandHandle + "], err = [" + err + "], state = [" + state + "]");
+            if (logger.isDebugEnabled()) logger.debug("callback() called with: commandHandle = [{}], err = [{}], state = [{}]", commandHandle, err, state);
             CompletableFuture<Integer> future = (CompletableFuture<Integer>) removeFuture(commandHandle);
             if (!checkCallback(future, err)) return;
             future.complete(state);
@@ -116,28 +115,28 @@ public class IssuerApi extends VcxJava.API {
 
     public static CompletableFuture<Integer> issuerCredentialUpdateState(int credentialHandle) throws VcxException {
         ParamGuard.notNull(credentialHandle, "credentialHandle");
-        logger.debug("issuerCredentialUpdateState() called with: credentialHandle = [" + credentialHandle + "]");
+        if (logger.isDebugEnabled()) logger.debug("issuerCredentialUpdateState() called with: credentialHandle = [{}]", credentialHandle);
         CompletableFuture<Integer> future = new CompletableFuture<>();
         int issue = addFuture(future);
         int result = LibVcx.api.vcx_issuer_credential_update_state(issue, credentialHandle, issuerCredentialUpdateStateCB);
-        checkResult(result);
+        checkResult(issue, result);
         return future;
     }
 
     public static CompletableFuture<Integer> issuerCredentialUpdateStateWithMessage(int credentialHandle, String message) throws VcxException {
         ParamGuard.notNull(credentialHandle, "credentialHandle");
-        logger.debug("issuerCredentialUpdateStateWithMessage() called with: credentialHandle = [" + credentialHandle + "]");
+        if (logger.isDebugEnabled()) logger.debug("issuerCredentialUpdateStateWithMessage() called with: credentialHandle = [{}]", credentialHandle);
         CompletableFuture<Integer> future = new CompletableFuture<>();
         int issue = addFuture(future);
         int result = LibVcx.api.vcx_issuer_credential_update_state_with_message(issue, credentialHandle, message, issuerCredentialUpdateStateCB);
-        checkResult(result);
+        checkResult(issue, result);
         return future;
     }
 
     private static Callback issuerCredentialGetStateCB = new Callback() {
         @SuppressWarnings({"unused", "unchecked"})
         public void callback(int commandHandle, int err, int state) {
-            logger.debug("callback() called with: commandHandle = [" + commandHandle + "], err = [" + err + "], state = [" + state + "]");
+            if (logger.isDebugEnabled()) logger.debug("callback() called with: commandHandle = [{}], err = [{}], state = [{}]", commandHandle, err, state);
             CompletableFuture<Integer> future = (CompletableFuture<Integer>) removeFuture(commandHandle);
             if (!checkCallback(future, err)) return;
             future.complete(state);
@@ -146,17 +145,17 @@ public class IssuerApi extends VcxJava.API {
 
     public static CompletableFuture<Integer> issuerCredentialGetState(int credentialHandle) throws VcxException {
         ParamGuard.notNull(credentialHandle, "credentialHandle");
-        logger.debug("issuerCredentialGetState() called with: credentialHandle = [" + credentialHandle + "]");
+        if (logger.isDebugEnabled()) logger.debug("issuerCredentialGetState() called with: credentialHandle = [{}]", credentialHandle);
         CompletableFuture<Integer> future = new CompletableFuture<>();
         int issue = addFuture(future);
         int result = LibVcx.api.vcx_issuer_credential_get_state(issue, credentialHandle, issuerCredentialGetStateCB);
-        checkResult(result);
+        checkResult(issue, result);
         return future;
     }
     private static Callback issuerSendCredentialCB = new Callback() {
         @SuppressWarnings({"unused", "unchecked"})
         public void callback(int commandHandle, int err, String credentialDefId) {
-            logger.debug("callback() called with: commandHandle = [" + commandHandle + "], err = [" + err + "], credentialDefId = [" + credentialDefId + "]");
+            if (logger.isDebugEnabled()) logger.debug("callback() called with: commandHandle = [{}], err = [{}], credentialDefId = [{}]", commandHandle, err, credentialDefId);
             CompletableFuture<String> future = (CompletableFuture<String>) removeFuture(commandHandle);
             if (!checkCallback(future, err)) return;
             future.complete(credentialDefId);
@@ -167,7 +166,7 @@ public class IssuerApi extends VcxJava.API {
                                                                  int connectionHandle) throws VcxException {
         ParamGuard.notNull(credentialHandle, "credentialHandle");
         ParamGuard.notNull(connectionHandle, "connectionHandle");
-        logger.debug("issuerSendCredential() called with: credentialHandle = [" + credentialHandle + "], connectionHandle = [" + connectionHandle + "]");
+        if (logger.isDebugEnabled()) logger.debug("issuerSendCredential() called with: credentialHandle = [{}], connectionHandle = [{}]", credentialHandle, connectionHandle);
         CompletableFuture<String> future = new CompletableFuture<>();
         int issue = addFuture(future);
 
@@ -177,7 +176,7 @@ public class IssuerApi extends VcxJava.API {
                 connectionHandle,
                 issuerSendCredentialCB);
 
-        checkResult(result);
+        checkResult(issue, result);
         return future;
     }
 
@@ -194,14 +193,14 @@ public class IssuerApi extends VcxJava.API {
                 myPwDid,
                 issuerCredentialStringCB
         );
-        checkResult(result);
+        checkResult(issue, result);
         return future;
     }
 
     private static Callback issuerCredentialStringCB = new Callback() {
         @SuppressWarnings({"unused", "unchecked"})
         public void callback(int commandHandle, int err, String stringData) {
-            logger.debug("callback() called with: commandHandle = [" + commandHandle + "], err = [" + err + "], string = [" + stringData + "]");
+            if (logger.isDebugEnabled()) logger.debug("callback() called with: commandHandle = [{}], err = [{}], string = [{}]", commandHandle, err, stringData);
             CompletableFuture<String> future = (CompletableFuture<String>) removeFuture(commandHandle);
             if (!checkCallback(future, err)) return;
             // TODO complete with exception if we find error
@@ -217,7 +216,7 @@ public class IssuerApi extends VcxJava.API {
 
     public static CompletableFuture<String> issuerCredentialSerialize(int credentialHandle) throws VcxException {
         ParamGuard.notNull(credentialHandle, "credentialHandle");
-        logger.debug("issuerCredentialSerialize() called with: credentialHandle = [" + credentialHandle + "]");
+        if (logger.isDebugEnabled()) logger.debug("issuerCredentialSerialize() called with: credentialHandle = [{}]", credentialHandle);
         CompletableFuture<String> future = new CompletableFuture<>();
         int issue = addFuture(future);
 
@@ -226,14 +225,14 @@ public class IssuerApi extends VcxJava.API {
                 credentialHandle,
                 issuerCredentialStringCB
         );
-        checkResult(result);
+        checkResult(issue, result);
         return future;
     }
 
     private static Callback issuerCredentialDeserializeCB = new Callback() {
         @SuppressWarnings({"unused", "unchecked"})
         public void callback(int commandHandle, int err, int handle) {
-            logger.debug("callback() called with: commandHandle = [" + commandHandle + "], err = [" + err + "], handle = [" + handle + "]");
+            if (logger.isDebugEnabled()) logger.debug("callback() called with: commandHandle = [{}], err = [{}], handle = [{}]", commandHandle, err, handle);
             CompletableFuture<Integer> future = (CompletableFuture<Integer>) removeFuture(commandHandle);
             if (!checkCallback(future, err)) return;
             // TODO complete with exception if we find error
@@ -258,7 +257,7 @@ public class IssuerApi extends VcxJava.API {
                 serializedData,
                 issuerCredentialDeserializeCB
         );
-        checkResult(result);
+        checkResult(issue, result);
         return future;
     }
 
@@ -272,7 +271,7 @@ public class IssuerApi extends VcxJava.API {
         ParamGuard.notNull(credentialHandle, "credentialHandle");
         ParamGuard.notNull(state, "state");
         ParamGuard.notNullOrWhiteSpace(msg, "msg");
-        logger.debug("issuerTerminateCredential() called with: credentialHandle = [" + credentialHandle + "], state = [" + state + "], msg = [****]");
+        if (logger.isDebugEnabled()) logger.debug("issuerTerminateCredential() called with: credentialHandle = [{}], state = [{}], msg = [****]", credentialHandle, state);
         CompletableFuture<Integer> future = new CompletableFuture<>();
         int issue = addFuture(future);
 
@@ -281,14 +280,14 @@ public class IssuerApi extends VcxJava.API {
                 credentialHandle,
                 state,
                 msg);
-        checkResult(result);
+        checkResult(issue, result);
 
         return future;
 
     }
     public static int issuerCredentialRelease(int credentialHandle) throws VcxException {
         ParamGuard.notNull(credentialHandle, "credentialHandle");
-        logger.debug("issuerCredentialRelease() called with: credentialHandle = [" + credentialHandle + "]");
+        if (logger.isDebugEnabled()) logger.debug("issuerCredentialRelease() called with: credentialHandle = [{}]", credentialHandle);
 
         int result = LibVcx.api.vcx_issuer_credential_release(credentialHandle);
         checkResult(result);
@@ -302,7 +301,7 @@ public class IssuerApi extends VcxJava.API {
 
         ParamGuard.notNull(credentialHandle, "credentialHandle");
         ParamGuard.notNull(credentialRequest, "credentialRequest");
-        logger.debug("issuercredentialRequest() called with: credentialHandle = [" + credentialHandle + "], credentialRequest = [****]");
+        if (logger.isDebugEnabled()) logger.debug("issuercredentialRequest() called with: credentialHandle = [{}], credentialRequest = [****]", credentialHandle);
         CompletableFuture<Integer> future = new CompletableFuture<>();
 
         int result = LibVcx.api.vcx_issuer_get_credential_request(
@@ -317,7 +316,7 @@ public class IssuerApi extends VcxJava.API {
             int credentialHandle) throws VcxException {
 
         ParamGuard.notNull(credentialHandle, "credentialHandle");
-        logger.debug("issuerAcceptRequest() called with: credentialHandle = [" + credentialHandle + "]");
+        if (logger.isDebugEnabled()) logger.debug("issuerAcceptRequest() called with: credentialHandle = [{}]", credentialHandle);
         CompletableFuture<Integer> future = new CompletableFuture<>();
 
         int result = LibVcx.api.vcx_issuer_accept_credential(
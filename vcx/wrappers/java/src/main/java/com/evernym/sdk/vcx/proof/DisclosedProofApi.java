@@ -4,11 +4,9 @@ import com.evernym.sdk.vcx.LibVcx;
 import com.evernym.sdk.vcx.ParamGuard;
 import com.evernym.sdk.vcx.VcxException;
 import com.evernym.sdk.vcx.VcxJava;
+import com.evernym.sdk.vcx.VcxLogger;
 import com.sun.jna.Callback;
 
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-
 import java.util.concurrent.CompletableFuture;
 
 public class DisclosedProofApi extends VcxJava.API {
@@ -16,11 +14,11 @@ public class DisclosedProofApi extends VcxJava.API {
     private DisclosedProofApi() {
     }
 
-    private static final Logger logger = LoggerFactory.getLogger("DisclosedProofApi");
+    private static final VcxLogger logger = VcxLogger.getLogger("DisclosedProofApi");
     private static Callback vcxProofCreateCB = new Callback() {
         @SuppressWarnings({"unused", "unchecked"})
         public void callback(int commandHandle, int err, int proofHandle) {
-            logger.debug("callback() called with: commandHandle = [" + commandHandle + "], err = [" + err + "], proofHandle = [" + proofHandle + "]");
+            if (logger.isDebugEnabled()) logger.debug("callback() called with: commandHandle = [{}], err = [{}], proofHandle = [{}]", commandHandle, err, proofHandle);
             CompletableFuture<Integer> future = (CompletableFuture<Integer>) removeFuture(commandHandle);
             if (!checkCallback(future, err)) return;
             future.complete(proofHandle);
@@ -37,12 +35,12 @@ public class DisclosedProofApi extends VcxJava.API {
         ParamGuard.notNull(requestedAttributes, "requestedAttributes");
         ParamGuard.notNull(requestedPredicates, "requestedPredicates");
         ParamGuard.notNull(name, "name");
-        logger.debug("proofCreate() called with: sourceId = [" + sourceId + "], requestedAttributes = [" + requestedAttributes + "], requestedPredicates = [" + requestedPredicates + "], name = [" + name + "]");
+        if (logger.isDebugEnabled()) logger.debug("proofCreate() called with: sourceId = [{}], requestedAttributes = [{}], requestedPredicates = [{}], name = [{}]", sourceId, requestedAttributes, requestedPredicates, name);
         CompletableFuture<CreateProofMsgIdResult> future = new CompletableFuture<>();
         int commandHandle = addFuture(future);
 
         int result = LibVcx.api.vcx_disclosed_proof_create_with_request(commandHandle, sourceId, requestedAttributes, requestedPredicates, name, vcxProofCreateCB);
-        checkResult(result);
+        checkResult(commandHandle, result);
 
         return future;
     }
@@ -50,7 +48,7 @@ public class DisclosedProofApi extends VcxJava.API {
     private static Callback vcxProofCreateWithMsgIdCB = new Callback() {
         @SuppressWarnings({"unused", "unchecked"})
         public void callback(int commandHandle, int err, int proofHandle, String proofRequest) {
-            logger.debug("callback() called with: commandHandle = [" + commandHandle + "], err = [" + err + "], proofHandle = [" + proofHandle + "], proofRequest = [****]");
+            if (logger.isDebugEnabled()) logger.debug("callback() called with: commandHandle = [{}], err = [{}], proofHandle = [{}], proofRequest = [****]", commandHandle, err, proofHandle);
             CompletableFuture<CreateProofMsgIdResult> future = (CompletableFuture<CreateProofMsgIdResult>) removeFuture(commandHandle);
             if (!checkCallback(future, err)) return;
             CreateProofMsgIdResult result = new CreateProofMsgIdResult(proofHandle, proofRequest);
@@ -65,12 +63,12 @@ public class DisclosedProofApi extends VcxJava.API {
     ) throws VcxException {
         ParamGuard.notNull(sourceId, "sourceId");
         ParamGuard.notNull(msgId, "msgId");
-        logger.debug("proofCreateWithMsgId() called with: sourceId = [" + sourceId + "], connectionHandle = [" + connectionHandle + "], msgId = [" + msgId + "]");
+        if (logger.isDebugEnabled()) logger.debug("proofCreateWithMsgId() called with: sourceId = [{}], connectionHandle = [{}], msgId = [{}]", sourceId, connectionHandle, msgId);
         CompletableFuture<CreateProofMsgIdResult> future = new CompletableFuture<>();
         int commandHandle = addFuture(future);
 
         int result = LibVcx.api.vcx_disclosed_proof_create_with_msgid(commandHandle, sourceId, connectionHandle, msgId, vcxProofCreateWithMsgIdCB);
-        checkResult(result);
+        checkResult(commandHandle, result);
 
         return future;
     }
@@ -78,7 +76,7 @@ public class DisclosedProofApi extends VcxJava.API {
     private static Callback vcxProofUpdateStateCB = new Callback() {
         @SuppressWarnings({"unused", "unchecked"})
         public void callback(int commandHandle, int err, int state) {
-            logger.debug("callback() called with: commandHandle = [" + commandHandle + "], err = [" + err + "], state = [" + state + "]");
+            if (logger.isDebugEnabled()) logger.debug("callback() called with: commandHandle = [{}], err = [{}], state = [{}]", commandHandle, err, state);
             CompletableFuture<Integer> future = (CompletableFuture<Integer>) removeFuture(commandHandle);
             if (!checkCallback(future, err)) return;
             future.complete(state);
@@ -88,12 +86,12 @@ public class DisclosedProofApi extends VcxJava.API {
     public static CompletableFuture<Integer> proofUpdateState(
             int proofHandle
     ) throws VcxException {
-        logger.debug("proofUpdateState() called with: proofHandle = [" + proofHandle + "]");
+        if (logger.isDebugEnabled()) logger.debug("proofUpdateState() called with: proofHandle = [{}]", proofHandle);
         CompletableFuture<Integer> future = new CompletableFuture<>();
         int commandHandle = addFuture(future);
 
         int result = LibVcx.api.vcx_disclosed_proof_update_state(commandHandle, proofHandle, vcxProofUpdateStateCB);
-        checkResult(result);
+        checkResult(commandHandle, result);
 
         return future;
     }
@@ -101,7 +99,7 @@ public class DisclosedProofApi extends VcxJava.API {
     private static Callback proofGetRequestsCB = new Callback() {
         @SuppressWarnings({"unused", "unchecked"})
         public void callback(int commandHandle, int err, String proofRequests) {
-            logger.debug("callback() called with: commandHandle = [" + commandHandle + "], err = [" + err + "], proofRequests = [****]");
+            if (logger.isDebugEnabled()) logger.debug("callback() called with: commandHandle = [{}], err = [{}], proofRequests = [****]", commandHandle, err);
             CompletableFuture<String> future = (CompletableFuture<String>) removeFuture(commandHandle);
             if (!checkCallback(future, err)) return;
             future.complete(proofRequests);
@@ -111,12 +109,12 @@ public class DisclosedProofApi extends VcxJava.API {
     public static CompletableFuture<String> proofGetRequests(
             int connectionHandle
     ) throws VcxException {
-        logger.debug("proofGetRequests() called with: connectionHandle = [" + connectionHandle + "]");
+        if (logger.isDebugEnabled()) logger.debug("proofGetRequests() called with: connectionHandle = [{}]", connectionHandle);
         CompletableFuture<String> future = new CompletableFuture<>();
         int commandHandle = addFuture(future);
 
         int result = LibVcx.api.vcx_disclosed_proof_get_requests(commandHandle, connectionHandle, proofGetRequestsCB);
-        checkResult(result);
+        checkResult(commandHandle, result);
 
         return future;
     }
@@ -124,7 +122,7 @@ public class DisclosedProofApi extends VcxJava.API {
     private static Callback vcxProofGetStateCB = new Callback() {
         @SuppressWarnings({"unused", "unchecked"})
         public void callback(int commandHandle, int err, int proofHandle, int state) {
-            logger.debug("callback() called with: commandHandle = [" + commandHandle + "], err = [" + err + "], proofHandle = [" + proofHandle + "], state = [" + state + "]");
+            if (logger.isDebugEnabled()) logger.debug("callback() called with: commandHandle = [{}], err = [{}], proofHandle = [{}], state = [{}]", commandHandle, err, proofHandle, state);
             CompletableFuture<Integer> future = (CompletableFuture<Integer>) removeFuture(commandHandle);
             if (!checkCallback(future, err)) return;
             future.complete(state);
@@ -134,12 +132,12 @@ public class DisclosedProofApi extends VcxJava.API {
     public static CompletableFuture<Integer> proofGetState(
             int proofHandle
     ) throws VcxException {
-        logger.debug("proofGetState() called with: proofHandle = [" + proofHandle + "]");
+        if (logger.isDebugEnabled()) logger.debug("proofGetState() called with: proofHandle = [{}]", proofHandle);
         CompletableFuture<Integer> future = new CompletableFuture<>();
         int commandHandle = addFuture(future);
 
         int result = LibVcx.api.vcx_disclosed_proof_get_state(commandHandle, proofHandle, vcxProofGetStateCB);
-        checkResult(result);
+        checkResult(commandHandle, result);
 
         return future;
     }
@@ -147,7 +145,7 @@ public class DisclosedProofApi extends VcxJava.API {
 
     public static int proofRelease(int proofHandle) throws VcxException {
         ParamGuard.notNull(proofHandle, "proofHandle");
-        logger.debug("proofRelease() called with: proofHandle = [" + proofHandle + "]");
+        if (logger.isDebugEnabled()) logger.debug("proofRelease() called with: proofHandle = [{}]", proofHandle);
 
         int result = LibVcx.api.vcx_disclosed_proof_release(proofHandle);
         checkResult(result);
@@ -158,7 +156,7 @@ public class DisclosedProofApi extends VcxJava.API {
     private static Callback vcxProofRetrieveCredentialsCB = new Callback() {
         @SuppressWarnings({"unused", "unchecked"})
         public void callback(int commandHandle, int err, String matchingCredentials) {
-            logger.debug("callback() called with: commandHandle = [" + commandHandle + "], err = [" + err + "], matchingCredentials = [****]");
+            if (logger.isDebugEnabled()) logger.debug("callback() called with: commandHandle = [{}], err = [{}], matchingCredentials = [****]", commandHandle, err);
             CompletableFuture<String> future = (CompletableFuture<String>) removeFuture(commandHandle);
             if (!checkCallback(future, err)) return;
             String result = matchingCredentials;
@@ -169,12 +167,12 @@ public class DisclosedProofApi extends VcxJava.API {
     public static CompletableFuture<String> proofRetrieveCredentials(
             int proofHandle
     ) throws VcxException {
-        logger.debug("proofRetrieveCredentials() called with: proofHandle = [" + proofHandle + "]");
+        if (logger.isDebugEnabled()) logger.debug("proofRetrieveCredentials() called with: proofHandle = [{}]", proofHandle);
         CompletableFuture<String> future = new CompletableFuture<>();
         int commandHandle = addFuture(future);
 
         int result = LibVcx.api.vcx_disclosed_proof_retrieve_credentials(commandHandle, proofHandle, vcxProofRetrieveCredentialsCB);
-        checkResult(result);
+        checkResult(commandHandle, result);
 
         return future;
     }
@@ -183,7 +181,7 @@ public class DisclosedProofApi extends VcxJava.API {
     private static Callback vcxProofGenerateCB = new Callback() {
         @SuppressWarnings({"unused", "unchecked"})
         public void callback(int commandHandle, int err) {
-            logger.debug("callback() called with: commandHandle = [" + commandHandle + "], err = [" + err + "]");
+            if (logger.isDebugEnabled()) logger.debug("callback() called with: commandHandle = [{}], err = [{}]", commandHandle, err);
             CompletableFuture<Integer> future = (CompletableFuture<Integer>) removeFuture(commandHandle);
             if (!checkCallback(future, err)) return;
             // resolving with no error
@@ -197,12 +195,12 @@ public class DisclosedProofApi extends VcxJava.API {
             String selectedCredentials,
             String selfAttestedAttributes
     ) throws VcxException {
-        logger.debug("proofGenerate() called with: proofHandle = [" + proofHandle + "], selectedCredentials = [****], selfAttestedAttributes = [****]");
+        if (logger.isDebugEnabled()) logger.debug("proofGenerate() called with: proofHandle = [{}], selectedCredentials = [****], selfAttestedAttributes = [****]", proofHandle);
         CompletableFuture<Integer> future = new CompletableFuture<>();
         int commandHandle = addFuture(future);
 
         int result = LibVcx.api.vcx_disclosed_proof_generate_proof(commandHandle, proofHandle, selectedCredentials, selfAttestedAttributes, vcxProofGenerateCB);
-        checkResult(result);
+        checkResult(commandHandle, result);
 
         return future;
     }
@@ -211,7 +209,7 @@ public class DisclosedProofApi extends VcxJava.API {
     private static Callback vcxProofSendCB = new Callback() {
         @SuppressWarnings({"unused", "unchecked"})
         public void callback(int commandHandle, int err) {
-            logger.debug("callback() called with: commandHandle = [" + commandHandle + "], err = [" + err + "]");
+            if (logger.isDebugEnabled()) logger.debug("callback() called with: commandHandle = [{}], err = [{}]", commandHandle, err);
             CompletableFuture<Integer> future = (CompletableFuture<Integer>) removeFuture(commandHandle);
             if (!checkCallback(future, err)) return;
             // resolving with no error
@@ -224,12 +222,12 @@ public class DisclosedProofApi extends VcxJava.API {
             int proofHandle,
             int connectionHandle
     ) throws VcxException {
-        logger.debug("proofSend() called with: proofHandle = [" + proofHandle + "], connectionHandle = [" + connectionHandle + "]");
+        if (logger.isDebugEnabled()) logger.debug("proofSend() called with: proofHandle = [{}], connectionHandle = [{}]", proofHandle, connectionHandle);
         CompletableFuture<Integer> future = new CompletableFuture<>();
         int commandHandle = addFuture(future);
 
         int result = LibVcx.api.vcx_disclosed_proof_send_proof(commandHandle, proofHandle, connectionHandle, vcxProofSendCB);
-        checkResult(result);
+        checkResult(commandHandle, result);
 
         return future;
     }
@@ -237,7 +235,7 @@ public class DisclosedProofApi extends VcxJava.API {
     private static Callback vcxProofRejectCB = new Callback() {
         @SuppressWarnings({"unused", "unchecked"})
         public void callback(int commandHandle, int err) {
-            logger.debug("callback() called with: commandHandle = [" + commandHandle + "], err = [" + err + "]");
+            if (logger.isDebugEnabled()) logger.debug("callback() called with: commandHandle = [{}], err = [{}]", commandHandle, err);
             CompletableFuture<Integer> future = (CompletableFuture<Integer>) removeFuture(commandHandle);
             if (!checkCallback(future, err)) return;
             // resolving with no error
@@ -250,12 +248,12 @@ public class DisclosedProofApi extends VcxJava.API {
             int proofHandle,
             int connectionHandle
     ) throws VcxException {
-        logger.debug("proofReject() called with: proofHandle = [" + proofHandle + "], connectionHandle = [" + connectionHandle + "]");
+        if (logger.isDebugEnabled()) logger.debug("proofReject() called with: proofHandle = [{}], connectionHandle = [{}]", proofHandle, connectionHandle);
         CompletableFuture<Integer> future = new CompletableFuture<>();
         int commandHandle = addFuture(future);
 
         int result = LibVcx.api.vcx_disclosed_proof_reject_proof(commandHandle, proofHandle, connectionHandle, vcxProofSendCB);
-        checkResult(result);
+        checkResult(commandHandle, result);
 
         return future;
     }
@@ -263,7 +261,7 @@ public class DisclosedProofApi extends VcxJava.API {
     private static Callback vcxProofGetMsgCB = new Callback() {
         @SuppressWarnings({"unused", "unchecked"})
         public void callback(int commandHandle, int err, String msg) {
-            logger.debug("callback() called with: commandHandle = [" + commandHandle + "], err = [" + err + "], msg = [" + msg + "]");
+            if (logger.isDebugEnabled()) logger.debug("callback() called with: commandHandle = [{}], err = [{}], msg = [{}]", commandHandle, err, msg);
             CompletableFuture<String> future = (CompletableFuture<String>) removeFuture(commandHandle);
             if (!checkCallback(future, err)) return;
             future.complete(msg);
@@ -273,12 +271,12 @@ public class DisclosedProofApi extends VcxJava.API {
     public static CompletableFuture<String> getProofMsg(
             int proofHandle
     ) throws VcxException {
-        logger.debug("getProofMsg() called with: proofHandle = [" + proofHandle + "]");
+        if (logger.isDebugEnabled()) logger.debug("getProofMsg() called with: proofHandle = [{}]", proofHandle);
         CompletableFuture<String> future = new CompletableFuture<>();
         int commandHandle = addFuture(future);
 
         int result = LibVcx.api.vcx_disclosed_proof_get_proof_msg(commandHandle, proofHandle, vcxProofGetMsgCB);
-        checkResult(result);
+        checkResult(commandHandle, result);
 
         return future;
     }
@@ -286,7 +284,7 @@ public class DisclosedProofApi extends VcxJava.API {
     private static Callback vcxProofGetRejectMsgCB = new Callback() {
         @SuppressWarnings({"unused", "unchecked"})
         public void callback(int commandHandle, int err, String msg) {
-            logger.debug("callback() called with: commandHandle = [" + commandHandle + "], err = [" + err + "], msg = [" + msg + "]");
+            if (logger.isDebugEnabled()) logger.debug("callback() called with: commandHandle = [{}], err = [{}], msg = [{}]", commandHandle, err, msg);
             CompletableFuture<String> future = (CompletableFuture<String>) removeFuture(commandHandle);
             if (!checkCallback(future, err)) return;
             future.complete(msg);
@@ -296,19 +294,19 @@ public class DisclosedProofApi extends VcxJava.API {
     public static CompletableFuture<String> getRejectMsg(
             int proofHandle
     ) throws VcxException {
-        logger.debug("getRejectMsg() called with: proofHandle = [" + proofHandle + "]");
+        if (logger.isDebugEnabled()) logger.debug("getRejectMsg() called with: proofHandle = [{}]", proofHandle);
         CompletableFuture<String> future = new CompletableFuture<>();
         int commandHandle = addFuture(future);
 
         int result = LibVcx.api.vcx_disclosed_proof_get_reject_msg(commandHandle, proofHandle, vcxProofGetMsgCB);
-        checkResult(result);
+        checkResult(commandHandle, result);
 
         return future;
     }
 
     private static Callback vcxProofCreateWithRequestCB = new Callback() {
         public void callback(int command_handle, int err, int proofHandle) {
-            logger.debug("callback() called with: command_handle = [" + command_handle + "], err = [" + err + "], proofHandle = [" + proofHandle + "]");
+            if (logger.isDebugEnabled()) logger.debug("callback() called with: command_handle = [{}], err = [{}], proofHandle = [{}]", command_handle, err, proofHandle);
             CompletableFuture<Integer> future = (CompletableFuture<Integer>) removeFuture(command_handle);
             if(!checkCallback(future, err)) return;
             // resolving with no error
@@ -323,12 +321,12 @@ public class DisclosedProofApi extends VcxJava.API {
     ) throws VcxException {
         ParamGuard.notNull(sourceId, "sourceId");
         ParamGuard.notNull(proofRequest, "proofRequest");
-        logger.debug("proofCreateWithRequest() called with: sourceId = [" + sourceId + "], proofRequest = [****]");
+        if (logger.isDebugEnabled()) logger.debug("proofCreateWithRequest() called with: sourceId = [{}], proofRequest = [****]", sourceId);
         CompletableFuture<Integer> future = new CompletableFuture<Integer>();
         int commandHandle = addFuture(future);
 
         int result = LibVcx.api.vcx_disclosed_proof_create_with_request(commandHandle, sourceId, proofRequest, vcxProofCreateWithRequestCB);
-        checkResult(result);
+        checkResult(commandHandle, result);
 
         return future;
     }
@@ -336,7 +334,7 @@ public class DisclosedProofApi extends VcxJava.API {
 
     private static Callback vcxProofSerializeCB = new Callback() {
         public void callback(int command_handle, int err, String serializedProof) {
-            logger.debug("callback() called with: command_handle = [" + command_handle + "], err = [" + err + "], serializedProof = [****]");
+            if (logger.isDebugEnabled()) logger.debug("callback() called with: command_handle = [{}], err = [{}], serializedProof = [****]", command_handle, err);
             CompletableFuture<String> future = (CompletableFuture<String>) removeFuture(command_handle);
             if(!checkCallback(future, err)) return;
 
@@ -347,19 +345,19 @@ public class DisclosedProofApi extends VcxJava.API {
     public static CompletableFuture<String> proofSerialize(
             int proofHandle
     ) throws VcxException {
-        logger.debug("proofSerialize() called with: proofHandle = [" + proofHandle + "]");
+        if (logger.isDebugEnabled()) logger.debug("proofSerialize() called with: proofHandle = [{}]", proofHandle);
         CompletableFuture<String> future = new CompletableFuture<String>();
         int commandHandle = addFuture(future);
 
         int result = LibVcx.api.vcx_disclosed_proof_serialize(commandHandle, proofHandle, vcxProofSerializeCB);
-        checkResult(result);
+        checkResult(commandHandle, result);
 
         return future;
     }
 
     private static Callback vcxProofDeserializeCB = new Callback() {
         public void callback(int command_handle, int err, int proofHandle) {
-            logger.debug("callback() called with: command_handle = [" + command_handle + "], err = [" + err + "], proofHandle = [" + proofHandle + "]");
+            if (logger.isDebugEnabled()) logger.debug("callback() called with: command_handle = [{}], err = [{}], proofHandle = [{}]", command_handle, err, proofHandle);
             CompletableFuture<Integer> future = (CompletableFuture<Integer>) removeFuture(command_handle);
             if(!checkCallback(future, err)) return;
 
@@ -376,14 +374,14 @@ public class DisclosedProofApi extends VcxJava.API {
         int commandHandle = addFuture(future);
 
         int result = LibVcx.api.vcx_disclosed_proof_deserialize(commandHandle, serializedProof, vcxProofDeserializeCB);
-        checkResult(result);
+        checkResult(commandHandle, result);
 
         return future;
     }
 
 	private static Callback vcxDeclinePresentationRequestCB = new Callback() {
 		public void callback(int command_handle, int err) {
-			logger.debug("callback() called with: command_handle = [" + command_handle + "], err = [" + err + "]");
+			if (logger.isDebugEnabled()) logger.debug("callback() called with: command_handle = [{}], err = [{}]", command_handle, err);
 			CompletableFuture<Void> future = (CompletableFuture<Void>) removeFuture(command_handle);
 			if (! checkCallback(future, err)) return;
 
@@ -397,13 +395,12 @@ public class DisclosedProofApi extends VcxJava.API {
 			String reason,
 			String proposal
 	) throws VcxException {
-		logger.debug("declinePresentationRequest() called with: proofHandle = [" + proofHandle + "], connectionHandle = [" + connectionHandle + "], " +
-				"reason = [" + reason + "], proposal = [" + proposal + "]");
+		if (logger.isDebugEnabled()) logger.debug("declinePresentationRequest() called with: proofHandle = [{}], connectionHandle = [{}], reason = [{}], proposal = [{}]", proofHandle, connectionHandle, reason, proposal);
 		CompletableFuture<Void> future = new CompletableFuture<Void>();
 		int commandHandle = addFuture(future);
 
 		int result = LibVcx.api.vcx_disclosed_proof_decline_presentation_request(commandHandle, proofHandle, connectionHandle, reason, proposal, vcxDeclinePresentationRequestCB);
-		checkResult(result);
+		checkResult(commandHandle, result);
 
 		return future;
 	}
@@ -4,20 +4,18 @@ import com.evernym.sdk.vcx.LibVcx;
 import com.evernym.sdk.vcx.ParamGuard;
 import com.evernym.sdk.vcx.VcxException;
 import com.evernym.sdk.vcx.VcxJava;
+import com.evernym.sdk.vcx.VcxLogger;
 import com.sun.jna.Callback;
 
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-
 import java.util.concurrent.CompletableFuture;
 
 public class ProofApi extends VcxJava.API {
     private ProofApi(){}
 
-    private static final Logger logger = LoggerFactory.getLogger("ProofApi");
+    private static final VcxLogger logger = VcxLogger.getLogger("ProofApi");
     private static Callback vcxProofCreateCB = new Callback() {
         public void callback(int commandHandle, int err, int proofHandle){
-            logger.debug("callback() called with: commandHandle = [" + commandHandle + "], err = [" + err + "], proofHandle = [" + proofHandle + "]");
+            if (logger.isDebugEnabled()) logger.debug("callback() called with: commandHandle = [{}], err = [{}], proofHandle = [{}]", commandHandle, err, proofHandle);
             CompletableFuture<Integer> future = (CompletableFuture<Integer>) removeFuture(commandHandle);
             if(!checkCallback(future,err)) return;
             Integer result = proofHandle;
@@ -37,19 +35,19 @@ public class ProofApi extends VcxJava.API {
         ParamGuard.notNull(requestedPredicates, "requestedPredicates");
         ParamGuard.notNull(revocationInterval, "revocationInterval");
         ParamGuard.notNull(name, "name");
-        logger.debug("proofCreate() called with: sourceId = [" + sourceId + "], requestedAttrs = [" + requestedAttrs + "], requestedPredicates = [" + requestedPredicates + "], revocationInterval = [" + revocationInterval + "], name = [" + name + "]");
+        if (logger.isDebugEnabled()) logger.debug("proofCreate() called with: sourceId = [{}], requestedAttrs = [{}], requestedPredicates = [{}], revocationInterval = [{}], name = [{}]", sourceId, requestedAttrs, requestedPredicates, revocationInterval, name);
         CompletableFuture<Integer> future = new CompletableFuture<>();
         int commandHandle = addFuture(future);
         if (requestedPredicates.isEmpty()) requestedPredicates = "[]";
         int result = LibVcx.api.vcx_proof_create(commandHandle, sourceId, requestedAttrs, requestedPredicates, revocationInterval, name, vcxProofCreateCB);
-        checkResult(result);
+        checkResult(commandHandle, result);
 
         return future;
     }
 
     private static Callback vcxProofSendRequestCB = new Callback() {
         public void callback(int commandHandle, int err){
-            logger.debug("callback() called with: commandHandle = [" + commandHandle + "], err = [" + err + "]");
+            if (logger.isDebugEnabled()) logger.debug("callback() called with: commandHandle = [{}], err = [{}]", commandHandle, err);
             CompletableFuture<Integer> future = (CompletableFuture<Integer>) removeFuture(commandHandle);
             if(!checkCallback(future,err)) return;
             Integer result = commandHandle;
@@ -63,19 +61,19 @@ public class ProofApi extends VcxJava.API {
     ) throws VcxException {
         ParamGuard.notNull(proofHandle, "proofHandle");
         ParamGuard.notNull(connectionHandle, "connectionHandle");
-        logger.debug("proofSendRequest() called with: proofHandle = [" + proofHandle + "], connectionHandle = [" + connectionHandle + "]");
+        if (logger.isDebugEnabled()) logger.debug("proofSendRequest() called with: proofHandle = [{}], connectionHandle = [{}]", proofHandle, connectionHandle);
         CompletableFuture<Integer> future = new CompletableFuture<>();
         int commandHandle = addFuture(future);
 
         int result = LibVcx.api.vcx_proof_send_request(commandHandle, proofHandle, connectionHandle, vcxProofSendRequestCB);
-        checkResult(result);
+        checkResult(commandHandle, result);
 
         return future;
     }
 
     private static Callback vcxProofGetRequestMsgCB = new Callback() {
         public void callback(int commandHandle, int err, String msg){
-            logger.debug("callback() called with: commandHandle = [" + commandHandle + "], err = [" + err + "], msg = [" + msg + "]");
+            if (logger.isDebugEnabled()) logger.debug("callback() called with: commandHandle = [{}], err = [{}], msg = [{}]", commandHandle, err, msg);
             CompletableFuture<String> future = (CompletableFuture<String>) removeFuture(commandHandle);
             if(!checkCallback(future,err)) return;
             Integer result = commandHandle;
@@ -87,19 +85,19 @@ public class ProofApi extends VcxJava.API {
             int proofHandle
     ) throws VcxException {
         ParamGuard.notNull(proofHandle, "proofHandle");
-        logger.debug("proofGetRequestMsg() called with: proofHandle = [" + proofHandle + "]");
+        if (logger.isDebugEnabled()) logger.debug("proofGetRequestMsg() called with: proofHandle = [{}]", proofHandle);
         CompletableFuture<String> future = new CompletableFuture<>();
         int commandHandle = addFuture(future);
 
         int result = LibVcx.api.vcx_proof_get_request_msg(commandHandle, proofHandle, vcxProofGetRequestMsgCB);
-        checkResult(result);
+        checkResult(commandHandle, result);
 
         return future;
     }
 
     private static Callback vcxGetProofCB = new Callback() {
         public void callback(int commandHandle, int err, int proofState, String responseData){
-            logger.debug("callback() called with: commandHandle = [" + commandHandle + "], err = [" + err + "], proofState = [" + proofState + "], responseData = [****]");
+            if (logger.isDebugEnabled()) logger.debug("callback() called with: commandHandle = [{}], err = [{}], proofState = [{}], responseData = [****]", commandHandle, err, proofState);
             CompletableFuture<GetProofResult> future = (CompletableFuture<GetProofResult>) removeFuture(commandHandle);
             if(!checkCallback(future,err)) return;
             GetProofResult result = new GetProofResult(proofState,responseData);
@@ -113,12 +111,12 @@ public class ProofApi extends VcxJava.API {
     ) throws VcxException {
         ParamGuard.notNull(proofHandle, "proofHandle");
         ParamGuard.notNull(connectionHandle, "connectionHandle");
-        logger.debug("getProof() called with: proofHandle = [" + proofHandle + "], connectionHandle = [" + connectionHandle + "]");
+        if (logger.isDebugEnabled()) logger.debug("getProof() called with: proofHandle = [{}], connectionHandle = [{}]", proofHandle, connectionHandle);
         CompletableFuture<GetProofResult> future = new CompletableFuture<>();
         int commandHandle = addFuture(future);
 
         int result = LibVcx.api.vcx_get_proof(commandHandle, proofHandle, connectionHandle, vcxGetProofCB);
-        checkResult(result);
+        checkResult(commandHandle, result);
 
         return future;
     }
@@ -127,12 +125,12 @@ public class ProofApi extends VcxJava.API {
             int proofHandle
     ) throws VcxException {
         ParamGuard.notNull(proofHandle, "proofHandle");
-        logger.debug("getProof() called with: proofHandle = [" + proofHandle + "]");
+        if (logger.isDebugEnabled()) logger.debug("getProof() called with: proofHandle = [{}]", proofHandle);
         CompletableFuture<GetProofResult> future = new CompletableFuture<>();
         int commandHandle = addFuture(future);
 
         int result = LibVcx.api.vcx_get_proof_msg(commandHandle, proofHandle, vcxGetProofCB);
-        checkResult(result);
+        checkResult(commandHandle, result);
 
         return future;
     }
@@ -145,7 +143,7 @@ public class ProofApi extends VcxJava.API {
     ) throws VcxException {
         ParamGuard.notNull(proofHandle, "proofHandle");
         ParamGuard.notNull(responseData, "responseData");
-        logger.debug("proofAccepted() called with: proofHandle = [" + proofHandle + "], responseData = [****]");
+        if (logger.isDebugEnabled()) logger.debug("proofAccepted() called with: proofHandle = [{}], responseData = [****]", proofHandle);
         CompletableFuture<Integer> future = new CompletableFuture<>();
 
         int result = LibVcx.api.vcx_proof_accepted(proofHandle, responseData);
@@ -156,7 +154,7 @@ public class ProofApi extends VcxJava.API {
 
     private static Callback vcxProofUpdateStateCB = new Callback() {
         public void callback(int commandHandle, int err, int state){
-            logger.debug("callback() called with: commandHandle = [" + commandHandle + "], err = [" + err + "], state = [" + state + "]");
+            if (logger.isDebugEnabled()) logger.debug("callback() called with: commandHandle = [{}], err = [{}], state = [{}]", commandHandle, err, state);
             CompletableFuture<Integer> future = (CompletableFuture<Integer>) removeFuture(commandHandle);
             if(!checkCallback(future,err)) return;
             Integer result = state;
@@ -168,12 +166,12 @@ public class ProofApi extends VcxJava.API {
             int proofHandle
     ) throws VcxException {
         ParamGuard.notNull(proofHandle, "proofHandle");
-        logger.debug("proofUpdateState() called with: proofHandle = [" + proofHandle + "]");
+        if (logger.isDebugEnabled()) logger.debug("proofUpdateState() called with: proofHandle = [{}]", proofHandle);
         CompletableFuture<Integer> future = new CompletableFuture<>();
         int commandHandle = addFuture(future);
 
         int result = LibVcx.api.vcx_proof_update_state(commandHandle, proofHandle, vcxProofUpdateStateCB);
-        checkResult(result);
+        checkResult(commandHandle, result);
 
         return future;
     }
@@ -183,19 +181,19 @@ public class ProofApi extends VcxJava.API {
             String message
     ) throws VcxException {
         ParamGuard.notNull(proofHandle, "proofHandle");
-        logger.debug("proofUpdateStateWithMessage() called with: proofHandle = [" + proofHandle + "]");
+        if (logger.isDebugEnabled()) logger.debug("proofUpdateStateWithMessage() called with: proofHandle = [{}]", proofHandle);
         CompletableFuture<Integer> future = new CompletableFuture<>();
         int commandHandle = addFuture(future);
 
         int result = LibVcx.api.vcx_proof_update_state_with_message(commandHandle, proofHandle, message, vcxProofUpdateStateCB);
-        checkResult(result);
+        checkResult(commandHandle, result);
 
         return future;
     }
 
     private static Callback vcxProofGetStateCB = new Callback() {
         public void callback(int commandHandle, int err, int state){
-            logger.debug("callback() called with: commandHandle = [" + commandHandle + "], err = [" + err + "], state = [" + state + "]");
+            if (logger.isDebugEnabled()) logger.debug("callback() called with: commandHandle = [{}], err = [{}], state = [{}]", commandHandle, err, state);
             CompletableFuture<Integer> future = (CompletableFuture<Integer>) removeFuture(commandHandle);
             if(!checkCallback(future,err)) return;
             Integer result = state;
@@ -207,19 +205,19 @@ public class ProofApi extends VcxJava.API {
             int proofHandle
     ) throws VcxException {
         ParamGuard.notNull(proofHandle, "proofHandle");
-        logger.debug("proofGetState() called with: proofHandle = [" + proofHandle + "]");
+        if (logger.isDebugEnabled()) logger.debug("proofGetState() called with: proofHandle = [{}]", proofHandle);
         CompletableFuture<Integer> future = new CompletableFuture<>();
         int commandHandle = addFuture(future);
 
         int result = LibVcx.api.vcx_proof_get_state(commandHandle, proofHandle, vcxProofGetStateCB);
-        checkResult(result);
+        checkResult(commandHandle, result);
 
         return future;
     }
 
     private static Callback vcxProofSerializeCB = new Callback() {
         public void callback(int commandHandle, int err, String proofState){
-            logger.debug("callback() called with: commandHandle = [" + commandHandle + "], err = [" + err + "], proofState = [" + proofState + "]");
+            if (logger.isDebugEnabled()) logger.debug("callback() called with: commandHandle = [{}], err = [{}], proofState = [{}]", commandHandle, err, proofState);
             CompletableFuture<String> future = (CompletableFuture<String>) removeFuture(commandHandle);
             if(!checkCallback(future,err)) return;
             future.complete(proofState);
@@ -230,19 +228,19 @@ public class ProofApi extends VcxJava.API {
             int proofHandle
     ) throws VcxException {
         ParamGuard.notNull(proofHandle, "proofHandle");
-        logger.debug("proofSerialize() called with: proofHandle = [" + proofHandle + "]");
+        if (logger.isDebugEnabled()) logger.debug("proofSerialize() called with: proofHandle = [{}]", proofHandle);
         CompletableFuture<String> future = new CompletableFuture<>();
         int commandHandle = addFuture(future);
 
         int result = LibVcx.api.vcx_proof_serialize(commandHandle, proofHandle, vcxProofSerializeCB);
-        checkResult(result);
+        checkResult(commandHandle, result);
 
         return future;
     }
 
     private static Callback vcxProofDeserializeCB = new Callback() {
         public void callback(int commandHandle, int err, int proofHandle){
-            logger.debug("callback() called with: commandHandle = [" + commandHandle + "], err = [" + err + "], proofHandle = [" + proofHandle + "]");
+            if (logger.isDebugEnabled()) logger.debug("callback() called with: commandHandle = [{}], err = [{}], proofHandle = [{}]", commandHandle, err, proofHandle);
             CompletableFuture<Integer> future = (CompletableFuture<Integer>) removeFuture(commandHandle);
             if(!checkCallback(future,err)) return;
             Integer result = proofHandle;
@@ -259,14 +257,14 @@ public class ProofApi extends VcxJava.API {
         int commandHandle = addFuture(future);
 
         int result = LibVcx.api.vcx_proof_deserialize(commandHandle, serializedProof, vcxProofDeserializeCB);
-        checkResult(result);
+        checkResult(commandHandle, result);
 
         return future;
     }
 
     public static int proofRelease(int proofHandle) throws VcxException {
         ParamGuard.notNull(proofHandle, "proofHandle");
-        logger.debug("proofRelease() called with: proofHandle = [" + proofHandle + "]");
+        if (logger.isDebugEnabled()) logger.debug("proofRelease() called with: proofHandle = [{}]", proofHandle);
 
         int result = LibVcx.api.vcx_proof_release(proofHandle);
         checkResult(result);
@@ -5,21 +5,19 @@ import com.evernym.sdk.vcx.LibVcx;
 import com.evernym.sdk.vcx.ParamGuard;
 import com.evernym.sdk.vcx.VcxException;
 import com.evernym.sdk.vcx.VcxJava;
+import com.evernym.sdk.vcx.VcxLogger;
 import com.sun.jna.Callback;
 
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-
 import java.util.concurrent.CompletableFuture;
 
 public class SchemaApi extends VcxJava.API {
-    private static final Logger logger = LoggerFactory.getLogger("SchemaApi");
+    private static final VcxLogger logger = VcxLogger.getLogger("SchemaApi");
     private static Callback schemaCreateCB = new Callback() {
         // TODO: This callback and jna definition needs to be fixed for this API
         // it should accept connection handle as well
         @SuppressWarnings({"unused", "unchecked"})
         public void callback(int commandHandle, int err, int schemaHandle) {
-            logger.debug("callback() called with: commandHandle = [" + commandHandle + "], err = [" + err + "], schemaHandle = [" + schemaHandle + "]");
+            if (logger.isDebugEnabled()) logger.debug("callback() called with: commandHandle = [{}], err = [{}], schemaHandle = [{}]", commandHandle, err, schemaHandle);
             CompletableFuture<Integer> future = (CompletableFuture<Integer>) removeFuture(commandHandle);
             if (!checkCallback(future, err)) return;
             Integer result = schemaHandle;
@@ -36,7 +34,7 @@ public class SchemaApi extends VcxJava.API {
         ParamGuard.notNullOrWhiteSpace(schemaName, "schemaName");
         ParamGuard.notNullOrWhiteSpace(version, "version");
         ParamGuard.notNullOrWhiteSpace(data, "data");
-        logger.debug("schemaCreate() called with: sourceId = [" + sourceId + "], schemaName = [" + schemaName + "], version = [" + version + "]" + " data = <" + data + ">" + " payment_handle = <" + paymentHandle + ">");
+        if (logger.isDebugEnabled()) logger.debug("schemaCreate() called with: sourceId = [{}], schemaName = [{}], version = [{}] data = <{}> payment_handle = <{}>", sourceId, schemaName, version, data, paymentHandle);
         CompletableFuture<Integer> future = new CompletableFuture<Integer>();
         int commandHandle = addFuture(future);
 
@@ -49,14 +47,14 @@ public class SchemaApi extends VcxJava.API {
                 paymentHandle,
                 schemaCreateCB
         );
-        checkResult(result);
+        checkResult(commandHandle, result);
         return future;
     }
 
     private static Callback schemaSerializeHandle = new Callback() {
         @SuppressWarnings({"unused", "unchecked"})
         public void callback(int commandHandle, int err, String serializedData) {
-            logger.debug("callback() called with: commandHandle = [" + commandHandle + "], err = [" + err + "], serializedData = [" + serializedData + "]");
+            if (logger.isDebugEnabled()) logger.debug("callback() called with: commandHandle = [{}], err = [{}], serializedData = [{}]", commandHandle, err, serializedData);
             CompletableFuture<String> future = (CompletableFuture<String>) removeFuture(commandHandle);
             if (!checkCallback(future, err)) return;
             // TODO complete with exception if we find error
@@ -72,7 +70,7 @@ public class SchemaApi extends VcxJava.API {
 
     public static CompletableFuture<String> schemaSerialize(int schemaHandle) throws VcxException {
         ParamGuard.notNull(schemaHandle, "schemaHandle");
-        logger.debug("schemaSerialize() called with: schemaHandle = [" + schemaHandle + "]");
+        if (logger.isDebugEnabled()) logger.debug("schemaSerialize() called with: schemaHandle = [{}]", schemaHandle);
         CompletableFuture<String> future = new CompletableFuture<>();
         int commandHandle = addFuture(future);
 
@@ -81,14 +79,14 @@ public class SchemaApi extends VcxJava.API {
                 schemaHandle,
                 schemaSerializeHandle
         );
-        checkResult(result);
+        checkResult(commandHandle, result);
         return future;
     }
 
     private static Callback schemaDeserializeCB = new Callback() {
         @SuppressWarnings({"unused", "unchecked"})
         public void callback(int commandHandle, int err, int schemaHandle) {
-            logger.debug("callback() called with: commandHandle = [" + commandHandle + "], err = [" + err + "], schemaHandle = [" + schemaHandle + "]");
+            if (logger.isDebugEnabled()) logger.debug("callback() called with: commandHandle = [{}], err = [{}], schemaHandle = [{}]", commandHandle, err, schemaHandle);
             CompletableFuture<Integer> future = (CompletableFuture<Integer>) removeFuture(commandHandle);
             if (!checkCallback(future, err)) return;
             // TODO complete with exception if we find error
@@ -104,7 +102,7 @@ public class SchemaApi extends VcxJava.API {
 
     public static CompletableFuture<Integer> schemaDeserialize(String schemaData) throws VcxException {
         ParamGuard.notNull(schemaData, "schemaData");
-        logger.debug("schemaDeserialize() called with: schemaData = [" + schemaData + "]");
+        if (logger.isDebugEnabled()) logger.debug("schemaDeserialize() called with: schemaData = [{}]", schemaData);
         CompletableFuture<Integer> future = new CompletableFuture<>();
         int commandHandle = addFuture(future);
 
@@ -113,14 +111,14 @@ public class SchemaApi extends VcxJava.API {
                 schemaData,
                 schemaDeserializeCB
         );
-        checkResult(result);
+        checkResult(commandHandle, result);
         return future;
     }
 
     private static Callback schemaGetAttributesCB = new Callback() {
         @SuppressWarnings({"unused", "unchecked"})
         public void callback(int commandHandle, int err,int schemaHandle, String schemaAttributes) {
-            logger.debug("callback() called with: commandHandle = [" + commandHandle + "], err = [" + err + "], schemaHandle = [" + schemaHandle +  "],  schemaAttributes = [" + schemaAttributes + "]");
+            if (logger.isDebugEnabled()) logger.debug("callback() called with: commandHandle = [{}], err = [{}], schemaHandle = [{}],  schemaAttributes = [{}]", commandHandle, err, schemaHandle, schemaAttributes);
             CompletableFuture<String> future = (CompletableFuture<String>) removeFuture(commandHandle);
             if (!checkCallback(future, err)) return;
             future.complete(schemaAttributes);
@@ -129,18 +127,18 @@ public class SchemaApi extends VcxJava.API {
 
     public static CompletableFuture<String> schemaGetAttributes( String sourceId, String schemaId) throws VcxException {
         ParamGuard.notNullOrWhiteSpace(sourceId, "sourceId");
-        logger.debug("schemaGetAttributes() called with: sourceId = [" + sourceId + "], schemaHandle = [" + schemaId + "]");
+        if (logger.isDebugEnabled()) logger.debug("schemaGetAttributes() called with: sourceId = [{}], schemaHandle = [{}]", sourceId, schemaId);
         CompletableFuture<String> future = new CompletableFuture<>();
         int commandHandle = addFuture(future);
         int result = LibVcx.api.vcx_schema_get_attributes(commandHandle, sourceId,schemaId, schemaGetAttributesCB);
-        checkResult(result);
+        checkResult(commandHandle, result);
         return future;
     }
 
     private static Callback schemaGetSchemaID = new Callback() {
         @SuppressWarnings({"unused", "unchecked"})
         public void callback(int commandHandle, int err, String schemaId) {
-            logger.debug("callback() called with: commandHandle = [" + commandHandle + "], err = [" + err + "], schemaId = [" + schemaId + "]");
+            if (logger.isDebugEnabled()) logger.debug("callback() called with: commandHandle = [{}], err = [{}], schemaId = [{}]", commandHandle, err, schemaId);
             CompletableFuture<String> future = (CompletableFuture<String>) removeFuture(commandHandle);
             if (!checkCallback(future, err)) return;
             future.complete(schemaId);
@@ -149,11 +147,11 @@ public class SchemaApi extends VcxJava.API {
 
     public static CompletableFuture<String> schemaGetSchemaId( int schemaHandle) throws VcxException {
         ParamGuard.notNull(schemaHandle, "SchemaHandle");
-        logger.debug("schemaGetSchemaId() called with: schemaHandle = [" + schemaHandle + "]");
+        if (logger.isDebugEnabled()) logger.debug("schemaGetSchemaId() called with: schemaHandle = [{}]", schemaHandle);
         CompletableFuture<String> future = new CompletableFuture<>();
         int commandHandle = addFuture(future);
         int result = LibVcx.api.vcx_schema_get_schema_id(commandHandle,schemaHandle, schemaGetSchemaID);
-        checkResult(result);
+        checkResult(commandHandle, result);
         return future;
     }
 
@@ -161,7 +159,7 @@ public class SchemaApi extends VcxJava.API {
             int schemaHandle
     ) throws VcxException {
         ParamGuard.notNull(schemaHandle, "schemaHandle");
-        logger.debug("schemaRelease() called with: schemaHandle = [" + schemaHandle + "]");
+        if (logger.isDebugEnabled()) logger.debug("schemaRelease() called with: schemaHandle = [{}]", schemaHandle);
 
         int result = LibVcx.api.vcx_schema_release(schemaHandle);
         checkResult(result);
@@ -172,7 +170,7 @@ public class SchemaApi extends VcxJava.API {
     private static Callback schemaPrepareForEndorserCB = new Callback() {
         @SuppressWarnings({"unused", "unchecked"})
         public void callback(int command_handle, int err, int handle, String transaction) {
-            logger.debug("callback() called with: command_handle = [" + command_handle + "], err = [" + err + "], handle = [" + handle + "], transaction = [" + transaction + "]");
+            if (logger.isDebugEnabled()) logger.debug("callback() called with: command_handle = [{}], err = [{}], handle = [{}], transaction = [{}]", command_handle, err, handle, transaction);
             CompletableFuture<SchemaPrepareForEndorserResult> future = (CompletableFuture<SchemaPrepareForEndorserResult>) removeFuture(command_handle);
             if (!checkCallback(future, err)) return;
             SchemaPrepareForEndorserResult result = new SchemaPrepareForEndorserResult(handle, transaction);
@@ -190,7 +188,7 @@ public class SchemaApi extends VcxJava.API {
         ParamGuard.notNull(version, "version");
         ParamGuard.notNull(data, "data");
         ParamGuard.notNull(endorser, "endorserendorser");
-	    logger.debug("schemaCreate() called with: sourceId = [" + sourceId + "], schemaName = [" + schemaName + "], version = [" + version + "]" + " data = <" + data + ">" + " endorser = <" + endorser + ">");
+	    if (logger.isDebugEnabled()) logger.debug("schemaCreate() called with: sourceId = [{}], schemaName = [{}], version = [{}] data = <{}> endorser = <{}>", sourceId, schemaName, version, data, endorser);
         CompletableFuture<SchemaPrepareForEndorserResult> future = new CompletableFuture<SchemaPrepareForEndorserResult>();
         int commandHandle = addFuture(future);
 
@@ -202,7 +200,7 @@ public class SchemaApi extends VcxJava.API {
 		        data,
 		        endorser,
 		        schemaPrepareForEndorserCB);
-        checkResult(result);
+        checkResult(commandHandle, result);
 
         return future;
     }
@@ -210,7 +208,7 @@ public class SchemaApi extends VcxJava.API {
 	private static Callback vcxIntegerCB = new Callback() {
 		@SuppressWarnings({"unused", "unchecked"})
 		public void callback(int commandHandle, int err, int s) {
-			logger.debug("callback() called with: commandHandle = [" + commandHandle + "], err = [" + err + "], s = [" + s + "]");
+			if (logger.isDebugEnabled()) logger.debug("callback() called with: commandHandle = [{}], err = [{}], s = [{}]", commandHandle, err, s);
 			CompletableFuture<Integer> future = (CompletableFuture<Integer>) removeFuture(commandHandle);
 			if (!checkCallback(future, err)) return;
 			Integer result = s;
@@ -219,7 +217,7 @@ public class SchemaApi extends VcxJava.API {
 	};
 
 	public static CompletableFuture<Integer> schemaUpdateState(int schemaHandle) throws VcxException {
-		logger.debug("vcxSchemaUpdateState() called with: schemaHandle = [" + schemaHandle + "]");
+		if (logger.isDebugEnabled()) logger.debug("vcxSchemaUpdateState() called with: schemaHandle = [{}]", schemaHandle);
 		CompletableFuture<Integer> future = new CompletableFuture<>();
 		int commandHandle = addFuture(future);
 
@@ -228,12 +226,12 @@ public class SchemaApi extends VcxJava.API {
 				schemaHandle,
 				vcxIntegerCB
 		);
-		checkResult(result);
+		checkResult(commandHandle, result);
 		return future;
 	}
 
 	public static CompletableFuture<Integer> schemaGetState(int schemaHandle) throws VcxException {
-		logger.debug("schemaGetState() called with: schemaHandle = [" + schemaHandle + "]");
+		if (logger.isDebugEnabled()) logger.debug("schemaGetState() called with: schemaHandle = [{}]", schemaHandle);
 		CompletableFuture<Integer> future = new CompletableFuture<>();
 		int commandHandle = addFuture(future);
 
@@ -242,7 +240,7 @@ public class SchemaApi extends VcxJava.API {
 				schemaHandle,
 				vcxIntegerCB
 		);
-		checkResult(result);
+		checkResult(commandHandle, result);
 		return future;
 	}
 }
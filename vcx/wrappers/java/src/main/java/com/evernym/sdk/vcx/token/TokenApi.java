@@ -4,11 +4,9 @@ package com.evernym.sdk.vcx.token;
 import com.evernym.sdk.vcx.LibVcx;
 import com.evernym.sdk.vcx.VcxException;
 import com.evernym.sdk.vcx.VcxJava;
+import com.evernym.sdk.vcx.VcxLogger;
 import com.sun.jna.Callback;
 
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-
 import java.util.concurrent.CompletableFuture;
 
 public class TokenApi extends VcxJava.API {
@@ -16,11 +14,11 @@ public class TokenApi extends VcxJava.API {
     private TokenApi() {
     }
 
-    private static final Logger logger = LoggerFactory.getLogger("TokenApi");
+    private static final VcxLogger logger = VcxLogger.getLogger("TokenApi");
     private static Callback vcxTokenCB = new Callback() {
         @SuppressWarnings({"unused", "unchecked"})
         public void callback(int commandHandle, int err, String tokenInfo) {
-            logger.debug("callback() called with: commandHandle = [" + commandHandle + "], err = [" + err + "], tokenInfo = [****]");
+            if (logger.isDebugEnabled()) logger.debug("callback() called with: commandHandle = [{}], err = [{}], tokenInfo = [****]", commandHandle, err);
             CompletableFuture<String> future = (CompletableFuture<String>) removeFuture(commandHandle);
             if (!checkCallback(future, err)) return;
 
@@ -31,11 +29,11 @@ public class TokenApi extends VcxJava.API {
     public static CompletableFuture<String> getTokenInfo(
             int paymentHandle
     ) throws VcxException {
-        logger.debug("getTokenInfo() called with: paymentHandle = [" + paymentHandle + "]");
+        if (logger.isDebugEnabled()) logger.debug("getTokenInfo() called with: paymentHandle = [{}]", paymentHandle);
         CompletableFuture<String> future = new CompletableFuture<String>();
         int commandHandle = addFuture(future);
         int result = LibVcx.api.vcx_wallet_get_token_info(commandHandle, paymentHandle, vcxTokenCB);
-        checkResult(result);
+        checkResult(commandHandle, result);
 
         return future;
     }
@@ -43,7 +41,7 @@ public class TokenApi extends VcxJava.API {
     private static Callback vcxSendTokensCB = new Callback() {
         @SuppressWarnings({"unused", "unchecked"})
         public void callback(int commandHandle, int error, String receipt) {
-            logger.debug("callback() called with: commandHandle = [" + commandHandle + "], error = [" + error + "], receipt = [****]");
+            if (logger.isDebugEnabled()) logger.debug("callback() called with: commandHandle = [{}], error = [{}], receipt = [****]", commandHandle, error);
             CompletableFuture<String> future = (CompletableFuture<String>) removeFuture(commandHandle);
             if (!checkCallback(future, error)) {
                 return;
@@ -57,11 +55,11 @@ public class TokenApi extends VcxJava.API {
             String tokens,
             String recipient
     ) throws VcxException {
-        logger.debug("sendTokens() called with: paymentHandle = [" + paymentHandle + "], tokens = [" + tokens + "], recipient = [****]");
+        if (logger.isDebugEnabled()) logger.debug("sendTokens() called with: paymentHandle = [{}], tokens = [{}], recipient = [****]", paymentHandle, tokens);
         CompletableFuture<String> future = new CompletableFuture<String>();
         int commandHandle = addFuture(future);
         int result = LibVcx.api.vcx_wallet_send_tokens(commandHandle, paymentHandle, tokens, recipient, vcxSendTokensCB);
-        checkResult(result);
+        checkResult(commandHandle, result);
         return future;
     }
 
@@ -69,7 +67,7 @@ public class TokenApi extends VcxJava.API {
     private static Callback vcxCreatePaymentAddressCB = new Callback() {
         @SuppressWarnings({"unused", "unchecked"})
         public void callback(int commandHandle, int error, String address) {
-            logger.debug("callback() called with: commandHandle = [" + commandHandle + "], error = [" + error + "], address = [****]");
+            if (logger.isDebugEnabled()) logger.debug("callback() called with: commandHandle = [{}], error = [{}], address = [****]", commandHandle, error);
             CompletableFuture<String> future = (CompletableFuture<String>) removeFuture(commandHandle);
             if (!checkCallback(future, error)) {
                 return;
@@ -85,7 +83,7 @@ public class TokenApi extends VcxJava.API {
         CompletableFuture<String> future = new CompletableFuture<String>();
         int commandHandle = addFuture(future);
         int result = LibVcx.api.vcx_wallet_create_payment_address(commandHandle, seed, vcxCreatePaymentAddressCB);
-        checkResult(result);
+        checkResult(commandHandle, result);
         return future;
     }
 }
@@ -0,0 +1,509 @@
+package com.evernym.sdk.vcx.utils;
+
+import com.evernym.sdk.vcx.ParamGuard;
+import com.evernym.sdk.vcx.VcxException;
+import com.evernym.sdk.vcx.VcxJava;
+import com.evernym.sdk.vcx.VcxLogger;
+import com.evernym.sdk.vcx.connection.ConnectionApi;
+import com.evernym.sdk.vcx.credential.CredentialApi;
+import com.evernym.sdk.vcx.issuer.IssuerApi;
+import com.evernym.sdk.vcx.proof.ProofApi;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Routes messages downloaded from the agency to the objects they belong to.
+ *
+ * Instead of calling update_state on every open handle, a dispatcher downloads the received messages
+ * of all registered pairwise DIDs in a few batched vcxGetMessages calls, hands every message to the
+ * handles of its pairwise DID whose type consumes it through the *UpdateStateWithMessage calls, and
+ * marks the delivered messages as reviewed with a single vcxUpdateMessages call. The number of agency
+ * round trips therefore depends on the number of messages rather than on the number of open handles.
+ *
+ * The handle type is derived from the message type, see {@link HandleType#forMessage(JSONObject)}: a
+ * credential request goes to the issuer credentials of its pairwise DID, a proof to the proofs, and so on.
+ * Messages no handle type consumes, such as credential offers and proof requests that start new objects,
+ * are left unread for the application, as are messages for which no handle of their type is registered.
+ *
+ * Messages of a handle are applied in the order they were downloaded. A message is consumed and marked
+ * as reviewed once one of its handles has applied it; if all of them fail, it is left unread and is
+ * delivered again by the next dispatch.
+ */
+public class MessageDispatcher {
+
+    private static final VcxLogger logger = VcxLogger.getLogger("MessageDispatcher");
+
+    public static final String STATUS_RECEIVED = "MS-103";
+    public static final String STATUS_REVIEWED = "MS-106";
+    public static final int DEFAULT_BATCH_SIZE = 100;
+
+    /**
+     * Kind of object a handle refers to.
+     */
+    public enum HandleType {
+        CONNECTION,
+        ISSUER_CREDENTIAL,
+        CREDENTIAL,
+        PROOF;
+
+        /**
+         * Gets the kind of handle that consumes a downloaded message.
+         *
+         * Legacy messages are recognized by their type; Aries messages by the protocol and message
+         * name in the @type of their decrypted payload.
+         *
+         * @param msg A message as returned in the msgs of vcxGetMessages.
+         * @return The handle type, or null if no handle consumes the message.
+         */
+        public static HandleType forMessage(JSONObject msg) {
+            String type = msg.optString("type");
+
+            switch (type) {
+                case "connReqAnswer":
+                case "CONN_REQ_ACCEPTED":
+                case "connReqRedirect":
+                case "CONN_REQ_REDIRECTED":
+                case "connReqRedirected":
+                    return CONNECTION;
+                case "credReq":
+                    return ISSUER_CREDENTIAL;
+                case "cred":
+                    return CREDENTIAL;
+                case "proof":
+                    return PROOF;
+                case "aries":
+                    return forAriesType(ariesType(msg));
+                default:
+                    return null;
+            }
+        }
+
+        private static String ariesType(JSONObject msg) {
+            try {
+                JSONObject payload = new JSONObject(msg.optString("decryptedPayload", "{}"));
+                return new JSONObject(payload.optString("@msg", "{}")).optString("@type");
+            } catch (RuntimeException e) {
+                return "";
+            }
+        }
+
+        private static HandleType forAriesType(String type) {
+            // e.g. did:sov:BzCbsNYhMrjHiqZDTUASHg;spec/issue-credential/1.0/request-credential
+            String[] parts = type.split("/");
+            if (parts.length < 3) return null;
+
+            String family = parts[parts.length - 3];
+            String name = parts[parts.length - 1];
+
+            switch (family) {
+                case "connections":
+                case "trust_ping":
+                    return CONNECTION;
+                case "issue-credential":
+                    if (name.equals("request-credential") || name.equals("propose-credential")) return ISSUER_CREDENTIAL;
+                    if (name.equals("issue-credential")) return CREDENTIAL;
+                    return null;
+                case "present-proof":
+                    if (name.equals("presentation") || name.equals("propose-presentation")) return PROOF;
+                    return null;
+                default:
+                    return null;
+            }
+        }
+
+        CompletableFuture<Integer> updateStateWithMessage(int handle, String message) throws VcxException {
+            switch (this) {
+                case CONNECTION:
+                    return ConnectionApi.vcxConnectionUpdateStateWithMessage(handle, message);
+                case ISSUER_CREDENTIAL:
+                    return IssuerApi.issuerCredentialUpdateStateWithMessage(handle, message);
+                case CREDENTIAL:
+                    return CredentialApi.credentialUpdateStateWithMessage(handle, message);
+                default:
+                    return ProofApi.proofUpdateStateWithMessage(handle, message);
+            }
+        }
+    }
+
+    /**
+     * The agency and state update calls a dispatch is made of.
+     */
+    interface Backend {
+        CompletableFuture<String> getMessages(String pairwiseDids) throws VcxException;
+
+        CompletableFuture<Integer> updateMessages(String msgJson) throws VcxException;
+
+        CompletableFuture<Integer> updateStateWithMessage(HandleType type, int handle, String message) throws VcxException;
+    }
+
+    private static final Backend LIBVCX = new Backend() {
+        @Override
+        public CompletableFuture<String> getMessages(String pairwiseDids) throws VcxException {
+            return UtilsApi.vcxGetMessages(STATUS_RECEIVED, null, pairwiseDids);
+        }
+
+        @Override
+        public CompletableFuture<Integer> updateMessages(String msgJson) throws VcxException {
+            return UtilsApi.vcxUpdateMessages(STATUS_REVIEWED, msgJson);
+        }
+
+        @Override
+        public CompletableFuture<Integer> updateStateWithMessage(HandleType type, int handle, String message) throws VcxException {
+            return type.updateStateWithMessage(handle, message);
+        }
+    };
+
+    /**
+     * Outcome of a dispatch.
+     */
+    public static class DispatchResult extends VcxJava.Result {
+        private final int downloaded, delivered, failed, unrouted;
+
+        DispatchResult(int downloaded, int delivered, int failed, int unrouted) {
+            this.downloaded = downloaded;
+            this.delivered = delivered;
+            this.failed = failed;
+            this.unrouted = unrouted;
+        }
+
+        /**
+         * @return The number of messages downloaded for registered pairwise DIDs.
+         */
+        public int getDownloaded() {
+            return downloaded;
+        }
+
+        /**
+         * @return The number of messages applied to one of their handles and marked as reviewed.
+         */
+        public int getDelivered() {
+            return delivered;
+        }
+
+        /**
+         * @return The number of messages left unread because every handle of their type failed to apply them.
+         */
+        public int getFailed() {
+            return failed;
+        }
+
+        /**
+         * @return The number of messages left unread because no registered handle consumes their type.
+         */
+        public int getUnrouted() {
+            return unrouted;
+        }
+    }
+
+    private static final class Route {
+        private final HandleType type;
+        private final int handle;
+
+        private Route(HandleType type, int handle) {
+            this.type = type;
+            this.handle = handle;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof Route)) return false;
+            Route route = (Route) other;
+            return type == route.type && handle == route.handle;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * type.hashCode() + handle;
+        }
+    }
+
+    private static final class Delivery {
+        private final String pairwiseDid;
+        private final String uid;
+        private final CompletableFuture<Void> future;
+
+        private Delivery(String pairwiseDid, String uid, CompletableFuture<Void> future) {
+            this.pairwiseDid = pairwiseDid;
+            this.uid = uid;
+            this.future = future;
+        }
+    }
+
+    private final int batchSize;
+    private final Backend backend;
+    private final ConcurrentHashMap<String, CopyOnWriteArrayList<Route>> routes = new ConcurrentHashMap<String, CopyOnWriteArrayList<Route>>();
+
+    public MessageDispatcher() {
+        this(DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * @param batchSize The maximum number of pairwise DIDs queried by a single vcxGetMessages call.
+     */
+    public MessageDispatcher(int batchSize) {
+        this(batchSize, LIBVCX);
+    }
+
+    MessageDispatcher(int batchSize, Backend backend) {
+        if (batchSize <= 0) throw new IllegalArgumentException("A positive value must be provided for the 'batchSize' parameter.");
+        this.batchSize = batchSize;
+        this.backend = backend;
+    }
+
+    /**
+     * Delivers the messages received on a pairwise DID to a handle.
+     *
+     * @param pairwiseDid The pairwise DID of the connection the messages arrive on.
+     * @param type        The kind of object the handle refers to.
+     * @param handle      The handle.
+     */
+    public void register(String pairwiseDid, HandleType type, int handle) {
+        ParamGuard.notNullOrWhiteSpace(pairwiseDid, "pairwiseDid");
+        ParamGuard.notNull(type, "type");
+
+        CopyOnWriteArrayList<Route> didRoutes = routes.get(pairwiseDid);
+        if (didRoutes == null) {
+            didRoutes = new CopyOnWriteArrayList<Route>();
+            CopyOnWriteArrayList<Route> existing = routes.putIfAbsent(pairwiseDid, didRoutes);
+            if (existing != null) didRoutes = existing;
+        }
+        didRoutes.addIfAbsent(new Route(type, handle));
+    }
+
+    /**
+     * Stops delivering the messages of a pairwise DID to a handle.
+     *
+     * @param pairwiseDid The pairwise DID.
+     * @param type        The kind of object the handle refers to.
+     * @param handle      The handle.
+     */
+    public void unregister(String pairwiseDid, HandleType type, int handle) {
+        ParamGuard.notNull(pairwiseDid, "pairwiseDid");
+        ParamGuard.notNull(type, "type");
+
+        CopyOnWriteArrayList<Route> didRoutes = routes.get(pairwiseDid);
+        if (didRoutes == null) return;
+        didRoutes.remove(new Route(type, handle));
+        if (didRoutes.isEmpty()) routes.remove(pairwiseDid, didRoutes);
+    }
+
+    /**
+     * Stops delivering the messages of a pairwise DID to any handle.
+     *
+     * @param pairwiseDid The pairwise DID.
+     */
+    public void unregister(String pairwiseDid) {
+        ParamGuard.notNull(pairwiseDid, "pairwiseDid");
+
+        routes.remove(pairwiseDid);
+    }
+
+    /**
+     * @return The pairwise DIDs with at least one registered handle.
+     */
+    public Set<String> getPairwiseDids() {
+        return routes.keySet();
+    }
+
+    /**
+     * Downloads the received messages of all registered pairwise DIDs, applies them to their handles
+     * and marks the applied messages as reviewed.
+     *
+     * @return A future that resolves to the outcome of the dispatch.
+     * @throws VcxException Thrown if an error occurs when calling the underlying SDK.
+     */
+    public CompletableFuture<DispatchResult> dispatch() throws VcxException {
+        List<String> pairwiseDids = new ArrayList<String>(routes.keySet());
+        if (pairwiseDids.isEmpty()) return CompletableFuture.completedFuture(new DispatchResult(0, 0, 0, 0));
+
+        final List<CompletableFuture<String>> downloads = new ArrayList<CompletableFuture<String>>();
+        for (int i = 0; i < pairwiseDids.size(); i += batchSize) {
+            List<String> batch = pairwiseDids.subList(i, Math.min(i + batchSize, pairwiseDids.size()));
+            downloads.add(backend.getMessages(join(batch)));
+        }
+
+        return CompletableFuture.allOf(downloads.toArray(new CompletableFuture<?>[0])).thenCompose(new Function<Void, CompletionStage<DispatchResult>>() {
+            @Override
+            public CompletionStage<DispatchResult> apply(Void ignored) {
+                List<String> messages = new ArrayList<String>(downloads.size());
+                for (CompletableFuture<String> download : downloads) messages.add(download.join());
+
+                return deliver(messages);
+            }
+        });
+    }
+
+    private CompletableFuture<DispatchResult> deliver(List<String> downloads) {
+        final List<Delivery> deliveries = new ArrayList<Delivery>();
+        Map<Route, CompletableFuture<?>> chains = new LinkedHashMap<Route, CompletableFuture<?>>();
+        int downloaded = 0;
+
+        for (String download : downloads) {
+            JSONArray connections = new JSONArray(download);
+
+            for (int i = 0; i < connections.length(); i++) {
+                JSONObject connection = connections.getJSONObject(i);
+                String pairwiseDid = connection.getString("pairwiseDID");
+                List<Route> didRoutes = routes.get(pairwiseDid);
+                JSONArray msgs = connection.optJSONArray("msgs");
+                if (didRoutes == null || didRoutes.isEmpty() || msgs == null) continue;
+
+                for (int j = 0; j < msgs.length(); j++) {
+                    JSONObject msg = msgs.getJSONObject(j);
+                    downloaded++;
+
+                    HandleType type = HandleType.forMessage(msg);
+                    if (type == null) continue;
+
+                    String message = msg.toString();
+                    List<CompletableFuture<Integer>> updates = new ArrayList<CompletableFuture<Integer>>(1);
+
+                    for (Route route : didRoutes) {
+                        if (route.type != type) continue;
+
+                        CompletableFuture<?> previous = chains.get(route);
+                        CompletableFuture<Integer> update = updateAfter(previous, route, message);
+                        chains.put(route, update);
+                        updates.add(update);
+                    }
+
+                    if (!updates.isEmpty()) deliveries.add(new Delivery(pairwiseDid, msg.getString("uid"), anySucceeded(updates)));
+                }
+            }
+        }
+
+        final int unrouted = downloaded - deliveries.size();
+        if (deliveries.isEmpty()) return CompletableFuture.completedFuture(new DispatchResult(downloaded, 0, 0, unrouted));
+
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[deliveries.size()];
+        for (int i = 0; i < futures.length; i++) futures[i] = deliveries.get(i).future;
+
+        final int total = downloaded;
+        return CompletableFuture.allOf(futures).handle(new BiFunction<Void, Throwable, Void>() {
+            @Override
+            public Void apply(Void ignored, Throwable e) {
+                return null;
+            }
+        }).thenCompose(new Function<Void, CompletionStage<DispatchResult>>() {
+            @Override
+            public CompletionStage<DispatchResult> apply(Void ignored) {
+                return markReviewed(deliveries, total, unrouted);
+            }
+        });
+    }
+
+    /**
+     * Completes normally once one of the updates succeeded, or with the error of the last one if all failed.
+     */
+    private static CompletableFuture<Void> anySucceeded(List<CompletableFuture<Integer>> updates) {
+        final CompletableFuture<Void> result = new CompletableFuture<Void>();
+        final AtomicInteger remaining = new AtomicInteger(updates.size());
+
+        for (CompletableFuture<Integer> update : updates) {
+            update.whenComplete(new BiConsumer<Integer, Throwable>() {
+                @Override
+                public void accept(Integer state, Throwable e) {
+                    if (e == null) result.complete(null);
+                    else if (remaining.decrementAndGet() == 0) result.completeExceptionally(e);
+                }
+            });
+        }
+
+        return result;
+    }
+
+    private CompletableFuture<DispatchResult> markReviewed(List<Delivery> deliveries, int downloaded, int unrouted) {
+        Map<String, JSONArray> uids = new LinkedHashMap<String, JSONArray>();
+        int delivered = 0;
+
+        for (Delivery delivery : deliveries) {
+            if (delivery.future.isCompletedExceptionally()) continue;
+
+            JSONArray didUids = uids.get(delivery.pairwiseDid);
+            if (didUids == null) {
+                didUids = new JSONArray();
+                uids.put(delivery.pairwiseDid, didUids);
+            }
+            didUids.put(delivery.uid);
+            delivered++;
+        }
+
+        final DispatchResult result = new DispatchResult(downloaded, delivered, deliveries.size() - delivered, unrouted);
+        if (logger.isDebugEnabled()) logger.debug("dispatch() delivered: downloaded = [{}], delivered = [{}], failed = [{}], unrouted = [{}]", result.getDownloaded(), result.getDelivered(), result.getFailed(), result.getUnrouted());
+        if (delivered == 0) return CompletableFuture.completedFuture(result);
+
+        JSONArray msgJson = new JSONArray();
+        for (Map.Entry<String, JSONArray> entry : uids.entrySet()) {
+            msgJson.put(new JSONObject().put("pairwiseDID", entry.getKey()).put("uids", entry.getValue()));
+        }
+
+        try {
+            return backend.updateMessages(msgJson.toString()).thenApply(new Function<Integer, DispatchResult>() {
+                @Override
+                public DispatchResult apply(Integer ignored) {
+                    return result;
+                }
+            });
+        } catch (VcxException e) {
+            return failed(e);
+        }
+    }
+
+    /**
+     * Applies a message to a handle once the previous message of the same handle has been applied,
+     * whether or not that succeeded.
+     */
+    private CompletableFuture<Integer> updateAfter(CompletableFuture<?> previous, final Route route, final String message) {
+        if (previous == null) return updateStateWithMessage(route, message);
+
+        return previous.handle(new BiFunction<Object, Throwable, Void>() {
+            @Override
+            public Void apply(Object ignored, Throwable e) {
+                return null;
+            }
+        }).thenCompose(new Function<Void, CompletionStage<Integer>>() {
+            @Override
+            public CompletionStage<Integer> apply(Void ignored) {
+                return updateStateWithMessage(route, message);
+            }
+        });
+    }
+
+    private CompletableFuture<Integer> updateStateWithMessage(Route route, String message) {
+        try {
+            return backend.updateStateWithMessage(route.type, route.handle, message);
+        } catch (VcxException e) {
+            return failed(e);
+        }
+    }
+
+    private static <T> CompletableFuture<T> failed(Throwable e) {
+        CompletableFuture<T> future = new CompletableFuture<T>();
+        future.completeExceptionally(e);
+        return future;
+    }
+
+    private static String join(List<String> values) {
+        StringBuilder builder = new StringBuilder();
+        for (String value : values) {
+            if (builder.length() > 0) builder.append(',');
+            builder.append(value);
+        }
+        return builder.toString();
+    }
+}
@@ -4,11 +4,9 @@ import com.evernym.sdk.vcx.LibVcx;
 import com.evernym.sdk.vcx.ParamGuard;
 import com.evernym.sdk.vcx.VcxException;
 import com.evernym.sdk.vcx.VcxJava;
+import com.evernym.sdk.vcx.VcxLogger;
 import com.sun.jna.Callback;
 
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-
 import java.util.concurrent.CompletableFuture;
 
 
@@ -17,11 +15,11 @@ import java.util.concurrent.CompletableFuture;
  */
 
 public class UtilsApi extends VcxJava.API {
-    private static final Logger logger = LoggerFactory.getLogger("UtilsApi");
+    private static final VcxLogger logger = VcxLogger.getLogger("UtilsApi");
     private static Callback provAsyncCB = new Callback() {
         @SuppressWarnings({"unused", "unchecked"})
         public void callback(int commandHandle, int err, String config) {
-            logger.debug("callback() called with: commandHandle = [" + commandHandle + "], err = [" + err + "], config = [" + config + "]");
+            if (logger.isDebugEnabled()) logger.debug("callback() called with: commandHandle = [{}], err = [{}], config = [{}]", commandHandle, err, config);
             CompletableFuture<String> future = (CompletableFuture<String>) removeFuture(commandHandle);
             if (!checkCallback(future, err)) return;
 
@@ -47,14 +45,14 @@ public class UtilsApi extends VcxJava.API {
         int result = LibVcx.api.vcx_agent_provision_async(
                 commandHandle, conf,
                 provAsyncCB);
-        checkResult(result);
+        checkResult(commandHandle, result);
         return future;
     }
 
     private static Callback vcxUpdateAgentInfoCB = new Callback() {
         @SuppressWarnings({"unused", "unchecked"})
         public void callback(int commandHandle, int err) {
-            logger.debug("callback() called with: commandHandle = [" + commandHandle + "], err = [" + err + "]");
+            if (logger.isDebugEnabled()) logger.debug("callback() called with: commandHandle = [{}], err = [{}]", commandHandle, err);
             CompletableFuture<Integer> future = (CompletableFuture<Integer>) removeFuture(commandHandle);
             if (!checkCallback(future, err)) return;
             Integer result = commandHandle;
@@ -73,14 +71,14 @@ public class UtilsApi extends VcxJava.API {
                 config,
                 vcxUpdateAgentInfoCB
         );
-        checkResult(result);
+        checkResult(commandHandle, result);
         return future;
     }
 
     private static Callback vcxGetMessagesCB = new Callback() {
         @SuppressWarnings({"unused", "unchecked"})
         public void callback(int commandHandle, int err, String messages) {
-            logger.debug("callback() called with: commandHandle = [" + commandHandle + "], err = [" + err + "], messages = [****]");
+            if (logger.isDebugEnabled()) logger.debug("callback() called with: commandHandle = [{}], err = [{}], messages = [****]", commandHandle, err);
             CompletableFuture<String> future = (CompletableFuture<String>) removeFuture(commandHandle);
             if (!checkCallback(future, err)) return;
             String result = messages;
@@ -90,7 +88,7 @@ public class UtilsApi extends VcxJava.API {
 
     public static CompletableFuture<String> vcxGetMessages(String messageStatus, String uids, String pwdids) throws VcxException {
         ParamGuard.notNullOrWhiteSpace(messageStatus, "messageStatus");
-        logger.debug("vcxGetMessages() called with: messageStatus = [" + messageStatus + "], uids = [" + uids + "], pwdids = [****]");
+        if (logger.isDebugEnabled()) logger.debug("vcxGetMessages() called with: messageStatus = [{}], uids = [{}], pwdids = [****]", messageStatus, uids);
         CompletableFuture<String> future = new CompletableFuture<String>();
         int commandHandle = addFuture(future);
 
@@ -101,13 +99,13 @@ public class UtilsApi extends VcxJava.API {
                 pwdids,
                 vcxGetMessagesCB
         );
-        checkResult(result);
+        checkResult(commandHandle, result);
         return future;
     }
 
     public static CompletableFuture<String> vcxGetAgentMessages(String messageStatus, String uids) throws VcxException {
         ParamGuard.notNullOrWhiteSpace(messageStatus, "messageStatus");
-        logger.debug("vcxGetAgentMessages() called with: messageStatus = [" + messageStatus + "], uids = [" + uids + "]");
+        if (logger.isDebugEnabled()) logger.debug("vcxGetAgentMessages() called with: messageStatus = [{}], uids = [{}]", messageStatus, uids);
         CompletableFuture<String> future = new CompletableFuture<String>();
         int commandHandle = addFuture(future);
 
@@ -117,14 +115,14 @@ public class UtilsApi extends VcxJava.API {
                 uids,
                 vcxGetMessagesCB
         );
-        checkResult(result);
+        checkResult(commandHandle, result);
         return future;
     }
 
     private static Callback vcxUpdateMessagesCB = new Callback() {
         @SuppressWarnings({"unused", "unchecked"})
         public void callback(int commandHandle, int err) {
-            logger.debug("callback() called with: commandHandle = [" + commandHandle + "], err = [" + err + "]");
+            if (logger.isDebugEnabled()) logger.debug("callback() called with: commandHandle = [{}], err = [{}]", commandHandle, err);
             CompletableFuture<Integer> future = (CompletableFuture<Integer>) removeFuture(commandHandle);
             if (!checkCallback(future, err)) return;
             Integer result = commandHandle;
@@ -135,7 +133,7 @@ public class UtilsApi extends VcxJava.API {
     public static CompletableFuture<Integer> vcxUpdateMessages(String messageStatus, String msgJson) throws VcxException {
         ParamGuard.notNullOrWhiteSpace(messageStatus, "messageStatus");
         ParamGuard.notNull(msgJson, "msgJson");
-        logger.debug("vcxUpdateMessages() called with: messageStatus = [" + messageStatus + "], msgJson = [****]");
+        if (logger.isDebugEnabled()) logger.debug("vcxUpdateMessages() called with: messageStatus = [{}], msgJson = [****]", messageStatus);
         CompletableFuture<Integer> future = new CompletableFuture<Integer>();
         int commandHandle = addFuture(future);
 
@@ -145,14 +143,14 @@ public class UtilsApi extends VcxJava.API {
                 msgJson,
                 vcxUpdateMessagesCB
         );
-        checkResult(result);
+        checkResult(commandHandle, result);
         return future;
     }
 
     private static Callback stringCB = new Callback() {
         @SuppressWarnings({"unused", "unchecked"})
         public void callback(int commandHandle, int err, String fees) {
-            logger.debug("callback() called with: commandHandle = [" + commandHandle + "], err = [" + err + "], fees = [" + fees + "]");
+            if (logger.isDebugEnabled()) logger.debug("callback() called with: commandHandle = [{}], err = [{}], fees = [{}]", commandHandle, err, fees);
             CompletableFuture<String> future = (CompletableFuture<String>) removeFuture(commandHandle);
             if (!checkCallback(future, err)) return;
             String result = fees;
@@ -169,7 +167,7 @@ public class UtilsApi extends VcxJava.API {
                 commandHandle,
                 stringCB
         );
-        checkResult(result);
+        checkResult(commandHandle, result);
         return future;
     }
 
@@ -182,15 +180,14 @@ public class UtilsApi extends VcxJava.API {
                 commandHandle,
                 stringCB
         );
-        checkResult(result);
+        checkResult(commandHandle, result);
         return future;
     }
 
     public static void setActiveTxnAuthorAgreementMeta(String text, String version,
                                                          String hash, String accMechType, long timeOfAcceptance) throws VcxException {
         ParamGuard.notNull(accMechType, "accMechType");
-        logger.debug("vcxProvisionAgent() called with: text = [" + text + "], version = [" + version + "]," +
-                " hash = [" + hash + "], accMechType = [" + accMechType + "], timeOfAcceptance = [" + timeOfAcceptance + "]");
+        if (logger.isDebugEnabled()) logger.debug("vcxProvisionAgent() called with: text = [{}], version = [{}], hash = [{}], accMechType = [{}], timeOfAcceptance = [{}]", text, version, hash, accMechType, timeOfAcceptance);
         int result = LibVcx.api.vcx_set_active_txn_author_agreement_meta(text, version, hash, accMechType, timeOfAcceptance);
         checkResult(result);
     }
@@ -207,7 +204,7 @@ public class UtilsApi extends VcxJava.API {
     private static Callback getReqPriceAsyncCB = new Callback() {
         @SuppressWarnings({"unused", "unchecked"})
         public void callback(int commandHandle, int err, long price) {
-            logger.debug("callback() called with: commandHandle = [" + commandHandle + "], err = [" + err + "], price = [" + price + "]");
+            if (logger.isDebugEnabled()) logger.debug("callback() called with: commandHandle = [{}], err = [{}], price = [{}]", commandHandle, err, price);
             CompletableFuture<Long> future = (CompletableFuture<Long>) removeFuture(commandHandle);
             if (!checkCallback(future, err)) return;
 
@@ -218,21 +215,21 @@ public class UtilsApi extends VcxJava.API {
 
     public static CompletableFuture<Long> vcxGetRequestPrice(String actionJson, String requesterInfoJson) throws VcxException {
         ParamGuard.notNull(actionJson, "actionJson");
-        logger.debug("vcxGetRequestPrice() called with: actionJson = [" + actionJson + "], requesterInfoJson = [" + requesterInfoJson + "]");
+        if (logger.isDebugEnabled()) logger.debug("vcxGetRequestPrice() called with: actionJson = [{}], requesterInfoJson = [{}]", actionJson, requesterInfoJson);
         CompletableFuture<Long> future = new CompletableFuture<Long>();
         int commandHandle = addFuture(future);
 
         int result = LibVcx.api.vcx_get_request_price(
                 commandHandle, actionJson, requesterInfoJson,
                 getReqPriceAsyncCB);
-        checkResult(result);
+        checkResult(commandHandle, result);
         return future;
     }
 
     private static Callback vcxEndorseTransactionCb = new Callback() {
         @SuppressWarnings({"unused", "unchecked"})
         public void callback(int commandHandle, int err) {
-            logger.debug("callback() called with: commandHandle = [" + commandHandle + "], err = [" + err + "]");
+            if (logger.isDebugEnabled()) logger.debug("callback() called with: commandHandle = [{}], err = [{}]", commandHandle, err);
             CompletableFuture<Integer> future = (CompletableFuture<Integer>) removeFuture(commandHandle);
             if (!checkCallback(future, err)) return;
             Integer result = commandHandle;
@@ -242,14 +239,14 @@ public class UtilsApi extends VcxJava.API {
 
     public static CompletableFuture<Integer> vcxEndorseTransaction(String transactionJson) throws VcxException {
         ParamGuard.notNull(transactionJson, "transactionJson");
-        logger.debug("vcxEndorseTransaction() called with: transactionJson = [" + transactionJson + "]");
+        if (logger.isDebugEnabled()) logger.debug("vcxEndorseTransaction() called with: transactionJson = [{}]", transactionJson);
         CompletableFuture<Integer> future = new CompletableFuture<Integer>();
         int commandHandle = addFuture(future);
 
         int result = LibVcx.api.vcx_endorse_transaction(
                 commandHandle, transactionJson,
                 vcxEndorseTransactionCb);
-        checkResult(result);
+        checkResult(commandHandle, result);
         return future;
     }
 }
@@ -5,22 +5,20 @@ import com.evernym.sdk.vcx.LibVcx;
 import com.evernym.sdk.vcx.ParamGuard;
 import com.evernym.sdk.vcx.VcxException;
 import com.evernym.sdk.vcx.VcxJava;
+import com.evernym.sdk.vcx.VcxLogger;
 import com.sun.jna.Callback;
 
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-
 import java.util.concurrent.CompletableFuture;
 
 public class VcxApi extends VcxJava.API {
-    private static final Logger logger = LoggerFactory.getLogger("VcxApi");
+    private static final VcxLogger logger = VcxLogger.getLogger("VcxApi");
     private VcxApi() {
     }
 
     private static Callback vcxIniWithConfigCB = new Callback() {
         @SuppressWarnings({"unused", "unchecked"})
         public void callback(int commandHandle, int err) {
-            logger.debug("callback() called with: commandHandle = [" + commandHandle + "], err = [" + err + "]");
+            if (logger.isDebugEnabled()) logger.debug("callback() called with: commandHandle = [{}], err = [{}]", commandHandle, err);
             CompletableFuture<Integer> future = (CompletableFuture<Integer>) removeFuture(commandHandle);
             if (!checkCallback(future, err)) return;
             Integer result = err;
@@ -33,7 +31,7 @@ public class VcxApi extends VcxJava.API {
 
         @SuppressWarnings({"unused", "unchecked"})
         public void callback(int xcommandHandle, int err) {
-            logger.debug("callback() called with: xcommandHandle = [" + xcommandHandle + "], err = [" + err + "]");
+            if (logger.isDebugEnabled()) logger.debug("callback() called with: xcommandHandle = [{}], err = [{}]", xcommandHandle, err);
             CompletableFuture<Integer> future = (CompletableFuture<Integer>) removeFuture(xcommandHandle);
             if (!checkCallback(future, err)) return;
             int result = err;
@@ -52,7 +50,7 @@ public class VcxApi extends VcxJava.API {
                 commandHandle,
                 configJson,
                 vcxIniWithConfigCB);
-        checkResult(result);
+        checkResult(commandHandle, result);
 
         return future;
 
@@ -60,20 +58,20 @@ public class VcxApi extends VcxJava.API {
 
     public static CompletableFuture<Integer> vcxInit(String configPath) throws VcxException {
         ParamGuard.notNullOrWhiteSpace(configPath, "configPath");
-        logger.debug("vcxInit() called with: configPath = [" + configPath + "]");
+        if (logger.isDebugEnabled()) logger.debug("vcxInit() called with: configPath = [{}]", configPath);
         CompletableFuture<Integer> future = new CompletableFuture<Integer>();
         int commandHandle = addFuture(future);
 
         int result = LibVcx.api.vcx_init(
                 commandHandle, configPath,
                 vcxInitCB);
-        checkResult(result);
+        checkResult(commandHandle, result);
         return future;
     }
 
     public static int vcxInitMinimal(String configJson) throws VcxException {
         ParamGuard.notNullOrWhiteSpace(configJson, "config");
-        logger.debug("vcxInitMinimal() called with: configJson = [" + configJson + "]");
+        if (logger.isDebugEnabled()) logger.debug("vcxInitMinimal() called with: configJson = [{}]", configJson);
 
         int result = LibVcx.api.vcx_init_minimal(
                 configJson);
@@ -83,7 +81,7 @@ public class VcxApi extends VcxJava.API {
     }
 
     public static int vcxShutdown(Boolean deleteWallet) throws VcxException {
-        logger.debug("vcxShutdown() called with: deleteWallet = [" + deleteWallet + "]");
+        if (logger.isDebugEnabled()) logger.debug("vcxShutdown() called with: deleteWallet = [{}]", deleteWallet);
         int result = LibVcx.api.vcx_shutdown(deleteWallet);
         checkResult(result);
         return result;
@@ -95,7 +93,7 @@ public class VcxApi extends VcxJava.API {
     }
 
     public static String vcxErrorCMessage(int errorCode) {
-        logger.debug("vcxErrorCMessage() called with: errorCode = [" + errorCode + "]");
+        if (logger.isDebugEnabled()) logger.debug("vcxErrorCMessage() called with: errorCode = [{}]", errorCode);
         return LibVcx.api.vcx_error_c_message(errorCode);
 
     }
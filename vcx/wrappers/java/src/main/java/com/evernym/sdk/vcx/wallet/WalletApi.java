@@ -4,16 +4,14 @@ import com.evernym.sdk.vcx.LibVcx;
 import com.evernym.sdk.vcx.ParamGuard;
 import com.evernym.sdk.vcx.VcxException;
 import com.evernym.sdk.vcx.VcxJava;
+import com.evernym.sdk.vcx.VcxLogger;
 import com.sun.jna.Pointer;
 import com.sun.jna.Callback;
 
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-
 import java.util.concurrent.CompletableFuture;
 
 public class WalletApi extends VcxJava.API {
-    private static final Logger logger = LoggerFactory.getLogger("WalletApi");
+    private static final VcxLogger logger = VcxLogger.getLogger("WalletApi");
 
     private WalletApi() {
     }
@@ -21,7 +19,7 @@ public class WalletApi extends VcxJava.API {
     private static Callback vcxExportWalletCB = new Callback() {
         @SuppressWarnings({"unused", "unchecked"})
         public void callback(int commandHandle, int err, int exportHandle) {
-            logger.debug("callback() called with: commandHandle = [" + commandHandle + "], err = [" + err + "], exportHandle = [" + exportHandle + "]");
+            if (logger.isDebugEnabled()) logger.debug("callback() called with: commandHandle = [{}], err = [{}], exportHandle = [{}]", commandHandle, err, exportHandle);
             CompletableFuture<Integer> future = (CompletableFuture<Integer>) removeFuture(commandHandle);
             if (!checkCallback(future, err)) return;
             Integer result = exportHandle;
@@ -35,12 +33,12 @@ public class WalletApi extends VcxJava.API {
     ) throws VcxException {
         ParamGuard.notNull(exportPath, "exportPath");
         ParamGuard.notNull(encryptionKey, "encryptionKey");
-        logger.debug("exportWallet() called with: exportPath = [" + exportPath + "], encryptionKey = [****]");
+        if (logger.isDebugEnabled()) logger.debug("exportWallet() called with: exportPath = [{}], encryptionKey = [****]", exportPath);
         CompletableFuture<Integer> future = new CompletableFuture<>();
         int commandHandle = addFuture(future);
 
         int result = LibVcx.api.vcx_wallet_export(commandHandle, exportPath, encryptionKey, vcxExportWalletCB);
-        checkResult(result);
+        checkResult(commandHandle, result);
 
         return future;
     }
@@ -48,7 +46,7 @@ public class WalletApi extends VcxJava.API {
     private static Callback vcxImportWalletCB = new Callback() {
         @SuppressWarnings({"unused", "unchecked"})
         public void callback(int commandHandle, int err, int importHandle) {
-            logger.debug("callback() called with: commandHandle = [" + commandHandle + "], err = [" + err + "], importHandle = [" + importHandle + "]");
+            if (logger.isDebugEnabled()) logger.debug("callback() called with: commandHandle = [{}], err = [{}], importHandle = [{}]", commandHandle, err, importHandle);
             CompletableFuture<Integer> future = (CompletableFuture<Integer>) removeFuture(commandHandle);
             if (!checkCallback(future, err)) return;
             Integer result = importHandle;
@@ -65,7 +63,7 @@ public class WalletApi extends VcxJava.API {
         int commandHandle = addFuture(future);
 
         int result = LibVcx.api.vcx_wallet_import(commandHandle, config, vcxImportWalletCB);
-        checkResult(result);
+        checkResult(commandHandle, result);
 
         return future;
     }
@@ -113,7 +111,7 @@ public class WalletApi extends VcxJava.API {
                 message.length,
                 signWithPaymentAddressCb);
 
-        checkResult(result);
+        checkResult(commandHandle, result);
 
         return future;
     }
@@ -164,7 +162,7 @@ public class WalletApi extends VcxJava.API {
                 signature.length,
                 verifyWithAddressCb);
 
-        checkResult(result);
+        checkResult(commandHandle, result);
 
         return future;
     }
@@ -172,7 +170,7 @@ public class WalletApi extends VcxJava.API {
     private static Callback vcxAddRecordWalletCB = new Callback() {
         @SuppressWarnings({"unused", "unchecked"})
         public void callback(int commandHandle, int err) {
-            logger.debug("callback() called with: commandHandle = [" + commandHandle + "], err = [" + err + "]");
+            if (logger.isDebugEnabled()) logger.debug("callback() called with: commandHandle = [{}], err = [{}]", commandHandle, err);
             CompletableFuture<Integer> future = (CompletableFuture<Integer>) removeFuture(commandHandle);
             if (!checkCallback(future, err)) return;
             Integer result = commandHandle;
@@ -188,13 +186,13 @@ public class WalletApi extends VcxJava.API {
         ParamGuard.notNull(recordType, "recordType");
         ParamGuard.notNull(recordId, "recordId");
         ParamGuard.notNull(recordValue, "recordValue");
-        logger.debug("addRecordWallet() called with: recordType = [" + recordType + "], recordId = [" + recordId + "], recordValue = [****]");
+        if (logger.isDebugEnabled()) logger.debug("addRecordWallet() called with: recordType = [{}], recordId = [{}], recordValue = [****]", recordType, recordId);
         CompletableFuture<Integer> future = new CompletableFuture<>();
         int commandHandle = addFuture(future);
         String recordTag = "{}";
 
         int result = LibVcx.api.vcx_wallet_add_record(commandHandle, recordType, recordId, recordValue, recordTag, vcxAddRecordWalletCB);
-        checkResult(result);
+        checkResult(commandHandle, result);
 
         return future;
     }
@@ -202,7 +200,7 @@ public class WalletApi extends VcxJava.API {
     private static Callback vcxDeleteRecordWalletCB = new Callback() {
         @SuppressWarnings({"unused", "unchecked"})
         public void callback(int commandHandle, int err) {
-            logger.debug("callback() called with: commandHandle = [" + commandHandle + "], err = [" + err + "]");
+            if (logger.isDebugEnabled()) logger.debug("callback() called with: commandHandle = [{}], err = [{}]", commandHandle, err);
             CompletableFuture<Integer> future = (CompletableFuture<Integer>) removeFuture(commandHandle);
             if (!checkCallback(future, err)) return;
             Integer result = commandHandle;
@@ -216,12 +214,12 @@ public class WalletApi extends VcxJava.API {
     ) throws VcxException {
         ParamGuard.notNull(recordType, "recordType");
         ParamGuard.notNull(recordId, "recordId");
-        logger.debug("deleteRecordWallet() called with: recordType = [" + recordType + "], recordId = [" + recordId + "]");
+        if (logger.isDebugEnabled()) logger.debug("deleteRecordWallet() called with: recordType = [{}], recordId = [{}]", recordType, recordId);
         CompletableFuture<Integer> future = new CompletableFuture<>();
         int commandHandle = addFuture(future);
 
         int result = LibVcx.api.vcx_wallet_delete_record(commandHandle, recordType, recordId, vcxDeleteRecordWalletCB);
-        checkResult(result);
+        checkResult(commandHandle, result);
 
         return future;
     }
@@ -229,7 +227,7 @@ public class WalletApi extends VcxJava.API {
     private static Callback vcxGetRecordWalletCB = new Callback() {
         @SuppressWarnings({"unused", "unchecked"})
         public void callback(int commandHandle, int err, String recordValue) {
-            logger.debug("callback() called with: commandHandle = [" + commandHandle + "], err = [" + err + "], recordValue = [****]");
+            if (logger.isDebugEnabled()) logger.debug("callback() called with: commandHandle = [{}], err = [{}], recordValue = [****]", commandHandle, err);
             CompletableFuture<String> future = (CompletableFuture<String>) removeFuture(commandHandle);
             if (!checkCallback(future, err)) return;
             // if nonzero errorcode, ignore walletHandle (null)
@@ -247,13 +245,13 @@ public class WalletApi extends VcxJava.API {
         ParamGuard.notNull(recordType, "recordType");
         ParamGuard.notNull(recordId, "recordId");
         ParamGuard.notNull(optionsJson, "optionsJson");
-        logger.debug("getRecordWallet() called with: recordType = [" + recordType + "], recordId = [" + recordId + "], optionsJson = [" + optionsJson + "]");
+        if (logger.isDebugEnabled()) logger.debug("getRecordWallet() called with: recordType = [{}], recordId = [{}], optionsJson = [{}]", recordType, recordId, optionsJson);
         CompletableFuture<String> future = new CompletableFuture<>();
         int commandHandle = addFuture(future);
         if (optionsJson.isEmpty()) optionsJson = "{}";
 
         int result = LibVcx.api.vcx_wallet_get_record(commandHandle, recordType, recordId, optionsJson, vcxGetRecordWalletCB);
-        checkResult(result);
+        checkResult(commandHandle, result);
 
         return future;
     }
@@ -276,12 +274,12 @@ public class WalletApi extends VcxJava.API {
         ParamGuard.notNull(recordType, "recordType");
         ParamGuard.notNull(recordId, "recordId");
         ParamGuard.notNull(recordValue, "recordValue");
-        logger.debug("updateRecordWallet() called with: recordType = [" + recordType + "], recordId = [" + recordId + "], recordValue = [****]");
+        if (logger.isDebugEnabled()) logger.debug("updateRecordWallet() called with: recordType = [{}], recordId = [{}], recordValue = [****]", recordType, recordId);
         CompletableFuture<Integer> future = new CompletableFuture<Integer>();
         int commandHandle = addFuture(future);
 
         int result = LibVcx.api.vcx_wallet_update_record_value(commandHandle, recordType, recordId, recordValue, vcxUpdateRecordWalletCB);
-        checkResult(result);
+        checkResult(commandHandle, result);
 
         return future;
     }
@@ -0,0 +1,65 @@
+package com.evernym.sdk.vcx;
+
+import com.evernym.sdk.vcx.utils.MessageDispatcher;
+import com.evernym.sdk.vcx.vcx.VcxApi;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutionException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class MessageDispatcherTest {
+    @BeforeEach
+    void setup() throws Exception {
+        System.setProperty(org.slf4j.impl.SimpleLogger.DEFAULT_LOG_LEVEL_KEY, "DEBUG");
+        if (!TestHelper.vcxInitialized) {
+            TestHelper.getResultFromFuture(VcxApi.vcxInit(TestHelper.VCX_CONFIG_TEST_MODE));
+            TestHelper.vcxInitialized = true;
+        }
+    }
+
+    @Test
+    @DisplayName("dispatch without registered handles does not call the agency")
+    void dispatchWithoutRoutes() throws VcxException, ExecutionException, InterruptedException {
+        MessageDispatcher dispatcher = new MessageDispatcher();
+        MessageDispatcher.DispatchResult result = TestHelper.getResultFromFuture(dispatcher.dispatch());
+        assertEquals(0, result.getDownloaded());
+    }
+
+    @Test
+    @DisplayName("register and unregister handles")
+    void registerAndUnregister() {
+        MessageDispatcher dispatcher = new MessageDispatcher(2);
+        dispatcher.register("did1", MessageDispatcher.HandleType.CONNECTION, 1);
+        dispatcher.register("did1", MessageDispatcher.HandleType.PROOF, 2);
+        dispatcher.register("did2", MessageDispatcher.HandleType.ISSUER_CREDENTIAL, 3);
+        assertEquals(2, dispatcher.getPairwiseDids().size());
+
+        dispatcher.unregister("did1", MessageDispatcher.HandleType.CONNECTION, 1);
+        assertTrue(dispatcher.getPairwiseDids().contains("did1"));
+        dispatcher.unregister("did1", MessageDispatcher.HandleType.PROOF, 2);
+        dispatcher.unregister("did2");
+        assertTrue(dispatcher.getPairwiseDids().isEmpty());
+    }
+
+    @Test
+    @DisplayName("dispatch routes downloaded messages to registered handles")
+    void dispatchRoutesMessages() throws VcxException, ExecutionException, InterruptedException {
+        int connectionHandle = TestHelper._createConnection();
+        MessageDispatcher dispatcher = new MessageDispatcher();
+        dispatcher.register("8XFh8yBzrpJQmNyZzgoTqB", MessageDispatcher.HandleType.CONNECTION, connectionHandle);
+
+        MessageDispatcher.DispatchResult result = TestHelper.getResultFromFuture(dispatcher.dispatch());
+        assertEquals(result.getDownloaded(), result.getDelivered() + result.getFailed() + result.getUnrouted());
+    }
+
+    @Test
+    @DisplayName("invalid batch size is rejected")
+    void invalidBatchSize() {
+        assertThrows(IllegalArgumentException.class, () -> new MessageDispatcher(0));
+    }
+}
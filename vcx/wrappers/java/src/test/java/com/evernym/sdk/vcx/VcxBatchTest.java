@@ -0,0 +1,78 @@
+package com.evernym.sdk.vcx;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class VcxBatchTest {
+
+    @Test
+    @DisplayName("outputs are collected in input order")
+    void collectKeepsInputOrder() throws ExecutionException, InterruptedException {
+        List<Integer> outputs = VcxBatch.collect(Arrays.asList("1", "22", "333").iterator(), 2,
+                input -> CompletableFuture.supplyAsync(input::length)).get();
+
+        assertEquals(Arrays.asList(1, 2, 3), outputs);
+    }
+
+    @Test
+    @DisplayName("parallelism bounds the calls in flight")
+    void parallelismIsBounded() throws ExecutionException, InterruptedException {
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        AtomicInteger progress = new AtomicInteger();
+
+        int count = VcxBatch.run(IntStream.range(0, 1000).boxed().iterator(), 4, input -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            return CompletableFuture.supplyAsync(() -> {
+                inFlight.decrementAndGet();
+                return input;
+            });
+        }, (position, output) -> progress.incrementAndGet()).get();
+
+        assertEquals(1000, count);
+        assertEquals(1000, progress.get());
+        assertTrue(maxInFlight.get() <= 4);
+    }
+
+    @Test
+    @DisplayName("synchronously completed calls do not grow the stack")
+    void synchronousCallsWork() throws ExecutionException, InterruptedException {
+        List<Integer> outputs = VcxBatch.collect(IntStream.range(0, 100000).boxed().iterator(), 1,
+                CompletableFuture::completedFuture).get();
+
+        assertEquals(IntStream.range(0, 100000).boxed().collect(Collectors.toList()), outputs);
+    }
+
+    @Test
+    @DisplayName("first failure fails the batch")
+    void firstFailureFailsBatch() {
+        CompletableFuture<Integer> result = VcxBatch.run(IntStream.range(0, 10).boxed().iterator(), 2, input -> {
+            CompletableFuture<Integer> future = new CompletableFuture<>();
+            if (input == 3) future.completeExceptionally(new IllegalStateException("failed"));
+            else future.complete(input);
+            return future;
+        }, (position, output) -> { });
+
+        ExecutionException e = assertThrows(ExecutionException.class, result::get);
+        assertTrue(e.getCause() instanceof IllegalStateException);
+    }
+
+    @Test
+    @DisplayName("empty input completes immediately")
+    void emptyInputWorks() throws ExecutionException, InterruptedException {
+        assertEquals(0, (int) VcxBatch.run(IntStream.range(0, 0).boxed().iterator(), 3,
+                CompletableFuture::completedFuture, (position, output) -> { }).get());
+    }
+}
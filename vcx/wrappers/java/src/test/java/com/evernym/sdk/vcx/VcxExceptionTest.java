@@ -1,9 +1,12 @@
 package com.evernym.sdk.vcx;
 
 import com.evernym.sdk.vcx.connection.ConnectionErrorException;
+import com.evernym.sdk.vcx.wallet.WalletItemNotFoundException;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 
 /**
@@ -11,6 +14,11 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
  */
 public class VcxExceptionTest {
 
+    @AfterEach
+    public void resetStackless() {
+        VcxException.setStackless();
+    }
+
     @Test
     public void assertFromSDKErrorThrowsCorrectException(){
         VcxException excpetion = VcxException.fromSdkError(1002);
@@ -34,4 +42,24 @@ public class VcxExceptionTest {
         VcxException excpetion = VcxException.fromSdkError(-1);
         assertEquals(excpetion.getClass().getName(), VcxException.class.getName());
     }
+
+    @Test
+    public void assertFromSDKErrorFillsStackTraceByDefault(){
+        VcxException exception = VcxException.fromSdkError(ErrorCode.WALLET_ITEM_NOT_FOUND.value());
+        assertTrue(exception instanceof WalletItemNotFoundException);
+        assertTrue(exception.getStackTrace().length > 0);
+    }
+
+    @Test
+    public void assertFromSDKErrorSkipsStackTraceForStacklessCodes(){
+        VcxException.setStackless(ErrorCode.WALLET_ITEM_NOT_FOUND);
+
+        VcxException notFound = VcxException.fromSdkError(ErrorCode.WALLET_ITEM_NOT_FOUND.value());
+        VcxException other = VcxException.fromSdkError(ErrorCode.WALLET_ITEM_CANNOT_ADD.value());
+
+        assertTrue(notFound instanceof WalletItemNotFoundException);
+        assertEquals(ErrorCode.WALLET_ITEM_NOT_FOUND.value(), notFound.getSdkErrorCode());
+        assertEquals(0, notFound.getStackTrace().length);
+        assertTrue(other.getStackTrace().length > 0);
+    }
 }
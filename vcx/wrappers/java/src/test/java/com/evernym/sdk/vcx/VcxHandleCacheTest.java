@@ -0,0 +1,86 @@
+package com.evernym.sdk.vcx;
+
+import com.evernym.sdk.vcx.connection.ConnectionApi;
+import com.evernym.sdk.vcx.vcx.VcxApi;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class VcxHandleCacheTest {
+    @BeforeEach
+    void setup() throws Exception {
+        System.setProperty(org.slf4j.impl.SimpleLogger.DEFAULT_LOG_LEVEL_KEY, "DEBUG");
+        if (!TestHelper.vcxInitialized) {
+            TestHelper.getResultFromFuture(VcxApi.vcxInit(TestHelper.VCX_CONFIG_TEST_MODE));
+            TestHelper.vcxInitialized = true;
+        }
+    }
+
+    @Test
+    @DisplayName("evicted connection is rehydrated on check-out")
+    void evictAndRehydrateConnection() throws VcxException, ExecutionException, InterruptedException {
+        VcxHandleCache.InMemoryStore store = new VcxHandleCache.InMemoryStore();
+        VcxHandleCache cache = new VcxHandleCache(store, 0, TimeUnit.SECONDS);
+        cache.put("alice", VcxObjectType.CONNECTION, TestHelper._createConnection());
+
+        assertEquals(1, (int) TestHelper.getResultFromFuture(cache.evictIdle()));
+        assertNotNull(store.get("alice"));
+        assertEquals(0, cache.getStats().getLive());
+        assertEquals(1, cache.getStats().getEvicted());
+
+        int handle = TestHelper.getResultFromFuture(cache.checkOut("alice"));
+        String serialized = TestHelper.getResultFromFuture(ConnectionApi.connectionSerialize(handle));
+        assertEquals(store.get("alice"), serialized);
+        assertEquals(1, cache.getStats().getRehydrations());
+
+        // Checked out objects are not evicted
+        assertEquals(0, (int) TestHelper.getResultFromFuture(cache.evictIdle()));
+        cache.checkIn("alice");
+
+        cache.remove("alice");
+        assertFalse(cache.contains("alice"));
+    }
+
+    @Test
+    @DisplayName("object removed while being evicted is not written back to the store")
+    void removeDuringEviction() throws VcxException, ExecutionException, InterruptedException {
+        VcxHandleCache.InMemoryStore store = new VcxHandleCache.InMemoryStore();
+        VcxHandleCache cache = new VcxHandleCache(store, 0, TimeUnit.SECONDS);
+        cache.put("carol", VcxObjectType.CONNECTION, TestHelper._createConnection());
+
+        CompletableFuture<Integer> eviction = cache.evict("carol");
+        cache.remove("carol");
+
+        assertEquals(0, (int) TestHelper.getResultFromFuture(eviction));
+        assertNull(store.get("carol"));
+        assertFalse(cache.contains("carol"));
+    }
+
+    @Test
+    @DisplayName("serialized objects are counted as evicted until checked out")
+    void putSerializedCountsAsEvicted() {
+        VcxHandleCache cache = new VcxHandleCache(new VcxHandleCache.InMemoryStore(), 1, TimeUnit.MINUTES);
+        cache.putSerialized("bob", VcxObjectType.PROOF, "{}");
+
+        assertEquals(0, cache.getStats().getLive());
+        assertEquals(1, cache.getStats().getEvicted());
+        assertEquals(0, cache.getStats().getEstimatedNativeBytes());
+    }
+
+    @Test
+    @DisplayName("check-out of unknown key is rejected")
+    void checkOutUnknownKey() {
+        VcxHandleCache cache = new VcxHandleCache(new VcxHandleCache.InMemoryStore(), 1, TimeUnit.MINUTES);
+        assertThrows(IllegalArgumentException.class, () -> cache.checkOut("unknown"));
+    }
+}
@@ -0,0 +1,60 @@
+package com.evernym.sdk.vcx;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class VcxLoggerTest {
+
+    @Test
+    public void assertLoggerIsCreatedOncePerSubsystem() {
+        assertSame(VcxLogger.getLogger("VcxLoggerTest"), VcxLogger.getLogger("VcxLoggerTest"));
+        assertEquals("VcxLoggerTest", VcxLogger.getLogger("VcxLoggerTest").getSubsystem());
+    }
+
+    @Test
+    public void assertArgumentsAreNotRenderedWhenDebugIsOff() {
+        VcxLogger logger = VcxLogger.getLogger("VcxLoggerTest");
+        final AtomicInteger rendered = new AtomicInteger();
+        Object argument = new Object() {
+            @Override
+            public String toString() {
+                rendered.incrementAndGet();
+                return "argument";
+            }
+        };
+
+        assertFalse(logger.isDebugEnabled());
+        for (int i = 0; i < 1000; i++) {
+            logger.debug("callback() called with: commandHandle = [{}], err = [{}], value = [{}]", i, 0, argument);
+        }
+        assertEquals(0, rendered.get());
+    }
+
+    @Test
+    public void assertSampleRateKeepsOneInN() {
+        VcxLogger.setSampleRate("VcxLoggerSampled", 10);
+        VcxLogger logger = VcxLogger.getLogger("VcxLoggerSampled");
+
+        int sampled = 0;
+        for (int i = 0; i < 1000; i++) {
+            if (logger.sample()) sampled++;
+        }
+        assertEquals(100, sampled);
+
+        VcxLogger.setSampleRate("VcxLoggerSampled", 1);
+        assertTrue(logger.sample());
+        assertTrue(logger.sample());
+    }
+
+    @Test
+    public void assertInvalidSampleRateIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> VcxLogger.setSampleRate("VcxLoggerTest", 0));
+    }
+}
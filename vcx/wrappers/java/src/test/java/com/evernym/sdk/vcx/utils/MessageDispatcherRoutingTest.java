@@ -0,0 +1,128 @@
+package com.evernym.sdk.vcx.utils;
+
+import com.evernym.sdk.vcx.VcxException;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class MessageDispatcherRoutingTest {
+    private static final String DID = "8XFh8yBzrpJQmNyZzgoTqB";
+
+    /**
+     * Serves one download and records the state updates and reviewed messages.
+     */
+    private static class FakeBackend implements MessageDispatcher.Backend {
+        private final List<String> updates = new ArrayList<>();
+        private final Set<String> rejected = new HashSet<>();
+        private String download;
+        private String reviewed;
+
+        @Override
+        public CompletableFuture<String> getMessages(String pairwiseDids) {
+            return CompletableFuture.completedFuture(download);
+        }
+
+        @Override
+        public CompletableFuture<Integer> updateMessages(String msgJson) {
+            reviewed = msgJson;
+            return CompletableFuture.completedFuture(0);
+        }
+
+        @Override
+        public CompletableFuture<Integer> updateStateWithMessage(MessageDispatcher.HandleType type, int handle, String message) throws VcxException {
+            String uid = new JSONObject(message).getString("uid");
+            updates.add(type + ":" + handle + ":" + uid);
+            CompletableFuture<Integer> future = new CompletableFuture<>();
+            if (rejected.contains(uid)) future.completeExceptionally(new IllegalStateException(uid));
+            else future.complete(1);
+            return future;
+        }
+    }
+
+    private FakeBackend backend;
+    private MessageDispatcher dispatcher;
+
+    private static JSONObject msg(String uid, String type) {
+        return new JSONObject().put("uid", uid).put("type", type).put("statusCode", MessageDispatcher.STATUS_RECEIVED);
+    }
+
+    private static JSONObject ariesMsg(String uid, String ariesType) {
+        String payload = new JSONObject()
+                .put("@type", new JSONObject().put("name", "aries").put("ver", "1.0").put("fmt", "json"))
+                .put("@msg", new JSONObject().put("@type", ariesType).toString())
+                .toString();
+        return msg(uid, "aries").put("decryptedPayload", payload);
+    }
+
+    private static String download(JSONObject... msgs) {
+        JSONArray array = new JSONArray();
+        for (JSONObject msg : msgs) array.put(msg);
+        return new JSONArray().put(new JSONObject().put("pairwiseDID", DID).put("msgs", array)).toString();
+    }
+
+    @BeforeEach
+    void setup() {
+        backend = new FakeBackend();
+        dispatcher = new MessageDispatcher(10, backend);
+        dispatcher.register(DID, MessageDispatcher.HandleType.CONNECTION, 1);
+        dispatcher.register(DID, MessageDispatcher.HandleType.ISSUER_CREDENTIAL, 2);
+    }
+
+    @Test
+    @DisplayName("messages go only to the handles of their type on a shared pairwise DID")
+    void messagesGoToHandlesOfTheirType() throws Exception {
+        backend.download = download(
+                msg("answer", "connReqAnswer"),
+                msg("request", "credReq"),
+                ariesMsg("aries-request", "did:sov:BzCbsNYhMrjHiqZDTUASHg;spec/issue-credential/1.0/request-credential"),
+                msg("proof", "proof"),
+                msg("offer", "credOffer"));
+
+        MessageDispatcher.DispatchResult result = dispatcher.dispatch().get();
+
+        assertEquals(5, result.getDownloaded());
+        assertEquals(3, result.getDelivered());
+        assertEquals(0, result.getFailed());
+        assertEquals(2, result.getUnrouted());
+        assertEquals("[CONNECTION:1:answer, ISSUER_CREDENTIAL:2:request, ISSUER_CREDENTIAL:2:aries-request]", backend.updates.toString());
+        assertEquals("[\"answer\",\"request\",\"aries-request\"]", new JSONArray(backend.reviewed).getJSONObject(0).getJSONArray("uids").toString());
+    }
+
+    @Test
+    @DisplayName("a message is consumed once one handle of its type applied it")
+    void messageIsConsumedPerMessage() throws Exception {
+        dispatcher.register(DID, MessageDispatcher.HandleType.ISSUER_CREDENTIAL, 3);
+        backend.download = download(msg("request", "credReq"), msg("bad", "credReq"), msg("answer", "connReqAnswer"));
+        backend.rejected.add("bad");
+
+        MessageDispatcher.DispatchResult result = dispatcher.dispatch().get();
+
+        assertEquals(2, result.getDelivered());
+        assertEquals(1, result.getFailed());
+        assertEquals("[\"request\",\"answer\"]", new JSONArray(backend.reviewed).getJSONObject(0).getJSONArray("uids").toString());
+    }
+
+    @Test
+    @DisplayName("message types map to handle types")
+    void messageTypesMapToHandleTypes() {
+        assertEquals(MessageDispatcher.HandleType.CONNECTION, MessageDispatcher.HandleType.forMessage(msg("1", "CONN_REQ_ACCEPTED")));
+        assertEquals(MessageDispatcher.HandleType.CREDENTIAL, MessageDispatcher.HandleType.forMessage(msg("1", "cred")));
+        assertEquals(MessageDispatcher.HandleType.PROOF, MessageDispatcher.HandleType.forMessage(
+                ariesMsg("1", "https://didcomm.org/present-proof/1.0/presentation")));
+        assertEquals(MessageDispatcher.HandleType.CONNECTION, MessageDispatcher.HandleType.forMessage(
+                ariesMsg("1", "did:sov:BzCbsNYhMrjHiqZDTUASHg;spec/connections/1.0/response")));
+        assertNull(MessageDispatcher.HandleType.forMessage(msg("1", "proofReq")));
+        assertNull(MessageDispatcher.HandleType.forMessage(msg("1", "aries")));
+    }
+}
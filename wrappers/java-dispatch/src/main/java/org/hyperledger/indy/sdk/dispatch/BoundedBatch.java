@@ -0,0 +1,188 @@
+package org.hyperledger.indy.sdk.dispatch;
+
+import java.util.Iterator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.BiConsumer;
+
+/**
+ * Runs an asynchronous operation over a sequence of inputs while keeping at most a fixed number of
+ * calls in flight. The next input is pulled as soon as a previous call completes, so a large sequence
+ * never has to be materialized and the native worker threads stay busy without queuing the whole batch.
+ *
+ * This is the core of the batch helpers of both wrappers, which adapt their own operation types to it.
+ */
+public final class BoundedBatch {
+
+	private BoundedBatch() {
+
+	}
+
+	/**
+	 * An asynchronous operation applied to every input.
+	 *
+	 * @param <I> The input type.
+	 * @param <O> The output type.
+	 */
+	public interface Operation<I, O> {
+
+		CompletableFuture<O> apply(I input) throws Exception;
+	}
+
+	/**
+	 * Receives every output as soon as it is available, in completion order.
+	 * Calls are not concurrent; the number of calls so far is the progress of the batch.
+	 *
+	 * @param <O> The output type.
+	 */
+	public interface Listener<O> {
+
+		void onResult(int position, O output);
+	}
+
+	/**
+	 * Applies the operation to all inputs with bounded parallelism.
+	 *
+	 * The returned future fails with the error of the first failed operation, or of the iterator or listener;
+	 * no further inputs are pulled after a failure.
+	 *
+	 * @param inputs      The inputs, pulled lazily.
+	 * @param parallelism The maximum number of operations in flight.
+	 * @param operation   The operation.
+	 * @param listener    Receives every output.
+	 * @param <I>         The input type.
+	 * @param <O>         The output type.
+	 * @return A future resolving to the number of processed inputs.
+	 */
+	public static <I, O> CompletableFuture<Integer> run(
+			Iterator<I> inputs,
+			int parallelism,
+			Operation<I, O> operation,
+			Listener<O> listener) {
+
+		if (inputs == null) throw new IllegalArgumentException("A value must be provided for the 'inputs' parameter.");
+		if (operation == null) throw new IllegalArgumentException("A value must be provided for the 'operation' parameter.");
+		if (listener == null) throw new IllegalArgumentException("A value must be provided for the 'listener' parameter.");
+		if (parallelism <= 0) throw new IllegalArgumentException("A positive value must be provided for the 'parallelism' parameter.");
+
+		Run<I, O> run = new Run<I, O>(inputs, operation, listener);
+		for (int i = 0; i < parallelism; i++) run.submitNext();
+
+		return run.result;
+	}
+
+	private static final class Run<I, O> {
+
+		private final Iterator<I> inputs;
+		private final Operation<I, O> operation;
+		private final Listener<O> listener;
+		private final CompletableFuture<Integer> result = new CompletableFuture<Integer>();
+		private int nextPosition;
+		private int inFlight;
+		private int completed;
+
+		private Run(Iterator<I> inputs, Operation<I, O> operation, Listener<O> listener) {
+
+			this.inputs = inputs;
+			this.operation = operation;
+			this.listener = listener;
+		}
+
+		/**
+		 * Submits inputs one after another for as long as their futures are already complete, so a
+		 * synchronously failing or completing native call does not grow the stack.
+		 */
+		private void submitNext() {
+
+			while (true) {
+
+				final int position;
+				I input;
+
+				synchronized (this) {
+
+					if (this.result.isDone()) return;
+
+					try {
+
+						if (! this.inputs.hasNext()) {
+
+							if (this.inFlight == 0) this.result.complete(this.completed);
+							return;
+						}
+
+						input = this.inputs.next();
+					} catch (RuntimeException e) {
+
+						this.result.completeExceptionally(e);
+						return;
+					}
+
+					position = this.nextPosition++;
+					this.inFlight++;
+				}
+
+				CompletableFuture<O> future;
+
+				try {
+
+					future = this.operation.apply(input);
+				} catch (Exception e) {
+
+					this.result.completeExceptionally(e);
+					return;
+				}
+
+				if (! future.isDone()) {
+
+					future.whenComplete(new BiConsumer<O, Throwable>() {
+
+						@Override
+						public void accept(O output, Throwable e) {
+
+							if (complete(position, output, e)) submitNext();
+						}
+					});
+					return;
+				}
+
+				O output = null;
+				Throwable error = null;
+
+				try {
+
+					output = future.join();
+				} catch (CompletionException e) {
+
+					error = e;
+				}
+
+				if (! complete(position, output, error)) return;
+			}
+		}
+
+		private synchronized boolean complete(int position, O output, Throwable e) {
+
+			if (this.result.isDone()) return false;
+
+			if (e != null) {
+
+				this.result.completeExceptionally(e instanceof CompletionException && e.getCause() != null ? e.getCause() : e);
+				return false;
+			}
+
+			try {
+
+				this.listener.onResult(position, output);
+			} catch (RuntimeException listenerError) {
+
+				this.result.completeExceptionally(listenerError);
+				return false;
+			}
+
+			this.inFlight--;
+			this.completed++;
+			return true;
+		}
+	}
+}
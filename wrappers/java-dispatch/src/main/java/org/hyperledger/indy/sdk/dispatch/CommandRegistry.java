@@ -0,0 +1,766 @@
+package org.hyperledger.indy.sdk.dispatch;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Registry of the futures waiting for a native callback, keyed by command handle.
+ *
+ * Handles are kept as primitives in lock-striped open-addressing tables, so registering and removing
+ * a command neither boxes the handle nor contends on a single lock. Every entry records when it was
+ * registered, which is used to find futures that were never completed.
+ *
+ * A command can be given a deadline, either through {@link #setDefaultTimeout(long, TimeUnit)} or for the
+ * calls made by one thread within {@link #withTimeout(long, TimeUnit)}. Futures still waiting for their
+ * callback at the deadline are completed with a {@link TimeoutException} by a timer wheel; callbacks that
+ * arrive later are counted and dropped.
+ *
+ * If an {@link Instrumentation} is set, every command is also timed from registration to callback, and
+ * the time the callback thread spends completing its future is measured.
+ *
+ * Each wrapper owns one registry for the commands of its native library (LibIndy.getCommandRegistry and
+ * LibVcx.getCommandRegistry), so deadlines and instrumentation set for one library do not affect the other.
+ * The registration, tagging and instrumentation methods are public for the wrappers only.
+ */
+public final class CommandRegistry {
+
+	private static final Logger logger = LoggerFactory.getLogger(CommandRegistry.class);
+
+	private static final int STRIPE_BITS = 5;
+	private static final int STRIPES = 1 << STRIPE_BITS;
+	private static final int INITIAL_STRIPE_CAPACITY = 16;
+
+	/**
+	 * Upper bounds, in milliseconds, of the buckets of {@link Stats#getAgeHistogram()}; the last bucket is unbounded.
+	 */
+	public static final long[] AGE_BUCKET_BOUNDS_MILLIS = {1, 10, 100, 1000, 10000, 60000};
+
+	private final AtomicInteger nextHandle = new AtomicInteger();
+	private final Stripe[] stripes = new Stripe[STRIPES];
+	private final AtomicLong registered = new AtomicLong();
+	private final AtomicLong completed = new AtomicLong();
+	private final AtomicLong unknown = new AtomicLong();
+	private final AtomicLong purged = new AtomicLong();
+	private final AtomicLong timedOut = new AtomicLong();
+	private final ThreadLocal<long[]> scopedTimeout = new ThreadLocal<long[]>();
+	private final TimeoutWheel wheel = new TimeoutWheel();
+	private volatile long defaultTimeoutNanos;
+	private volatile Instrumentation instrumentation = Instrumentation.NOOP;
+
+	/**
+	 * Creates an empty registry. Each wrapper creates one for its native library.
+	 */
+	public CommandRegistry() {
+
+		for (int i = 0; i < STRIPES; i++) this.stripes[i] = new Stripe();
+	}
+
+	/*
+	 * REGISTRATION
+	 */
+
+	/**
+	 * Generates a new command handle.
+	 *
+	 * @return The command handle, never 0.
+	 */
+	public int newHandle() {
+
+		int handle;
+		do {
+			handle = this.nextHandle.incrementAndGet();
+		} while (handle == 0); // 0 marks free slots
+
+		return handle;
+	}
+
+	/**
+	 * Registers a future under a new command handle.
+	 *
+	 * @param future The future.
+	 * @return The command handle.
+	 */
+	public int add(CompletableFuture<?> future) {
+
+		int handle = newHandle();
+		long now = System.nanoTime();
+
+		Instrumentation instrumentation = this.instrumentation;
+		Timing timing = null;
+		if (instrumentation != Instrumentation.NOOP) {
+
+			timing = new Timing(instrumentation, now);
+			future.whenComplete(timing); // registered first, so it runs after the stages of the caller
+		}
+
+		stripe(handle).put(handle, future, now, timing);
+		this.registered.incrementAndGet();
+
+		long[] scoped = this.scopedTimeout.get();
+		long timeout = scoped != null ? scoped[0] : this.defaultTimeoutNanos;
+		if (timeout > 0) this.wheel.schedule(handle, now + timeout);
+
+		return handle;
+	}
+
+	/**
+	 * Removes the future registered under a command handle.
+	 *
+	 * @param handle The command handle.
+	 * @return The future, or null if no future is registered under the handle.
+	 */
+	public CompletableFuture<?> remove(int handle) {
+
+		if (handle == 0) {
+
+			this.unknown.incrementAndGet();
+			return null;
+		}
+
+		Stripe stripe = stripe(handle);
+		Timing timing = this.instrumentation != Instrumentation.NOOP ? stripe.timing(handle) : null;
+		CompletableFuture<?> future = stripe.remove(handle);
+
+		if (future == null) {
+
+			this.unknown.incrementAndGet();
+			return null;
+		}
+
+		this.completed.incrementAndGet();
+		if (timing != null) timing.callbackReceived(System.nanoTime());
+
+		return future;
+	}
+
+	/*
+	 * INSTRUMENTATION
+	 */
+
+	/**
+	 * Sets the instrumentation notified about the commands registered from now on.
+	 *
+	 * @param instrumentation The instrumentation, or {@link Instrumentation#NOOP} to disable it.
+	 */
+	public void setInstrumentation(Instrumentation instrumentation) {
+
+		this.instrumentation = instrumentation;
+	}
+
+	/**
+	 * Gets the instrumentation notified about the commands.
+	 *
+	 * @return The instrumentation.
+	 */
+	public Instrumentation getInstrumentation() {
+
+		return this.instrumentation;
+	}
+
+	/**
+	 * Records the native function a command was passed to.
+	 *
+	 * @param handle   The command handle.
+	 * @param function The name of the native function.
+	 */
+	public void tag(int handle, String function) {
+
+		Timing timing = stripe(handle).timing(handle);
+		if (timing == null) return;
+
+		timing.function = function;
+		timing.instrumentation.commandStarted(function);
+	}
+
+	/**
+	 * Removes the future of a command that the native function rejected synchronously; its callback will never come.
+	 *
+	 * @param handle The command handle.
+	 */
+	public void discard(int handle) {
+
+		Stripe stripe = stripe(handle);
+		Timing timing = stripe.timing(handle);
+
+		if (stripe.remove(handle) != null && timing != null) timing.ended(System.nanoTime());
+	}
+
+	/*
+	 * DEADLINES
+	 */
+
+	/**
+	 * Sets the deadline of every command registered outside a {@link #withTimeout(long, TimeUnit)} scope.
+	 *
+	 * @param timeout The timeout, or 0 for no deadline.
+	 * @param unit    The unit of timeout.
+	 */
+	public void setDefaultTimeout(long timeout, TimeUnit unit) {
+
+		if (timeout < 0) throw new IllegalArgumentException("A non-negative value must be provided for the 'timeout' parameter.");
+
+		this.defaultTimeoutNanos = unit.toNanos(timeout);
+	}
+
+	/**
+	 * Sets the deadline of the commands registered by the current thread until the returned scope is closed.
+	 * Commands started later from callbacks run on other threads and are not affected.
+	 *
+	 * @param timeout The timeout, or 0 for no deadline.
+	 * @param unit    The unit of timeout.
+	 * @return The scope, to be closed in a finally block or try-with-resources statement.
+	 */
+	public Scope withTimeout(long timeout, TimeUnit unit) {
+
+		if (timeout < 0) throw new IllegalArgumentException("A non-negative value must be provided for the 'timeout' parameter.");
+
+		long[] previous = this.scopedTimeout.get();
+		this.scopedTimeout.set(new long[] {unit.toNanos(timeout)});
+
+		return new Scope(previous);
+	}
+
+	/**
+	 * Restores the deadline that was in effect before {@link #withTimeout(long, TimeUnit)}.
+	 */
+	public final class Scope implements AutoCloseable {
+
+		private final long[] previous;
+
+		private Scope(long[] previous) {
+
+			this.previous = previous;
+		}
+
+		@Override
+		public void close() {
+
+			if (this.previous == null) CommandRegistry.this.scopedTimeout.remove();
+			else CommandRegistry.this.scopedTimeout.set(this.previous);
+		}
+	}
+
+	private void expire(int handle) {
+
+		Stripe stripe = stripe(handle);
+		Timing timing = stripe.timing(handle);
+		CompletableFuture<?> future = stripe.remove(handle);
+		if (future == null) return; // the callback came first
+
+		this.timedOut.incrementAndGet();
+		if (timing != null) timing.ended(System.nanoTime());
+		future.completeExceptionally(new TimeoutException("No callback received for command " + handle + " before its deadline"));
+	}
+
+	/**
+	 * Gets the number of futures waiting for a callback.
+	 *
+	 * @return The number of registered futures.
+	 */
+	public int size() {
+
+		int size = 0;
+		for (Stripe stripe : this.stripes) size += stripe.size();
+
+		return size;
+	}
+
+	/*
+	 * LEAK DETECTION
+	 */
+
+	/**
+	 * Removes the futures registered for longer than the given age.
+	 *
+	 * Futures that are already done were completed without their callback, e.g. because the native call
+	 * failed synchronously; they are dropped silently. Futures still pending have lost their callback;
+	 * they are logged and, if requested, completed with a {@link TimeoutException}.
+	 *
+	 * @param age      The minimum age of the futures to purge.
+	 * @param unit     The unit of age.
+	 * @param complete Whether to complete pending futures exceptionally.
+	 * @return The number of pending futures found.
+	 */
+	public int purgeOlderThan(long age, TimeUnit unit, boolean complete) {
+
+		long registeredBefore = System.nanoTime() - unit.toNanos(age);
+		int leaked = 0;
+
+		for (Stripe stripe : this.stripes) {
+
+			for (Entry entry : stripe.removeOlderThan(registeredBefore)) {
+
+				this.purged.incrementAndGet();
+				if (entry.timing != null) entry.timing.ended(System.nanoTime());
+				if (entry.future.isDone()) continue;
+
+				leaked++;
+				logger.warn("Command {} has been waiting for its callback for more than {} {}", entry.handle, age, unit);
+				if (complete) entry.future.completeExceptionally(new TimeoutException(
+						"No callback received for command " + entry.handle));
+			}
+		}
+
+		return leaked;
+	}
+
+	/*
+	 * METRICS
+	 */
+
+	/**
+	 * Gets a snapshot of the counters of the registry.
+	 *
+	 * @return The counters.
+	 */
+	public Stats getStats() {
+
+		long now = System.nanoTime();
+		long oldest = now;
+		int size = 0;
+		long[] histogram = new long[AGE_BUCKET_BOUNDS_MILLIS.length + 1];
+
+		for (Stripe stripe : this.stripes) {
+
+			synchronized (stripe) {
+
+				size += stripe.size;
+				for (int i = 0; i < stripe.keys.length; i++) {
+
+					if (stripe.keys[i] == 0) continue;
+					if (stripe.times[i] - oldest < 0) oldest = stripe.times[i];
+
+					long ageMillis = TimeUnit.NANOSECONDS.toMillis(now - stripe.times[i]);
+					int bucket = 0;
+					while (bucket < AGE_BUCKET_BOUNDS_MILLIS.length && ageMillis >= AGE_BUCKET_BOUNDS_MILLIS[bucket]) bucket++;
+					histogram[bucket]++;
+				}
+			}
+		}
+
+		return new Stats(size, this.registered.get(), this.completed.get(), this.unknown.get(), this.purged.get(),
+				this.timedOut.get(), now - oldest, histogram);
+	}
+
+	/**
+	 * Counters of a {@link CommandRegistry}.
+	 */
+	public static final class Stats {
+
+		private final int pending;
+		private final long registered, completed, unknown, purged, timedOut, oldestAgeNanos;
+		private final long[] ageHistogram;
+
+		Stats(int pending, long registered, long completed, long unknown, long purged, long timedOut, long oldestAgeNanos, long[] ageHistogram) {
+
+			this.pending = pending;
+			this.registered = registered;
+			this.completed = completed;
+			this.unknown = unknown;
+			this.purged = purged;
+			this.timedOut = timedOut;
+			this.oldestAgeNanos = oldestAgeNanos;
+			this.ageHistogram = ageHistogram;
+		}
+
+		/**
+		 * @return The number of futures waiting for a callback.
+		 */
+		public int getPending() { return this.pending; }
+
+		/**
+		 * @return The number of futures registered since startup.
+		 */
+		public long getRegistered() { return this.registered; }
+
+		/**
+		 * @return The number of callbacks that found their future.
+		 */
+		public long getCompleted() { return this.completed; }
+
+		/**
+		 * @return The number of callbacks for handles without a registered future, e.g. late callbacks
+		 * of commands that timed out.
+		 */
+		public long getUnknown() { return this.unknown; }
+
+		/**
+		 * @return The number of futures removed by {@link CommandRegistry#purgeOlderThan(long, TimeUnit, boolean)}.
+		 */
+		public long getPurged() { return this.purged; }
+
+		/**
+		 * @return The number of futures completed with a {@link TimeoutException} at their deadline.
+		 */
+		public long getTimedOut() { return this.timedOut; }
+
+		/**
+		 * @return The age of the oldest pending future in nanoseconds, or 0 if none is pending.
+		 */
+		public long getOldestAgeNanos() { return this.oldestAgeNanos; }
+
+		/**
+		 * @return The number of pending futures per age bucket, see {@link #AGE_BUCKET_BOUNDS_MILLIS}.
+		 */
+		public long[] getAgeHistogram() { return this.ageHistogram.clone(); }
+
+		@Override
+		public String toString() {
+
+			return "Stats[pending=" + this.pending + ", registered=" + this.registered + ", completed=" + this.completed +
+					", unknown=" + this.unknown + ", purged=" + this.purged + ", timedOut=" + this.timedOut +
+					", oldestAgeNanos=" + this.oldestAgeNanos + ", ageHistogram=" + Arrays.toString(this.ageHistogram) + "]";
+		}
+	}
+
+	/*
+	 * STORAGE
+	 */
+
+	private Stripe stripe(int handle) {
+
+		return this.stripes[handle & (STRIPES - 1)];
+	}
+
+	private static final class Entry {
+
+		private final int handle;
+		private final CompletableFuture<?> future;
+		private final Timing timing;
+
+		private Entry(int handle, CompletableFuture<?> future, Timing timing) {
+
+			this.handle = handle;
+			this.future = future;
+			this.timing = timing;
+		}
+	}
+
+	/**
+	 * Timestamps of an instrumented command. Runs as the last stage of the command's future, so the dwell
+	 * time covers the stages the callback thread runs on completion.
+	 */
+	private static final class Timing implements BiConsumer<Object, Throwable> {
+
+		private final Instrumentation instrumentation;
+		private final long registeredAt;
+		private volatile String function = "unknown";
+		private volatile long callbackAt;
+
+		private Timing(Instrumentation instrumentation, long registeredAt) {
+
+			this.instrumentation = instrumentation;
+			this.registeredAt = registeredAt;
+		}
+
+		void callbackReceived(long now) {
+
+			this.callbackAt = now;
+			this.instrumentation.commandCompleted(this.function, now - this.registeredAt);
+		}
+
+		void ended(long now) {
+
+			this.instrumentation.commandCompleted(this.function, now - this.registeredAt);
+		}
+
+		@Override
+		public void accept(Object result, Throwable error) {
+
+			long callbackAt = this.callbackAt;
+			if (callbackAt != 0) this.instrumentation.callbackCompleted(this.function, System.nanoTime() - callbackAt);
+		}
+	}
+
+	/**
+	 * Open-addressing table with linear probing. Handles of a stripe share their low bits, so the
+	 * remaining bits of consecutive handles map to consecutive slots.
+	 */
+	private static final class Stripe {
+
+		private int[] keys = new int[INITIAL_STRIPE_CAPACITY];
+		private CompletableFuture<?>[] values = new CompletableFuture<?>[INITIAL_STRIPE_CAPACITY];
+		private long[] times = new long[INITIAL_STRIPE_CAPACITY];
+		private Timing[] timings = new Timing[INITIAL_STRIPE_CAPACITY];
+		private int size;
+
+		private static int slot(int key, int mask) {
+
+			return (key >>> STRIPE_BITS) & mask;
+		}
+
+		synchronized int size() {
+
+			return this.size;
+		}
+
+		synchronized void put(int key, CompletableFuture<?> value, long time, Timing timing) {
+
+			if ((this.size + 1) * 2 > this.keys.length) resize(this.keys.length * 2);
+
+			int mask = this.keys.length - 1;
+			int i = slot(key, mask);
+			while (this.keys[i] != 0 && this.keys[i] != key) i = (i + 1) & mask;
+
+			if (this.keys[i] == 0) this.size++;
+			this.keys[i] = key;
+			this.values[i] = value;
+			this.times[i] = time;
+			this.timings[i] = timing;
+		}
+
+		synchronized Timing timing(int key) {
+
+			int mask = this.keys.length - 1;
+			int i = slot(key, mask);
+
+			while (this.keys[i] != key) {
+
+				if (this.keys[i] == 0) return null;
+				i = (i + 1) & mask;
+			}
+
+			return this.timings[i];
+		}
+
+		synchronized CompletableFuture<?> remove(int key) {
+
+			int mask = this.keys.length - 1;
+			int i = slot(key, mask);
+
+			while (this.keys[i] != key) {
+
+				if (this.keys[i] == 0) return null;
+				i = (i + 1) & mask;
+			}
+
+			CompletableFuture<?> value = this.values[i];
+			delete(i);
+
+			return value;
+		}
+
+		synchronized List<Entry> removeOlderThan(long registeredBefore) {
+
+			List<Entry> removed = new ArrayList<Entry>();
+
+			for (int i = 0; i < this.keys.length; ) {
+
+				if (this.keys[i] != 0 && this.times[i] - registeredBefore < 0) {
+
+					removed.add(new Entry(this.keys[i], this.values[i], this.timings[i]));
+					delete(i); // shifts a later entry into slot i, so look at it again
+				} else {
+
+					i++;
+				}
+			}
+
+			return removed;
+		}
+
+		/**
+		 * Deletes slot i and shifts back the entries of its probe sequence so lookups stay correct.
+		 */
+		private void delete(int i) {
+
+			int mask = this.keys.length - 1;
+			int hole = i;
+			int j = i;
+
+			while (true) {
+
+				j = (j + 1) & mask;
+				if (this.keys[j] == 0) break;
+
+				int home = slot(this.keys[j], mask);
+				boolean movable = hole <= j ? (home <= hole || home > j) : (home <= hole && home > j);
+
+				if (movable) {
+
+					this.keys[hole] = this.keys[j];
+					this.values[hole] = this.values[j];
+					this.times[hole] = this.times[j];
+					this.timings[hole] = this.timings[j];
+					hole = j;
+				}
+			}
+
+			this.keys[hole] = 0;
+			this.values[hole] = null;
+			this.times[hole] = 0;
+			this.timings[hole] = null;
+			this.size--;
+		}
+
+		private void resize(int capacity) {
+
+			int[] oldKeys = this.keys;
+			CompletableFuture<?>[] oldValues = this.values;
+			long[] oldTimes = this.times;
+			Timing[] oldTimings = this.timings;
+
+			this.keys = new int[capacity];
+			this.values = new CompletableFuture<?>[capacity];
+			this.times = new long[capacity];
+			this.timings = new Timing[capacity];
+			this.size = 0;
+
+			for (int i = 0; i < oldKeys.length; i++) {
+
+				if (oldKeys[i] != 0) put(oldKeys[i], oldValues[i], oldTimes[i], oldTimings[i]);
+			}
+		}
+	}
+
+	/**
+	 * Hashed timer wheel. Deadlines are rounded up to the next tick and kept in the bucket of that tick;
+	 * a single daemon thread, started with the first deadline, expires one bucket per tick. Entries of
+	 * commands whose callback came first are dropped when their bucket is expired.
+	 *
+	 * Scheduling and scanning hold the lock of the wheel, so an entry is never put into a bucket the
+	 * thread has already scanned for the current round. The futures are completed after the lock is released.
+	 */
+	private final class TimeoutWheel implements Runnable {
+
+		private final long tickNanos = TimeUnit.MILLISECONDS.toNanos(10);
+		private final int mask = 511;
+		private final Bucket[] buckets = new Bucket[this.mask + 1];
+		private final long start = System.nanoTime();
+		private long nextTick;
+		private Thread thread;
+
+		private TimeoutWheel() {
+
+			for (int i = 0; i < this.buckets.length; i++) this.buckets[i] = new Bucket();
+		}
+
+		synchronized void schedule(int handle, long deadline) {
+
+			if (this.thread == null) start();
+
+			long tick = Math.max((deadline - this.start + this.tickNanos - 1) / this.tickNanos, this.nextTick);
+			this.buckets[(int) (tick & this.mask)].add(handle, deadline);
+		}
+
+		private void start() {
+
+			Thread thread = new Thread(this, "CommandRegistry-timeouts");
+			thread.setDaemon(true);
+			thread.start();
+			this.thread = thread;
+		}
+
+		/**
+		 * Removes the expired entries of the buckets due up to now and advances the wheel past them.
+		 */
+		private synchronized List<int[]> advance() {
+
+			// Read under the lock, so that every deadline scheduled up to the current tick has passed
+			long now = System.nanoTime();
+			long currentTick = (now - this.start) / this.tickNanos;
+			List<int[]> expired = new ArrayList<int[]>();
+
+			// After a long pause every bucket is visited once; expire() checks the deadlines anyway
+			long from = Math.max(this.nextTick, currentTick - this.mask);
+			for (long tick = from; tick <= currentTick; tick++) {
+
+				int[] handles = this.buckets[(int) (tick & this.mask)].removeExpired(now);
+				if (handles.length > 0) expired.add(handles);
+			}
+			this.nextTick = currentTick + 1;
+
+			return expired;
+		}
+
+		@Override
+		public void run() {
+
+			while (true) {
+
+				for (int[] handles : advance()) {
+
+					for (int handle : handles) expire(handle);
+				}
+
+				long nextTick;
+				synchronized (this) {
+
+					nextTick = this.nextTick;
+				}
+
+				long sleepNanos = this.start + nextTick * this.tickNanos - System.nanoTime();
+				if (sleepNanos > 0) {
+
+					try {
+
+						TimeUnit.NANOSECONDS.sleep(sleepNanos);
+					} catch (InterruptedException e) {
+
+						return;
+					}
+				}
+			}
+		}
+	}
+
+	private static final class Bucket {
+
+		private static final int[] NONE = new int[0];
+
+		private int[] handles = new int[8];
+		private long[] deadlines = new long[8];
+		private int size;
+
+		synchronized void add(int handle, long deadline) {
+
+			if (this.size == this.handles.length) {
+
+				this.handles = Arrays.copyOf(this.handles, this.size * 2);
+				this.deadlines = Arrays.copyOf(this.deadlines, this.size * 2);
+			}
+
+			this.handles[this.size] = handle;
+			this.deadlines[this.size] = deadline;
+			this.size++;
+		}
+
+		/**
+		 * Removes the entries whose deadline has passed and keeps the others for a later round.
+		 */
+		synchronized int[] removeExpired(long now) {
+
+			if (this.size == 0) return NONE;
+
+			int[] expired = new int[this.size];
+			int expiredCount = 0, kept = 0;
+
+			for (int i = 0; i < this.size; i++) {
+
+				if (this.deadlines[i] - now <= 0) {
+
+					expired[expiredCount++] = this.handles[i];
+				} else {
+
+					this.handles[kept] = this.handles[i];
+					this.deadlines[kept] = this.deadlines[i];
+					kept++;
+				}
+			}
+
+			this.size = kept;
+
+			return expiredCount == expired.length ? expired : Arrays.copyOf(expired, expiredCount);
+		}
+	}
+}
@@ -0,0 +1,280 @@
+package org.hyperledger.indy.sdk.dispatch;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * {@link Instrumentation} that keeps latency and dwell time histograms per native function, in-flight
+ * counts and error counts. It implements {@link InstrumentationMXBean} but does not depend on JMX itself, so it
+ * also works on Android; the libindy wrapper registers it with the platform MBean server on a JVM.
+ *
+ * One instrumentation can be set on both wrappers; native function names tell their commands apart.
+ *
+ * Histograms are log-linear with 8 sub-buckets per power of two, so recorded values are accurate to
+ * 12.5%. Recording a value takes a few lock-free increments.
+ */
+public final class HistogramInstrumentation implements Instrumentation, InstrumentationMXBean {
+
+	private final ConcurrentHashMap<String, FunctionMetrics> functions = new ConcurrentHashMap<String, FunctionMetrics>();
+	private final ConcurrentHashMap<Integer, AtomicLong> errors = new ConcurrentHashMap<Integer, AtomicLong>();
+	private final ConcurrentHashMap<Integer, String> errorNames = new ConcurrentHashMap<Integer, String>();
+
+	/*
+	 * INSTRUMENTATION
+	 */
+
+	@Override
+	public void commandStarted(String function) {
+
+		metrics(function).started.incrementAndGet();
+	}
+
+	@Override
+	public void commandCompleted(String function, long latencyNanos) {
+
+		FunctionMetrics metrics = metrics(function);
+		metrics.completed.incrementAndGet();
+		metrics.latency.record(latencyNanos);
+	}
+
+	@Override
+	public void callbackCompleted(String function, long dwellNanos) {
+
+		metrics(function).dwell.record(dwellNanos);
+	}
+
+	@Override
+	public void errorReturned(int errorCode, String errorName) {
+
+		AtomicLong count = this.errors.get(errorCode);
+		if (count == null) {
+
+			if (errorName != null) this.errorNames.putIfAbsent(errorCode, errorName);
+
+			AtomicLong created = new AtomicLong();
+			count = this.errors.putIfAbsent(errorCode, created);
+			if (count == null) count = created;
+		}
+
+		count.incrementAndGet();
+	}
+
+	private FunctionMetrics metrics(String function) {
+
+		FunctionMetrics metrics = this.functions.get(function);
+		if (metrics != null) return metrics;
+
+		FunctionMetrics created = new FunctionMetrics();
+		metrics = this.functions.putIfAbsent(function, created);
+
+		return metrics != null ? metrics : created;
+	}
+
+	/*
+	 * MXBEAN
+	 */
+
+	@Override
+	public int getInFlight() {
+
+		long inFlight = 0;
+		for (long count : getInFlightByFunction().values()) inFlight += count;
+
+		return (int) inFlight;
+	}
+
+	@Override
+	public Map<String, Long> getInFlightByFunction() {
+
+		Map<String, Long> result = new TreeMap<String, Long>();
+		for (Map.Entry<String, FunctionMetrics> entry : this.functions.entrySet()) {
+
+			result.put(entry.getKey(), Math.max(0, entry.getValue().started.get() - entry.getValue().completed.get()));
+		}
+
+		return result;
+	}
+
+	@Override
+	public Map<String, Long> getCompletedCounts() {
+
+		Map<String, Long> result = new TreeMap<String, Long>();
+		for (Map.Entry<String, FunctionMetrics> entry : this.functions.entrySet()) result.put(entry.getKey(), entry.getValue().completed.get());
+
+		return result;
+	}
+
+	@Override
+	public Map<String, Long> getLatencyMedianMicros() {
+
+		return latencyMicros(0.5, false);
+	}
+
+	@Override
+	public Map<String, Long> getLatency99thPercentileMicros() {
+
+		return latencyMicros(0.99, false);
+	}
+
+	@Override
+	public Map<String, Long> getLatencyMaxMicros() {
+
+		return latencyMicros(1, false);
+	}
+
+	@Override
+	public Map<String, Long> getDwell99thPercentileMicros() {
+
+		return latencyMicros(0.99, true);
+	}
+
+	private Map<String, Long> latencyMicros(double quantile, boolean dwell) {
+
+		Map<String, Long> result = new TreeMap<String, Long>();
+		for (Map.Entry<String, FunctionMetrics> entry : this.functions.entrySet()) {
+
+			Histogram histogram = dwell ? entry.getValue().dwell : entry.getValue().latency;
+			if (histogram.getCount() > 0) result.put(entry.getKey(), TimeUnit.NANOSECONDS.toMicros(histogram.getValueAtQuantile(quantile)));
+		}
+
+		return result;
+	}
+
+	@Override
+	public Map<String, Long> getErrorCounts() {
+
+		Map<String, Long> result = new TreeMap<String, Long>();
+		for (Map.Entry<Integer, AtomicLong> entry : this.errors.entrySet()) {
+
+			String errorName = this.errorNames.get(entry.getKey());
+			result.put(errorName != null ? errorName : String.valueOf(entry.getKey()), entry.getValue().get());
+		}
+
+		return result;
+	}
+
+	@Override
+	public void reset() {
+
+		this.functions.clear();
+		this.errors.clear();
+		this.errorNames.clear();
+	}
+
+	/*
+	 * HISTOGRAMS
+	 */
+
+	/**
+	 * Gets the latency histogram of a native function.
+	 *
+	 * @param function The name of the native function.
+	 * @return The histogram, or null if no command of the function completed.
+	 */
+	public Histogram getLatencyHistogram(String function) {
+
+		FunctionMetrics metrics = this.functions.get(function);
+		return metrics != null ? metrics.latency : null;
+	}
+
+	/**
+	 * Gets the callback dwell time histogram of a native function.
+	 *
+	 * @param function The name of the native function.
+	 * @return The histogram, or null if no command of the function completed.
+	 */
+	public Histogram getDwellHistogram(String function) {
+
+		FunctionMetrics metrics = this.functions.get(function);
+		return metrics != null ? metrics.dwell : null;
+	}
+
+	private static final class FunctionMetrics {
+
+		private final AtomicLong started = new AtomicLong();
+		private final AtomicLong completed = new AtomicLong();
+		private final Histogram latency = new Histogram();
+		private final Histogram dwell = new Histogram();
+	}
+
+	/**
+	 * Concurrent log-linear histogram of non-negative nanosecond values.
+	 */
+	public static final class Histogram {
+
+		private static final int SUB_BUCKET_BITS = 3;
+		private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+		private static final int LINEAR_LIMIT = 2 * SUB_BUCKETS;
+		private static final int BUCKETS = LINEAR_LIMIT + (63 - SUB_BUCKET_BITS - 1) * SUB_BUCKETS;
+
+		private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+		private final AtomicLong count = new AtomicLong();
+
+		Histogram() {
+
+		}
+
+		void record(long value) {
+
+			this.counts.incrementAndGet(index(Math.max(0, value)));
+			this.count.incrementAndGet();
+		}
+
+		static int index(long value) {
+
+			if (value < LINEAR_LIMIT) return (int) value;
+
+			int exponent = 63 - Long.numberOfLeadingZeros(value);
+			int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+
+			return LINEAR_LIMIT + (exponent - SUB_BUCKET_BITS - 1) * SUB_BUCKETS + subBucket;
+		}
+
+		static long highestValue(int index) {
+
+			if (index < LINEAR_LIMIT) return index;
+
+			int exponent = (index - LINEAR_LIMIT) / SUB_BUCKETS + SUB_BUCKET_BITS + 1;
+			int subBucket = (index - LINEAR_LIMIT) % SUB_BUCKETS;
+			long lowest = (long) (SUB_BUCKETS + subBucket) << (exponent - SUB_BUCKET_BITS);
+
+			return lowest + (1L << (exponent - SUB_BUCKET_BITS)) - 1;
+		}
+
+		/**
+		 * @return The number of recorded values.
+		 */
+		public long getCount() {
+
+			return this.count.get();
+		}
+
+		/**
+		 * Gets the value at a quantile, as the highest value of the bucket it falls in.
+		 *
+		 * @param quantile The quantile, between 0 and 1.
+		 * @return The value in nanoseconds, or 0 if no value was recorded.
+		 */
+		public long getValueAtQuantile(double quantile) {
+
+			long total = 0;
+			long[] snapshot = new long[BUCKETS];
+			for (int i = 0; i < BUCKETS; i++) total += snapshot[i] = this.counts.get(i);
+			if (total == 0) return 0;
+
+			long rank = Math.max(1, (long) Math.ceil(quantile * total));
+			long seen = 0;
+			for (int i = 0; i < BUCKETS; i++) {
+
+				seen += snapshot[i];
+				if (seen >= rank) return highestValue(i);
+			}
+
+			return highestValue(BUCKETS - 1);
+		}
+	}
+}
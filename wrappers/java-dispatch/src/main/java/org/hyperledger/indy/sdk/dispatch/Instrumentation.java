@@ -0,0 +1,70 @@
+package org.hyperledger.indy.sdk.dispatch;
+
+/**
+ * Receives timings of the native calls made by the wrappers, see LibIndy.setInstrumentation and
+ * LibVcx.setInstrumentation. Each sets the instrumentation of its own library only.
+ *
+ * Methods are called on the threads making the calls and on the native callback threads, so they must be
+ * thread-safe and should return quickly.
+ */
+public interface Instrumentation {
+
+	/**
+	 * Instrumentation that ignores everything; used by default.
+	 */
+	Instrumentation NOOP = new Instrumentation() {
+
+		@Override
+		public void commandStarted(String function) {
+
+		}
+
+		@Override
+		public void commandCompleted(String function, long latencyNanos) {
+
+		}
+
+		@Override
+		public void callbackCompleted(String function, long dwellNanos) {
+
+		}
+
+		@Override
+		public void errorReturned(int errorCode, String errorName) {
+
+		}
+	};
+
+	/**
+	 * Called when a command is passed to a native function.
+	 *
+	 * @param function The name of the native function.
+	 */
+	void commandStarted(String function);
+
+	/**
+	 * Called when the callback of a command is received, or when the command is given up on because it
+	 * failed synchronously, timed out or was purged.
+	 *
+	 * @param function     The name of the native function, or "unknown" if it was not recorded.
+	 * @param latencyNanos The time since the command was registered.
+	 */
+	void commandCompleted(String function, long latencyNanos);
+
+	/**
+	 * Called when the callback thread has completed the future of a command, including the dependent stages
+	 * it ran on completion.
+	 *
+	 * @param function   The name of the native function, or "unknown" if it was not recorded.
+	 * @param dwellNanos The time the callback thread spent completing the future.
+	 */
+	void callbackCompleted(String function, long dwellNanos);
+
+	/**
+	 * Called when the SDK returns an error code, either from a native function or in a callback.
+	 *
+	 * @param errorCode The error code.
+	 * @param errorName The name of the error code in the ErrorCode enum of the wrapper, or null if it is unknown.
+	 */
+	void errorReturned(int errorCode, String errorName);
+}
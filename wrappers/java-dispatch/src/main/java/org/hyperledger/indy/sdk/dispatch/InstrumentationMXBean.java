@@ -0,0 +1,55 @@
+package org.hyperledger.indy.sdk.dispatch;
+
+import java.util.Map;
+
+/**
+ * JMX view of a {@link HistogramInstrumentation}. Maps are keyed by native function name, or by error code
+ * name for {@link #getErrorCounts()}; times are in microseconds.
+ */
+public interface InstrumentationMXBean {
+
+	/**
+	 * @return The number of commands waiting for a callback, over all functions.
+	 */
+	int getInFlight();
+
+	/**
+	 * @return The number of commands waiting for a callback per function.
+	 */
+	Map<String, Long> getInFlightByFunction();
+
+	/**
+	 * @return The number of completed commands per function.
+	 */
+	Map<String, Long> getCompletedCounts();
+
+	/**
+	 * @return The median latency per function.
+	 */
+	Map<String, Long> getLatencyMedianMicros();
+
+	/**
+	 * @return The 99th percentile latency per function.
+	 */
+	Map<String, Long> getLatency99thPercentileMicros();
+
+	/**
+	 * @return The maximum latency per function.
+	 */
+	Map<String, Long> getLatencyMaxMicros();
+
+	/**
+	 * @return The 99th percentile callback dwell time per function.
+	 */
+	Map<String, Long> getDwell99thPercentileMicros();
+
+	/**
+	 * @return The number of errors returned per error code.
+	 */
+	Map<String, Long> getErrorCounts();
+
+	/**
+	 * Clears all histograms and counters.
+	 */
+	void reset();
+}
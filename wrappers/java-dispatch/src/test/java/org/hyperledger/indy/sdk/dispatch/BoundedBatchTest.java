@@ -0,0 +1,81 @@
+package org.hyperledger.indy.sdk.dispatch;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+public class BoundedBatchTest {
+
+	@Test
+	public void testListenerCallsAreNotConcurrent() throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		AtomicInteger inListener = new AtomicInteger();
+		AtomicInteger overlaps = new AtomicInteger();
+		Iterator<Integer> inputs = new Iterator<Integer>() {
+			int next;
+
+			@Override
+			public boolean hasNext() {
+				return next < 1000;
+			}
+
+			@Override
+			public Integer next() {
+				return next++;
+			}
+		};
+
+		try {
+			int count = BoundedBatch.run(inputs, 8, (Integer input) -> CompletableFuture.supplyAsync(() -> input, executor), (position, output) -> {
+				if (inListener.incrementAndGet() > 1) overlaps.incrementAndGet();
+				Thread.yield();
+				inListener.decrementAndGet();
+			}).get();
+
+			assertEquals(1000, count);
+			assertEquals(0, overlaps.get());
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void testIteratorFailureFailsTheBatch() throws Exception {
+		IllegalStateException error = new IllegalStateException();
+		Iterator<Integer> inputs = new Iterator<Integer>() {
+			@Override
+			public boolean hasNext() {
+				return true;
+			}
+
+			@Override
+			public Integer next() {
+				throw error;
+			}
+		};
+
+		try {
+			BoundedBatch.run(inputs, 2, (Integer input) -> CompletableFuture.completedFuture(input), (position, output) -> {
+			}).get();
+			fail();
+		} catch (ExecutionException e) {
+			assertSame(error, e.getCause());
+		}
+	}
+
+	@Test
+	public void testEmptyInputCompletesWithZero() throws Exception {
+		assertEquals(0, (int) BoundedBatch.run(Arrays.<Integer>asList().iterator(), 4, (Integer input) -> CompletableFuture.completedFuture(input), (position, output) -> {
+		}).get());
+	}
+}
@@ -0,0 +1,168 @@
+package org.hyperledger.indy.sdk.dispatch;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class CommandRegistryTest {
+
+	@Test
+	public void testAddAndRemoveInAnyOrderWorks() {
+		CommandRegistry registry = new CommandRegistry();
+		List<Integer> handles = new ArrayList<>();
+		List<CompletableFuture<?>> futures = new ArrayList<>();
+
+		for (int i = 0; i < 10000; i++) {
+			CompletableFuture<?> future = new CompletableFuture<>();
+			futures.add(future);
+			handles.add(registry.add(future));
+		}
+		assertEquals(10000, registry.size());
+
+		List<Integer> order = new ArrayList<>();
+		for (int i = 0; i < handles.size(); i++) order.add(i);
+		Collections.shuffle(order, new Random(42));
+
+		for (int i : order) {
+			assertSame(futures.get(i), registry.remove(handles.get(i)));
+		}
+
+		assertEquals(0, registry.size());
+		assertEquals(10000, registry.getStats().getCompleted());
+	}
+
+	@Test
+	public void testRemoveOfUnknownHandleIsCounted() {
+		CommandRegistry registry = new CommandRegistry();
+		int handle = registry.add(new CompletableFuture<Void>());
+
+		assertTrue(registry.remove(handle) != null);
+		assertNull(registry.remove(handle));
+		assertNull(registry.remove(0));
+		assertEquals(2, registry.getStats().getUnknown());
+	}
+
+	@Test
+	public void testPurgeCompletesLeakedFutures() throws InterruptedException {
+		CommandRegistry registry = new CommandRegistry();
+		CompletableFuture<String> leaked = new CompletableFuture<>();
+		CompletableFuture<String> done = new CompletableFuture<>();
+		registry.add(leaked);
+		registry.add(done);
+		done.completeExceptionally(new IllegalStateException());
+
+		Thread.sleep(5);
+		int young = registry.add(new CompletableFuture<Void>());
+
+		assertEquals(1, registry.purgeOlderThan(2, TimeUnit.MILLISECONDS, true));
+		assertEquals(1, registry.size());
+		assertEquals(2, registry.getStats().getPurged());
+		assertTrue(registry.remove(young) != null);
+
+		try {
+			leaked.get();
+			fail();
+		} catch (ExecutionException e) {
+			assertTrue(e.getCause() instanceof TimeoutException);
+		}
+	}
+
+	@Test
+	public void testDeadlineCompletesFutureWithTimeout() throws InterruptedException {
+		CommandRegistry registry = new CommandRegistry();
+		CompletableFuture<String> future = new CompletableFuture<>();
+		int handle;
+
+		try (CommandRegistry.Scope ignored = registry.withTimeout(20, TimeUnit.MILLISECONDS)) {
+			handle = registry.add(future);
+		}
+		int unbounded = registry.add(new CompletableFuture<Void>());
+
+		try {
+			future.get(5, TimeUnit.SECONDS);
+			fail();
+		} catch (ExecutionException e) {
+			assertTrue(e.getCause() instanceof TimeoutException);
+		} catch (TimeoutException e) {
+			fail("deadline was not enforced");
+		}
+
+		assertEquals(1, registry.getStats().getTimedOut());
+		assertNull(registry.remove(handle));
+		assertEquals(1, registry.getStats().getUnknown());
+		assertTrue(registry.remove(unbounded) != null);
+	}
+
+	@Test
+	public void testDeadlineOnTheCurrentTickIsNotMissed() throws InterruptedException {
+		final CommandRegistry registry = new CommandRegistry();
+		registry.setDefaultTimeout(1, TimeUnit.NANOSECONDS);
+		final long end = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(300);
+		final AtomicLong added = new AtomicLong();
+
+		Thread[] threads = new Thread[4];
+		for (int i = 0; i < threads.length; i++) {
+			threads[i] = new Thread(() -> {
+				try {
+					while (System.nanoTime() - end < 0) {
+						for (int j = 0; j < 100; j++) registry.add(new CompletableFuture<Void>());
+						added.addAndGet(100);
+						Thread.sleep(1);
+					}
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			});
+			threads[i].start();
+		}
+		for (Thread thread : threads) thread.join();
+
+		// every deadline has passed; the wheel must expire them within a few ticks, not a full round
+		long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(500);
+		while (registry.size() > 0 && System.nanoTime() - deadline < 0) Thread.sleep(5);
+
+		assertEquals(0, registry.size());
+		assertEquals(added.get(), registry.getStats().getTimedOut());
+	}
+
+	@Test
+	public void testCompletedCommandIsNotTimedOut() throws InterruptedException {
+		CommandRegistry registry = new CommandRegistry();
+		registry.setDefaultTimeout(10, TimeUnit.MILLISECONDS);
+		CompletableFuture<String> future = new CompletableFuture<>();
+
+		registry.remove(registry.add(future)).complete(null);
+
+		Thread.sleep(50);
+		assertEquals(0, registry.getStats().getTimedOut());
+		assertTrue(future.isDone() && !future.isCompletedExceptionally());
+	}
+
+	@Test
+	public void testAgeHistogramCountsPendingFutures() throws InterruptedException {
+		CommandRegistry registry = new CommandRegistry();
+		registry.add(new CompletableFuture<Void>());
+		Thread.sleep(15);
+		registry.add(new CompletableFuture<Void>());
+
+		long[] histogram = registry.getStats().getAgeHistogram();
+
+		assertEquals(CommandRegistry.AGE_BUCKET_BOUNDS_MILLIS.length + 1, histogram.length);
+		assertEquals(2, histogram[0] + histogram[1] + histogram[2]);
+		assertEquals(1, histogram[2]);
+	}
+}
@@ -0,0 +1,89 @@
+package org.hyperledger.indy.sdk.dispatch;
+
+import org.junit.Test;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class HistogramInstrumentationTest {
+
+	@Test
+	public void testHistogramBucketsBoundValues() {
+		for (long value : new long[] {0, 1, 15, 16, 17, 100, 1000, 123456789, Long.MAX_VALUE}) {
+			int index = HistogramInstrumentation.Histogram.index(value);
+			long highest = HistogramInstrumentation.Histogram.highestValue(index);
+
+			assertTrue(highest >= value);
+			assertTrue(highest - value <= value / 8);
+			assertEquals(index, HistogramInstrumentation.Histogram.index(highest));
+		}
+	}
+
+	@Test
+	public void testHistogramQuantilesWork() {
+		HistogramInstrumentation.Histogram histogram = new HistogramInstrumentation.Histogram();
+		for (int i = 1; i <= 1000; i++) histogram.record(i * 1000L);
+
+		assertEquals(1000, histogram.getCount());
+		long median = histogram.getValueAtQuantile(0.5);
+		assertTrue(median >= 500000 && median <= 500000 * 9 / 8);
+		assertTrue(histogram.getValueAtQuantile(1) >= 1000000);
+	}
+
+	@Test
+	public void testRegistryReportsCommandTimings() {
+		CommandRegistry registry = new CommandRegistry();
+		HistogramInstrumentation instrumentation = new HistogramInstrumentation();
+		registry.setInstrumentation(instrumentation);
+
+		CompletableFuture<String> future = new CompletableFuture<>();
+		int handle = registry.add(future);
+		registry.tag(handle, "indy_open_wallet");
+		assertEquals(Long.valueOf(1), instrumentation.getInFlightByFunction().get("indy_open_wallet"));
+		assertEquals(1, instrumentation.getInFlight());
+
+		registry.remove(handle);
+		future.complete("done");
+
+		assertEquals(Long.valueOf(0), instrumentation.getInFlightByFunction().get("indy_open_wallet"));
+		assertEquals(0, instrumentation.getInFlight());
+		assertEquals(Long.valueOf(1), instrumentation.getCompletedCounts().get("indy_open_wallet"));
+		assertEquals(1, instrumentation.getLatencyHistogram("indy_open_wallet").getCount());
+		assertEquals(1, instrumentation.getDwellHistogram("indy_open_wallet").getCount());
+	}
+
+	@Test
+	public void testDiscardedCommandHasNoDwellTime() {
+		CommandRegistry registry = new CommandRegistry();
+		HistogramInstrumentation instrumentation = new HistogramInstrumentation();
+		registry.setInstrumentation(instrumentation);
+
+		CompletableFuture<String> future = new CompletableFuture<>();
+		int handle = registry.add(future);
+		registry.tag(handle, "indy_open_wallet");
+		future.completeExceptionally(new IllegalStateException());
+		registry.discard(handle);
+
+		assertEquals(0, registry.size());
+		assertEquals(1, instrumentation.getLatencyHistogram("indy_open_wallet").getCount());
+		assertEquals(0, instrumentation.getDwellHistogram("indy_open_wallet").getCount());
+	}
+
+	@Test
+	public void testErrorsAreCountedByName() {
+		HistogramInstrumentation instrumentation = new HistogramInstrumentation();
+		instrumentation.errorReturned(212, "WalletItemNotFound");
+		instrumentation.errorReturned(212, "WalletItemNotFound");
+		instrumentation.errorReturned(-1, null);
+
+		assertEquals(Long.valueOf(2), instrumentation.getErrorCounts().get("WalletItemNotFound"));
+		assertEquals(Long.valueOf(1), instrumentation.getErrorCounts().get("-1"));
+
+		instrumentation.reset();
+		assertTrue(instrumentation.getErrorCounts().isEmpty());
+		assertNull(instrumentation.getLatencyHistogram("indy_open_wallet"));
+	}
+}
@@ -13,17 +13,30 @@ import org.hyperledger.indy.sdk.crypto.UnknownCryptoException;
 import org.hyperledger.indy.sdk.wallet.*;
 import org.json.JSONObject;
 
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
 /**
  * Thrown when an Indy specific error has occurred.
+ *
+ * The error details reported by libindy are captured when the exception is created, as they are only available
+ * on the thread that received the error, but are only parsed once requested. Exceptions for expected error codes,
+ * such as {@link ErrorCode#WalletItemNotFound}, can be created without a stack trace, see {@link #setStackless(ErrorCode...)}.
  */
 public class IndyException extends Exception {
 
 	private static final long serialVersionUID = 2650355290834266477L;
+	private static volatile Set<ErrorCode> stacklessCodes = Collections.emptySet();
+	private static final ThreadLocal<Boolean> creatingStackless = new ThreadLocal<Boolean>();
+	private static final ThreadLocal<IndyException> copying = new ThreadLocal<IndyException>();
 	private int sdkErrorCode;
+	private String sdkErrorDetails;
 	private String sdkMessage;
 	private String sdkBacktrace; // Collecting of backtrace can be enabled by:
 								 //   1) setting environment variable `RUST_BACKTRACE=1`
 								 //   2) calling `setRuntimeConfig` API function with `collect_backtrace: true`
+	private boolean sdkErrorDetailsParsed;
 
 	/**
 	 * Initializes a new IndyException with the specified message.
@@ -33,10 +46,10 @@ public class IndyException extends Exception {
 	 */
 	protected IndyException(String message, int sdkErrorCode) {
 		super(message);
-		ErrorDetails errorDetails = new ErrorDetails();
 		this.sdkErrorCode = sdkErrorCode;
-		this.sdkMessage = errorDetails.message;
-		this.sdkBacktrace = errorDetails.backtrace;
+
+		IndyException original = copying.get();
+		this.sdkErrorDetails = original != null ? original.sdkErrorDetails : currentErrorDetails();
 	}
 
 	/**
@@ -52,6 +65,7 @@ public class IndyException extends Exception {
 	 * Gets the SDK error message for the exception.
 	 */
 	public String getSdkMessage() {
+		parseErrorDetails();
 		return sdkMessage;
 	}
 
@@ -61,25 +75,90 @@ public class IndyException extends Exception {
 	 * @return The SDK backtrace.
 	 */
 	public String getSdkBacktrace() {
+		parseErrorDetails();
 		return sdkBacktrace;
 	}
 
-	private static class ErrorDetails{
-		String message;
-		String backtrace;
+	private static String currentErrorDetails() {
+		if (! LibIndy.isInitialized()) return null;
+
+		PointerByReference errorDetailsJson = new PointerByReference();
+
+		LibIndy.api.indy_get_current_error(errorDetailsJson);
+
+		return errorDetailsJson.getValue() == null ? null : errorDetailsJson.getValue().getString(0);
+	}
+
+	private synchronized void parseErrorDetails() {
+		if (sdkErrorDetailsParsed) return;
+		sdkErrorDetailsParsed = true;
+		if (sdkErrorDetails == null) return;
+
+		try {
+			JSONObject errorDetails = new JSONObject(sdkErrorDetails);
+			this.sdkMessage = errorDetails.optString("message");
+			this.sdkBacktrace = errorDetails.optString("backtrace");
+		} catch (Exception ignored){
+			// Nothing to do
+		}
+	}
+
+	/**
+	 * Skips filling in the stack trace while an exception for a stackless error code is created.
+	 */
+	@Override
+	public synchronized Throwable fillInStackTrace() {
+		if (creatingStackless.get() != null || copying.get() != null) return this;
+
+		return super.fillInStackTrace();
+	}
+
+	/**
+	 * Sets the error codes that are expected in normal operation, e.g. {@link ErrorCode#WalletItemNotFound} when
+	 * a record is looked up before it is added. The exceptions for these codes are created without a stack trace,
+	 * which makes them considerably cheaper. Replaces the codes set before; by default no code is stackless.
+	 *
+	 * @param errorCodes The error codes.
+	 */
+	public static void setStackless(ErrorCode... errorCodes) {
+
+		Set<ErrorCode> codes = EnumSet.noneOf(ErrorCode.class);
+		Collections.addAll(codes, errorCodes);
+
+		stacklessCodes = Collections.unmodifiableSet(codes);
+	}
+
+	/**
+	 * Indicates whether exceptions for the specified error code are created without a stack trace.
+	 *
+	 * @param errorCode The error code.
+	 * @return true if the exceptions are stackless, otherwise false.
+	 */
+	public static boolean isStackless(ErrorCode errorCode) {
+
+		return stacklessCodes.contains(errorCode);
+	}
+
+	/**
+	 * Creates a new exception of the same type, error code and SDK error details as an exception raised before,
+	 * e.g. to fail every request answered from a cache of failures. Unlike {@link #fromSdkError(int)} it does not
+	 * read the current error of the SDK, which belongs to whatever call failed last on this thread, and it does
+	 * not fill in a stack trace.
+	 *
+	 * @param original The exception raised before.
+	 * @return A new exception like the original one.
+	 */
+	public static IndyException copyOf(IndyException original) {
+
+		copying.set(original);
 
-		private ErrorDetails() {
-			PointerByReference errorDetailsJson = new PointerByReference();
+		try {
 
-			LibIndy.api.indy_get_current_error(errorDetailsJson);
+			ErrorCode errorCode = ErrorCode.valueOf(original.sdkErrorCode);
+			return errorCode == null ? new IndyException(original.getMessage(), original.sdkErrorCode) : create(errorCode, original.sdkErrorCode);
+		} finally {
 
-			try {
-				JSONObject errorDetails = new JSONObject(errorDetailsJson.getValue().getString(0));
-				this.message = errorDetails.optString("message");
-				this.backtrace = errorDetails.optString("backtrace");
-			} catch (Exception ignored){
-				// Nothing to do
-			}
+			copying.remove();
 		}
 	}
 
@@ -93,6 +172,20 @@ public class IndyException extends Exception {
 	public static IndyException fromSdkError(int sdkErrorCode) {
 
 		ErrorCode errorCode = ErrorCode.valueOf(sdkErrorCode);
+		if (errorCode == null || ! isStackless(errorCode)) return create(errorCode, sdkErrorCode);
+
+		creatingStackless.set(Boolean.TRUE);
+
+		try {
+
+			return create(errorCode, sdkErrorCode);
+		} finally {
+
+			creatingStackless.remove();
+		}
+	}
+
+	private static IndyException create(ErrorCode errorCode, int sdkErrorCode) {
 
 		switch (errorCode) {
 			case CommonInvalidParam1:
@@ -3,14 +3,14 @@ package org.hyperledger.indy.sdk;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
+import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.commons.lang3.builder.EqualsBuilder;
 import org.apache.commons.lang3.builder.HashCodeBuilder;
 import org.apache.commons.lang3.builder.ToStringBuilder;
 import org.apache.commons.lang3.builder.ToStringStyle;
+import org.hyperledger.indy.sdk.dispatch.CommandRegistry;
 
 /**
  * Common functionality for the APIs, JSON parameters, and results used
@@ -31,8 +31,7 @@ public class IndyJava {
 		 * FUTURES
 		 */
 
-		private static AtomicInteger atomicInteger = new AtomicInteger();
-		private static Map<Integer, CompletableFuture<?>> futures = new ConcurrentHashMap<Integer, CompletableFuture<?>>();
+		private static final CommandRegistry commands = LibIndy.getCommandRegistry();
 
 		/**
 		 * Generates and returns a new command handle.
@@ -41,7 +40,7 @@ public class IndyJava {
 		 */
 		protected static int newCommandHandle() {
 
-			return Integer.valueOf(atomicInteger.incrementAndGet());
+			return commands.newHandle();
 		}
 
 		/**
@@ -52,23 +51,20 @@ public class IndyJava {
 		 */
 		protected static int addFuture(CompletableFuture<?> future) {
 
-			int commandHandle = newCommandHandle();
-			assert (! futures.containsKey(Integer.valueOf(commandHandle)));
-			futures.put(Integer.valueOf(commandHandle), future);
-
-			return commandHandle;
+			return commands.add(future);
 		}
 
 		/**
 		 * Stops tracking the future associated with the provided command handle and returns it.
 		 *
 		 * @param xcommand_handle The command handle for the future to stop tracking.
-		 * @return The future associated with the command handle.
+		 * @return The future associated with the command handle, or a detached future if the command already
+		 * timed out, so that late callbacks are dropped.
 		 */
 		protected static CompletableFuture<?> removeFuture(int xcommand_handle) {
 
-			CompletableFuture<?> future = futures.remove(Integer.valueOf(xcommand_handle));
-			assert (future != null);
+			CompletableFuture<?> future = commands.remove(xcommand_handle);
+			if (future == null) return new CompletableFuture<Void>();
 
 			return future;
 		}
@@ -89,6 +85,7 @@ public class IndyJava {
 			ErrorCode errorCode = ErrorCode.valueOf(err);
 			if (! ErrorCode.Success.equals(errorCode)) {
 
+				commands.getInstrumentation().errorReturned(err, errorCode != null ? errorCode.name() : null);
 				IndyException indyException = IndyException.fromSdkError(err);
 				future.completeExceptionally(indyException);
 				
@@ -98,6 +95,45 @@ public class IndyJava {
 			return true;
 		}
 
+		/**
+		 * Sets the future of a command with an exception if the error code returned by the native function does
+		 * not indicate success. The command was rejected synchronously and its callback will never come, so the
+		 * future is no longer tracked.
+		 *
+		 * @param commandHandle The command handle the future is being tracked against.
+		 * @param future        The future.
+		 * @param err           The error value returned by the native function.
+		 * @return true if the error code indicated Success, otherwise false.
+		 */
+		protected static boolean checkResult(int commandHandle, CompletableFuture<?> future, int err) {
+
+			if (err != ErrorCode.Success.value()) commands.discard(commandHandle);
+
+			return checkResult(future, err);
+		}
+
+		/**
+		 * Completes the provided future with an empty Optional if the error code provided indicates that the
+		 * requested wallet item does not exist, or with an exception if it indicates any other failure.
+		 * No exception is created for a missing item.
+		 *
+		 * @param future The future.
+		 * @param err    The error value to check.
+		 * @return true if the error code indicated Success, otherwise false.
+		 */
+		protected static <T> boolean checkFoundResult(CompletableFuture<Optional<T>> future, int err) {
+
+			if (err == ErrorCode.WalletItemNotFound.value()) {
+
+				commands.getInstrumentation().errorReturned(err, ErrorCode.WalletItemNotFound.name());
+				future.complete(Optional.<T>empty());
+
+				return false;
+			}
+
+			return checkResult(future, err);
+		}
+
 		/*
 		 * OBJECT METHODS
 		 */
@@ -0,0 +1,54 @@
+package org.hyperledger.indy.sdk;
+
+import java.lang.management.ManagementFactory;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+import org.hyperledger.indy.sdk.dispatch.HistogramInstrumentation;
+import org.hyperledger.indy.sdk.dispatch.InstrumentationMXBean;
+
+/**
+ * Exposes a {@link HistogramInstrumentation} through JMX, as an {@link InstrumentationMXBean}.
+ *
+ * The instrumentation itself is shared with the libvcx wrapper, which also runs on Android where there is no
+ * platform MBean server, so the registration lives here rather than in the instrumentation.
+ */
+public final class InstrumentationMBeans {
+
+	/**
+	 * The object name used by {@link #register(HistogramInstrumentation)}.
+	 */
+	public static final String OBJECT_NAME = "org.hyperledger.indy.sdk.dispatch:type=Instrumentation";
+
+	private InstrumentationMBeans() {
+
+	}
+
+	/**
+	 * Registers an instrumentation with the platform MBean server under {@link #OBJECT_NAME}.
+	 *
+	 * @param instrumentation The instrumentation.
+	 * @return The object name.
+	 * @throws JMException Thrown if the registration fails, e.g. because another instrumentation is registered.
+	 */
+	public static ObjectName register(HistogramInstrumentation instrumentation) throws JMException {
+
+		ParamGuard.notNull(instrumentation, "instrumentation");
+
+		ObjectName name = new ObjectName(OBJECT_NAME);
+		ManagementFactory.getPlatformMBeanServer().registerMBean(instrumentation, name);
+
+		return name;
+	}
+
+	/**
+	 * Unregisters the instrumentation registered under {@link #OBJECT_NAME}.
+	 *
+	 * @throws JMException Thrown if no instrumentation is registered.
+	 */
+	public static void unregister() throws JMException {
+
+		ManagementFactory.getPlatformMBeanServer().unregisterMBean(new ObjectName(OBJECT_NAME));
+	}
+}
@@ -1,17 +1,21 @@
 package org.hyperledger.indy.sdk;
 
 import java.io.File;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
 import java.util.HashMap;
 import java.util.Map;
 
 import com.sun.jna.*;
 import com.sun.jna.ptr.PointerByReference;
-import static com.sun.jna.Native.detach;
+import org.hyperledger.indy.sdk.dispatch.CommandRegistry;
+import org.hyperledger.indy.sdk.dispatch.Instrumentation;
 
 public abstract class LibIndy {
 
 	public static final String LIBRARY_NAME = "indy";
-	private static final String LIB_INDY_LOGGER_PREFIX = String.format("%s.native", LibIndy.class.getName());
 	static final DefaultTypeMapper MAPPER = new DefaultTypeMapper();
 
 	/*
@@ -41,6 +45,7 @@ public abstract class LibIndy {
 		public int indy_export_wallet(int command_handle, int handle, String exportConfigJson, Callback cb);
 		public int indy_import_wallet(int command_handle, String config, String credentials, String importConfigJson, Callback cb);
 		public int indy_generate_wallet_key(int command_handle, String config, Callback cb);
+		public int indy_register_wallet_storage(int command_handle, String type_, Callback create, Callback open, Callback close, Callback delete, Callback add_record, Callback update_record_value, Callback update_record_tags, Callback add_record_tags, Callback delete_record_tags, Callback delete_record, Callback get_record, Callback get_record_id, Callback get_record_type, Callback get_record_value, Callback get_record_tags, Callback free_record, Callback get_storage_metadata, Callback set_storage_metadata, Callback free_storage_metadata, Callback search_records, Callback search_all_records, Callback get_search_total_count, Callback fetch_search_next_record, Callback free_search, Callback cb);
 
 		// ledger.rs
 
@@ -185,7 +190,7 @@ public abstract class LibIndy {
 		int indy_add_request_fees(int command_handle, int wallet_handle, String submitter_did, String req_json, String inputs_json, String outputs_json, String extra, Callback cb);
 		int indy_parse_response_with_fees(int command_handle, String payment_method, String resp_json, Callback cb);
 		int indy_build_get_payment_sources_request(int command_handle, int wallet_handle, String submitter_did, String payment_address, Callback cb);
-		int indy_build_get_payment_sources_with_from_request(int command_handle, int wallet_handle, String submitter_did, String payment_address, int from, Callback cb);
+		int indy_build_get_payment_sources_with_from_request(int command_handle, int wallet_handle, String submitter_did, String payment_address, long from, Callback cb);
 		int indy_parse_get_payment_sources_response(int command_handle, String payment_method, String resp_json, Callback cb);
 		int indy_parse_get_payment_sources_with_from_response(int command_handle, String payment_method, String resp_json, Callback cb);
 		int indy_build_payment_req(int command_handle, int wallet_handle, String submitter_did, String inputs_json, String outputs_json, String extra, Callback cb);
@@ -200,6 +205,7 @@ public abstract class LibIndy {
 		int indy_get_request_info(int command_handle, String get_auth_rule_response_json, String requester_info_json, String fees_json, Callback cb);
 		int indy_sign_with_address(int command_handle, int wallet_handle, String address, byte[] message_raw, int message_len, Callback cb);
 		int indy_verify_with_address(int command_handle, String address, byte[] message_raw, int message_len, byte[] signature_raw, int signature_len, Callback cb);
+		int indy_register_payment_method(int command_handle, String payment_method, Callback create_payment_address, Callback add_request_fees, Callback parse_response_with_fees, Callback build_get_payment_sources_request, Callback parse_get_payment_sources_response, Callback build_payment_req, Callback parse_payment_response, Callback build_mint_req, Callback build_set_txn_fees_req, Callback build_get_txn_fees_req, Callback parse_get_txn_fees_response, Callback build_verify_payment_req, Callback parse_verify_payment_response, Callback sign_with_address, Callback verify_with_address, Callback cb);
 
 		int indy_set_logger(Pointer context, Callback enabled, Callback log, Callback flush);
 		int indy_set_logger_with_max_lvl(Pointer context, Callback enabled, Callback log, Callback flush, int max_lvl);
@@ -218,6 +224,8 @@ public abstract class LibIndy {
 	 */
 
 	public static API api = null;
+	private static API nativeApi = null;
+	private static final CommandRegistry commands = new CommandRegistry();
 
 	static {
 		MAPPER.addTypeConverter(IndyBool.class, IndyBool.MAPPER);
@@ -253,7 +261,7 @@ public abstract class LibIndy {
 		Map<String, Object> options = new HashMap<String, Object>();
 		options.put(Library.OPTION_TYPE_MAPPER, MAPPER);
 
-		api = Native.loadLibrary(file.getAbsolutePath(), API.class, options);
+		setApi(Native.loadLibrary(file.getAbsolutePath(), API.class, options));
 		initLogger();
 	}
 
@@ -264,7 +272,7 @@ public abstract class LibIndy {
 		Map<String, Object> options = new HashMap<String, Object>();
 		options.put(Library.OPTION_TYPE_MAPPER, MAPPER);
 
-		api = Native.loadLibrary(LIBRARY_NAME, API.class, options);
+		setApi(Native.loadLibrary(LIBRARY_NAME, API.class, options));
 		initLogger();
 	}
 
@@ -278,61 +286,63 @@ public abstract class LibIndy {
 		return api != null;
 	}
 
-	private static class Logger {
-		private static Callback enabled = null;
-
-		private static Callback log = new Callback() {
-
-			@SuppressWarnings({"unused", "unchecked"})
-			public void callback(Pointer context, int level, String target, String message, String module_path, String file, int line) {
-				detach(false);
-
-				org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(LIB_INDY_LOGGER_PREFIX + target.replace("::", "."));
-
-				String logMessage = String.format("%s:%d | %s", file, line, message);
-
-				switch (level) {
-					case 1:
-						logger.error(logMessage);
-						break;
-					case 2:
-						logger.warn(logMessage);
-						break;
-					case 3:
-						logger.info(logMessage);
-						break;
-					case 4:
-						logger.debug(logMessage);
-						break;
-					case 5:
-						logger.trace(logMessage);
-						break;
-					default:
-						break;
+	private static synchronized void setApi(API loaded) {
+
+		nativeApi = loaded;
+		api = commands.getInstrumentation() == Instrumentation.NOOP ? loaded : instrument(loaded);
+	}
+
+	/**
+	 * Gets the registry tracking the commands passed to libindy, e.g. to set deadlines or read its stats.
+	 * The libvcx wrapper has a registry of its own.
+	 *
+	 * @return The registry.
+	 */
+	public static CommandRegistry getCommandRegistry() {
+
+		return commands;
+	}
+
+	/**
+	 * Sets the instrumentation notified about the libindy calls made from now on; the libvcx wrapper is set up
+	 * separately through LibVcx.setInstrumentation. With any instrumentation
+	 * other than {@link Instrumentation#NOOP}, calls go through a proxy that records the function each
+	 * command is passed to.
+	 *
+	 * @param instrumentation The instrumentation, or {@link Instrumentation#NOOP} to disable it.
+	 */
+	public static synchronized void setInstrumentation(Instrumentation instrumentation) {
+
+		ParamGuard.notNull(instrumentation, "instrumentation");
+
+		commands.setInstrumentation(instrumentation);
+		if (nativeApi != null) setApi(nativeApi);
+	}
+
+	private static API instrument(final API target) {
+
+		return (API) Proxy.newProxyInstance(API.class.getClassLoader(), new Class<?>[] {API.class}, new InvocationHandler() {
+
+			@Override
+			public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+
+				// Asynchronous functions take the command handle first and the callback last
+				int commandHandle = args != null && args.length > 1 && args[0] instanceof Integer && args[args.length - 1] instanceof Callback ? (Integer) args[0] : 0;
+				if (commandHandle != 0) commands.tag(commandHandle, method.getName());
+
+				try {
+
+					return method.invoke(target, args);
+				} catch (InvocationTargetException e) {
+
+					throw e.getCause();
 				}
 			}
-		};
-
-		private static Callback flush = null;
+		});
 	}
 
 	private static void initLogger() {
-		org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(LIB_INDY_LOGGER_PREFIX);
-		int logLevel;
-		if (logger.isTraceEnabled()) {
-			logLevel = 5;
-		} else if (logger.isDebugEnabled()) {
-			logLevel = 4;
-		} else if (logger.isInfoEnabled()) {
-			logLevel = 3;
-		} else if (logger.isWarnEnabled()) {
-			logLevel = 2;
-		} else if (logger.isErrorEnabled()) {
-			logLevel = 1;
-		} else { // Off
-			logLevel = 0;
-		}
-		api.indy_set_logger_with_max_lvl(null, Logger.enabled, Logger.log, Logger.flush, logLevel);
+		api.indy_set_logger_with_max_lvl(null, LibIndyLogger.enabled, LibIndyLogger.log, LibIndyLogger.flush, LibIndyLogger.maxLevel());
 	}
 
 	/**
@@ -0,0 +1,410 @@
+package org.hyperledger.indy.sdk;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.sun.jna.Callback;
+import com.sun.jna.Pointer;
+
+import static com.sun.jna.Native.detach;
+
+/**
+ * Bridge from the libindy logger to SLF4J.
+ *
+ * Native log records are routed to the logger named after {@link LibIndy}'s native prefix and the
+ * record target. Loggers are resolved once per target and the level is checked before anything is
+ * formatted. Records can optionally be handed to a bounded buffer drained by a background thread, so
+ * that slow appenders do not stall libindy threads; records that do not fit are dropped and counted.
+ * A flush from libindy waits until the background thread has written every record buffered before it.
+ */
+public final class LibIndyLogger {
+
+	static final String LOGGER_PREFIX = String.format("%s.native", LibIndy.class.getName());
+
+	/**
+	 * What to do with a record when the asynchronous buffer is full.
+	 */
+	public enum DropPolicy {
+
+		/**
+		 * Drop the record being logged.
+		 */
+		DROP_NEWEST,
+
+		/**
+		 * Drop the oldest buffered record to make room for the record being logged.
+		 */
+		DROP_OLDEST
+	}
+
+	private static final ConcurrentHashMap<String, org.slf4j.Logger> loggers = new ConcurrentHashMap<String, org.slf4j.Logger>();
+	private static final AtomicLong droppedCount = new AtomicLong();
+
+	private static volatile AsyncWriter asyncWriter = null;
+
+	private LibIndyLogger() {
+
+	}
+
+	/*
+	 * CONFIGURATION
+	 */
+
+	/**
+	 * Hands native log records to a bounded buffer drained by a background thread.
+	 * Replaces a previously configured buffer; the records still buffered there are handed over to the new one.
+	 *
+	 * @param capacity   The maximum number of buffered records.
+	 * @param dropPolicy What to do with a record when the buffer is full.
+	 */
+	public static synchronized void setAsync(int capacity, DropPolicy dropPolicy) {
+
+		if (capacity <= 0) throw new IllegalArgumentException("A positive value must be provided for the 'capacity' parameter.");
+		ParamGuard.notNull(dropPolicy, "dropPolicy");
+
+		AsyncWriter previous = asyncWriter;
+		AsyncWriter next = new AsyncWriter(capacity, dropPolicy);
+		if (previous != null) previous.handOver(next);
+		asyncWriter = next;
+	}
+
+	/**
+	 * Writes native log records on the libindy thread that produced them. This is the default.
+	 */
+	public static synchronized void setSync() {
+
+		AsyncWriter previous = asyncWriter;
+		if (previous != null) previous.handOver(null);
+		asyncWriter = null;
+	}
+
+	/**
+	 * Gets the number of records dropped because the asynchronous buffer was full.
+	 *
+	 * @return The number of dropped records.
+	 */
+	public static long getDroppedCount() {
+
+		return droppedCount.get();
+	}
+
+	/*
+	 * NATIVE CALLBACKS
+	 */
+
+	interface EnabledCallback extends Callback {
+
+		boolean callback(Pointer context, int level, String target);
+	}
+
+	interface LogCallback extends Callback {
+
+		void callback(Pointer context, int level, String target, String message, String module_path, String file, int line);
+	}
+
+	interface FlushCallback extends Callback {
+
+		void callback(Pointer context);
+	}
+
+	static final EnabledCallback enabled = new EnabledCallback() {
+
+		@Override
+		public boolean callback(Pointer context, int level, String target) {
+			detach(false);
+
+			return isEnabled(loggerFor(target), level);
+		}
+	};
+
+	static final LogCallback log = new LogCallback() {
+
+		@Override
+		public void callback(Pointer context, int level, String target, String message, String module_path, String file, int line) {
+			detach(false);
+
+			org.slf4j.Logger logger = loggerFor(target);
+			if (! isEnabled(logger, level)) return;
+
+			AsyncWriter writer = asyncWriter;
+
+			if (writer == null) write(logger, level, file, line, message);
+			else writer.enqueue(new Record(logger, level, file, line, message));
+		}
+	};
+
+	static final FlushCallback flush = new FlushCallback() {
+
+		@Override
+		public void callback(Pointer context) {
+			detach(false);
+
+			AsyncWriter writer = asyncWriter;
+			if (writer != null) writer.flush();
+		}
+	};
+
+	/**
+	 * Gets the maximum level libindy should produce, derived from the root native logger.
+	 */
+	static int maxLevel() {
+
+		org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(LOGGER_PREFIX);
+
+		if (logger.isTraceEnabled()) return 5;
+		if (logger.isDebugEnabled()) return 4;
+		if (logger.isInfoEnabled()) return 3;
+		if (logger.isWarnEnabled()) return 2;
+		if (logger.isErrorEnabled()) return 1;
+
+		return 0; // Off
+	}
+
+	/*
+	 * WRITING
+	 */
+
+	static org.slf4j.Logger loggerFor(String target) {
+
+		String key = target == null ? "" : target;
+		org.slf4j.Logger logger = loggers.get(key);
+
+		if (logger == null) {
+
+			logger = org.slf4j.LoggerFactory.getLogger(LOGGER_PREFIX + key.replace("::", "."));
+			org.slf4j.Logger existing = loggers.putIfAbsent(key, logger);
+			if (existing != null) logger = existing;
+		}
+
+		return logger;
+	}
+
+	private static boolean isEnabled(org.slf4j.Logger logger, int level) {
+
+		switch (level) {
+			case 1:
+				return logger.isErrorEnabled();
+			case 2:
+				return logger.isWarnEnabled();
+			case 3:
+				return logger.isInfoEnabled();
+			case 4:
+				return logger.isDebugEnabled();
+			case 5:
+				return logger.isTraceEnabled();
+			default:
+				return false;
+		}
+	}
+
+	private static void write(org.slf4j.Logger logger, int level, String file, int line, String message) {
+
+		String logMessage = new StringBuilder((file == null ? 4 : file.length()) + (message == null ? 4 : message.length()) + 16)
+				.append(file).append(':').append(line).append(" | ").append(message)
+				.toString();
+
+		switch (level) {
+			case 1:
+				logger.error(logMessage);
+				break;
+			case 2:
+				logger.warn(logMessage);
+				break;
+			case 3:
+				logger.info(logMessage);
+				break;
+			case 4:
+				logger.debug(logMessage);
+				break;
+			case 5:
+				logger.trace(logMessage);
+				break;
+			default:
+				break;
+		}
+	}
+
+	private static final class Record {
+
+		private final org.slf4j.Logger logger;
+		private final int level;
+		private final String file;
+		private final int line;
+		private final String message;
+		private final CountDownLatch flushed;
+
+		private Record(org.slf4j.Logger logger, int level, String file, int line, String message) {
+
+			this(logger, level, file, line, message, null);
+		}
+
+		private Record(org.slf4j.Logger logger, int level, String file, int line, String message, CountDownLatch flushed) {
+
+			this.logger = logger;
+			this.level = level;
+			this.file = file;
+			this.line = line;
+			this.message = message;
+			this.flushed = flushed;
+		}
+
+		/**
+		 * Creates a marker that releases a flush once every record queued before it has been written.
+		 */
+		private static Record flushMarker(CountDownLatch flushed) {
+
+			return new Record(null, 0, null, 0, null, flushed);
+		}
+
+		private void writeOrRelease() {
+
+			if (this.flushed != null) this.flushed.countDown();
+			else write(this.logger, this.level, this.file, this.line, this.message);
+		}
+	}
+
+	private static final class AsyncWriter implements Runnable {
+
+		private final ArrayBlockingQueue<Record> queue;
+		private final DropPolicy dropPolicy;
+		private final Thread thread;
+		private volatile boolean running = true;
+
+		/**
+		 * Set once the writer is replaced. Records that reach it afterwards, from callbacks that read the
+		 * writer before the swap, go to the successor, or are written on the calling thread if there is none.
+		 */
+		private volatile boolean replaced;
+		private volatile AsyncWriter successor;
+
+		private AsyncWriter(int capacity, DropPolicy dropPolicy) {
+
+			this.queue = new ArrayBlockingQueue<Record>(capacity);
+			this.dropPolicy = dropPolicy;
+			this.thread = new Thread(this, "indy-native-logger");
+			this.thread.setDaemon(true);
+			this.thread.start();
+		}
+
+		private void enqueue(Record record) {
+
+			if (this.replaced) {
+
+				forward(record);
+				return;
+			}
+
+			if (this.queue.offer(record)) {
+
+				// handOver() may have taken the queue before the record got in
+				if (this.replaced && this.queue.remove(record)) forward(record);
+				return;
+			}
+
+			if (this.dropPolicy == DropPolicy.DROP_OLDEST) {
+
+				while (! this.queue.offer(record)) {
+
+					Record oldest = this.queue.poll();
+					if (oldest == null) continue;
+
+					// a flush marker at the head has nothing left before it
+					if (oldest.flushed != null) oldest.flushed.countDown();
+					else droppedCount.incrementAndGet();
+				}
+			} else {
+
+				droppedCount.incrementAndGet();
+			}
+		}
+
+		/**
+		 * Queues a flush marker behind the buffered records and waits for the writer thread to reach it, so
+		 * records are written in order across the flush. Drains the rest itself if the thread has stopped.
+		 */
+		private void flush() {
+
+			if (this.replaced) {
+
+				AsyncWriter successor = this.successor;
+				if (successor != null) successor.flush();
+				return;
+			}
+
+			CountDownLatch flushed = new CountDownLatch(1);
+			Record marker = Record.flushMarker(flushed);
+			boolean queued = false;
+			boolean interrupted = false;
+
+			while (true) {
+
+				try {
+
+					if (! queued) queued = this.queue.offer(marker, 100, TimeUnit.MILLISECONDS);
+					if (queued && flushed.await(100, TimeUnit.MILLISECONDS)) break;
+					if (! this.thread.isAlive()) drain();
+				} catch (InterruptedException e) {
+
+					interrupted = true;
+				}
+			}
+
+			if (interrupted) Thread.currentThread().interrupt();
+		}
+
+		private void drain() {
+
+			Record record;
+			while ((record = this.queue.poll()) != null) record.writeOrRelease();
+		}
+
+		private void forward(Record record) {
+
+			AsyncWriter successor = this.successor;
+			if (successor != null) successor.enqueue(record);
+			else record.writeOrRelease();
+		}
+
+		/**
+		 * Stops the writer thread and moves the records still buffered, in order, to the successor.
+		 *
+		 * @param successor The writer replacing this one, or null to write the records on the calling thread.
+		 */
+		private void handOver(AsyncWriter successor) {
+
+			this.successor = successor;
+			this.replaced = true;
+			this.running = false;
+			this.thread.interrupt();
+
+			try {
+
+				this.thread.join();
+			} catch (InterruptedException e) {
+
+				Thread.currentThread().interrupt();
+			}
+
+			Record record;
+			while ((record = this.queue.poll()) != null) forward(record);
+		}
+
+		@Override
+		public void run() {
+
+			while (this.running) {
+
+				try {
+
+					this.queue.take().writeOrRelease();
+				} catch (InterruptedException e) {
+
+					// handOver() moves what is left
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,315 @@
+package org.hyperledger.indy.sdk;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+import org.hyperledger.indy.sdk.dispatch.BoundedBatch;
+
+/**
+ * Runs an asynchronous SDK operation over a list of inputs while keeping at most a fixed number
+ * of calls in flight. The next input is submitted as soon as a previous call completes, so libindy's
+ * own worker threads stay busy without queuing the whole batch up front. The bounded fan-out itself is
+ * {@link BoundedBatch}, shared with the libvcx wrapper.
+ *
+ * A {@link Pipeline} does the same for inputs that arrive over time, e.g. the results of another batch.
+ */
+public final class ParallelBatch {
+
+	private ParallelBatch() {
+
+	}
+
+	/**
+	 * An asynchronous operation applied to every input.
+	 *
+	 * @param <I> The input type.
+	 * @param <O> The output type.
+	 */
+	public interface Operation<I, O> {
+
+		CompletableFuture<O> apply(I input) throws IndyException;
+	}
+
+	/**
+	 * Receives every output as soon as it is available, in completion order.
+	 *
+	 * @param <O> The output type.
+	 */
+	public interface Listener<O> {
+
+		void onResult(int position, O output);
+	}
+
+	/**
+	 * Applies the operation to all inputs with bounded parallelism.
+	 *
+	 * The returned future fails with the error of the first failed operation; no further inputs are
+	 * submitted after a failure.
+	 *
+	 * @param inputs      The inputs.
+	 * @param parallelism The maximum number of operations in flight.
+	 * @param operation   The operation.
+	 * @param listener    Optional: receives every output as soon as it is available.
+	 * @param <I>         The input type.
+	 * @param <O>         The output type.
+	 * @return A future resolving to the outputs in input order.
+	 */
+	public static <I, O> CompletableFuture<List<O>> run(
+			List<I> inputs,
+			int parallelism,
+			Operation<I, O> operation,
+			final Listener<O> listener) {
+
+		ParamGuard.notNull(inputs, "inputs");
+		ParamGuard.notNull(operation, "operation");
+		if (parallelism <= 0) throw new IllegalArgumentException("A positive value must be provided for the 'parallelism' parameter.");
+
+		final Object[] outputs = new Object[inputs.size()];
+
+		return BoundedBatch.run(inputs.iterator(), parallelism, adapt(operation), new BoundedBatch.Listener<O>() {
+
+			@Override
+			public void onResult(int position, O output) {
+
+				outputs[position] = output;
+				if (listener != null) listener.onResult(position, output);
+			}
+		}).thenApply(new Function<Integer, List<O>>() {
+
+			@Override
+			@SuppressWarnings("unchecked")
+			public List<O> apply(Integer count) {
+
+				return (List<O>) Arrays.asList(outputs);
+			}
+		});
+	}
+
+	/**
+	 * Creates a pipeline applying the operation to inputs as they are offered, with bounded parallelism.
+	 *
+	 * @param parallelism The maximum number of operations in flight.
+	 * @param operation   The operation.
+	 * @param listener    Optional: receives every output as soon as it is available, with the position of its input.
+	 * @param <I>         The input type.
+	 * @param <O>         The output type.
+	 * @return The pipeline.
+	 */
+	public static <I, O> Pipeline<I, O> pipeline(
+			int parallelism,
+			Operation<I, O> operation,
+			Listener<O> listener) {
+
+		ParamGuard.notNull(operation, "operation");
+		if (parallelism <= 0) throw new IllegalArgumentException("A positive value must be provided for the 'parallelism' parameter.");
+
+		return new Pipeline<I, O>(parallelism, operation, listener);
+	}
+
+	/**
+	 * Applies an operation to inputs offered one at a time, keeping at most a fixed number of operations in flight
+	 * and queuing the other inputs. A pipeline is also a {@link Listener}, so it can be passed to
+	 * {@link #run(List, int, Operation, Listener)} to start the next stage for each output of a batch while the
+	 * batch is still running.
+	 *
+	 * The result completes once the pipeline is closed and every offered input has been processed, or fails with the
+	 * error of the first failed operation; inputs offered after a failure are dropped.
+	 *
+	 * @param <I> The input type.
+	 * @param <O> The output type.
+	 */
+	public static final class Pipeline<I, O> implements Listener<I> {
+
+		private final int parallelism;
+		private final Operation<I, O> operation;
+		private final Listener<O> listener;
+		private final ArrayDeque<I> queue = new ArrayDeque<I>();
+		private final List<O> outputs = new ArrayList<O>();
+		private final CompletableFuture<List<O>> result = new CompletableFuture<List<O>>();
+		private int offered;
+		private int submitted;
+		private int inFlight;
+		private boolean closed;
+
+		private Pipeline(int parallelism, Operation<I, O> operation, Listener<O> listener) {
+
+			this.parallelism = parallelism;
+			this.operation = operation;
+			this.listener = listener;
+		}
+
+		/**
+		 * Offers an input. It is submitted at once if fewer than parallelism operations are in flight,
+		 * otherwise as soon as one completes.
+		 *
+		 * @param input The input.
+		 * @throws IllegalStateException Thrown if the pipeline is closed.
+		 */
+		public void offer(I input) {
+
+			synchronized (this) {
+
+				if (this.closed) throw new IllegalStateException("The pipeline is closed.");
+
+				this.queue.add(input);
+				this.offered++;
+				this.outputs.add(null);
+			}
+
+			submitNext();
+		}
+
+		/**
+		 * Offers the output of a previous stage, see {@link #offer(Object)}.
+		 */
+		@Override
+		public void onResult(int position, I output) {
+
+			offer(output);
+		}
+
+		/**
+		 * Signals that no more inputs will be offered.
+		 */
+		public void close() {
+
+			synchronized (this) {
+
+				this.closed = true;
+			}
+
+			completeIfDone();
+		}
+
+		/**
+		 * Gets the result of the pipeline.
+		 *
+		 * @return A future resolving to the outputs in the order their inputs were offered.
+		 */
+		public CompletableFuture<List<O>> getResult() {
+
+			return this.result;
+		}
+
+		/**
+		 * Submits queued inputs while fewer than parallelism operations are in flight, looping over
+		 * operations that complete synchronously so they do not grow the stack.
+		 */
+		private void submitNext() {
+
+			while (true) {
+
+				final int position;
+				I input;
+
+				synchronized (this) {
+
+					if (this.result.isDone() || this.inFlight >= this.parallelism || this.queue.isEmpty()) return;
+
+					input = this.queue.poll();
+					position = this.submitted++;
+					this.inFlight++;
+				}
+
+				CompletableFuture<O> future;
+
+				try {
+
+					future = this.operation.apply(input);
+				} catch (Exception e) {
+
+					this.result.completeExceptionally(e);
+					return;
+				}
+
+				if (! future.isDone()) {
+
+					future.whenComplete(new BiConsumer<O, Throwable>() {
+
+						@Override
+						public void accept(O output, Throwable e) {
+
+							if (complete(position, output, e)) submitNext();
+						}
+					});
+					continue;
+				}
+
+				O output = null;
+				Throwable error = null;
+
+				try {
+
+					output = future.join();
+				} catch (CompletionException e) {
+
+					error = e;
+				}
+
+				if (! complete(position, output, error)) return;
+			}
+		}
+
+		private boolean complete(int position, O output, Throwable e) {
+
+			if (e != null) {
+
+				this.result.completeExceptionally(e instanceof CompletionException && e.getCause() != null ? e.getCause() : e);
+				return false;
+			}
+
+			synchronized (this) {
+
+				this.outputs.set(position, output);
+				this.inFlight--;
+			}
+
+			if (this.listener != null) {
+
+				try {
+
+					this.listener.onResult(position, output);
+				} catch (RuntimeException listenerError) {
+
+					this.result.completeExceptionally(listenerError);
+					return false;
+				}
+			}
+
+			return ! completeIfDone();
+		}
+
+		private boolean completeIfDone() {
+
+			List<O> outputs;
+
+			synchronized (this) {
+
+				if (! this.closed || this.inFlight > 0 || this.submitted < this.offered) return false;
+
+				outputs = new ArrayList<O>(this.outputs);
+			}
+
+			this.result.complete(outputs);
+			return true;
+		}
+	}
+
+	private static <I, O> BoundedBatch.Operation<I, O> adapt(final Operation<I, O> operation) {
+
+		return new BoundedBatch.Operation<I, O>() {
+
+			@Override
+			public CompletableFuture<O> apply(I input) throws IndyException {
+
+				return operation.apply(input);
+			}
+		};
+	}
+}
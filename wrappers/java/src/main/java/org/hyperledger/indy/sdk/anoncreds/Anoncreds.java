@@ -1,5 +1,6 @@
 package org.hyperledger.indy.sdk.anoncreds;
 
+import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 
 import org.hyperledger.indy.sdk.IndyException;
@@ -11,7 +12,9 @@ import org.hyperledger.indy.sdk.anoncreds.AnoncredsResults.IssuerCreateAndStoreC
 import org.hyperledger.indy.sdk.anoncreds.AnoncredsResults.IssuerCreateAndStoreRevocRegResult;
 import org.hyperledger.indy.sdk.anoncreds.AnoncredsResults.IssuerCreateCredentialResult;
 import org.hyperledger.indy.sdk.anoncreds.AnoncredsResults.ProverCreateCredentialRequestResult;
+import org.hyperledger.indy.sdk.anoncreds.AnoncredsResults.CredentialInfo;
 import org.hyperledger.indy.sdk.blob_storage.BlobStorageWriter;
+import org.hyperledger.indy.sdk.json.JsonArrayView;
 import org.hyperledger.indy.sdk.wallet.Wallet;
 
 import com.sun.jna.Callback;
@@ -155,6 +158,22 @@ public class Anoncreds extends IndyJava.API {
 		}
 	};
 
+	/**
+	 * Callback used when a function returning an optional String completes.
+	 */
+	private static Callback optionalStringCb = new Callback() {
+
+		@SuppressWarnings({"unused", "unchecked"})
+		public void callback(int xcommand_handle, int err, String str) {
+
+			CompletableFuture<Optional<String>> future = (CompletableFuture<Optional<String>>) removeFuture(xcommand_handle);
+			if (! checkFoundResult(future, err)) return;
+
+			Optional<String> result = Optional.of(str);
+			future.complete(result);
+		}
+	};
+
 	/*
 	 * STATIC METHODS
 	 */
@@ -209,7 +228,7 @@ public class Anoncreds extends IndyJava.API {
 				attrs,
 				issuerCreateSchemaCb);
 
-		checkResult(future, result);
+		checkResult(commandHandle, future, result);
 
 		return future;
 	}
@@ -296,7 +315,7 @@ public class Anoncreds extends IndyJava.API {
 				configJson,
 				issuerCreateAndStoreCredentialDefCb);
 
-		checkResult(future, result);
+		checkResult(commandHandle, future, result);
 
 		return future;
 	}
@@ -341,7 +360,7 @@ public class Anoncreds extends IndyJava.API {
 				configJson,
 				stringCb);
 
-		checkResult(future, result);
+		checkResult(commandHandle, future, result);
 
 		return future;
 	}
@@ -376,7 +395,7 @@ public class Anoncreds extends IndyJava.API {
 				credDefId,
 				voidCb);
 
-		checkResult(future, result);
+		checkResult(commandHandle, future, result);
 
 		return future;
 	}
@@ -483,7 +502,7 @@ public class Anoncreds extends IndyJava.API {
 				tailsWriter.getBlobStorageWriterHandle(),
 				issuerCreateAndStoreRevocRegCb);
 
-		checkResult(future, result);
+		checkResult(commandHandle, future, result);
 
 		return future;
 	}
@@ -525,7 +544,7 @@ public class Anoncreds extends IndyJava.API {
 				credDefId,
 				stringCb);
 
-		checkResult(future, result);
+		checkResult(commandHandle, future, result);
 
 		return future;
 	}
@@ -607,7 +626,7 @@ public class Anoncreds extends IndyJava.API {
 				blobStorageReaderHandle,
 				issuerCreateCredentialCb);
 
-		checkResult(future, result);
+		checkResult(commandHandle, future, result);
 
 		return future;
 	}
@@ -651,7 +670,7 @@ public class Anoncreds extends IndyJava.API {
 				credRevocId,
 				stringCb);
 
-		checkResult(future, result);
+		checkResult(commandHandle, future, result);
 
 		return future;
 	}
@@ -695,7 +714,7 @@ public class Anoncreds extends IndyJava.API {
 //				credRevocId,
 //				issuerRecoverCredentialCb);
 //
-//		checkResult(future, result);
+//		checkResult(commandHandle, future, result);
 //
 //		return future;
 //	}
@@ -725,7 +744,7 @@ public class Anoncreds extends IndyJava.API {
 				otherRevRegDelta,
 				stringCb);
 
-		checkResult(future, result);
+		checkResult(commandHandle, future, result);
 
 		return future;
 	}
@@ -755,7 +774,7 @@ public class Anoncreds extends IndyJava.API {
 				masterSecretId,
 				stringCb);
 
-		checkResult(future, result);
+		checkResult(commandHandle, future, result);
 
 		return future;
 	}
@@ -825,7 +844,7 @@ public class Anoncreds extends IndyJava.API {
 				masterSecretId,
 				proverCreateCredentialReqCb);
 
-		checkResult(future, result);
+		checkResult(commandHandle, future, result);
 
 		return future;
 	}
@@ -884,7 +903,7 @@ public class Anoncreds extends IndyJava.API {
 				revRegDefJson,
 				stringCb);
 
-		checkResult(future, result);
+		checkResult(commandHandle, future, result);
 
 		return future;
 	}
@@ -936,7 +955,7 @@ public class Anoncreds extends IndyJava.API {
 				filter,
 				stringCb);
 
-		checkResult(future, result);
+		checkResult(commandHandle, future, result);
 
 		return future;
 	}
@@ -975,11 +994,76 @@ public class Anoncreds extends IndyJava.API {
 				credId,
 				stringCb);
 
-		checkResult(future, result);
+		checkResult(commandHandle, future, result);
+
+		return future;
+	}
+
+	/**
+	 * Gets human readable credential by the given id if it exists. Unlike {@link #proverGetCredential(Wallet, String)},
+	 * a missing credential does not fail the future.
+	 *
+	 * @param wallet A wallet.
+	 * @param credId Identifier by which requested credential is stored in the wallet
+	 * @return A future resolving to the credential json, see {@link #proverGetCredential(Wallet, String)}, or to an
+	 * empty Optional if there is no such credential.
+	 * @throws IndyException Thrown if an error occurs when calling the underlying SDK.
+	 */
+	public static CompletableFuture<Optional<String>> proverTryGetCredential(
+			Wallet wallet,
+			String credId) throws IndyException {
+
+		ParamGuard.notNull(wallet, "wallet");
+		ParamGuard.notNullOrWhiteSpace(credId, "credId");
+
+		CompletableFuture<Optional<String>> future = new CompletableFuture<Optional<String>>();
+		int commandHandle = addFuture(future);
+
+		int walletHandle = wallet.getWalletHandle();
+
+		int result = LibIndy.api.indy_prover_get_credential(
+				commandHandle,
+				walletHandle,
+				credId,
+				optionalStringCb);
+
+		checkResult(commandHandle, future, result);
 
 		return future;
 	}
 
+	/**
+	 * Gets credentials stored in the wallet as a lazily parsed view.
+	 *
+	 * Only the structure of the list is indexed; each credential is decoded when it is accessed.
+	 *
+	 * @param wallet A wallet.
+	 * @param filter filter for credentials, see {@link #proverGetCredentials(Wallet, String)}.
+	 * @return A future that resolves to a view over the credentials.
+	 * @throws IndyException Thrown if an error occurs when calling the underlying SDK.
+	 */
+	public static CompletableFuture<JsonArrayView<CredentialInfo>> proverGetCredentialsView(
+			Wallet wallet,
+			String filter) throws IndyException {
+
+		return proverGetCredentials(wallet, filter).thenApply(AnoncredsResults.CREDENTIAL_LIST);
+	}
+
+	/**
+	 * Gets human readable credential by the given id as a lazily parsed view.
+	 *
+	 * @param wallet A wallet.
+	 * @param credId Identifier by which requested credential is stored in the wallet
+	 * @return A future that resolves to a view over the credential.
+	 * @throws IndyException Thrown if an error occurs when calling the underlying SDK.
+	 */
+	public static CompletableFuture<CredentialInfo> proverGetCredentialView(
+			Wallet wallet,
+			String credId) throws IndyException {
+
+		return proverGetCredential(wallet, credId).thenApply(AnoncredsResults.CREDENTIAL);
+	}
+
 	/**
 	 * Deletes credential by given id.
 	 *
@@ -1005,7 +1089,7 @@ public class Anoncreds extends IndyJava.API {
 				credId,
 				stringCb);
 
-		checkResult(future, result);
+		checkResult(commandHandle, future, result);
 
 		return future;
 	}
@@ -1120,7 +1204,7 @@ public class Anoncreds extends IndyJava.API {
 				proofRequest,
 				stringCb);
 
-		checkResult(future, result);
+		checkResult(commandHandle, future, result);
 
 		return future;
 	}
@@ -1307,7 +1391,7 @@ public class Anoncreds extends IndyJava.API {
 				revStates,
 				stringCb);
 
-		checkResult(future, result);
+		checkResult(commandHandle, future, result);
 
 		return future;
 	}
@@ -1438,7 +1522,7 @@ public class Anoncreds extends IndyJava.API {
 				revocRegs,
 				boolCallback);
 
-		checkResult(future, result);
+		checkResult(commandHandle, future, result);
 
 		return future;
 	}
@@ -1489,7 +1573,7 @@ public class Anoncreds extends IndyJava.API {
 				credRevId,
 				stringCb);
 
-		checkResult(future, result);
+		checkResult(commandHandle, future, result);
 
 		return future;
 	}
@@ -1543,7 +1627,7 @@ public class Anoncreds extends IndyJava.API {
 				credRevId,
 				stringCb);
 
-		checkResult(future, result);
+		checkResult(commandHandle, future, result);
 
 		return future;
 	}
@@ -1564,7 +1648,7 @@ public class Anoncreds extends IndyJava.API {
 				commandHandle,
 				stringCb);
 
-		checkResult(future, result);
+		checkResult(commandHandle, future, result);
 
 		return future;
 	}
@@ -1604,7 +1688,7 @@ public class Anoncreds extends IndyJava.API {
 				entity,
 				stringCb);
 
-		checkResult(future, result);
+		checkResult(commandHandle, future, result);
 
 		return future;
 	}
@@ -1,6 +1,12 @@
 package org.hyperledger.indy.sdk.anoncreds;
 
+import java.util.Objects;
+import java.util.function.Function;
+
 import org.hyperledger.indy.sdk.IndyJava;
+import org.hyperledger.indy.sdk.json.JsonArrayView;
+import org.hyperledger.indy.sdk.json.JsonObjectView;
+import org.hyperledger.indy.sdk.json.JsonValue;
 
 /**
  * anoncreds.rs results
@@ -44,6 +50,32 @@ public final class AnoncredsResults {
 		public String getSchemaJson() {
 			return this.schemaJson;
 		}
+
+		@Override
+		public boolean equals(Object other) {
+
+			if (this == other) return true;
+			if (other == null || getClass() != other.getClass()) return false;
+
+			IssuerCreateSchemaResult that = (IssuerCreateSchemaResult) other;
+			return Objects.equals(this.schemaId, that.schemaId) &&
+					Objects.equals(this.schemaJson, that.schemaJson);
+		}
+
+		@Override
+		public int hashCode() {
+
+			int result = Objects.hashCode(this.schemaId);
+			result = 31 * result + Objects.hashCode(this.schemaJson);
+			return result;
+		}
+
+		@Override
+		public String toString() {
+
+			return "AnoncredsResults.IssuerCreateSchemaResult[schemaId=" + this.schemaId +
+					",schemaJson=" + this.schemaJson + "]";
+		}
 	}
 
 	/**
@@ -75,6 +107,32 @@ public final class AnoncredsResults {
 		public String getCredDefJson() {
 			return this.credDefJson;
 		}
+
+		@Override
+		public boolean equals(Object other) {
+
+			if (this == other) return true;
+			if (other == null || getClass() != other.getClass()) return false;
+
+			IssuerCreateAndStoreCredentialDefResult that = (IssuerCreateAndStoreCredentialDefResult) other;
+			return Objects.equals(this.credDefId, that.credDefId) &&
+					Objects.equals(this.credDefJson, that.credDefJson);
+		}
+
+		@Override
+		public int hashCode() {
+
+			int result = Objects.hashCode(this.credDefId);
+			result = 31 * result + Objects.hashCode(this.credDefJson);
+			return result;
+		}
+
+		@Override
+		public String toString() {
+
+			return "AnoncredsResults.IssuerCreateAndStoreCredentialDefResult[credDefId=" + this.credDefId +
+					",credDefJson=" + this.credDefJson + "]";
+		}
 	}
 
 	/**
@@ -116,6 +174,35 @@ public final class AnoncredsResults {
 		public String getRevRegEntryJson() {
 			return this.revRegEntryJson;
 		}
+
+		@Override
+		public boolean equals(Object other) {
+
+			if (this == other) return true;
+			if (other == null || getClass() != other.getClass()) return false;
+
+			IssuerCreateAndStoreRevocRegResult that = (IssuerCreateAndStoreRevocRegResult) other;
+			return Objects.equals(this.revRegid, that.revRegid) &&
+					Objects.equals(this.revRegDefJson, that.revRegDefJson) &&
+					Objects.equals(this.revRegEntryJson, that.revRegEntryJson);
+		}
+
+		@Override
+		public int hashCode() {
+
+			int result = Objects.hashCode(this.revRegid);
+			result = 31 * result + Objects.hashCode(this.revRegDefJson);
+			result = 31 * result + Objects.hashCode(this.revRegEntryJson);
+			return result;
+		}
+
+		@Override
+		public String toString() {
+
+			return "AnoncredsResults.IssuerCreateAndStoreRevocRegResult[revRegid=" + this.revRegid +
+					",revRegDefJson=" + this.revRegDefJson +
+					",revRegEntryJson=" + this.revRegEntryJson + "]";
+		}
 	}
 
 	/**
@@ -157,6 +244,35 @@ public final class AnoncredsResults {
 		public String getRevocRegDeltaJson() {
 			return this.revocRegDeltaJson;
 		}
+
+		@Override
+		public boolean equals(Object other) {
+
+			if (this == other) return true;
+			if (other == null || getClass() != other.getClass()) return false;
+
+			IssuerCreateCredentialResult that = (IssuerCreateCredentialResult) other;
+			return Objects.equals(this.credentialJson, that.credentialJson) &&
+					Objects.equals(this.revocId, that.revocId) &&
+					Objects.equals(this.revocRegDeltaJson, that.revocRegDeltaJson);
+		}
+
+		@Override
+		public int hashCode() {
+
+			int result = Objects.hashCode(this.credentialJson);
+			result = 31 * result + Objects.hashCode(this.revocId);
+			result = 31 * result + Objects.hashCode(this.revocRegDeltaJson);
+			return result;
+		}
+
+		@Override
+		public String toString() {
+
+			return "AnoncredsResults.IssuerCreateCredentialResult[credentialJson=" + this.credentialJson +
+					",revocId=" + this.revocId +
+					",revocRegDeltaJson=" + this.revocRegDeltaJson + "]";
+		}
 	}
 
 	/**
@@ -188,5 +304,133 @@ public final class AnoncredsResults {
 		public String getCredentialRequestMetadataJson() {
 			return this.credentialRequestMetadataJson;
 		}
+
+		@Override
+		public boolean equals(Object other) {
+
+			if (this == other) return true;
+			if (other == null || getClass() != other.getClass()) return false;
+
+			ProverCreateCredentialRequestResult that = (ProverCreateCredentialRequestResult) other;
+			return Objects.equals(this.credentialRequestJson, that.credentialRequestJson) &&
+					Objects.equals(this.credentialRequestMetadataJson, that.credentialRequestMetadataJson);
+		}
+
+		@Override
+		public int hashCode() {
+
+			int result = Objects.hashCode(this.credentialRequestJson);
+			result = 31 * result + Objects.hashCode(this.credentialRequestMetadataJson);
+			return result;
+		}
+
+		@Override
+		public String toString() {
+
+			return "AnoncredsResults.ProverCreateCredentialRequestResult[credentialRequestJson=" + this.credentialRequestJson +
+					",credentialRequestMetadataJson=" + this.credentialRequestMetadataJson + "]";
+		}
 	}
+
+	/**
+	 * Lazy view of a credential returned by proverGetCredential or proverGetCredentials.
+	 */
+	public static class CredentialInfo extends JsonObjectView {
+
+		CredentialInfo(JsonObjectView view) {
+			super(view);
+		}
+
+		/**
+		 * Gets the id of the credential in the wallet.
+		 *
+		 * @return The credential id.
+		 */
+		public String getReferent() {
+			return getString("referent");
+		}
+
+		/**
+		 * Gets the raw value of a credential attribute.
+		 *
+		 * @param name The attribute name.
+		 * @return The raw value, or null if the credential has no such attribute.
+		 */
+		public String getAttr(String name) {
+			return getObject("attrs").optString(name);
+		}
+
+		/**
+		 * Gets the credential attributes.
+		 *
+		 * @return A view over the attributes.
+		 */
+		public JsonObjectView getAttrs() {
+			return getObject("attrs");
+		}
+
+		/**
+		 * Gets the schema Id.
+		 *
+		 * @return Schema Id.
+		 */
+		public String getSchemaId() {
+			return getString("schema_id");
+		}
+
+		/**
+		 * Gets the credential definition Id.
+		 *
+		 * @return Credential definition Id.
+		 */
+		public String getCredDefId() {
+			return getString("cred_def_id");
+		}
+
+		/**
+		 * Gets the revocation registry Id.
+		 *
+		 * @return Revocation registry Id, or null if the credential is not revocable.
+		 */
+		public String getRevRegId() {
+			return optString("rev_reg_id");
+		}
+
+		/**
+		 * Gets the id of the credential in the revocation registry.
+		 *
+		 * @return Credential revocation Id, or null if the credential is not revocable.
+		 */
+		public String getCredRevId() {
+			return optString("cred_rev_id");
+		}
+	}
+
+	/*
+	 * PARSERS
+	 */
+
+	private static final JsonArrayView.Mapper<CredentialInfo> CREDENTIAL_ELEMENT = new JsonArrayView.Mapper<CredentialInfo>() {
+
+		@Override
+		public CredentialInfo map(JsonValue value) {
+			return new CredentialInfo(value.asObject());
+		}
+	};
+
+	static final Function<String, JsonArrayView<CredentialInfo>> CREDENTIAL_LIST = new Function<String, JsonArrayView<CredentialInfo>>() {
+
+		@Override
+		public JsonArrayView<CredentialInfo> apply(String json) {
+			return JsonArrayView.parse(json, CREDENTIAL_ELEMENT);
+		}
+	};
+
+	static final Function<String, CredentialInfo> CREDENTIAL = new Function<String, CredentialInfo>() {
+
+		@Override
+		public CredentialInfo apply(String json) {
+			return new CredentialInfo(JsonObjectView.parse(json));
+		}
+	};
 }
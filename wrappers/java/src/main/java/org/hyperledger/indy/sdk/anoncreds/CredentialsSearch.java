@@ -82,7 +82,7 @@ public class CredentialsSearch extends IndyJava.API implements AutoCloseable {
 				queryJson,
 				proverSearchCredentialsCb);
 
-		checkResult(future, result);
+		checkResult(commandHandle, future, result);
 
 		return future;
 	}
@@ -115,7 +115,7 @@ public class CredentialsSearch extends IndyJava.API implements AutoCloseable {
 				count,
 				Anoncreds.stringCb);
 
-		checkResult(future, result);
+		checkResult(commandHandle, future, result);
 
 		return future;
 	}
@@ -135,7 +135,7 @@ public class CredentialsSearch extends IndyJava.API implements AutoCloseable {
 				searchHandle,
 				voidCb);
 
-		checkResult(future, result);
+		checkResult(commandHandle, future, result);
 
 		return future;
 	}
@@ -148,4 +148,30 @@ public class CredentialsSearch extends IndyJava.API implements AutoCloseable {
 	public int totalCount() {
 		return totalCount;
 	}
+
+	/*
+	 * OBJECT METHODS
+	 */
+
+	@Override
+	public boolean equals(Object other) {
+
+		if (this == other) return true;
+		if (other == null || getClass() != other.getClass()) return false;
+
+		CredentialsSearch that = (CredentialsSearch) other;
+		return this.searchHandle == that.searchHandle && this.totalCount == that.totalCount;
+	}
+
+	@Override
+	public int hashCode() {
+
+		return 31 * this.searchHandle + this.totalCount;
+	}
+
+	@Override
+	public String toString() {
+
+		return "CredentialsSearch[searchHandle=" + this.searchHandle + ",totalCount=" + this.totalCount + "]";
+	}
 }
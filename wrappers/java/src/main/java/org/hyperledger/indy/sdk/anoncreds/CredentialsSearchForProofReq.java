@@ -131,7 +131,7 @@ public class CredentialsSearchForProofReq extends IndyJava.API implements AutoCl
 				extraQueryJson,
 				proverSearchCredentialsForProofReqCb);
 
-		checkResult(future, result);
+		checkResult(commandHandle, future, result);
 
 		return future;
 	}
@@ -176,7 +176,7 @@ public class CredentialsSearchForProofReq extends IndyJava.API implements AutoCl
 				count,
 				Anoncreds.stringCb);
 
-		checkResult(future, result);
+		checkResult(commandHandle, future, result);
 
 		return future;
 	}
@@ -196,7 +196,7 @@ public class CredentialsSearchForProofReq extends IndyJava.API implements AutoCl
 				searchHandle,
 				voidCb);
 
-		checkResult(future, result);
+		checkResult(commandHandle, future, result);
 
 		return future;
 	}
@@ -205,4 +205,30 @@ public class CredentialsSearchForProofReq extends IndyJava.API implements AutoCl
 	public void close() throws Exception {
 		closeSearch().get();
 	}
+
+	/*
+	 * OBJECT METHODS
+	 */
+
+	@Override
+	public boolean equals(Object other) {
+
+		if (this == other) return true;
+		if (other == null || getClass() != other.getClass()) return false;
+
+		CredentialsSearchForProofReq that = (CredentialsSearchForProofReq) other;
+		return this.searchHandle == that.searchHandle;
+	}
+
+	@Override
+	public int hashCode() {
+
+		return this.searchHandle;
+	}
+
+	@Override
+	public String toString() {
+
+		return "CredentialsSearchForProofReq[searchHandle=" + this.searchHandle + "]";
+	}
 }
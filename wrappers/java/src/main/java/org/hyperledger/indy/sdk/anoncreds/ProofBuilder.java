@@ -0,0 +1,917 @@
+package org.hyperledger.indy.sdk.anoncreds;
+
+import org.hyperledger.indy.sdk.IndyException;
+import org.hyperledger.indy.sdk.ParamGuard;
+import org.hyperledger.indy.sdk.blob_storage.BlobStorageReader;
+import org.hyperledger.indy.sdk.ledger.Ledger;
+import org.hyperledger.indy.sdk.ledger.LedgerResults.ParseRegistryResponseResult;
+import org.hyperledger.indy.sdk.ledger.LedgerResults.ParseResponseResult;
+import org.hyperledger.indy.sdk.ledger.RequestSubmitter;
+import org.hyperledger.indy.sdk.pool.Pool;
+import org.hyperledger.indy.sdk.wallet.ShardedWallet;
+import org.hyperledger.indy.sdk.wallet.Wallet;
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Creates proofs from a proof request and the credentials selected for it, gathering the other inputs of
+ * {@link Anoncreds#proverCreateProof(Wallet, String, String, String, String, String, String)} itself.
+ * <p>
+ * A build runs in stages, each of them in parallel: the selected credentials are read from the wallet; the
+ * schemas, credential definitions, revocation registry definitions and revocation deltas they refer to are
+ * fetched from the ledger concurrently; the revocation states are created or updated; and the proof is
+ * created from the assembled maps. The result reports how long each stage took.
+ * <p>
+ * Schemas, credential definitions and revocation registry definitions are immutable on the ledger and are
+ * cached. Revocation states are cached per credential and updated with the delta since their timestamp
+ * rather than rebuilt from the whole registry history.
+ * <p>
+ * A builder opens the blob storage reader for revocation tails the first time it needs it and keeps it for
+ * all later builds. libindy has no call to close a blob storage reader, so the reader stays open for the
+ * life of the process: share one builder rather than creating one per proof.
+ */
+public class ProofBuilder {
+
+	/**
+	 * A revocation registry delta and the ledger time it was taken at.
+	 */
+	static class Delta {
+
+		final String json;
+		final long timestamp;
+
+		Delta(String json, long timestamp) {
+
+			this.json = json;
+			this.timestamp = timestamp;
+		}
+	}
+
+	/**
+	 * The wallet, ledger and tails operations a build is made of.
+	 */
+	interface Backend {
+
+		CompletableFuture<String> getCredential(String credId) throws IndyException;
+
+		CompletableFuture<String> getSchema(String id) throws IndyException;
+
+		CompletableFuture<String> getCredDef(String id) throws IndyException;
+
+		CompletableFuture<String> getRevRegDef(String id) throws IndyException;
+
+		CompletableFuture<Delta> getRevRegDelta(String id, long from, long to) throws IndyException;
+
+		CompletableFuture<String> createRevocationState(String revRegDef, Delta delta, String credRevId) throws IndyException;
+
+		CompletableFuture<String> updateRevocationState(String revState, String revRegDef, Delta delta, String credRevId) throws IndyException;
+
+		CompletableFuture<String> createProof(String proofRequest, String requestedCredentials, String masterSecret,
+				String schemas, String credentialDefs, String revStates) throws IndyException;
+	}
+
+	/**
+	 * Durations of the stages of a build, in nanoseconds.
+	 */
+	public static class Timings {
+
+		private long credentials;
+		private long ledger;
+		private long revocation;
+		private long assembly;
+		private long proof;
+
+		public long getCredentialsNanos() {
+
+			return this.credentials;
+		}
+
+		public long getLedgerNanos() {
+
+			return this.ledger;
+		}
+
+		public long getRevocationNanos() {
+
+			return this.revocation;
+		}
+
+		public long getAssemblyNanos() {
+
+			return this.assembly;
+		}
+
+		public long getProofNanos() {
+
+			return this.proof;
+		}
+
+		public long getTotalNanos() {
+
+			return this.credentials + this.ledger + this.revocation + this.assembly + this.proof;
+		}
+
+		@Override
+		public String toString() {
+
+			return String.format("Timings[credentials=%.3fms,ledger=%.3fms,revocation=%.3fms,assembly=%.3fms,proof=%.3fms,total=%.3fms]",
+					this.credentials / 1e6, this.ledger / 1e6, this.revocation / 1e6, this.assembly / 1e6, this.proof / 1e6, getTotalNanos() / 1e6);
+		}
+	}
+
+	/**
+	 * A created proof and the inputs it was created from.
+	 */
+	public static class Result {
+
+		private final String proofJson;
+		private final String requestedCredentialsJson;
+		private final String schemasJson;
+		private final String credentialDefsJson;
+		private final String revStatesJson;
+		private final Timings timings;
+
+		Result(String proofJson, String requestedCredentialsJson, String schemasJson, String credentialDefsJson, String revStatesJson, Timings timings) {
+
+			this.proofJson = proofJson;
+			this.requestedCredentialsJson = requestedCredentialsJson;
+			this.schemasJson = schemasJson;
+			this.credentialDefsJson = credentialDefsJson;
+			this.revStatesJson = revStatesJson;
+			this.timings = timings;
+		}
+
+		public String getProofJson() {
+
+			return this.proofJson;
+		}
+
+		/**
+		 * @return The requested credentials json, with the timestamps of the revocation states filled in.
+		 */
+		public String getRequestedCredentialsJson() {
+
+			return this.requestedCredentialsJson;
+		}
+
+		public String getSchemasJson() {
+
+			return this.schemasJson;
+		}
+
+		public String getCredentialDefsJson() {
+
+			return this.credentialDefsJson;
+		}
+
+		public String getRevStatesJson() {
+
+			return this.revStatesJson;
+		}
+
+		public Timings getTimings() {
+
+			return this.timings;
+		}
+	}
+
+	/**
+	 * A revocation state and the ledger time it proves non-revocation at.
+	 */
+	private static class RevState {
+
+		final String json;
+		final long timestamp;
+
+		RevState(String json, long timestamp) {
+
+			this.json = json;
+			this.timestamp = timestamp;
+		}
+	}
+
+	/**
+	 * A revocation state one build needs: a credential in a registry, at a time.
+	 */
+	private static class RevNeed {
+
+		final String revRegId;
+		final String credRevId;
+		final RevState cached;
+		final String deltaKey;
+		RevState state;
+
+		RevNeed(String revRegId, String credRevId, RevState cached, String deltaKey) {
+
+			this.revRegId = revRegId;
+			this.credRevId = credRevId;
+			this.cached = cached;
+			this.deltaKey = deltaKey;
+		}
+	}
+
+	/**
+	 * A stage of a build, chained after the previous one.
+	 */
+	private abstract static class Stage<T> implements Function<Void, CompletableFuture<T>> {
+
+		abstract CompletableFuture<T> run() throws IndyException;
+
+		@Override
+		public CompletableFuture<T> apply(Void ignored) {
+
+			try {
+
+				return run();
+			} catch (IndyException e) {
+
+				return failed(e);
+			}
+		}
+	}
+
+	private static final int SCHEMA = 0;
+	private static final int CRED_DEF = 1;
+	private static final int REV_REG_DEF = 2;
+
+	private final Backend backend;
+
+	private final ConcurrentMap<String, CompletableFuture<String>> schemas = new ConcurrentHashMap<String, CompletableFuture<String>>();
+	private final ConcurrentMap<String, CompletableFuture<String>> credDefs = new ConcurrentHashMap<String, CompletableFuture<String>>();
+	private final ConcurrentMap<String, CompletableFuture<String>> revRegDefs = new ConcurrentHashMap<String, CompletableFuture<String>>();
+	private final ConcurrentMap<String, RevState> revStates = new ConcurrentHashMap<String, RevState>();
+
+	/**
+	 * @param pool              The pool to read from.
+	 * @param wallet            The prover wallet.
+	 * @param submitterDid      (Optional) DID of the read request sender.
+	 * @param tailsReaderConfig (Optional) Configuration of the default blob storage reader for revocation tails,
+	 *                          needed when the proof request asks for non-revocation. The reader is opened once
+	 *                          and never closed, see the class description.
+	 */
+	public ProofBuilder(Pool pool, Wallet wallet, String submitterDid, String tailsReaderConfig) {
+
+		this(wallet, submitterDid, Ledger.submitter(pool), tailsReaderConfig);
+	}
+
+	/**
+	 * @param wallet            The prover wallet.
+	 * @param submitterDid      (Optional) DID of the read request sender.
+	 * @param submitter         Sends read requests to the ledger.
+	 * @param tailsReaderConfig (Optional) Configuration of the default blob storage reader for revocation tails,
+	 *                          needed when the proof request asks for non-revocation. The reader is opened once
+	 *                          and never closed, see the class description.
+	 */
+	public ProofBuilder(Wallet wallet, String submitterDid, RequestSubmitter submitter, String tailsReaderConfig) {
+
+		this(new NativeBackend(wallet, submitterDid, submitter, tailsReaderConfig));
+
+		ParamGuard.notNull(wallet, "wallet");
+		ParamGuard.notNull(submitter, "submitter");
+	}
+
+	/**
+	 * Builds proofs from a sharded prover wallet. Credentials are read from the shards owning them and the
+	 * proof is created in the shard owning all selected credentials; a build over credentials of several
+	 * shards fails with {@link IllegalArgumentException}, see {@link ShardedWallet#getProofShard(String)}.
+	 *
+	 * @param wallet            The sharded prover wallet.
+	 * @param submitterDid      (Optional) DID of the read request sender.
+	 * @param submitter         Sends read requests to the ledger.
+	 * @param tailsReaderConfig (Optional) Configuration of the default blob storage reader for revocation tails,
+	 *                          needed when the proof request asks for non-revocation. The reader is opened once
+	 *                          and never closed, see the class description.
+	 */
+	public ProofBuilder(ShardedWallet wallet, String submitterDid, RequestSubmitter submitter, String tailsReaderConfig) {
+
+		this(new ShardedBackend(wallet, submitterDid, submitter, tailsReaderConfig));
+
+		ParamGuard.notNull(wallet, "wallet");
+		ParamGuard.notNull(submitter, "submitter");
+	}
+
+	ProofBuilder(Backend backend) {
+
+		this.backend = backend;
+	}
+
+	/**
+	 * Forgets the cached ledger objects and revocation states.
+	 */
+	public void invalidate() {
+
+		this.schemas.clear();
+		this.credDefs.clear();
+		this.revRegDefs.clear();
+		this.revStates.clear();
+	}
+
+	/**
+	 * Creates a proof.
+	 *
+	 * @param proofRequestJson         Proof request json, see {@link Anoncreds#proverCreateProof(Wallet, String, String, String, String, String, String)}.
+	 * @param requestedCredentialsJson The credentials selected for the proof request:
+	 *     {
+	 *         "self_attested_attributes": {"self_attested_attribute_referent": string, ...},
+	 *         "requested_attributes": {"requested_attribute_referent": {"cred_id": string, "revealed": bool}, ...},
+	 *         "requested_predicates": {"requested_predicate_referent": {"cred_id": string}, ...}
+	 *     }
+	 *     The timestamps of the revocation states are filled in by the builder.
+	 * @param masterSecretId           The id of the master secret stored in the wallet
+	 * @return A future that resolves to the proof, its inputs and the timing of each stage.
+	 * @throws IndyException Thrown if an error occurs when calling the underlying SDK.
+	 */
+	public CompletableFuture<Result> build(
+			String proofRequestJson,
+			String requestedCredentialsJson,
+			String masterSecretId) throws IndyException {
+
+		ParamGuard.notNullOrWhiteSpace(proofRequestJson, "proofRequestJson");
+		ParamGuard.notNullOrWhiteSpace(requestedCredentialsJson, "requestedCredentialsJson");
+		ParamGuard.notNullOrWhiteSpace(masterSecretId, "masterSecretId");
+
+		return new Build(proofRequestJson, requestedCredentialsJson, masterSecretId).run();
+	}
+
+	/**
+	 * The state of one build. Stages run one after the other, so only the callbacks within a stage run
+	 * concurrently.
+	 */
+	private class Build {
+
+		private final String proofRequestJson;
+		private final JSONObject proofRequest;
+		private final JSONObject requestedCredentials;
+		private final String masterSecretId;
+
+		private final Timings timings = new Timings();
+		private long mark;
+
+		private final Map<String, CompletableFuture<String>> credentialFutures = new LinkedHashMap<String, CompletableFuture<String>>();
+		private final Map<String, CompletableFuture<String>> schemaFutures = new LinkedHashMap<String, CompletableFuture<String>>();
+		private final Map<String, CompletableFuture<String>> credDefFutures = new LinkedHashMap<String, CompletableFuture<String>>();
+		private final Map<String, CompletableFuture<String>> revRegDefFutures = new LinkedHashMap<String, CompletableFuture<String>>();
+		private final Map<String, CompletableFuture<Delta>> deltaFutures = new LinkedHashMap<String, CompletableFuture<Delta>>();
+		private final Map<String, RevNeed> needs = new LinkedHashMap<String, RevNeed>();
+		private final Map<JSONObject, RevNeed> selectionNeeds = new IdentityHashMap<JSONObject, RevNeed>();
+
+		Build(String proofRequestJson, String requestedCredentialsJson, String masterSecretId) {
+
+			this.proofRequestJson = proofRequestJson;
+			this.proofRequest = new JSONObject(proofRequestJson);
+			this.requestedCredentials = new JSONObject(requestedCredentialsJson);
+			this.masterSecretId = masterSecretId;
+		}
+
+		CompletableFuture<Result> run() {
+
+			this.mark = System.nanoTime();
+
+			return CompletableFuture.<Void>completedFuture(null).thenCompose(new Stage<Void>() {
+
+				@Override
+				CompletableFuture<Void> run() throws IndyException {
+
+					return readCredentials();
+				}
+			}).thenCompose(new Stage<Void>() {
+
+				@Override
+				CompletableFuture<Void> run() throws IndyException {
+
+					timings.credentials = lap();
+					return fetchLedgerObjects();
+				}
+			}).thenCompose(new Stage<Void>() {
+
+				@Override
+				CompletableFuture<Void> run() throws IndyException {
+
+					timings.ledger = lap();
+					return updateRevocationStates();
+				}
+			}).thenCompose(new Stage<Result>() {
+
+				@Override
+				CompletableFuture<Result> run() throws IndyException {
+
+					timings.revocation = lap();
+					return createProof();
+				}
+			});
+		}
+
+		private long lap() {
+
+			long now = System.nanoTime();
+			long elapsed = now - this.mark;
+			this.mark = now;
+			return elapsed;
+		}
+
+		/**
+		 * Stage 1: reads every selected credential once.
+		 */
+		private CompletableFuture<Void> readCredentials() throws IndyException {
+
+			for (String section : new String[] { "requested_attributes", "requested_predicates" }) {
+
+				JSONObject selections = this.requestedCredentials.optJSONObject(section);
+				if (selections == null) continue;
+
+				for (String referent : selections.keySet()) {
+
+					String credId = selections.getJSONObject(referent).getString("cred_id");
+					if (! this.credentialFutures.containsKey(credId)) this.credentialFutures.put(credId, backend.getCredential(credId));
+				}
+			}
+
+			return allOf(this.credentialFutures.values());
+		}
+
+		/**
+		 * Stage 2: fetches the schemas, credential definitions, revocation registry definitions and revocation
+		 * deltas all at once.
+		 */
+		private CompletableFuture<Void> fetchLedgerObjects() throws IndyException {
+
+			long now = System.currentTimeMillis() / 1000;
+			Object globalInterval = this.proofRequest.opt("non_revoked");
+
+			for (String section : new String[] { "requested_attributes", "requested_predicates" }) {
+
+				JSONObject selections = this.requestedCredentials.optJSONObject(section);
+				if (selections == null) continue;
+
+				JSONObject requested = this.proofRequest.optJSONObject(section);
+
+				for (String referent : selections.keySet()) {
+
+					JSONObject selection = selections.getJSONObject(referent);
+					JSONObject credential = new JSONObject(this.credentialFutures.get(selection.getString("cred_id")).join());
+
+					String schemaId = credential.getString("schema_id");
+					String credDefId = credential.getString("cred_def_id");
+					if (! this.schemaFutures.containsKey(schemaId)) this.schemaFutures.put(schemaId, cached(schemas, SCHEMA, schemaId));
+					if (! this.credDefFutures.containsKey(credDefId)) this.credDefFutures.put(credDefId, cached(credDefs, CRED_DEF, credDefId));
+
+					String revRegId = credential.optString("rev_reg_id", null);
+					JSONObject interval = interval(requested == null ? null : requested.optJSONObject(referent), globalInterval);
+					if (revRegId == null || interval == null) continue;
+
+					String credRevId = credential.getString("cred_rev_id");
+					long to = interval.has("to") && ! interval.isNull("to") ? interval.getLong("to") : now;
+
+					String needKey = revRegId + "|" + credRevId + "|" + to;
+					RevNeed need = this.needs.get(needKey);
+					if (need == null) {
+
+						RevState cached = revStates.get(revRegId + "|" + credRevId);
+						if (cached != null && cached.timestamp > to) cached = null;
+
+						long from = cached == null ? 0 : cached.timestamp;
+						String deltaKey = revRegId + "|" + from + "|" + to;
+						if (! this.deltaFutures.containsKey(deltaKey)) this.deltaFutures.put(deltaKey, backend.getRevRegDelta(revRegId, from, to));
+						if (! this.revRegDefFutures.containsKey(revRegId)) this.revRegDefFutures.put(revRegId, cached(revRegDefs, REV_REG_DEF, revRegId));
+
+						this.needs.put(needKey, need = new RevNeed(revRegId, credRevId, cached, deltaKey));
+					}
+
+					this.selectionNeeds.put(selection, need);
+				}
+			}
+
+			List<CompletableFuture<?>> futures = new ArrayList<CompletableFuture<?>>();
+			futures.addAll(this.schemaFutures.values());
+			futures.addAll(this.credDefFutures.values());
+			futures.addAll(this.revRegDefFutures.values());
+			futures.addAll(this.deltaFutures.values());
+			return allOf(futures);
+		}
+
+		/**
+		 * Stage 3: creates the missing revocation states and brings the cached ones up to date, in parallel.
+		 */
+		private CompletableFuture<Void> updateRevocationStates() throws IndyException {
+
+			List<CompletableFuture<?>> futures = new ArrayList<CompletableFuture<?>>();
+
+			for (final RevNeed need : this.needs.values()) {
+
+				final Delta delta = this.deltaFutures.get(need.deltaKey).join();
+				String revRegDef = this.revRegDefFutures.get(need.revRegId).join();
+
+				if (need.cached != null && need.cached.timestamp == delta.timestamp) {
+
+					need.state = need.cached;
+					continue;
+				}
+
+				CompletableFuture<String> state = need.cached == null ?
+						backend.createRevocationState(revRegDef, delta, need.credRevId) :
+						backend.updateRevocationState(need.cached.json, revRegDef, delta, need.credRevId);
+
+				futures.add(state.thenAccept(new Consumer<String>() {
+
+					@Override
+					public void accept(String json) {
+
+						need.state = new RevState(json, delta.timestamp);
+						remember(need.revRegId + "|" + need.credRevId, need.state);
+					}
+				}));
+			}
+
+			return allOf(futures);
+		}
+
+		/**
+		 * Stages 4 and 5: assembles the inputs of the proof and creates it.
+		 */
+		private CompletableFuture<Result> createProof() throws IndyException {
+
+			JSONObject schemasJson = new JSONObject();
+			for (Map.Entry<String, CompletableFuture<String>> entry : this.schemaFutures.entrySet()) {
+
+				schemasJson.put(entry.getKey(), new JSONObject(entry.getValue().join()));
+			}
+
+			JSONObject credDefsJson = new JSONObject();
+			for (Map.Entry<String, CompletableFuture<String>> entry : this.credDefFutures.entrySet()) {
+
+				credDefsJson.put(entry.getKey(), new JSONObject(entry.getValue().join()));
+			}
+
+			JSONObject revStatesJson = new JSONObject();
+			for (RevNeed need : this.needs.values()) {
+
+				JSONObject states = revStatesJson.optJSONObject(need.revRegId);
+				if (states == null) revStatesJson.put(need.revRegId, states = new JSONObject());
+				states.put(String.valueOf(need.state.timestamp), new JSONObject(need.state.json));
+			}
+
+			for (Map.Entry<JSONObject, RevNeed> entry : this.selectionNeeds.entrySet()) {
+
+				entry.getKey().put("timestamp", entry.getValue().state.timestamp);
+			}
+
+			final String requestedCredentialsJson = this.requestedCredentials.toString();
+			final String schemas = schemasJson.toString();
+			final String credentialDefs = credDefsJson.toString();
+			final String revStates = revStatesJson.toString();
+			this.timings.assembly = lap();
+
+			return backend.createProof(this.proofRequestJson, requestedCredentialsJson, this.masterSecretId, schemas, credentialDefs, revStates)
+					.thenApply(new Function<String, Result>() {
+
+						@Override
+						public Result apply(String proofJson) {
+
+							timings.proof = lap();
+							return new Result(proofJson, requestedCredentialsJson, schemas, credentialDefs, revStates, timings);
+						}
+					});
+		}
+	}
+
+	/*
+	 * CACHING
+	 */
+
+	/**
+	 * Gets a ledger object, sharing one fetch between concurrent builds. Failed fetches are not cached.
+	 */
+	private CompletableFuture<String> cached(final ConcurrentMap<String, CompletableFuture<String>> cache, int kind, final String id) throws IndyException {
+
+		CompletableFuture<String> future = cache.get(id);
+		if (future != null) return future;
+
+		final CompletableFuture<String> created = new CompletableFuture<String>();
+		future = cache.putIfAbsent(id, created);
+		if (future != null) return future;
+
+		CompletableFuture<String> fetched;
+		try {
+
+			fetched = kind == SCHEMA ? this.backend.getSchema(id) : kind == CRED_DEF ? this.backend.getCredDef(id) : this.backend.getRevRegDef(id);
+		} catch (IndyException e) {
+
+			cache.remove(id, created);
+			throw e;
+		}
+
+		fetched.whenComplete(new BiConsumer<String, Throwable>() {
+
+			@Override
+			public void accept(String json, Throwable e) {
+
+				if (e == null) {
+
+					created.complete(json);
+				} else {
+
+					cache.remove(id, created);
+					created.completeExceptionally(e);
+				}
+			}
+		});
+
+		return created;
+	}
+
+	/**
+	 * Keeps the newest revocation state of a credential.
+	 */
+	private void remember(String key, RevState state) {
+
+		while (true) {
+
+			RevState current = this.revStates.putIfAbsent(key, state);
+			if (current == null || current.timestamp >= state.timestamp || this.revStates.replace(key, current, state)) return;
+		}
+	}
+
+	/*
+	 * NATIVE BACKEND
+	 */
+
+	private static class NativeBackend implements Backend {
+
+		private final Wallet wallet;
+		private final String submitterDid;
+		private final RequestSubmitter submitter;
+		private final String tailsReaderConfig;
+		private CompletableFuture<BlobStorageReader> tailsReader;
+
+		NativeBackend(Wallet wallet, String submitterDid, RequestSubmitter submitter, String tailsReaderConfig) {
+
+			this.wallet = wallet;
+			this.submitterDid = submitterDid;
+			this.submitter = submitter;
+			this.tailsReaderConfig = tailsReaderConfig;
+		}
+
+		private final Function<String, CompletableFuture<String>> submit = new Function<String, CompletableFuture<String>>() {
+
+			@Override
+			public CompletableFuture<String> apply(String request) {
+
+				try {
+
+					return submitter.submitRequest(request);
+				} catch (IndyException e) {
+
+					return failed(e);
+				}
+			}
+		};
+
+		private static final Function<ParseResponseResult, String> OBJECT_JSON = new Function<ParseResponseResult, String>() {
+
+			@Override
+			public String apply(ParseResponseResult result) {
+
+				return result.getObjectJson();
+			}
+		};
+
+		@Override
+		public CompletableFuture<String> getCredential(String credId) throws IndyException {
+
+			return Anoncreds.proverGetCredential(this.wallet, credId);
+		}
+
+		@Override
+		public CompletableFuture<String> getSchema(String id) throws IndyException {
+
+			return Ledger.buildGetSchemaRequest(this.submitterDid, id).thenCompose(this.submit).thenCompose(new Function<String, CompletableFuture<ParseResponseResult>>() {
+
+				@Override
+				public CompletableFuture<ParseResponseResult> apply(String response) {
+
+					try {
+
+						return Ledger.parseGetSchemaResponse(response);
+					} catch (IndyException e) {
+
+						return failed(e);
+					}
+				}
+			}).thenApply(OBJECT_JSON);
+		}
+
+		@Override
+		public CompletableFuture<String> getCredDef(String id) throws IndyException {
+
+			return Ledger.buildGetCredDefRequest(this.submitterDid, id).thenCompose(this.submit).thenCompose(new Function<String, CompletableFuture<ParseResponseResult>>() {
+
+				@Override
+				public CompletableFuture<ParseResponseResult> apply(String response) {
+
+					try {
+
+						return Ledger.parseGetCredDefResponse(response);
+					} catch (IndyException e) {
+
+						return failed(e);
+					}
+				}
+			}).thenApply(OBJECT_JSON);
+		}
+
+		@Override
+		public CompletableFuture<String> getRevRegDef(String id) throws IndyException {
+
+			return Ledger.buildGetRevocRegDefRequest(this.submitterDid, id).thenCompose(this.submit).thenCompose(new Function<String, CompletableFuture<ParseResponseResult>>() {
+
+				@Override
+				public CompletableFuture<ParseResponseResult> apply(String response) {
+
+					try {
+
+						return Ledger.parseGetRevocRegDefResponse(response);
+					} catch (IndyException e) {
+
+						return failed(e);
+					}
+				}
+			}).thenApply(OBJECT_JSON);
+		}
+
+		@Override
+		public CompletableFuture<Delta> getRevRegDelta(String id, long from, long to) throws IndyException {
+
+			return Ledger.buildGetRevocRegDeltaRequest(this.submitterDid, id, from, to).thenCompose(this.submit).thenCompose(new Function<String, CompletableFuture<ParseRegistryResponseResult>>() {
+
+				@Override
+				public CompletableFuture<ParseRegistryResponseResult> apply(String response) {
+
+					try {
+
+						return Ledger.parseGetRevocRegDeltaResponse(response);
+					} catch (IndyException e) {
+
+						return failed(e);
+					}
+				}
+			}).thenApply(new Function<ParseRegistryResponseResult, Delta>() {
+
+				@Override
+				public Delta apply(ParseRegistryResponseResult result) {
+
+					return new Delta(result.getObjectJson(), result.getTimestamp());
+				}
+			});
+		}
+
+		@Override
+		public CompletableFuture<String> createRevocationState(final String revRegDef, final Delta delta, final String credRevId) {
+
+			return tailsReader().thenCompose(new Function<BlobStorageReader, CompletableFuture<String>>() {
+
+				@Override
+				public CompletableFuture<String> apply(BlobStorageReader reader) {
+
+					try {
+
+						return Anoncreds.createRevocationState(reader.getBlobStorageReaderHandle(), revRegDef, delta.json, delta.timestamp, credRevId);
+					} catch (IndyException e) {
+
+						return failed(e);
+					}
+				}
+			});
+		}
+
+		@Override
+		public CompletableFuture<String> updateRevocationState(final String revState, final String revRegDef, final Delta delta, final String credRevId) {
+
+			return tailsReader().thenCompose(new Function<BlobStorageReader, CompletableFuture<String>>() {
+
+				@Override
+				public CompletableFuture<String> apply(BlobStorageReader reader) {
+
+					try {
+
+						return Anoncreds.updateRevocationState(reader.getBlobStorageReaderHandle(), revState, revRegDef, delta.json, delta.timestamp, credRevId);
+					} catch (IndyException e) {
+
+						return failed(e);
+					}
+				}
+			});
+		}
+
+		@Override
+		public CompletableFuture<String> createProof(String proofRequest, String requestedCredentials, String masterSecret,
+				String schemas, String credentialDefs, String revStates) throws IndyException {
+
+			return Anoncreds.proverCreateProof(this.wallet, proofRequest, requestedCredentials, masterSecret, schemas, credentialDefs, revStates);
+		}
+
+		/**
+		 * Opens the tails reader on first use. If opening fails, the next call tries again.
+		 */
+		private synchronized CompletableFuture<BlobStorageReader> tailsReader() {
+
+			if (this.tailsReader != null) return this.tailsReader;
+
+			if (this.tailsReaderConfig == null) {
+
+				return failed(new IllegalStateException("A tails reader config is needed for proofs of non-revocation."));
+			}
+
+			final CompletableFuture<BlobStorageReader> opening;
+			try {
+
+				opening = BlobStorageReader.openReader("default", this.tailsReaderConfig);
+			} catch (IndyException e) {
+
+				return failed(e);
+			}
+
+			this.tailsReader = opening;
+			opening.whenComplete(new BiConsumer<BlobStorageReader, Throwable>() {
+
+				@Override
+				public void accept(BlobStorageReader reader, Throwable e) {
+
+					if (e == null) return;
+
+					synchronized (NativeBackend.this) {
+
+						if (tailsReader == opening) tailsReader = null;
+					}
+				}
+			});
+
+			return opening;
+		}
+	}
+
+	/**
+	 * Reads the credentials from the shards owning them and creates the proof in the shard owning all of them.
+	 */
+	private static class ShardedBackend extends NativeBackend {
+
+		private final ShardedWallet shardedWallet;
+
+		ShardedBackend(ShardedWallet wallet, String submitterDid, RequestSubmitter submitter, String tailsReaderConfig) {
+
+			super(null, submitterDid, submitter, tailsReaderConfig);
+
+			this.shardedWallet = wallet;
+		}
+
+		@Override
+		public CompletableFuture<String> getCredential(String credId) throws IndyException {
+
+			return this.shardedWallet.proverGetCredential(credId);
+		}
+
+		@Override
+		public CompletableFuture<String> createProof(String proofRequest, String requestedCredentials, String masterSecret,
+				String schemas, String credentialDefs, String revStates) throws IndyException {
+
+			return this.shardedWallet.proverCreateProof(proofRequest, requestedCredentials, masterSecret, schemas, credentialDefs, revStates);
+		}
+	}
+
+	/*
+	 * HELPERS
+	 */
+
+	/**
+	 * The non-revocation interval of a referent, which overrides the one of the proof request.
+	 */
+	private static JSONObject interval(JSONObject requested, Object globalInterval) {
+
+		JSONObject interval = requested == null ? null : requested.optJSONObject("non_revoked");
+		if (interval == null && globalInterval instanceof JSONObject) interval = (JSONObject) globalInterval;
+		return interval;
+	}
+
+	private static CompletableFuture<Void> allOf(Collection<? extends CompletableFuture<?>> futures) {
+
+		return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[futures.size()]));
+	}
+
+	private static <T> CompletableFuture<T> failed(Throwable e) {
+
+		CompletableFuture<T> future = new CompletableFuture<T>();
+		future.completeExceptionally(e);
+		return future;
+	}
+}
@@ -0,0 +1,772 @@
+package org.hyperledger.indy.sdk.anoncreds;
+
+import org.hyperledger.indy.sdk.IndyException;
+import org.hyperledger.indy.sdk.ParamGuard;
+import org.hyperledger.indy.sdk.wallet.Wallet;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * In-memory index of the credentials of a prover wallet, answering proof requests without wallet scans.
+ * <p>
+ * The index keeps the tags libindy stores with every credential (schema and credential definition ids and
+ * their parts, attribute markers and raw values) and a sorted index of the integer attribute values used by
+ * predicates. {@link #proverGetCredentialsForProofReq(String, String)} resolves every referent whose
+ * restrictions it can evaluate from the index, and falls back to the native search of
+ * {@link CredentialsSearchForProofReq} for the others, e.g. restrictions on fully qualified identifiers.
+ * <p>
+ * The index only sees credentials stored and deleted through it, or announced with {@link #add(String)} and
+ * {@link #remove(String)}. It assumes libindy's default attribute tagging policy.
+ */
+public class ProverCredentialIndex {
+
+	private static final int LOAD_PAGE_SIZE = 256;
+	private static final int FALLBACK_PAGE_SIZE = 100;
+
+	private static final Set<String> CREDENTIAL_TAGS = new HashSet<String>(Arrays.asList(
+			"schema_id", "schema_issuer_did", "schema_name", "schema_version", "issuer_did", "cred_def_id", "rev_reg_id"));
+
+	/**
+	 * A restriction the index cannot evaluate the way libindy would.
+	 */
+	private static class UnindexableException extends Exception {
+
+		private static final long serialVersionUID = 1L;
+
+		UnindexableException(String message) {
+
+			super(message, null, false, false);
+		}
+	}
+
+	private static class IndexedCredential {
+
+		final String id;
+		final String credInfoJson;
+		final Map<String, String> tags;
+		final boolean qualified;
+
+		IndexedCredential(String id, String credInfoJson, Map<String, String> tags, boolean qualified) {
+
+			this.id = id;
+			this.credInfoJson = credInfoJson;
+			this.tags = tags;
+			this.qualified = qualified;
+		}
+	}
+
+	private final Wallet wallet;
+
+	private final Map<String, IndexedCredential> credentials = new LinkedHashMap<String, IndexedCredential>();
+	private final Map<String, Map<String, Set<String>>> tagIndex = new HashMap<String, Map<String, Set<String>>>();
+	private final Map<String, TreeMap<Integer, Set<String>>> numericIndex = new HashMap<String, TreeMap<Integer, Set<String>>>();
+	private final Map<String, Integer> nonNumericCounts = new HashMap<String, Integer>();
+	private int qualifiedCount;
+
+	private final AtomicLong indexedReferents = new AtomicLong();
+	private final AtomicLong fallbackReferents = new AtomicLong();
+
+	ProverCredentialIndex(Wallet wallet) {
+
+		this.wallet = wallet;
+	}
+
+	/*
+	 * STATIC METHODS
+	 */
+
+	/**
+	 * Builds the index of all credentials in a prover wallet.
+	 *
+	 * @param wallet A wallet.
+	 * @return A future that resolves to the index.
+	 * @throws IndyException Thrown if an error occurs when calling the underlying SDK.
+	 */
+	public static CompletableFuture<ProverCredentialIndex> load(
+			Wallet wallet) throws IndyException {
+
+		ParamGuard.notNull(wallet, "wallet");
+
+		final ProverCredentialIndex index = new ProverCredentialIndex(wallet);
+
+		return CredentialsSearch.open(wallet, "{}").thenCompose(new Function<CredentialsSearch, CompletableFuture<ProverCredentialIndex>>() {
+
+			@Override
+			public CompletableFuture<ProverCredentialIndex> apply(final CredentialsSearch search) {
+
+				return index.loadPages(search).thenCompose(new Function<Void, CompletableFuture<ProverCredentialIndex>>() {
+
+					@Override
+					public CompletableFuture<ProverCredentialIndex> apply(Void ignored) {
+
+						try {
+
+							return search.closeSearch().thenApply(constant(index));
+						} catch (IndyException e) {
+
+							return failed(e);
+						}
+					}
+				});
+			}
+		});
+	}
+
+	private CompletableFuture<Void> loadPages(final CredentialsSearch search) {
+
+		try {
+
+			return search.fetchNextCredentials(LOAD_PAGE_SIZE).thenCompose(new Function<String, CompletableFuture<Void>>() {
+
+				@Override
+				public CompletableFuture<Void> apply(String page) {
+
+					JSONArray credentials = new JSONArray(page);
+					for (int i = 0; i < credentials.length(); i++) add(credentials.getJSONObject(i).toString());
+
+					if (credentials.length() < LOAD_PAGE_SIZE) return CompletableFuture.completedFuture(null);
+					return loadPages(search);
+				}
+			});
+		} catch (IndyException e) {
+
+			return failed(e);
+		}
+	}
+
+	/*
+	 * INSTANCE METHODS
+	 */
+
+	/**
+	 * @return The indexed wallet.
+	 */
+	public Wallet getWallet() {
+
+		return this.wallet;
+	}
+
+	/**
+	 * @return The number of indexed credentials.
+	 */
+	public synchronized int size() {
+
+		return this.credentials.size();
+	}
+
+	/**
+	 * @return The number of referents resolved from the index.
+	 */
+	public long getIndexedReferentCount() {
+
+		return this.indexedReferents.get();
+	}
+
+	/**
+	 * @return The number of referents resolved by the native search.
+	 */
+	public long getFallbackReferentCount() {
+
+		return this.fallbackReferents.get();
+	}
+
+	/**
+	 * Stores a credential in the wallet and indexes it, see
+	 * {@link Anoncreds#proverStoreCredential(Wallet, String, String, String, String, String)}.
+	 *
+	 * @return A future that resolves to identifier by which credential is stored in the wallet.
+	 * @throws IndyException Thrown if an error occurs when calling the underlying SDK.
+	 */
+	public CompletableFuture<String> proverStoreCredential(
+			String credId,
+			String credReqMetadataJson,
+			String credJson,
+			String credDefJson,
+			String revRegDefJson) throws IndyException {
+
+		return Anoncreds.proverStoreCredential(this.wallet, credId, credReqMetadataJson, credJson, credDefJson, revRegDefJson)
+				.thenCompose(new Function<String, CompletableFuture<String>>() {
+
+					@Override
+					public CompletableFuture<String> apply(final String id) {
+
+						try {
+
+							return Anoncreds.proverGetCredential(wallet, id).thenApply(new Function<String, String>() {
+
+								@Override
+								public String apply(String credInfoJson) {
+
+									add(credInfoJson);
+									return id;
+								}
+							});
+						} catch (IndyException e) {
+
+							return failed(e);
+						}
+					}
+				});
+	}
+
+	/**
+	 * Deletes a credential from the wallet and from the index, see
+	 * {@link Anoncreds#proverDeleteCredential(Wallet, String)}.
+	 *
+	 * @return A future that resolves no value.
+	 * @throws IndyException Thrown if an error occurs when calling the underlying SDK.
+	 */
+	public CompletableFuture<Void> proverDeleteCredential(
+			final String credId) throws IndyException {
+
+		return Anoncreds.proverDeleteCredential(this.wallet, credId).thenApply(new Function<Void, Void>() {
+
+			@Override
+			public Void apply(Void ignored) {
+
+				remove(credId);
+				return null;
+			}
+		});
+	}
+
+	/**
+	 * Indexes a credential stored in the wallet by other means, replacing any entry with the same referent.
+	 *
+	 * @param credInfoJson Credential info json as returned by {@link Anoncreds#proverGetCredential(Wallet, String)}.
+	 */
+	public synchronized void add(String credInfoJson) {
+
+		ParamGuard.notNullOrWhiteSpace(credInfoJson, "credInfoJson");
+
+		JSONObject credInfo = new JSONObject(credInfoJson);
+		String id = credInfo.getString("referent");
+		remove(id);
+
+		String schemaId = credInfo.getString("schema_id");
+		String credDefId = credInfo.getString("cred_def_id");
+		String revRegId = credInfo.optString("rev_reg_id", null);
+
+		Map<String, String> tags = new HashMap<String, String>();
+		tags.put("schema_id", schemaId);
+		tags.put("cred_def_id", credDefId);
+		tags.put("rev_reg_id", revRegId == null ? "None" : revRegId);
+
+		String[] schemaParts = schemaId.split(":");
+		if (schemaParts.length == 4) {
+
+			tags.put("schema_issuer_did", schemaParts[0]);
+			tags.put("schema_name", schemaParts[2]);
+			tags.put("schema_version", schemaParts[3]);
+		}
+		if (! credDefId.startsWith("creddef:")) tags.put("issuer_did", credDefId.split(":")[0]);
+
+		boolean qualified = schemaParts.length != 4 || credDefId.startsWith("creddef:");
+
+		Map<String, Integer> numericValues = new HashMap<String, Integer>();
+		JSONObject attrs = credInfo.getJSONObject("attrs");
+		for (String attr : attrs.keySet()) {
+
+			String name = commonView(attr);
+			String raw = attrs.getString(attr);
+			tags.put("attr::" + name + "::marker", "1");
+			tags.put("attr::" + name + "::value", raw);
+
+			Integer numeric = parseInt(raw);
+			if (numeric != null) numericValues.put(name, numeric);
+			else increment(this.nonNumericCounts, name, 1);
+		}
+
+		this.credentials.put(id, new IndexedCredential(id, credInfoJson, tags, qualified));
+		if (qualified) this.qualifiedCount++;
+
+		for (Map.Entry<String, String> tag : tags.entrySet()) {
+
+			bucket(tagValues(tag.getKey()), tag.getValue()).add(id);
+		}
+
+		for (Map.Entry<String, Integer> value : numericValues.entrySet()) {
+
+			TreeMap<Integer, Set<String>> values = this.numericIndex.get(value.getKey());
+			if (values == null) this.numericIndex.put(value.getKey(), values = new TreeMap<Integer, Set<String>>());
+			bucket(values, value.getValue()).add(id);
+		}
+	}
+
+	/**
+	 * Removes a credential from the index.
+	 *
+	 * @param credId Identifier by which the credential is stored in the wallet.
+	 */
+	public synchronized void remove(String credId) {
+
+		IndexedCredential credential = this.credentials.remove(credId);
+		if (credential == null) return;
+
+		if (credential.qualified) this.qualifiedCount--;
+
+		for (Map.Entry<String, String> tag : credential.tags.entrySet()) {
+
+			Map<String, Set<String>> values = this.tagIndex.get(tag.getKey());
+			unbucket(values, tag.getValue(), credId);
+			if (values.isEmpty()) this.tagIndex.remove(tag.getKey());
+
+			if (! tag.getKey().endsWith("::value")) continue;
+
+			String name = tag.getKey().substring("attr::".length(), tag.getKey().length() - "::value".length());
+			Integer numeric = parseInt(tag.getValue());
+			if (numeric == null) {
+
+				increment(this.nonNumericCounts, name, - 1);
+				continue;
+			}
+
+			TreeMap<Integer, Set<String>> numericValues = this.numericIndex.get(name);
+			unbucket(numericValues, numeric, credId);
+			if (numericValues.isEmpty()) this.numericIndex.remove(name);
+		}
+	}
+
+	/**
+	 * Gets the credentials matching a proof request, see {@link Anoncreds#proverGetCredentialsForProofReq(Wallet, String)}.
+	 * Referents the index cannot resolve are searched natively, with one wallet search for all of them.
+	 *
+	 * @param proofRequestJson Proof request json
+	 * @param extraQueryJson   (Optional) List of extra queries that will be applied to correspondent attribute/predicate:
+	 *     {
+	 *         "attr_referent": {wql query},
+	 *         "predicate_referent": {wql query},
+	 *     }
+	 * @return A future that resolves to json with credentials for the given proof request:
+	 *     {
+	 *         "attrs": {
+	 *             "attr_referent": [{ cred_info: {credential_info}, interval: Optional[{non_revoc_interval}] }, ...],
+	 *             ...,
+	 *         },
+	 *         "predicates": {
+	 *             "predicate_referent": [{ cred_info: {credential_info}, interval: Optional[{non_revoc_interval}] }, ...],
+	 *             ...,
+	 *         }
+	 *     }
+	 * @throws IndyException Thrown if an error occurs when calling the underlying SDK.
+	 */
+	public CompletableFuture<String> proverGetCredentialsForProofReq(
+			final String proofRequestJson,
+			final String extraQueryJson) throws IndyException {
+
+		ParamGuard.notNullOrWhiteSpace(proofRequestJson, "proofRequestJson");
+
+		JSONObject proofRequest = new JSONObject(proofRequestJson);
+		JSONObject extraQuery = extraQueryJson == null ? new JSONObject() : new JSONObject(extraQueryJson);
+		Object globalInterval = proofRequest.opt("non_revoked");
+
+		final JSONObject attrs = new JSONObject();
+		final JSONObject predicates = new JSONObject();
+		final List<String> fallbackAttrs = new ArrayList<String>();
+		final List<String> fallbackPredicates = new ArrayList<String>();
+
+		synchronized (this) {
+
+			JSONObject requestedAttributes = proofRequest.optJSONObject("requested_attributes");
+			if (requestedAttributes != null) {
+
+				for (String referent : requestedAttributes.keySet()) {
+
+					JSONObject attrInfo = requestedAttributes.getJSONObject(referent);
+					try {
+
+						Set<String> matches = match(attrInfo, extraQuery.opt(referent), null);
+						attrs.put(referent, requestedCredentials(matches, interval(attrInfo, globalInterval)));
+					} catch (UnindexableException e) {
+
+						fallbackAttrs.add(referent);
+					}
+				}
+			}
+
+			JSONObject requestedPredicates = proofRequest.optJSONObject("requested_predicates");
+			if (requestedPredicates != null) {
+
+				for (String referent : requestedPredicates.keySet()) {
+
+					JSONObject predicateInfo = requestedPredicates.getJSONObject(referent);
+					try {
+
+						Set<String> matches = match(predicateInfo, extraQuery.opt(referent), predicateInfo);
+						predicates.put(referent, requestedCredentials(matches, interval(predicateInfo, globalInterval)));
+					} catch (UnindexableException e) {
+
+						fallbackPredicates.add(referent);
+					}
+				}
+			}
+		}
+
+		this.indexedReferents.addAndGet(attrs.length() + predicates.length());
+		this.fallbackReferents.addAndGet(fallbackAttrs.size() + fallbackPredicates.size());
+
+		final JSONObject result = new JSONObject().put("attrs", attrs).put("predicates", predicates);
+		if (fallbackAttrs.isEmpty() && fallbackPredicates.isEmpty()) return CompletableFuture.completedFuture(result.toString());
+
+		return CredentialsSearchForProofReq.open(this.wallet, proofRequestJson, extraQueryJson).thenCompose(new Function<CredentialsSearchForProofReq, CompletableFuture<String>>() {
+
+			@Override
+			public CompletableFuture<String> apply(final CredentialsSearchForProofReq search) {
+
+				CompletableFuture<Void> fetched = CompletableFuture.completedFuture(null);
+				for (String referent : fallbackAttrs) fetched = fetched.thenCompose(fetchAll(search, referent, attrs));
+				for (String referent : fallbackPredicates) fetched = fetched.thenCompose(fetchAll(search, referent, predicates));
+
+				return fetched.thenCompose(new Function<Void, CompletableFuture<String>>() {
+
+					@Override
+					public CompletableFuture<String> apply(Void ignored) {
+
+						try {
+
+							return search.closeSearch().thenApply(constant(result.toString()));
+						} catch (IndyException e) {
+
+							return failed(e);
+						}
+					}
+				});
+			}
+		});
+	}
+
+	/*
+	 * MATCHING
+	 */
+
+	/**
+	 * @return The ids of the credentials an attribute or predicate referent matches.
+	 */
+	private Set<String> match(JSONObject info, Object extraQuery, JSONObject predicate) throws UnindexableException {
+
+		List<String> names = new ArrayList<String>();
+		if (info.has("names")) {
+
+			JSONArray array = info.getJSONArray("names");
+			for (int i = 0; i < array.length(); i++) names.add(array.getString(i));
+		} else {
+
+			names.add(info.getString("name"));
+		}
+
+		Set<String> matches = null;
+		for (String name : names) matches = intersect(matches, tagged("attr::" + commonView(name) + "::marker", "1"));
+
+		Object restrictions = info.opt("restrictions");
+		if (restrictions != null && restrictions != JSONObject.NULL) {
+
+			if (this.qualifiedCount > 0) throw new UnindexableException("qualified credentials");
+			matches = intersect(matches, evaluate(restrictions));
+		}
+
+		if (extraQuery != null && extraQuery != JSONObject.NULL) matches = intersect(matches, evaluate(extraQuery));
+
+		if (predicate != null) matches = intersect(matches, satisfying(predicate));
+
+		return matches;
+	}
+
+	/**
+	 * Evaluates a wql query over the credential tags. A JSON array is a disjunction, as for proof request
+	 * restrictions.
+	 */
+	private Set<String> evaluate(Object query) throws UnindexableException {
+
+		if (query instanceof JSONArray) {
+
+			JSONArray array = (JSONArray) query;
+			if (array.length() == 0) throw new UnindexableException("empty disjunction");
+
+			Set<String> union = new HashSet<String>();
+			for (int i = 0; i < array.length(); i++) union.addAll(evaluate(array.get(i)));
+			return union;
+		}
+
+		if (! (query instanceof JSONObject)) throw new UnindexableException("malformed query");
+
+		JSONObject object = (JSONObject) query;
+		Set<String> matches = null;
+		for (String key : object.keySet()) {
+
+			Object value = object.get(key);
+			Set<String> operand;
+
+			if ("$and".equals(key)) {
+
+				if (! (value instanceof JSONArray)) throw new UnindexableException("malformed $and");
+				JSONArray array = (JSONArray) value;
+				operand = null;
+				for (int i = 0; i < array.length(); i++) operand = intersect(operand, evaluate(array.get(i)));
+				if (operand == null) operand = this.credentials.keySet();
+			} else if ("$or".equals(key)) {
+
+				if (! (value instanceof JSONArray)) throw new UnindexableException("malformed $or");
+				operand = evaluate(value);
+			} else if ("$not".equals(key)) {
+
+				if (! (value instanceof JSONObject)) throw new UnindexableException("malformed $not");
+				operand = complement(evaluate(value));
+			} else {
+
+				operand = evaluateTag(key, value);
+			}
+
+			matches = intersect(matches, operand);
+		}
+
+		return matches == null ? this.credentials.keySet() : matches;
+	}
+
+	private Set<String> evaluateTag(String tag, Object value) throws UnindexableException {
+
+		if (! CREDENTIAL_TAGS.contains(tag) && ! (tag.startsWith("attr::") && (tag.endsWith("::marker") || tag.endsWith("::value")))) {
+
+			throw new UnindexableException("unknown tag " + tag);
+		}
+
+		if (value instanceof String) return tagged(tag, (String) value);
+		if (! (value instanceof JSONObject) || ((JSONObject) value).length() != 1) throw new UnindexableException("malformed term");
+
+		JSONObject term = (JSONObject) value;
+		String operator = term.keys().next();
+		Object operand = term.get(operator);
+
+		if ("$neq".equals(operator) && operand instanceof String) return complement(tagged(tag, (String) operand));
+		if ("$in".equals(operator) && operand instanceof JSONArray) {
+
+			Set<String> union = new HashSet<String>();
+			JSONArray values = (JSONArray) operand;
+			for (int i = 0; i < values.length(); i++) union.addAll(tagged(tag, values.getString(i)));
+			return union;
+		}
+
+		throw new UnindexableException("unsupported operator " + operator);
+	}
+
+	/**
+	 * Applies a predicate to the integer values of its attribute. The wallet evaluates predicates on encoded
+	 * values, which equal the raw value for integers; any non-integer raw value sends the referent to the
+	 * native search.
+	 */
+	private Set<String> satisfying(JSONObject predicate) throws UnindexableException {
+
+		String name = commonView(predicate.getString("name"));
+		Integer nonNumeric = this.nonNumericCounts.get(name);
+		if (nonNumeric != null && nonNumeric > 0) throw new UnindexableException("non-integer values for " + name);
+
+		TreeMap<Integer, Set<String>> values = this.numericIndex.get(name);
+		if (values == null) return Collections.emptySet();
+
+		int bound = predicate.getInt("p_value");
+		String type = predicate.getString("p_type");
+
+		NavigableMap<Integer, Set<String>> range;
+		if (">=".equals(type)) range = values.tailMap(bound, true);
+		else if (">".equals(type)) range = values.tailMap(bound, false);
+		else if ("<=".equals(type)) range = values.headMap(bound, true);
+		else if ("<".equals(type)) range = values.headMap(bound, false);
+		else throw new UnindexableException("unsupported predicate type " + type);
+
+		Set<String> matches = new HashSet<String>();
+		for (Set<String> ids : range.values()) matches.addAll(ids);
+		return matches;
+	}
+
+	private Set<String> tagged(String tag, String value) {
+
+		Map<String, Set<String>> values = this.tagIndex.get(tag);
+		Set<String> ids = values == null ? null : values.get(value);
+		return ids == null ? Collections.<String>emptySet() : ids;
+	}
+
+	private Set<String> complement(Set<String> ids) {
+
+		Set<String> complement = new HashSet<String>(this.credentials.keySet());
+		complement.removeAll(ids);
+		return complement;
+	}
+
+	/**
+	 * Intersects two sets without modifying either, iterating the smaller one. A null set means no constraint.
+	 */
+	private static Set<String> intersect(Set<String> a, Set<String> b) {
+
+		if (a == null) return b;
+		if (b == null) return a;
+
+		Set<String> small = a.size() <= b.size() ? a : b;
+		Set<String> large = small == a ? b : a;
+
+		Set<String> intersection = new HashSet<String>();
+		for (String id : small) if (large.contains(id)) intersection.add(id);
+		return intersection;
+	}
+
+	/*
+	 * RESULTS
+	 */
+
+	/**
+	 * Lists the matches in the order the credentials were indexed.
+	 */
+	private JSONArray requestedCredentials(Set<String> matches, Object interval) {
+
+		JSONArray requested = new JSONArray();
+		if (matches == null || matches.isEmpty()) return requested;
+
+		for (IndexedCredential credential : this.credentials.values()) {
+
+			if (! matches.contains(credential.id)) continue;
+			requested.put(new JSONObject()
+					.put("cred_info", new JSONObject(credential.credInfoJson))
+					.put("interval", interval == null ? JSONObject.NULL : interval));
+		}
+
+		return requested;
+	}
+
+	private static Object interval(JSONObject info, Object globalInterval) {
+
+		Object interval = info.opt("non_revoked");
+		if (interval == null || interval == JSONObject.NULL) interval = globalInterval;
+		return interval == JSONObject.NULL ? null : interval;
+	}
+
+	private Function<Void, CompletableFuture<Void>> fetchAll(final CredentialsSearchForProofReq search, final String referent, final JSONObject target) {
+
+		return new Function<Void, CompletableFuture<Void>>() {
+
+			@Override
+			public CompletableFuture<Void> apply(Void ignored) {
+
+				return fetchPages(search, referent, new JSONArray()).thenApply(new Function<JSONArray, Void>() {
+
+					@Override
+					public Void apply(JSONArray credentials) {
+
+						target.put(referent, credentials);
+						return null;
+					}
+				});
+			}
+		};
+	}
+
+	private CompletableFuture<JSONArray> fetchPages(final CredentialsSearchForProofReq search, final String referent, final JSONArray collected) {
+
+		try {
+
+			return search.fetchNextCredentials(referent, FALLBACK_PAGE_SIZE).thenCompose(new Function<String, CompletableFuture<JSONArray>>() {
+
+				@Override
+				public CompletableFuture<JSONArray> apply(String page) {
+
+					JSONArray credentials = new JSONArray(page);
+					for (int i = 0; i < credentials.length(); i++) collected.put(credentials.get(i));
+
+					if (credentials.length() < FALLBACK_PAGE_SIZE) return CompletableFuture.completedFuture(collected);
+					return fetchPages(search, referent, collected);
+				}
+			});
+		} catch (IndyException e) {
+
+			return failed(e);
+		}
+	}
+
+	/*
+	 * HELPERS
+	 */
+
+	/**
+	 * Attribute names are matched case insensitively and ignoring spaces, as in libindy.
+	 */
+	private static String commonView(String attr) {
+
+		return attr.replace(" ", "").toLowerCase();
+	}
+
+	/**
+	 * Parses a 32-bit integer the way libindy does for predicates.
+	 */
+	private static Integer parseInt(String raw) {
+
+		try {
+
+			return Integer.valueOf(raw);
+		} catch (NumberFormatException e) {
+
+			return null;
+		}
+	}
+
+	private Map<String, Set<String>> tagValues(String tag) {
+
+		Map<String, Set<String>> values = this.tagIndex.get(tag);
+		if (values == null) this.tagIndex.put(tag, values = new HashMap<String, Set<String>>());
+		return values;
+	}
+
+	private static <V> Set<String> bucket(Map<V, Set<String>> values, V value) {
+
+		Set<String> ids = values.get(value);
+		if (ids == null) values.put(value, ids = new HashSet<String>());
+		return ids;
+	}
+
+	private static <V> void unbucket(Map<V, Set<String>> values, V value, String id) {
+
+		Set<String> ids = values.get(value);
+		if (ids == null) return;
+
+		ids.remove(id);
+		if (ids.isEmpty()) values.remove(value);
+	}
+
+	private static void increment(Map<String, Integer> counts, String key, int delta) {
+
+		Integer count = counts.get(key);
+		int updated = (count == null ? 0 : count) + delta;
+		if (updated == 0) counts.remove(key);
+		else counts.put(key, updated);
+	}
+
+	private static <T> Function<Void, T> constant(final T value) {
+
+		return new Function<Void, T>() {
+
+			@Override
+			public T apply(Void ignored) {
+
+				return value;
+			}
+		};
+	}
+
+	private static <T> CompletableFuture<T> failed(Throwable e) {
+
+		CompletableFuture<T> future = new CompletableFuture<T>();
+		future.completeExceptionally(e);
+		return future;
+	}
+}
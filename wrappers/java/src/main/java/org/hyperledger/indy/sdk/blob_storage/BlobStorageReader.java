@@ -75,8 +75,34 @@ public class BlobStorageReader extends IndyJava.API {
 				config,
 				openReaderCb);
 
-		checkResult(future, result);
+		checkResult(commandHandle, future, result);
 
 		return future;
 	}
-}
\ No newline at end of file
+
+	/*
+	 * OBJECT METHODS
+	 */
+
+	@Override
+	public boolean equals(Object other) {
+
+		if (this == other) return true;
+		if (other == null || getClass() != other.getClass()) return false;
+
+		BlobStorageReader that = (BlobStorageReader) other;
+		return this.blobStorageReaderHandle == that.blobStorageReaderHandle;
+	}
+
+	@Override
+	public int hashCode() {
+
+		return this.blobStorageReaderHandle;
+	}
+
+	@Override
+	public String toString() {
+
+		return "BlobStorageReader[blobStorageReaderHandle=" + this.blobStorageReaderHandle + "]";
+	}
+}
@@ -75,8 +75,34 @@ public class BlobStorageWriter extends IndyJava.API {
 				config,
 				openWriterCb);
 
-		checkResult(future, result);
+		checkResult(commandHandle, future, result);
 
 		return future;
 	}
-}
\ No newline at end of file
+
+	/*
+	 * OBJECT METHODS
+	 */
+
+	@Override
+	public boolean equals(Object other) {
+
+		if (this == other) return true;
+		if (other == null || getClass() != other.getClass()) return false;
+
+		BlobStorageWriter that = (BlobStorageWriter) other;
+		return this.blobStorageWriterHandle == that.blobStorageWriterHandle;
+	}
+
+	@Override
+	public int hashCode() {
+
+		return this.blobStorageWriterHandle;
+	}
+
+	@Override
+	public String toString() {
+
+		return "BlobStorageWriter[blobStorageWriterHandle=" + this.blobStorageWriterHandle + "]";
+	}
+}
@@ -93,7 +93,7 @@ public class Cache extends IndyJava.API {
 				optionsJson,
 				voidCb);
 
-		checkResult(future, result);
+		checkResult(commandHandle, future, result);
 
 		return future;
 	}
@@ -129,7 +129,7 @@ public class Cache extends IndyJava.API {
 				optionsJson,
 				voidCb);
 
-		checkResult(future, result);
+		checkResult(commandHandle, future, result);
 
 		return future;
 	}
@@ -190,7 +190,7 @@ public class Cache extends IndyJava.API {
 				optionsJson,
 				stringCb);
 
-		checkResult(future, result);
+		checkResult(commandHandle, future, result);
 
 		return future;
 	}
@@ -255,7 +255,7 @@ public class Cache extends IndyJava.API {
 				optionsJson,
 				stringCb);
 
-		checkResult(future, result);
+		checkResult(commandHandle, future, result);
 
 		return future;
 	}
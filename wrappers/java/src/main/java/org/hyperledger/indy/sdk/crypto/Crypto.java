@@ -221,7 +221,7 @@ public class Crypto extends IndyJava.API {
 				keyJson,
 				createKeyCb);
 
-		checkResult(future, result);
+		checkResult(commandHandle, future, result);
 
 		return future;
 	}
@@ -256,7 +256,7 @@ public class Crypto extends IndyJava.API {
 				metadata,
 				setKeyMetadataCb);
 
-		checkResult(future, result);
+		checkResult(commandHandle, future, result);
 
 		return future;
 	}
@@ -287,7 +287,7 @@ public class Crypto extends IndyJava.API {
 				verkey,
 				getKeyMetadataCb);
 
-		checkResult(future, result);
+		checkResult(commandHandle, future, result);
 
 		return future;
 	}
@@ -326,7 +326,7 @@ public class Crypto extends IndyJava.API {
 				message.length,
 				cryptoSignCb);
 
-		checkResult(future, result);
+		checkResult(commandHandle, future, result);
 
 		return future;
 	}
@@ -363,7 +363,7 @@ public class Crypto extends IndyJava.API {
 				signature.length,
 				boolCallback);
 
-		checkResult(future, result);
+		checkResult(commandHandle, future, result);
 
 		return future;
 	}
@@ -417,7 +417,7 @@ public class Crypto extends IndyJava.API {
 				message.length,
 				authCrypCb);
 
-		checkResult(future, result);
+		checkResult(commandHandle, future, result);
 
 		return future;
 	}
@@ -467,7 +467,7 @@ public class Crypto extends IndyJava.API {
 				encryptedMsg.length,
 				authDecryptCb);
 
-		checkResult(future, result);
+		checkResult(commandHandle, future, result);
 
 		return future;
 	}
@@ -506,7 +506,7 @@ public class Crypto extends IndyJava.API {
 				message.length,
 				anonCryptCb);
 
-		checkResult(future, result);
+		checkResult(commandHandle, future, result);
 
 		return future;
 	}
@@ -551,7 +551,7 @@ public class Crypto extends IndyJava.API {
 				encryptedMsg.length,
 				anonDecryptCb);
 
-		checkResult(future, result);
+		checkResult(commandHandle, future, result);
 
 		return future;
 	}
@@ -595,7 +595,7 @@ public class Crypto extends IndyJava.API {
 				packMessageCb
 			);
 
-		checkResult(future, result);
+		checkResult(commandHandle, future, result);
 
 		return future;
 	}
@@ -644,7 +644,7 @@ public class Crypto extends IndyJava.API {
 				authCrypCb
 			);
 
-		checkResult(future, result);
+		checkResult(commandHandle, future, result);
 
 		return future;
 	}
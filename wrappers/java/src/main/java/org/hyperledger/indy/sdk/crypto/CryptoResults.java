@@ -1,5 +1,8 @@
 package org.hyperledger.indy.sdk.crypto;
 
+import java.util.Arrays;
+import java.util.Objects;
+
 import org.hyperledger.indy.sdk.IndyJava;
 
 /**
@@ -36,6 +39,32 @@ public final class CryptoResults {
 		 * @return The nonce.
 		 */
 		public byte[] getNonce() { return this.nonce; }
+
+		@Override
+		public boolean equals(Object other) {
+
+			if (this == other) return true;
+			if (other == null || getClass() != other.getClass()) return false;
+
+			EncryptResult that = (EncryptResult) other;
+			return Arrays.equals(this.encryptedMessage, that.encryptedMessage) &&
+					Arrays.equals(this.nonce, that.nonce);
+		}
+
+		@Override
+		public int hashCode() {
+
+			int result = Arrays.hashCode(this.encryptedMessage);
+			result = 31 * result + Arrays.hashCode(this.nonce);
+			return result;
+		}
+
+		@Override
+		public String toString() {
+
+			return "CryptoResults.EncryptResult[encryptedMessage=" + Arrays.toString(this.encryptedMessage) +
+					",nonce=" + Arrays.toString(this.nonce) + "]";
+		}
 	}
 
 	/**
@@ -60,5 +89,31 @@ public final class CryptoResults {
 		 * @return The verkey.
 		 */
 		public String getVerkey() { return this.theirVk; }
+
+		@Override
+		public boolean equals(Object other) {
+
+			if (this == other) return true;
+			if (other == null || getClass() != other.getClass()) return false;
+
+			AuthDecryptResult that = (AuthDecryptResult) other;
+			return Objects.equals(this.theirVk, that.theirVk) &&
+					Arrays.equals(this.decryptedMessage, that.decryptedMessage);
+		}
+
+		@Override
+		public int hashCode() {
+
+			int result = Objects.hashCode(this.theirVk);
+			result = 31 * result + Arrays.hashCode(this.decryptedMessage);
+			return result;
+		}
+
+		@Override
+		public String toString() {
+
+			return "CryptoResults.AuthDecryptResult[theirVk=" + this.theirVk +
+					",decryptedMessage=" + Arrays.toString(this.decryptedMessage) + "]";
+		}
 	}
 }
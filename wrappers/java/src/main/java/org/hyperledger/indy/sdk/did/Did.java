@@ -1,16 +1,25 @@
 package org.hyperledger.indy.sdk.did;
 
+import java.util.List;
+import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
 
 import org.hyperledger.indy.sdk.IndyException;
 import org.hyperledger.indy.sdk.IndyJava;
 import org.hyperledger.indy.sdk.LibIndy;
+import org.hyperledger.indy.sdk.ParallelBatch;
 import org.hyperledger.indy.sdk.ParamGuard;
+import org.hyperledger.indy.sdk.json.JsonArrayView;
+import org.hyperledger.indy.sdk.json.JsonObjectView;
 import org.hyperledger.indy.sdk.pool.Pool;
 import org.hyperledger.indy.sdk.did.DidResults.CreateAndStoreMyDidResult;
 import org.hyperledger.indy.sdk.did.DidResults.EndpointForDidResult;
+import org.hyperledger.indy.sdk.did.DidResults.MyDidInfo;
 import org.hyperledger.indy.sdk.wallet.Wallet;
 
+import org.json.JSONException;
+
 import com.sun.jna.Callback;
 
 /**
@@ -190,6 +199,22 @@ public class Did extends IndyJava.API {
 		}
 	};
 
+	/**
+	 * Callback used when tryGetDidWithMeta completes.
+	 */
+	private static Callback tryGetDidWithMetaCb = new Callback() {
+
+		@SuppressWarnings({"unused", "unchecked"})
+		public void callback(int xcommand_handle, int err, String did_with_meta) {
+
+			CompletableFuture<Optional<String>> future = (CompletableFuture<Optional<String>>) removeFuture(xcommand_handle);
+			if (! checkFoundResult(future, err)) return;
+
+			Optional<String> result = Optional.of(did_with_meta);
+			future.complete(result);
+		}
+	};
+
 	/**
 	 * Callback used when getAttrVerkey completes.
 	 */
@@ -222,6 +247,30 @@ public class Did extends IndyJava.API {
 		}
 	};
 
+	/*
+	 * VERKEY CACHES
+	 */
+
+	/**
+	 * Invalidates the verkey cached for the DID once the future completes successfully, before
+	 * callers of the returned future observe the completion.
+	 */
+	private static CompletableFuture<Void> invalidateVerkeyCaches(CompletableFuture<Void> future, final int walletHandle, final String did) {
+
+		if (! VerkeyCache.isActive()) return future;
+
+		return future.thenApply(new Function<Void, Void>() {
+
+			@Override
+			public Void apply(Void result) {
+
+				VerkeyCache.keysChanged(walletHandle, did);
+
+				return result;
+			}
+		});
+	}
+
 	/*
 	 * STATIC METHODS
 	 */
@@ -269,11 +318,64 @@ public class Did extends IndyJava.API {
 				didJson,
 				createAndStoreMyDidCb);
 
-		checkResult(future, result);
+		checkResult(commandHandle, future, result);
 
 		return future;
 	}
 
+	/**
+	 * Creates keys and DIDs for several identities, see {@link #createAndStoreMyDid(Wallet, String)}.
+	 *
+	 * At most parallelism creations are in flight at once; libindy generates the keys on its own
+	 * crypto thread pool. No further identities are created after the first failure.
+	 *
+	 * @param wallet      The wallet.
+	 * @param didJsons    Identity information as json, one per DID to create.
+	 * @param parallelism The maximum number of creations in flight.
+	 * @return A future that resolves to the CreateAndStoreMyDidResults in the order of didJsons.
+	 * @throws IndyException Thrown if an error occurs when calling the underlying SDK.
+	 */
+	public static CompletableFuture<List<CreateAndStoreMyDidResult>> createAndStoreMyDids(
+			Wallet wallet,
+			List<String> didJsons,
+			int parallelism) throws IndyException {
+
+		return createAndStoreMyDids(wallet, didJsons, parallelism, null);
+	}
+
+	/**
+	 * Creates keys and DIDs for several identities, see {@link #createAndStoreMyDid(Wallet, String)},
+	 * and streams every result to the listener as soon as it is stored.
+	 *
+	 * The listener can hand each DID on to the next stage without waiting for the whole batch, for example
+	 * the NYM write pipeline of {@link org.hyperledger.indy.sdk.ledger.Ledger#writeNymPipeline}.
+	 *
+	 * @param wallet      The wallet.
+	 * @param didJsons    Identity information as json, one per DID to create.
+	 * @param parallelism The maximum number of creations in flight.
+	 * @param listener    Optional: receives every result with its position in didJsons, in completion order.
+	 * @return A future that resolves to the CreateAndStoreMyDidResults in the order of didJsons.
+	 * @throws IndyException Thrown if an error occurs when calling the underlying SDK.
+	 */
+	public static CompletableFuture<List<CreateAndStoreMyDidResult>> createAndStoreMyDids(
+			final Wallet wallet,
+			List<String> didJsons,
+			int parallelism,
+			ParallelBatch.Listener<CreateAndStoreMyDidResult> listener) throws IndyException {
+
+		ParamGuard.notNull(wallet, "wallet");
+		ParamGuard.notNull(didJsons, "didJsons");
+
+		return ParallelBatch.run(didJsons, parallelism, new ParallelBatch.Operation<String, CreateAndStoreMyDidResult>() {
+
+			@Override
+			public CompletableFuture<CreateAndStoreMyDidResult> apply(String didJson) throws IndyException {
+
+				return createAndStoreMyDid(wallet, didJson);
+			}
+		}, listener);
+	}
+
 	/**
 	 * Generated new signing and encryption keys for an existing DID owned by the caller.
 	 *
@@ -304,7 +406,7 @@ public class Did extends IndyJava.API {
 				identityJson,
 				replaceKeysStartCb);
 
-		checkResult(future, result);
+		checkResult(commandHandle, future, result);
 
 		return future;
 	}
@@ -335,9 +437,9 @@ public class Did extends IndyJava.API {
 				did,
 				replaceKeysApplyCb);
 
-		checkResult(future, result);
+		checkResult(commandHandle, future, result);
 
-		return future;
+		return invalidateVerkeyCaches(future, walletHandle, did);
 	}
 
 	/**
@@ -374,9 +476,22 @@ public class Did extends IndyJava.API {
 				identityJson,
 				storeTheirDidCb);
 
-		checkResult(future, result);
+		checkResult(commandHandle, future, result);
 
-		return future;
+		if (! VerkeyCache.isActive()) return future;
+
+		String did;
+
+		try {
+
+			did = JsonObjectView.parse(identityJson).optString("did");
+		} catch (JSONException e) {
+
+			// libindy rejects the identity with its own error
+			return future;
+		}
+
+		return did == null ? future : invalidateVerkeyCaches(future, walletHandle, did);
 	}
 
 	/**
@@ -421,7 +536,7 @@ public class Did extends IndyJava.API {
 				did,
 				keyForDidCb);
 
-		checkResult(future, result);
+		checkResult(commandHandle, future, result);
 
 		return future;
 	}
@@ -460,7 +575,7 @@ public class Did extends IndyJava.API {
 				did,
 				keyForLocalDidCb);
 
-		checkResult(future, result);
+		checkResult(commandHandle, future, result);
 
 		return future;
 	}
@@ -499,7 +614,7 @@ public class Did extends IndyJava.API {
 				transportKey,
 				setEndpointForDidCb);
 
-		checkResult(future, result);
+		checkResult(commandHandle, future, result);
 
 		return future;
 	}
@@ -535,7 +650,7 @@ public class Did extends IndyJava.API {
 				did,
 				getEndpointForDidCb);
 
-		checkResult(future, result);
+		checkResult(commandHandle, future, result);
 
 		return future;
 	}
@@ -570,7 +685,7 @@ public class Did extends IndyJava.API {
 				metadata,
 				setDidMetadataCb);
 
-		checkResult(future, result);
+		checkResult(commandHandle, future, result);
 
 		return future;
 	}
@@ -601,7 +716,7 @@ public class Did extends IndyJava.API {
 				did,
 				getDidMetadataCb);
 
-		checkResult(future, result);
+		checkResult(commandHandle, future, result);
 
 		return future;
 	}
@@ -637,7 +752,7 @@ public class Did extends IndyJava.API {
 				did,
 				getDidMetadataCb);
 
-		checkResult(future, result);
+		checkResult(commandHandle, future, result);
 
 		return future;
 	}
@@ -668,11 +783,74 @@ public class Did extends IndyJava.API {
 				walletHandle,
 				getDidMetadataCb);
 
-		checkResult(future, result);
+		checkResult(commandHandle, future, result);
 
 		return future;
 	}
 	
+	/**
+	 * Retrieves the information about the giving DID in the wallet as a lazily parsed view.
+	 *
+	 * @param wallet The wallet.
+	 * @param did    The DID to retrieve metadata.
+	 * @return A future resolving to a view over the did data.
+	 * @throws IndyException Thrown if an error occurs when calling the underlying SDK.
+	 */
+	public static CompletableFuture<MyDidInfo> getDidWithMetaView(
+			Wallet wallet,
+			String did) throws IndyException {
+
+		return getDidWithMeta(wallet, did).thenApply(DidResults.MY_DID);
+	}
+
+	/**
+	 * Retrieves the information about the giving DID in the wallet if it exists. Unlike
+	 * {@link #getDidWithMeta(Wallet, String)}, a DID that is not in the wallet does not fail the future.
+	 *
+	 * @param wallet The wallet.
+	 * @param did    The DID to retrieve metadata.
+	 * @return A future resolving to the did data, see {@link #getDidWithMeta(Wallet, String)}, or to an empty
+	 * Optional if the DID is not in the wallet.
+	 * @throws IndyException Thrown if an error occurs when calling the underlying SDK.
+	 */
+	public static CompletableFuture<Optional<String>> tryGetDidWithMeta(
+			Wallet wallet,
+			String did) throws IndyException {
+
+		ParamGuard.notNull(wallet, "wallet");
+		ParamGuard.notNullOrWhiteSpace(did, "did");
+
+		CompletableFuture<Optional<String>> future = new CompletableFuture<Optional<String>>();
+		int commandHandle = addFuture(future);
+
+		int walletHandle = wallet.getWalletHandle();
+
+		int result = LibIndy.api.indy_get_my_did_with_meta(
+				commandHandle,
+				walletHandle,
+				did,
+				tryGetDidWithMetaCb);
+
+		checkResult(commandHandle, future, result);
+
+		return future;
+	}
+
+	/**
+	 * Retrieves the information about all DIDs stored in the wallet as a lazily parsed view.
+	 *
+	 * Only the structure of the list is indexed; each DID is decoded when it is accessed.
+	 *
+	 * @param wallet The wallet.
+	 * @return A future resolving to a view over the list of dids.
+	 * @throws IndyException Thrown if an error occurs when calling the underlying SDK.
+	 */
+	public static CompletableFuture<JsonArrayView<MyDidInfo>> getListMyDidsWithMetaView(
+			Wallet wallet) throws IndyException {
+
+		return getListMyDidsWithMeta(wallet).thenApply(DidResults.MY_DID_LIST);
+	}
+
 	/**
 	 * Retrieves abbreviated verkey if it is possible otherwise return full verkey.
 	 *
@@ -697,7 +875,7 @@ public class Did extends IndyJava.API {
 				verkey,
 				getAttrVerkeyCb);
 
-		checkResult(future, result);
+		checkResult(commandHandle, future, result);
 
 		return future;
 	}
@@ -735,7 +913,7 @@ public class Did extends IndyJava.API {
 				method,
 				getDidMetadataCb);
 
-		checkResult(future, result);
+		checkResult(commandHandle, future, result);
 
 		return future;
 	}
@@ -1,6 +1,13 @@
 package org.hyperledger.indy.sdk.did;
 
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.function.Function;
+
 import org.hyperledger.indy.sdk.IndyJava;
+import org.hyperledger.indy.sdk.json.JsonArrayView;
+import org.hyperledger.indy.sdk.json.JsonObjectView;
+import org.hyperledger.indy.sdk.json.JsonValue;
 
 /**
  * did.rs results
@@ -35,6 +42,32 @@ public final class DidResults {
 		 * @return The verification key.
 		 */
 		public String getVerkey() { return this.verkey; }
+
+		@Override
+		public boolean equals(Object other) {
+
+			if (this == other) return true;
+			if (other == null || getClass() != other.getClass()) return false;
+
+			CreateAndStoreMyDidResult that = (CreateAndStoreMyDidResult) other;
+			return Objects.equals(this.did, that.did) &&
+					Objects.equals(this.verkey, that.verkey);
+		}
+
+		@Override
+		public int hashCode() {
+
+			int result = Objects.hashCode(this.did);
+			result = 31 * result + Objects.hashCode(this.verkey);
+			return result;
+		}
+
+		@Override
+		public String toString() {
+
+			return "DidResults.CreateAndStoreMyDidResult[did=" + this.did +
+					",verkey=" + this.verkey + "]";
+		}
 	}
 
 	/**
@@ -58,6 +91,32 @@ public final class DidResults {
 		 * @return The nonce.
 		 */
 		public byte[] getNonce() { return this.nonce; }
+
+		@Override
+		public boolean equals(Object other) {
+
+			if (this == other) return true;
+			if (other == null || getClass() != other.getClass()) return false;
+
+			EncryptResult that = (EncryptResult) other;
+			return Arrays.equals(this.encryptedMessage, that.encryptedMessage) &&
+					Arrays.equals(this.nonce, that.nonce);
+		}
+
+		@Override
+		public int hashCode() {
+
+			int result = Arrays.hashCode(this.encryptedMessage);
+			result = 31 * result + Arrays.hashCode(this.nonce);
+			return result;
+		}
+
+		@Override
+		public String toString() {
+
+			return "DidResults.EncryptResult[encryptedMessage=" + Arrays.toString(this.encryptedMessage) +
+					",nonce=" + Arrays.toString(this.nonce) + "]";
+		}
 	}
 
 	/**
@@ -81,5 +140,98 @@ public final class DidResults {
 		 * @return The transport key.
 		 */
 		public String getTransportKey() { return this.transportKey; }
+
+		@Override
+		public boolean equals(Object other) {
+
+			if (this == other) return true;
+			if (other == null || getClass() != other.getClass()) return false;
+
+			EndpointForDidResult that = (EndpointForDidResult) other;
+			return Objects.equals(this.address, that.address) &&
+					Objects.equals(this.transportKey, that.transportKey);
+		}
+
+		@Override
+		public int hashCode() {
+
+			int result = Objects.hashCode(this.address);
+			result = 31 * result + Objects.hashCode(this.transportKey);
+			return result;
+		}
+
+		@Override
+		public String toString() {
+
+			return "DidResults.EndpointForDidResult[address=" + this.address +
+					",transportKey=" + this.transportKey + "]";
+		}
+	}
+
+	/**
+	 * Lazy view of a DID returned by getDidWithMeta or getListMyDidsWithMeta.
+	 */
+	public static class MyDidInfo extends JsonObjectView {
+
+		MyDidInfo(JsonObjectView view) { super(view); }
+
+		/**
+		 * Gets the DID.
+		 *
+		 * @return The DID.
+		 */
+		public String getDid() { return getString("did"); }
+
+		/**
+		 * Gets the verification key.
+		 *
+		 * @return The verification key.
+		 */
+		public String getVerkey() { return getString("verkey"); }
+
+		/**
+		 * Gets the temporary verification key of a key rotation in progress.
+		 *
+		 * @return The temporary verification key, or null if absent.
+		 */
+		public String getTempVerkey() { return optString("tempVerkey"); }
+
+		/**
+		 * Gets the metadata stored with the DID.
+		 *
+		 * @return The metadata, or null if absent.
+		 */
+		public String getMetadata() { return optString("metadata"); }
 	}
+
+	/*
+	 * PARSERS
+	 */
+
+	private static final JsonArrayView.Mapper<MyDidInfo> MY_DID_ELEMENT = new JsonArrayView.Mapper<MyDidInfo>() {
+
+		@Override
+		public MyDidInfo map(JsonValue value) {
+
+			return new MyDidInfo(value.asObject());
+		}
+	};
+
+	static final Function<String, JsonArrayView<MyDidInfo>> MY_DID_LIST = new Function<String, JsonArrayView<MyDidInfo>>() {
+
+		@Override
+		public JsonArrayView<MyDidInfo> apply(String json) {
+
+			return JsonArrayView.parse(json, MY_DID_ELEMENT);
+		}
+	};
+
+	static final Function<String, MyDidInfo> MY_DID = new Function<String, MyDidInfo>() {
+
+		@Override
+		public MyDidInfo apply(String json) {
+
+			return new MyDidInfo(JsonObjectView.parse(json));
+		}
+	};
 }
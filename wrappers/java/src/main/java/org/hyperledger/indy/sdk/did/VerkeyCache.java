@@ -0,0 +1,437 @@
+package org.hyperledger.indy.sdk.did;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+import org.hyperledger.indy.sdk.IndyException;
+import org.hyperledger.indy.sdk.IndyJava;
+import org.hyperledger.indy.sdk.ParamGuard;
+import org.hyperledger.indy.sdk.pool.LedgerNotFoundException;
+import org.hyperledger.indy.sdk.pool.Pool;
+import org.hyperledger.indy.sdk.wallet.Wallet;
+import org.hyperledger.indy.sdk.wallet.WalletItemNotFoundException;
+
+/**
+ * Caches the verkeys resolved by {@link Did#keyForDid(Pool, Wallet, String)} or
+ * {@link Did#keyForLocalDid(Wallet, String)} for a wallet.
+ *
+ * Resolved verkeys are kept for a configurable time to live. DIDs that could not be found
+ * are remembered for a separate, usually shorter, time to live. Concurrent resolutions of the
+ * same DID share a single SDK call. Entries are invalidated when {@link Did#replaceKeysApply(Wallet, String)}
+ * or {@link Did#storeTheirDid(Wallet, String)} completes for the same wallet in this process.
+ */
+public class VerkeyCache {
+
+	private static final Set<VerkeyCache> caches = Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<VerkeyCache, Boolean>()));
+
+	private final Pool pool;
+	private final Wallet wallet;
+	private final long ttlNanos;
+	private final long negativeTtlNanos;
+
+	private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<String, Entry>();
+	private final ConcurrentHashMap<String, CompletableFuture<String>> loading = new ConcurrentHashMap<String, CompletableFuture<String>>();
+
+	private final AtomicLong hitCount = new AtomicLong();
+	private final AtomicLong negativeHitCount = new AtomicLong();
+	private final AtomicLong missCount = new AtomicLong();
+	private final AtomicLong loadFailureCount = new AtomicLong();
+	private final AtomicLong invalidationCount = new AtomicLong();
+
+	/**
+	 * Initializes a new cache resolving verkeys with keyForDid, going to the ledger when needed.
+	 *
+	 * @param pool        The pool, or null to resolve with keyForLocalDid only.
+	 * @param wallet      The wallet.
+	 * @param ttl         How long a resolved verkey is kept.
+	 * @param negativeTtl How long a DID that could not be found is remembered. 0 disables negative caching.
+	 * @param unit        The unit of ttl and negativeTtl.
+	 */
+	public VerkeyCache(Pool pool, Wallet wallet, long ttl, long negativeTtl, TimeUnit unit) {
+
+		ParamGuard.notNull(wallet, "wallet");
+		ParamGuard.notNull(unit, "unit");
+		if (ttl <= 0) throw new IllegalArgumentException("A positive value must be provided for the 'ttl' parameter.");
+		if (negativeTtl < 0) throw new IllegalArgumentException("A non-negative value must be provided for the 'negativeTtl' parameter.");
+
+		this.pool = pool;
+		this.wallet = wallet;
+		this.ttlNanos = unit.toNanos(ttl);
+		this.negativeTtlNanos = unit.toNanos(negativeTtl);
+
+		caches.add(this);
+	}
+
+	/**
+	 * Initializes a new cache resolving verkeys with keyForLocalDid.
+	 *
+	 * @param wallet      The wallet.
+	 * @param ttl         How long a resolved verkey is kept.
+	 * @param negativeTtl How long a DID that could not be found is remembered. 0 disables negative caching.
+	 * @param unit        The unit of ttl and negativeTtl.
+	 */
+	public VerkeyCache(Wallet wallet, long ttl, long negativeTtl, TimeUnit unit) {
+
+		this(null, wallet, ttl, negativeTtl, unit);
+	}
+
+	/**
+	 * A cached verkey, or the error of a DID that could not be found. Every hit gets a copy of the
+	 * error, see {@link IndyException#copyOf(IndyException)}, so callers never share an instance.
+	 */
+	private static final class Entry {
+
+		private final String verkey;
+		private final IndyException error;
+		private final long expiresAt;
+
+		private Entry(String verkey, IndyException error, long expiresAt) {
+
+			this.verkey = verkey;
+			this.error = error;
+			this.expiresAt = expiresAt;
+		}
+
+		private boolean isExpired(long now) {
+
+			return now - this.expiresAt >= 0;
+		}
+	}
+
+	/**
+	 * Cache statistics.
+	 */
+	public static final class Stats extends IndyJava.Result {
+
+		private final long hitCount, negativeHitCount, missCount, loadFailureCount, invalidationCount;
+		private final int size;
+
+		Stats(long hitCount, long negativeHitCount, long missCount, long loadFailureCount, long invalidationCount, int size) {
+			this.hitCount = hitCount;
+			this.negativeHitCount = negativeHitCount;
+			this.missCount = missCount;
+			this.loadFailureCount = loadFailureCount;
+			this.invalidationCount = invalidationCount;
+			this.size = size;
+		}
+
+		/**
+		 * Gets the number of resolutions answered with a cached verkey.
+		 *
+		 * @return The hit count.
+		 */
+		public long getHitCount() { return this.hitCount; }
+
+		/**
+		 * Gets the number of resolutions answered with a cached not-found error.
+		 *
+		 * @return The negative hit count.
+		 */
+		public long getNegativeHitCount() { return this.negativeHitCount; }
+
+		/**
+		 * Gets the number of resolutions that needed an SDK call or joined one in flight.
+		 *
+		 * @return The miss count.
+		 */
+		public long getMissCount() { return this.missCount; }
+
+		/**
+		 * Gets the number of SDK calls that failed with an error other than not-found.
+		 *
+		 * @return The load failure count.
+		 */
+		public long getLoadFailureCount() { return this.loadFailureCount; }
+
+		/**
+		 * Gets the number of invalidated entries.
+		 *
+		 * @return The invalidation count.
+		 */
+		public long getInvalidationCount() { return this.invalidationCount; }
+
+		/**
+		 * Gets the number of entries currently held, including expired ones not yet purged.
+		 *
+		 * @return The size.
+		 */
+		public int getSize() { return this.size; }
+
+		@Override
+		public boolean equals(Object other) {
+
+			if (this == other) return true;
+			if (other == null || getClass() != other.getClass()) return false;
+
+			Stats that = (Stats) other;
+			return this.hitCount == that.hitCount &&
+					this.negativeHitCount == that.negativeHitCount &&
+					this.missCount == that.missCount &&
+					this.loadFailureCount == that.loadFailureCount &&
+					this.invalidationCount == that.invalidationCount &&
+					this.size == that.size;
+		}
+
+		@Override
+		public int hashCode() {
+
+			int result = Long.hashCode(this.hitCount);
+			result = 31 * result + Long.hashCode(this.negativeHitCount);
+			result = 31 * result + Long.hashCode(this.missCount);
+			result = 31 * result + Long.hashCode(this.loadFailureCount);
+			result = 31 * result + Long.hashCode(this.invalidationCount);
+			result = 31 * result + this.size;
+			return result;
+		}
+
+		@Override
+		public String toString() {
+
+			return "VerkeyCache.Stats[hitCount=" + this.hitCount +
+					",negativeHitCount=" + this.negativeHitCount +
+					",missCount=" + this.missCount +
+					",loadFailureCount=" + this.loadFailureCount +
+					",invalidationCount=" + this.invalidationCount +
+					",size=" + this.size + "]";
+		}
+	}
+
+	/*
+	 * INSTANCE METHODS
+	 */
+
+	/**
+	 * Resolves the verkey for a DID, calling the SDK only if no fresh entry is cached.
+	 *
+	 * @param did The DID to resolve key.
+	 * @return A future resolving to a verkey
+	 * @throws IndyException Thrown if an error occurs when calling the underlying SDK.
+	 */
+	public CompletableFuture<String> resolve(final String did) throws IndyException {
+
+		ParamGuard.notNullOrWhiteSpace(did, "did");
+
+		Entry entry = this.entries.get(did);
+
+		if (entry != null && ! entry.isExpired(System.nanoTime())) {
+
+			if (entry.verkey != null) {
+
+				this.hitCount.incrementAndGet();
+				return CompletableFuture.completedFuture(entry.verkey);
+			}
+
+			this.negativeHitCount.incrementAndGet();
+			CompletableFuture<String> failed = new CompletableFuture<String>();
+			failed.completeExceptionally(IndyException.copyOf(entry.error));
+			return failed;
+		}
+
+		this.missCount.incrementAndGet();
+
+		CompletableFuture<String> pending = this.loading.get(did);
+		if (pending != null) return pending;
+
+		final CompletableFuture<String> future = new CompletableFuture<String>();
+		pending = this.loading.putIfAbsent(did, future);
+		if (pending != null) return pending;
+
+		CompletableFuture<String> load;
+
+		try {
+
+			load = this.pool != null ? Did.keyForDid(this.pool, this.wallet, did) : Did.keyForLocalDid(this.wallet, did);
+		} catch (IndyException | RuntimeException e) {
+
+			this.loading.remove(did, future);
+			future.completeExceptionally(e);
+			throw e;
+		}
+
+		load.whenComplete(new BiConsumer<String, Throwable>() {
+
+			@Override
+			public void accept(String verkey, Throwable e) {
+
+				Throwable cause = e instanceof CompletionException ? e.getCause() : e;
+
+				// an invalidation while the call was in flight removes the pending future; don't store then
+				boolean current = VerkeyCache.this.loading.remove(did, future);
+
+				if (cause == null) {
+
+					if (current) VerkeyCache.this.entries.put(did, new Entry(verkey, null, System.nanoTime() + VerkeyCache.this.ttlNanos));
+					future.complete(verkey);
+				} else {
+
+					if (isNotFound(cause) && VerkeyCache.this.negativeTtlNanos > 0) {
+
+						if (current) VerkeyCache.this.entries.put(did, new Entry(null, (IndyException) cause, System.nanoTime() + VerkeyCache.this.negativeTtlNanos));
+					} else if (! isNotFound(cause)) {
+
+						VerkeyCache.this.loadFailureCount.incrementAndGet();
+					}
+
+					future.completeExceptionally(cause);
+				}
+			}
+		});
+
+		return future;
+	}
+
+	/**
+	 * Resolves the verkeys for several DIDs. SDK calls for the DIDs that are not cached are issued concurrently.
+	 *
+	 * @param dids The DIDs to resolve.
+	 * @return A future resolving to the verkeys keyed by DID. DIDs that could not be found are omitted.
+	 * @throws IndyException Thrown if an error occurs when calling the underlying SDK.
+	 */
+	public CompletableFuture<Map<String, String>> resolveAll(Collection<String> dids) throws IndyException {
+
+		ParamGuard.notNull(dids, "dids");
+
+		final Map<String, CompletableFuture<String>> futures = new HashMap<String, CompletableFuture<String>>(dids.size() * 2);
+		for (String did : dids) {
+
+			if (! futures.containsKey(did)) futures.put(did, resolve(did));
+		}
+
+		// wait for every resolution, tolerating the not-found ones
+		CompletableFuture<?>[] settled = new CompletableFuture<?>[futures.size()];
+		int i = 0;
+		for (CompletableFuture<String> future : futures.values()) {
+
+			settled[i++] = future.handle(new BiFunction<String, Throwable, Void>() {
+
+				@Override
+				public Void apply(String verkey, Throwable e) {
+
+					Throwable cause = e instanceof CompletionException ? e.getCause() : e;
+					if (cause != null && ! isNotFound(cause)) throw new CompletionException(cause);
+
+					return null;
+				}
+			});
+		}
+
+		return CompletableFuture.allOf(settled).thenApply(new Function<Void, Map<String, String>>() {
+
+			@Override
+			public Map<String, String> apply(Void ignored) {
+
+				Map<String, String> verkeys = new HashMap<String, String>(futures.size() * 2);
+
+				for (Map.Entry<String, CompletableFuture<String>> entry : futures.entrySet()) {
+
+					if (! entry.getValue().isCompletedExceptionally()) verkeys.put(entry.getKey(), entry.getValue().join());
+				}
+
+				return verkeys;
+			}
+		});
+	}
+
+	/**
+	 * Removes the entry of a DID. A resolution in flight for the DID will not be cached.
+	 *
+	 * @param did The DID.
+	 */
+	public void invalidate(String did) {
+
+		ParamGuard.notNull(did, "did");
+
+		this.loading.remove(did);
+		if (this.entries.remove(did) != null) this.invalidationCount.incrementAndGet();
+	}
+
+	/**
+	 * Removes all entries.
+	 */
+	public void invalidateAll() {
+
+		this.loading.clear();
+		this.invalidationCount.addAndGet(this.entries.size());
+		this.entries.clear();
+	}
+
+	/**
+	 * Removes the entries whose time to live has elapsed.
+	 */
+	public void purgeExpired() {
+
+		long now = System.nanoTime();
+
+		for (Iterator<Entry> iterator = this.entries.values().iterator(); iterator.hasNext(); ) {
+
+			if (iterator.next().isExpired(now)) iterator.remove();
+		}
+	}
+
+	/**
+	 * Gets a snapshot of the cache statistics.
+	 *
+	 * @return The statistics.
+	 */
+	public Stats getStats() {
+
+		return new Stats(
+				this.hitCount.get(),
+				this.negativeHitCount.get(),
+				this.missCount.get(),
+				this.loadFailureCount.get(),
+				this.invalidationCount.get(),
+				this.entries.size());
+	}
+
+	/**
+	 * Stops the cache from receiving invalidations from {@link Did}.
+	 */
+	public void close() {
+
+		caches.remove(this);
+		invalidateAll();
+	}
+
+	/*
+	 * INVALIDATION FROM DID
+	 */
+
+	static boolean isActive() {
+
+		return ! caches.isEmpty();
+	}
+
+	static void keysChanged(int walletHandle, String did) {
+
+		VerkeyCache[] snapshot;
+
+		synchronized (caches) {
+
+			snapshot = caches.toArray(new VerkeyCache[caches.size()]);
+		}
+
+		for (VerkeyCache cache : snapshot) {
+
+			if (cache.wallet.getWalletHandle() == walletHandle) cache.invalidate(did);
+		}
+	}
+
+	private static boolean isNotFound(Throwable e) {
+
+		return e instanceof WalletItemNotFoundException || e instanceof LedgerNotFoundException;
+	}
+}
@@ -0,0 +1,177 @@
+package org.hyperledger.indy.sdk.json;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Lazy view over a JSON array in a {@link JsonIndex}.
+ *
+ * Iteration walks the index without materializing the elements up front; each element is
+ * mapped only when it is reached. Random access builds a table of element offsets on first use.
+ *
+ * A view can be shared between threads. The element count and offset table are computed lazily
+ * and published through volatile fields; threads racing on first use compute the same values.
+ *
+ * @param <T> The element type.
+ */
+public final class JsonArrayView<T> implements Iterable<T> {
+
+	/**
+	 * Maps an array element to its typed view.
+	 *
+	 * @param <T> The element type.
+	 */
+	public interface Mapper<T> {
+
+		T map(JsonValue value);
+	}
+
+	static final Mapper<JsonValue> VALUES = new Mapper<JsonValue>() {
+
+		@Override
+		public JsonValue map(JsonValue value) {
+
+			return value;
+		}
+	};
+
+	private final JsonIndex index;
+	private final int token;
+	private final Mapper<T> mapper;
+
+	private volatile int size = -1;
+	private volatile int[] elements;
+
+	JsonArrayView(JsonIndex index, int token, Mapper<T> mapper) {
+
+		this.index = index;
+		this.token = token;
+		this.mapper = mapper;
+	}
+
+	/**
+	 * Parses the provided JSON array and maps its elements on access.
+	 *
+	 * @param json   The JSON array.
+	 * @param mapper Maps each element when it is accessed.
+	 * @param <T>    The element type.
+	 * @return The array view.
+	 */
+	public static <T> JsonArrayView<T> parse(String json, Mapper<T> mapper) {
+
+		return JsonIndex.parse(json).root().asArray(mapper);
+	}
+
+	/**
+	 * Gets the number of elements. Elements are counted by skipping over them in the index.
+	 *
+	 * @return The number of elements.
+	 */
+	public int size() {
+
+		int size = this.size;
+		if (size < 0) {
+
+			size = 0;
+			int end = this.index.next(this.token);
+
+			for (int element = this.token + 1; element < end; element = this.index.next(element)) size++;
+
+			this.size = size;
+		}
+
+		return size;
+	}
+
+	/**
+	 * Indicates whether or not the array is empty.
+	 *
+	 * @return true if the array has no elements, otherwise false.
+	 */
+	public boolean isEmpty() {
+
+		return this.index.next(this.token) == this.token + 1;
+	}
+
+	/**
+	 * Gets the element at the specified position.
+	 *
+	 * @param position The element position.
+	 * @return The mapped element.
+	 */
+	public T get(int position) {
+
+		int[] elements = this.elements;
+		if (elements == null) {
+
+			elements = new int[size()];
+			int element = this.token + 1;
+
+			for (int i = 0; i < elements.length; i++) {
+
+				elements[i] = element;
+				element = this.index.next(element);
+			}
+
+			this.elements = elements;
+		}
+
+		if (position < 0 || position >= elements.length) throw new IndexOutOfBoundsException("Index: " + position + ", Size: " + elements.length);
+
+		return this.mapper.map(new JsonValue(this.index, elements[position]));
+	}
+
+	@Override
+	public Iterator<T> iterator() {
+
+		final int end = this.index.next(this.token);
+
+		return new Iterator<T>() {
+
+			private int element = JsonArrayView.this.token + 1;
+
+			@Override
+			public boolean hasNext() {
+
+				return this.element < end;
+			}
+
+			@Override
+			public T next() {
+
+				if (! hasNext()) throw new NoSuchElementException();
+
+				int current = this.element;
+				this.element = JsonArrayView.this.index.next(current);
+
+				return JsonArrayView.this.mapper.map(new JsonValue(JsonArrayView.this.index, current));
+			}
+
+			@Override
+			public void remove() {
+
+				throw new UnsupportedOperationException();
+			}
+		};
+	}
+
+	/**
+	 * Gets the JSON text of the array as it appears in the source document.
+	 *
+	 * @return The JSON text.
+	 */
+	public String toJson() {
+
+		return this.index.raw(this.token);
+	}
+
+	/*
+	 * OBJECT METHODS
+	 */
+
+	@Override
+	public String toString() {
+
+		return this.toJson();
+	}
+}
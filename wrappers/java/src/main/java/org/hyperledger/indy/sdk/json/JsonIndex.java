@@ -0,0 +1,366 @@
+package org.hyperledger.indy.sdk.json;
+
+import java.util.Arrays;
+
+import org.json.JSONException;
+
+/**
+ * Index-overlay over a JSON document returned by libindy.
+ *
+ * The document is scanned once and only the position, type and extent of every value is recorded
+ * in flat primitive arrays. Nothing is decoded until a value is actually requested through
+ * {@link JsonValue}, {@link JsonObjectView} or {@link JsonArrayView}.
+ */
+public final class JsonIndex {
+
+	static final byte OBJECT = 1;
+	static final byte ARRAY = 2;
+	static final byte STRING = 3;
+	static final byte NUMBER = 4;
+	static final byte TRUE = 5;
+	static final byte FALSE = 6;
+	static final byte NULL = 7;
+
+	private static final byte ESCAPED = (byte) 0x80;
+	private static final byte TYPE_MASK = 0x7F;
+
+	private static final int INITIAL_CAPACITY = 16;
+
+	private final String source;
+
+	private byte[] types;
+	private int[] starts;
+	private int[] ends;
+	private int[] next;
+	private int count;
+
+	private JsonIndex(String source) {
+
+		this.source = source;
+
+		int capacity = Math.max(INITIAL_CAPACITY, source.length() / 8);
+		this.types = new byte[capacity];
+		this.starts = new int[capacity];
+		this.ends = new int[capacity];
+		this.next = new int[capacity];
+	}
+
+	/**
+	 * Builds the index for the provided JSON document.
+	 *
+	 * @param json The JSON document.
+	 * @return The index over the document.
+	 * @throws JSONException Thrown if the document is not valid JSON.
+	 */
+	public static JsonIndex parse(String json) {
+
+		if (json == null) throw new JSONException("A JSON document must be provided.");
+
+		JsonIndex index = new JsonIndex(json);
+		int pos = index.skipWhitespace(index.parseValue(0));
+		if (pos != json.length()) throw index.syntaxError("Unexpected trailing characters", pos);
+
+		return index;
+	}
+
+	/**
+	 * Gets the root value of the document.
+	 *
+	 * @return The root value.
+	 */
+	public JsonValue root() {
+
+		return new JsonValue(this, 0);
+	}
+
+	/**
+	 * Gets the original JSON document.
+	 *
+	 * @return The JSON document.
+	 */
+	public String getSource() {
+
+		return this.source;
+	}
+
+	/*
+	 * TOKEN ACCESS
+	 */
+
+	byte type(int token) {
+
+		return (byte) (this.types[token] & TYPE_MASK);
+	}
+
+	int next(int token) {
+
+		return this.next[token];
+	}
+
+	String raw(int token) {
+
+		return this.source.substring(this.starts[token], this.ends[token]);
+	}
+
+	String string(int token) {
+
+		int start = this.starts[token] + 1;
+		int end = this.ends[token] - 1;
+
+		if ((this.types[token] & ESCAPED) == 0) return this.source.substring(start, end);
+
+		return unescape(start, end);
+	}
+
+	boolean stringEquals(int token, String value) {
+
+		if ((this.types[token] & ESCAPED) != 0) return string(token).equals(value);
+
+		int start = this.starts[token] + 1;
+		int length = this.ends[token] - 1 - start;
+
+		return length == value.length() && this.source.regionMatches(start, value, 0, length);
+	}
+
+	int find(int objectToken, String name) {
+
+		int end = this.next[objectToken];
+
+		for (int key = objectToken + 1; key < end; key = this.next[key + 1]) {
+
+			if (stringEquals(key, name)) return key + 1;
+		}
+
+		return -1;
+	}
+
+	/*
+	 * PARSING
+	 */
+
+	private int add(byte type, int start) {
+
+		if (this.count == this.types.length) {
+
+			int capacity = this.count * 2;
+			this.types = Arrays.copyOf(this.types, capacity);
+			this.starts = Arrays.copyOf(this.starts, capacity);
+			this.ends = Arrays.copyOf(this.ends, capacity);
+			this.next = Arrays.copyOf(this.next, capacity);
+		}
+
+		int token = this.count++;
+		this.types[token] = type;
+		this.starts[token] = start;
+
+		return token;
+	}
+
+	private void close(int token, int end) {
+
+		this.ends[token] = end;
+		this.next[token] = this.count;
+	}
+
+	private int parseValue(int pos) {
+
+		pos = skipWhitespace(pos);
+		if (pos >= this.source.length()) throw syntaxError("Unexpected end of document", pos);
+
+		char c = this.source.charAt(pos);
+
+		switch (c) {
+			case '{':
+				return parseObject(pos);
+			case '[':
+				return parseArray(pos);
+			case '"':
+				return parseString(pos);
+			case 't':
+				return parseLiteral(pos, "true", TRUE);
+			case 'f':
+				return parseLiteral(pos, "false", FALSE);
+			case 'n':
+				return parseLiteral(pos, "null", NULL);
+			default:
+				if (c == '-' || (c >= '0' && c <= '9')) return parseNumber(pos);
+				throw syntaxError("Unexpected character '" + c + "'", pos);
+		}
+	}
+
+	private int parseObject(int pos) {
+
+		int token = add(OBJECT, pos);
+		pos = skipWhitespace(pos + 1);
+
+		if (peek(pos) == '}') {
+
+			close(token, pos + 1);
+			return pos + 1;
+		}
+
+		while (true) {
+
+			pos = skipWhitespace(pos);
+			if (peek(pos) != '"') throw syntaxError("Expected an object key", pos);
+
+			pos = skipWhitespace(parseString(pos));
+			if (peek(pos) != ':') throw syntaxError("Expected ':'", pos);
+
+			pos = skipWhitespace(parseValue(pos + 1));
+			char c = peek(pos);
+
+			if (c == ',') {
+
+				pos++;
+			} else if (c == '}') {
+
+				close(token, pos + 1);
+				return pos + 1;
+			} else {
+
+				throw syntaxError("Expected ',' or '}'", pos);
+			}
+		}
+	}
+
+	private int parseArray(int pos) {
+
+		int token = add(ARRAY, pos);
+		pos = skipWhitespace(pos + 1);
+
+		if (peek(pos) == ']') {
+
+			close(token, pos + 1);
+			return pos + 1;
+		}
+
+		while (true) {
+
+			pos = skipWhitespace(parseValue(pos));
+			char c = peek(pos);
+
+			if (c == ',') {
+
+				pos++;
+			} else if (c == ']') {
+
+				close(token, pos + 1);
+				return pos + 1;
+			} else {
+
+				throw syntaxError("Expected ',' or ']'", pos);
+			}
+		}
+	}
+
+	private int parseString(int pos) {
+
+		int token = add(STRING, pos);
+		int length = this.source.length();
+
+		for (int i = pos + 1; i < length; i++) {
+
+			char c = this.source.charAt(i);
+
+			if (c == '\\') {
+
+				this.types[token] |= ESCAPED;
+				i++;
+			} else if (c == '"') {
+
+				close(token, i + 1);
+				return i + 1;
+			}
+		}
+
+		throw syntaxError("Unterminated string", pos);
+	}
+
+	private int parseLiteral(int pos, String literal, byte type) {
+
+		if (! this.source.startsWith(literal, pos)) throw syntaxError("Expected '" + literal + "'", pos);
+
+		int token = add(type, pos);
+		close(token, pos + literal.length());
+
+		return pos + literal.length();
+	}
+
+	private int parseNumber(int pos) {
+
+		int token = add(NUMBER, pos);
+		int length = this.source.length();
+		int i = pos;
+
+		while (i < length) {
+
+			char c = this.source.charAt(i);
+			if ((c >= '0' && c <= '9') || c == '-' || c == '+' || c == '.' || c == 'e' || c == 'E') i++;
+			else break;
+		}
+
+		close(token, i);
+
+		return i;
+	}
+
+	private int skipWhitespace(int pos) {
+
+		int length = this.source.length();
+
+		while (pos < length) {
+
+			char c = this.source.charAt(pos);
+			if (c != ' ' && c != '\n' && c != '\r' && c != '\t') break;
+			pos++;
+		}
+
+		return pos;
+	}
+
+	private char peek(int pos) {
+
+		if (pos >= this.source.length()) throw syntaxError("Unexpected end of document", pos);
+
+		return this.source.charAt(pos);
+	}
+
+	private String unescape(int start, int end) {
+
+		StringBuilder builder = new StringBuilder(end - start);
+
+		for (int i = start; i < end; i++) {
+
+			char c = this.source.charAt(i);
+
+			if (c != '\\') {
+
+				builder.append(c);
+				continue;
+			}
+
+			char escaped = this.source.charAt(++i);
+
+			switch (escaped) {
+				case 'b': builder.append('\b'); break;
+				case 'f': builder.append('\f'); break;
+				case 'n': builder.append('\n'); break;
+				case 'r': builder.append('\r'); break;
+				case 't': builder.append('\t'); break;
+				case 'u':
+					builder.append((char) Integer.parseInt(this.source.substring(i + 1, i + 5), 16));
+					i += 4;
+					break;
+				default: builder.append(escaped); break;
+			}
+		}
+
+		return builder.toString();
+	}
+
+	private JSONException syntaxError(String message, int pos) {
+
+		return new JSONException(message + " at position " + pos + ".");
+	}
+}
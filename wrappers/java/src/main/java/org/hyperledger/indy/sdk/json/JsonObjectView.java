@@ -0,0 +1,185 @@
+package org.hyperledger.indy.sdk.json;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.json.JSONException;
+
+/**
+ * Lazy view over a JSON object in a {@link JsonIndex}. Field lookups scan the indexed keys
+ * in place and only decode the value that was asked for.
+ *
+ * Typed result views extend this class and expose the fields of a known libindy document.
+ */
+public class JsonObjectView {
+
+	private final JsonIndex index;
+	private final int token;
+
+	JsonObjectView(JsonIndex index, int token) {
+
+		this.index = index;
+		this.token = token;
+	}
+
+	/**
+	 * Initializes a view over the same object as the provided view.
+	 *
+	 * @param view The view to share the underlying object with.
+	 */
+	protected JsonObjectView(JsonObjectView view) {
+
+		this(view.index, view.token);
+	}
+
+	/**
+	 * Parses the provided JSON document and views it as an object.
+	 *
+	 * @param json The JSON document.
+	 * @return The object view.
+	 */
+	public static JsonObjectView parse(String json) {
+
+		return JsonIndex.parse(json).root().asObject();
+	}
+
+	/**
+	 * Indicates whether or not the object contains a field with the specified name.
+	 *
+	 * @param name The field name.
+	 * @return true if the field is present, otherwise false.
+	 */
+	public boolean has(String name) {
+
+		return this.index.find(this.token, name) >= 0;
+	}
+
+	/**
+	 * Gets the value of a field.
+	 *
+	 * @param name The field name.
+	 * @return The value, or null if the field is not present.
+	 */
+	public JsonValue get(String name) {
+
+		int value = this.index.find(this.token, name);
+
+		return value < 0 ? null : new JsonValue(this.index, value);
+	}
+
+	/**
+	 * Gets the string value of a required field.
+	 *
+	 * @param name The field name.
+	 * @return The decoded string.
+	 */
+	public String getString(String name) {
+
+		return require(name).asString();
+	}
+
+	/**
+	 * Gets the string value of an optional field.
+	 *
+	 * @param name The field name.
+	 * @return The decoded string, or null if the field is absent or null.
+	 */
+	public String optString(String name) {
+
+		JsonValue value = get(name);
+
+		return value == null ? null : value.asString();
+	}
+
+	/**
+	 * Gets the numeric value of a required field.
+	 *
+	 * @param name The field name.
+	 * @return The decoded number.
+	 */
+	public long getLong(String name) {
+
+		return require(name).asLong();
+	}
+
+	/**
+	 * Gets a required field as an object view.
+	 *
+	 * @param name The field name.
+	 * @return The object view.
+	 */
+	public JsonObjectView getObject(String name) {
+
+		return require(name).asObject();
+	}
+
+	/**
+	 * Gets an optional field as an object view.
+	 *
+	 * @param name The field name.
+	 * @return The object view, or null if the field is absent or null.
+	 */
+	public JsonObjectView optObject(String name) {
+
+		JsonValue value = get(name);
+
+		return value == null || value.isNull() ? null : value.asObject();
+	}
+
+	/**
+	 * Gets a required field as an array view.
+	 *
+	 * @param name The field name.
+	 * @return The array view.
+	 */
+	public JsonArrayView<JsonValue> getArray(String name) {
+
+		return require(name).asArray();
+	}
+
+	/**
+	 * Gets the names of all fields of the object. Only the keys are decoded.
+	 *
+	 * @return The field names in document order.
+	 */
+	public List<String> keys() {
+
+		List<String> keys = new ArrayList<String>();
+		int end = this.index.next(this.token);
+
+		for (int key = this.token + 1; key < end; key = this.index.next(key + 1)) {
+
+			keys.add(this.index.string(key));
+		}
+
+		return keys;
+	}
+
+	/**
+	 * Gets the JSON text of the object as it appears in the source document.
+	 *
+	 * @return The JSON text.
+	 */
+	public String toJson() {
+
+		return this.index.raw(this.token);
+	}
+
+	private JsonValue require(String name) {
+
+		JsonValue value = get(name);
+		if (value == null) throw new JSONException("JSONObject[\"" + name + "\"] not found.");
+
+		return value;
+	}
+
+	/*
+	 * OBJECT METHODS
+	 */
+
+	@Override
+	public String toString() {
+
+		return this.toJson();
+	}
+}
@@ -0,0 +1,171 @@
+package org.hyperledger.indy.sdk.json;
+
+import org.json.JSONException;
+
+/**
+ * A single value inside a {@link JsonIndex}. The value is only decoded when one of the
+ * accessor methods is called.
+ */
+public final class JsonValue {
+
+	private final JsonIndex index;
+	private final int token;
+
+	JsonValue(JsonIndex index, int token) {
+
+		this.index = index;
+		this.token = token;
+	}
+
+	/**
+	 * Indicates whether or not the value is a JSON object.
+	 *
+	 * @return true if the value is an object, otherwise false.
+	 */
+	public boolean isObject() {
+
+		return this.index.type(this.token) == JsonIndex.OBJECT;
+	}
+
+	/**
+	 * Indicates whether or not the value is a JSON array.
+	 *
+	 * @return true if the value is an array, otherwise false.
+	 */
+	public boolean isArray() {
+
+		return this.index.type(this.token) == JsonIndex.ARRAY;
+	}
+
+	/**
+	 * Indicates whether or not the value is a JSON string.
+	 *
+	 * @return true if the value is a string, otherwise false.
+	 */
+	public boolean isString() {
+
+		return this.index.type(this.token) == JsonIndex.STRING;
+	}
+
+	/**
+	 * Indicates whether or not the value is JSON null.
+	 *
+	 * @return true if the value is null, otherwise false.
+	 */
+	public boolean isNull() {
+
+		return this.index.type(this.token) == JsonIndex.NULL;
+	}
+
+	/**
+	 * Decodes the value as a string. Strings are unescaped; numbers and booleans are returned as written.
+	 *
+	 * @return The decoded string, or null if the value is JSON null.
+	 */
+	public String asString() {
+
+		switch (this.index.type(this.token)) {
+			case JsonIndex.STRING:
+				return this.index.string(this.token);
+			case JsonIndex.NULL:
+				return null;
+			case JsonIndex.NUMBER:
+			case JsonIndex.TRUE:
+			case JsonIndex.FALSE:
+				return this.index.raw(this.token);
+			default:
+				throw new JSONException("JSON value is not a string.");
+		}
+	}
+
+	/**
+	 * Decodes the value as a long. Numeric strings are accepted as well.
+	 *
+	 * @return The decoded number.
+	 */
+	public long asLong() {
+
+		byte type = this.index.type(this.token);
+		if (type != JsonIndex.NUMBER && type != JsonIndex.STRING) throw new JSONException("JSON value is not a number.");
+
+		String value = type == JsonIndex.STRING ? this.index.string(this.token) : this.index.raw(this.token);
+
+		try {
+
+			return Long.parseLong(value);
+		} catch (NumberFormatException e) {
+
+			throw new JSONException("JSON value is not a long: " + value);
+		}
+	}
+
+	/**
+	 * Decodes the value as a boolean.
+	 *
+	 * @return The decoded boolean.
+	 */
+	public boolean asBoolean() {
+
+		byte type = this.index.type(this.token);
+		if (type == JsonIndex.TRUE) return true;
+		if (type == JsonIndex.FALSE) return false;
+
+		throw new JSONException("JSON value is not a boolean.");
+	}
+
+	/**
+	 * Views the value as a JSON object.
+	 *
+	 * @return The object view.
+	 */
+	public JsonObjectView asObject() {
+
+		if (! isObject()) throw new JSONException("JSON value is not an object.");
+
+		return new JsonObjectView(this.index, this.token);
+	}
+
+	/**
+	 * Views the value as a JSON array of raw values.
+	 *
+	 * @return The array view.
+	 */
+	public JsonArrayView<JsonValue> asArray() {
+
+		return asArray(JsonArrayView.VALUES);
+	}
+
+	/**
+	 * Views the value as a JSON array whose elements are mapped on access.
+	 *
+	 * @param mapper Maps each element when it is accessed.
+	 * @param <T>    The element type.
+	 * @return The array view.
+	 */
+	public <T> JsonArrayView<T> asArray(JsonArrayView.Mapper<T> mapper) {
+
+		if (! isArray()) throw new JSONException("JSON value is not an array.");
+
+		return new JsonArrayView<T>(this.index, this.token, mapper);
+	}
+
+	/**
+	 * Gets the JSON text of the value as it appears in the source document.
+	 *
+	 * @return The JSON text.
+	 */
+	public String toJson() {
+
+		return this.index.raw(this.token);
+	}
+
+	/*
+	 * OBJECT METHODS
+	 */
+
+	@Override
+	public String toString() {
+
+		return this.toJson();
+	}
+}
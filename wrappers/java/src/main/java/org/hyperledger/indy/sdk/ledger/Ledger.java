@@ -1,13 +1,17 @@
 package org.hyperledger.indy.sdk.ledger;
 
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
 
 import org.hyperledger.indy.sdk.IndyException;
 import org.hyperledger.indy.sdk.IndyJava;
 import org.hyperledger.indy.sdk.LibIndy;
+import org.hyperledger.indy.sdk.ParallelBatch;
 import org.hyperledger.indy.sdk.ParamGuard;
 import org.hyperledger.indy.sdk.pool.Pool;
 import org.hyperledger.indy.sdk.wallet.Wallet;
+import org.hyperledger.indy.sdk.did.DidResults.CreateAndStoreMyDidResult;
 
 import org.hyperledger.indy.sdk.ledger.LedgerResults.ParseResponseResult;
 import org.hyperledger.indy.sdk.ledger.LedgerResults.ParseRegistryResponseResult;
@@ -188,11 +192,31 @@ public class Ledger extends IndyJava.API {
 				requestJson,
 				signAndSubmitRequestCb);
 
-		checkResult(future, result);
+		checkResult(commandHandle, future, result);
 
 		return future;
 	}
 
+	/**
+	 * Gets a RequestSubmitter that publishes requests to a validator pool with {@link #submitRequest(Pool, String)}.
+	 *
+	 * @param pool The Pool to publish to.
+	 * @return The submitter.
+	 */
+	public static RequestSubmitter submitter(final Pool pool) {
+
+		ParamGuard.notNull(pool, "pool");
+
+		return new RequestSubmitter() {
+
+			@Override
+			public CompletableFuture<String> submitRequest(String requestJson) throws IndyException {
+
+				return Ledger.submitRequest(pool, requestJson);
+			}
+		};
+	}
+
 	/**
 	 * Publishes request message to validator pool (no signing, unlike sign_and_submit_request).
 	 * <p>
@@ -221,7 +245,7 @@ public class Ledger extends IndyJava.API {
 				requestJson,
 				submitRequestCb);
 
-		checkResult(future, result);
+		checkResult(commandHandle, future, result);
 
 		return future;
 	}
@@ -266,7 +290,7 @@ public class Ledger extends IndyJava.API {
 				timeout,
 				submitRequestCb);
 
-		checkResult(future, result);
+		checkResult(commandHandle, future, result);
 
 		return future;
 	}
@@ -304,7 +328,7 @@ public class Ledger extends IndyJava.API {
 				requestJson,
 				signRequestCb);
 
-		checkResult(future, result);
+		checkResult(commandHandle, future, result);
 
 		return future;
 	}
@@ -342,7 +366,7 @@ public class Ledger extends IndyJava.API {
 				requestJson,
 				signRequestCb);
 
-		checkResult(future, result);
+		checkResult(commandHandle, future, result);
 
 		return future;
 	}
@@ -370,7 +394,7 @@ public class Ledger extends IndyJava.API {
 				targetDid,
 				buildRequestCb);
 
-		checkResult(future, result);
+		checkResult(commandHandle, future, result);
 
 		return future;
 	}
@@ -416,11 +440,104 @@ public class Ledger extends IndyJava.API {
 				role,
 				buildRequestCb);
 
-		checkResult(future, result);
+		checkResult(commandHandle, future, result);
 
 		return future;
 	}
 
+	/**
+	 * Builds, signs and submits NYM requests for several DIDs, see {@link #buildNymRequest(String, String, String, String, String)}
+	 * and {@link #signAndSubmitRequest(Pool, Wallet, String, String)}.
+	 *
+	 * At most parallelism requests are in flight at once. No further requests are sent after the first failure.
+	 * Ledger rejections are not failures; they are returned in the responses like for signAndSubmitRequest.
+	 *
+	 * @param pool         A Pool.
+	 * @param wallet       A Wallet.
+	 * @param submitterDid Id of Identity stored in secured Wallet.
+	 * @param dids         The DIDs and verkeys to write.
+	 * @param role         Role of the NYM records, see buildNymRequest.
+	 * @param parallelism  The maximum number of requests in flight.
+	 * @return A future resolving to the request results as json, in the order of dids.
+	 * @throws IndyException Thrown if an error occurs when calling the underlying SDK.
+	 */
+	public static CompletableFuture<List<String>> writeNyms(
+			Pool pool,
+			Wallet wallet,
+			String submitterDid,
+			List<CreateAndStoreMyDidResult> dids,
+			String role,
+			int parallelism) throws IndyException {
+
+		ParamGuard.notNull(dids, "dids");
+
+		return ParallelBatch.run(dids, parallelism, writeNym(pool, wallet, submitterDid, role), null);
+	}
+
+	/**
+	 * Creates a pipeline writing the NYM records of DIDs as they are offered, see
+	 * {@link #writeNyms(Pool, Wallet, String, List, String, int)}.
+	 *
+	 * The pipeline can be passed as the listener of
+	 * {@link org.hyperledger.indy.sdk.did.Did#createAndStoreMyDids(Wallet, List, int, ParallelBatch.Listener)},
+	 * so every DID is written as soon as it is stored while the others are still being created. Close the
+	 * pipeline when the creation completes; its result then resolves to the request results as json, in the
+	 * order the DIDs were created.
+	 *
+	 * @param pool         A Pool.
+	 * @param wallet       A Wallet.
+	 * @param submitterDid Id of Identity stored in secured Wallet.
+	 * @param role         Role of the NYM records, see buildNymRequest.
+	 * @param parallelism  The maximum number of requests in flight.
+	 * @param listener     Optional: receives every request result as soon as it is available.
+	 * @return The pipeline.
+	 */
+	public static ParallelBatch.Pipeline<CreateAndStoreMyDidResult, String> writeNymPipeline(
+			Pool pool,
+			Wallet wallet,
+			String submitterDid,
+			String role,
+			int parallelism,
+			ParallelBatch.Listener<String> listener) {
+
+		return ParallelBatch.pipeline(parallelism, writeNym(pool, wallet, submitterDid, role), listener);
+	}
+
+	private static ParallelBatch.Operation<CreateAndStoreMyDidResult, String> writeNym(
+			final Pool pool,
+			final Wallet wallet,
+			final String submitterDid,
+			final String role) {
+
+		ParamGuard.notNull(pool, "pool");
+		ParamGuard.notNull(wallet, "wallet");
+		ParamGuard.notNullOrWhiteSpace(submitterDid, "submitterDid");
+
+		return new ParallelBatch.Operation<CreateAndStoreMyDidResult, String>() {
+
+			@Override
+			public CompletableFuture<String> apply(CreateAndStoreMyDidResult did) throws IndyException {
+
+				return buildNymRequest(submitterDid, did.getDid(), did.getVerkey(), null, role).thenCompose(new Function<String, CompletableFuture<String>>() {
+
+					@Override
+					public CompletableFuture<String> apply(String nymRequest) {
+
+						try {
+
+							return signAndSubmitRequest(pool, wallet, submitterDid, nymRequest);
+						} catch (IndyException e) {
+
+							CompletableFuture<String> failed = new CompletableFuture<String>();
+							failed.completeExceptionally(e);
+							return failed;
+						}
+					}
+				});
+			}
+		};
+	}
+
 	/**
 	 * Builds an ATTRIB request. Request to add attribute to a NYM record.
 	 *
@@ -455,7 +572,7 @@ public class Ledger extends IndyJava.API {
 				enc,
 				buildRequestCb);
 
-		checkResult(future, result);
+		checkResult(commandHandle, future, result);
 
 		return future;
 	}
@@ -492,7 +609,7 @@ public class Ledger extends IndyJava.API {
 				enc,
 				buildRequestCb);
 
-		checkResult(future, result);
+		checkResult(commandHandle, future, result);
 
 		return future;
 	}
@@ -520,7 +637,7 @@ public class Ledger extends IndyJava.API {
 				targetDid,
 				buildRequestCb);
 
-		checkResult(future, result);
+		checkResult(commandHandle, future, result);
 
 		return future;
 	}
@@ -557,7 +674,7 @@ public class Ledger extends IndyJava.API {
 				response,
 				buildRequestCb);
 
-		checkResult(future, result);
+		checkResult(commandHandle, future, result);
 
 		return future;
 	}
@@ -594,7 +711,7 @@ public class Ledger extends IndyJava.API {
 				data,
 				buildRequestCb);
 
-		checkResult(future, result);
+		checkResult(commandHandle, future, result);
 
 		return future;
 	}
@@ -622,7 +739,7 @@ public class Ledger extends IndyJava.API {
 				id,
 				buildRequestCb);
 
-		checkResult(future, result);
+		checkResult(commandHandle, future, result);
 
 		return future;
 	}
@@ -654,7 +771,7 @@ public class Ledger extends IndyJava.API {
 				getSchemaResponse,
 				parseResponseCb);
 
-		checkResult(future, result);
+		checkResult(commandHandle, future, result);
 
 		return future;
 	}
@@ -696,7 +813,7 @@ public class Ledger extends IndyJava.API {
 				data,
 				buildRequestCb);
 
-		checkResult(future, result);
+		checkResult(commandHandle, future, result);
 
 		return future;
 	}
@@ -725,7 +842,7 @@ public class Ledger extends IndyJava.API {
 				id,
 				buildRequestCb);
 
-		checkResult(future, result);
+		checkResult(commandHandle, future, result);
 
 		return future;
 	}
@@ -761,7 +878,7 @@ public class Ledger extends IndyJava.API {
 				getCredDefResponse,
 				parseResponseCb);
 
-		checkResult(future, result);
+		checkResult(commandHandle, future, result);
 
 		return future;
 	}
@@ -804,7 +921,7 @@ public class Ledger extends IndyJava.API {
 				data,
 				buildRequestCb);
 
-		checkResult(future, result);
+		checkResult(commandHandle, future, result);
 
 		return future;
 	}
@@ -829,7 +946,7 @@ public class Ledger extends IndyJava.API {
 				submitterDid,
 				buildRequestCb);
 
-		checkResult(future, result);
+		checkResult(commandHandle, future, result);
 
 		return future;
 	}
@@ -862,7 +979,7 @@ public class Ledger extends IndyJava.API {
 				seqNo,
 				buildRequestCb);
 
-		checkResult(future, result);
+		checkResult(commandHandle, future, result);
 
 		return future;
 	}
@@ -896,7 +1013,7 @@ public class Ledger extends IndyJava.API {
 				force,
 				buildRequestCb);
 
-		checkResult(future, result);
+		checkResult(commandHandle, future, result);
 
 		return future;
 	}
@@ -928,7 +1045,7 @@ public class Ledger extends IndyJava.API {
 				datetime,
 				buildRequestCb);
 
-		checkResult(future, result);
+		checkResult(commandHandle, future, result);
 
 		return future;
 	}
@@ -986,7 +1103,7 @@ public class Ledger extends IndyJava.API {
 				package_,
 				buildRequestCb);
 
-		checkResult(future, result);
+		checkResult(commandHandle, future, result);
 
 		return future;
 	}
@@ -1030,7 +1147,7 @@ public class Ledger extends IndyJava.API {
 				data,
 				buildRequestCb);
 
-		checkResult(future, result);
+		checkResult(commandHandle, future, result);
 
 		return future;
 	}
@@ -1059,7 +1176,7 @@ public class Ledger extends IndyJava.API {
 				id,
 				buildRequestCb);
 
-		checkResult(future, result);
+		checkResult(commandHandle, future, result);
 
 		return future;
 	}
@@ -1098,7 +1215,7 @@ public class Ledger extends IndyJava.API {
 				getRevocRegDefResponse,
 				parseResponseCb);
 
-		checkResult(future, result);
+		checkResult(commandHandle, future, result);
 
 		return future;
 	}
@@ -1147,7 +1264,7 @@ public class Ledger extends IndyJava.API {
 				value,
 				buildRequestCb);
 
-		checkResult(future, result);
+		checkResult(commandHandle, future, result);
 
 		return future;
 	}
@@ -1179,7 +1296,7 @@ public class Ledger extends IndyJava.API {
 				timestamp,
 				buildRequestCb);
 
-		checkResult(future, result);
+		checkResult(commandHandle, future, result);
 
 		return future;
 	}
@@ -1210,7 +1327,7 @@ public class Ledger extends IndyJava.API {
 				getRevocRegResponse,
 				parseRegistryResponseCb);
 
-		checkResult(future, result);
+		checkResult(commandHandle, future, result);
 
 		return future;
 	}
@@ -1246,7 +1363,7 @@ public class Ledger extends IndyJava.API {
 				to,
 				buildRequestCb);
 
-		checkResult(future, result);
+		checkResult(commandHandle, future, result);
 
 		return future;
 	}
@@ -1280,7 +1397,7 @@ public class Ledger extends IndyJava.API {
 				getRevocRegDeltaResponse,
 				parseRegistryResponseCb);
 
-		checkResult(future, result);
+		checkResult(commandHandle, future, result);
 
 		return future;
 	}
@@ -1326,7 +1443,7 @@ public class Ledger extends IndyJava.API {
 				response,
 				buildRequestCb);
 
-		checkResult(future, result);
+		checkResult(commandHandle, future, result);
 
 		return future;
 	}
@@ -1392,7 +1509,7 @@ public class Ledger extends IndyJava.API {
 				constraint,
 				buildRequestCb);
 
-		checkResult(future, result);
+		checkResult(commandHandle, future, result);
 
 		return future;
 	}
@@ -1436,7 +1553,7 @@ public class Ledger extends IndyJava.API {
 				data,
 				buildRequestCb);
 
-		checkResult(future, result);
+		checkResult(commandHandle, future, result);
 
 		return future;
 	}
@@ -1467,10 +1584,6 @@ public class Ledger extends IndyJava.API {
 			String oldValue,
 			String newValue) throws IndyException {
 
-		ParamGuard.notNullOrWhiteSpace(submitterDid, "submitterDid");
-		ParamGuard.notNullOrWhiteSpace(txnType, "txnType");
-		ParamGuard.notNullOrWhiteSpace(action, "action");
-
 		CompletableFuture<String> future = new CompletableFuture<String>();
 		int commandHandle = addFuture(future);
 
@@ -1484,7 +1597,7 @@ public class Ledger extends IndyJava.API {
 				newValue,
 				buildRequestCb);
 
-		checkResult(future, result);
+		checkResult(commandHandle, future, result);
 
 		return future;
 	}
@@ -1543,7 +1656,7 @@ public class Ledger extends IndyJava.API {
 				retirementTimestamp,
 				buildRequestCb);
 
-		checkResult(future, result);
+		checkResult(commandHandle, future, result);
 
 		return future;
 	}
@@ -1572,7 +1685,7 @@ public class Ledger extends IndyJava.API {
 				submitterDid,
 				buildRequestCb);
 
-		checkResult(future, result);
+		checkResult(commandHandle, future, result);
 
 		return future;
 	}
@@ -1608,7 +1721,7 @@ public class Ledger extends IndyJava.API {
 				data,
 				buildRequestCb);
 
-		checkResult(future, result);
+		checkResult(commandHandle, future, result);
 
 		return future;
 	}
@@ -1654,7 +1767,7 @@ public class Ledger extends IndyJava.API {
 				amlContext,
 				buildRequestCb);
 
-		checkResult(future, result);
+		checkResult(commandHandle, future, result);
 
 		return future;
 	}
@@ -1689,7 +1802,7 @@ public class Ledger extends IndyJava.API {
 				version,
 				buildRequestCb);
 
-		checkResult(future, result);
+		checkResult(commandHandle, future, result);
 
 		return future;
 	}
@@ -1742,7 +1855,7 @@ public class Ledger extends IndyJava.API {
 				time,
 				buildRequestCb);
 
-		checkResult(future, result);
+		checkResult(commandHandle, future, result);
 
 		return future;
 	}
@@ -1781,7 +1894,7 @@ public class Ledger extends IndyJava.API {
 				endorserDid,
 				buildRequestCb);
 
-		checkResult(future, result);
+		checkResult(commandHandle, future, result);
 
 		return future;
 	}
@@ -1,5 +1,7 @@
 package org.hyperledger.indy.sdk.ledger;
 
+import java.util.Objects;
+
 import org.hyperledger.indy.sdk.IndyJava;
 
 /**
@@ -40,6 +42,32 @@ public final class LedgerResults {
 		public String getObjectJson() {
 			return this.objectJson;
 		}
+
+		@Override
+		public boolean equals(Object other) {
+
+			if (this == other) return true;
+			if (other == null || getClass() != other.getClass()) return false;
+
+			ParseResponseResult that = (ParseResponseResult) other;
+			return Objects.equals(this.id, that.id) &&
+					Objects.equals(this.objectJson, that.objectJson);
+		}
+
+		@Override
+		public int hashCode() {
+
+			int result = Objects.hashCode(this.id);
+			result = 31 * result + Objects.hashCode(this.objectJson);
+			return result;
+		}
+
+		@Override
+		public String toString() {
+
+			return "LedgerResults.ParseResponseResult[id=" + this.id +
+					",objectJson=" + this.objectJson + "]";
+		}
 	}
 
 	/**
@@ -82,5 +110,34 @@ public final class LedgerResults {
 		public long getTimestamp() {
 			return this.timestamp;
 		}
+
+		@Override
+		public boolean equals(Object other) {
+
+			if (this == other) return true;
+			if (other == null || getClass() != other.getClass()) return false;
+
+			ParseRegistryResponseResult that = (ParseRegistryResponseResult) other;
+			return Objects.equals(this.id, that.id) &&
+					Objects.equals(this.objectJson, that.objectJson) &&
+					this.timestamp == that.timestamp;
+		}
+
+		@Override
+		public int hashCode() {
+
+			int result = Objects.hashCode(this.id);
+			result = 31 * result + Objects.hashCode(this.objectJson);
+			result = 31 * result + Long.hashCode(this.timestamp);
+			return result;
+		}
+
+		@Override
+		public String toString() {
+
+			return "LedgerResults.ParseRegistryResponseResult[id=" + this.id +
+					",objectJson=" + this.objectJson +
+					",timestamp=" + this.timestamp + "]";
+		}
 	}
 }
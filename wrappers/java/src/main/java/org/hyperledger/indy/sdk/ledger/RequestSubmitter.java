@@ -0,0 +1,22 @@
+package org.hyperledger.indy.sdk.ledger;
+
+import java.util.concurrent.CompletableFuture;
+
+import org.hyperledger.indy.sdk.IndyException;
+
+/**
+ * Submits prepared requests to a ledger. Helpers that read from or write to the ledger take a
+ * RequestSubmitter, so they can run against a pool ({@link Ledger#submitter(org.hyperledger.indy.sdk.pool.Pool)})
+ * or against a {@link SimulatedLedger}.
+ */
+public interface RequestSubmitter {
+
+	/**
+	 * Submits a request, like {@link Ledger#submitRequest(org.hyperledger.indy.sdk.pool.Pool, String)}.
+	 *
+	 * @param requestJson The request.
+	 * @return A future that resolves to the response.
+	 * @throws IndyException Thrown if the request cannot be submitted.
+	 */
+	CompletableFuture<String> submitRequest(String requestJson) throws IndyException;
+}
@@ -0,0 +1,514 @@
+package org.hyperledger.indy.sdk.ledger;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.hyperledger.indy.sdk.IndyException;
+import org.hyperledger.indy.sdk.InvalidStructureException;
+import org.hyperledger.indy.sdk.ParamGuard;
+import org.hyperledger.indy.sdk.pool.PoolLedgerTerminatedException;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/**
+ * An in-process stand-in for a pool of validator nodes, for load and latency tests of code that
+ * submits ledger requests. Transactions are kept in memory and answered with replies shaped like
+ * those of the nodes, so the Ledger parse functions accept them.
+ *
+ * Every request draws a latency for each node from a seeded random generator. Each submitting thread has
+ * its own generator, seeded from the seed and the name of the thread, so the latencies of a thread do not
+ * depend on how it interleaves with the others and a run with the same thread names can be repeated. A read completes when
+ * f + 1 nodes have answered and a write when n - f nodes have answered plus the consensus delay,
+ * where f = (n - 1) / 3. Failed nodes do not answer; if too few nodes are left, the request fails with
+ * {@link TimeoutException} after the request timeout. Writes take effect when they complete.
+ *
+ * Signatures are not verified. NYM, ATTRIB, SCHEMA and CRED_DEF writes can be read back with GET_NYM,
+ * GET_ATTR, GET_SCHEMA and GET_CRED_DEF; every write can be read back with GET_TXN. Other reads are
+ * answered with no data. As on the nodes, a NYM write for an existing DID only changes the fields it
+ * carries, so e.g. rotating the verkey keeps the role.
+ *
+ * <pre>
+ * SimulatedLedger ledger = new SimulatedLedger(4, 42);
+ * ledger.setLatency(5, 20, TimeUnit.MILLISECONDS);
+ * ledger.setNodeFailed(3, true);
+ * String response = ledger.submitRequest(Ledger.buildGetNymRequest(did, did).get()).get();
+ * </pre>
+ *
+ * It is a {@link RequestSubmitter}, so it can be passed to the helpers that take one in place of
+ * {@link Ledger#submitter(org.hyperledger.indy.sdk.pool.Pool)}.
+ */
+public class SimulatedLedger implements RequestSubmitter, AutoCloseable {
+
+	private static final String GET_TXN = "3";
+	private static final String NYM = "1";
+	private static final String ATTRIB = "100";
+	private static final String SCHEMA = "101";
+	private static final String CRED_DEF = "102";
+	private static final String GET_ATTR = "104";
+	private static final String GET_NYM = "105";
+	private static final String GET_SCHEMA = "107";
+	private static final String GET_CRED_DEF = "108";
+
+	private static final Set<String> READS = new HashSet<String>(Arrays.asList(
+			GET_TXN, "6", "7", GET_ATTR, GET_NYM, GET_SCHEMA, GET_CRED_DEF, "115", "116", "117", "121"));
+
+	private final int nodeCount;
+	private final boolean[] failed;
+	private final long seed;
+	private final ThreadLocal<Random> random;
+	private final ScheduledThreadPoolExecutor timer;
+
+	private volatile long latencyNanos;
+	private volatile long jitterNanos;
+	private volatile long consensusDelayNanos;
+	private volatile long timeoutNanos = TimeUnit.SECONDS.toNanos(20);
+
+	private final AtomicLong readCount = new AtomicLong();
+	private final AtomicLong writeCount = new AtomicLong();
+	private final AtomicLong timeoutCount = new AtomicLong();
+
+	/*
+	 * Ledger state. Guarded by this.
+	 */
+
+	private final List<JSONObject> txns = new ArrayList<JSONObject>();
+	private final Map<String, JSONObject> nyms = new HashMap<String, JSONObject>();
+	private final Map<String, JSONObject> attribs = new HashMap<String, JSONObject>();
+	private final Map<String, JSONObject> schemas = new HashMap<String, JSONObject>();
+	private final Map<String, JSONObject> credDefs = new HashMap<String, JSONObject>();
+
+	/**
+	 * Initializes a new simulated ledger with no latency.
+	 *
+	 * @param nodeCount The number of nodes; at least 1.
+	 * @param seed      The seed of the latencies, so runs can be repeated.
+	 */
+	public SimulatedLedger(int nodeCount, long seed) {
+
+		if (nodeCount < 1) throw new IllegalArgumentException("A positive value must be provided for the 'nodeCount' parameter.");
+
+		this.nodeCount = nodeCount;
+		this.failed = new boolean[nodeCount];
+		this.seed = seed;
+		this.random = new ThreadLocal<Random>() {
+
+			@Override
+			protected Random initialValue() {
+
+				return new Random(SimulatedLedger.this.seed * 31 + Thread.currentThread().getName().hashCode());
+			}
+		};
+
+		this.timer = new ScheduledThreadPoolExecutor(1, new ThreadFactory() {
+
+			@Override
+			public Thread newThread(Runnable runnable) {
+
+				Thread thread = new Thread(runnable, "indy-simulated-ledger");
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+		this.timer.setRemoveOnCancelPolicy(true);
+	}
+
+	/*
+	 * CONFIGURATION
+	 */
+
+	/**
+	 * Sets the latency of each node answer, drawn uniformly from [latency, latency + jitter).
+	 *
+	 * @param latency The minimum latency.
+	 * @param jitter  The random part of the latency.
+	 * @param unit    The unit of latency and jitter.
+	 */
+	public void setLatency(long latency, long jitter, TimeUnit unit) {
+
+		if (latency < 0 || jitter < 0) throw new IllegalArgumentException("Latencies must not be negative.");
+
+		this.latencyNanos = unit.toNanos(latency);
+		this.jitterNanos = unit.toNanos(jitter);
+	}
+
+	/**
+	 * Sets the time the nodes need to agree on a write, added to the latency of writes.
+	 *
+	 * @param delay The consensus delay.
+	 * @param unit  The unit of delay.
+	 */
+	public void setConsensusDelay(long delay, TimeUnit unit) {
+
+		if (delay < 0) throw new IllegalArgumentException("The delay must not be negative.");
+
+		this.consensusDelayNanos = unit.toNanos(delay);
+	}
+
+	/**
+	 * Sets how long a request waits for enough nodes before it fails. The default is 20 seconds.
+	 *
+	 * @param timeout The timeout.
+	 * @param unit    The unit of timeout.
+	 */
+	public void setTimeout(long timeout, TimeUnit unit) {
+
+		if (timeout <= 0) throw new IllegalArgumentException("A positive value must be provided for the 'timeout' parameter.");
+
+		this.timeoutNanos = unit.toNanos(timeout);
+	}
+
+	/**
+	 * Fails or restores a node. Failed nodes do not answer requests submitted afterwards.
+	 *
+	 * @param node   The index of the node, from 0.
+	 * @param failed Whether the node is failed.
+	 */
+	public void setNodeFailed(int node, boolean failed) {
+
+		synchronized (this.failed) {
+
+			this.failed[node] = failed;
+		}
+	}
+
+	/*
+	 * STATISTICS
+	 */
+
+	/**
+	 * @return The number of transactions written.
+	 */
+	public synchronized int getTransactionCount() {
+
+		return this.txns.size();
+	}
+
+	/**
+	 * @return The number of completed reads.
+	 */
+	public long getReadCount() {
+
+		return this.readCount.get();
+	}
+
+	/**
+	 * @return The number of completed writes, including rejected ones.
+	 */
+	public long getWriteCount() {
+
+		return this.writeCount.get();
+	}
+
+	/**
+	 * @return The number of requests that failed because too few nodes answered.
+	 */
+	public long getTimeoutCount() {
+
+		return this.timeoutCount.get();
+	}
+
+	/*
+	 * REQUESTS
+	 */
+
+	/**
+	 * Submits a request, like {@link Ledger#submitRequest(org.hyperledger.indy.sdk.pool.Pool, String)}.
+	 *
+	 * @param requestJson The request, as built by the Ledger build functions.
+	 * @return A future that resolves to the reply of the nodes.
+	 * @throws IndyException Thrown if the request is not valid json or the ledger is closed.
+	 */
+	@Override
+	public CompletableFuture<String> submitRequest(String requestJson) throws IndyException {
+
+		ParamGuard.notNullOrWhiteSpace(requestJson, "requestJson");
+
+		final JSONObject request;
+		final JSONObject operation;
+		try {
+
+			request = new JSONObject(requestJson);
+			operation = request.getJSONObject("operation");
+			operation.getString("type");
+		} catch (JSONException e) {
+
+			throw new InvalidStructureException();
+		}
+
+		final boolean read = READS.contains(operation.getString("type"));
+		final CompletableFuture<String> future = new CompletableFuture<String>();
+
+		long delay = delay(read);
+
+		try {
+
+			if (delay < 0) {
+
+				this.timer.schedule(new Runnable() {
+
+					@Override
+					public void run() {
+
+						timeoutCount.incrementAndGet();
+						future.completeExceptionally(new TimeoutException());
+					}
+				}, this.timeoutNanos, TimeUnit.NANOSECONDS);
+			} else {
+
+				this.timer.schedule(new Runnable() {
+
+					@Override
+					public void run() {
+
+						try {
+
+							future.complete(read ? read(request, operation) : write(request, operation));
+						} catch (Throwable e) {
+
+							future.completeExceptionally(e);
+						}
+					}
+				}, delay, TimeUnit.NANOSECONDS);
+			}
+		} catch (RejectedExecutionException e) {
+
+			throw new PoolLedgerTerminatedException();
+		}
+
+		return future;
+	}
+
+	/**
+	 * @return The delay until enough nodes have answered, or -1 if too few nodes are up.
+	 */
+	long delay(boolean read) {
+
+		int f = (this.nodeCount - 1) / 3;
+		int quorum = read ? f + 1 : this.nodeCount - f;
+
+		boolean[] failed;
+		synchronized (this.failed) {
+
+			failed = this.failed.clone();
+		}
+
+		Random random = this.random.get();
+		long[] latencies = new long[this.nodeCount];
+		int up = 0;
+
+		for (int node = 0; node < this.nodeCount; node++) {
+
+			if (failed[node]) continue;
+
+			latencies[up++] = this.latencyNanos + (long) (random.nextDouble() * this.jitterNanos);
+		}
+
+		if (up < quorum) return -1;
+
+		Arrays.sort(latencies, 0, up);
+		return latencies[quorum - 1] + (read ? 0 : this.consensusDelayNanos);
+	}
+
+	/**
+	 * Stops answering. Requests in flight are not answered.
+	 */
+	@Override
+	public void close() {
+
+		this.timer.shutdownNow();
+	}
+
+	/*
+	 * WRITES
+	 */
+
+	private synchronized String write(JSONObject request, JSONObject operation) {
+
+		this.writeCount.incrementAndGet();
+
+		String type = operation.getString("type");
+		String identifier = request.optString("identifier", null);
+		long reqId = request.optLong("reqId");
+
+		String key = null;
+		Map<String, JSONObject> index = null;
+
+		try {
+
+			if (NYM.equals(type)) {
+
+				key = operation.getString("dest");
+				index = this.nyms;
+			} else if (ATTRIB.equals(type)) {
+
+				key = attribKey(operation.getString("dest"), new JSONObject(operation.getString("raw")).keys().next());
+				index = this.attribs;
+			} else if (SCHEMA.equals(type)) {
+
+				JSONObject data = operation.getJSONObject("data");
+				key = identifier + ":" + data.getString("name") + ":" + data.getString("version");
+				if (this.schemas.containsKey(key)) return reject(identifier, reqId, "Schema " + key + " already exists");
+
+				index = this.schemas;
+			} else if (CRED_DEF.equals(type)) {
+
+				key = identifier + ":" + operation.get("ref") + ":" + operation.getString("signature_type") + ":" + operation.optString("tag", "");
+				if (this.credDefs.containsKey(key)) return reject(identifier, reqId, "Credential definition " + key + " already exists");
+
+				index = this.credDefs;
+			}
+		} catch (JSONException e) {
+
+			return reject(identifier, reqId, "Invalid operation: " + e.getMessage());
+		}
+
+		JSONObject data = new JSONObject(operation.toString());
+		data.remove("type");
+
+		JSONObject result = new JSONObject()
+				.put("ver", "1")
+				.put("txn", new JSONObject()
+						.put("type", type)
+						.put("protocolVersion", 2)
+						.put("data", data)
+						.put("metadata", new JSONObject().put("from", identifier != null ? identifier : JSONObject.NULL).put("reqId", reqId)))
+				.put("txnMetadata", new JSONObject()
+						.put("seqNo", this.txns.size() + 1)
+						.put("txnTime", System.currentTimeMillis() / 1000))
+				.put("reqSignature", new JSONObject());
+
+		this.txns.add(result);
+		if (index != null) index.put(key, NYM.equals(type) ? mergeNym(index.get(key), result) : result);
+
+		return new JSONObject().put("op", "REPLY").put("result", result).toString();
+	}
+
+	/**
+	 * @return The record to read a NYM back from: the written transaction, with the fields it leaves out
+	 * taken from the previous record of the DID.
+	 */
+	private static JSONObject mergeNym(JSONObject previous, JSONObject written) {
+
+		if (previous == null) return written;
+
+		JSONObject merged = new JSONObject(written.toString());
+		JSONObject data = merged.getJSONObject("txn").getJSONObject("data");
+		JSONObject previousData = previous.getJSONObject("txn").getJSONObject("data");
+
+		for (String field : previousData.keySet()) if (! data.has(field)) data.put(field, previousData.get(field));
+
+		return merged;
+	}
+
+	private static String attribKey(String dest, String name) {
+
+		return dest + "\u0000" + name;
+	}
+
+	private static String reject(String identifier, long reqId, String reason) {
+
+		return new JSONObject()
+				.put("op", "REJECT")
+				.put("identifier", identifier != null ? identifier : JSONObject.NULL)
+				.put("reqId", reqId)
+				.put("reason", reason)
+				.toString();
+	}
+
+	/*
+	 * READS
+	 */
+
+	private synchronized String read(JSONObject request, JSONObject operation) {
+
+		this.readCount.incrementAndGet();
+
+		String type = operation.getString("type");
+		JSONObject result = new JSONObject()
+				.put("type", type)
+				.put("identifier", request.opt("identifier"))
+				.put("reqId", request.optLong("reqId"));
+
+		JSONObject txn = null;
+
+		if (GET_NYM.equals(type)) {
+
+			String dest = operation.getString("dest");
+			txn = this.nyms.get(dest);
+			result.put("dest", dest);
+
+			if (txn != null) {
+
+				JSONObject data = txn.getJSONObject("txn").getJSONObject("data");
+				result.put("data", new JSONObject()
+						.put("dest", dest)
+						.put("identifier", txn.getJSONObject("txn").getJSONObject("metadata").get("from"))
+						.put("role", data.has("role") ? data.get("role") : JSONObject.NULL)
+						.put("verkey", data.has("verkey") ? data.get("verkey") : JSONObject.NULL)
+						.put("seqNo", seqNo(txn))
+						.put("txnTime", txnTime(txn))
+						.toString());
+			}
+		} else if (GET_ATTR.equals(type)) {
+
+			String dest = operation.getString("dest");
+			String name = operation.optString("raw", null);
+			txn = name != null ? this.attribs.get(attribKey(dest, name)) : null;
+			result.put("dest", dest).put("raw", name);
+
+			if (txn != null) result.put("data", txn.getJSONObject("txn").getJSONObject("data").getString("raw"));
+		} else if (GET_SCHEMA.equals(type)) {
+
+			String dest = operation.getString("dest");
+			JSONObject data = operation.getJSONObject("data");
+			txn = this.schemas.get(dest + ":" + data.getString("name") + ":" + data.getString("version"));
+			result.put("dest", dest);
+
+			result.put("data", txn != null ? txn.getJSONObject("txn").getJSONObject("data").getJSONObject("data") : data);
+		} else if (GET_CRED_DEF.equals(type)) {
+
+			String origin = operation.getString("origin");
+			txn = this.credDefs.get(origin + ":" + operation.get("ref") + ":" + operation.getString("signature_type") + ":" + operation.optString("tag", ""));
+			result.put("origin", origin)
+					.put("ref", operation.get("ref"))
+					.put("signature_type", operation.getString("signature_type"))
+					.put("tag", operation.optString("tag", null));
+
+			if (txn != null) result.put("data", txn.getJSONObject("txn").getJSONObject("data").getJSONObject("data"));
+		} else if (GET_TXN.equals(type)) {
+
+			long seqNo = operation.optLong("data");
+			txn = seqNo >= 1 && seqNo <= this.txns.size() ? this.txns.get((int) seqNo - 1) : null;
+
+			if (txn != null) result.put("data", txn);
+		}
+
+		if (! result.has("data")) result.put("data", JSONObject.NULL);
+		result.put("seqNo", txn != null ? seqNo(txn) : JSONObject.NULL);
+		result.put("txnTime", txn != null ? txnTime(txn) : JSONObject.NULL);
+
+		return new JSONObject().put("op", "REPLY").put("result", result).toString();
+	}
+
+	private static long seqNo(JSONObject txn) {
+
+		return txn.getJSONObject("txnMetadata").getLong("seqNo");
+	}
+
+	private static long txnTime(JSONObject txn) {
+
+		return txn.getJSONObject("txnMetadata").getLong("txnTime");
+	}
+}
@@ -0,0 +1,81 @@
+package org.hyperledger.indy.sdk.non_secrets;
+
+import java.util.function.Function;
+
+import org.hyperledger.indy.sdk.json.JsonObjectView;
+
+/**
+ * non_secrets.rs results
+ */
+
+/**
+ * Result classes for non-secrets operations.
+ */
+public final class NonSecretsResults {
+
+	private NonSecretsResults() {
+
+	}
+
+	/**
+	 * Lazy view of a wallet record returned by WalletRecord.get.
+	 */
+	public static class WalletRecordInfo extends JsonObjectView {
+
+		WalletRecordInfo(JsonObjectView view) { super(view); }
+
+		/**
+		 * Gets the id of the record.
+		 *
+		 * @return The record id.
+		 */
+		public String getId() { return getString("id"); }
+
+		/**
+		 * Gets the type of the record. Present only if retrieveType was requested.
+		 *
+		 * @return The record type, or null if absent.
+		 */
+		public String getType() { return optString("type"); }
+
+		/**
+		 * Gets the value of the record. Present only if retrieveValue was requested.
+		 *
+		 * @return The record value, or null if absent.
+		 */
+		public String getValue() { return optString("value"); }
+
+		/**
+		 * Gets the tags of the record. Present only if retrieveTags was requested.
+		 *
+		 * @return A view over the tags, or null if absent.
+		 */
+		public JsonObjectView getTags() { return optObject("tags"); }
+
+		/**
+		 * Gets the value of a single tag of the record.
+		 *
+		 * @param name The tag name.
+		 * @return The tag value, or null if absent.
+		 */
+		public String getTag(String name) {
+
+			JsonObjectView tags = getTags();
+
+			return tags == null ? null : tags.optString(name);
+		}
+	}
+
+	/*
+	 * PARSERS
+	 */
+
+	static final Function<String, WalletRecordInfo> WALLET_RECORD = new Function<String, WalletRecordInfo>() {
+
+		@Override
+		public WalletRecordInfo apply(String json) {
+
+			return new WalletRecordInfo(JsonObjectView.parse(json));
+		}
+	};
+}
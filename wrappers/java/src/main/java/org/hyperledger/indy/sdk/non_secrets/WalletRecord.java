@@ -5,8 +5,10 @@ import org.hyperledger.indy.sdk.IndyException;
 import org.hyperledger.indy.sdk.IndyJava;
 import org.hyperledger.indy.sdk.LibIndy;
 import org.hyperledger.indy.sdk.ParamGuard;
+import org.hyperledger.indy.sdk.non_secrets.NonSecretsResults.WalletRecordInfo;
 import org.hyperledger.indy.sdk.wallet.Wallet;
 
+import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 
 /**
@@ -58,6 +60,22 @@ public class WalletRecord extends IndyJava.API {
 		}
 	};
 
+	/**
+	 * Callback used when a function returning an optional String completes.
+	 */
+	private static Callback optionalStringCb = new Callback() {
+
+		@SuppressWarnings({"unused", "unchecked"})
+		public void callback(int xcommand_handle, int err, String str) {
+
+			CompletableFuture<Optional<String>> future = (CompletableFuture<Optional<String>>) removeFuture(xcommand_handle);
+			if (! checkFoundResult(future, err)) return;
+
+			Optional<String> result = Optional.of(str);
+			future.complete(result);
+		}
+	};
+
 	/*
 	 * STATIC METHODS
 	 */
@@ -103,7 +121,7 @@ public class WalletRecord extends IndyJava.API {
 				tagsJson,
 				voidCb);
 
-		checkResult(future, result);
+		checkResult(commandHandle, future, result);
 
 		return future;
 	}
@@ -142,7 +160,7 @@ public class WalletRecord extends IndyJava.API {
 				value,
 				voidCb);
 
-		checkResult(future, result);
+		checkResult(commandHandle, future, result);
 
 		return future;
 	}
@@ -185,7 +203,7 @@ public class WalletRecord extends IndyJava.API {
 				tagsJson,
 				voidCb);
 
-		checkResult(future, result);
+		checkResult(commandHandle, future, result);
 
 		return future;
 	}
@@ -228,7 +246,7 @@ public class WalletRecord extends IndyJava.API {
 				tagsJson,
 				voidCb);
 
-		checkResult(future, result);
+		checkResult(commandHandle, future, result);
 
 		return future;
 	}
@@ -268,7 +286,7 @@ public class WalletRecord extends IndyJava.API {
 				tagNamesJson,
 				voidCb);
 
-		checkResult(future, result);
+		checkResult(commandHandle, future, result);
 
 		return future;
 	}
@@ -303,7 +321,7 @@ public class WalletRecord extends IndyJava.API {
 				id,
 				voidCb);
 
-		checkResult(future, result);
+		checkResult(commandHandle, future, result);
 
 		return future;
 	}
@@ -353,8 +371,67 @@ public class WalletRecord extends IndyJava.API {
 				optionsJson,
 				stringCb);
 
-		checkResult(future, result);
+		checkResult(commandHandle, future, result);
+
+		return future;
+	}
+
+	/**
+	 * Get an wallet record by id as a lazily parsed view.
+	 *
+	 * @param wallet      The wallet.
+	 * @param type        Allows to separate different record types collections
+	 * @param id          The id of record
+	 * @param optionsJson See {@link #get(Wallet, String, String, String)}.
+	 * @return A future that resolves to a view over the wallet record.
+	 * @throws IndyException Thrown if an error occurs when calling the underlying SDK.
+	 */
+	public static CompletableFuture<WalletRecordInfo> getView(
+			Wallet wallet,
+			String type,
+			String id,
+			String optionsJson) throws IndyException {
+
+		return get(wallet, type, id, optionsJson).thenApply(NonSecretsResults.WALLET_RECORD);
+	}
+
+	/**
+	 * Get an wallet record by id if it exists. Unlike {@link #get(Wallet, String, String, String)}, a missing
+	 * record does not fail the future.
+	 *
+	 * @param wallet      The wallet.
+	 * @param type        Allows to separate different record types collections
+	 * @param id          The id of record
+	 * @param optionsJson See {@link #get(Wallet, String, String, String)}.
+	 * @return A future that resolves to the wallet record json, or to an empty Optional if there is no such record.
+	 * @throws IndyException Thrown if an error occurs when calling the underlying SDK.
+	 */
+	public static CompletableFuture<Optional<String>> tryGet(
+			Wallet wallet,
+			String type,
+			String id,
+			String optionsJson) throws IndyException {
+
+		ParamGuard.notNull(wallet, "wallet");
+		ParamGuard.notNullOrWhiteSpace(type, "type");
+		ParamGuard.notNull(id, "id");
+		ParamGuard.notNull(optionsJson, "optionsJson");
+
+		CompletableFuture<Optional<String>> future = new CompletableFuture<Optional<String>>();
+		int commandHandle = addFuture(future);
+
+		int walletHandle = wallet.getWalletHandle();
+
+		int result = LibIndy.api.indy_get_wallet_record(
+				commandHandle,
+				walletHandle,
+				type,
+				id,
+				optionsJson,
+				optionalStringCb);
+
+		checkResult(commandHandle, future, result);
 
 		return future;
 	}
-}
\ No newline at end of file
+}
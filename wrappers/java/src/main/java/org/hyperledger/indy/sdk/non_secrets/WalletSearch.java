@@ -138,7 +138,7 @@ public class WalletSearch extends IndyJava.API implements AutoCloseable {
 				optionsJson,
 				searchCb);
 
-		checkResult(future, result);
+		checkResult(commandHandle, future, result);
 
 		return future;
 	}
@@ -179,7 +179,7 @@ public class WalletSearch extends IndyJava.API implements AutoCloseable {
 				count,
 				stringCb);
 
-		checkResult(future, result);
+		checkResult(commandHandle, future, result);
 
 		return future;
 	}
@@ -204,7 +204,7 @@ public class WalletSearch extends IndyJava.API implements AutoCloseable {
 				searchHandle,
 				voidCb);
 
-		checkResult(future, result);
+		checkResult(commandHandle, future, result);
 
 		return future;
 	}
@@ -243,4 +243,30 @@ public class WalletSearch extends IndyJava.API implements AutoCloseable {
 	public void close() throws Exception {
 		closeSearch().get();
 	}
-}
\ No newline at end of file
+
+	/*
+	 * OBJECT METHODS
+	 */
+
+	@Override
+	public boolean equals(Object other) {
+
+		if (this == other) return true;
+		if (other == null || getClass() != other.getClass()) return false;
+
+		WalletSearch that = (WalletSearch) other;
+		return this.searchHandle == that.searchHandle;
+	}
+
+	@Override
+	public int hashCode() {
+
+		return this.searchHandle;
+	}
+
+	@Override
+	public String toString() {
+
+		return "WalletSearch[searchHandle=" + this.searchHandle + "]";
+	}
+}
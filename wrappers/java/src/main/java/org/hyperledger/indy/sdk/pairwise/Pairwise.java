@@ -1,11 +1,14 @@
 package org.hyperledger.indy.sdk.pairwise;
 
+import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 
 import org.hyperledger.indy.sdk.IndyException;
 import org.hyperledger.indy.sdk.IndyJava;
 import org.hyperledger.indy.sdk.LibIndy;
 import org.hyperledger.indy.sdk.ParamGuard;
+import org.hyperledger.indy.sdk.json.JsonArrayView;
+import org.hyperledger.indy.sdk.pairwise.PairwiseResults.PairwiseInfo;
 import org.hyperledger.indy.sdk.wallet.Wallet;
 
 import com.sun.jna.Callback;
@@ -77,6 +80,22 @@ public class Pairwise extends IndyJava.API {
 		}
 	};
 
+	/**
+	 * Callback used when tryGetPairwise completes.
+	 */
+	private static Callback tryGetPairwiseCb = new Callback() {
+
+		@SuppressWarnings({"unused", "unchecked"})
+		public void callback(int xcommand_handle, int err, String pairwise_info) {
+
+			CompletableFuture<Optional<String>> future = (CompletableFuture<Optional<String>>) removeFuture(xcommand_handle);
+			if (! checkFoundResult(future, err)) return;
+
+			Optional<String> result = Optional.of(pairwise_info);
+			future.complete(result);
+		}
+	};
+
 	/**
 	 * Callback used when setPairwiseMetadata completes.
 	 */
@@ -123,7 +142,7 @@ public class Pairwise extends IndyJava.API {
 				theirDid,
 				boolCallback);
 
-		checkResult(future, result);
+		checkResult(commandHandle, future, result);
 
 		return future;
 	}
@@ -161,7 +180,7 @@ public class Pairwise extends IndyJava.API {
 				metadata,
 				createPairwiseCb);
 
-		checkResult(future, result);
+		checkResult(commandHandle, future, result);
 
 		return future;
 	}
@@ -188,7 +207,7 @@ public class Pairwise extends IndyJava.API {
 				walletHandle,
 				listPairwiseCb);
 
-		checkResult(future, result);
+		checkResult(commandHandle, future, result);
 
 		return future;
 	}
@@ -219,11 +238,73 @@ public class Pairwise extends IndyJava.API {
 				theirDid,
 				getPairwiseCb);
 
-		checkResult(future, result);
+		checkResult(commandHandle, future, result);
 
 		return future;
 	}
 
+	/**
+	 * Gets pairwise information for specific their_did if it exists. Unlike {@link #getPairwise(Wallet, String)},
+	 * a missing pairwise does not fail the future.
+	 *
+	 * @param wallet   The wallet.
+	 * @param theirDid encrypted DID
+	 * @return A future that resolves to the pairwise info, or to an empty Optional if there is no such pairwise.
+	 * @throws IndyException Thrown if an error occurs when calling the underlying SDK.
+	 */
+	public static CompletableFuture<Optional<String>> tryGetPairwise(
+			Wallet wallet,
+			String theirDid) throws IndyException {
+
+		ParamGuard.notNull(wallet, "wallet");
+		ParamGuard.notNullOrWhiteSpace(theirDid, "theirDid");
+
+		CompletableFuture<Optional<String>> future = new CompletableFuture<Optional<String>>();
+		int commandHandle = addFuture(future);
+
+		int walletHandle = wallet.getWalletHandle();
+
+		int result = LibIndy.api.indy_get_pairwise(
+				commandHandle,
+				walletHandle,
+				theirDid,
+				tryGetPairwiseCb);
+
+		checkResult(commandHandle, future, result);
+
+		return future;
+	}
+
+	/**
+	 * Get list of saved pairwise as a lazily parsed view.
+	 *
+	 * Only the structure of the list is indexed; each pairwise is decoded when it is accessed.
+	 *
+	 * @param wallet The wallet.
+	 * @return A future that resolves to a view over the list of pairwise.
+	 * @throws IndyException Thrown if an error occurs when calling the underlying SDK.
+	 */
+	public static CompletableFuture<JsonArrayView<PairwiseInfo>> listPairwiseView(
+			Wallet wallet) throws IndyException {
+
+		return listPairwise(wallet).thenApply(PairwiseResults.PAIRWISE_LIST);
+	}
+
+	/**
+	 * Gets pairwise information for specific their_did as a lazily parsed view.
+	 *
+	 * @param wallet   The wallet.
+	 * @param theirDid encrypted DID
+	 * @return A future that resolves to a view over the pairwise.
+	 * @throws IndyException Thrown if an error occurs when calling the underlying SDK.
+	 */
+	public static CompletableFuture<PairwiseInfo> getPairwiseView(
+			Wallet wallet,
+			String theirDid) throws IndyException {
+
+		return getPairwise(wallet, theirDid).thenApply(PairwiseResults.PAIRWISE);
+	}
+
 	/**
 	 * Save some data in the Wallet for pairwise associated with Did.
 	 *
@@ -253,7 +334,7 @@ public class Pairwise extends IndyJava.API {
 				metadata,
 				setPairwiseMetadataCb);
 
-		checkResult(future, result);
+		checkResult(commandHandle, future, result);
 
 		return future;
 	}
@@ -0,0 +1,430 @@
+package org.hyperledger.indy.sdk.pairwise;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+import org.hyperledger.indy.sdk.IndyException;
+import org.hyperledger.indy.sdk.IndyJava;
+import org.hyperledger.indy.sdk.ParamGuard;
+import org.hyperledger.indy.sdk.json.JsonArrayView;
+import org.hyperledger.indy.sdk.pairwise.PairwiseResults.PairwiseInfo;
+import org.hyperledger.indy.sdk.wallet.Wallet;
+import org.hyperledger.indy.sdk.wallet.WalletItemNotFoundException;
+
+/**
+ * In-memory index of the pairwise stored in a wallet, keyed by their DID.
+ *
+ * The directory is loaded once with a single listPairwise call and is kept up to date when
+ * pairwise are created or their metadata changes through it. Changes made to the wallet by
+ * other means are not observed; use {@link #invalidate(String)} or {@link #reload()} for those.
+ *
+ * Lookups read the current index without locking. A reload builds a new index from the wallet and
+ * swaps it in at once, so readers never see a partly loaded directory. Changes made through the
+ * directory while a reload is in flight are applied again on top of the loaded snapshot, which may
+ * have been taken before them.
+ */
+public class PairwiseDirectory {
+
+	private final Wallet wallet;
+	private volatile ConcurrentHashMap<String, Entry> index = new ConcurrentHashMap<String, Entry>();
+
+	/**
+	 * Guards the writes to the index, the swap of the index and the fields below.
+	 */
+	private final Object lock = new Object();
+
+	/**
+	 * The number of reloads in flight.
+	 */
+	private int reloads;
+
+	/**
+	 * The changes made since the oldest reload in flight started, by their DID; a null entry is a removal.
+	 * Null while no reload is in flight.
+	 */
+	private Map<String, Entry> changes;
+
+	PairwiseDirectory(Wallet wallet) {
+
+		this.wallet = wallet;
+	}
+
+	/**
+	 * An entry of the directory.
+	 */
+	public static final class Entry extends IndyJava.Result {
+
+		private final String theirDid, myDid, metadata;
+		Entry(String theirDid, String myDid, String metadata) { this.theirDid = theirDid; this.myDid = myDid; this.metadata = metadata; }
+
+		/**
+		 * Gets their DID of the pairwise.
+		 *
+		 * @return Their DID.
+		 */
+		public String getTheirDid() { return this.theirDid; }
+
+		/**
+		 * Gets my DID of the pairwise.
+		 *
+		 * @return My DID.
+		 */
+		public String getMyDid() { return this.myDid; }
+
+		/**
+		 * Gets the metadata of the pairwise.
+		 *
+		 * @return The metadata, or null if none was set.
+		 */
+		public String getMetadata() { return this.metadata; }
+
+		@Override
+		public boolean equals(Object other) {
+
+			if (this == other) return true;
+			if (other == null || getClass() != other.getClass()) return false;
+
+			Entry that = (Entry) other;
+			return Objects.equals(this.theirDid, that.theirDid) &&
+					Objects.equals(this.myDid, that.myDid) &&
+					Objects.equals(this.metadata, that.metadata);
+		}
+
+		@Override
+		public int hashCode() {
+
+			int result = Objects.hashCode(this.theirDid);
+			result = 31 * result + Objects.hashCode(this.myDid);
+			result = 31 * result + Objects.hashCode(this.metadata);
+			return result;
+		}
+
+		@Override
+		public String toString() {
+
+			return "PairwiseDirectory.Entry[theirDid=" + this.theirDid +
+					",myDid=" + this.myDid +
+					",metadata=" + this.metadata + "]";
+		}
+	}
+
+	/*
+	 * STATIC METHODS
+	 */
+
+	/**
+	 * Loads all pairwise of the wallet into a new directory.
+	 *
+	 * @param wallet The wallet.
+	 * @return A future that resolves to the loaded directory.
+	 * @throws IndyException Thrown if an error occurs when calling the underlying SDK.
+	 */
+	public static CompletableFuture<PairwiseDirectory> load(
+			Wallet wallet) throws IndyException {
+
+		ParamGuard.notNull(wallet, "wallet");
+
+		return new PairwiseDirectory(wallet).reload();
+	}
+
+	/*
+	 * INSTANCE METHODS
+	 */
+
+	/**
+	 * Replaces the content of the directory with the pairwise currently stored in the wallet.
+	 *
+	 * @return A future that resolves to this directory once it has been reloaded.
+	 * @throws IndyException Thrown if an error occurs when calling the underlying SDK.
+	 */
+	public CompletableFuture<PairwiseDirectory> reload() throws IndyException {
+
+		beginReload();
+
+		CompletableFuture<JsonArrayView<PairwiseInfo>> listPairwise;
+		try {
+
+			listPairwise = Pairwise.listPairwiseView(this.wallet);
+		} catch (IndyException e) {
+
+			endReload(null);
+			throw e;
+		}
+
+		return listPairwise.whenComplete(new BiConsumer<JsonArrayView<PairwiseInfo>, Throwable>() {
+
+			@Override
+			public void accept(JsonArrayView<PairwiseInfo> listPairwise, Throwable e) {
+
+				if (e != null) endReload(null);
+			}
+		}).thenApply(new Function<JsonArrayView<PairwiseInfo>, PairwiseDirectory>() {
+
+			@Override
+			public PairwiseDirectory apply(JsonArrayView<PairwiseInfo> listPairwise) {
+
+				Map<String, Entry> loaded = new HashMap<String, Entry>(listPairwise.size() * 2);
+
+				for (PairwiseInfo pairwise : listPairwise) {
+
+					String theirDid = pairwise.getTheirDid();
+					loaded.put(theirDid, new Entry(theirDid, pairwise.getMyDid(), pairwise.getMetadata()));
+				}
+
+				endReload(loaded);
+
+				return PairwiseDirectory.this;
+			}
+		});
+	}
+
+	void beginReload() {
+
+		synchronized (this.lock) {
+
+			if (this.reloads++ == 0) this.changes = new HashMap<String, Entry>();
+		}
+	}
+
+	/**
+	 * Swaps in the loaded pairwise, with the changes made since the reload started applied on top.
+	 *
+	 * @param loaded The pairwise read from the wallet, or null if the reload failed.
+	 */
+	void endReload(Map<String, Entry> loaded) {
+
+		synchronized (this.lock) {
+
+			if (loaded != null) {
+
+				ConcurrentHashMap<String, Entry> index = new ConcurrentHashMap<String, Entry>(loaded);
+				for (Map.Entry<String, Entry> change : this.changes.entrySet()) {
+
+					if (change.getValue() == null) index.remove(change.getKey());
+					else index.put(change.getKey(), change.getValue());
+				}
+
+				this.index = index;
+			}
+
+			if (--this.reloads == 0) this.changes = null;
+		}
+	}
+
+	/**
+	 * Indexes a pairwise stored in the wallet.
+	 */
+	void put(String theirDid, Entry entry) {
+
+		synchronized (this.lock) {
+
+			this.index.put(theirDid, entry);
+			if (this.changes != null) this.changes.put(theirDid, entry);
+		}
+	}
+
+	/**
+	 * Gets the indexed pairwise for their DID without calling the SDK.
+	 *
+	 * @param theirDid Their DID.
+	 * @return The entry, or null if the directory does not contain the pairwise.
+	 */
+	public Entry get(String theirDid) {
+
+		ParamGuard.notNull(theirDid, "theirDid");
+
+		return this.index.get(theirDid);
+	}
+
+	/**
+	 * Resolves my DID for their DID without calling the SDK.
+	 *
+	 * @param theirDid Their DID.
+	 * @return My DID, or null if the directory does not contain the pairwise.
+	 */
+	public String getMyDid(String theirDid) {
+
+		Entry entry = get(theirDid);
+
+		return entry == null ? null : entry.getMyDid();
+	}
+
+	/**
+	 * Checks whether the directory contains a pairwise for their DID.
+	 *
+	 * @param theirDid Their DID.
+	 * @return true if the pairwise is indexed, otherwise false.
+	 */
+	public boolean contains(String theirDid) {
+
+		ParamGuard.notNull(theirDid, "theirDid");
+
+		return this.index.containsKey(theirDid);
+	}
+
+	/**
+	 * Looks up several pairwise at once without calling the SDK.
+	 *
+	 * @param theirDids Their DIDs.
+	 * @return The entries found, keyed by their DID. DIDs without a pairwise are omitted.
+	 */
+	public Map<String, Entry> getAll(Collection<String> theirDids) {
+
+		ParamGuard.notNull(theirDids, "theirDids");
+
+		Map<String, Entry> result = new HashMap<String, Entry>(theirDids.size() * 2);
+
+		for (String theirDid : theirDids) {
+
+			Entry entry = this.index.get(theirDid);
+			if (entry != null) result.put(theirDid, entry);
+		}
+
+		return result;
+	}
+
+	/**
+	 * Gets the indexed pairwise for their DID, falling back to getPairwise when it is not indexed.
+	 * A pairwise found in the wallet is added to the directory.
+	 *
+	 * @param theirDid Their DID.
+	 * @return A future that resolves to the entry, or to null if the wallet does not contain the pairwise.
+	 * @throws IndyException Thrown if an error occurs when calling the underlying SDK.
+	 */
+	public CompletableFuture<Entry> resolve(final String theirDid) throws IndyException {
+
+		Entry entry = get(theirDid);
+		if (entry != null) return CompletableFuture.completedFuture(entry);
+
+		return Pairwise.getPairwiseView(this.wallet, theirDid).handle(new BiFunction<PairwiseInfo, Throwable, Entry>() {
+
+			@Override
+			public Entry apply(PairwiseInfo pairwise, Throwable e) {
+
+				if (e != null) {
+
+					Throwable cause = e instanceof CompletionException ? e.getCause() : e;
+					if (cause instanceof WalletItemNotFoundException) return null;
+
+					throw e instanceof CompletionException ? (CompletionException) e : new CompletionException(e);
+				}
+
+				Entry resolved = new Entry(theirDid, pairwise.getMyDid(), pairwise.getMetadata());
+				put(theirDid, resolved);
+
+				return resolved;
+			}
+		});
+	}
+
+	/**
+	 * Creates a pairwise through {@link Pairwise#createPairwise(Wallet, String, String, String)}
+	 * and indexes it once the wallet has stored it.
+	 *
+	 * @param theirDid encrypted DID
+	 * @param myDid    encrypted DID
+	 * @param metadata Optional: extra information for pairwise
+	 * @return A future that resolves no value.
+	 * @throws IndyException Thrown if an error occurs when calling the underlying SDK.
+	 */
+	public CompletableFuture<Void> createPairwise(
+			final String theirDid,
+			final String myDid,
+			final String metadata) throws IndyException {
+
+		return Pairwise.createPairwise(this.wallet, theirDid, myDid, metadata).thenApply(new Function<Void, Void>() {
+
+			@Override
+			public Void apply(Void result) {
+
+				put(theirDid, new Entry(theirDid, myDid, metadata));
+
+				return result;
+			}
+		});
+	}
+
+	/**
+	 * Sets the pairwise metadata through {@link Pairwise#setPairwiseMetadata(Wallet, String, String)}
+	 * and updates the indexed entry once the wallet has stored it.
+	 *
+	 * @param theirDid encoded Did
+	 * @param metadata some extra information for pairwise
+	 * @return A future that resolves no value.
+	 * @throws IndyException Thrown if an error occurs when calling the underlying SDK.
+	 */
+	public CompletableFuture<Void> setPairwiseMetadata(
+			final String theirDid,
+			final String metadata) throws IndyException {
+
+		return Pairwise.setPairwiseMetadata(this.wallet, theirDid, metadata).thenApply(new Function<Void, Void>() {
+
+			@Override
+			public Void apply(Void result) {
+
+				synchronized (PairwiseDirectory.this.lock) {
+
+					Entry entry = PairwiseDirectory.this.index.get(theirDid);
+					if (entry != null) put(theirDid, new Entry(theirDid, entry.getMyDid(), metadata));
+				}
+
+				return result;
+			}
+		});
+	}
+
+	/**
+	 * Removes a pairwise from the directory. The next {@link #resolve(String)} reads it from the wallet again.
+	 *
+	 * @param theirDid Their DID.
+	 */
+	public void invalidate(String theirDid) {
+
+		ParamGuard.notNull(theirDid, "theirDid");
+
+		synchronized (this.lock) {
+
+			this.index.remove(theirDid);
+			if (this.changes != null) this.changes.put(theirDid, null);
+		}
+	}
+
+	/**
+	 * Removes all pairwise from the directory.
+	 */
+	public void invalidateAll() {
+
+		synchronized (this.lock) {
+
+			this.index = new ConcurrentHashMap<String, Entry>();
+		}
+	}
+
+	/**
+	 * Gets the number of indexed pairwise.
+	 *
+	 * @return The number of entries.
+	 */
+	public int size() {
+
+		return this.index.size();
+	}
+
+	/**
+	 * Gets the wallet backing the directory.
+	 *
+	 * @return The wallet.
+	 */
+	public Wallet getWallet() {
+
+		return this.wallet;
+	}
+}
@@ -0,0 +1,84 @@
+package org.hyperledger.indy.sdk.pairwise;
+
+import java.util.function.Function;
+
+import org.hyperledger.indy.sdk.json.JsonArrayView;
+import org.hyperledger.indy.sdk.json.JsonObjectView;
+import org.hyperledger.indy.sdk.json.JsonValue;
+
+/**
+ * pairwise.rs results
+ */
+
+/**
+ * Result classes for Pairwise operations.
+ */
+public final class PairwiseResults {
+
+	private PairwiseResults() {
+
+	}
+
+	/**
+	 * Lazy view of a pairwise returned by listPairwise or getPairwise.
+	 */
+	public static class PairwiseInfo extends JsonObjectView {
+
+		PairwiseInfo(JsonObjectView view) { super(view); }
+
+		/**
+		 * Gets my DID of the pairwise.
+		 *
+		 * @return My DID.
+		 */
+		public String getMyDid() { return getString("my_did"); }
+
+		/**
+		 * Gets their DID of the pairwise. Not present in the result of getPairwise.
+		 *
+		 * @return Their DID, or null if absent.
+		 */
+		public String getTheirDid() { return optString("their_did"); }
+
+		/**
+		 * Gets the metadata of the pairwise.
+		 *
+		 * @return The metadata, or null if absent.
+		 */
+		public String getMetadata() { return optString("metadata"); }
+	}
+
+	/*
+	 * PARSERS
+	 */
+
+	/**
+	 * listPairwise returns an array of JSON strings, so every element is parsed on access.
+	 */
+	private static final JsonArrayView.Mapper<PairwiseInfo> PAIRWISE_ELEMENT = new JsonArrayView.Mapper<PairwiseInfo>() {
+
+		@Override
+		public PairwiseInfo map(JsonValue value) {
+
+			return new PairwiseInfo(JsonObjectView.parse(value.asString()));
+		}
+	};
+
+	static final Function<String, JsonArrayView<PairwiseInfo>> PAIRWISE_LIST = new Function<String, JsonArrayView<PairwiseInfo>>() {
+
+		@Override
+		public JsonArrayView<PairwiseInfo> apply(String json) {
+
+			return JsonArrayView.parse(json, PAIRWISE_ELEMENT);
+		}
+	};
+
+	static final Function<String, PairwiseInfo> PAIRWISE = new Function<String, PairwiseInfo>() {
+
+		@Override
+		public PairwiseInfo apply(String json) {
+
+			return new PairwiseInfo(JsonObjectView.parse(json));
+		}
+	};
+}
@@ -0,0 +1,635 @@
+package org.hyperledger.indy.sdk.payments;
+
+import org.hyperledger.indy.sdk.IndyException;
+import org.hyperledger.indy.sdk.InvalidStructureException;
+import org.hyperledger.indy.sdk.ParamGuard;
+import org.hyperledger.indy.sdk.ledger.Ledger;
+import org.hyperledger.indy.sdk.ledger.LedgerInvalidTransactionException;
+import org.hyperledger.indy.sdk.ledger.RequestSubmitter;
+import org.hyperledger.indy.sdk.pool.Pool;
+import org.hyperledger.indy.sdk.wallet.Wallet;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Answers the questions of {@link Payments#getRequestInfo(String, String, String)} from a cached copy of
+ * all auth rules and the fee schedule of the ledger, so a write needs no GET_AUTH_RULE and GET_FEES
+ * round trips.
+ *
+ * The rules and fees are loaded together on first use and reloaded once they are older than the time
+ * to live, or after {@link #invalidate()}. Passing every submitted write to {@link #onWrite(String)}
+ * invalidates the cache when the write changes auth rules or fees.
+ *
+ * Requirements and prices are computed as libindy does: the price of a role constraint is the fee of
+ * the alias in its "fees" metadata, an AND constraint needs all of its branches and an OR constraint
+ * any of them, and the cheapest way the requester can satisfy the rule is returned. A rule is looked
+ * up by its exact old and new value first, then with "*" in place of the field, old and new value.
+ */
+public class AuthRuleAndFeeCache {
+
+    private static final String AUTH_RULE_TYPE = "120";
+    private static final String AUTH_RULES_TYPE = "122";
+    private static final String ANY = "*";
+
+    /**
+     * Loads the full GET_AUTH_RULE response and the fees.
+     */
+    interface Loader {
+
+        CompletableFuture<String> loadAuthRules() throws IndyException;
+
+        CompletableFuture<String> loadFees() throws IndyException;
+    }
+
+    private final Loader loader;
+    private final long ttlNanos;
+    private final String setFeesType;
+
+    private final AtomicLong loadCount = new AtomicLong();
+
+    /**
+     * The current snapshot and the load in flight. Guarded by this.
+     */
+    private Snapshot snapshot;
+    private CompletableFuture<Snapshot> loading;
+
+    /**
+     * Incremented by every invalidation, so a load started before it is not kept. Guarded by this.
+     */
+    private long generation;
+
+    /**
+     * Initializes a new cache loading the rules and fees from a pool.
+     *
+     * @param pool          The pool.
+     * @param wallet        The wallet used to build the fee request.
+     * @param submitterDid  (Optional) The DID of the read request sender.
+     * @param paymentMethod The payment method whose fees are used.
+     * @param setFeesType   (Optional) The transaction type the payment method uses to set fees, e.g. "20000"; writes
+     *                      of this type passed to {@link #onWrite(String)} invalidate the cache.
+     * @param ttl           How long the rules and fees are used before they are reloaded.
+     * @param unit          The unit of ttl.
+     */
+    public AuthRuleAndFeeCache(Pool pool, Wallet wallet, String submitterDid, String paymentMethod, String setFeesType, long ttl, TimeUnit unit) {
+
+        this(wallet, submitterDid, Ledger.submitter(pool), paymentMethod, setFeesType, ttl, unit);
+    }
+
+    /**
+     * Initializes a new cache loading the rules and fees with a submitter.
+     *
+     * @param wallet        The wallet used to build the fee request.
+     * @param submitterDid  (Optional) The DID of the read request sender.
+     * @param submitter     Submits the read requests.
+     * @param paymentMethod The payment method whose fees are used.
+     * @param setFeesType   (Optional) The transaction type the payment method uses to set fees, e.g. "20000"; writes
+     *                      of this type passed to {@link #onWrite(String)} invalidate the cache.
+     * @param ttl           How long the rules and fees are used before they are reloaded.
+     * @param unit          The unit of ttl.
+     */
+    public AuthRuleAndFeeCache(final Wallet wallet, final String submitterDid, final RequestSubmitter submitter, final String paymentMethod, String setFeesType, long ttl, TimeUnit unit) {
+
+        this(new Loader() {
+
+            @Override
+            public CompletableFuture<String> loadAuthRules() throws IndyException {
+
+                return Ledger.buildGetAuthRuleRequest(submitterDid, null, null, null, null, null).thenCompose(submit(submitter));
+            }
+
+            @Override
+            public CompletableFuture<String> loadFees() throws IndyException {
+
+                return Payments.buildGetTxnFeesRequest(wallet, submitterDid, paymentMethod).thenCompose(submit(submitter)).thenCompose(new Function<String, CompletableFuture<String>>() {
+
+                    @Override
+                    public CompletableFuture<String> apply(String response) {
+
+                        try {
+
+                            return Payments.parseGetTxnFeesResponse(paymentMethod, response);
+                        } catch (IndyException e) {
+
+                            return failed(e);
+                        }
+                    }
+                });
+            }
+        }, setFeesType, ttl, unit);
+
+        ParamGuard.notNull(wallet, "wallet");
+        ParamGuard.notNull(submitter, "submitter");
+        ParamGuard.notNullOrWhiteSpace(paymentMethod, "paymentMethod");
+    }
+
+    AuthRuleAndFeeCache(Loader loader, String setFeesType, long ttl, TimeUnit unit) {
+
+        ParamGuard.notNull(unit, "unit");
+        if (ttl <= 0) throw new IllegalArgumentException("A positive value must be provided for the 'ttl' parameter.");
+
+        this.loader = loader;
+        this.setFeesType = setFeesType;
+        this.ttlNanos = unit.toNanos(ttl);
+    }
+
+    private static Function<String, CompletableFuture<String>> submit(final RequestSubmitter submitter) {
+
+        return new Function<String, CompletableFuture<String>>() {
+
+            @Override
+            public CompletableFuture<String> apply(String request) {
+
+                try {
+
+                    return submitter.submitRequest(request);
+                } catch (IndyException e) {
+
+                    return failed(e);
+                }
+            }
+        };
+    }
+
+    private static <T> CompletableFuture<T> failed(Throwable e) {
+
+        CompletableFuture<T> future = new CompletableFuture<T>();
+        future.completeExceptionally(e);
+        return future;
+    }
+
+    /*
+     * QUERIES
+     */
+
+    /**
+     * Gets the requirements and the minimal price of an action, like {@link Payments#getRequestInfo(String, String, String)}
+     * for the rule returned by {@link Ledger#buildGetAuthRuleRequest(String, String, String, String, String, String)}.
+     *
+     * @param txnType           The transaction type, e.g. "1" for NYM.
+     * @param action            "ADD" or "EDIT".
+     * @param field             The transaction field.
+     * @param oldValue          (Optional) The old value of the field, for EDIT.
+     * @param newValue          (Optional) The new value of the field.
+     * @param requesterInfoJson The requester, in the format of {@link Payments#getRequestInfo(String, String, String)}.
+     * @return A future that resolves to the request info json, in the format of {@link Payments#getRequestInfo(String, String, String)}.
+     * The future fails with {@link TransactionNotAllowedException} if the requester cannot perform the action and
+     * with {@link LedgerInvalidTransactionException} if the ledger has no rule for it.
+     */
+    public CompletableFuture<String> getRequestInfo(final String txnType, final String action, final String field, final String oldValue, final String newValue, String requesterInfoJson) {
+
+        ParamGuard.notNullOrWhiteSpace(txnType, "txnType");
+        ParamGuard.notNullOrWhiteSpace(action, "action");
+        ParamGuard.notNull(requesterInfoJson, "requesterInfoJson");
+
+        final Requester requester;
+        try {
+
+            requester = Requester.parse(requesterInfoJson);
+        } catch (IndyException e) {
+
+            return failed(e);
+        }
+
+        return current().thenApply(new Function<Snapshot, String>() {
+
+            @Override
+            public String apply(Snapshot snapshot) {
+
+                try {
+
+                    return snapshot.requestInfo(txnType, action, field, oldValue, newValue, requester).toJson();
+                } catch (IndyException e) {
+
+                    throw new CompletionException(e);
+                }
+            }
+        });
+    }
+
+    /**
+     * Gets the fees of the ledger.
+     *
+     * @return A future that resolves to the fees json, as returned by {@link Payments#parseGetTxnFeesResponse(String, String)}.
+     */
+    public CompletableFuture<String> getFees() {
+
+        return current().thenApply(new Function<Snapshot, String>() {
+
+            @Override
+            public String apply(Snapshot snapshot) {
+
+                return new JSONObject(snapshot.fees).toString();
+            }
+        });
+    }
+
+    /*
+     * INVALIDATION
+     */
+
+    /**
+     * Drops the cached rules and fees; the next query reloads them.
+     */
+    public synchronized void invalidate() {
+
+        this.snapshot = null;
+        this.loading = null;
+        this.generation++;
+    }
+
+    /**
+     * Invalidates the cache if a submitted request changes auth rules or fees.
+     *
+     * @param requestJson The submitted request.
+     */
+    public void onWrite(String requestJson) {
+
+        JSONObject operation;
+        try {
+
+            operation = new JSONObject(requestJson).optJSONObject("operation");
+        } catch (JSONException e) {
+
+            return;
+        }
+
+        String type = operation != null ? operation.optString("type", null) : null;
+        if (AUTH_RULE_TYPE.equals(type) || AUTH_RULES_TYPE.equals(type) || (type != null && type.equals(this.setFeesType))) invalidate();
+    }
+
+    /**
+     * @return The number of times the rules and fees were loaded.
+     */
+    public long getLoadCount() {
+
+        return this.loadCount.get();
+    }
+
+    /*
+     * LOADING
+     */
+
+    private CompletableFuture<Snapshot> current() {
+
+        final CompletableFuture<Snapshot> load;
+        final long started;
+        synchronized (this) {
+
+            if (this.snapshot != null && ! this.snapshot.isExpired(System.nanoTime())) return CompletableFuture.completedFuture(this.snapshot);
+            if (this.loading != null) return this.loading;
+
+            load = this.loading = new CompletableFuture<Snapshot>();
+            started = this.generation;
+        }
+
+        this.loadCount.incrementAndGet();
+
+        try {
+
+            this.loader.loadAuthRules().thenCombine(this.loader.loadFees(), new BiFunction<String, String, Snapshot>() {
+
+                @Override
+                public Snapshot apply(String authRules, String fees) {
+
+                    try {
+
+                        return Snapshot.parse(authRules, fees, System.nanoTime() + ttlNanos);
+                    } catch (IndyException e) {
+
+                        throw new CompletionException(e);
+                    }
+                }
+            }).whenComplete(new BiConsumer<Snapshot, Throwable>() {
+
+                @Override
+                public void accept(Snapshot loaded, Throwable e) {
+
+                    loaded(load, started, loaded, e);
+                }
+            });
+        } catch (Throwable e) {
+
+            loaded(load, started, null, e);
+        }
+
+        return load;
+    }
+
+    private void loaded(CompletableFuture<Snapshot> load, long started, Snapshot loaded, Throwable e) {
+
+        synchronized (this) {
+
+            if (this.loading == load) this.loading = null;
+            if (e == null && started == this.generation) this.snapshot = loaded;
+        }
+
+        if (e == null) load.complete(loaded);
+        else load.completeExceptionally(e instanceof CompletionException && e.getCause() != null ? e.getCause() : e);
+    }
+
+    /*
+     * MODEL
+     */
+
+    /**
+     * The rules and fees loaded at one time.
+     */
+    static final class Snapshot {
+
+        private final Map<String, Constraint> rules;
+        private final Map<String, Long> fees;
+        private final long expiresAt;
+
+        private Snapshot(Map<String, Constraint> rules, Map<String, Long> fees, long expiresAt) {
+
+            this.rules = rules;
+            this.fees = fees;
+            this.expiresAt = expiresAt;
+        }
+
+        static Snapshot parse(String getAuthRuleResponseJson, String feesJson, long expiresAt) throws IndyException {
+
+            try {
+
+                JSONObject result = new JSONObject(getAuthRuleResponseJson).getJSONObject("result");
+                JSONArray data = result.getJSONArray("data");
+
+                Map<String, Constraint> rules = new HashMap<String, Constraint>();
+                for (int i = 0; i < data.length(); i++) {
+
+                    JSONObject rule = data.getJSONObject(i);
+                    rules.put(key(rule.getString("auth_type"), rule.getString("auth_action"), rule.optString("field", ANY), value(rule, "old_value"), value(rule, "new_value")), Constraint.parse(rule.getJSONObject("constraint")));
+                }
+
+                JSONObject feesObject = new JSONObject(feesJson);
+                Map<String, Long> fees = new HashMap<String, Long>();
+                for (String alias : feesObject.keySet()) fees.put(alias, feesObject.getLong(alias));
+
+                return new Snapshot(rules, fees, expiresAt);
+            } catch (JSONException e) {
+
+                throw new InvalidStructureException();
+            }
+        }
+
+        private static String value(JSONObject rule, String name) {
+
+            return rule.isNull(name) ? null : rule.getString(name);
+        }
+
+        private static String key(String txnType, String action, String field, String oldValue, String newValue) {
+
+            return action + "--" + txnType + "--" + (field != null ? field : ANY) + "--" + (oldValue != null ? oldValue : ANY) + "--" + (newValue != null ? newValue : ANY);
+        }
+
+        boolean isExpired(long now) {
+
+            return now - this.expiresAt >= 0;
+        }
+
+        Constraint rule(String txnType, String action, String field, String oldValue, String newValue) {
+
+            String[] fields = {field, ANY};
+            String[] oldValues = {oldValue, ANY};
+            String[] newValues = {newValue, ANY};
+
+            for (String f : fields) for (String o : oldValues) for (String n : newValues) {
+
+                Constraint constraint = this.rules.get(key(txnType, action, f, o, n));
+                if (constraint != null) return constraint;
+            }
+
+            return null;
+        }
+
+        RequestInfo requestInfo(String txnType, String action, String field, String oldValue, String newValue, Requester requester) throws IndyException {
+
+            Constraint constraint = rule(txnType, action, field, oldValue, newValue);
+            if (constraint == null) throw new LedgerInvalidTransactionException();
+
+            RequestInfo cheapest = null;
+            for (RequestInfo info : constraint.evaluate(requester, this.fees)) if (cheapest == null || info.price < cheapest.price) cheapest = info;
+
+            if (cheapest == null) throw new InvalidStructureException();
+            return cheapest;
+        }
+    }
+
+    /**
+     * The requester of an action.
+     */
+    static final class Requester {
+
+        final String role;
+        final long sigCount;
+        final boolean isOwner;
+        final boolean isOffLedgerSignature;
+
+        private Requester(String role, long sigCount, boolean isOwner, boolean isOffLedgerSignature) {
+
+            this.role = role;
+            this.sigCount = sigCount;
+            this.isOwner = isOwner;
+            this.isOffLedgerSignature = isOffLedgerSignature;
+        }
+
+        static Requester parse(String requesterInfoJson) throws IndyException {
+
+            try {
+
+                JSONObject json = new JSONObject(requesterInfoJson);
+                return new Requester(json.isNull("role") ? null : json.getString("role"), json.getLong("sig_count"), json.optBoolean("is_owner"), json.optBoolean("is_off_ledger_signature"));
+            } catch (JSONException e) {
+
+                throw new InvalidStructureException();
+            }
+        }
+    }
+
+    /**
+     * A price and the signatures needed to pay it.
+     */
+    static final class RequestInfo {
+
+        final long price;
+        final List<JSONObject> requirements;
+
+        RequestInfo(long price, List<JSONObject> requirements) {
+
+            this.price = price;
+            this.requirements = requirements;
+        }
+
+        String toJson() {
+
+            return new JSONObject().put("price", this.price).put("requirements", new JSONArray(this.requirements)).toString();
+        }
+    }
+
+    /**
+     * An auth rule constraint.
+     */
+    abstract static class Constraint {
+
+        /**
+         * @return The ways the requester can satisfy the constraint, not empty.
+         * @throws TransactionNotAllowedException Thrown if the requester cannot satisfy it.
+         */
+        abstract List<RequestInfo> evaluate(Requester requester, Map<String, Long> fees) throws IndyException;
+
+        static Constraint parse(JSONObject json) throws IndyException {
+
+            String id = json.getString("constraint_id");
+            if ("ROLE".equals(id)) return new RoleConstraint(json);
+            if ("FORBIDDEN".equals(id)) return new ForbiddenConstraint();
+
+            JSONArray branchesJson = json.getJSONArray("auth_constraints");
+            List<Constraint> branches = new ArrayList<Constraint>(branchesJson.length());
+            for (int i = 0; i < branchesJson.length(); i++) branches.add(parse(branchesJson.getJSONObject(i)));
+
+            if ("AND".equals(id)) return new AndConstraint(branches);
+            if ("OR".equals(id)) return new OrConstraint(branches);
+
+            throw new InvalidStructureException();
+        }
+    }
+
+    private static final class RoleConstraint extends Constraint {
+
+        private final String role;
+        private final long sigCount;
+        private final boolean needToBeOwner;
+        private final boolean offLedgerSignature;
+        private final String feeAlias;
+
+        private RoleConstraint(JSONObject json) {
+
+            this.role = json.isNull("role") ? null : json.getString("role");
+            this.sigCount = json.getLong("sig_count");
+            this.needToBeOwner = json.optBoolean("need_to_be_owner");
+            this.offLedgerSignature = json.optBoolean("off_ledger_signature");
+
+            JSONObject metadata = json.optJSONObject("metadata");
+            this.feeAlias = metadata != null ? metadata.optString("fees", null) : null;
+        }
+
+        private boolean isMetBy(Requester requester) {
+
+            if (this.sigCount == 0) return true;
+
+            if (this.role != null && ! ANY.equals(this.role) && ! this.role.equals(requester.role)) return false;
+            if (this.sigCount > requester.sigCount) return false;
+            if (! this.offLedgerSignature && requester.isOffLedgerSignature) return false;
+            if (this.needToBeOwner && ! requester.isOwner) return false;
+
+            return true;
+        }
+
+        @Override
+        List<RequestInfo> evaluate(Requester requester, Map<String, Long> fees) throws IndyException {
+
+            if (! isMetBy(requester)) throw new TransactionNotAllowedException();
+
+            Long price = this.feeAlias != null ? fees.get(this.feeAlias) : null;
+
+            JSONObject requirement = new JSONObject()
+                    .put("role", this.role != null ? this.role : JSONObject.NULL)
+                    .put("sig_count", this.sigCount)
+                    .put("need_to_be_owner", this.needToBeOwner);
+            if (this.offLedgerSignature) requirement.put("off_ledger_signature", true);
+
+            return Collections.singletonList(new RequestInfo(price != null ? price : 0, Collections.singletonList(requirement)));
+        }
+    }
+
+    private static final class AndConstraint extends Constraint {
+
+        private final List<Constraint> branches;
+
+        private AndConstraint(List<Constraint> branches) {
+
+            this.branches = branches;
+        }
+
+        @Override
+        List<RequestInfo> evaluate(Requester requester, Map<String, Long> fees) throws IndyException {
+
+            List<RequestInfo> infos = new ArrayList<RequestInfo>();
+            for (Constraint branch : this.branches) {
+
+                try {
+
+                    infos.addAll(branch.evaluate(requester, fees));
+                } catch (IndyException e) {
+
+                    throw new TransactionNotAllowedException();
+                }
+            }
+
+            if (infos.isEmpty()) throw new InvalidStructureException();
+
+            long price = infos.get(0).price;
+            List<JSONObject> requirements = new ArrayList<JSONObject>();
+            for (RequestInfo info : infos) {
+
+                if (info.price != price) throw new InvalidStructureException();
+                requirements.addAll(info.requirements);
+            }
+
+            return Collections.singletonList(new RequestInfo(price, requirements));
+        }
+    }
+
+    private static final class OrConstraint extends Constraint {
+
+        private final List<Constraint> branches;
+
+        private OrConstraint(List<Constraint> branches) {
+
+            this.branches = branches;
+        }
+
+        @Override
+        List<RequestInfo> evaluate(Requester requester, Map<String, Long> fees) throws IndyException {
+
+            List<RequestInfo> infos = new ArrayList<RequestInfo>();
+            for (Constraint branch : this.branches) {
+
+                try {
+
+                    infos.addAll(branch.evaluate(requester, fees));
+                } catch (IndyException e) {
+
+                    // this branch is not satisfied; another one may be
+                }
+            }
+
+            if (infos.isEmpty()) throw new TransactionNotAllowedException();
+
+            return infos;
+        }
+    }
+
+    private static final class ForbiddenConstraint extends Constraint {
+
+        @Override
+        List<RequestInfo> evaluate(Requester requester, Map<String, Long> fees) throws IndyException {
+
+            throw new TransactionNotAllowedException();
+        }
+    }
+}
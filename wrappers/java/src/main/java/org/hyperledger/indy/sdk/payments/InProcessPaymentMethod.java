@@ -0,0 +1,854 @@
+package org.hyperledger.indy.sdk.payments;
+
+import org.hyperledger.indy.sdk.IndyException;
+import org.hyperledger.indy.sdk.InvalidStateException;
+import org.hyperledger.indy.sdk.InvalidStructureException;
+import org.hyperledger.indy.sdk.payments.PaymentsResults.ParseGetPaymentSourcesWithFromResponseResult;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link PaymentMethod} that keeps its ledger in process memory, so fee and payment flows can be run
+ * and load-tested without a ledger. It is a stand-in for tests only: nothing is persisted and the
+ * address signatures are not secure.
+ *
+ * Requests are checked when they are built, but only take effect when their response is parsed:
+ * the parse function stands in for the ledger writing the transaction, so a request that is built and
+ * never submitted spends nothing. The built request itself can be passed to the matching parse
+ * function as the response. At most {@code maxPending} built requests wait for their response; the
+ * oldest are dropped beyond that, and parsing their response fails with {@link InvalidStructureException}.
+ * Fees set with {@link #buildSetTxnFeesRequest} apply at once, as there is no parse function for them.
+ *
+ * Json is parsed on the calling thread. The ledger state is owned by a single worker thread, which
+ * applies the queued operations in batches, so concurrent callers do not contend on a lock and the
+ * worker is woken once per batch rather than once per operation. Sources are held in primitive-keyed
+ * maps by sequence number.
+ *
+ * <pre>
+ * InProcessPaymentMethod method = new InProcessPaymentMethod();
+ * Payments.registerPaymentMethod(InProcessPaymentMethod.DEFAULT_METHOD, method).get();
+ * </pre>
+ *
+ * Addresses have the form "pay:{method}:{n}"; sources and receipts have the form "txo:{method}:{seqNo}".
+ */
+public class InProcessPaymentMethod implements PaymentMethod, AutoCloseable {
+
+    /**
+     * The payment method name used by the default constructor.
+     */
+    public static final String DEFAULT_METHOD = "java";
+
+    private static final int DEFAULT_PAGE_SIZE = 1000;
+    private static final int DEFAULT_MAX_PENDING = 100000;
+    private static final int MAX_BATCH = 256;
+
+    private static final String MINT_TYPE = "10000";
+    private static final String PAYMENT_TYPE = "10001";
+    private static final String GET_SOURCES_TYPE = "10002";
+    private static final String SET_FEES_TYPE = "20000";
+    private static final String GET_FEES_TYPE = "20001";
+    private static final String VERIFY_PAYMENT_TYPE = "10004";
+
+    private final String addressPrefix;
+    private final String sourcePrefix;
+    private final int pageSize;
+    private final int maxPending;
+
+    private final AtomicLong addresses = new AtomicLong();
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong operationCount = new AtomicLong();
+    private final AtomicLong batchCount = new AtomicLong();
+
+    private final BlockingQueue<Operation<?>> queue = new LinkedBlockingQueue<Operation<?>>();
+    private final Operation<Void> stop = new Operation<Void>() {
+
+        @Override
+        Void apply() {
+
+            return null;
+        }
+    };
+    private final Thread worker;
+    private volatile boolean closed;
+
+    /*
+     * Ledger state, only accessed by the worker.
+     */
+
+    private final LongMap<Source> sources = new LongMap<Source>();
+    private final Map<String, LongMap<Source>> unspent = new HashMap<String, LongMap<Source>>();
+    private final Map<Long, Request<?>> pending = new LinkedHashMap<Long, Request<?>>() {
+
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Request<?>> eldest) {
+
+            return size() > maxPending;
+        }
+    };
+    private final Map<String, Long> fees = new HashMap<String, Long>();
+    private long seqNo;
+
+    /**
+     * Initializes a new InProcessPaymentMethod for the payment method {@link #DEFAULT_METHOD}.
+     */
+    public InProcessPaymentMethod() {
+
+        this(DEFAULT_METHOD, DEFAULT_PAGE_SIZE);
+    }
+
+    /**
+     * Initializes a new InProcessPaymentMethod.
+     *
+     * @param paymentMethod The payment method name it is registered under.
+     * @param pageSize      The maximum number of sources returned per page.
+     */
+    public InProcessPaymentMethod(String paymentMethod, int pageSize) {
+
+        this(paymentMethod, pageSize, DEFAULT_MAX_PENDING);
+    }
+
+    /**
+     * Initializes a new InProcessPaymentMethod.
+     *
+     * @param paymentMethod The payment method name it is registered under.
+     * @param pageSize      The maximum number of sources returned per page.
+     * @param maxPending    The maximum number of built requests kept until their response is parsed.
+     */
+    public InProcessPaymentMethod(String paymentMethod, int pageSize, int maxPending) {
+
+        if (pageSize < 1) throw new IllegalArgumentException("pageSize must be positive");
+        if (maxPending < 1) throw new IllegalArgumentException("maxPending must be positive");
+
+        this.addressPrefix = "pay:" + paymentMethod + ":";
+        this.sourcePrefix = "txo:" + paymentMethod + ":";
+        this.pageSize = pageSize;
+        this.maxPending = maxPending;
+
+        this.worker = new Thread(new Runnable() {
+
+            @Override
+            public void run() {
+
+                work();
+            }
+        }, "indy-payment-" + paymentMethod);
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    /*
+     * STATISTICS
+     */
+
+    /**
+     * @return The number of ledger operations applied.
+     */
+    public long getOperationCount() {
+
+        return this.operationCount.get();
+    }
+
+    /**
+     * @return The number of batches the ledger operations were applied in.
+     */
+    public long getBatchCount() {
+
+        return this.batchCount.get();
+    }
+
+    /*
+     * PAYMENT METHOD
+     */
+
+    @Override
+    public CompletableFuture<String> createPaymentAddress(int walletHandle, String config) {
+
+        return CompletableFuture.completedFuture(this.addressPrefix + this.addresses.incrementAndGet());
+    }
+
+    @Override
+    public CompletableFuture<String> addRequestFees(int walletHandle, String submitterDid, String reqJson, String inputsJson, String outputsJson, String extra) throws IndyException {
+
+        final long[] inputs = parseInputs(inputsJson);
+        final Output[] outputs = parseOutputs(outputsJson);
+
+        final JSONObject request;
+        try {
+
+            request = new JSONObject(reqJson);
+        } catch (JSONException e) {
+
+            throw new InvalidStructureException();
+        }
+
+        // Ledger request ids are positive, the ids generated here negative
+        long ledgerReqId = request.optLong("reqId");
+        if (request.has("reqId") && ledgerReqId <= 0) throw new InvalidStructureException();
+
+        final long reqId = request.has("reqId") ? ledgerReqId : nextRequestId();
+        JSONObject operation = request.optJSONObject("operation");
+        final String txnType = operation != null ? operation.optString("type", null) : null;
+
+        request.put("reqId", reqId);
+        request.put("fees", new JSONObject().put("inputs", new JSONArray(inputsJson)).put("outputs", new JSONArray(outputsJson)));
+
+        final String extraJson = extra;
+        return submit(new Operation<String>() {
+
+            @Override
+            String apply() throws IndyException {
+
+                check(inputs, outputs, fee(txnType), true);
+                pending.put(reqId, new Request<String>(String.class) {
+
+                    @Override
+                    String apply() throws IndyException {
+
+                        return transfer(inputs, outputs, fee(txnType), extraJson, true);
+                    }
+                });
+
+                return request.toString();
+            }
+        });
+    }
+
+    @Override
+    public CompletableFuture<String> parseResponseWithFees(String respJson) throws IndyException {
+
+        return parse(respJson, String.class);
+    }
+
+    @Override
+    public CompletableFuture<String> buildGetPaymentSourcesRequest(int walletHandle, String submitterDid, final String paymentAddress, final long from) throws IndyException {
+
+        final long reqId = nextRequestId();
+
+        return submit(new Operation<String>() {
+
+            @Override
+            String apply() {
+
+                pending.put(reqId, new Request<ParseGetPaymentSourcesWithFromResponseResult>(ParseGetPaymentSourcesWithFromResponseResult.class) {
+
+                    @Override
+                    ParseGetPaymentSourcesWithFromResponseResult apply() {
+
+                        return page(paymentAddress, from);
+                    }
+                });
+
+                return request(reqId, new JSONObject()
+                        .put("type", GET_SOURCES_TYPE)
+                        .put("address", paymentAddress)
+                        .put("from", from));
+            }
+        });
+    }
+
+    @Override
+    public CompletableFuture<ParseGetPaymentSourcesWithFromResponseResult> parseGetPaymentSourcesResponse(String respJson) throws IndyException {
+
+        return parse(respJson, ParseGetPaymentSourcesWithFromResponseResult.class);
+    }
+
+    @Override
+    public CompletableFuture<String> buildPaymentRequest(int walletHandle, String submitterDid, final String inputsJson, final String outputsJson, final String extra) throws IndyException {
+
+        final long[] inputs = parseInputs(inputsJson);
+        final Output[] outputs = parseOutputs(outputsJson);
+        final long reqId = nextRequestId();
+
+        return submit(new Operation<String>() {
+
+            @Override
+            String apply() throws IndyException {
+
+                check(inputs, outputs, 0, true);
+                pending.put(reqId, new Request<String>(String.class) {
+
+                    @Override
+                    String apply() throws IndyException {
+
+                        return transfer(inputs, outputs, 0, extra, true);
+                    }
+                });
+
+                return request(reqId, new JSONObject()
+                        .put("type", PAYMENT_TYPE)
+                        .put("inputs", new JSONArray(inputsJson))
+                        .put("outputs", new JSONArray(outputsJson)));
+            }
+        });
+    }
+
+    @Override
+    public CompletableFuture<String> parsePaymentResponse(String respJson) throws IndyException {
+
+        return parse(respJson, String.class);
+    }
+
+    @Override
+    public CompletableFuture<String> buildMintRequest(int walletHandle, String submitterDid, final String outputsJson, final String extra) throws IndyException {
+
+        final Output[] outputs = parseOutputs(outputsJson);
+        final long reqId = nextRequestId();
+
+        return submit(new Operation<String>() {
+
+            @Override
+            String apply() throws IndyException {
+
+                pending.put(reqId, new Request<String>(String.class) {
+
+                    @Override
+                    String apply() throws IndyException {
+
+                        return transfer(new long[0], outputs, 0, extra, false);
+                    }
+                });
+
+                return request(reqId, new JSONObject()
+                        .put("type", MINT_TYPE)
+                        .put("outputs", new JSONArray(outputsJson)));
+            }
+        });
+    }
+
+    @Override
+    public CompletableFuture<String> buildSetTxnFeesRequest(int walletHandle, String submitterDid, final String feesJson) throws IndyException {
+
+        final Map<String, Long> newFees = new HashMap<String, Long>();
+        try {
+
+            JSONObject json = new JSONObject(feesJson);
+            for (String txnType : json.keySet()) {
+
+                long fee = json.getLong(txnType);
+                if (fee < 0) throw new InvalidStructureException();
+
+                newFees.put(txnType, fee);
+            }
+        } catch (JSONException e) {
+
+            throw new InvalidStructureException();
+        }
+
+        final long reqId = nextRequestId();
+
+        return submit(new Operation<String>() {
+
+            @Override
+            String apply() {
+
+                fees.putAll(newFees);
+
+                return request(reqId, new JSONObject()
+                        .put("type", SET_FEES_TYPE)
+                        .put("fees", new JSONObject(feesJson)));
+            }
+        });
+    }
+
+    @Override
+    public CompletableFuture<String> buildGetTxnFeesRequest(int walletHandle, String submitterDid) throws IndyException {
+
+        final long reqId = nextRequestId();
+
+        return submit(new Operation<String>() {
+
+            @Override
+            String apply() {
+
+                pending.put(reqId, new Request<String>(String.class) {
+
+                    @Override
+                    String apply() {
+
+                        return new JSONObject(fees).toString();
+                    }
+                });
+
+                return request(reqId, new JSONObject().put("type", GET_FEES_TYPE));
+            }
+        });
+    }
+
+    @Override
+    public CompletableFuture<String> parseGetTxnFeesResponse(String respJson) throws IndyException {
+
+        return parse(respJson, String.class);
+    }
+
+    @Override
+    public CompletableFuture<String> buildVerifyPaymentRequest(int walletHandle, String submitterDid, final String receipt) throws IndyException {
+
+        final long source = parseSource(receipt);
+        final long reqId = nextRequestId();
+
+        return submit(new Operation<String>() {
+
+            @Override
+            String apply() throws IndyException {
+
+                if (! sources.containsKey(source)) throw new PaymentSourceDoesNotExistException();
+
+                pending.put(reqId, new Request<String>(String.class) {
+
+                    @Override
+                    String apply() throws IndyException {
+
+                        Source output = sources.get(source);
+                        if (output == null) throw new PaymentSourceDoesNotExistException();
+
+                        return output.txn.info();
+                    }
+                });
+
+                return request(reqId, new JSONObject()
+                        .put("type", VERIFY_PAYMENT_TYPE)
+                        .put("receipt", receipt));
+            }
+        });
+    }
+
+    @Override
+    public CompletableFuture<String> parseVerifyPaymentResponse(String respJson) throws IndyException {
+
+        return parse(respJson, String.class);
+    }
+
+    @Override
+    public CompletableFuture<byte[]> signWithAddress(int walletHandle, String address, byte[] message) {
+
+        return CompletableFuture.completedFuture(signature(address, message));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> verifyWithAddress(String address, byte[] message, byte[] signature) {
+
+        return CompletableFuture.completedFuture(MessageDigest.isEqual(signature(address, message), signature));
+    }
+
+    /**
+     * Stops the worker. Operations that have not been applied yet fail with {@link InvalidStateException}.
+     */
+    @Override
+    public void close() throws InterruptedException {
+
+        if (this.closed) return;
+
+        this.closed = true;
+        this.queue.add(this.stop);
+        this.worker.join();
+
+        failPending();
+    }
+
+    /*
+     * WORKER
+     */
+
+    private <T> CompletableFuture<T> submit(Operation<T> operation) throws IndyException {
+
+        if (this.closed) throw new InvalidStateException();
+
+        this.queue.add(operation);
+        if (this.closed && this.queue.remove(operation)) throw new InvalidStateException();
+
+        return operation.future;
+    }
+
+    private void work() {
+
+        List<Operation<?>> batch = new ArrayList<Operation<?>>(MAX_BATCH);
+        boolean stopped = false;
+
+        while (! stopped) {
+
+            try {
+
+                batch.add(this.queue.take());
+            } catch (InterruptedException e) {
+
+                break;
+            }
+
+            this.queue.drainTo(batch, MAX_BATCH - 1);
+
+            for (Operation<?> operation : batch) {
+
+                if (operation == this.stop) stopped = true;
+                else operation.run();
+            }
+
+            this.batchCount.incrementAndGet();
+            this.operationCount.addAndGet(stopped ? batch.size() - 1 : batch.size());
+
+            for (Operation<?> operation : batch) operation.complete();
+
+            batch.clear();
+        }
+
+        failPending();
+    }
+
+    private void failPending() {
+
+        Operation<?> operation;
+        while ((operation = this.queue.poll()) != null) operation.future.completeExceptionally(new InvalidStateException());
+    }
+
+    /*
+     * LEDGER
+     */
+
+    private long fee(String txnType) {
+
+        Long fee = txnType != null ? this.fees.get(txnType) : null;
+
+        return fee != null ? fee : 0;
+    }
+
+    /**
+     * Checks that the inputs are unspent and balance the outputs and fee, without changing the ledger.
+     */
+    private void check(long[] inputs, Output[] outputs, long fee, boolean balanced) throws IndyException {
+
+        long total = 0;
+        for (long input : inputs) {
+
+            Source source = this.sources.get(input);
+            if (source == null || source.spent) throw new PaymentSourceDoesNotExistException();
+
+            total += source.amount;
+        }
+
+        long required = fee;
+        for (Output output : outputs) required += output.amount;
+
+        if (balanced && total < required) throw new InsufficientFundsException();
+        if (balanced && total > required) throw new ExtraFundsException();
+    }
+
+    /**
+     * Spends the inputs and creates the outputs.
+     *
+     * @return The receipts of the outputs.
+     */
+    private String transfer(long[] inputs, Output[] outputs, long fee, String extra, boolean balanced) throws IndyException {
+
+        check(inputs, outputs, fee, balanced);
+
+        Txn txn = new Txn(inputs, outputs.length, extra);
+
+        for (long input : inputs) {
+
+            Source source = this.sources.get(input);
+            source.spent = true;
+
+            LongMap<Source> owned = this.unspent.get(source.address);
+            owned.remove(input);
+            if (owned.isEmpty()) this.unspent.remove(source.address);
+        }
+
+        JSONArray receipts = new JSONArray();
+        for (int i = 0; i < outputs.length; i++) {
+
+            Source source = new Source(++this.seqNo, outputs[i].recipient, outputs[i].amount, txn);
+            txn.outputs[i] = source;
+
+            this.sources.put(source.seqNo, source);
+
+            LongMap<Source> owned = this.unspent.get(source.address);
+            if (owned == null) this.unspent.put(source.address, owned = new LongMap<Source>());
+            owned.put(source.seqNo, source);
+
+            receipts.put(new JSONObject()
+                    .put("receipt", this.sourcePrefix + source.seqNo)
+                    .put("recipient", source.address)
+                    .put("amount", source.amount)
+                    .put("extra", extra != null ? extra : JSONObject.NULL));
+        }
+
+        return receipts.toString();
+    }
+
+    private ParseGetPaymentSourcesWithFromResponseResult page(String address, long from) {
+
+        LongMap<Source> owned = this.unspent.get(address);
+        long[] seqNos = owned != null ? owned.sortedKeys() : new long[0];
+
+        int start = 0;
+        if (from > 0) {
+
+            start = Arrays.binarySearch(seqNos, from);
+            if (start < 0) start = - start - 1;
+        }
+
+        int end = Math.min(seqNos.length, start + this.pageSize);
+
+        JSONArray page = new JSONArray();
+        for (int i = start; i < end; i++) {
+
+            Source source = owned.get(seqNos[i]);
+            page.put(new JSONObject()
+                    .put("source", this.sourcePrefix + source.seqNo)
+                    .put("paymentAddress", source.address)
+                    .put("amount", source.amount)
+                    .put("extra", source.txn.extra != null ? source.txn.extra : JSONObject.NULL));
+        }
+
+        return new ParseGetPaymentSourcesWithFromResponseResult(page.toString(), end < seqNos.length ? seqNos[end] : -1);
+    }
+
+    private <T> CompletableFuture<T> parse(String respJson, final Class<T> type) throws IndyException {
+
+        final long reqId;
+        try {
+
+            JSONObject response = new JSONObject(respJson);
+            JSONObject result = response.optJSONObject("result");
+
+            if (response.has("reqId")) reqId = response.getLong("reqId");
+            else if (result != null && result.has("reqId")) reqId = result.getLong("reqId");
+            else throw new InvalidStructureException();
+        } catch (JSONException e) {
+
+            throw new InvalidStructureException();
+        }
+
+        return submit(new Operation<T>() {
+
+            @Override
+            T apply() throws IndyException {
+
+                Request<?> request = pending.get(reqId);
+                if (request == null || request.type != type) throw new InvalidStructureException();
+
+                pending.remove(reqId);
+
+                return type.cast(request.apply());
+            }
+        });
+    }
+
+    /**
+     * Generates the id of a request built here. Generated ids are negative, so they never collide with the
+     * positive ids of the ledger requests passed to {@link #addRequestFees}.
+     */
+    private long nextRequestId() {
+
+        return this.requests.decrementAndGet();
+    }
+
+    private static String request(long reqId, JSONObject operation) {
+
+        return new JSONObject().put("reqId", reqId).put("operation", operation).toString();
+    }
+
+    /*
+     * JSON
+     */
+
+    private long parseSource(String source) throws IndyException {
+
+        if (source == null || ! source.startsWith(this.sourcePrefix)) throw new IncompatiblePaymentException();
+
+        try {
+
+            return Long.parseLong(source.substring(this.sourcePrefix.length()));
+        } catch (NumberFormatException e) {
+
+            throw new InvalidStructureException();
+        }
+    }
+
+    private long[] parseInputs(String inputsJson) throws IndyException {
+
+        long[] inputs;
+        try {
+
+            JSONArray json = new JSONArray(inputsJson);
+            inputs = new long[json.length()];
+            for (int i = 0; i < inputs.length; i++) inputs[i] = parseSource(json.getString(i));
+        } catch (JSONException e) {
+
+            throw new InvalidStructureException();
+        }
+
+        long[] sorted = inputs.clone();
+        Arrays.sort(sorted);
+        for (int i = 1; i < sorted.length; i++) if (sorted[i] == sorted[i - 1]) throw new InvalidStructureException();
+
+        return inputs;
+    }
+
+    private Output[] parseOutputs(String outputsJson) throws IndyException {
+
+        try {
+
+            JSONArray json = new JSONArray(outputsJson);
+            Output[] outputs = new Output[json.length()];
+            for (int i = 0; i < outputs.length; i++) {
+
+                JSONObject output = json.getJSONObject(i);
+                String recipient = output.getString("recipient");
+                long amount = output.getLong("amount");
+
+                if (! recipient.startsWith(this.addressPrefix)) throw new IncompatiblePaymentException();
+                if (amount <= 0) throw new InvalidStructureException();
+
+                outputs[i] = new Output(recipient, amount);
+            }
+
+            return outputs;
+        } catch (JSONException e) {
+
+            throw new InvalidStructureException();
+        }
+    }
+
+    private static byte[] signature(String address, byte[] message) {
+
+        try {
+
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(address.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(message);
+
+            return digest.digest();
+        } catch (NoSuchAlgorithmException e) {
+
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /*
+     * TYPES
+     */
+
+    private abstract static class Operation<T> {
+
+        final CompletableFuture<T> future = new CompletableFuture<T>();
+
+        private T result;
+        private Throwable error;
+
+        abstract T apply() throws IndyException;
+
+        void run() {
+
+            try {
+
+                this.result = apply();
+            } catch (Throwable e) {
+
+                this.error = e;
+            }
+        }
+
+        void complete() {
+
+            if (this.error != null) this.future.completeExceptionally(this.error);
+            else this.future.complete(this.result);
+        }
+    }
+
+    /**
+     * A built request whose response has not been parsed yet.
+     */
+    private abstract static class Request<T> {
+
+        final Class<T> type;
+
+        Request(Class<T> type) {
+
+            this.type = type;
+        }
+
+        abstract T apply() throws IndyException;
+    }
+
+    private static final class Output {
+
+        final String recipient;
+        final long amount;
+
+        Output(String recipient, long amount) {
+
+            this.recipient = recipient;
+            this.amount = amount;
+        }
+    }
+
+    private static final class Source {
+
+        final long seqNo;
+        final String address;
+        final long amount;
+        final Txn txn;
+        boolean spent;
+
+        Source(long seqNo, String address, long amount, Txn txn) {
+
+            this.seqNo = seqNo;
+            this.address = address;
+            this.amount = amount;
+            this.txn = txn;
+        }
+    }
+
+    private final class Txn {
+
+        final long[] inputs;
+        final Source[] outputs;
+        final String extra;
+
+        Txn(long[] inputs, int outputs, String extra) {
+
+            this.inputs = inputs;
+            this.outputs = new Source[outputs];
+            this.extra = extra;
+        }
+
+        String info() {
+
+            JSONArray sources = new JSONArray();
+            for (long input : this.inputs) sources.put(sourcePrefix + input);
+
+            JSONArray receipts = new JSONArray();
+            for (Source output : this.outputs) {
+
+                receipts.put(new JSONObject()
+                        .put("receipt", sourcePrefix + output.seqNo)
+                        .put("recipient", output.address)
+                        .put("amount", output.amount));
+            }
+
+            return new JSONObject()
+                    .put("sources", sources)
+                    .put("receipts", receipts)
+                    .put("extra", this.extra != null ? this.extra : JSONObject.NULL)
+                    .toString();
+        }
+    }
+}
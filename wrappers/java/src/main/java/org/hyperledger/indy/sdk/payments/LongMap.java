@@ -0,0 +1,145 @@
+package org.hyperledger.indy.sdk.payments;
+
+import java.util.Arrays;
+
+/**
+ * Hash map from primitive long keys to non-null values, with open addressing and linear probing.
+ * Keys are not boxed, so maps with millions of entries keyed by sequence number stay compact.
+ *
+ * Not thread-safe.
+ *
+ * @param <V> The value type.
+ */
+final class LongMap<V> {
+
+    private static final int MIN_CAPACITY = 16;
+
+    private long[] keys;
+    private Object[] values;
+    private int size;
+
+    LongMap() {
+
+        this.keys = new long[MIN_CAPACITY];
+        this.values = new Object[MIN_CAPACITY];
+    }
+
+    private static int hash(long key) {
+
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private int slot(long key) {
+
+        int mask = this.keys.length - 1;
+        int i = hash(key) & mask;
+        while (this.values[i] != null && this.keys[i] != key) i = (i + 1) & mask;
+
+        return i;
+    }
+
+    int size() {
+
+        return this.size;
+    }
+
+    boolean isEmpty() {
+
+        return this.size == 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    V get(long key) {
+
+        return (V) this.values[slot(key)];
+    }
+
+    boolean containsKey(long key) {
+
+        return this.values[slot(key)] != null;
+    }
+
+    /**
+     * @return The previous value, or null.
+     */
+    @SuppressWarnings("unchecked")
+    V put(long key, V value) {
+
+        if (value == null) throw new NullPointerException("value");
+
+        int i = slot(key);
+        V previous = (V) this.values[i];
+
+        this.keys[i] = key;
+        this.values[i] = value;
+
+        if (previous == null && ++this.size * 4 > this.keys.length * 3) resize(this.keys.length * 2);
+
+        return previous;
+    }
+
+    /**
+     * @return The removed value, or null.
+     */
+    @SuppressWarnings("unchecked")
+    V remove(long key) {
+
+        int mask = this.keys.length - 1;
+        int i = slot(key);
+        V previous = (V) this.values[i];
+        if (previous == null) return null;
+
+        // Shift back the following entries of the probe sequence so lookups need no tombstones.
+        int j = i;
+        while (true) {
+
+            j = (j + 1) & mask;
+            if (this.values[j] == null) break;
+
+            int home = hash(this.keys[j]) & mask;
+            if (((j - home) & mask) >= ((j - i) & mask)) {
+
+                this.keys[i] = this.keys[j];
+                this.values[i] = this.values[j];
+                i = j;
+            }
+        }
+
+        this.values[i] = null;
+        this.size--;
+
+        return previous;
+    }
+
+    /**
+     * @return The keys in ascending order.
+     */
+    long[] sortedKeys() {
+
+        long[] result = new long[this.size];
+        int n = 0;
+        for (int i = 0; i < this.keys.length; i++) if (this.values[i] != null) result[n++] = this.keys[i];
+
+        Arrays.sort(result);
+        return result;
+    }
+
+    private void resize(int capacity) {
+
+        long[] oldKeys = this.keys;
+        Object[] oldValues = this.values;
+
+        this.keys = new long[capacity];
+        this.values = new Object[capacity];
+
+        for (int i = 0; i < oldKeys.length; i++) {
+
+            if (oldValues[i] == null) continue;
+
+            int j = slot(oldKeys[i]);
+            this.keys[j] = oldKeys[i];
+            this.values[j] = oldValues[i];
+        }
+    }
+}
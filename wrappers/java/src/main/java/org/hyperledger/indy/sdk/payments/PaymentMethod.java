@@ -0,0 +1,181 @@
+package org.hyperledger.indy.sdk.payments;
+
+import org.hyperledger.indy.sdk.IndyException;
+import org.hyperledger.indy.sdk.payments.PaymentsResults.ParseGetPaymentSourcesWithFromResponseResult;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Payment method implemented in Java and registered with
+ * {@link Payments#registerPaymentMethod(String, PaymentMethod)}. libindy forwards the payment calls for
+ * addresses of the form "pay:{payment method}:..." to it.
+ *
+ * Methods are called on libindy threads and should not block; they return futures that the method
+ * completes when done. Errors are reported by throwing or completing the future with the matching
+ * {@link IndyException}, e.g. {@link InsufficientFundsException} or
+ * {@link PaymentSourceDoesNotExistException}; any other exception is reported as CommonInvalidState.
+ *
+ * The json formats are those of the corresponding functions of {@link Payments}.
+ */
+public interface PaymentMethod {
+
+    /**
+     * Creates a payment address.
+     *
+     * @param walletHandle The handle of the wallet the address is created in.
+     * @param config       The address config json.
+     * @return A future that resolves to the payment address.
+     * @throws IndyException Thrown if the address cannot be created.
+     */
+    CompletableFuture<String> createPaymentAddress(int walletHandle, String config) throws IndyException;
+
+    /**
+     * Adds fees to a transaction request.
+     *
+     * @param walletHandle The wallet handle.
+     * @param submitterDid The DID of the request sender, or null.
+     * @param reqJson      The transaction request.
+     * @param inputsJson   The list of payment sources.
+     * @param outputsJson  The list of outputs.
+     * @param extra        Optional information for the payment operation.
+     * @return A future that resolves to the request with fees.
+     * @throws IndyException Thrown if the fees cannot be added.
+     */
+    CompletableFuture<String> addRequestFees(int walletHandle, String submitterDid, String reqJson, String inputsJson, String outputsJson, String extra) throws IndyException;
+
+    /**
+     * Parses the response of a request with fees.
+     *
+     * @param respJson The response.
+     * @return A future that resolves to the receipts json.
+     * @throws IndyException Thrown if the response cannot be parsed.
+     */
+    CompletableFuture<String> parseResponseWithFees(String respJson) throws IndyException;
+
+    /**
+     * Builds a request for the sources of a payment address.
+     *
+     * @param walletHandle   The wallet handle.
+     * @param submitterDid   The DID of the request sender, or null.
+     * @param paymentAddress The payment address.
+     * @param from           The shift for the sources, or -1 to start from the beginning.
+     * @return A future that resolves to the request.
+     * @throws IndyException Thrown if the request cannot be built.
+     */
+    CompletableFuture<String> buildGetPaymentSourcesRequest(int walletHandle, String submitterDid, String paymentAddress, long from) throws IndyException;
+
+    /**
+     * Parses the response to a request for payment sources.
+     *
+     * @param respJson The response.
+     * @return A future that resolves to the sources json and the shift of the next page, or -1 if there is none.
+     * @throws IndyException Thrown if the response cannot be parsed.
+     */
+    CompletableFuture<ParseGetPaymentSourcesWithFromResponseResult> parseGetPaymentSourcesResponse(String respJson) throws IndyException;
+
+    /**
+     * Builds a payment request.
+     *
+     * @param walletHandle The wallet handle.
+     * @param submitterDid The DID of the request sender, or null.
+     * @param inputsJson   The list of payment sources.
+     * @param outputsJson  The list of outputs.
+     * @param extra        Optional information for the payment operation.
+     * @return A future that resolves to the request.
+     * @throws IndyException Thrown if the request cannot be built.
+     */
+    CompletableFuture<String> buildPaymentRequest(int walletHandle, String submitterDid, String inputsJson, String outputsJson, String extra) throws IndyException;
+
+    /**
+     * Parses the response to a payment request.
+     *
+     * @param respJson The response.
+     * @return A future that resolves to the receipts json.
+     * @throws IndyException Thrown if the response cannot be parsed.
+     */
+    CompletableFuture<String> parsePaymentResponse(String respJson) throws IndyException;
+
+    /**
+     * Builds a mint request.
+     *
+     * @param walletHandle The wallet handle.
+     * @param submitterDid The DID of the request sender, or null.
+     * @param outputsJson  The list of outputs.
+     * @param extra        Optional information for the mint operation.
+     * @return A future that resolves to the request.
+     * @throws IndyException Thrown if the request cannot be built.
+     */
+    CompletableFuture<String> buildMintRequest(int walletHandle, String submitterDid, String outputsJson, String extra) throws IndyException;
+
+    /**
+     * Builds a request that sets the fees of transaction types.
+     *
+     * @param walletHandle The wallet handle.
+     * @param submitterDid The DID of the request sender, or null.
+     * @param feesJson     The fees by transaction type.
+     * @return A future that resolves to the request.
+     * @throws IndyException Thrown if the request cannot be built.
+     */
+    CompletableFuture<String> buildSetTxnFeesRequest(int walletHandle, String submitterDid, String feesJson) throws IndyException;
+
+    /**
+     * Builds a request for the fees of transaction types.
+     *
+     * @param walletHandle The wallet handle.
+     * @param submitterDid The DID of the request sender, or null.
+     * @return A future that resolves to the request.
+     * @throws IndyException Thrown if the request cannot be built.
+     */
+    CompletableFuture<String> buildGetTxnFeesRequest(int walletHandle, String submitterDid) throws IndyException;
+
+    /**
+     * Parses the response to a request for fees.
+     *
+     * @param respJson The response.
+     * @return A future that resolves to the fees by transaction type.
+     * @throws IndyException Thrown if the response cannot be parsed.
+     */
+    CompletableFuture<String> parseGetTxnFeesResponse(String respJson) throws IndyException;
+
+    /**
+     * Builds a request that verifies a payment receipt.
+     *
+     * @param walletHandle The wallet handle.
+     * @param submitterDid The DID of the request sender, or null.
+     * @param receipt      The payment receipt.
+     * @return A future that resolves to the request.
+     * @throws IndyException Thrown if the request cannot be built.
+     */
+    CompletableFuture<String> buildVerifyPaymentRequest(int walletHandle, String submitterDid, String receipt) throws IndyException;
+
+    /**
+     * Parses the response to a payment verification request.
+     *
+     * @param respJson The response.
+     * @return A future that resolves to the receipt verification info json.
+     * @throws IndyException Thrown if the response cannot be parsed.
+     */
+    CompletableFuture<String> parseVerifyPaymentResponse(String respJson) throws IndyException;
+
+    /**
+     * Signs a message with a payment address.
+     *
+     * @param walletHandle The wallet handle.
+     * @param address      The payment address.
+     * @param message      The message.
+     * @return A future that resolves to the signature.
+     * @throws IndyException Thrown if the message cannot be signed.
+     */
+    CompletableFuture<byte[]> signWithAddress(int walletHandle, String address, byte[] message) throws IndyException;
+
+    /**
+     * Verifies a signature made with a payment address.
+     *
+     * @param address   The payment address.
+     * @param message   The message.
+     * @param signature The signature.
+     * @return A future that resolves to true if the signature is valid.
+     * @throws IndyException Thrown if the signature cannot be verified.
+     */
+    CompletableFuture<Boolean> verifyWithAddress(String address, byte[] message, byte[] signature) throws IndyException;
+}
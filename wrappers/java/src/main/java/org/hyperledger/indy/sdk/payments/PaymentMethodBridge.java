@@ -0,0 +1,386 @@
+package org.hyperledger.indy.sdk.payments;
+
+import com.sun.jna.Callback;
+import com.sun.jna.Pointer;
+import org.hyperledger.indy.sdk.ErrorCode;
+import org.hyperledger.indy.sdk.IndyException;
+import org.hyperledger.indy.sdk.payments.PaymentsResults.ParseGetPaymentSourcesWithFromResponseResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.function.BiConsumer;
+
+/**
+ * The native handlers of a {@link PaymentMethod}, as passed to indy_register_payment_method.
+ *
+ * Each handler starts the operation and returns; the result is passed to the libindy callback given
+ * to the handler once the future returned by the payment method completes.
+ */
+final class PaymentMethodBridge {
+
+    private static final Logger logger = LoggerFactory.getLogger(PaymentMethodBridge.class);
+
+    /**
+     * Bridges registered with libindy, which keeps calling their handlers.
+     */
+    private static final List<PaymentMethodBridge> registered = new ArrayList<PaymentMethodBridge>();
+
+    private final PaymentMethod method;
+
+    PaymentMethodBridge(PaymentMethod method) {
+
+        this.method = method;
+    }
+
+    /**
+     * Keeps a bridge reachable, because libindy holds on to its handlers.
+     *
+     * @param bridge The registered bridge.
+     */
+    static void retain(PaymentMethodBridge bridge) {
+
+        synchronized (registered) {
+
+            registered.add(bridge);
+        }
+    }
+
+    /*
+     * LIBINDY CALLBACKS
+     */
+
+    /**
+     * libindy callback receiving a string result.
+     */
+    public interface StringResultCallback extends Callback {
+
+        int callback(int command_handle, int err, String result);
+    }
+
+    /**
+     * libindy callback receiving payment sources.
+     */
+    public interface SourcesResultCallback extends Callback {
+
+        int callback(int command_handle, int err, String sources_json, long next);
+    }
+
+    /**
+     * libindy callback receiving a signature.
+     */
+    public interface BytesResultCallback extends Callback {
+
+        int callback(int command_handle, int err, byte[] raw, int len);
+    }
+
+    /**
+     * libindy callback receiving a verification result.
+     */
+    public interface BoolResultCallback extends Callback {
+
+        int callback(int command_handle, int err, byte result);
+    }
+
+    /*
+     * HELPERS
+     */
+
+    static int errorCode(Throwable e) {
+
+        while ((e instanceof CompletionException || e instanceof ExecutionException) && e.getCause() != null) e = e.getCause();
+        if (e instanceof IndyException) return ((IndyException) e).getSdkErrorCode();
+
+        logger.warn("Payment method failed", e);
+        return ErrorCode.CommonInvalidState.value();
+    }
+
+    private static int complete(final int commandHandle, CompletableFuture<String> future, final StringResultCallback cb) {
+
+        if (future == null) return ErrorCode.CommonInvalidState.value();
+
+        future.whenComplete(new BiConsumer<String, Throwable>() {
+
+            @Override
+            public void accept(String result, Throwable e) {
+
+                if (e == null) cb.callback(commandHandle, ErrorCode.Success.value(), result);
+                else cb.callback(commandHandle, errorCode(e), null);
+            }
+        });
+
+        return ErrorCode.Success.value();
+    }
+
+    /*
+     * HANDLERS
+     */
+
+    final Callback createPaymentAddressCb = new Callback() {
+
+        @SuppressWarnings("unused")
+        public int callback(int commandHandle, int walletHandle, String config, StringResultCallback cb) {
+
+            try {
+
+                return complete(commandHandle, method.createPaymentAddress(walletHandle, config), cb);
+            } catch (Throwable e) {
+
+                return errorCode(e);
+            }
+        }
+    };
+
+    final Callback addRequestFeesCb = new Callback() {
+
+        @SuppressWarnings("unused")
+        public int callback(int commandHandle, int walletHandle, String submitterDid, String reqJson, String inputsJson, String outputsJson, String extra, StringResultCallback cb) {
+
+            try {
+
+                return complete(commandHandle, method.addRequestFees(walletHandle, submitterDid, reqJson, inputsJson, outputsJson, extra), cb);
+            } catch (Throwable e) {
+
+                return errorCode(e);
+            }
+        }
+    };
+
+    final Callback parseResponseWithFeesCb = new Callback() {
+
+        @SuppressWarnings("unused")
+        public int callback(int commandHandle, String respJson, StringResultCallback cb) {
+
+            try {
+
+                return complete(commandHandle, method.parseResponseWithFees(respJson), cb);
+            } catch (Throwable e) {
+
+                return errorCode(e);
+            }
+        }
+    };
+
+    final Callback buildGetPaymentSourcesRequestCb = new Callback() {
+
+        @SuppressWarnings("unused")
+        public int callback(int commandHandle, int walletHandle, String submitterDid, String paymentAddress, long from, StringResultCallback cb) {
+
+            try {
+
+                return complete(commandHandle, method.buildGetPaymentSourcesRequest(walletHandle, submitterDid, paymentAddress, from), cb);
+            } catch (Throwable e) {
+
+                return errorCode(e);
+            }
+        }
+    };
+
+    final Callback parseGetPaymentSourcesResponseCb = new Callback() {
+
+        @SuppressWarnings("unused")
+        public int callback(final int commandHandle, String respJson, final SourcesResultCallback cb) {
+
+            try {
+
+                CompletableFuture<ParseGetPaymentSourcesWithFromResponseResult> future = method.parseGetPaymentSourcesResponse(respJson);
+                if (future == null) return ErrorCode.CommonInvalidState.value();
+
+                future.whenComplete(new BiConsumer<ParseGetPaymentSourcesWithFromResponseResult, Throwable>() {
+
+                    @Override
+                    public void accept(ParseGetPaymentSourcesWithFromResponseResult result, Throwable e) {
+
+                        if (e == null) cb.callback(commandHandle, ErrorCode.Success.value(), result.getSourcesJson(), result.getNext());
+                        else cb.callback(commandHandle, errorCode(e), null, -1);
+                    }
+                });
+
+                return ErrorCode.Success.value();
+            } catch (Throwable e) {
+
+                return errorCode(e);
+            }
+        }
+    };
+
+    final Callback buildPaymentReqCb = new Callback() {
+
+        @SuppressWarnings("unused")
+        public int callback(int commandHandle, int walletHandle, String submitterDid, String inputsJson, String outputsJson, String extra, StringResultCallback cb) {
+
+            try {
+
+                return complete(commandHandle, method.buildPaymentRequest(walletHandle, submitterDid, inputsJson, outputsJson, extra), cb);
+            } catch (Throwable e) {
+
+                return errorCode(e);
+            }
+        }
+    };
+
+    final Callback parsePaymentResponseCb = new Callback() {
+
+        @SuppressWarnings("unused")
+        public int callback(int commandHandle, String respJson, StringResultCallback cb) {
+
+            try {
+
+                return complete(commandHandle, method.parsePaymentResponse(respJson), cb);
+            } catch (Throwable e) {
+
+                return errorCode(e);
+            }
+        }
+    };
+
+    final Callback buildMintReqCb = new Callback() {
+
+        @SuppressWarnings("unused")
+        public int callback(int commandHandle, int walletHandle, String submitterDid, String outputsJson, String extra, StringResultCallback cb) {
+
+            try {
+
+                return complete(commandHandle, method.buildMintRequest(walletHandle, submitterDid, outputsJson, extra), cb);
+            } catch (Throwable e) {
+
+                return errorCode(e);
+            }
+        }
+    };
+
+    final Callback buildSetTxnFeesReqCb = new Callback() {
+
+        @SuppressWarnings("unused")
+        public int callback(int commandHandle, int walletHandle, String submitterDid, String feesJson, StringResultCallback cb) {
+
+            try {
+
+                return complete(commandHandle, method.buildSetTxnFeesRequest(walletHandle, submitterDid, feesJson), cb);
+            } catch (Throwable e) {
+
+                return errorCode(e);
+            }
+        }
+    };
+
+    final Callback buildGetTxnFeesReqCb = new Callback() {
+
+        @SuppressWarnings("unused")
+        public int callback(int commandHandle, int walletHandle, String submitterDid, StringResultCallback cb) {
+
+            try {
+
+                return complete(commandHandle, method.buildGetTxnFeesRequest(walletHandle, submitterDid), cb);
+            } catch (Throwable e) {
+
+                return errorCode(e);
+            }
+        }
+    };
+
+    final Callback parseGetTxnFeesResponseCb = new Callback() {
+
+        @SuppressWarnings("unused")
+        public int callback(int commandHandle, String respJson, StringResultCallback cb) {
+
+            try {
+
+                return complete(commandHandle, method.parseGetTxnFeesResponse(respJson), cb);
+            } catch (Throwable e) {
+
+                return errorCode(e);
+            }
+        }
+    };
+
+    final Callback buildVerifyPaymentReqCb = new Callback() {
+
+        @SuppressWarnings("unused")
+        public int callback(int commandHandle, int walletHandle, String submitterDid, String receipt, StringResultCallback cb) {
+
+            try {
+
+                return complete(commandHandle, method.buildVerifyPaymentRequest(walletHandle, submitterDid, receipt), cb);
+            } catch (Throwable e) {
+
+                return errorCode(e);
+            }
+        }
+    };
+
+    final Callback parseVerifyPaymentResponseCb = new Callback() {
+
+        @SuppressWarnings("unused")
+        public int callback(int commandHandle, String respJson, StringResultCallback cb) {
+
+            try {
+
+                return complete(commandHandle, method.parseVerifyPaymentResponse(respJson), cb);
+            } catch (Throwable e) {
+
+                return errorCode(e);
+            }
+        }
+    };
+
+    final Callback signWithAddressCb = new Callback() {
+
+        @SuppressWarnings("unused")
+        public int callback(final int commandHandle, int walletHandle, String address, Pointer message, int messageLen, final BytesResultCallback cb) {
+
+            try {
+
+                CompletableFuture<byte[]> future = method.signWithAddress(walletHandle, address, message.getByteArray(0, messageLen));
+                if (future == null) return ErrorCode.CommonInvalidState.value();
+
+                future.whenComplete(new BiConsumer<byte[], Throwable>() {
+
+                    @Override
+                    public void accept(byte[] signature, Throwable e) {
+
+                        if (e == null) cb.callback(commandHandle, ErrorCode.Success.value(), signature, signature.length);
+                        else cb.callback(commandHandle, errorCode(e), null, 0);
+                    }
+                });
+
+                return ErrorCode.Success.value();
+            } catch (Throwable e) {
+
+                return errorCode(e);
+            }
+        }
+    };
+
+    final Callback verifyWithAddressCb = new Callback() {
+
+        @SuppressWarnings("unused")
+        public int callback(final int commandHandle, String address, Pointer message, int messageLen, Pointer signature, int signatureLen, final BoolResultCallback cb) {
+
+            try {
+
+                CompletableFuture<Boolean> future = method.verifyWithAddress(address, message.getByteArray(0, messageLen), signature.getByteArray(0, signatureLen));
+                if (future == null) return ErrorCode.CommonInvalidState.value();
+
+                future.whenComplete(new BiConsumer<Boolean, Throwable>() {
+
+                    @Override
+                    public void accept(Boolean valid, Throwable e) {
+
+                        if (e == null) cb.callback(commandHandle, ErrorCode.Success.value(), (byte) (valid ? 1 : 0));
+                        else cb.callback(commandHandle, errorCode(e), (byte) 0);
+                    }
+                });
+
+                return ErrorCode.Success.value();
+            } catch (Throwable e) {
+
+                return errorCode(e);
+            }
+        }
+    };
+}
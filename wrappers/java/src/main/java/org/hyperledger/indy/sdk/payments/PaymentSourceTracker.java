@@ -0,0 +1,597 @@
+package org.hyperledger.indy.sdk.payments;
+
+import org.hyperledger.indy.sdk.IndyException;
+import org.hyperledger.indy.sdk.InvalidStructureException;
+import org.hyperledger.indy.sdk.ParamGuard;
+import org.hyperledger.indy.sdk.ledger.Ledger;
+import org.hyperledger.indy.sdk.ledger.RequestSubmitter;
+import org.hyperledger.indy.sdk.payments.PaymentsResults.BuildGetPaymentSourcesRequestResult;
+import org.hyperledger.indy.sdk.payments.PaymentsResults.ParseGetPaymentSourcesWithFromResponseResult;
+import org.hyperledger.indy.sdk.pool.Pool;
+import org.hyperledger.indy.sdk.wallet.Wallet;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Keeps the unspent payment sources of a set of payment addresses, so sources for a payment can be
+ * selected locally instead of fetching all sources before every payment.
+ *
+ * {@link #refresh(String)} fetches all pages of sources of an address; the request for the next page
+ * is sent as soon as a page arrives, before the page is parsed. Afterwards the cache is kept up to
+ * date by passing payment and fee responses through {@link #parsePaymentResponse(String, String, String)}
+ * and {@link #parseResponseWithFees(String, String, String)}, which remove the spent inputs and add the
+ * receipts paid to tracked addresses.
+ *
+ * <pre>
+ * List&lt;PaymentSourceTracker.Source&gt; inputs = tracker.select(address, amount + fee);
+ * try {
+ *     ... build, submit ...
+ *     tracker.parsePaymentResponse(paymentMethod, PaymentSourceTracker.toInputsJson(inputs), response).get();
+ * } catch (Exception e) {
+ *     tracker.release(inputs);
+ * }
+ * </pre>
+ *
+ * Changes made by other processes are only seen after the next refresh.
+ */
+public class PaymentSourceTracker {
+
+    /**
+     * Fetches one page of sources.
+     */
+    interface PageFetcher {
+
+        CompletableFuture<ParseGetPaymentSourcesWithFromResponseResult> fetch(String paymentAddress, long from) throws IndyException;
+    }
+
+    private final PageFetcher fetcher;
+
+    /**
+     * Unspent sources by address, in the order they were seen. Guarded by this.
+     */
+    private final Map<String, LinkedHashMap<String, Source>> unspent = new HashMap<String, LinkedHashMap<String, Source>>();
+
+    /**
+     * Sources selected for payments that have not completed. Guarded by this.
+     */
+    private final Set<String> reserved = new HashSet<String>();
+
+    /**
+     * Responses applied while a refresh is in flight, in order. The ledger snapshot of a refresh may predate
+     * them, so they are applied again over the refreshed sources. Guarded by this.
+     */
+    private final List<Applied> journal = new ArrayList<Applied>();
+    private long appliedCount;
+    private int refreshing;
+
+    /**
+     * Initializes a new tracker submitting the source requests to a pool.
+     *
+     * @param pool         The pool.
+     * @param wallet       The wallet.
+     * @param submitterDid (Optional) The DID of the request sender.
+     */
+    public PaymentSourceTracker(final Pool pool, Wallet wallet, String submitterDid) {
+
+        this(wallet, submitterDid, Ledger.submitter(pool));
+    }
+
+    /**
+     * Initializes a new tracker.
+     *
+     * @param wallet       The wallet.
+     * @param submitterDid (Optional) The DID of the request sender.
+     * @param submitter    Submits the source requests.
+     */
+    public PaymentSourceTracker(final Wallet wallet, final String submitterDid, final RequestSubmitter submitter) {
+
+        this(new PageFetcher() {
+
+            @Override
+            public CompletableFuture<ParseGetPaymentSourcesWithFromResponseResult> fetch(String paymentAddress, long from) throws IndyException {
+
+                return Payments.buildGetPaymentSourcesWithFromRequest(wallet, submitterDid, paymentAddress, from).thenCompose(new Function<BuildGetPaymentSourcesRequestResult, CompletableFuture<ParseGetPaymentSourcesWithFromResponseResult>>() {
+
+                    @Override
+                    public CompletableFuture<ParseGetPaymentSourcesWithFromResponseResult> apply(final BuildGetPaymentSourcesRequestResult request) {
+
+                        try {
+
+                            return submitter.submitRequest(request.getGetSourcesTxnJson()).thenCompose(new Function<String, CompletableFuture<ParseGetPaymentSourcesWithFromResponseResult>>() {
+
+                                @Override
+                                public CompletableFuture<ParseGetPaymentSourcesWithFromResponseResult> apply(String response) {
+
+                                    try {
+
+                                        return Payments.parseGetPaymentSourcesWithFromResponse(request.getPaymentMethod(), response);
+                                    } catch (IndyException e) {
+
+                                        return failed(e);
+                                    }
+                                }
+                            });
+                        } catch (IndyException e) {
+
+                            return failed(e);
+                        }
+                    }
+                });
+            }
+        });
+
+        ParamGuard.notNull(wallet, "wallet");
+        ParamGuard.notNull(submitter, "submitter");
+    }
+
+    PaymentSourceTracker(PageFetcher fetcher) {
+
+        this.fetcher = fetcher;
+    }
+
+    private static <T> CompletableFuture<T> failed(Throwable e) {
+
+        CompletableFuture<T> future = new CompletableFuture<T>();
+        future.completeExceptionally(e);
+        return future;
+    }
+
+    /*
+     * FETCHING
+     */
+
+    /**
+     * Fetches all sources of an address and replaces the cached sources of the address with them.
+     * Payment and fee responses applied while the refresh is in flight are applied again over the fetched
+     * sources, so they are not lost if the ledger answered before it saw them.
+     * The address is tracked from then on.
+     *
+     * @param paymentAddress The payment address.
+     * @return A future that resolves to the unspent sources of the address.
+     */
+    public CompletableFuture<List<Source>> refresh(final String paymentAddress) {
+
+        ParamGuard.notNullOrWhiteSpace(paymentAddress, "paymentAddress");
+
+        final long since;
+        synchronized (this) {
+
+            this.refreshing++;
+            since = this.appliedCount;
+        }
+
+        final PageStream stream = new PageStream(paymentAddress);
+        stream.fetch(-1);
+
+        return stream.done.handle(new BiFunction<List<Source>, Throwable, List<Source>>() {
+
+            @Override
+            public List<Source> apply(List<Source> sources, Throwable e) {
+
+                List<Source> replaced = refreshed(paymentAddress, e == null ? sources : null, since);
+                if (e != null) throw e instanceof CompletionException ? (CompletionException) e : new CompletionException(e);
+
+                return replaced;
+            }
+        });
+    }
+
+    /**
+     * Fetches all sources of several addresses concurrently.
+     *
+     * @param paymentAddresses The payment addresses.
+     * @return A future that resolves when all addresses are refreshed.
+     */
+    public CompletableFuture<Void> refreshAll(Collection<String> paymentAddresses) {
+
+        ParamGuard.notNull(paymentAddresses, "paymentAddresses");
+
+        List<CompletableFuture<List<Source>>> futures = new ArrayList<CompletableFuture<List<Source>>>();
+        for (String paymentAddress : paymentAddresses) futures.add(refresh(paymentAddress));
+
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[futures.size()]));
+    }
+
+    /**
+     * The pages of one refresh. A page is requested as soon as the previous one arrives, and pages are
+     * parsed while the next page is in flight, so they may be parsed out of order.
+     */
+    private final class PageStream {
+
+        private final String paymentAddress;
+        private final CompletableFuture<List<Source>> done = new CompletableFuture<List<Source>>();
+
+        /**
+         * Parsed pages by index. Guarded by this.
+         */
+        private final List<List<Source>> pages = new ArrayList<List<Source>>();
+        private int requested;
+        private int parsed;
+        private boolean last;
+
+        private PageStream(String paymentAddress) {
+
+            this.paymentAddress = paymentAddress;
+        }
+
+        private void fetch(long from) {
+
+            final int index;
+            synchronized (this) {
+
+                index = this.requested++;
+                this.pages.add(null);
+            }
+
+            try {
+
+                fetcher.fetch(this.paymentAddress, from).whenComplete(new BiConsumer<ParseGetPaymentSourcesWithFromResponseResult, Throwable>() {
+
+                    @Override
+                    public void accept(ParseGetPaymentSourcesWithFromResponseResult page, Throwable e) {
+
+                        if (e != null) {
+
+                            done.completeExceptionally(e);
+                            return;
+                        }
+
+                        if (page.getNext() >= 0) fetch(page.getNext());
+                        else synchronized (PageStream.this) { last = true; }
+
+                        try {
+
+                            parsed(index, parseSources(page.getSourcesJson()));
+                        } catch (IndyException ex) {
+
+                            done.completeExceptionally(ex);
+                        }
+                    }
+                });
+            } catch (Throwable e) {
+
+                this.done.completeExceptionally(e);
+            }
+        }
+
+        private void parsed(int index, List<Source> sources) {
+
+            List<Source> all;
+            synchronized (this) {
+
+                this.pages.set(index, sources);
+                if (++this.parsed < this.requested || ! this.last) return;
+
+                all = new ArrayList<Source>();
+                for (List<Source> page : this.pages) all.addAll(page);
+            }
+
+            this.done.complete(all);
+        }
+    }
+
+    /*
+     * RESPONSES
+     */
+
+    /**
+     * Parses a payment response and applies it to the cache.
+     *
+     * @param paymentMethod The payment method.
+     * @param inputsJson    The inputs of the payment.
+     * @param respJson      The response.
+     * @return A future that resolves to the receipts json, as returned by {@link Payments#parsePaymentResponse(String, String)}.
+     * @throws IndyException Thrown if a call to the underlying SDK fails.
+     */
+    public CompletableFuture<String> parsePaymentResponse(String paymentMethod, final String inputsJson, String respJson) throws IndyException {
+
+        return Payments.parsePaymentResponse(paymentMethod, respJson).thenApply(applyReceipts(inputsJson));
+    }
+
+    /**
+     * Parses the response of a request with fees and applies it to the cache.
+     *
+     * @param paymentMethod The payment method.
+     * @param inputsJson    The inputs of the fees.
+     * @param respJson      The response.
+     * @return A future that resolves to the receipts json, as returned by {@link Payments#parseResponseWithFees(String, String)}.
+     * @throws IndyException Thrown if a call to the underlying SDK fails.
+     */
+    public CompletableFuture<String> parseResponseWithFees(String paymentMethod, final String inputsJson, String respJson) throws IndyException {
+
+        return Payments.parseResponseWithFees(paymentMethod, respJson).thenApply(applyReceipts(inputsJson));
+    }
+
+    private Function<String, String> applyReceipts(final String inputsJson) {
+
+        return new Function<String, String>() {
+
+            @Override
+            public String apply(String receiptsJson) {
+
+                applyReceipts(inputsJson, receiptsJson);
+                return receiptsJson;
+            }
+        };
+    }
+
+    /**
+     * Removes the spent inputs and adds the receipts paid to tracked addresses.
+     */
+    void applyReceipts(String inputsJson, String receiptsJson) {
+
+        JSONArray inputsArray = new JSONArray(inputsJson);
+        JSONArray receiptsArray = new JSONArray(receiptsJson);
+
+        List<String> inputs = new ArrayList<String>(inputsArray.length());
+        for (int i = 0; i < inputsArray.length(); i++) inputs.add(inputsArray.getString(i));
+
+        List<Source> receipts = new ArrayList<Source>(receiptsArray.length());
+        for (int i = 0; i < receiptsArray.length(); i++) {
+
+            JSONObject receipt = receiptsArray.getJSONObject(i);
+            receipts.add(new Source(receipt.getString("receipt"), receipt.getString("recipient"), receipt.getLong("amount"), receipt.optString("extra", null)));
+        }
+
+        Applied applied = new Applied(inputs, receipts);
+
+        synchronized (this) {
+
+            this.reserved.removeAll(inputs);
+            for (Map.Entry<String, LinkedHashMap<String, Source>> entry : this.unspent.entrySet()) applied.applyTo(entry.getValue(), entry.getKey());
+
+            this.appliedCount++;
+            if (this.refreshing > 0) this.journal.add(applied);
+        }
+    }
+
+    /**
+     * Ends a refresh: replaces the sources of the address unless the refresh failed, and applies the responses
+     * applied since the refresh started over them.
+     *
+     * @return The cached sources of the address, or null if the refresh failed.
+     */
+    private synchronized List<Source> refreshed(String paymentAddress, List<Source> sources, long since) {
+
+        List<Source> replaced = null;
+        if (sources != null) {
+
+            LinkedHashMap<String, Source> bySource = new LinkedHashMap<String, Source>();
+            for (Source source : sources) bySource.put(source.getSource(), source);
+
+            // The journal holds the last journal.size() responses
+            int first = this.journal.size() - (int) (this.appliedCount - since);
+            for (int i = Math.max(0, first); i < this.journal.size(); i++) this.journal.get(i).applyTo(bySource, paymentAddress);
+
+            this.unspent.put(paymentAddress, bySource);
+            replaced = new ArrayList<Source>(bySource.values());
+        }
+
+        if (--this.refreshing == 0) this.journal.clear();
+
+        return replaced;
+    }
+
+    /**
+     * The inputs spent and receipts created by one payment or fee response.
+     */
+    private static final class Applied {
+
+        private final List<String> inputs;
+        private final List<Source> receipts;
+
+        private Applied(List<String> inputs, List<Source> receipts) {
+
+            this.inputs = inputs;
+            this.receipts = receipts;
+        }
+
+        /**
+         * Applies the response to the sources of one address.
+         *
+         * @param sources        The sources.
+         * @param paymentAddress The address of the sources.
+         */
+        private void applyTo(Map<String, Source> sources, String paymentAddress) {
+
+            for (String input : this.inputs) sources.remove(input);
+            for (Source receipt : this.receipts) if (receipt.getPaymentAddress().equals(paymentAddress)) sources.put(receipt.getSource(), receipt);
+        }
+    }
+
+    /*
+     * SELECTION
+     */
+
+    /**
+     * @return The tracked addresses.
+     */
+    public synchronized Set<String> getPaymentAddresses() {
+
+        return new HashSet<String>(this.unspent.keySet());
+    }
+
+    /**
+     * @param paymentAddress The payment address.
+     * @return The cached unspent sources of the address, including reserved ones.
+     */
+    public synchronized List<Source> getSources(String paymentAddress) {
+
+        Map<String, Source> sources = this.unspent.get(paymentAddress);
+        return sources != null ? new ArrayList<Source>(sources.values()) : Collections.<Source>emptyList();
+    }
+
+    /**
+     * @param paymentAddress The payment address.
+     * @return The sum of the cached unspent sources of the address that are not reserved.
+     */
+    public synchronized long getAvailableBalance(String paymentAddress) {
+
+        Map<String, Source> sources = this.unspent.get(paymentAddress);
+        if (sources == null) return 0;
+
+        long balance = 0;
+        for (Source source : sources.values()) if (! this.reserved.contains(source.getSource())) balance += source.getAmount();
+
+        return balance;
+    }
+
+    /**
+     * Selects unreserved sources of an address that add up to at least an amount, oldest first, and
+     * reserves them until they are spent or released.
+     *
+     * @param paymentAddress The payment address.
+     * @param amount         The amount.
+     * @return The selected sources.
+     * @throws InsufficientFundsException Thrown if the available sources do not add up to the amount.
+     */
+    public synchronized List<Source> select(String paymentAddress, long amount) throws InsufficientFundsException {
+
+        ParamGuard.notNullOrWhiteSpace(paymentAddress, "paymentAddress");
+
+        List<Source> selected = new ArrayList<Source>();
+        Map<String, Source> sources = this.unspent.get(paymentAddress);
+
+        long total = 0;
+        if (sources != null) {
+
+            for (Source source : sources.values()) {
+
+                if (total >= amount && ! selected.isEmpty()) break;
+                if (this.reserved.contains(source.getSource())) continue;
+
+                selected.add(source);
+                total += source.getAmount();
+            }
+        }
+
+        if (total < amount || selected.isEmpty()) throw new InsufficientFundsException();
+
+        for (Source source : selected) this.reserved.add(source.getSource());
+
+        return selected;
+    }
+
+    /**
+     * Releases sources selected for a payment that was not made.
+     *
+     * @param sources The sources.
+     */
+    public synchronized void release(Collection<Source> sources) {
+
+        for (Source source : sources) this.reserved.remove(source.getSource());
+    }
+
+    /**
+     * @param sources The sources.
+     * @return The sources as inputs json, e.g. for {@link Payments#buildPaymentRequest}.
+     */
+    public static String toInputsJson(Collection<Source> sources) {
+
+        JSONArray inputs = new JSONArray();
+        for (Source source : sources) inputs.put(source.getSource());
+
+        return inputs.toString();
+    }
+
+    private static List<Source> parseSources(String sourcesJson) throws IndyException {
+
+        try {
+
+            JSONArray json = new JSONArray(sourcesJson);
+            List<Source> sources = new ArrayList<Source>(json.length());
+
+            for (int i = 0; i < json.length(); i++) {
+
+                JSONObject source = json.getJSONObject(i);
+                sources.add(new Source(source.getString("source"), source.getString("paymentAddress"), source.getLong("amount"), source.optString("extra", null)));
+            }
+
+            return sources;
+        } catch (JSONException e) {
+
+            throw new InvalidStructureException();
+        }
+    }
+
+    /**
+     * An unspent payment source.
+     */
+    public static final class Source {
+
+        private final String source;
+        private final String paymentAddress;
+        private final long amount;
+        private final String extra;
+
+        public Source(String source, String paymentAddress, long amount, String extra) {
+
+            this.source = source;
+            this.paymentAddress = paymentAddress;
+            this.amount = amount;
+            this.extra = extra;
+        }
+
+        public String getSource() {
+
+            return this.source;
+        }
+
+        public String getPaymentAddress() {
+
+            return this.paymentAddress;
+        }
+
+        public long getAmount() {
+
+            return this.amount;
+        }
+
+        public String getExtra() {
+
+            return this.extra;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+
+            if (this == o) return true;
+            if (! (o instanceof Source)) return false;
+
+            Source other = (Source) o;
+            return this.amount == other.amount
+                    && this.source.equals(other.source)
+                    && Objects.equals(this.paymentAddress, other.paymentAddress)
+                    && Objects.equals(this.extra, other.extra);
+        }
+
+        @Override
+        public int hashCode() {
+
+            return this.source.hashCode();
+        }
+
+        @Override
+        public String toString() {
+
+            return "Source[" + this.source + ", " + this.paymentAddress + ", " + this.amount + "]";
+        }
+    }
+}
@@ -41,7 +41,7 @@ public class Payments extends IndyJava.API {
     private static Callback parsePaymentResponseWithFromCompleteCb = new Callback() {
 
         @SuppressWarnings({"unused", "unchecked"})
-        public void callback(int xcommandHandle, int err, String paymentAddress, int num) {
+        public void callback(int xcommandHandle, int err, String paymentAddress, long num) {
             CompletableFuture<ParseGetPaymentSourcesWithFromResponseResult> future = (CompletableFuture<ParseGetPaymentSourcesWithFromResponseResult>) removeFuture(xcommandHandle);
             if (!checkResult(future, err)) return;
 
@@ -144,6 +144,21 @@ public class Payments extends IndyJava.API {
         }
     };
 
+    /**
+     * Callback used when registerPaymentMethod completes.
+     */
+    private static Callback voidCb = new Callback() {
+
+        @SuppressWarnings({"unused", "unchecked"})
+        public void callback(int xcommand_handle, int err) {
+
+            CompletableFuture<Void> future = (CompletableFuture<Void>) removeFuture(xcommand_handle);
+            if (! checkResult(future, err)) return;
+
+            future.complete(null);
+        }
+    };
+
     /*
      * STATIC METHODS
      */
@@ -188,7 +203,7 @@ public class Payments extends IndyJava.API {
                 stringCompleteCb
         );
 
-        checkResult(future, result);
+        checkResult(commandHandle, future, result);
 
         return future;
     }
@@ -214,7 +229,7 @@ public class Payments extends IndyJava.API {
                 stringCompleteCb
         );
 
-        checkResult(future, result);
+        checkResult(commandHandle, future, result);
 
         return future;
     }
@@ -275,7 +290,7 @@ public class Payments extends IndyJava.API {
                 extra,
                 addRequestFeesCb);
 
-        checkResult(future, result);
+        checkResult(commandHandle, future, result);
 
         return future;
     }
@@ -331,7 +346,7 @@ public class Payments extends IndyJava.API {
                 paymentAddress,
                 BuildGetPaymentSourcesRequestCB);
 
-        checkResult(future, result);
+        checkResult(commandHandle, future, result);
 
         return future;
     }
@@ -351,7 +366,7 @@ public class Payments extends IndyJava.API {
             Wallet wallet,
             String submitterDid,
             String paymentAddress,
-            int from
+            long from
     ) throws IndyException {
         ParamGuard.notNullOrWhiteSpace(paymentAddress, "paymentAddress");
 
@@ -368,7 +383,7 @@ public class Payments extends IndyJava.API {
                 from,
                 BuildGetPaymentSourcesRequestCB);
 
-        checkResult(future, result);
+        checkResult(commandHandle, future, result);
 
         return future;
     }
@@ -415,24 +430,24 @@ public class Payments extends IndyJava.API {
      *      amount: int, // amount
      *      extra: "str", // optional data from payment transaction
      *   }],
-     *   next -- pointer to the next slice of payment sources
+     *   next -- pointer to the next slice of payment sources, or -1 if there is none
      * @throws IndyException Thrown if a call to the underlying SDK fails.
      */
-    public static CompletableFuture<String> parseGetPaymentSourcesWithFromResponse(
+    public static CompletableFuture<ParseGetPaymentSourcesWithFromResponseResult> parseGetPaymentSourcesWithFromResponse(
             String paymentMethod,
             String respJson
     ) throws IndyException {
         ParamGuard.notNullOrWhiteSpace(paymentMethod, "paymentMethod");
         ParamGuard.notNullOrWhiteSpace(respJson, "respJson");
 
-        CompletableFuture<String> future = new CompletableFuture<>();
+        CompletableFuture<ParseGetPaymentSourcesWithFromResponseResult> future = new CompletableFuture<>();
         int commandHandle = addFuture(future);
 
         int result = LibIndy.api.indy_parse_get_payment_sources_with_from_response(
                 commandHandle, paymentMethod, respJson, parsePaymentResponseWithFromCompleteCb
         );
 
-        checkResult(future, result);
+        checkResult(commandHandle, future, result);
 
         return future;
     }
@@ -485,7 +500,7 @@ public class Payments extends IndyJava.API {
                 extra,
                 buildPaymentReqCb);
 
-        checkResult(future, result);
+        checkResult(commandHandle, future, result);
 
         return future;
     }
@@ -556,7 +571,7 @@ public class Payments extends IndyJava.API {
                 time,
                 stringCompleteCb);
 
-        checkResult(future, result);
+        checkResult(commandHandle, future, result);
 
         return future;
     }
@@ -599,7 +614,7 @@ public class Payments extends IndyJava.API {
                 extra,
                 buildMintReqCb);
 
-        checkResult(future, result);
+        checkResult(commandHandle, future, result);
 
         return future;
     }
@@ -641,7 +656,7 @@ public class Payments extends IndyJava.API {
                 feesJson,
                 stringCompleteCb);
 
-        checkResult(future, result);
+        checkResult(commandHandle, future, result);
 
         return future;
     }
@@ -674,7 +689,7 @@ public class Payments extends IndyJava.API {
                 paymentMethod,
                 stringCompleteCb);
 
-        checkResult(future, result);
+        checkResult(commandHandle, future, result);
 
         return future;
     }
@@ -728,7 +743,7 @@ public class Payments extends IndyJava.API {
 		        receipt,
                 buildVerifyPaymentReqCb);
 
-        checkResult(future, result);
+        checkResult(commandHandle, future, result);
 
         return future;
     }
@@ -770,7 +785,7 @@ public class Payments extends IndyJava.API {
 
         int result = method.apply(commandHandle, paymentMethod, respJson, stringCompleteCb);
 
-        checkResult(future, result);
+        checkResult(commandHandle, future, result);
 
         return future;
     }
@@ -824,7 +839,7 @@ public class Payments extends IndyJava.API {
                 feesJson,
                 stringCompleteCb);
 
-        checkResult(future, result);
+        checkResult(commandHandle, future, result);
 
         return future;
     }
@@ -862,7 +877,7 @@ public class Payments extends IndyJava.API {
                 message.length,
                 bytesCb);
 
-        checkResult(future, result);
+        checkResult(commandHandle, future, result);
 
         return future;
     }
@@ -897,7 +912,56 @@ public class Payments extends IndyJava.API {
                 signature.length,
                 boolCallback);
 
-        checkResult(future, result);
+        checkResult(commandHandle, future, result);
+
+        return future;
+    }
+
+    /**
+     * Registers a Java payment method. Payment calls for addresses of the form
+     * "pay:{paymentMethod}:..." are then forwarded to it.
+     *
+     * Payment methods cannot be unregistered, so the method stays reachable for the lifetime of the process.
+     *
+     * @param paymentMethod The payment method name, e.g. "sov".
+     * @param method        The payment method.
+     * @return A future that resolves no value.
+     * @throws IndyException Thrown if a call to the underlying SDK fails.
+     */
+    public static CompletableFuture<Void> registerPaymentMethod(
+            String paymentMethod,
+            PaymentMethod method) throws IndyException {
+
+        ParamGuard.notNullOrWhiteSpace(paymentMethod, "paymentMethod");
+        ParamGuard.notNull(method, "method");
+
+        CompletableFuture<Void> future = new CompletableFuture<Void>();
+        int commandHandle = addFuture(future);
+
+        PaymentMethodBridge bridge = new PaymentMethodBridge(method);
+        PaymentMethodBridge.retain(bridge);
+
+        int result = LibIndy.api.indy_register_payment_method(
+                commandHandle,
+                paymentMethod,
+                bridge.createPaymentAddressCb,
+                bridge.addRequestFeesCb,
+                bridge.parseResponseWithFeesCb,
+                bridge.buildGetPaymentSourcesRequestCb,
+                bridge.parseGetPaymentSourcesResponseCb,
+                bridge.buildPaymentReqCb,
+                bridge.parsePaymentResponseCb,
+                bridge.buildMintReqCb,
+                bridge.buildSetTxnFeesReqCb,
+                bridge.buildGetTxnFeesReqCb,
+                bridge.parseGetTxnFeesResponseCb,
+                bridge.buildVerifyPaymentReqCb,
+                bridge.parseVerifyPaymentResponseCb,
+                bridge.signWithAddressCb,
+                bridge.verifyWithAddressCb,
+                voidCb);
+
+        checkResult(commandHandle, future, result);
 
         return future;
     }
@@ -25,9 +25,9 @@ public class PaymentsResults {
 
 	public static class ParseGetPaymentSourcesWithFromResponseResult {
 		private String sourcesJson;
-		private int next;
+		private long next;
 
-		public ParseGetPaymentSourcesWithFromResponseResult(String sourcesJson, int next) {
+		public ParseGetPaymentSourcesWithFromResponseResult(String sourcesJson, long next) {
 			this.next = next;
 			this.sourcesJson = sourcesJson;
 		}
@@ -36,7 +36,7 @@ public class PaymentsResults {
 			return sourcesJson;
 		}
 
-		public int getNext() {
+		public long getNext() {
 			return next;
 		}
 	}
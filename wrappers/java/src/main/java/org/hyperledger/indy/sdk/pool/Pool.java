@@ -101,7 +101,7 @@ public class Pool extends IndyJava.API implements AutoCloseable {
 				config,
 				voidCb);
 
-		checkResult(future, result);
+		checkResult(commandHandle, future, result);
 
 		return future;
 	}
@@ -144,7 +144,7 @@ public class Pool extends IndyJava.API implements AutoCloseable {
 				config, 
 				openPoolLedgerCb);
 
-		checkResult(future, result);
+		checkResult(commandHandle, future, result);
 
 		return future;
 	}
@@ -171,7 +171,7 @@ public class Pool extends IndyJava.API implements AutoCloseable {
 				handle,
 				voidCb);
 
-		checkResult(future, result);
+		checkResult(commandHandle, future, result);
 
 		return future;
 	}
@@ -198,7 +198,7 @@ public class Pool extends IndyJava.API implements AutoCloseable {
 				handle,
 				voidCb);
 
-		checkResult(future, result);
+		checkResult(commandHandle, future, result);
 
 		return future;
 	}
@@ -223,7 +223,7 @@ public class Pool extends IndyJava.API implements AutoCloseable {
 				configName,
 				voidCb);
 
-		checkResult(future, result);
+		checkResult(commandHandle, future, result);
 
 		return future;
 	}
@@ -254,7 +254,7 @@ public class Pool extends IndyJava.API implements AutoCloseable {
 				protocolVersion,
 				voidCb);
 
-		checkResult(future, result);
+		checkResult(commandHandle, future, result);
 
 		return future;
 	}
@@ -291,4 +291,30 @@ public class Pool extends IndyJava.API implements AutoCloseable {
 	public void close() throws InterruptedException, ExecutionException, IndyException {
 		closePoolLedger().get();
 	}
+
+	/*
+	 * OBJECT METHODS
+	 */
+
+	@Override
+	public boolean equals(Object other) {
+
+		if (this == other) return true;
+		if (other == null || getClass() != other.getClass()) return false;
+
+		Pool that = (Pool) other;
+		return this.poolHandle == that.poolHandle;
+	}
+
+	@Override
+	public int hashCode() {
+
+		return this.poolHandle;
+	}
+
+	@Override
+	public String toString() {
+
+		return "Pool[poolHandle=" + this.poolHandle + "]";
+	}
 }
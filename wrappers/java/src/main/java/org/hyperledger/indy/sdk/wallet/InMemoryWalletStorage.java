@@ -0,0 +1,43 @@
+package org.hyperledger.indy.sdk.wallet;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.hyperledger.indy.sdk.IndyException;
+
+/**
+ * {@link WalletStorage} that keeps wallets on the heap. Wallets live until they are deleted or the
+ * process ends, so this suits tests and short-lived wallets. Storage config and credentials are ignored.
+ */
+public class InMemoryWalletStorage implements WalletStorage {
+
+	private final ConcurrentHashMap<String, RecordStore> wallets = new ConcurrentHashMap<String, RecordStore>();
+
+	@Override
+	public void create(String name, String config, String credentials, String metadata) throws IndyException {
+
+		if (this.wallets.putIfAbsent(name, new RecordStore(metadata)) != null) throw new WalletExistsException();
+	}
+
+	@Override
+	public Session open(String name, String config, String credentials) throws IndyException {
+
+		RecordStore store = this.wallets.get(name);
+		if (store == null) throw new WalletNotFoundException();
+
+		return store;
+	}
+
+	@Override
+	public void delete(String name, String config, String credentials) throws IndyException {
+
+		if (this.wallets.remove(name) == null) throw new WalletNotFoundException();
+	}
+
+	/**
+	 * @return The number of wallets.
+	 */
+	public int size() {
+
+		return this.wallets.size();
+	}
+}
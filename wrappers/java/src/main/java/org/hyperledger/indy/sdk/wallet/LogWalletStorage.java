@@ -0,0 +1,403 @@
+package org.hyperledger.indy.sdk.wallet;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.zip.CRC32;
+
+import org.hyperledger.indy.sdk.IndyException;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * {@link WalletStorage} that keeps each wallet in a memory-mapped, append-only log file at
+ * {path}/{id}/wallet.log. Opened wallets are indexed on the heap; every modification appends the new
+ * state of the record to the log, and the log is rewritten once most of its entries are superseded.
+ *
+ * Entries are checksummed, so an entry torn by a crash is dropped when the wallet is opened. The log
+ * is forced to disk when the wallet is closed, or after every modification with "sync": true.
+ *
+ * Storage config:
+ * <pre>
+ * {
+ *   "path": optional["string"], Path to the directory with wallet directories. Defaults to the directory given to the constructor.
+ *   "sync": optional[bool], Whether to force every modification to disk. Defaults to false.
+ * }
+ * </pre>
+ */
+public class LogWalletStorage implements WalletStorage {
+
+	private static final Logger logger = LoggerFactory.getLogger(LogWalletStorage.class);
+
+	static final String LOG_FILE_NAME = "wallet.log";
+
+	private static final int INITIAL_CAPACITY = 64 * 1024;
+	private static final int COMPACTION_MIN_ENTRIES = 1024;
+
+	private static final byte PUT = 1;
+	private static final byte DELETE = 2;
+	private static final byte METADATA = 3;
+
+	private final File directory;
+
+	/**
+	 * Initializes a new LogWalletStorage.
+	 *
+	 * @param directory The default directory with wallet directories.
+	 */
+	public LogWalletStorage(File directory) {
+
+		this.directory = directory;
+	}
+
+	private File logFile(String name, String config) throws IndyException {
+
+		File base = this.directory;
+		if (config != null) {
+
+			try {
+
+				JSONObject json = new JSONObject(config);
+				if (json.has("path")) base = new File(json.getString("path"));
+			} catch (JSONException e) {
+
+				throw new WalletInputException();
+			}
+		}
+
+		return new File(new File(base, name), LOG_FILE_NAME);
+	}
+
+	private static boolean sync(String config) throws IndyException {
+
+		try {
+
+			return config != null && new JSONObject(config).optBoolean("sync", false);
+		} catch (JSONException e) {
+
+			throw new WalletInputException();
+		}
+	}
+
+	private static WalletStorageException storageError(String message, IOException e) {
+
+		logger.warn(message, e);
+		return new WalletStorageException();
+	}
+
+	/*
+	 * STORAGE
+	 */
+
+	@Override
+	public void create(String name, String config, String credentials, String metadata) throws IndyException {
+
+		File file = logFile(name, config);
+		if (file.exists()) throw new WalletExistsException();
+
+		if (! file.getParentFile().isDirectory() && ! file.getParentFile().mkdirs()) throw storageError("Cannot create " + file.getParent(), new IOException("mkdirs failed"));
+
+		Log log = new Log(file, true);
+		try {
+
+			log.append(encodeMetadata(metadata));
+		} finally {
+
+			log.close();
+		}
+	}
+
+	@Override
+	public Session open(String name, String config, String credentials) throws IndyException {
+
+		File file = logFile(name, config);
+		if (! file.isFile()) throw new WalletNotFoundException();
+
+		return new LogSession(file, sync(config));
+	}
+
+	@Override
+	public void delete(String name, String config, String credentials) throws IndyException {
+
+		File file = logFile(name, config);
+		if (! file.isFile()) throw new WalletNotFoundException();
+
+		try {
+
+			Files.delete(file.toPath());
+		} catch (IOException e) {
+
+			throw storageError("Cannot delete " + file, e);
+		}
+
+		file.getParentFile().delete();
+	}
+
+	/*
+	 * ENCODING
+	 */
+
+	private static byte[] encodePut(WalletStorage.Record record) {
+
+		try {
+
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 + record.getValue().length);
+			DataOutputStream out = new DataOutputStream(bytes);
+			out.writeByte(PUT);
+			RecordCodec.write(out, record);
+
+			return bytes.toByteArray();
+		} catch (IOException e) {
+
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static byte[] encodeDelete(String type, String id) {
+
+		try {
+
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			DataOutputStream out = new DataOutputStream(bytes);
+			out.writeByte(DELETE);
+			RecordCodec.writeString(out, type);
+			RecordCodec.writeString(out, id);
+
+			return bytes.toByteArray();
+		} catch (IOException e) {
+
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static byte[] encodeMetadata(String metadata) {
+
+		try {
+
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			DataOutputStream out = new DataOutputStream(bytes);
+			out.writeByte(METADATA);
+			RecordCodec.writeString(out, metadata);
+
+			return bytes.toByteArray();
+		} catch (IOException e) {
+
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static void decode(ByteBuffer in, RecordStore target) {
+
+		byte op = in.get();
+		if (op == METADATA) {
+
+			target.applyMetadata(RecordCodec.readString(in));
+		} else if (op == DELETE) {
+
+			String type = RecordCodec.readString(in);
+			target.apply(type, RecordCodec.readString(in), null);
+		} else {
+
+			WalletStorage.Record record = RecordCodec.read(in);
+			target.apply(record.getType(), record.getId(), record);
+		}
+	}
+
+	/*
+	 * LOG
+	 */
+
+	/**
+	 * A memory-mapped log file. Each entry is its length, the CRC32 of its payload and the payload; the
+	 * last entry is followed by a zero length.
+	 */
+	private static final class Log {
+
+		private final File file;
+		private final RandomAccessFile randomAccessFile;
+		private final FileChannel channel;
+		private MappedByteBuffer buffer;
+		private int position;
+		private int entries;
+
+		private Log(File file, boolean create) throws IndyException {
+
+			this.file = file;
+
+			try {
+
+				this.randomAccessFile = new RandomAccessFile(file, "rw");
+				this.channel = this.randomAccessFile.getChannel();
+				if (create) this.channel.truncate(0);
+
+				this.buffer = this.channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(INITIAL_CAPACITY, this.channel.size()));
+			} catch (IOException e) {
+
+				throw storageError("Cannot map " + file, e);
+			}
+		}
+
+		private void replay(RecordStore target) {
+
+			CRC32 crc = new CRC32();
+
+			while (this.position + 8 <= this.buffer.capacity()) {
+
+				int length = this.buffer.getInt(this.position);
+				if (length <= 0 || this.position + 8 + length > this.buffer.capacity()) break;
+
+				ByteBuffer payload = this.buffer.duplicate();
+				payload.position(this.position + 8);
+				payload.limit(this.position + 8 + length);
+
+				crc.reset();
+				crc.update(payload.duplicate());
+				if ((int) crc.getValue() != this.buffer.getInt(this.position + 4)) {
+
+					logger.warn("Dropping torn entry at {} of {}", this.position, this.file);
+					break;
+				}
+
+				decode(payload, target);
+				this.position += 8 + length;
+				this.entries++;
+			}
+		}
+
+		private void append(byte[] payload) throws IndyException {
+
+			ensureCapacity((long) this.position + 8 + payload.length + 4);
+
+			CRC32 crc = new CRC32();
+			crc.update(payload);
+
+			ByteBuffer out = this.buffer.duplicate();
+			out.position(this.position + 8);
+			out.put(payload);
+			out.putInt(0);
+
+			this.buffer.putInt(this.position + 4, (int) crc.getValue());
+			this.buffer.putInt(this.position, payload.length);
+
+			this.position += 8 + payload.length;
+			this.entries++;
+		}
+
+		private void ensureCapacity(long required) throws IndyException {
+
+			if (required <= this.buffer.capacity()) return;
+			if (required > Integer.MAX_VALUE) throw storageError("Log is full: " + this.file, new IOException("log exceeds 2 GB"));
+
+			try {
+
+				this.buffer = this.channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.min(Integer.MAX_VALUE, Math.max(required, 2L * this.buffer.capacity())));
+			} catch (IOException e) {
+
+				throw storageError("Cannot grow " + this.file, e);
+			}
+		}
+
+		private void force() {
+
+			this.buffer.force();
+		}
+
+		private void close() throws IndyException {
+
+			try {
+
+				this.buffer.force();
+				this.randomAccessFile.close();
+			} catch (IOException e) {
+
+				throw storageError("Cannot close " + this.file, e);
+			}
+		}
+	}
+
+	/**
+	 * An opened wallet.
+	 */
+	private static final class LogSession extends RecordStore {
+
+		private final File file;
+		private final boolean sync;
+		private Log log;
+
+		private LogSession(File file, boolean sync) throws IndyException {
+
+			super(null);
+
+			this.file = file;
+			this.sync = sync;
+			this.log = new Log(file, false);
+			this.log.replay(this);
+		}
+
+		@Override
+		protected void write(String type, String id, WalletStorage.Record record) throws IndyException {
+
+			compactIfMostlySuperseded();
+			append(record != null ? encodePut(record) : encodeDelete(type, id));
+		}
+
+		@Override
+		protected void writeMetadata(String metadata) throws IndyException {
+
+			compactIfMostlySuperseded();
+			append(encodeMetadata(metadata));
+		}
+
+		private void append(byte[] payload) throws IndyException {
+
+			this.log.append(payload);
+			if (this.sync) this.log.force();
+		}
+
+		/**
+		 * Rewrites the log with the current records once it has more than twice as many entries.
+		 * The log is replaced atomically; if that fails, the old log is kept.
+		 */
+		private void compactIfMostlySuperseded() throws IndyException {
+
+			int live = size() + 1;
+			if (this.log.entries < COMPACTION_MIN_ENTRIES || this.log.entries <= 2 * live) return;
+
+			File compacted = new File(this.file.getPath() + ".compact");
+			Log next = new Log(compacted, true);
+			try {
+
+				next.append(encodeMetadata(getStorageMetadata()));
+				for (WalletStorage.Record record : searchAllRecords()) next.append(encodePut(record));
+				next.force();
+
+				Files.move(compacted.toPath(), this.file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			} catch (IOException e) {
+
+				logger.warn("Cannot compact " + this.file, e);
+				next.close();
+				compacted.delete();
+				return;
+			}
+
+			Log previous = this.log;
+			this.log = next;
+			previous.close();
+		}
+
+		@Override
+		public synchronized void close() throws IndyException {
+
+			this.log.close();
+		}
+	}
+}
@@ -0,0 +1,214 @@
+package org.hyperledger.indy.sdk.wallet;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Fixed-capacity pool of off-heap memory, handed out in power-of-two blocks from 64 bytes to 1 MiB.
+ * Memory is reserved from the operating system in 1 MiB chunks as needed, up to the capacity, and
+ * is never returned. Freed blocks are reused for blocks of the same size; they are not coalesced.
+ *
+ * A block is referenced by a long holding its chunk, offset and size class. Each block starts with the
+ * length of the data stored in it. Allocation is synchronized; reading a block that is not being
+ * freed concurrently does not lock.
+ */
+final class OffHeapArena {
+
+	private static final Logger logger = LoggerFactory.getLogger(OffHeapArena.class);
+
+	static final int CHUNK_SIZE = 1 << 20;
+	static final int MAX_DATA_LENGTH = CHUNK_SIZE - 4;
+
+	private static final int MIN_BLOCK_SHIFT = 6;
+	private static final int MAX_BLOCK_SHIFT = 20;
+
+	private final long capacity;
+	private final AtomicReferenceArray<ByteBuffer> chunks;
+	private final long[][] freeBlocks = new long[MAX_BLOCK_SHIFT + 1][];
+	private final int[] freeCounts = new int[MAX_BLOCK_SHIFT + 1];
+
+	private int chunkCount;
+	private int tailOffset = CHUNK_SIZE;
+	private long usedBytes;
+
+	/**
+	 * Initializes a new OffHeapArena.
+	 *
+	 * @param capacity The maximum number of bytes to reserve, rounded down to whole chunks.
+	 */
+	OffHeapArena(long capacity) {
+
+		if (capacity < CHUNK_SIZE) throw new IllegalArgumentException("The capacity must be at least " + CHUNK_SIZE + " bytes.");
+
+		this.capacity = capacity;
+		this.chunks = new AtomicReferenceArray<ByteBuffer>((int) Math.min(Integer.MAX_VALUE, capacity / CHUNK_SIZE));
+	}
+
+	/*
+	 * ALLOCATION
+	 */
+
+	/**
+	 * Allocates a block and copies data into it.
+	 *
+	 * @param data The data.
+	 * @return The block reference.
+	 * @throws WalletStorageException Thrown if the data is too large or the arena is full.
+	 */
+	long store(byte[] data) throws WalletStorageException {
+
+		long block = allocate(data.length);
+
+		ByteBuffer out = chunk(block).duplicate();
+		out.position(offset(block));
+		out.putInt(data.length);
+		out.put(data);
+
+		return block;
+	}
+
+	private synchronized long allocate(int length) throws WalletStorageException {
+
+		if (length > MAX_DATA_LENGTH) {
+
+			logger.warn("Cannot store {} bytes off-heap, the limit is {}", length, MAX_DATA_LENGTH);
+			throw new WalletStorageException();
+		}
+
+		int shift = Math.max(MIN_BLOCK_SHIFT, 32 - Integer.numberOfLeadingZeros(length + 3));
+
+		long block = this.freeCounts[shift] > 0 ? this.freeBlocks[shift][--this.freeCounts[shift]] : carve(shift);
+		this.usedBytes += 1 << shift;
+
+		return block;
+	}
+
+	private long carve(int shift) throws WalletStorageException {
+
+		int size = 1 << shift;
+		if (this.tailOffset + size > CHUNK_SIZE) {
+
+			if (this.chunkCount == this.chunks.length()) {
+
+				logger.warn("Off-heap wallet storage is full at {} bytes", this.capacity);
+				throw new WalletStorageException();
+			}
+
+			releaseTail();
+			this.chunks.set(this.chunkCount++, ByteBuffer.allocateDirect(CHUNK_SIZE));
+			this.tailOffset = 0;
+		}
+
+		long block = reference(this.chunkCount - 1, this.tailOffset, shift);
+		this.tailOffset += size;
+
+		return block;
+	}
+
+	/**
+	 * Splits the unused end of the current chunk into free blocks.
+	 */
+	private void releaseTail() {
+
+		while (this.chunkCount > 0 && CHUNK_SIZE - this.tailOffset >= 1 << MIN_BLOCK_SHIFT) {
+
+			int shift = 31 - Integer.numberOfLeadingZeros(CHUNK_SIZE - this.tailOffset);
+			push(reference(this.chunkCount - 1, this.tailOffset, shift));
+			this.tailOffset += 1 << shift;
+		}
+	}
+
+	/**
+	 * Frees a block.
+	 *
+	 * @param block The block reference.
+	 */
+	synchronized void free(long block) {
+
+		push(block);
+		this.usedBytes -= 1 << shift(block);
+	}
+
+	private void push(long block) {
+
+		int shift = shift(block);
+		long[] blocks = this.freeBlocks[shift];
+		if (blocks == null) blocks = this.freeBlocks[shift] = new long[16];
+		else if (this.freeCounts[shift] == blocks.length) blocks = this.freeBlocks[shift] = Arrays.copyOf(blocks, blocks.length * 2);
+
+		blocks[this.freeCounts[shift]++] = block;
+	}
+
+	/*
+	 * ACCESS
+	 */
+
+	/**
+	 * Gets the data of a block.
+	 *
+	 * @param block The block reference.
+	 * @return A buffer positioned at the start of the data and limited to its end.
+	 */
+	ByteBuffer read(long block) {
+
+		ByteBuffer in = chunk(block).duplicate();
+		int offset = offset(block);
+
+		in.position(offset + 4);
+		in.limit(offset + 4 + in.getInt(offset));
+
+		return in;
+	}
+
+	private ByteBuffer chunk(long block) {
+
+		return this.chunks.get((int) (block >>> 32));
+	}
+
+	private static long reference(int chunk, int offset, int shift) {
+
+		return (long) chunk << 32 | (long) offset << 8 | shift;
+	}
+
+	private static int offset(long block) {
+
+		return (int) (block >>> 8) & (CHUNK_SIZE - 1);
+	}
+
+	private static int shift(long block) {
+
+		return (int) block & 0xff;
+	}
+
+	/*
+	 * STATISTICS
+	 */
+
+	/**
+	 * @return The maximum number of bytes reserved.
+	 */
+	long getCapacity() {
+
+		return this.capacity;
+	}
+
+	/**
+	 * @return The number of bytes reserved so far.
+	 */
+	synchronized long getReservedBytes() {
+
+		return (long) this.chunkCount * CHUNK_SIZE;
+	}
+
+	/**
+	 * @return The number of bytes in allocated blocks.
+	 */
+	synchronized long getUsedBytes() {
+
+		return this.usedBytes;
+	}
+}
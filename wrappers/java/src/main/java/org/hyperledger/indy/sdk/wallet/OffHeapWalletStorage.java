@@ -0,0 +1,429 @@
+package org.hyperledger.indy.sdk.wallet;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.hyperledger.indy.sdk.IndyException;
+
+/**
+ * {@link WalletStorage} that keeps the encrypted records of all its wallets in a bounded pool of
+ * off-heap memory, without any disk I/O. Wallets live until they are deleted or the process ends, so
+ * this suits load tests and short-lived wallets.
+ *
+ * Records are found by type and id in O(1) through a heap index; searches look up candidates in a heap
+ * index of tag values when the query has an equality or "$in" term on some tag, and scan the records
+ * of the type otherwise. Records larger than 1 MiB cannot be stored, and storing a record fails with
+ * {@link WalletStorageException} once the capacity is used up.
+ *
+ * Register it once per process and select it with "storage_type" in the wallet config:
+ * <pre>
+ * Wallet.registerWalletStorage(OffHeapWalletStorage.STORAGE_TYPE, new OffHeapWalletStorage(256L &lt;&lt; 20)).get();
+ * Wallet.createWallet("{\"id\": \"tenant\", \"storage_type\": \"" + OffHeapWalletStorage.STORAGE_TYPE + "\"}", credentials).get();
+ * </pre>
+ * Storage config and credentials are ignored.
+ */
+public class OffHeapWalletStorage implements WalletStorage {
+
+	/**
+	 * The storage type this storage is usually registered under.
+	 */
+	public static final String STORAGE_TYPE = "java_off_heap";
+
+	private final OffHeapArena arena;
+	private final ConcurrentHashMap<String, Store> wallets = new ConcurrentHashMap<String, Store>();
+
+	/**
+	 * Initializes a new OffHeapWalletStorage.
+	 *
+	 * @param capacity The maximum number of off-heap bytes used for records of all wallets; at least 1 MiB.
+	 */
+	public OffHeapWalletStorage(long capacity) {
+
+		this.arena = new OffHeapArena(capacity);
+	}
+
+	/*
+	 * STORAGE
+	 */
+
+	@Override
+	public void create(String name, String config, String credentials, String metadata) throws IndyException {
+
+		if (this.wallets.putIfAbsent(name, new Store(metadata)) != null) throw new WalletExistsException();
+	}
+
+	@Override
+	public Session open(String name, String config, String credentials) throws IndyException {
+
+		Store store = this.wallets.get(name);
+		if (store == null) throw new WalletNotFoundException();
+
+		return store;
+	}
+
+	@Override
+	public void delete(String name, String config, String credentials) throws IndyException {
+
+		Store store = this.wallets.remove(name);
+		if (store == null) throw new WalletNotFoundException();
+
+		store.clear();
+	}
+
+	/*
+	 * STATISTICS
+	 */
+
+	/**
+	 * @return The number of wallets.
+	 */
+	public int size() {
+
+		return this.wallets.size();
+	}
+
+	/**
+	 * @return The maximum number of off-heap bytes used.
+	 */
+	public long getCapacity() {
+
+		return this.arena.getCapacity();
+	}
+
+	/**
+	 * @return The number of off-heap bytes reserved so far.
+	 */
+	public long getReservedBytes() {
+
+		return this.arena.getReservedBytes();
+	}
+
+	/**
+	 * @return The number of off-heap bytes holding records, including rounding to block sizes.
+	 */
+	public long getUsedBytes() {
+
+		return this.arena.getUsedBytes();
+	}
+
+	/**
+	 * The records of one wallet.
+	 */
+	private final class Store implements Session {
+
+		private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+		/**
+		 * Block references by type and id.
+		 */
+		private final Map<String, Map<String, Long>> records = new HashMap<String, Map<String, Long>>();
+
+		/**
+		 * Record ids by type, tag name and tag value.
+		 */
+		private final Map<String, Map<String, Map<String, Set<String>>>> tagIndex = new HashMap<String, Map<String, Map<String, Set<String>>>>();
+
+		private String metadata;
+
+		private Store(String metadata) {
+
+			this.metadata = metadata;
+		}
+
+		private Long block(String type, String id) {
+
+			Map<String, Long> blocks = this.records.get(type);
+			return blocks != null ? blocks.get(id) : null;
+		}
+
+		private WalletStorage.Record existing(String type, String id) throws IndyException {
+
+			Long block = block(type, id);
+			if (block == null) throw new WalletItemNotFoundException();
+
+			return RecordCodec.read(arena.read(block));
+		}
+
+		/**
+		 * Stores a record, replacing the previous version. The previous version is kept if the new one
+		 * cannot be stored.
+		 */
+		private void put(WalletStorage.Record record, WalletStorage.Record previous) throws IndyException {
+
+			long block = arena.store(RecordCodec.encode(record));
+
+			Map<String, Long> blocks = this.records.get(record.getType());
+			if (blocks == null) this.records.put(record.getType(), blocks = new HashMap<String, Long>());
+
+			Long replaced = blocks.put(record.getId(), block);
+			if (replaced != null) arena.free(replaced);
+
+			if (previous != null) unindex(previous);
+			index(record);
+		}
+
+		private void index(WalletStorage.Record record) {
+
+			Map<String, Map<String, Set<String>>> names = this.tagIndex.get(record.getType());
+			if (names == null) this.tagIndex.put(record.getType(), names = new HashMap<String, Map<String, Set<String>>>());
+
+			for (Map.Entry<String, String> tag : record.getTags().entrySet()) {
+
+				Map<String, Set<String>> values = names.get(tag.getKey());
+				if (values == null) names.put(tag.getKey(), values = new HashMap<String, Set<String>>());
+
+				Set<String> ids = values.get(tag.getValue());
+				if (ids == null) values.put(tag.getValue(), ids = new HashSet<String>());
+
+				ids.add(record.getId());
+			}
+		}
+
+		private void unindex(WalletStorage.Record record) {
+
+			Map<String, Map<String, Set<String>>> names = this.tagIndex.get(record.getType());
+			if (names == null) return;
+
+			for (Map.Entry<String, String> tag : record.getTags().entrySet()) {
+
+				Map<String, Set<String>> values = names.get(tag.getKey());
+				Set<String> ids = values != null ? values.get(tag.getValue()) : null;
+				if (ids == null) continue;
+
+				ids.remove(record.getId());
+				if (ids.isEmpty()) values.remove(tag.getValue());
+				if (values.isEmpty()) names.remove(tag.getKey());
+			}
+		}
+
+		private void clear() {
+
+			this.lock.writeLock().lock();
+			try {
+
+				for (Map<String, Long> blocks : this.records.values()) for (Long block : blocks.values()) arena.free(block);
+
+				this.records.clear();
+				this.tagIndex.clear();
+			} finally {
+
+				this.lock.writeLock().unlock();
+			}
+		}
+
+		/*
+		 * SESSION
+		 */
+
+		@Override
+		public void addRecord(String type, String id, byte[] value, Map<String, String> tags) throws IndyException {
+
+			this.lock.writeLock().lock();
+			try {
+
+				if (block(type, id) != null) throw new WalletItemAlreadyExistsException();
+
+				put(new WalletStorage.Record(type, id, value, tags), null);
+			} finally {
+
+				this.lock.writeLock().unlock();
+			}
+		}
+
+		@Override
+		public void updateRecordValue(String type, String id, byte[] value) throws IndyException {
+
+			this.lock.writeLock().lock();
+			try {
+
+				WalletStorage.Record record = existing(type, id);
+				put(new WalletStorage.Record(type, id, value, record.getTags()), record);
+			} finally {
+
+				this.lock.writeLock().unlock();
+			}
+		}
+
+		@Override
+		public void updateRecordTags(String type, String id, Map<String, String> tags) throws IndyException {
+
+			this.lock.writeLock().lock();
+			try {
+
+				WalletStorage.Record record = existing(type, id);
+				put(new WalletStorage.Record(type, id, record.getValue(), tags), record);
+			} finally {
+
+				this.lock.writeLock().unlock();
+			}
+		}
+
+		@Override
+		public void addRecordTags(String type, String id, Map<String, String> tags) throws IndyException {
+
+			this.lock.writeLock().lock();
+			try {
+
+				WalletStorage.Record record = existing(type, id);
+
+				Map<String, String> merged = new HashMap<String, String>(record.getTags());
+				merged.putAll(tags);
+
+				put(new WalletStorage.Record(type, id, record.getValue(), merged), record);
+			} finally {
+
+				this.lock.writeLock().unlock();
+			}
+		}
+
+		@Override
+		public void deleteRecordTags(String type, String id, Collection<String> tagNames) throws IndyException {
+
+			this.lock.writeLock().lock();
+			try {
+
+				WalletStorage.Record record = existing(type, id);
+
+				Map<String, String> remaining = new HashMap<String, String>(record.getTags());
+				remaining.keySet().removeAll(tagNames);
+
+				put(new WalletStorage.Record(type, id, record.getValue(), remaining), record);
+			} finally {
+
+				this.lock.writeLock().unlock();
+			}
+		}
+
+		@Override
+		public void deleteRecord(String type, String id) throws IndyException {
+
+			this.lock.writeLock().lock();
+			try {
+
+				WalletStorage.Record record = existing(type, id);
+
+				arena.free(this.records.get(type).remove(id));
+				unindex(record);
+			} finally {
+
+				this.lock.writeLock().unlock();
+			}
+		}
+
+		@Override
+		public WalletStorage.Record getRecord(String type, String id) throws IndyException {
+
+			this.lock.readLock().lock();
+			try {
+
+				return existing(type, id);
+			} finally {
+
+				this.lock.readLock().unlock();
+			}
+		}
+
+		@Override
+		public String getStorageMetadata() throws IndyException {
+
+			this.lock.readLock().lock();
+			try {
+
+				return this.metadata;
+			} finally {
+
+				this.lock.readLock().unlock();
+			}
+		}
+
+		@Override
+		public void setStorageMetadata(String metadata) throws IndyException {
+
+			this.lock.writeLock().lock();
+			try {
+
+				this.metadata = metadata;
+			} finally {
+
+				this.lock.writeLock().unlock();
+			}
+		}
+
+		@Override
+		public List<WalletStorage.Record> searchRecords(String type, WalletStorageQuery query) throws IndyException {
+
+			this.lock.readLock().lock();
+			try {
+
+				Map<String, Long> blocks = this.records.get(type);
+				if (blocks == null) return new ArrayList<WalletStorage.Record>();
+
+				List<WalletStorage.Record> result = new ArrayList<WalletStorage.Record>();
+				for (String id : candidates(type, query, blocks)) {
+
+					WalletStorage.Record record = RecordCodec.read(arena.read(blocks.get(id)));
+					if (query.matches(record.getTags())) result.add(record);
+				}
+
+				return result;
+			} finally {
+
+				this.lock.readLock().unlock();
+			}
+		}
+
+		private Collection<String> candidates(String type, WalletStorageQuery query, Map<String, Long> blocks) {
+
+			WalletStorageQuery term = query.indexTerm();
+			if (term == null) return blocks.keySet();
+
+			Map<String, Map<String, Set<String>>> names = this.tagIndex.get(type);
+			Map<String, Set<String>> values = names != null ? names.get(term.tagName()) : null;
+			if (values == null) return Collections.emptyList();
+
+			if (term.values().size() == 1) {
+
+				Set<String> ids = values.get(term.values().get(0));
+				return ids != null ? ids : Collections.<String>emptyList();
+			}
+
+			Set<String> result = new HashSet<String>();
+			for (String value : term.values()) {
+
+				Set<String> ids = values.get(value);
+				if (ids != null) result.addAll(ids);
+			}
+
+			return result;
+		}
+
+		@Override
+		public List<WalletStorage.Record> searchAllRecords() throws IndyException {
+
+			this.lock.readLock().lock();
+			try {
+
+				List<WalletStorage.Record> result = new ArrayList<WalletStorage.Record>();
+				for (Map<String, Long> blocks : this.records.values()) for (Long block : blocks.values()) result.add(RecordCodec.read(arena.read(block)));
+
+				return result;
+			} finally {
+
+				this.lock.readLock().unlock();
+			}
+		}
+
+		@Override
+		public void close() throws IndyException {
+
+		}
+	}
+}
@@ -0,0 +1,78 @@
+package org.hyperledger.indy.sdk.wallet;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Binary encoding of wallet records used by the Java storages: type, id, value and tags, each string
+ * and byte array prefixed by its length.
+ */
+final class RecordCodec {
+
+	private RecordCodec() {
+
+	}
+
+	static void write(DataOutputStream out, WalletStorage.Record record) throws IOException {
+
+		writeString(out, record.getType());
+		writeString(out, record.getId());
+		out.writeInt(record.getValue().length);
+		out.write(record.getValue());
+		out.writeInt(record.getTags().size());
+		for (Map.Entry<String, String> tag : record.getTags().entrySet()) {
+
+			writeString(out, tag.getKey());
+			writeString(out, tag.getValue());
+		}
+	}
+
+	static byte[] encode(WalletStorage.Record record) {
+
+		try {
+
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 + record.getValue().length);
+			write(new DataOutputStream(bytes), record);
+
+			return bytes.toByteArray();
+		} catch (IOException e) {
+
+			throw new IllegalStateException(e);
+		}
+	}
+
+	static WalletStorage.Record read(ByteBuffer in) {
+
+		String type = readString(in);
+		String id = readString(in);
+
+		byte[] value = new byte[in.getInt()];
+		in.get(value);
+
+		int tagCount = in.getInt();
+		Map<String, String> tags = new HashMap<String, String>(tagCount * 2);
+		for (int i = 0; i < tagCount; i++) tags.put(readString(in), readString(in));
+
+		return new WalletStorage.Record(type, id, value, tags);
+	}
+
+	static void writeString(DataOutputStream out, String string) throws IOException {
+
+		byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+
+	static String readString(ByteBuffer in) {
+
+		byte[] bytes = new byte[in.getInt()];
+		in.get(bytes);
+
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+}
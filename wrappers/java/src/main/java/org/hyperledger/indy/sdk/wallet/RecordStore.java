@@ -0,0 +1,216 @@
+package org.hyperledger.indy.sdk.wallet;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.hyperledger.indy.sdk.IndyException;
+
+/**
+ * Heap-based records of one wallet, indexed by type and id. Reads do not lock; modifications are
+ * serialized and passed to {@link #write(String, String, WalletStorage.Record)} before they are
+ * applied, so that subclasses can persist them.
+ */
+class RecordStore implements WalletStorage.Session {
+
+	private final ConcurrentHashMap<String, ConcurrentHashMap<String, WalletStorage.Record>> types = new ConcurrentHashMap<String, ConcurrentHashMap<String, WalletStorage.Record>>();
+	private volatile String metadata;
+
+	RecordStore(String metadata) {
+
+		this.metadata = metadata;
+	}
+
+	/*
+	 * PERSISTENCE HOOKS
+	 */
+
+	/**
+	 * Called before a record is stored or deleted. The modification is not applied if this throws.
+	 *
+	 * @param type   The record type.
+	 * @param id     The record id.
+	 * @param record The new record, or null if the record is deleted.
+	 * @throws IndyException Thrown if the modification cannot be persisted.
+	 */
+	protected void write(String type, String id, WalletStorage.Record record) throws IndyException {
+
+	}
+
+	/**
+	 * Called before the storage metadata is replaced. The metadata is not replaced if this throws.
+	 *
+	 * @param metadata The new metadata.
+	 * @throws IndyException Thrown if the metadata cannot be persisted.
+	 */
+	protected void writeMetadata(String metadata) throws IndyException {
+
+	}
+
+	/**
+	 * Stores or deletes a record without calling the persistence hooks.
+	 *
+	 * @param type   The record type.
+	 * @param id     The record id.
+	 * @param record The record, or null to delete it.
+	 */
+	final void apply(String type, String id, WalletStorage.Record record) {
+
+		ConcurrentHashMap<String, WalletStorage.Record> records = this.types.get(type);
+
+		if (record == null) {
+
+			if (records != null) records.remove(id);
+			return;
+		}
+
+		if (records == null) {
+
+			ConcurrentHashMap<String, WalletStorage.Record> created = new ConcurrentHashMap<String, WalletStorage.Record>();
+			records = this.types.putIfAbsent(type, created);
+			if (records == null) records = created;
+		}
+
+		records.put(id, record);
+	}
+
+	/**
+	 * Replaces the storage metadata without calling the persistence hooks.
+	 *
+	 * @param metadata The metadata.
+	 */
+	final void applyMetadata(String metadata) {
+
+		this.metadata = metadata;
+	}
+
+	/**
+	 * @return The number of records.
+	 */
+	final int size() {
+
+		int size = 0;
+		for (Map<String, WalletStorage.Record> records : this.types.values()) size += records.size();
+
+		return size;
+	}
+
+	private WalletStorage.Record existing(String type, String id) throws IndyException {
+
+		Map<String, WalletStorage.Record> records = this.types.get(type);
+		WalletStorage.Record record = records != null ? records.get(id) : null;
+		if (record == null) throw new WalletItemNotFoundException();
+
+		return record;
+	}
+
+	private void put(WalletStorage.Record record) throws IndyException {
+
+		write(record.getType(), record.getId(), record);
+		apply(record.getType(), record.getId(), record);
+	}
+
+	/*
+	 * SESSION
+	 */
+
+	@Override
+	public synchronized void addRecord(String type, String id, byte[] value, Map<String, String> tags) throws IndyException {
+
+		Map<String, WalletStorage.Record> records = this.types.get(type);
+		if (records != null && records.containsKey(id)) throw new WalletItemAlreadyExistsException();
+
+		put(new WalletStorage.Record(type, id, value, tags));
+	}
+
+	@Override
+	public synchronized void updateRecordValue(String type, String id, byte[] value) throws IndyException {
+
+		put(new WalletStorage.Record(type, id, value, existing(type, id).getTags()));
+	}
+
+	@Override
+	public synchronized void updateRecordTags(String type, String id, Map<String, String> tags) throws IndyException {
+
+		put(new WalletStorage.Record(type, id, existing(type, id).getValue(), tags));
+	}
+
+	@Override
+	public synchronized void addRecordTags(String type, String id, Map<String, String> tags) throws IndyException {
+
+		WalletStorage.Record record = existing(type, id);
+
+		Map<String, String> merged = new HashMap<String, String>(record.getTags());
+		merged.putAll(tags);
+
+		put(new WalletStorage.Record(type, id, record.getValue(), merged));
+	}
+
+	@Override
+	public synchronized void deleteRecordTags(String type, String id, Collection<String> tagNames) throws IndyException {
+
+		WalletStorage.Record record = existing(type, id);
+
+		Map<String, String> remaining = new HashMap<String, String>(record.getTags());
+		remaining.keySet().removeAll(tagNames);
+
+		put(new WalletStorage.Record(type, id, record.getValue(), remaining));
+	}
+
+	@Override
+	public synchronized void deleteRecord(String type, String id) throws IndyException {
+
+		existing(type, id);
+
+		write(type, id, null);
+		apply(type, id, null);
+	}
+
+	@Override
+	public WalletStorage.Record getRecord(String type, String id) throws IndyException {
+
+		return existing(type, id);
+	}
+
+	@Override
+	public String getStorageMetadata() throws IndyException {
+
+		return this.metadata;
+	}
+
+	@Override
+	public synchronized void setStorageMetadata(String metadata) throws IndyException {
+
+		writeMetadata(metadata);
+		applyMetadata(metadata);
+	}
+
+	@Override
+	public List<WalletStorage.Record> searchRecords(String type, WalletStorageQuery query) throws IndyException {
+
+		Map<String, WalletStorage.Record> records = this.types.get(type);
+		List<WalletStorage.Record> result = new ArrayList<WalletStorage.Record>();
+		if (records == null) return result;
+
+		for (WalletStorage.Record record : records.values()) if (query.matches(record.getTags())) result.add(record);
+
+		return result;
+	}
+
+	@Override
+	public List<WalletStorage.Record> searchAllRecords() throws IndyException {
+
+		List<WalletStorage.Record> result = new ArrayList<WalletStorage.Record>();
+		for (Map<String, WalletStorage.Record> records : this.types.values()) result.addAll(records.values());
+
+		return result;
+	}
+
+	@Override
+	public void close() throws IndyException {
+
+	}
+}
@@ -0,0 +1,1011 @@
+package org.hyperledger.indy.sdk.wallet;
+
+import org.hyperledger.indy.sdk.IndyException;
+import org.hyperledger.indy.sdk.ParamGuard;
+import org.hyperledger.indy.sdk.anoncreds.Anoncreds;
+import org.hyperledger.indy.sdk.anoncreds.CredentialsSearch;
+import org.hyperledger.indy.sdk.anoncreds.CredentialsSearchForProofReq;
+import org.hyperledger.indy.sdk.non_secrets.WalletRecord;
+import org.hyperledger.indy.sdk.non_secrets.WalletSearch;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * A wallet whose records and credentials are spread over several {@link Wallet} shards by a hash of
+ * record type and id.
+ * <p>
+ * Every shard is a wallet of its own, with its own storage and lock, so a very large store is no longer
+ * bound to a single database. Operations on one record go to the shard owning it. Searches are opened on
+ * all shards in parallel and their results are merged lazily: a fetch only reads as many records from the
+ * shards as it returns.
+ * <p>
+ * The shard of a record depends on the shard count, which must therefore stay the same for the lifetime
+ * of the wallet. Proofs are created by libindy from a single wallet, so all credentials of one proof must
+ * live in the same shard. Credentials that are presented together can be kept together by storing them
+ * under ids from {@link #newCredentialId(String)}; {@link #proverCreateProof} creates the proof in their
+ * shard and fails with {@link IllegalArgumentException} if the selected credentials are spread over shards.
+ */
+public class ShardedWallet implements AutoCloseable {
+
+	/**
+	 * The record type credentials are routed under.
+	 */
+	public static final String CREDENTIAL_TYPE = "Indy::Credential";
+
+	private final Wallet[] shards;
+
+	private ShardedWallet(Wallet[] shards) {
+
+		this.shards = shards;
+	}
+
+	/*
+	 * STATIC METHODS
+	 */
+
+	/**
+	 * Derives the configuration of one shard from the configuration of the sharded wallet.
+	 *
+	 * @param config The wallet configuration json, see {@link Wallet#createWallet(String, String)}.
+	 * @param shard  The shard index.
+	 * @return The configuration json of the shard, whose id is the wallet id suffixed with the shard index.
+	 */
+	public static String shardConfig(
+			String config,
+			int shard) {
+
+		ParamGuard.notNullOrWhiteSpace(config, "config");
+
+		JSONObject shardConfig = new JSONObject(config);
+		return shardConfig.put("id", shardConfig.getString("id") + "-shard-" + shard).toString();
+	}
+
+	/**
+	 * Creates the shards of a new sharded wallet.
+	 *
+	 * @param config      The wallet configuration json, see {@link Wallet#createWallet(String, String)}.
+	 * @param credentials The wallet credentials json, shared by all shards.
+	 * @param shardCount  The number of shards.
+	 * @return A future that resolves no value.
+	 * @throws IndyException Thrown if a call to the underlying SDK fails.
+	 */
+	public static CompletableFuture<Void> createWallet(
+			String config,
+			String credentials,
+			int shardCount) throws IndyException {
+
+		checkShardCount(shardCount);
+
+		List<CompletableFuture<Void>> futures = new ArrayList<CompletableFuture<Void>>();
+		for (int i = 0; i < shardCount; i++) futures.add(Wallet.createWallet(shardConfig(config, i), credentials));
+
+		return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[futures.size()]));
+	}
+
+	/**
+	 * Creates the shards of a new sharded wallet holding a prover master secret.
+	 * <p>
+	 * libindy stores credentials only next to the master secret they were requested with, so every shard needs
+	 * the same master secret. It is created in the first shard, which is then exported and imported as the
+	 * other shards.
+	 *
+	 * @param config         The wallet configuration json, see {@link Wallet#createWallet(String, String)}.
+	 * @param credentials    The wallet credentials json, shared by all shards.
+	 * @param shardCount     The number of shards.
+	 * @param masterSecretId (optional, if not present random one will be generated) New master id
+	 * @return A future that resolves to the id of the master secret.
+	 * @throws IndyException Thrown if a call to the underlying SDK fails.
+	 */
+	public static CompletableFuture<String> createWallet(
+			final String config,
+			final String credentials,
+			final int shardCount,
+			final String masterSecretId) throws IndyException {
+
+		checkShardCount(shardCount);
+
+		final File exportDir;
+		try {
+
+			exportDir = Files.createTempDirectory("indy-sharded-wallet").toFile();
+		} catch (IOException e) {
+
+			return failed(e);
+		}
+		final String exportConfig = new JSONObject()
+				.put("path", new File(exportDir, "shard.export").getPath())
+				.put("key", UUID.randomUUID().toString())
+				.toString();
+
+		final Function<Void, CompletableFuture<String>> createMasterSecret = new Function<Void, CompletableFuture<String>>() {
+
+			@Override
+			public CompletableFuture<String> apply(Void ignored) {
+
+				try {
+
+					return Wallet.openWallet(shardConfig(config, 0), credentials).thenCompose(new Function<Wallet, CompletableFuture<String>>() {
+
+						@Override
+						public CompletableFuture<String> apply(final Wallet wallet) {
+
+							try {
+
+								return Anoncreds.proverCreateMasterSecret(wallet, masterSecretId).thenCompose(new Function<String, CompletableFuture<String>>() {
+
+									@Override
+									public CompletableFuture<String> apply(String id) {
+
+										try {
+
+											return shardCount == 1 ? CompletableFuture.completedFuture(id) :
+													Wallet.exportWallet(wallet, exportConfig).thenApply(constant(id));
+										} catch (IndyException e) {
+
+											return failed(e);
+										}
+									}
+								}).whenComplete(new BiConsumer<String, Throwable>() {
+
+									@Override
+									public void accept(String id, Throwable e) {
+
+										closeQuietly(wallet);
+									}
+								});
+							} catch (IndyException e) {
+
+								closeQuietly(wallet);
+								return failed(e);
+							}
+						}
+					});
+				} catch (IndyException e) {
+
+					return failed(e);
+				}
+			}
+		};
+
+		final Function<String, CompletableFuture<String>> importShards = new Function<String, CompletableFuture<String>>() {
+
+			@Override
+			public CompletableFuture<String> apply(String id) {
+
+				List<CompletableFuture<Void>> futures = new ArrayList<CompletableFuture<Void>>();
+				try {
+
+					for (int i = 1; i < shardCount; i++) futures.add(Wallet.importWallet(shardConfig(config, i), credentials, exportConfig));
+				} catch (IndyException e) {
+
+					futures.add(ShardedWallet.<Void>failed(e));
+				}
+
+				return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[futures.size()])).thenApply(constant(id));
+			}
+		};
+
+		return Wallet.createWallet(shardConfig(config, 0), credentials)
+				.thenCompose(createMasterSecret)
+				.thenCompose(importShards)
+				.whenComplete(new BiConsumer<String, Throwable>() {
+
+					@Override
+					public void accept(String id, Throwable e) {
+
+						new File(exportDir, "shard.export").delete();
+						exportDir.delete();
+					}
+				});
+	}
+
+	/**
+	 * Opens all shards of a sharded wallet in parallel.
+	 *
+	 * @param config      The wallet configuration json, see {@link Wallet#openWallet(String, String)}.
+	 * @param credentials The wallet credentials json, shared by all shards.
+	 * @param shardCount  The number of shards the wallet was created with.
+	 * @return A future that resolves to the opened ShardedWallet.
+	 * @throws IndyException Thrown if a call to the underlying SDK fails.
+	 */
+	public static CompletableFuture<ShardedWallet> openWallet(
+			String config,
+			String credentials,
+			int shardCount) throws IndyException {
+
+		checkShardCount(shardCount);
+
+		List<CompletableFuture<Wallet>> futures = new ArrayList<CompletableFuture<Wallet>>();
+		for (int i = 0; i < shardCount; i++) futures.add(Wallet.openWallet(shardConfig(config, i), credentials));
+
+		return all(futures, new Closer<Wallet>() {
+
+			@Override
+			public void close(Wallet wallet) throws IndyException {
+
+				wallet.closeWallet();
+			}
+		}).thenApply(new Function<List<Wallet>, ShardedWallet>() {
+
+			@Override
+			public ShardedWallet apply(List<Wallet> wallets) {
+
+				return new ShardedWallet(wallets.toArray(new Wallet[wallets.size()]));
+			}
+		});
+	}
+
+	/**
+	 * Deletes all shards of a sharded wallet.
+	 *
+	 * @param config      The wallet configuration json, see {@link Wallet#deleteWallet(String, String)}.
+	 * @param credentials The wallet credentials json, shared by all shards.
+	 * @param shardCount  The number of shards the wallet was created with.
+	 * @return A future that resolves no value.
+	 * @throws IndyException Thrown if a call to the underlying SDK fails.
+	 */
+	public static CompletableFuture<Void> deleteWallet(
+			String config,
+			String credentials,
+			int shardCount) throws IndyException {
+
+		checkShardCount(shardCount);
+
+		List<CompletableFuture<Void>> futures = new ArrayList<CompletableFuture<Void>>();
+		for (int i = 0; i < shardCount; i++) futures.add(Wallet.deleteWallet(shardConfig(config, i), credentials));
+
+		return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[futures.size()]));
+	}
+
+	/**
+	 * Maps a record to its shard. String hash codes are specified by the language, so the mapping is stable
+	 * across JVMs and releases.
+	 */
+	static int shardIndex(String type, String id, int shardCount) {
+
+		int hash = type.hashCode() * 31 + id.hashCode();
+		hash *= 0x9E3779B9;
+		hash ^= hash >>> 16;
+		return (hash & Integer.MAX_VALUE) % shardCount;
+	}
+
+	private static void checkShardCount(int shardCount) {
+
+		if (shardCount < 1) throw new IllegalArgumentException("A sharded wallet needs at least one shard.");
+	}
+
+	/*
+	 * INSTANCE METHODS
+	 */
+
+	/**
+	 * @return The number of shards.
+	 */
+	public int getShardCount() {
+
+		return this.shards.length;
+	}
+
+	/**
+	 * @param shard The shard index.
+	 * @return The wallet of the shard.
+	 */
+	public Wallet getShard(int shard) {
+
+		return this.shards[shard];
+	}
+
+	/**
+	 * @param type The record type.
+	 * @param id   The record id.
+	 * @return The wallet of the shard owning the record.
+	 */
+	public Wallet getShard(String type, String id) {
+
+		ParamGuard.notNullOrWhiteSpace(type, "type");
+		ParamGuard.notNull(id, "id");
+
+		return this.shards[shardIndex(type, id, this.shards.length)];
+	}
+
+	/**
+	 * @param credId Identifier by which the credential is stored.
+	 * @return The wallet of the shard owning the credential, e.g. to create a proof with.
+	 */
+	public Wallet getCredentialShard(String credId) {
+
+		return getShard(CREDENTIAL_TYPE, credId);
+	}
+
+	/**
+	 * Generates a random credential id owned by the same shard as another credential, so that both can be
+	 * used in one proof. Ids are drawn until one falls into that shard, on average as many as there are shards.
+	 *
+	 * @param colocatedCredId Identifier of the credential to keep the new credential next to.
+	 * @return A new credential id for {@link #proverStoreCredential(String, String, String, String, String)}.
+	 */
+	public String newCredentialId(String colocatedCredId) {
+
+		ParamGuard.notNull(colocatedCredId, "colocatedCredId");
+
+		return newCredentialId(colocatedCredId, this.shards.length);
+	}
+
+	static String newCredentialId(String colocatedCredId, int shardCount) {
+
+		int shard = shardIndex(CREDENTIAL_TYPE, colocatedCredId, shardCount);
+		while (true) {
+
+			String credId = UUID.randomUUID().toString();
+			if (shardIndex(CREDENTIAL_TYPE, credId, shardCount) == shard) return credId;
+		}
+	}
+
+	/**
+	 * Maps the credentials selected for a proof to the one shard owning all of them.
+	 *
+	 * @throws IllegalArgumentException Thrown if the credentials are owned by different shards.
+	 */
+	static int proofShardIndex(String requestedCredentialsJson, int shardCount) {
+
+		JSONObject requestedCredentials = new JSONObject(requestedCredentialsJson);
+		Map<Integer, String> credIds = new HashMap<Integer, String>();
+
+		for (String key : new String[] {"requested_attributes", "requested_predicates"}) {
+
+			JSONObject requested = requestedCredentials.optJSONObject(key);
+			if (requested == null) continue;
+
+			for (String referent : requested.keySet()) {
+
+				String credId = requested.getJSONObject(referent).getString("cred_id");
+				credIds.put(shardIndex(CREDENTIAL_TYPE, credId, shardCount), credId);
+			}
+		}
+
+		if (credIds.size() > 1) {
+
+			throw new IllegalArgumentException("The credentials of a proof must be stored in one shard, but they are spread over the shards "
+					+ credIds.keySet() + " (e.g. " + credIds.values() + "); store credentials that are presented together under ids from newCredentialId.");
+		}
+
+		return credIds.isEmpty() ? 0 : credIds.keySet().iterator().next();
+	}
+
+	/**
+	 * @param requestedCredentialsJson The credentials selected for a proof, see
+	 *                                 {@link Anoncreds#proverCreateProof(Wallet, String, String, String, String, String, String)}.
+	 * @return The wallet of the shard owning all of the credentials.
+	 * @throws IllegalArgumentException Thrown if the credentials are owned by different shards.
+	 */
+	public Wallet getProofShard(String requestedCredentialsJson) {
+
+		ParamGuard.notNullOrWhiteSpace(requestedCredentialsJson, "requestedCredentialsJson");
+
+		return this.shards[proofShardIndex(requestedCredentialsJson, this.shards.length)];
+	}
+
+	/**
+	 * Closes all shards.
+	 *
+	 * @return A future that resolves no value.
+	 * @throws IndyException Thrown if a call to the underlying SDK fails.
+	 */
+	public CompletableFuture<Void> closeWallet() throws IndyException {
+
+		List<CompletableFuture<Void>> futures = new ArrayList<CompletableFuture<Void>>();
+		for (Wallet shard : this.shards) futures.add(shard.closeWallet());
+
+		return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[futures.size()]));
+	}
+
+	@Override
+	public void close() throws InterruptedException, ExecutionException, IndyException {
+
+		closeWallet().get();
+	}
+
+	/*
+	 * RECORDS
+	 */
+
+	/**
+	 * See {@link WalletRecord#add(Wallet, String, String, String, String)}.
+	 */
+	public CompletableFuture<Void> addRecord(String type, String id, String value, String tagsJson) throws IndyException {
+
+		return WalletRecord.add(getShard(type, id), type, id, value, tagsJson);
+	}
+
+	/**
+	 * See {@link WalletRecord#updateValue(Wallet, String, String, String)}.
+	 */
+	public CompletableFuture<Void> updateRecordValue(String type, String id, String value) throws IndyException {
+
+		return WalletRecord.updateValue(getShard(type, id), type, id, value);
+	}
+
+	/**
+	 * See {@link WalletRecord#updateTags(Wallet, String, String, String)}.
+	 */
+	public CompletableFuture<Void> updateRecordTags(String type, String id, String tagsJson) throws IndyException {
+
+		return WalletRecord.updateTags(getShard(type, id), type, id, tagsJson);
+	}
+
+	/**
+	 * See {@link WalletRecord#addTags(Wallet, String, String, String)}.
+	 */
+	public CompletableFuture<Void> addRecordTags(String type, String id, String tagsJson) throws IndyException {
+
+		return WalletRecord.addTags(getShard(type, id), type, id, tagsJson);
+	}
+
+	/**
+	 * See {@link WalletRecord#deleteTags(Wallet, String, String, String)}.
+	 */
+	public CompletableFuture<Void> deleteRecordTags(String type, String id, String tagNamesJson) throws IndyException {
+
+		return WalletRecord.deleteTags(getShard(type, id), type, id, tagNamesJson);
+	}
+
+	/**
+	 * See {@link WalletRecord#delete(Wallet, String, String)}.
+	 */
+	public CompletableFuture<Void> deleteRecord(String type, String id) throws IndyException {
+
+		return WalletRecord.delete(getShard(type, id), type, id);
+	}
+
+	/**
+	 * See {@link WalletRecord#get(Wallet, String, String, String)}.
+	 */
+	public CompletableFuture<String> getRecord(String type, String id, String optionsJson) throws IndyException {
+
+		return WalletRecord.get(getShard(type, id), type, id, optionsJson);
+	}
+
+	/**
+	 * Searches the records of a type in all shards, see {@link WalletSearch#open(Wallet, String, String, String)}.
+	 *
+	 * @param type        Allows to separate different record types collections
+	 * @param queryJson   MongoDB style query to wallet record tags
+	 * @param optionsJson Search options
+	 * @return A future that resolves to the merged search.
+	 * @throws IndyException Thrown if an error occurs when calling the underlying SDK.
+	 */
+	public CompletableFuture<RecordSearch> openSearch(String type, String queryJson, String optionsJson) throws IndyException {
+
+		List<CompletableFuture<WalletSearch>> futures = new ArrayList<CompletableFuture<WalletSearch>>();
+		for (Wallet shard : this.shards) futures.add(WalletSearch.open(shard, type, queryJson, optionsJson));
+
+		return all(futures, new Closer<WalletSearch>() {
+
+			@Override
+			public void close(WalletSearch search) throws IndyException {
+
+				search.closeSearch();
+			}
+		}).thenApply(new Function<List<WalletSearch>, RecordSearch>() {
+
+			@Override
+			public RecordSearch apply(List<WalletSearch> searches) {
+
+				return new RecordSearch(shards, searches);
+			}
+		});
+	}
+
+	/*
+	 * CREDENTIALS
+	 */
+
+	/**
+	 * Stores a credential in the shard owning its id, see
+	 * {@link Anoncreds#proverStoreCredential(Wallet, String, String, String, String, String)}.
+	 *
+	 * @param credId (optional, default is a random one) Identifier by which credential will be stored in the wallet;
+	 *               an id from {@link #newCredentialId(String)} keeps it in the shard of another credential
+	 * @return A future that resolves to identifier by which credential is stored in the wallet.
+	 * @throws IndyException Thrown if an error occurs when calling the underlying SDK.
+	 */
+	public CompletableFuture<String> proverStoreCredential(
+			String credId,
+			String credReqMetadataJson,
+			String credJson,
+			String credDefJson,
+			String revRegDefJson) throws IndyException {
+
+		if (credId == null) credId = UUID.randomUUID().toString();
+
+		return Anoncreds.proverStoreCredential(getCredentialShard(credId), credId, credReqMetadataJson, credJson, credDefJson, revRegDefJson);
+	}
+
+	/**
+	 * See {@link Anoncreds#proverGetCredential(Wallet, String)}.
+	 */
+	public CompletableFuture<String> proverGetCredential(String credId) throws IndyException {
+
+		return Anoncreds.proverGetCredential(getCredentialShard(credId), credId);
+	}
+
+	/**
+	 * See {@link Anoncreds#proverDeleteCredential(Wallet, String)}.
+	 */
+	public CompletableFuture<Void> proverDeleteCredential(String credId) throws IndyException {
+
+		return Anoncreds.proverDeleteCredential(getCredentialShard(credId), credId);
+	}
+
+	/**
+	 * Creates a proof in the shard owning the selected credentials, see
+	 * {@link Anoncreds#proverCreateProof(Wallet, String, String, String, String, String, String)}.
+	 *
+	 * @return A future that resolves to the proof json.
+	 * @throws IndyException            Thrown if an error occurs when calling the underlying SDK.
+	 * @throws IllegalArgumentException Thrown if the selected credentials are owned by different shards.
+	 */
+	public CompletableFuture<String> proverCreateProof(
+			String proofRequest,
+			String requestedCredentials,
+			String masterSecret,
+			String schemas,
+			String credentialDefs,
+			String revStates) throws IndyException {
+
+		return Anoncreds.proverCreateProof(getProofShard(requestedCredentials), proofRequest, requestedCredentials, masterSecret, schemas, credentialDefs, revStates);
+	}
+
+	/**
+	 * Searches the credentials of all shards, see {@link CredentialsSearch#open(Wallet, String)}.
+	 *
+	 * @param queryJson Wql style filter for credentials searching based on tags.
+	 * @return A future that resolves to the merged search.
+	 * @throws IndyException Thrown if an error occurs when calling the underlying SDK.
+	 */
+	public CompletableFuture<CredentialSearch> proverSearchCredentials(String queryJson) throws IndyException {
+
+		List<CompletableFuture<CredentialsSearch>> futures = new ArrayList<CompletableFuture<CredentialsSearch>>();
+		for (Wallet shard : this.shards) futures.add(CredentialsSearch.open(shard, queryJson));
+
+		return all(futures, new Closer<CredentialsSearch>() {
+
+			@Override
+			public void close(CredentialsSearch search) throws IndyException {
+
+				search.closeSearch();
+			}
+		}).thenApply(new Function<List<CredentialsSearch>, CredentialSearch>() {
+
+			@Override
+			public CredentialSearch apply(List<CredentialsSearch> searches) {
+
+				return new CredentialSearch(searches);
+			}
+		});
+	}
+
+	/**
+	 * Searches the credentials of all shards for a proof request, see
+	 * {@link CredentialsSearchForProofReq#open(Wallet, String, String)}.
+	 *
+	 * @param proofReqJson   Proof request json
+	 * @param extraQueryJson (Optional) List of extra queries that will be applied to correspondent attribute/predicate
+	 * @return A future that resolves to the merged search.
+	 * @throws IndyException Thrown if an error occurs when calling the underlying SDK.
+	 */
+	public CompletableFuture<ProofReqSearch> proverSearchCredentialsForProofReq(String proofReqJson, String extraQueryJson) throws IndyException {
+
+		List<CompletableFuture<CredentialsSearchForProofReq>> futures = new ArrayList<CompletableFuture<CredentialsSearchForProofReq>>();
+		for (Wallet shard : this.shards) futures.add(CredentialsSearchForProofReq.open(shard, proofReqJson, extraQueryJson));
+
+		return all(futures, new Closer<CredentialsSearchForProofReq>() {
+
+			@Override
+			public void close(CredentialsSearchForProofReq search) throws IndyException {
+
+				search.closeSearch();
+			}
+		}).thenApply(new Function<List<CredentialsSearchForProofReq>, ProofReqSearch>() {
+
+			@Override
+			public ProofReqSearch apply(List<CredentialsSearchForProofReq> searches) {
+
+				return new ProofReqSearch(searches);
+			}
+		});
+	}
+
+	/*
+	 * SEARCHES
+	 */
+
+	/**
+	 * A record search over all shards. Like the searches it merges, it must not be fetched from concurrently.
+	 */
+	public static class RecordSearch implements AutoCloseable {
+
+		private final List<WalletSearch> searches;
+		private final Integer[] totalCounts;
+		private final PageMerger merger;
+
+		private RecordSearch(final Wallet[] shards, final List<WalletSearch> searches) {
+
+			this.searches = searches;
+			this.totalCounts = new Integer[searches.size()];
+			this.merger = new PageMerger(searches.size(), new PageMerger.Fetcher() {
+
+				@Override
+				public CompletableFuture<JSONArray> fetch(final int shard, int count) throws IndyException {
+
+					return searches.get(shard).fetchNextRecords(shards[shard], count).thenApply(new Function<String, JSONArray>() {
+
+						@Override
+						public JSONArray apply(String page) {
+
+							JSONObject json = new JSONObject(page);
+							if (! json.isNull("totalCount")) totalCounts[shard] = json.getInt("totalCount");
+
+							JSONArray records = json.optJSONArray("records");
+							return records == null ? new JSONArray() : records;
+						}
+					});
+				}
+			});
+		}
+
+		/**
+		 * Fetch next records from all shards.
+		 *
+		 * @param count Count of records to fetch
+		 * @return A future that resolves to wallet records json:
+		 * {
+		 *   totalCount: (optional) Sum of the total counts of the shards, if requested,
+		 *   records: [{id, type, value, tags}, ...],
+		 * }
+		 * @throws IndyException Thrown if an error occurs when calling the underlying SDK.
+		 */
+		public CompletableFuture<String> fetchNextRecords(int count) throws IndyException {
+
+			return this.merger.next(count).thenApply(new Function<JSONArray, String>() {
+
+				@Override
+				public String apply(JSONArray records) {
+
+					Integer totalCount = 0;
+					for (Integer shardCount : totalCounts) totalCount = shardCount == null || totalCount == null ? null : totalCount + shardCount;
+
+					return new JSONObject()
+							.put("totalCount", totalCount == null ? JSONObject.NULL : totalCount)
+							.put("records", records)
+							.toString();
+				}
+			});
+		}
+
+		public CompletableFuture<Void> closeSearch() throws IndyException {
+
+			List<CompletableFuture<Void>> futures = new ArrayList<CompletableFuture<Void>>();
+			for (WalletSearch search : this.searches) futures.add(search.closeSearch());
+
+			return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[futures.size()]));
+		}
+
+		@Override
+		public void close() throws Exception {
+
+			closeSearch().get();
+		}
+	}
+
+	/**
+	 * A credential search over all shards. Like the searches it merges, it must not be fetched from concurrently.
+	 */
+	public static class CredentialSearch implements AutoCloseable {
+
+		private final List<CredentialsSearch> searches;
+		private final PageMerger merger;
+
+		private CredentialSearch(final List<CredentialsSearch> searches) {
+
+			this.searches = searches;
+			this.merger = new PageMerger(searches.size(), new PageMerger.Fetcher() {
+
+				@Override
+				public CompletableFuture<JSONArray> fetch(int shard, int count) throws IndyException {
+
+					return searches.get(shard).fetchNextCredentials(count).thenApply(PageMerger.PARSE_ARRAY);
+				}
+			});
+		}
+
+		/**
+		 * @return The number of matching credentials over all shards.
+		 */
+		public int totalCount() {
+
+			int totalCount = 0;
+			for (CredentialsSearch search : this.searches) totalCount += search.totalCount();
+			return totalCount;
+		}
+
+		/**
+		 * See {@link CredentialsSearch#fetchNextCredentials(int)}.
+		 */
+		public CompletableFuture<String> fetchNextCredentials(int count) throws IndyException {
+
+			return this.merger.next(count).thenApply(PageMerger.FORMAT_ARRAY);
+		}
+
+		public CompletableFuture<Void> closeSearch() throws IndyException {
+
+			List<CompletableFuture<Void>> futures = new ArrayList<CompletableFuture<Void>>();
+			for (CredentialsSearch search : this.searches) futures.add(search.closeSearch());
+
+			return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[futures.size()]));
+		}
+
+		@Override
+		public void close() throws Exception {
+
+			closeSearch().get();
+		}
+	}
+
+	/**
+	 * A proof request credential search over all shards. Like the searches it merges, it must not be fetched
+	 * from concurrently.
+	 */
+	public static class ProofReqSearch implements AutoCloseable {
+
+		private final List<CredentialsSearchForProofReq> searches;
+		private final Map<String, PageMerger> mergers = new HashMap<String, PageMerger>();
+
+		private ProofReqSearch(List<CredentialsSearchForProofReq> searches) {
+
+			this.searches = searches;
+		}
+
+		/**
+		 * See {@link CredentialsSearchForProofReq#fetchNextCredentials(String, int)}.
+		 */
+		public CompletableFuture<String> fetchNextCredentials(final String itemRef, int count) throws IndyException {
+
+			ParamGuard.notNullOrWhiteSpace(itemRef, "itemRef");
+
+			PageMerger merger = this.mergers.get(itemRef);
+			if (merger == null) {
+
+				merger = new PageMerger(this.searches.size(), new PageMerger.Fetcher() {
+
+					@Override
+					public CompletableFuture<JSONArray> fetch(int shard, int count) throws IndyException {
+
+						return searches.get(shard).fetchNextCredentials(itemRef, count).thenApply(PageMerger.PARSE_ARRAY);
+					}
+				});
+				this.mergers.put(itemRef, merger);
+			}
+
+			return merger.next(count).thenApply(PageMerger.FORMAT_ARRAY);
+		}
+
+		public CompletableFuture<Void> closeSearch() throws IndyException {
+
+			List<CompletableFuture<Void>> futures = new ArrayList<CompletableFuture<Void>>();
+			for (CredentialsSearchForProofReq search : this.searches) futures.add(search.closeSearch());
+
+			return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[futures.size()]));
+		}
+
+		@Override
+		public void close() throws Exception {
+
+			closeSearch().get();
+		}
+	}
+
+	/**
+	 * Merges the pages of per-shard searches. Each round asks every shard that is not exhausted for an even
+	 * share of the missing items, in parallel, until the page is full or all shards are exhausted. A shard
+	 * returning less than it was asked for is exhausted, as for the native searches.
+	 */
+	static class PageMerger {
+
+		interface Fetcher {
+
+			CompletableFuture<JSONArray> fetch(int shard, int count) throws IndyException;
+		}
+
+		static final Function<String, JSONArray> PARSE_ARRAY = new Function<String, JSONArray>() {
+
+			@Override
+			public JSONArray apply(String page) {
+
+				return new JSONArray(page);
+			}
+		};
+
+		static final Function<JSONArray, String> FORMAT_ARRAY = new Function<JSONArray, String>() {
+
+			@Override
+			public String apply(JSONArray page) {
+
+				return page.toString();
+			}
+		};
+
+		private final Fetcher fetcher;
+		private final List<ArrayDeque<Object>> buffers;
+		private final boolean[] exhausted;
+
+		PageMerger(int shardCount, Fetcher fetcher) {
+
+			this.fetcher = fetcher;
+			this.buffers = new ArrayList<ArrayDeque<Object>>(shardCount);
+			for (int i = 0; i < shardCount; i++) this.buffers.add(new ArrayDeque<Object>());
+			this.exhausted = new boolean[shardCount];
+		}
+
+		/**
+		 * @param count The number of items to fetch.
+		 * @return A future that resolves to the next items; less than requested once all shards are exhausted.
+		 */
+		CompletableFuture<JSONArray> next(final int count) {
+
+			if (count < 0) throw new IllegalArgumentException("count must not be negative.");
+
+			return fill(count).thenApply(new Function<Void, JSONArray>() {
+
+				@Override
+				public JSONArray apply(Void ignored) {
+
+					JSONArray page = new JSONArray();
+					for (ArrayDeque<Object> buffer : buffers) {
+
+						while (page.length() < count && ! buffer.isEmpty()) page.put(buffer.poll());
+					}
+
+					return page;
+				}
+			});
+		}
+
+		private CompletableFuture<Void> fill(final int count) {
+
+			int buffered = 0;
+			List<Integer> active = new ArrayList<Integer>();
+			for (int i = 0; i < this.buffers.size(); i++) {
+
+				buffered += this.buffers.get(i).size();
+				if (! this.exhausted[i]) active.add(i);
+			}
+
+			if (buffered >= count || active.isEmpty()) return CompletableFuture.completedFuture(null);
+
+			final int share = (count - buffered + active.size() - 1) / active.size();
+
+			List<CompletableFuture<Void>> futures = new ArrayList<CompletableFuture<Void>>();
+			for (final int shard : active) {
+
+				try {
+
+					futures.add(this.fetcher.fetch(shard, share).thenAccept(new Consumer<JSONArray>() {
+
+						@Override
+						public void accept(JSONArray page) {
+
+							ArrayDeque<Object> buffer = buffers.get(shard);
+							for (int i = 0; i < page.length(); i++) buffer.add(page.get(i));
+							if (page.length() < share) exhausted[shard] = true;
+						}
+					}));
+				} catch (IndyException e) {
+
+					futures.add(ShardedWallet.<Void>failed(e));
+				}
+			}
+
+			return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[futures.size()])).thenCompose(new Function<Void, CompletableFuture<Void>>() {
+
+				@Override
+				public CompletableFuture<Void> apply(Void ignored) {
+
+					return fill(count);
+				}
+			});
+		}
+	}
+
+	/*
+	 * HELPERS
+	 */
+
+	private interface Closer<T> {
+
+		void close(T item) throws IndyException;
+	}
+
+	/**
+	 * Waits for all futures. If any of them fails, the values of the others are closed once they are available.
+	 */
+	private static <T> CompletableFuture<List<T>> all(final List<CompletableFuture<T>> futures, final Closer<T> closer) {
+
+		final CompletableFuture<List<T>> result = new CompletableFuture<List<T>>();
+
+		CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[futures.size()])).whenComplete(new BiConsumer<Void, Throwable>() {
+
+			@Override
+			public void accept(Void ignored, Throwable e) {
+
+				if (e == null) {
+
+					List<T> values = new ArrayList<T>(futures.size());
+					for (CompletableFuture<T> future : futures) values.add(future.join());
+					result.complete(values);
+					return;
+				}
+
+				for (CompletableFuture<T> future : futures) {
+
+					if (future.isCompletedExceptionally()) continue;
+					try {
+
+						closer.close(future.join());
+					} catch (IndyException ignoredCloseFailure) {
+
+					}
+				}
+
+				result.completeExceptionally(e instanceof CompletionException && e.getCause() != null ? e.getCause() : e);
+			}
+		});
+
+		return result;
+	}
+
+	private static void closeQuietly(Wallet wallet) {
+
+		try {
+
+			wallet.closeWallet();
+		} catch (IndyException ignored) {
+
+		}
+	}
+
+	private static <T> Function<Void, T> constant(final T value) {
+
+		return new Function<Void, T>() {
+
+			@Override
+			public T apply(Void ignored) {
+
+				return value;
+			}
+		};
+	}
+
+	private static <T> CompletableFuture<T> failed(Throwable e) {
+
+		CompletableFuture<T> future = new CompletableFuture<T>();
+		future.completeExceptionally(e);
+		return future;
+	}
+}
@@ -102,7 +102,7 @@ public class Wallet extends IndyJava.API implements AutoCloseable {
 	 *         Configured storage uses this identifier to lookup exact wallet data placement.
 	 *   "storage_type": optional["string"], Type of the wallet storage. Defaults to 'default'.
 	 *                  'Default' storage type allows to store wallet data in the local file.
-	 *                  Custom storage types can be registered with indy_register_wallet_storage call.
+	 *                  Custom storage types can be registered with registerWalletStorage, e.g. {@link OffHeapWalletStorage}.
 	 *   "storage_config": optional[{config json}], Storage configuration json. Storage type defines set of supported keys.
 	 *                     Can be optional if storage supports default configuration.
 	 *                      For 'default' storage type configuration is:
@@ -141,7 +141,7 @@ public class Wallet extends IndyJava.API implements AutoCloseable {
 				credentials,
 				voidCb);
 
-		checkResult(future, result);
+		checkResult(commandHandle, future, result);
 
 		return future;
 	}
@@ -155,7 +155,7 @@ public class Wallet extends IndyJava.API implements AutoCloseable {
 	 *         Configured storage uses this identifier to lookup exact wallet data placement.
 	 *   "storage_type": optional["string"], Type of the wallet storage. Defaults to 'default'.
 	 *                  'Default' storage type allows to store wallet data in the local file.
-	 *                  Custom storage types can be registered with indy_register_wallet_storage call.
+	 *                  Custom storage types can be registered with registerWalletStorage, e.g. {@link OffHeapWalletStorage}.
 	 *   "storage_config": optional[{config json}], Storage configuration json. Storage type defines set of supported keys.
 	 *                     Can be optional if storage supports default configuration.
 	 *                      For 'default' storage type configuration is:
@@ -202,7 +202,7 @@ public class Wallet extends IndyJava.API implements AutoCloseable {
 				credentials,
 				openWalletCb);
 
-		checkResult(future, result);
+		checkResult(commandHandle, future, result);
 
 		return future;
 	}
@@ -229,7 +229,7 @@ public class Wallet extends IndyJava.API implements AutoCloseable {
 				handle,
 				voidCb);
 
-		checkResult(future, result);
+		checkResult(commandHandle, future, result);
 
 		return future;
 	}
@@ -243,7 +243,7 @@ public class Wallet extends IndyJava.API implements AutoCloseable {
 	 *         Configured storage uses this identifier to lookup exact wallet data placement.
 	 *   "storage_type": optional["string"], Type of the wallet storage. Defaults to 'default'.
 	 *                  'Default' storage type allows to store wallet data in the local file.
-	 *                  Custom storage types can be registered with indy_register_wallet_storage call.
+	 *                  Custom storage types can be registered with registerWalletStorage, e.g. {@link OffHeapWalletStorage}.
 	 *   "storage_config": optional[{config json}], Storage configuration json. Storage type defines set of supported keys.
 	 *                     Can be optional if storage supports default configuration.
 	 *                      For 'default' storage type configuration is:
@@ -283,7 +283,7 @@ public class Wallet extends IndyJava.API implements AutoCloseable {
 				credentials,
 				voidCb);
 
-		checkResult(future, result);
+		checkResult(commandHandle, future, result);
 
 		return future;
 	}
@@ -324,7 +324,7 @@ public class Wallet extends IndyJava.API implements AutoCloseable {
 				exportConfigJson,
 				voidCb);
 
-		checkResult(future, result);
+		checkResult(commandHandle, future, result);
 
 		return future;
 	}
@@ -341,7 +341,7 @@ public class Wallet extends IndyJava.API implements AutoCloseable {
 	 *         Configured storage uses this identifier to lookup exact wallet data placement.
 	 *   "storage_type": optional["string"], Type of the wallet storage. Defaults to 'default'.
 	 *                  'Default' storage type allows to store wallet data in the local file.
-	 *                  Custom storage types can be registered with indy_register_wallet_storage call.
+	 *                  Custom storage types can be registered with registerWalletStorage, e.g. {@link OffHeapWalletStorage}.
 	 *   "storage_config": optional[{config json}], Storage configuration json. Storage type defines set of supported keys.
 	 *                     Can be optional if storage supports default configuration.
 	 *                      For 'default' storage type configuration is:
@@ -389,7 +389,7 @@ public class Wallet extends IndyJava.API implements AutoCloseable {
 				importConfigJson,
 				voidCb);
 
-		checkResult(future, result);
+		checkResult(commandHandle, future, result);
 
 		return future;
 	}
@@ -419,11 +419,69 @@ public class Wallet extends IndyJava.API implements AutoCloseable {
 				config,
 				stringCb);
 
-		checkResult(future, result);
+		checkResult(commandHandle, future, result);
 
 		return future;
 	}
-	
+
+	/**
+	 * Registers a Java storage backend under a storage type. Wallets whose config has this
+	 * "storage_type" are then stored through the given storage.
+	 *
+	 * Storage types cannot be unregistered, so the storage stays reachable for the lifetime of the process.
+	 *
+	 * @param type    The storage type.
+	 * @param storage The storage.
+	 * @return A future that resolves no value.
+	 * @throws IndyException Thrown if a call to the underlying SDK fails, e.g. {@link DuplicateWalletTypeException}.
+	 */
+	public static CompletableFuture<Void> registerWalletStorage(
+			String type,
+			WalletStorage storage) throws IndyException {
+
+		ParamGuard.notNullOrWhiteSpace(type, "type");
+		ParamGuard.notNull(storage, "storage");
+
+		CompletableFuture<Void> future = new CompletableFuture<Void>();
+		int commandHandle = addFuture(future);
+
+		WalletStorageBridge bridge = new WalletStorageBridge(storage);
+		WalletStorageBridge.retain(bridge);
+
+		int result = LibIndy.api.indy_register_wallet_storage(
+				commandHandle,
+				type,
+				bridge.createCb,
+				bridge.openCb,
+				WalletStorageBridge.closeCb,
+				bridge.deleteCb,
+				WalletStorageBridge.addRecordCb,
+				WalletStorageBridge.updateRecordValueCb,
+				WalletStorageBridge.updateRecordTagsCb,
+				WalletStorageBridge.addRecordTagsCb,
+				WalletStorageBridge.deleteRecordTagsCb,
+				WalletStorageBridge.deleteRecordCb,
+				WalletStorageBridge.getRecordCb,
+				WalletStorageBridge.getRecordIdCb,
+				WalletStorageBridge.getRecordTypeCb,
+				WalletStorageBridge.getRecordValueCb,
+				WalletStorageBridge.getRecordTagsCb,
+				WalletStorageBridge.freeRecordCb,
+				WalletStorageBridge.getStorageMetadataCb,
+				WalletStorageBridge.setStorageMetadataCb,
+				WalletStorageBridge.freeStorageMetadataCb,
+				WalletStorageBridge.searchRecordsCb,
+				WalletStorageBridge.searchAllRecordsCb,
+				WalletStorageBridge.getSearchTotalCountCb,
+				WalletStorageBridge.fetchSearchNextRecordCb,
+				WalletStorageBridge.freeSearchCb,
+				voidCb);
+
+		checkResult(commandHandle, future, result);
+
+		return future;
+	}
+
 	/*
 	 * INSTANCE METHODS
 	 */
@@ -444,4 +502,30 @@ public class Wallet extends IndyJava.API implements AutoCloseable {
 	public void close() throws InterruptedException, ExecutionException, IndyException {
 		closeWallet().get();
 	}
-}
\ No newline at end of file
+
+	/*
+	 * OBJECT METHODS
+	 */
+
+	@Override
+	public boolean equals(Object other) {
+
+		if (this == other) return true;
+		if (other == null || getClass() != other.getClass()) return false;
+
+		Wallet that = (Wallet) other;
+		return this.walletHandle == that.walletHandle;
+	}
+
+	@Override
+	public int hashCode() {
+
+		return this.walletHandle;
+	}
+
+	@Override
+	public String toString() {
+
+		return "Wallet[walletHandle=" + this.walletHandle + "]";
+	}
+}
@@ -0,0 +1,264 @@
+package org.hyperledger.indy.sdk.wallet;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import org.hyperledger.indy.sdk.IndyException;
+import org.hyperledger.indy.sdk.ParamGuard;
+
+/**
+ * Storage backend for wallets, implemented in Java and registered under a storage type with
+ * {@link Wallet#registerWalletStorage(String, WalletStorage)}. Wallets whose config has that
+ * "storage_type" are then created, opened and deleted through this storage.
+ *
+ * libindy encrypts everything before it reaches the storage. Record types, ids and encrypted tag
+ * names and values are base64 strings; names of plain tags are prefixed with '~' and their values are
+ * stored as given. Storages can therefore compare them as plain strings.
+ *
+ * Methods are called on libindy threads and must be thread-safe. Errors are reported by throwing the
+ * matching {@link IndyException}, e.g. {@link WalletItemNotFoundException},
+ * {@link WalletItemAlreadyExistsException}, {@link WalletNotFoundException} or
+ * {@link WalletExistsException}; any other exception is reported as {@link WalletStorageException}.
+ */
+public interface WalletStorage {
+
+	/**
+	 * Creates the storage of a new wallet.
+	 *
+	 * @param name        The wallet id.
+	 * @param config      The "storage_config" json of the wallet, or null.
+	 * @param credentials The "storage_credentials" json of the wallet, or null.
+	 * @param metadata    The initial storage metadata, base64 encoded.
+	 * @throws IndyException Thrown if the storage cannot be created, e.g. {@link WalletExistsException}.
+	 */
+	void create(String name, String config, String credentials, String metadata) throws IndyException;
+
+	/**
+	 * Opens the storage of a wallet.
+	 *
+	 * @param name        The wallet id.
+	 * @param config      The "storage_config" json of the wallet, or null.
+	 * @param credentials The "storage_credentials" json of the wallet, or null.
+	 * @return The opened storage.
+	 * @throws IndyException Thrown if the storage cannot be opened, e.g. {@link WalletNotFoundException}.
+	 */
+	Session open(String name, String config, String credentials) throws IndyException;
+
+	/**
+	 * Deletes the storage of a wallet.
+	 *
+	 * @param name        The wallet id.
+	 * @param config      The "storage_config" json of the wallet, or null.
+	 * @param credentials The "storage_credentials" json of the wallet, or null.
+	 * @throws IndyException Thrown if the storage cannot be deleted, e.g. {@link WalletNotFoundException}.
+	 */
+	void delete(String name, String config, String credentials) throws IndyException;
+
+	/**
+	 * The opened storage of a wallet.
+	 */
+	interface Session {
+
+		/**
+		 * Adds a record.
+		 *
+		 * @param type  The record type.
+		 * @param id    The record id.
+		 * @param value The encrypted record value.
+		 * @param tags  The record tags.
+		 * @throws IndyException Thrown if the record cannot be added, e.g. {@link WalletItemAlreadyExistsException}.
+		 */
+		void addRecord(String type, String id, byte[] value, Map<String, String> tags) throws IndyException;
+
+		/**
+		 * Replaces the value of a record.
+		 *
+		 * @param type  The record type.
+		 * @param id    The record id.
+		 * @param value The new encrypted record value.
+		 * @throws IndyException Thrown if the value cannot be updated, e.g. {@link WalletItemNotFoundException}.
+		 */
+		void updateRecordValue(String type, String id, byte[] value) throws IndyException;
+
+		/**
+		 * Replaces all tags of a record.
+		 *
+		 * @param type The record type.
+		 * @param id   The record id.
+		 * @param tags The new record tags.
+		 * @throws IndyException Thrown if the tags cannot be updated, e.g. {@link WalletItemNotFoundException}.
+		 */
+		void updateRecordTags(String type, String id, Map<String, String> tags) throws IndyException;
+
+		/**
+		 * Adds tags to a record, replacing the values of tags that already exist.
+		 *
+		 * @param type The record type.
+		 * @param id   The record id.
+		 * @param tags The tags to add.
+		 * @throws IndyException Thrown if the tags cannot be added, e.g. {@link WalletItemNotFoundException}.
+		 */
+		void addRecordTags(String type, String id, Map<String, String> tags) throws IndyException;
+
+		/**
+		 * Deletes tags of a record.
+		 *
+		 * @param type     The record type.
+		 * @param id       The record id.
+		 * @param tagNames The names of the tags to delete.
+		 * @throws IndyException Thrown if the tags cannot be deleted, e.g. {@link WalletItemNotFoundException}.
+		 */
+		void deleteRecordTags(String type, String id, Collection<String> tagNames) throws IndyException;
+
+		/**
+		 * Deletes a record.
+		 *
+		 * @param type The record type.
+		 * @param id   The record id.
+		 * @throws IndyException Thrown if the record cannot be deleted, e.g. {@link WalletItemNotFoundException}.
+		 */
+		void deleteRecord(String type, String id) throws IndyException;
+
+		/**
+		 * Gets a record.
+		 *
+		 * @param type The record type.
+		 * @param id   The record id.
+		 * @return The record.
+		 * @throws IndyException Thrown if the record cannot be read, e.g. {@link WalletItemNotFoundException}.
+		 */
+		Record getRecord(String type, String id) throws IndyException;
+
+		/**
+		 * @return The storage metadata, base64 encoded.
+		 * @throws IndyException Thrown if the metadata cannot be read.
+		 */
+		String getStorageMetadata() throws IndyException;
+
+		/**
+		 * Replaces the storage metadata.
+		 *
+		 * @param metadata The storage metadata, base64 encoded.
+		 * @throws IndyException Thrown if the metadata cannot be written.
+		 */
+		void setStorageMetadata(String metadata) throws IndyException;
+
+		/**
+		 * Gets the records of a type that match a query. The result must not change when records are
+		 * modified afterwards.
+		 *
+		 * @param type  The record type.
+		 * @param query The query.
+		 * @return The matching records.
+		 * @throws IndyException Thrown if the records cannot be read.
+		 */
+		List<Record> searchRecords(String type, WalletStorageQuery query) throws IndyException;
+
+		/**
+		 * Gets all records, e.g. for exporting the wallet. The result must not change when records are
+		 * modified afterwards.
+		 *
+		 * @return All records.
+		 * @throws IndyException Thrown if the records cannot be read.
+		 */
+		List<Record> searchAllRecords() throws IndyException;
+
+		/**
+		 * Closes the storage.
+		 *
+		 * @throws IndyException Thrown if the storage cannot be closed.
+		 */
+		void close() throws IndyException;
+	}
+
+	/**
+	 * An immutable wallet record.
+	 */
+	final class Record {
+
+		private final String type;
+		private final String id;
+		private final byte[] value;
+		private final Map<String, String> tags;
+
+		/**
+		 * Initializes a new Record.
+		 *
+		 * @param type  The record type.
+		 * @param id    The record id.
+		 * @param value The encrypted record value, which must not be modified afterwards.
+		 * @param tags  The record tags.
+		 */
+		public Record(String type, String id, byte[] value, Map<String, String> tags) {
+
+			ParamGuard.notNull(type, "type");
+			ParamGuard.notNull(id, "id");
+			ParamGuard.notNull(value, "value");
+			ParamGuard.notNull(tags, "tags");
+
+			this.type = type;
+			this.id = id;
+			this.value = value;
+			this.tags = Collections.unmodifiableMap(new HashMap<String, String>(tags));
+		}
+
+		/**
+		 * @return The record type.
+		 */
+		public String getType() {
+
+			return this.type;
+		}
+
+		/**
+		 * @return The record id.
+		 */
+		public String getId() {
+
+			return this.id;
+		}
+
+		/**
+		 * @return The encrypted record value, which must not be modified.
+		 */
+		public byte[] getValue() {
+
+			return this.value;
+		}
+
+		/**
+		 * @return The record tags.
+		 */
+		public Map<String, String> getTags() {
+
+			return this.tags;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+
+			if (this == o) return true;
+			if (o == null || getClass() != o.getClass()) return false;
+
+			Record that = (Record) o;
+			return this.type.equals(that.type) && this.id.equals(that.id) && Arrays.equals(this.value, that.value) && this.tags.equals(that.tags);
+		}
+
+		@Override
+		public int hashCode() {
+
+			return Objects.hash(this.type, this.id);
+		}
+
+		@Override
+		public String toString() {
+
+			return "WalletStorage.Record[type=" + this.type + ",id=" + this.id + ",value=" + this.value.length + " bytes,tags=" + this.tags.keySet() + "]";
+		}
+	}
+}
@@ -0,0 +1,642 @@
+package org.hyperledger.indy.sdk.wallet;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.hyperledger.indy.sdk.ErrorCode;
+import org.hyperledger.indy.sdk.IndyException;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.sun.jna.Callback;
+import com.sun.jna.IntegerType;
+import com.sun.jna.Memory;
+import com.sun.jna.Native;
+import com.sun.jna.Pointer;
+import com.sun.jna.ptr.IntByReference;
+import com.sun.jna.ptr.PointerByReference;
+
+/**
+ * The native handlers of a {@link WalletStorage}, as passed to indy_register_wallet_storage.
+ *
+ * Opened storages, records, searches and metadata are identified towards libindy by handles allocated
+ * here. Strings and values returned to libindy are copied to native memory that is kept until the
+ * record or metadata handle is freed.
+ */
+final class WalletStorageBridge {
+
+	private static final Logger logger = LoggerFactory.getLogger(WalletStorageBridge.class);
+
+	private static final AtomicInteger nextHandle = new AtomicInteger();
+	private static final ConcurrentHashMap<Integer, WalletStorage.Session> sessions = new ConcurrentHashMap<Integer, WalletStorage.Session>();
+	private static final ConcurrentHashMap<Integer, NativeRecord> records = new ConcurrentHashMap<Integer, NativeRecord>();
+	private static final ConcurrentHashMap<Integer, Search> searches = new ConcurrentHashMap<Integer, Search>();
+	private static final ConcurrentHashMap<Integer, Memory> metadata = new ConcurrentHashMap<Integer, Memory>();
+
+	/**
+	 * Bridges registered with libindy, which keeps calling their handlers.
+	 */
+	private static final List<WalletStorageBridge> registered = new ArrayList<WalletStorageBridge>();
+
+	private final WalletStorage storage;
+
+	WalletStorageBridge(WalletStorage storage) {
+
+		this.storage = storage;
+	}
+
+	/**
+	 * Keeps a bridge reachable, because libindy holds on to its handlers.
+	 *
+	 * @param bridge The registered bridge.
+	 */
+	static void retain(WalletStorageBridge bridge) {
+
+		synchronized (registered) {
+
+			registered.add(bridge);
+		}
+	}
+
+	/*
+	 * HELPERS
+	 */
+
+	private static int nextHandle() {
+
+		int handle;
+		do handle = nextHandle.incrementAndGet(); while (handle <= 0);
+
+		return handle;
+	}
+
+	private static int errorCode(Throwable e) {
+
+		if (e instanceof IndyException) return ((IndyException) e).getSdkErrorCode();
+
+		logger.warn("Wallet storage failed", e);
+		return ErrorCode.WalletStorageError.value();
+	}
+
+	private static WalletStorage.Session session(int storageHandle) throws IndyException {
+
+		WalletStorage.Session session = sessions.get(storageHandle);
+		if (session == null) throw new InvalidWalletException();
+
+		return session;
+	}
+
+	private static Map<String, String> tags(String tagsJson) throws IndyException {
+
+		try {
+
+			JSONObject json = new JSONObject(tagsJson);
+			Map<String, String> result = new HashMap<String, String>(json.length() * 2);
+
+			Iterator<String> keys = json.keys();
+			while (keys.hasNext()) {
+
+				String key = keys.next();
+				result.put(key, json.getString(key));
+			}
+
+			return result;
+		} catch (JSONException e) {
+
+			throw new WalletInputException();
+		}
+	}
+
+	private static List<String> tagNames(String tagNamesJson) throws IndyException {
+
+		try {
+
+			JSONArray json = new JSONArray(tagNamesJson);
+			List<String> result = new ArrayList<String>(json.length());
+			for (int i = 0; i < json.length(); i++) result.add(json.getString(i));
+
+			return result;
+		} catch (JSONException e) {
+
+			throw new WalletInputException();
+		}
+	}
+
+	static Memory cString(String string) {
+
+		byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+		Memory memory = new Memory(bytes.length + 1);
+		memory.write(0, bytes, 0, bytes.length);
+		memory.setByte(bytes.length, (byte) 0);
+
+		return memory;
+	}
+
+	private static int addRecordHandle(WalletStorage.Record record, IntByReference recordHandle) {
+
+		int handle = nextHandle();
+		records.put(handle, new NativeRecord(record));
+		recordHandle.setValue(handle);
+
+		return ErrorCode.Success.value();
+	}
+
+	private static NativeRecord record(int recordHandle) throws IndyException {
+
+		NativeRecord record = records.get(recordHandle);
+		if (record == null) throw new WalletInputException();
+
+		return record;
+	}
+
+	/**
+	 * A record handed to libindy, with the native copies of its fields.
+	 */
+	private static final class NativeRecord {
+
+		private final WalletStorage.Record record;
+		private Memory type;
+		private Memory id;
+		private Memory value;
+		private Memory tags;
+
+		private NativeRecord(WalletStorage.Record record) {
+
+			this.record = record;
+		}
+
+		private synchronized Memory type() {
+
+			if (this.type == null) this.type = cString(this.record.getType());
+			return this.type;
+		}
+
+		private synchronized Memory id() {
+
+			if (this.id == null) this.id = cString(this.record.getId());
+			return this.id;
+		}
+
+		private synchronized Memory value() {
+
+			if (this.value == null) {
+
+				byte[] bytes = this.record.getValue();
+				this.value = new Memory(Math.max(1, bytes.length));
+				this.value.write(0, bytes, 0, bytes.length);
+			}
+
+			return this.value;
+		}
+
+		private synchronized Memory tags() {
+
+			if (this.tags == null) this.tags = cString(new JSONObject(this.record.getTags()).toString());
+			return this.tags;
+		}
+	}
+
+	/**
+	 * A search handed to libindy.
+	 */
+	private static final class Search {
+
+		private final List<WalletStorage.Record> records;
+		private final AtomicInteger position = new AtomicInteger();
+
+		private Search(List<WalletStorage.Record> records) {
+
+			this.records = records;
+		}
+	}
+
+	/*
+	 * STORAGE HANDLERS
+	 */
+
+	final Callback createCb = new Callback() {
+
+		@SuppressWarnings("unused")
+		public int callback(String name, String config, String credentials, String metadata) {
+
+			try {
+
+				storage.create(name, config, credentials, metadata);
+				return ErrorCode.Success.value();
+			} catch (Throwable e) {
+
+				return errorCode(e);
+			}
+		}
+	};
+
+	final Callback openCb = new Callback() {
+
+		@SuppressWarnings("unused")
+		public int callback(String name, String config, String credentials, IntByReference storageHandle) {
+
+			try {
+
+				int handle = nextHandle();
+				sessions.put(handle, storage.open(name, config, credentials));
+				storageHandle.setValue(handle);
+
+				return ErrorCode.Success.value();
+			} catch (Throwable e) {
+
+				return errorCode(e);
+			}
+		}
+	};
+
+	final Callback deleteCb = new Callback() {
+
+		@SuppressWarnings("unused")
+		public int callback(String name, String config, String credentials) {
+
+			try {
+
+				storage.delete(name, config, credentials);
+				return ErrorCode.Success.value();
+			} catch (Throwable e) {
+
+				return errorCode(e);
+			}
+		}
+	};
+
+	/*
+	 * SESSION HANDLERS
+	 */
+
+	static final Callback closeCb = new Callback() {
+
+		@SuppressWarnings("unused")
+		public int callback(int storageHandle) {
+
+			try {
+
+				WalletStorage.Session session = sessions.remove(storageHandle);
+				if (session == null) throw new InvalidWalletException();
+
+				session.close();
+				return ErrorCode.Success.value();
+			} catch (Throwable e) {
+
+				return errorCode(e);
+			}
+		}
+	};
+
+	/**
+	 * A size_t argument. NativeLong is not the width of size_t on every platform (it is 32 bits on Win64),
+	 * so the value lengths passed to the callbacks are read with the width JNA reports for size_t.
+	 */
+	public static final class SizeT extends IntegerType {
+
+		private static final long serialVersionUID = 1L;
+
+		public SizeT() {
+
+			this(0);
+		}
+
+		public SizeT(long value) {
+
+			super(Native.SIZE_T_SIZE, value, true);
+		}
+	}
+
+	static final Callback addRecordCb = new Callback() {
+
+		@SuppressWarnings("unused")
+		public int callback(int storageHandle, String type, String id, Pointer value, SizeT valueLen, String tagsJson) {
+
+			try {
+
+				session(storageHandle).addRecord(type, id, value.getByteArray(0, valueLen.intValue()), tags(tagsJson));
+				return ErrorCode.Success.value();
+			} catch (Throwable e) {
+
+				return errorCode(e);
+			}
+		}
+	};
+
+	static final Callback updateRecordValueCb = new Callback() {
+
+		@SuppressWarnings("unused")
+		public int callback(int storageHandle, String type, String id, Pointer value, SizeT valueLen) {
+
+			try {
+
+				session(storageHandle).updateRecordValue(type, id, value.getByteArray(0, valueLen.intValue()));
+				return ErrorCode.Success.value();
+			} catch (Throwable e) {
+
+				return errorCode(e);
+			}
+		}
+	};
+
+	static final Callback updateRecordTagsCb = new Callback() {
+
+		@SuppressWarnings("unused")
+		public int callback(int storageHandle, String type, String id, String tagsJson) {
+
+			try {
+
+				session(storageHandle).updateRecordTags(type, id, tags(tagsJson));
+				return ErrorCode.Success.value();
+			} catch (Throwable e) {
+
+				return errorCode(e);
+			}
+		}
+	};
+
+	static final Callback addRecordTagsCb = new Callback() {
+
+		@SuppressWarnings("unused")
+		public int callback(int storageHandle, String type, String id, String tagsJson) {
+
+			try {
+
+				session(storageHandle).addRecordTags(type, id, tags(tagsJson));
+				return ErrorCode.Success.value();
+			} catch (Throwable e) {
+
+				return errorCode(e);
+			}
+		}
+	};
+
+	static final Callback deleteRecordTagsCb = new Callback() {
+
+		@SuppressWarnings("unused")
+		public int callback(int storageHandle, String type, String id, String tagNamesJson) {
+
+			try {
+
+				session(storageHandle).deleteRecordTags(type, id, tagNames(tagNamesJson));
+				return ErrorCode.Success.value();
+			} catch (Throwable e) {
+
+				return errorCode(e);
+			}
+		}
+	};
+
+	static final Callback deleteRecordCb = new Callback() {
+
+		@SuppressWarnings("unused")
+		public int callback(int storageHandle, String type, String id) {
+
+			try {
+
+				session(storageHandle).deleteRecord(type, id);
+				return ErrorCode.Success.value();
+			} catch (Throwable e) {
+
+				return errorCode(e);
+			}
+		}
+	};
+
+	/**
+	 * The options json only selects which fields libindy will ask for afterwards, so it is ignored.
+	 */
+	static final Callback getRecordCb = new Callback() {
+
+		@SuppressWarnings("unused")
+		public int callback(int storageHandle, String type, String id, String optionsJson, IntByReference recordHandle) {
+
+			try {
+
+				return addRecordHandle(session(storageHandle).getRecord(type, id), recordHandle);
+			} catch (Throwable e) {
+
+				return errorCode(e);
+			}
+		}
+	};
+
+	static final Callback getRecordIdCb = new Callback() {
+
+		@SuppressWarnings("unused")
+		public int callback(int storageHandle, int recordHandle, PointerByReference id) {
+
+			try {
+
+				id.setValue(record(recordHandle).id());
+				return ErrorCode.Success.value();
+			} catch (Throwable e) {
+
+				return errorCode(e);
+			}
+		}
+	};
+
+	static final Callback getRecordTypeCb = new Callback() {
+
+		@SuppressWarnings("unused")
+		public int callback(int storageHandle, int recordHandle, PointerByReference type) {
+
+			try {
+
+				type.setValue(record(recordHandle).type());
+				return ErrorCode.Success.value();
+			} catch (Throwable e) {
+
+				return errorCode(e);
+			}
+		}
+	};
+
+	static final Callback getRecordValueCb = new Callback() {
+
+		@SuppressWarnings("unused")
+		public int callback(int storageHandle, int recordHandle, PointerByReference value, Pointer valueLen) {
+
+			try {
+
+				NativeRecord record = record(recordHandle);
+				value.setValue(record.value());
+				if (Native.SIZE_T_SIZE == 8) valueLen.setLong(0, record.record.getValue().length);
+				else valueLen.setInt(0, record.record.getValue().length);
+
+				return ErrorCode.Success.value();
+			} catch (Throwable e) {
+
+				return errorCode(e);
+			}
+		}
+	};
+
+	static final Callback getRecordTagsCb = new Callback() {
+
+		@SuppressWarnings("unused")
+		public int callback(int storageHandle, int recordHandle, PointerByReference tagsJson) {
+
+			try {
+
+				tagsJson.setValue(record(recordHandle).tags());
+				return ErrorCode.Success.value();
+			} catch (Throwable e) {
+
+				return errorCode(e);
+			}
+		}
+	};
+
+	static final Callback freeRecordCb = new Callback() {
+
+		@SuppressWarnings("unused")
+		public int callback(int storageHandle, int recordHandle) {
+
+			return records.remove(recordHandle) != null ? ErrorCode.Success.value() : ErrorCode.WalletInputError.value();
+		}
+	};
+
+	static final Callback getStorageMetadataCb = new Callback() {
+
+		@SuppressWarnings("unused")
+		public int callback(int storageHandle, PointerByReference metadataOut, IntByReference metadataHandle) {
+
+			try {
+
+				Memory memory = cString(session(storageHandle).getStorageMetadata());
+				int handle = nextHandle();
+				metadata.put(handle, memory);
+
+				metadataOut.setValue(memory);
+				metadataHandle.setValue(handle);
+
+				return ErrorCode.Success.value();
+			} catch (Throwable e) {
+
+				return errorCode(e);
+			}
+		}
+	};
+
+	static final Callback setStorageMetadataCb = new Callback() {
+
+		@SuppressWarnings("unused")
+		public int callback(int storageHandle, String metadata) {
+
+			try {
+
+				session(storageHandle).setStorageMetadata(metadata);
+				return ErrorCode.Success.value();
+			} catch (Throwable e) {
+
+				return errorCode(e);
+			}
+		}
+	};
+
+	static final Callback freeStorageMetadataCb = new Callback() {
+
+		@SuppressWarnings("unused")
+		public int callback(int storageHandle, int metadataHandle) {
+
+			return metadata.remove(metadataHandle) != null ? ErrorCode.Success.value() : ErrorCode.WalletInputError.value();
+		}
+	};
+
+	/**
+	 * Record selection is done by the query; the options only select the fields libindy will ask for
+	 * afterwards, so they are ignored.
+	 */
+	static final Callback searchRecordsCb = new Callback() {
+
+		@SuppressWarnings("unused")
+		public int callback(int storageHandle, String type, String queryJson, String optionsJson, IntByReference searchHandle) {
+
+			try {
+
+				List<WalletStorage.Record> result = session(storageHandle).searchRecords(type, WalletStorageQuery.parse(queryJson));
+				int handle = nextHandle();
+				searches.put(handle, new Search(result));
+				searchHandle.setValue(handle);
+
+				return ErrorCode.Success.value();
+			} catch (Throwable e) {
+
+				return errorCode(e);
+			}
+		}
+	};
+
+	static final Callback searchAllRecordsCb = new Callback() {
+
+		@SuppressWarnings("unused")
+		public int callback(int storageHandle, IntByReference searchHandle) {
+
+			try {
+
+				List<WalletStorage.Record> result = session(storageHandle).searchAllRecords();
+				int handle = nextHandle();
+				searches.put(handle, new Search(result));
+				searchHandle.setValue(handle);
+
+				return ErrorCode.Success.value();
+			} catch (Throwable e) {
+
+				return errorCode(e);
+			}
+		}
+	};
+
+	static final Callback getSearchTotalCountCb = new Callback() {
+
+		@SuppressWarnings("unused")
+		public int callback(int storageHandle, int searchHandle, Pointer totalCount) {
+
+			Search search = searches.get(searchHandle);
+			if (search == null) return ErrorCode.WalletInputError.value();
+
+			if (Native.SIZE_T_SIZE == 8) totalCount.setLong(0, search.records.size());
+			else totalCount.setInt(0, search.records.size());
+
+			return ErrorCode.Success.value();
+		}
+	};
+
+	/**
+	 * Reports WalletItemNotFound once all records were fetched, which libindy takes as the end of the search.
+	 */
+	static final Callback fetchSearchNextRecordCb = new Callback() {
+
+		@SuppressWarnings("unused")
+		public int callback(int storageHandle, int searchHandle, IntByReference recordHandle) {
+
+			Search search = searches.get(searchHandle);
+			if (search == null) return ErrorCode.WalletInputError.value();
+
+			int position = search.position.getAndIncrement();
+			if (position >= search.records.size()) return ErrorCode.WalletItemNotFound.value();
+
+			return addRecordHandle(search.records.get(position), recordHandle);
+		}
+	};
+
+	static final Callback freeSearchCb = new Callback() {
+
+		@SuppressWarnings("unused")
+		public int callback(int storageHandle, int searchHandle) {
+
+			return searches.remove(searchHandle) != null ? ErrorCode.Success.value() : ErrorCode.WalletInputError.value();
+		}
+	};
+}
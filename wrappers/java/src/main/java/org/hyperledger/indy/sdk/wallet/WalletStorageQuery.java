@@ -0,0 +1,272 @@
+package org.hyperledger.indy.sdk.wallet;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import org.hyperledger.indy.sdk.ParamGuard;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/**
+ * A parsed wallet search query, as passed to {@link WalletStorage.Session#searchRecords(String, WalletStorageQuery)}.
+ *
+ * Queries use the wallet query language with tag names and values encoded as stored:
+ * <pre>
+ * {
+ *   "tagName": "tagValue",
+ *   "tagName": {"$neq"|"$gt"|"$gte"|"$lt"|"$lte"|"$like": "tagValue"},
+ *   "tagName": {"$in": ["tagValue", ...]},
+ *   "$and": [query, ...],
+ *   "$or": [query, ...],
+ *   "$not": query
+ * }
+ * </pre>
+ * Terms of one object must all match. Comparisons are lexicographic and "$like" supports the '%' and '_'
+ * wildcards, as in the default storage.
+ */
+public final class WalletStorageQuery {
+
+	private enum Operator {
+
+		EQ, NEQ, GT, GTE, LT, LTE, LIKE, IN, AND, OR, NOT
+	}
+
+	private static final WalletStorageQuery ALL = new WalletStorageQuery(Operator.AND, null, Collections.<String>emptyList(), Collections.<WalletStorageQuery>emptyList());
+
+	private final Operator operator;
+	private final String tagName;
+	private final List<String> values;
+	private final List<WalletStorageQuery> operands;
+	private final Pattern pattern;
+
+	private WalletStorageQuery(Operator operator, String tagName, List<String> values, List<WalletStorageQuery> operands) {
+
+		this.operator = operator;
+		this.tagName = tagName;
+		this.values = values;
+		this.operands = operands;
+		this.pattern = operator == Operator.LIKE ? likePattern(values.get(0)) : null;
+	}
+
+	/**
+	 * Parses a query.
+	 *
+	 * @param queryJson The query json, or null to match all records.
+	 * @return The query.
+	 * @throws WalletInvalidQueryException Thrown if the query is malformed.
+	 */
+	public static WalletStorageQuery parse(String queryJson) throws WalletInvalidQueryException {
+
+		if (queryJson == null || queryJson.trim().isEmpty()) return ALL;
+
+		try {
+
+			return parse(new JSONObject(queryJson));
+		} catch (JSONException e) {
+
+			throw new WalletInvalidQueryException();
+		}
+	}
+
+	private static WalletStorageQuery parse(JSONObject query) throws WalletInvalidQueryException {
+
+		List<WalletStorageQuery> terms = new ArrayList<WalletStorageQuery>(query.length());
+		Iterator<String> keys = query.keys();
+		while (keys.hasNext()) {
+
+			String key = keys.next();
+			Object value = query.get(key);
+
+			if ("$and".equals(key) || "$or".equals(key)) {
+
+				if (! (value instanceof JSONArray)) throw new WalletInvalidQueryException();
+
+				JSONArray array = (JSONArray) value;
+				List<WalletStorageQuery> operands = new ArrayList<WalletStorageQuery>(array.length());
+				for (int i = 0; i < array.length(); i++) operands.add(parse(array.getJSONObject(i)));
+
+				terms.add(new WalletStorageQuery("$and".equals(key) ? Operator.AND : Operator.OR, null, Collections.<String>emptyList(), operands));
+			} else if ("$not".equals(key)) {
+
+				if (! (value instanceof JSONObject)) throw new WalletInvalidQueryException();
+
+				terms.add(new WalletStorageQuery(Operator.NOT, null, Collections.<String>emptyList(), Collections.singletonList(parse((JSONObject) value))));
+			} else if (key.isEmpty() || key.startsWith("$") || "~".equals(key)) {
+
+				throw new WalletInvalidQueryException();
+			} else if (value instanceof String) {
+
+				terms.add(term(Operator.EQ, key, Collections.singletonList((String) value)));
+			} else if (value instanceof JSONObject && ((JSONObject) value).length() == 1) {
+
+				terms.add(parseTerm(key, (JSONObject) value));
+			} else {
+
+				throw new WalletInvalidQueryException();
+			}
+		}
+
+		return terms.size() == 1 ? terms.get(0) : new WalletStorageQuery(Operator.AND, null, Collections.<String>emptyList(), terms);
+	}
+
+	private static WalletStorageQuery parseTerm(String tagName, JSONObject term) throws WalletInvalidQueryException {
+
+		String key = term.keys().next();
+		Object value = term.get(key);
+
+		if ("$in".equals(key)) {
+
+			if (! (value instanceof JSONArray)) throw new WalletInvalidQueryException();
+
+			JSONArray array = (JSONArray) value;
+			List<String> values = new ArrayList<String>(array.length());
+			for (int i = 0; i < array.length(); i++) {
+
+				if (! (array.get(i) instanceof String)) throw new WalletInvalidQueryException();
+				values.add(array.getString(i));
+			}
+
+			return term(Operator.IN, tagName, values);
+		}
+
+		if (! (value instanceof String)) throw new WalletInvalidQueryException();
+
+		Operator operator;
+		if ("$neq".equals(key)) operator = Operator.NEQ;
+		else if ("$gt".equals(key)) operator = Operator.GT;
+		else if ("$gte".equals(key)) operator = Operator.GTE;
+		else if ("$lt".equals(key)) operator = Operator.LT;
+		else if ("$lte".equals(key)) operator = Operator.LTE;
+		else if ("$like".equals(key)) operator = Operator.LIKE;
+		else throw new WalletInvalidQueryException();
+
+		return term(operator, tagName, Collections.singletonList((String) value));
+	}
+
+	private static WalletStorageQuery term(Operator operator, String tagName, List<String> values) {
+
+		return new WalletStorageQuery(operator, tagName, values, Collections.<WalletStorageQuery>emptyList());
+	}
+
+	private static Pattern likePattern(String like) {
+
+		StringBuilder regex = new StringBuilder();
+		int start = 0;
+		for (int i = 0; i < like.length(); i++) {
+
+			char c = like.charAt(i);
+			if (c != '%' && c != '_') continue;
+
+			if (i > start) regex.append(Pattern.quote(like.substring(start, i)));
+			regex.append(c == '%' ? ".*" : ".");
+			start = i + 1;
+		}
+
+		if (start < like.length()) regex.append(Pattern.quote(like.substring(start)));
+
+		return Pattern.compile(regex.toString(), Pattern.DOTALL);
+	}
+
+	/**
+	 * Checks whether a record matches this query.
+	 *
+	 * @param tags The tags of the record.
+	 * @return true if the record matches.
+	 */
+	public boolean matches(Map<String, String> tags) {
+
+		ParamGuard.notNull(tags, "tags");
+
+		switch (this.operator) {
+
+			case AND:
+				for (WalletStorageQuery operand : this.operands) if (! operand.matches(tags)) return false;
+				return true;
+
+			case OR:
+				for (WalletStorageQuery operand : this.operands) if (operand.matches(tags)) return true;
+				return this.operands.isEmpty();
+
+			case NOT:
+				return ! this.operands.get(0).matches(tags);
+
+			default:
+				String value = tags.get(this.tagName);
+				return value != null && matchesValue(value);
+		}
+	}
+
+	private boolean matchesValue(String value) {
+
+		String target = this.values.get(0);
+
+		switch (this.operator) {
+
+			case EQ: return value.equals(target);
+			case NEQ: return ! value.equals(target);
+			case GT: return value.compareTo(target) > 0;
+			case GTE: return value.compareTo(target) >= 0;
+			case LT: return value.compareTo(target) < 0;
+			case LTE: return value.compareTo(target) <= 0;
+			case LIKE: return this.pattern.matcher(value).matches();
+			case IN: return this.values.contains(value);
+			default: throw new IllegalStateException(this.operator.name());
+		}
+	}
+
+	/**
+	 * Finds an equality or "$in" term that every matching record satisfies, so that candidates can be
+	 * looked up in a tag index before the whole query is evaluated.
+	 *
+	 * @return The term, or null if the query has none.
+	 */
+	WalletStorageQuery indexTerm() {
+
+		if (this.operator == Operator.EQ || this.operator == Operator.IN) return this;
+		if (this.operator != Operator.AND) return null;
+
+		for (WalletStorageQuery operand : this.operands) {
+
+			WalletStorageQuery term = operand.indexTerm();
+			if (term != null) return term;
+		}
+
+		return null;
+	}
+
+	/**
+	 * @return The tag name of a term.
+	 */
+	String tagName() {
+
+		return this.tagName;
+	}
+
+	/**
+	 * @return The values a term compares with.
+	 */
+	List<String> values() {
+
+		return this.values;
+	}
+
+	/*
+	 * OBJECT METHODS
+	 */
+
+	@Override
+	public String toString() {
+
+		switch (this.operator) {
+
+			case AND: case OR: return "WalletStorageQuery[" + this.operator + "=" + this.operands + "]";
+			case NOT: return "WalletStorageQuery[NOT=" + this.operands.get(0) + "]";
+			default: return "WalletStorageQuery[" + this.tagName + " " + this.operator + " " + this.values + "]";
+		}
+	}
+}
@@ -0,0 +1,60 @@
+package org.hyperledger.indy.sdk;
+
+import org.hyperledger.indy.sdk.wallet.WalletItemNotFoundException;
+import org.junit.After;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+
+public class IndyExceptionTest {
+
+	@After
+	public void resetStackless() {
+		IndyException.setStackless();
+	}
+
+	@Test
+	public void testExceptionsHaveStackTraceByDefault() {
+		IndyException e = IndyException.fromSdkError(ErrorCode.WalletItemNotFound.value());
+
+		assertTrue(e instanceof WalletItemNotFoundException);
+		assertTrue(e.getStackTrace().length > 0);
+	}
+
+	@Test
+	public void testStacklessCodesSkipStackTrace() {
+		IndyException.setStackless(ErrorCode.WalletItemNotFound);
+
+		IndyException notFound = IndyException.fromSdkError(ErrorCode.WalletItemNotFound.value());
+		IndyException other = IndyException.fromSdkError(ErrorCode.WalletItemAlreadyExists.value());
+
+		assertTrue(notFound instanceof WalletItemNotFoundException);
+		assertEquals(ErrorCode.WalletItemNotFound.value(), notFound.getSdkErrorCode());
+		assertEquals(0, notFound.getStackTrace().length);
+		assertTrue(other.getStackTrace().length > 0);
+		assertFalse(IndyException.isStackless(ErrorCode.WalletItemAlreadyExists));
+	}
+
+	@Test
+	public void testStackTraceOfDirectlyCreatedExceptionIsFilled() {
+		IndyException.setStackless(ErrorCode.WalletItemNotFound);
+
+		assertTrue(new WalletItemNotFoundException().getStackTrace().length > 0);
+	}
+
+	@Test
+	public void testCopyKeepsTypeAndCodeWithoutStackTrace() {
+		IndyException original = IndyException.fromSdkError(ErrorCode.WalletItemNotFound.value());
+		IndyException copy = IndyException.copyOf(original);
+
+		assertTrue(copy instanceof WalletItemNotFoundException);
+		assertNotSame(original, copy);
+		assertEquals(original.getSdkErrorCode(), copy.getSdkErrorCode());
+		assertEquals(original.getSdkMessage(), copy.getSdkMessage());
+		assertEquals(0, copy.getStackTrace().length);
+		assertTrue(new WalletItemNotFoundException().getStackTrace().length > 0);
+	}
+}
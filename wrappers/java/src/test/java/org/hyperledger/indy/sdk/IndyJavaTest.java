@@ -0,0 +1,48 @@
+package org.hyperledger.indy.sdk;
+
+import org.hyperledger.indy.sdk.dispatch.CommandRegistry;
+import org.junit.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class IndyJavaTest {
+
+	@Test
+	public void testSynchronousErrorLeavesTheRegistryEmpty() throws Exception {
+		CommandRegistry registry = LibIndy.getCommandRegistry();
+		int pending = registry.size();
+
+		CompletableFuture<String> future = new CompletableFuture<>();
+		int commandHandle = IndyJava.API.addFuture(future);
+		assertEquals(pending + 1, registry.size());
+
+		assertFalse(IndyJava.API.checkResult(commandHandle, future, ErrorCode.CommonInvalidParam3.value()));
+		assertEquals(pending, registry.size());
+
+		try {
+			future.get();
+			fail();
+		} catch (ExecutionException e) {
+			assertTrue(e.getCause() instanceof IndyException);
+			assertEquals(ErrorCode.CommonInvalidParam3.value(), ((IndyException) e.getCause()).getSdkErrorCode());
+		}
+	}
+
+	@Test
+	public void testSuccessKeepsTheCommandRegistered() {
+		CommandRegistry registry = LibIndy.getCommandRegistry();
+		CompletableFuture<String> future = new CompletableFuture<>();
+		int commandHandle = IndyJava.API.addFuture(future);
+
+		assertTrue(IndyJava.API.checkResult(commandHandle, future, ErrorCode.Success.value()));
+		assertFalse(future.isDone());
+		assertSame(future, registry.remove(commandHandle));
+	}
+}
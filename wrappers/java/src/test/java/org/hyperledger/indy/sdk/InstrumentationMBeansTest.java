@@ -0,0 +1,29 @@
+package org.hyperledger.indy.sdk;
+
+import org.hyperledger.indy.sdk.dispatch.HistogramInstrumentation;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+
+import javax.management.ObjectName;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class InstrumentationMBeansTest {
+
+	@Test
+	public void testInstrumentationCanBeRegistered() throws Exception {
+		HistogramInstrumentation instrumentation = new HistogramInstrumentation();
+		instrumentation.commandCompleted("indy_open_wallet", 2000);
+
+		ObjectName name = InstrumentationMBeans.register(instrumentation);
+		try {
+			assertEquals(InstrumentationMBeans.OBJECT_NAME, name.toString());
+			Object latencies = ManagementFactory.getPlatformMBeanServer().getAttribute(name, "LatencyMaxMicros");
+			assertTrue(latencies != null);
+		} finally {
+			InstrumentationMBeans.unregister();
+		}
+	}
+}
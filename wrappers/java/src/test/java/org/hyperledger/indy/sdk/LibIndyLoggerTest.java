@@ -0,0 +1,158 @@
+package org.hyperledger.indy.sdk;
+
+import org.apache.log4j.AppenderSkeleton;
+import org.apache.log4j.Level;
+import org.apache.log4j.spi.LoggingEvent;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+
+public class LibIndyLoggerTest {
+
+	@After
+	public void restoreSync() {
+		LibIndyLogger.setSync();
+	}
+
+	@Test
+	public void testLoggerIsCachedPerTarget() {
+		org.slf4j.Logger logger = LibIndyLogger.loggerFor("indy::commands::did");
+
+		assertSame(logger, LibIndyLogger.loggerFor("indy::commands::did"));
+		assertEquals(LibIndyLogger.LOGGER_PREFIX + "indy.commands.did", logger.getName());
+	}
+
+	@Test
+	public void testEnabledMatchesLoggerLevel() {
+		org.slf4j.Logger logger = LibIndyLogger.loggerFor("indy::api");
+
+		assertEquals(logger.isErrorEnabled(), LibIndyLogger.enabled.callback(null, 1, "indy::api"));
+		assertEquals(logger.isTraceEnabled(), LibIndyLogger.enabled.callback(null, 5, "indy::api"));
+		assertFalse(LibIndyLogger.enabled.callback(null, 6, "indy::api"));
+	}
+
+	@Test
+	public void testLogWorksForMissingLocation() {
+		LibIndyLogger.log.callback(null, 1, "indy::api", "message", null, null, 0);
+		LibIndyLogger.log.callback(null, 1, null, null, null, null, 0);
+	}
+
+	@Test
+	public void testAsyncLogAndFlushWork() {
+		LibIndyLogger.setAsync(16, LibIndyLogger.DropPolicy.DROP_OLDEST);
+
+		for (int i = 0; i < 1000; i++) {
+			LibIndyLogger.log.callback(null, 1, "indy::api", "message " + i, "indy::api", "src/api/mod.rs", i);
+		}
+
+		LibIndyLogger.flush.callback(null);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testSetAsyncFailsForInvalidCapacity() {
+		LibIndyLogger.setAsync(0, LibIndyLogger.DropPolicy.DROP_NEWEST);
+	}
+
+	@Test
+	public void testFlushWaitsForTheWriterThread() {
+		List<String> written = new ArrayList<>();
+		AppenderSkeleton appender = capture("indy::flush", written);
+
+		try {
+			LibIndyLogger.setAsync(1024, LibIndyLogger.DropPolicy.DROP_NEWEST);
+
+			for (int round = 0; round < 20; round++) {
+				for (int i = 0; i < 50; i++) {
+					LibIndyLogger.log.callback(null, 1, "indy::flush", round + "/" + i, "indy::flush", "mod.rs", 1);
+				}
+
+				LibIndyLogger.flush.callback(null);
+
+				synchronized (written) {
+					assertEquals((round + 1) * 50, written.size());
+					assertEquals("mod.rs:1 | " + round + "/49", written.get(written.size() - 1));
+				}
+			}
+		} finally {
+			release("indy::flush", appender);
+		}
+	}
+
+	@Test
+	public void testRecordsLoggedWhileSwappingWritersAreKept() throws InterruptedException {
+		List<String> written = new ArrayList<>();
+		AppenderSkeleton appender = capture("indy::swap", written);
+		long dropped = LibIndyLogger.getDroppedCount();
+
+		try {
+			LibIndyLogger.setAsync(100000, LibIndyLogger.DropPolicy.DROP_NEWEST);
+
+			Thread[] threads = new Thread[4];
+			for (int t = 0; t < threads.length; t++) {
+				threads[t] = new Thread(() -> {
+					for (int i = 0; i < 5000; i++) {
+						LibIndyLogger.log.callback(null, 1, "indy::swap", String.valueOf(i), "indy::swap", "mod.rs", 1);
+					}
+				});
+				threads[t].start();
+			}
+
+			for (int i = 0; i < 50; i++) {
+				if (i % 2 == 0) LibIndyLogger.setAsync(100000, LibIndyLogger.DropPolicy.DROP_NEWEST);
+				else LibIndyLogger.setSync();
+			}
+			for (Thread thread : threads) thread.join();
+
+			LibIndyLogger.flush.callback(null);
+
+			synchronized (written) {
+				assertEquals(threads.length * 5000, written.size());
+			}
+			assertEquals(dropped, LibIndyLogger.getDroppedCount());
+		} finally {
+			release("indy::swap", appender);
+		}
+	}
+
+	/**
+	 * Collects the messages logged for a target, which is not passed on to the other appenders.
+	 */
+	private static AppenderSkeleton capture(String target, final List<String> written) {
+		AppenderSkeleton appender = new AppenderSkeleton() {
+			@Override
+			protected void append(LoggingEvent event) {
+				synchronized (written) {
+					written.add(event.getRenderedMessage());
+				}
+			}
+
+			@Override
+			public void close() {
+			}
+
+			@Override
+			public boolean requiresLayout() {
+				return false;
+			}
+		};
+
+		org.apache.log4j.Logger logger = org.apache.log4j.Logger.getLogger(LibIndyLogger.loggerFor(target).getName());
+		logger.setLevel(Level.ERROR);
+		logger.setAdditivity(false);
+		logger.addAppender(appender);
+		return appender;
+	}
+
+	private static void release(String target, AppenderSkeleton appender) {
+		org.apache.log4j.Logger logger = org.apache.log4j.Logger.getLogger(LibIndyLogger.loggerFor(target).getName());
+		logger.removeAppender(appender);
+		logger.setAdditivity(true);
+		logger.setLevel(null);
+	}
+}
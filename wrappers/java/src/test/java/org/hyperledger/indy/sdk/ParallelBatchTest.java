@@ -0,0 +1,159 @@
+package org.hyperledger.indy.sdk;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ParallelBatchTest {
+
+	@Test
+	public void testRunWorksForSynchronousOperations() throws Exception {
+		List<Integer> inputs = Collections.nCopies(100000, 1);
+
+		List<Integer> outputs = ParallelBatch.run(inputs, 8, new ParallelBatch.Operation<Integer, Integer>() {
+			@Override
+			public CompletableFuture<Integer> apply(Integer input) {
+				return CompletableFuture.completedFuture(input + 1);
+			}
+		}, null).get();
+
+		assertEquals(100000, outputs.size());
+		assertEquals(Integer.valueOf(2), outputs.get(99999));
+	}
+
+	@Test
+	public void testRunBoundsParallelism() throws Exception {
+		final ScheduledExecutorService executor = Executors.newScheduledThreadPool(8);
+		final AtomicInteger inFlight = new AtomicInteger();
+		final AtomicInteger maxInFlight = new AtomicInteger();
+
+		try {
+			List<Integer> outputs = ParallelBatch.run(Arrays.asList(1, 2, 3, 4, 5, 6, 7, 8, 9, 10), 3, new ParallelBatch.Operation<Integer, Integer>() {
+				@Override
+				public CompletableFuture<Integer> apply(final Integer input) {
+					int current = inFlight.incrementAndGet();
+					maxInFlight.accumulateAndGet(current, Math::max);
+
+					final CompletableFuture<Integer> future = new CompletableFuture<>();
+					executor.schedule(() -> {
+						inFlight.decrementAndGet();
+						future.complete(input * 10);
+					}, 5, TimeUnit.MILLISECONDS);
+					return future;
+				}
+			}, null).get();
+
+			assertEquals(Arrays.asList(10, 20, 30, 40, 50, 60, 70, 80, 90, 100), outputs);
+			assertTrue(maxInFlight.get() <= 3);
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void testRunStopsAfterFailure() throws Exception {
+		final AtomicInteger submitted = new AtomicInteger();
+
+		try {
+			ParallelBatch.run(Arrays.asList(1, 2, 3, 4), 1, new ParallelBatch.Operation<Integer, Integer>() {
+				@Override
+				public CompletableFuture<Integer> apply(Integer input) {
+					submitted.incrementAndGet();
+					CompletableFuture<Integer> future = new CompletableFuture<>();
+					if (input == 2) future.completeExceptionally(new IllegalStateException());
+					else future.complete(input);
+					return future;
+				}
+			}, null).get();
+			fail();
+		} catch (ExecutionException e) {
+			assertTrue(e.getCause() instanceof IllegalStateException);
+		}
+
+		assertEquals(2, submitted.get());
+	}
+
+	@Test
+	public void testPipelineProcessesInputsAsTheyArrive() throws Exception {
+		final List<CompletableFuture<Integer>> pending = new ArrayList<>();
+
+		ParallelBatch.Pipeline<Integer, Integer> pipeline = ParallelBatch.pipeline(2, new ParallelBatch.Operation<Integer, Integer>() {
+			@Override
+			public CompletableFuture<Integer> apply(Integer input) {
+				CompletableFuture<Integer> future = new CompletableFuture<>();
+				pending.add(future);
+				return future.thenApply(output -> output * input);
+			}
+		}, null);
+
+		pipeline.offer(1);
+		pipeline.onResult(7, 2);
+		pipeline.offer(3);
+		assertEquals(2, pending.size());
+
+		pending.get(1).complete(10);
+		assertEquals(3, pending.size());
+
+		pipeline.close();
+		assertFalse(pipeline.getResult().isDone());
+
+		pending.get(0).complete(10);
+		pending.get(2).complete(10);
+		assertEquals(Arrays.asList(10, 20, 30), pipeline.getResult().get());
+
+		try {
+			pipeline.offer(4);
+			fail();
+		} catch (IllegalStateException expected) {
+		}
+	}
+
+	@Test
+	public void testPipelineFollowsARunningBatch() throws Exception {
+		ParallelBatch.Pipeline<Integer, Integer> pipeline = ParallelBatch.pipeline(3, new ParallelBatch.Operation<Integer, Integer>() {
+			@Override
+			public CompletableFuture<Integer> apply(Integer input) {
+				return CompletableFuture.completedFuture(-input);
+			}
+		}, null);
+
+		List<Integer> created = ParallelBatch.run(Arrays.asList(1, 2, 3, 4, 5), 2, new ParallelBatch.Operation<Integer, Integer>() {
+			@Override
+			public CompletableFuture<Integer> apply(Integer input) {
+				return CompletableFuture.completedFuture(input * 10);
+			}
+		}, pipeline).get();
+		pipeline.close();
+
+		assertEquals(Arrays.asList(10, 20, 30, 40, 50), created);
+		assertEquals(Arrays.asList(-10, -20, -30, -40, -50), pipeline.getResult().get());
+	}
+
+	@Test
+	public void testEmptyPipelineCompletesOnClose() throws Exception {
+		ParallelBatch.Pipeline<Integer, Integer> pipeline = ParallelBatch.pipeline(1, new ParallelBatch.Operation<Integer, Integer>() {
+			@Override
+			public CompletableFuture<Integer> apply(Integer input) {
+				throw new IllegalStateException();
+			}
+		}, null);
+
+		pipeline.close();
+
+		assertEquals(Collections.emptyList(), pipeline.getResult().get());
+	}
+}
@@ -0,0 +1,216 @@
+package org.hyperledger.indy.sdk.anoncreds;
+
+import org.json.JSONObject;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ProofBuilderTest {
+
+	private static final String SCHEMA_ID = "NcYxiDXkpYi6ov5FcYDi1e:2:gvt:1.0";
+	private static final String CRED_DEF_ID = "NcYxiDXkpYi6ov5FcYDi1e:3:CL:1:TAG_1";
+	private static final String REV_REG_ID = "NcYxiDXkpYi6ov5FcYDi1e:4:" + CRED_DEF_ID + ":CL_ACCUM:TAG_1";
+
+	/**
+	 * Answers wallet reads at once and keeps ledger reads pending until the test completes them.
+	 */
+	private static class FakeBackend implements ProofBuilder.Backend {
+
+		final Map<String, CompletableFuture<String>> pending = new LinkedHashMap<>();
+		final Map<String, CompletableFuture<ProofBuilder.Delta>> pendingDeltas = new LinkedHashMap<>();
+		final List<String> calls = new ArrayList<>();
+		String revStates;
+		String requestedCredentials;
+
+		@Override
+		public CompletableFuture<String> getCredential(String credId) {
+			this.calls.add("credential:" + credId);
+			return CompletableFuture.completedFuture(new JSONObject()
+					.put("referent", credId)
+					.put("attrs", new JSONObject().put("name", "Alex").put("age", "28"))
+					.put("schema_id", SCHEMA_ID)
+					.put("cred_def_id", CRED_DEF_ID)
+					.put("rev_reg_id", credId.equals("revocable") ? REV_REG_ID : null)
+					.put("cred_rev_id", credId.equals("revocable") ? "7" : null)
+					.toString());
+		}
+
+		private CompletableFuture<String> ledger(String call) {
+			this.calls.add(call);
+			CompletableFuture<String> future = new CompletableFuture<>();
+			this.pending.put(call, future);
+			return future;
+		}
+
+		@Override
+		public CompletableFuture<String> getSchema(String id) {
+			return ledger("schema:" + id);
+		}
+
+		@Override
+		public CompletableFuture<String> getCredDef(String id) {
+			return ledger("credDef:" + id);
+		}
+
+		@Override
+		public CompletableFuture<String> getRevRegDef(String id) {
+			return ledger("revRegDef:" + id);
+		}
+
+		@Override
+		public CompletableFuture<ProofBuilder.Delta> getRevRegDelta(String id, long from, long to) {
+			String call = "delta:" + from + ":" + to;
+			this.calls.add(call);
+			CompletableFuture<ProofBuilder.Delta> future = new CompletableFuture<>();
+			this.pendingDeltas.put(call, future);
+			return future;
+		}
+
+		@Override
+		public CompletableFuture<String> createRevocationState(String revRegDef, ProofBuilder.Delta delta, String credRevId) {
+			this.calls.add("create:" + credRevId + "@" + delta.timestamp);
+			return CompletableFuture.completedFuture(new JSONObject().put("created", delta.timestamp).toString());
+		}
+
+		@Override
+		public CompletableFuture<String> updateRevocationState(String revState, String revRegDef, ProofBuilder.Delta delta, String credRevId) {
+			this.calls.add("update:" + new JSONObject(revState).getLong("created") + "->" + delta.timestamp);
+			return CompletableFuture.completedFuture(new JSONObject().put("updated", delta.timestamp).toString());
+		}
+
+		@Override
+		public CompletableFuture<String> createProof(String proofRequest, String requestedCredentials, String masterSecret,
+				String schemas, String credentialDefs, String revStates) {
+			this.calls.add("proof");
+			this.requestedCredentials = requestedCredentials;
+			this.revStates = revStates;
+			return CompletableFuture.completedFuture("{\"proof\":{}}");
+		}
+
+		void completeLedger() {
+			for (Map.Entry<String, CompletableFuture<String>> entry : this.pending.entrySet()) {
+				entry.getValue().complete(new JSONObject().put("id", entry.getKey()).toString());
+			}
+			this.pending.clear();
+		}
+	}
+
+	private FakeBackend backend;
+	private ProofBuilder builder;
+
+	private static String proofRequest(long to) {
+		return new JSONObject()
+				.put("nonce", "123432421212")
+				.put("name", "proof_req_1")
+				.put("version", "0.1")
+				.put("requested_attributes", new JSONObject()
+						.put("attr1_referent", new JSONObject().put("name", "name")
+								.put("non_revoked", new JSONObject().put("to", to)))
+						.put("attr2_referent", new JSONObject().put("name", "name")))
+				.put("requested_predicates", new JSONObject()
+						.put("predicate1_referent", new JSONObject().put("name", "age").put("p_type", ">=").put("p_value", 18)
+								.put("non_revoked", new JSONObject().put("to", to))))
+				.toString();
+	}
+
+	private static String requestedCredentials() {
+		return new JSONObject()
+				.put("self_attested_attributes", new JSONObject())
+				.put("requested_attributes", new JSONObject()
+						.put("attr1_referent", new JSONObject().put("cred_id", "revocable").put("revealed", true))
+						.put("attr2_referent", new JSONObject().put("cred_id", "plain").put("revealed", true)))
+				.put("requested_predicates", new JSONObject()
+						.put("predicate1_referent", new JSONObject().put("cred_id", "revocable")))
+				.toString();
+	}
+
+	@Before
+	public void createBuilder() {
+		this.backend = new FakeBackend();
+		this.builder = new ProofBuilder(this.backend);
+	}
+
+	@Test
+	public void testLedgerReadsRunConcurrentlyAndInputsAreAssembled() throws Exception {
+		CompletableFuture<ProofBuilder.Result> result = this.builder.build(proofRequest(100), requestedCredentials(), "master_secret");
+
+		assertFalse(result.isDone());
+		assertEquals(3, this.backend.pending.size());
+		assertEquals(1, this.backend.pendingDeltas.size());
+		assertTrue(this.backend.pendingDeltas.containsKey("delta:0:100"));
+
+		this.backend.pendingDeltas.get("delta:0:100").complete(new ProofBuilder.Delta("{}", 90));
+		this.backend.completeLedger();
+
+		ProofBuilder.Result proof = result.get();
+		assertEquals("{\"proof\":{}}", proof.getProofJson());
+		assertEquals(SCHEMA_ID, new JSONObject(proof.getSchemasJson()).keySet().iterator().next());
+		assertEquals("credDef:" + CRED_DEF_ID, new JSONObject(proof.getCredentialDefsJson()).getJSONObject(CRED_DEF_ID).getString("id"));
+		assertEquals(90, new JSONObject(this.backend.revStates).getJSONObject(REV_REG_ID).getJSONObject("90").getLong("created"));
+
+		JSONObject requested = new JSONObject(this.backend.requestedCredentials);
+		assertEquals(90, requested.getJSONObject("requested_attributes").getJSONObject("attr1_referent").getLong("timestamp"));
+		assertFalse(requested.getJSONObject("requested_attributes").getJSONObject("attr2_referent").has("timestamp"));
+		assertEquals(90, requested.getJSONObject("requested_predicates").getJSONObject("predicate1_referent").getLong("timestamp"));
+
+		assertEquals(1, count("create:7@90"));
+		assertTrue(proof.getTimings().getTotalNanos() > 0);
+	}
+
+	@Test
+	public void testLedgerObjectsAndRevocationStatesAreReused() throws Exception {
+		CompletableFuture<ProofBuilder.Result> first = this.builder.build(proofRequest(100), requestedCredentials(), "master_secret");
+		this.backend.pendingDeltas.get("delta:0:100").complete(new ProofBuilder.Delta("{}", 90));
+		this.backend.completeLedger();
+		first.get();
+
+		CompletableFuture<ProofBuilder.Result> second = this.builder.build(proofRequest(200), requestedCredentials(), "master_secret");
+		assertTrue(this.backend.pending.isEmpty());
+		assertTrue(this.backend.pendingDeltas.containsKey("delta:90:200"));
+		this.backend.pendingDeltas.get("delta:90:200").complete(new ProofBuilder.Delta("{}", 180));
+		second.get();
+
+		assertEquals(1, count("schema:" + SCHEMA_ID));
+		assertEquals(1, count("revRegDef:" + REV_REG_ID));
+		assertEquals(1, count("update:90->180"));
+		assertEquals(180, new JSONObject(this.backend.revStates).getJSONObject(REV_REG_ID).getJSONObject("180").getLong("updated"));
+	}
+
+	@Test
+	public void testFailedLedgerReadsAreNotCached() throws Exception {
+		CompletableFuture<ProofBuilder.Result> first = this.builder.build(proofRequest(100), requestedCredentials(), "master_secret");
+		this.backend.pending.get("schema:" + SCHEMA_ID).completeExceptionally(new IllegalStateException("timeout"));
+		this.backend.pendingDeltas.get("delta:0:100").complete(new ProofBuilder.Delta("{}", 90));
+		this.backend.completeLedger();
+
+		try {
+			first.get();
+			fail("expected the ledger failure");
+		} catch (ExecutionException e) {
+			assertTrue(e.getCause() instanceof IllegalStateException);
+		}
+
+		this.builder.build(proofRequest(100), requestedCredentials(), "master_secret");
+		assertEquals(2, count("schema:" + SCHEMA_ID));
+		assertEquals(1, count("credDef:" + CRED_DEF_ID));
+	}
+
+	private int count(String call) {
+		int count = 0;
+		for (String made : this.backend.calls) {
+			if (made.equals(call)) count++;
+		}
+		return count;
+	}
+}
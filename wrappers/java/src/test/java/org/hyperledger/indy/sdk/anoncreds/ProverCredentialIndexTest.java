@@ -0,0 +1,151 @@
+package org.hyperledger.indy.sdk.anoncreds;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class ProverCredentialIndexTest {
+
+	private static final String GVT_SCHEMA_ID = "NcYxiDXkpYi6ov5FcYDi1e:2:gvt:1.0";
+	private static final String XYZ_SCHEMA_ID = "NcYxiDXkpYi6ov5FcYDi1e:2:xyz:1.0";
+	private static final String GVT_CRED_DEF_ID = "NcYxiDXkpYi6ov5FcYDi1e:3:CL:1:gvt";
+	private static final String XYZ_CRED_DEF_ID = "CnEDk9HrMnmiHXEV1WFgbVCRteYnPqsJwrTdcZaNhFVW:3:CL:2:xyz";
+
+	private ProverCredentialIndex index;
+
+	private static String credential(String referent, String schemaId, String credDefId, JSONObject attrs) {
+		return new JSONObject()
+				.put("referent", referent)
+				.put("attrs", attrs)
+				.put("schema_id", schemaId)
+				.put("cred_def_id", credDefId)
+				.put("rev_reg_id", JSONObject.NULL)
+				.put("cred_rev_id", JSONObject.NULL)
+				.toString();
+	}
+
+	private static JSONObject gvt(String name, String age) {
+		return new JSONObject().put("name", name).put("age", age).put("sex", "male").put("height", "175");
+	}
+
+	private String resolve(JSONObject proofRequest, JSONObject extraQuery) throws Exception {
+		return this.index.proverGetCredentialsForProofReq(proofRequest.toString(), extraQuery == null ? null : extraQuery.toString()).get();
+	}
+
+	private static String referents(JSONArray credentials) {
+		StringBuilder referents = new StringBuilder();
+		for (int i = 0; i < credentials.length(); i++) {
+			if (i > 0) referents.append(',');
+			referents.append(credentials.getJSONObject(i).getJSONObject("cred_info").getString("referent"));
+		}
+		return referents.toString();
+	}
+
+	@Before
+	public void createIndex() {
+		this.index = new ProverCredentialIndex(null);
+		this.index.add(credential("alex", GVT_SCHEMA_ID, GVT_CRED_DEF_ID, gvt("Alex", "28")));
+		this.index.add(credential("bob", GVT_SCHEMA_ID, GVT_CRED_DEF_ID, gvt("Bob", "17")));
+		this.index.add(credential("xyz", XYZ_SCHEMA_ID, XYZ_CRED_DEF_ID, new JSONObject().put("status", "partial").put("period", "8")));
+	}
+
+	@Test
+	public void testAttributesAreMatchedByNameAndRestrictions() throws Exception {
+		JSONObject proofRequest = new JSONObject()
+				.put("nonce", "123432421212")
+				.put("name", "proof_req_1")
+				.put("version", "0.1")
+				.put("non_revoked", new JSONObject().put("to", 100))
+				.put("requested_attributes", new JSONObject()
+						.put("any_name", new JSONObject().put("name", " NAME"))
+						.put("gvt_name", new JSONObject().put("name", "name")
+								.put("restrictions", new JSONArray().put(new JSONObject().put("cred_def_id", GVT_CRED_DEF_ID))))
+						.put("alex_only", new JSONObject().put("names", new JSONArray().put("name").put("sex"))
+								.put("restrictions", new JSONObject().put("attr::name::value", "Alex").put("schema_name", "gvt")))
+						.put("not_gvt", new JSONObject().put("name", "status")
+								.put("restrictions", new JSONObject().put("issuer_did", new JSONObject().put("$neq", "NcYxiDXkpYi6ov5FcYDi1e"))))
+						.put("missing", new JSONObject().put("name", "phone")))
+				.put("requested_predicates", new JSONObject());
+
+		JSONObject result = new JSONObject(resolve(proofRequest, new JSONObject()
+				.put("gvt_name", new JSONObject().put("$not", new JSONObject().put("attr::name::value", "Bob")))));
+		JSONObject attrs = result.getJSONObject("attrs");
+
+		assertEquals("alex,bob", referents(attrs.getJSONArray("any_name")));
+		assertEquals("alex", referents(attrs.getJSONArray("gvt_name")));
+		assertEquals("alex", referents(attrs.getJSONArray("alex_only")));
+		assertEquals("xyz", referents(attrs.getJSONArray("not_gvt")));
+		assertEquals("", referents(attrs.getJSONArray("missing")));
+		assertEquals(100, attrs.getJSONArray("any_name").getJSONObject(0).getJSONObject("interval").getInt("to"));
+		assertEquals(5, this.index.getIndexedReferentCount());
+	}
+
+	@Test
+	public void testPredicatesUseTheNumericIndex() throws Exception {
+		JSONObject proofRequest = new JSONObject()
+				.put("nonce", "123432421212")
+				.put("name", "proof_req_1")
+				.put("version", "0.1")
+				.put("requested_attributes", new JSONObject())
+				.put("requested_predicates", new JSONObject()
+						.put("adult", new JSONObject().put("name", "age").put("p_type", ">=").put("p_value", 18))
+						.put("minor", new JSONObject().put("name", "age").put("p_type", "<").put("p_value", 18))
+						.put("exact", new JSONObject().put("name", "Age").put("p_type", "<=").put("p_value", 28)
+								.put("restrictions", new JSONObject().put("$or", new JSONArray()
+										.put(new JSONObject().put("schema_id", XYZ_SCHEMA_ID))
+										.put(new JSONObject().put("attr::sex::value", new JSONObject().put("$in", new JSONArray().put("male"))))))));
+
+		JSONObject predicates = new JSONObject(resolve(proofRequest, null)).getJSONObject("predicates");
+
+		assertEquals("alex", referents(predicates.getJSONArray("adult")));
+		assertEquals("bob", referents(predicates.getJSONArray("minor")));
+		assertEquals("alex,bob", referents(predicates.getJSONArray("exact")));
+		assertEquals(JSONObject.NULL, predicates.getJSONArray("adult").getJSONObject(0).get("interval"));
+	}
+
+	@Test
+	public void testRemovedAndReplacedCredentialsLeaveTheIndex() throws Exception {
+		JSONObject proofRequest = new JSONObject()
+				.put("nonce", "123432421212")
+				.put("name", "proof_req_1")
+				.put("version", "0.1")
+				.put("requested_attributes", new JSONObject().put("attr", new JSONObject().put("name", "name")))
+				.put("requested_predicates", new JSONObject()
+						.put("adult", new JSONObject().put("name", "age").put("p_type", ">=").put("p_value", 18)));
+
+		this.index.remove("alex");
+		this.index.add(credential("bob", GVT_SCHEMA_ID, GVT_CRED_DEF_ID, gvt("Bob", "18")));
+
+		JSONObject result = new JSONObject(resolve(proofRequest, null));
+		assertEquals("bob", referents(result.getJSONObject("attrs").getJSONArray("attr")));
+		assertEquals("bob", referents(result.getJSONObject("predicates").getJSONArray("adult")));
+		assertEquals(2, this.index.size());
+	}
+
+	@Test
+	public void testUnindexableReferentsFallBackToTheNativeSearch() throws Exception {
+		this.index.add(credential("odd", GVT_SCHEMA_ID, GVT_CRED_DEF_ID, gvt("Odd", "unknown")));
+
+		JSONObject proofRequest = new JSONObject()
+				.put("nonce", "123432421212")
+				.put("name", "proof_req_1")
+				.put("version", "0.1")
+				.put("requested_attributes", new JSONObject()
+						.put("like", new JSONObject().put("name", "name")
+								.put("restrictions", new JSONObject().put("schema_name", new JSONObject().put("$like", "gv%")))))
+				.put("requested_predicates", new JSONObject()
+						.put("adult", new JSONObject().put("name", "age").put("p_type", ">=").put("p_value", 18)));
+
+		try {
+			resolve(proofRequest, null);
+			fail("expected the native search to be opened on the missing wallet");
+		} catch (IllegalArgumentException e) {
+			assertEquals(2, this.index.getFallbackReferentCount());
+			assertEquals(0, this.index.getIndexedReferentCount());
+		}
+	}
+}
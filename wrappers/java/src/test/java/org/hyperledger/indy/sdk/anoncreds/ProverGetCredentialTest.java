@@ -5,9 +5,12 @@ import org.hyperledger.indy.sdk.wallet.WalletItemNotFoundException;
 import org.json.JSONObject;
 import org.junit.Test;
 
+import java.util.Optional;
 import java.util.concurrent.ExecutionException;
 
 import static org.hamcrest.CoreMatchers.isA;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 import org.hyperledger.indy.sdk.JsonObjectSimilar;
@@ -44,4 +47,17 @@ public class ProverGetCredentialTest extends AnoncredsIntegrationTest {
 		Anoncreds.proverGetCredential(wallet, "other_cred_id").get();
 	}
 
+	@Test
+	public void testProverTryGetCredentialWorks() throws Exception {
+		Optional<String> credentialJson = Anoncreds.proverTryGetCredential(wallet, credentialId1).get();
+
+		assertTrue(credentialJson.isPresent());
+		assertEquals(credentialId1, new JSONObject(credentialJson.get()).getString("referent"));
+	}
+
+	@Test
+	public void testProverTryGetCredentialWorksForNotFound() throws Exception {
+		assertFalse(Anoncreds.proverTryGetCredential(wallet, "other_cred_id").get().isPresent());
+	}
+
 }
@@ -0,0 +1,50 @@
+package org.hyperledger.indy.sdk.did;
+
+import org.hyperledger.indy.sdk.IndyIntegrationTestWithSingleWallet;
+import org.hyperledger.indy.sdk.ParallelBatch;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.CoreMatchers.isA;
+import static org.junit.Assert.assertEquals;
+
+
+public class CreateMyDidsTest extends IndyIntegrationTestWithSingleWallet {
+
+	@Test
+	public void testCreateMyDidsWorks() throws Exception {
+		List<String> didJsons = new ArrayList<>();
+		for (int i = 0; i < 20; i++) {
+			didJsons.add("{}");
+		}
+		didJsons.add(MY1_IDENTITY_JSON);
+
+		final AtomicInteger streamed = new AtomicInteger();
+		List<DidResults.CreateAndStoreMyDidResult> results = Did.createAndStoreMyDids(wallet, didJsons, 4,
+				new ParallelBatch.Listener<DidResults.CreateAndStoreMyDidResult>() {
+					@Override
+					public void onResult(int position, DidResults.CreateAndStoreMyDidResult output) {
+						streamed.incrementAndGet();
+					}
+				}).get();
+
+		assertEquals(21, results.size());
+		assertEquals(21, streamed.get());
+		assertEquals(DID_MY1, results.get(20).getDid());
+		assertEquals(VERKEY_MY1, results.get(20).getVerkey());
+		assertEquals(results.get(0).getVerkey(), Did.keyForLocalDid(wallet, results.get(0).getDid()).get());
+	}
+
+	@Test
+	public void testCreateMyDidsWorksForInvalidJson() throws Exception {
+		thrown.expect(ExecutionException.class);
+		thrown.expectCause(isA(org.hyperledger.indy.sdk.InvalidStructureException.class));
+
+		Did.createAndStoreMyDids(wallet, Arrays.asList("{}", "{\"seed\":\"aaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaa\"}"), 2).get();
+	}
+}
@@ -0,0 +1,41 @@
+package org.hyperledger.indy.sdk.did;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+
+public class DidResultsTest {
+
+	@Test
+	public void testResultsWorkAsMapKeys() {
+		Map<Object, Integer> map = new HashMap<>();
+		for (int i = 0; i < 1000; i++) {
+			map.put(new DidResults.CreateAndStoreMyDidResult("did" + i, "verkey" + i), i);
+		}
+
+		for (int i = 0; i < 1000; i++) {
+			assertEquals(Integer.valueOf(i), map.get(new DidResults.CreateAndStoreMyDidResult("did" + i, "verkey" + i)));
+		}
+		assertFalse(map.containsKey(new DidResults.CreateAndStoreMyDidResult("did0", null)));
+	}
+
+	@Test
+	public void testEqualsComparesArrayContent() {
+		DidResults.EncryptResult result = new DidResults.EncryptResult(new byte[] {1, 2}, new byte[] {3});
+
+		assertEquals(result, new DidResults.EncryptResult(new byte[] {1, 2}, new byte[] {3}));
+		assertEquals(result.hashCode(), new DidResults.EncryptResult(new byte[] {1, 2}, new byte[] {3}).hashCode());
+		assertNotEquals(result, new DidResults.EncryptResult(new byte[] {1, 2}, new byte[] {4}));
+	}
+
+	@Test
+	public void testToStringListsFields() {
+		assertEquals("DidResults.CreateAndStoreMyDidResult[did=did,verkey=verkey]",
+				new DidResults.CreateAndStoreMyDidResult("did", "verkey").toString());
+	}
+}
@@ -4,7 +4,11 @@ import org.hyperledger.indy.sdk.IndyIntegrationTestWithSingleWallet;
 import org.json.JSONObject;
 import org.junit.Test;
 
+import java.util.Optional;
+
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
 
 public class GetDidWithMetaTest extends IndyIntegrationTestWithSingleWallet {
@@ -21,4 +25,19 @@ public class GetDidWithMetaTest extends IndyIntegrationTestWithSingleWallet {
 		assertEquals(did, didWithMeta.getString("did"));
 		assertEquals(METADATA, didWithMeta.getString("metadata"));
 	}
+
+	@Test
+	public void testTryGetDidWithMetaWorks() throws Exception {
+		String did = Did.createAndStoreMyDid(wallet, "{}").get().getDid();
+
+		Optional<String> didWithMetaJson = Did.tryGetDidWithMeta(wallet, did).get();
+
+		assertTrue(didWithMetaJson.isPresent());
+		assertEquals(did, new JSONObject(didWithMetaJson.get()).getString("did"));
+	}
+
+	@Test
+	public void testTryGetDidWithMetaWorksForUnknownDid() throws Exception {
+		assertFalse(Did.tryGetDidWithMeta(wallet, DID).get().isPresent());
+	}
 }
\ No newline at end of file
@@ -1,6 +1,8 @@
 package org.hyperledger.indy.sdk.did;
 
 import org.hyperledger.indy.sdk.IndyIntegrationTestWithSingleWallet;
+import org.hyperledger.indy.sdk.did.DidResults.MyDidInfo;
+import org.hyperledger.indy.sdk.json.JsonArrayView;
 import org.json.JSONArray;
 import org.junit.Test;
 
@@ -23,4 +25,20 @@ public class ListDidsWithMetaTest extends IndyIntegrationTestWithSingleWallet {
 		assertEquals(did, listDidsWithMeta.getJSONObject(0).getString("did"));
 		assertEquals(METADATA, listDidsWithMeta.getJSONObject(0).getString("metadata"));
 	}
-}
\ No newline at end of file
+
+	@Test
+	public void testListDidsWithMetaViewWorks() throws Exception {
+		DidResults.CreateAndStoreMyDidResult result = Did.createAndStoreMyDid(wallet, "{}").get();
+		String did = result.getDid();
+		Did.setDidMetadata(wallet, did, METADATA).get();
+
+		JsonArrayView<MyDidInfo> listDidsWithMeta = Did.getListMyDidsWithMetaView(wallet).get();
+
+		assertEquals(1, listDidsWithMeta.size());
+		for (MyDidInfo didInfo : listDidsWithMeta) {
+			assertEquals(did, didInfo.getDid());
+			assertEquals(result.getVerkey(), didInfo.getVerkey());
+			assertEquals(METADATA, didInfo.getMetadata());
+		}
+	}
+}
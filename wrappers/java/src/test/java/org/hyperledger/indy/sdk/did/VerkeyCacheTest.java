@@ -0,0 +1,84 @@
+package org.hyperledger.indy.sdk.did;
+
+import org.hyperledger.indy.sdk.IndyIntegrationTestWithSingleWallet;
+import org.hyperledger.indy.sdk.wallet.WalletItemNotFoundException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+
+public class VerkeyCacheTest extends IndyIntegrationTestWithSingleWallet {
+
+	private VerkeyCache cache;
+
+	@Before
+	public void createCache() {
+		cache = new VerkeyCache(wallet, 1, 1, TimeUnit.MINUTES);
+	}
+
+	@After
+	public void closeCache() {
+		cache.close();
+	}
+
+	@Test
+	public void testVerkeyCacheWorks() throws Exception {
+		DidResults.CreateAndStoreMyDidResult result = Did.createAndStoreMyDid(wallet, "{}").get();
+
+		assertEquals(result.getVerkey(), cache.resolve(result.getDid()).get());
+		assertEquals(result.getVerkey(), cache.resolve(result.getDid()).get());
+
+		VerkeyCache.Stats stats = cache.getStats();
+		assertEquals(1, stats.getMissCount());
+		assertEquals(1, stats.getHitCount());
+		assertEquals(1, stats.getSize());
+	}
+
+	@Test
+	public void testVerkeyCacheWorksForNegativeCaching() throws Exception {
+		Throwable[] errors = new Throwable[3];
+		for (int i = 0; i < errors.length; i++) {
+			try {
+				cache.resolve(DID_MY2).get();
+				fail();
+			} catch (ExecutionException e) {
+				assertTrue(e.getCause() instanceof WalletItemNotFoundException);
+				errors[i] = e.getCause();
+			}
+		}
+
+		assertEquals(2, cache.getStats().getNegativeHitCount());
+		assertNotSame(errors[1], errors[2]);
+	}
+
+	@Test
+	public void testVerkeyCacheInvalidatesOnStoreTheirDid() throws Exception {
+		Did.storeTheirDid(wallet, String.format(IDENTITY_JSON_TEMPLATE, DID_MY1, VERKEY_MY1)).get();
+		assertEquals(VERKEY_MY1, cache.resolve(DID_MY1).get());
+
+		Did.storeTheirDid(wallet, String.format(IDENTITY_JSON_TEMPLATE, DID_MY1, VERKEY_MY2)).get();
+
+		assertEquals(1, cache.getStats().getInvalidationCount());
+		assertEquals(VERKEY_MY2, cache.resolve(DID_MY1).get());
+	}
+
+	@Test
+	public void testVerkeyCacheResolveAllWorks() throws Exception {
+		DidResults.CreateAndStoreMyDidResult result = Did.createAndStoreMyDid(wallet, "{}").get();
+
+		Map<String, String> verkeys = cache.resolveAll(Arrays.asList(result.getDid(), DID_MY2)).get();
+
+		assertEquals(1, verkeys.size());
+		assertEquals(result.getVerkey(), verkeys.get(result.getDid()));
+	}
+}
@@ -0,0 +1,87 @@
+package org.hyperledger.indy.sdk.json;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.junit.Test;
+
+import java.util.Iterator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class JsonIndexTest {
+
+	private static final String CREDENTIAL = "{\"referent\":\"cred1\",\"attrs\":{\"name\":\"Alex\",\"age\":\"28\"}," +
+			"\"schema_id\":\"schema\",\"cred_def_id\":\"cred_def\",\"rev_reg_id\":null,\"cred_rev_id\":null}";
+
+	@Test
+	public void testObjectViewWorks() {
+		JsonObjectView credential = JsonObjectView.parse(CREDENTIAL);
+
+		assertEquals("cred1", credential.getString("referent"));
+		assertEquals("Alex", credential.getObject("attrs").getString("name"));
+		assertEquals(28, credential.getObject("attrs").getLong("age"));
+		assertNull(credential.optString("rev_reg_id"));
+		assertNull(credential.optString("unknown"));
+		assertFalse(credential.has("unknown"));
+		assertEquals(6, credential.keys().size());
+	}
+
+	@Test
+	public void testStringEscapesWork() {
+		JsonObjectView object = JsonObjectView.parse("{\"a\\\"b\": \"line\\nbreak \\u0041 \\\\ \\/\"}");
+
+		assertEquals("line\nbreak A \\ /", object.getString("a\"b"));
+	}
+
+	@Test
+	public void testNestedValuesAreSkipped() {
+		JsonObjectView object = JsonObjectView.parse("{\"skip\":[{\"a\":[1,2,{\"b\":3}]},[]],\"keep\":true,\"n\":-1.5e3}");
+
+		assertTrue(object.get("keep").asBoolean());
+		assertEquals("-1.5e3", object.getString("n"));
+		assertEquals(2, object.getArray("skip").size());
+	}
+
+	@Test
+	public void testArrayViewWorksForLargeList() {
+		JSONArray array = new JSONArray();
+		for (int i = 0; i < 10000; i++) {
+			array.put(new JSONObject().put("did", "did" + i).put("verkey", "verkey" + i));
+		}
+
+		JsonArrayView<JsonValue> view = JsonArrayView.parse(array.toString(), JsonArrayView.VALUES);
+
+		assertEquals(10000, view.size());
+		assertEquals("did9999", view.get(9999).asObject().getString("did"));
+
+		int i = 0;
+		for (JsonValue value : view) {
+			assertEquals("verkey" + i++, value.asObject().getString("verkey"));
+		}
+		assertEquals(10000, i);
+	}
+
+	@Test
+	public void testEmptyArrayWorks() {
+		JsonArrayView<JsonValue> view = JsonArrayView.parse(" [ ] ", JsonArrayView.VALUES);
+
+		assertTrue(view.isEmpty());
+		assertEquals(0, view.size());
+		Iterator<JsonValue> iterator = view.iterator();
+		assertFalse(iterator.hasNext());
+	}
+
+	@Test(expected = JSONException.class)
+	public void testParseFailsForTrailingCharacters() {
+		JsonIndex.parse("{\"a\":1} x");
+	}
+
+	@Test(expected = JSONException.class)
+	public void testParseFailsForUnterminatedObject() {
+		JsonIndex.parse("{\"a\":1");
+	}
+}
@@ -0,0 +1,136 @@
+package org.hyperledger.indy.sdk.ledger;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class SimulatedLedgerTest {
+
+	private static final String DID = "V4SGRU86Z58d6TV7PBUe6f";
+
+	private SimulatedLedger ledger;
+
+	@Before
+	public void createLedger() {
+		ledger = new SimulatedLedger(4, 42);
+	}
+
+	@After
+	public void closeLedger() {
+		ledger.close();
+	}
+
+	private static String request(long reqId, JSONObject operation) {
+		return new JSONObject().put("identifier", DID).put("reqId", reqId).put("protocolVersion", 2).put("operation", operation).toString();
+	}
+
+	@Test
+	public void testWritesCanBeReadBack() throws Exception {
+		JSONObject nym = new JSONObject(ledger.submitRequest(request(1, new JSONObject().put("type", "1").put("dest", "7qf2tkRJkmqQbrYDp9PRdS").put("verkey", "~abc"))).get());
+		assertEquals("REPLY", nym.getString("op"));
+		assertEquals(1, nym.getJSONObject("result").getJSONObject("txnMetadata").getInt("seqNo"));
+
+		JSONObject getNym = new JSONObject(ledger.submitRequest(request(2, new JSONObject().put("type", "105").put("dest", "7qf2tkRJkmqQbrYDp9PRdS"))).get()).getJSONObject("result");
+		assertEquals("~abc", new JSONObject(getNym.getString("data")).getString("verkey"));
+		assertEquals(1, getNym.getInt("seqNo"));
+
+		JSONObject schemaData = new JSONObject().put("name", "gvt").put("version", "1.0").put("attr_names", new JSONArray().put("name"));
+		ledger.submitRequest(request(3, new JSONObject().put("type", "101").put("data", schemaData))).get();
+		JSONObject reject = new JSONObject(ledger.submitRequest(request(4, new JSONObject().put("type", "101").put("data", schemaData))).get());
+		assertEquals("REJECT", reject.getString("op"));
+
+		JSONObject getSchema = new JSONObject(ledger.submitRequest(request(5, new JSONObject().put("type", "107").put("dest", DID).put("data", new JSONObject().put("name", "gvt").put("version", "1.0")))).get()).getJSONObject("result");
+		assertEquals("name", getSchema.getJSONObject("data").getJSONArray("attr_names").getString(0));
+		assertEquals(2, getSchema.getInt("seqNo"));
+
+		JSONObject getMissing = new JSONObject(ledger.submitRequest(request(6, new JSONObject().put("type", "105").put("dest", "missing"))).get()).getJSONObject("result");
+		assertTrue(getMissing.isNull("data"));
+
+		JSONObject getTxn = new JSONObject(ledger.submitRequest(request(7, new JSONObject().put("type", "3").put("ledgerId", 1).put("data", 2))).get()).getJSONObject("result");
+		assertEquals("101", getTxn.getJSONObject("data").getJSONObject("txn").getString("type"));
+		assertEquals(2, ledger.getTransactionCount());
+	}
+
+	@Test
+	public void testNymUpdateKeepsFieldsItLeavesOut() throws Exception {
+		ledger.submitRequest(request(1, new JSONObject().put("type", "1").put("dest", "7qf2tkRJkmqQbrYDp9PRdS").put("verkey", "~abc").put("role", "101"))).get();
+		ledger.submitRequest(request(2, new JSONObject().put("type", "1").put("dest", "7qf2tkRJkmqQbrYDp9PRdS").put("verkey", "~def"))).get();
+
+		JSONObject getNym = new JSONObject(ledger.submitRequest(request(3, new JSONObject().put("type", "105").put("dest", "7qf2tkRJkmqQbrYDp9PRdS"))).get()).getJSONObject("result");
+		JSONObject data = new JSONObject(getNym.getString("data"));
+		assertEquals("~def", data.getString("verkey"));
+		assertEquals("101", data.getString("role"));
+		assertEquals(2, getNym.getInt("seqNo"));
+
+		JSONObject getTxn = new JSONObject(ledger.submitRequest(request(4, new JSONObject().put("type", "3").put("ledgerId", 1).put("data", 2))).get()).getJSONObject("result");
+		assertFalse(getTxn.getJSONObject("data").getJSONObject("txn").getJSONObject("data").has("role"));
+	}
+
+	@Test
+	public void testLatenciesOfAThreadDoNotDependOnOtherThreads() throws Exception {
+		ledger.setLatency(0, 1000, TimeUnit.MILLISECONDS);
+
+		long[] alone = new long[10];
+		for (int i = 0; i < alone.length; i++) alone[i] = ledger.delay(i % 2 == 0);
+
+		try (SimulatedLedger other = new SimulatedLedger(4, 42)) {
+			other.setLatency(0, 1000, TimeUnit.MILLISECONDS);
+			for (int i = 0; i < alone.length; i++) {
+				Thread thread = new Thread(() -> other.delay(true));
+				thread.start();
+				thread.join();
+				assertEquals(alone[i], other.delay(i % 2 == 0));
+			}
+		}
+	}
+
+	@Test
+	public void testWritesWaitForQuorumAndConsensus() throws Exception {
+		ledger.setLatency(10, 0, TimeUnit.MILLISECONDS);
+		ledger.setConsensusDelay(50, TimeUnit.MILLISECONDS);
+
+		long start = System.nanoTime();
+		ledger.submitRequest(request(1, new JSONObject().put("type", "105").put("dest", DID))).get();
+		long read = System.nanoTime() - start;
+
+		start = System.nanoTime();
+		ledger.submitRequest(request(2, new JSONObject().put("type", "1").put("dest", DID))).get();
+		long write = System.nanoTime() - start;
+
+		assertTrue(read >= TimeUnit.MILLISECONDS.toNanos(10));
+		assertTrue(write >= TimeUnit.MILLISECONDS.toNanos(60));
+	}
+
+	@Test
+	public void testTooManyFailedNodesTimeOut() throws Exception {
+		ledger.setTimeout(10, TimeUnit.MILLISECONDS);
+		ledger.setNodeFailed(0, true);
+
+		ledger.submitRequest(request(1, new JSONObject().put("type", "1").put("dest", DID))).get();
+
+		ledger.setNodeFailed(1, true);
+		ledger.submitRequest(request(2, new JSONObject().put("type", "105").put("dest", DID))).get();
+
+		CompletableFuture<String> write = ledger.submitRequest(request(3, new JSONObject().put("type", "1").put("dest", DID)));
+		try {
+			write.get();
+			fail();
+		} catch (ExecutionException e) {
+			assertTrue(e.getCause() instanceof TimeoutException);
+		}
+
+		assertEquals(1, ledger.getTimeoutCount());
+		assertEquals(1, ledger.getTransactionCount());
+	}
+}
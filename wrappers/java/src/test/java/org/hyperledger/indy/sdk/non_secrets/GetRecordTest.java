@@ -4,10 +4,12 @@ import org.hyperledger.indy.sdk.wallet.WalletItemNotFoundException;
 import org.json.JSONObject;
 import org.junit.Test;
 
+import java.util.Optional;
 import java.util.concurrent.ExecutionException;
 
 import static org.hamcrest.CoreMatchers.isA;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 import org.hyperledger.indy.sdk.JsonObjectSimilar;
@@ -50,6 +52,19 @@ public class GetRecordTest extends NonSecretsIntegrationTest {
 		assertTrue(JsonObjectSimilar.similar(new JSONObject(tags), record.getJSONObject("tags")));
 	}
 
+	@Test
+	public void testGetRecordViewWorksForFullData() throws Exception {
+		WalletRecord.add(wallet, type, id, value, tags).get();
+
+		String optionsJson = "{\"retrieveType\": true, \"retrieveValue\": true, \"retrieveTags\": true}";
+		NonSecretsResults.WalletRecordInfo record = WalletRecord.getView(wallet, type, id, optionsJson).get();
+
+		assertEquals(id, record.getId());
+		assertEquals(type, record.getType());
+		assertEquals(value, record.getValue());
+		assertEquals("str1", record.getTag("tagName1"));
+	}
+
 	@Test
 	public void testGetRecordWorksForNotFoundRecord() throws Exception {
 		thrown.expect(ExecutionException.class);
@@ -57,4 +72,19 @@ public class GetRecordTest extends NonSecretsIntegrationTest {
 
 		WalletRecord.get(wallet, type, id, optionsEmpty).get();
 	}
+
+	@Test
+	public void testTryGetRecordWorks() throws Exception {
+		WalletRecord.add(wallet, type, id, value, tags).get();
+
+		Optional<String> recordJson = WalletRecord.tryGet(wallet, type, id, optionsEmpty).get();
+
+		assertTrue(recordJson.isPresent());
+		assertEquals(id, new JSONObject(recordJson.get()).getString("id"));
+	}
+
+	@Test
+	public void testTryGetRecordWorksForNotFoundRecord() throws Exception {
+		assertFalse(WalletRecord.tryGet(wallet, type, id, optionsEmpty).get().isPresent());
+	}
 }
@@ -4,10 +4,13 @@ import org.hyperledger.indy.sdk.wallet.WalletItemNotFoundException;
 import org.json.JSONObject;
 import org.junit.Test;
 
+import java.util.Optional;
 import java.util.concurrent.ExecutionException;
 
 import static org.hamcrest.CoreMatchers.isA;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
 public class GetPairwiseTest extends PairwiseIntegrationTest {
 
@@ -29,4 +32,19 @@ public class GetPairwiseTest extends PairwiseIntegrationTest {
 
 		Pairwise.getPairwise(wallet, theirDid).get();
 	}
+
+	@Test
+	public void testTryGetPairwiseWorks() throws Exception {
+		Pairwise.createPairwise(wallet, theirDid, myDid, metadata).get();
+
+		Optional<String> pairwiseInfoJson = Pairwise.tryGetPairwise(wallet, theirDid).get();
+
+		assertTrue(pairwiseInfoJson.isPresent());
+		assertEquals(myDid, new JSONObject(pairwiseInfoJson.get()).getString("my_did"));
+	}
+
+	@Test
+	public void testTryGetPairwiseWorksForNotCreated() throws Exception {
+		assertFalse(Pairwise.tryGetPairwise(wallet, theirDid).get().isPresent());
+	}
 }
@@ -1,5 +1,7 @@
 package org.hyperledger.indy.sdk.pairwise;
 
+import org.hyperledger.indy.sdk.json.JsonArrayView;
+import org.hyperledger.indy.sdk.pairwise.PairwiseResults.PairwiseInfo;
 import org.json.JSONArray;
 import org.junit.Test;
 
@@ -24,4 +26,17 @@ public class ListPairwiseTest extends PairwiseIntegrationTest {
 		JSONArray listPairwiseArray = new JSONArray(listPairwise);
 		assertEquals(0, listPairwiseArray.length());
 	}
+
+	@Test
+	public void testListPairwiseViewWorks() throws Exception {
+		Pairwise.createPairwise(wallet, theirDid, myDid, metadata).get();
+
+		JsonArrayView<PairwiseInfo> listPairwise = Pairwise.listPairwiseView(wallet).get();
+
+		assertEquals(1, listPairwise.size());
+		PairwiseInfo pairwise = listPairwise.get(0);
+		assertEquals(myDid, pairwise.getMyDid());
+		assertEquals(theirDid, pairwise.getTheirDid());
+		assertEquals(metadata, pairwise.getMetadata());
+	}
 }
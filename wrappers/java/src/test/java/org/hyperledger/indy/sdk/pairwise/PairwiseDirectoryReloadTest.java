@@ -0,0 +1,66 @@
+package org.hyperledger.indy.sdk.pairwise;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+
+public class PairwiseDirectoryReloadTest {
+
+	private static PairwiseDirectory.Entry entry(String theirDid, String metadata) {
+		return new PairwiseDirectory.Entry(theirDid, "myDid", metadata);
+	}
+
+	@Test
+	public void testReloadSwapsInTheSnapshot() {
+		PairwiseDirectory directory = new PairwiseDirectory(null);
+		directory.put("stale", entry("stale", null));
+
+		directory.beginReload();
+		assertEquals(1, directory.size());
+
+		Map<String, PairwiseDirectory.Entry> loaded = new HashMap<>();
+		loaded.put("a", entry("a", null));
+		loaded.put("b", entry("b", null));
+		directory.endReload(loaded);
+
+		assertEquals(2, directory.size());
+		assertFalse(directory.contains("stale"));
+	}
+
+	@Test
+	public void testChangesDuringReloadAreKept() {
+		PairwiseDirectory directory = new PairwiseDirectory(null);
+
+		directory.beginReload();
+		directory.put("created", entry("created", null));
+		directory.put("updated", entry("updated", "new"));
+		directory.invalidate("removed");
+
+		Map<String, PairwiseDirectory.Entry> loaded = new HashMap<>();
+		loaded.put("updated", entry("updated", "old"));
+		loaded.put("removed", entry("removed", null));
+		directory.endReload(loaded);
+
+		assertEquals(2, directory.size());
+		assertEquals("myDid", directory.getMyDid("created"));
+		assertEquals("new", directory.get("updated").getMetadata());
+		assertNull(directory.get("removed"));
+	}
+
+	@Test
+	public void testFailedReloadKeepsTheIndex() {
+		PairwiseDirectory directory = new PairwiseDirectory(null);
+		directory.put("a", entry("a", null));
+
+		directory.beginReload();
+		directory.endReload(null);
+		directory.put("b", entry("b", null));
+
+		assertEquals(2, directory.size());
+	}
+}
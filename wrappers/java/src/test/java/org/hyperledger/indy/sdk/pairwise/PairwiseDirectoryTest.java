@@ -0,0 +1,61 @@
+package org.hyperledger.indy.sdk.pairwise;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class PairwiseDirectoryTest extends PairwiseIntegrationTest {
+
+	@Test
+	public void testPairwiseDirectoryLoadWorks() throws Exception {
+		Pairwise.createPairwise(wallet, theirDid, myDid, metadata).get();
+
+		PairwiseDirectory directory = PairwiseDirectory.load(wallet).get();
+
+		assertEquals(1, directory.size());
+		assertEquals(myDid, directory.getMyDid(theirDid));
+		assertEquals(metadata, directory.get(theirDid).getMetadata());
+	}
+
+	@Test
+	public void testPairwiseDirectoryUpdatesOnCreateAndSetMetadata() throws Exception {
+		PairwiseDirectory directory = PairwiseDirectory.load(wallet).get();
+		assertFalse(directory.contains(theirDid));
+
+		directory.createPairwise(theirDid, myDid, null).get();
+		assertEquals(myDid, directory.getMyDid(theirDid));
+		assertNull(directory.get(theirDid).getMetadata());
+
+		directory.setPairwiseMetadata(theirDid, metadata).get();
+		assertEquals(metadata, directory.get(theirDid).getMetadata());
+	}
+
+	@Test
+	public void testPairwiseDirectoryGetAllWorks() throws Exception {
+		Pairwise.createPairwise(wallet, theirDid, myDid, null).get();
+		PairwiseDirectory directory = PairwiseDirectory.load(wallet).get();
+
+		Map<String, PairwiseDirectory.Entry> entries = directory.getAll(Arrays.asList(theirDid, myDid));
+
+		assertEquals(1, entries.size());
+		assertEquals(myDid, entries.get(theirDid).getMyDid());
+	}
+
+	@Test
+	public void testPairwiseDirectoryResolveWorksAfterInvalidate() throws Exception {
+		PairwiseDirectory directory = PairwiseDirectory.load(wallet).get();
+		assertNull(directory.resolve(theirDid).get());
+
+		Pairwise.createPairwise(wallet, theirDid, myDid, metadata).get();
+		directory.invalidate(theirDid);
+
+		assertEquals(myDid, directory.resolve(theirDid).get().getMyDid());
+		assertTrue(directory.contains(theirDid));
+	}
+}
@@ -0,0 +1,125 @@
+package org.hyperledger.indy.sdk.payments;
+
+import org.hyperledger.indy.sdk.ledger.LedgerInvalidTransactionException;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class AuthRuleAndFeeCacheTest {
+
+	private static final String TRUSTEE = "{\"role\": \"0\", \"sig_count\": 1}";
+	private static final String STEWARD = "{\"role\": \"2\", \"sig_count\": 1}";
+	private static final String ENDORSER = "{\"role\": \"101\", \"sig_count\": 1}";
+
+	private CompletableFuture<String> authRules;
+	private String fees;
+	private AuthRuleAndFeeCache cache;
+
+	private static JSONObject role(String role, int sigCount, String fees) {
+		JSONObject constraint = new JSONObject().put("constraint_id", "ROLE").put("role", role).put("sig_count", sigCount).put("need_to_be_owner", false);
+		if (fees != null) constraint.put("metadata", new JSONObject().put("fees", fees));
+		return constraint;
+	}
+
+	private static JSONObject rule(String type, String action, String field, String oldValue, String newValue, JSONObject constraint) {
+		JSONObject rule = new JSONObject().put("auth_type", type).put("auth_action", action).put("field", field).put("new_value", newValue).put("constraint", constraint);
+		if (oldValue != null) rule.put("old_value", oldValue);
+		return rule;
+	}
+
+	@Before
+	public void createCache() {
+		JSONArray data = new JSONArray()
+				.put(rule("1", "ADD", "role", null, "0", role("0", 1, "1")))
+				.put(rule("1", "ADD", "role", null, "*", new JSONObject().put("constraint_id", "OR").put("auth_constraints", new JSONArray()
+						.put(role("0", 1, "1"))
+						.put(role("2", 1, "2")))))
+				.put(rule("101", "ADD", "*", null, "*", new JSONObject().put("constraint_id", "AND").put("auth_constraints", new JSONArray()
+						.put(role("0", 1, "1"))
+						.put(role("*", 2, "1")))))
+				.put(rule("1", "EDIT", "verkey", "*", "*", new JSONObject().put("constraint_id", "FORBIDDEN")));
+
+		authRules = CompletableFuture.completedFuture(new JSONObject().put("op", "REPLY").put("result", new JSONObject().put("data", data)).toString());
+		fees = "{\"1\": 100, \"2\": 10}";
+
+		cache = new AuthRuleAndFeeCache(new AuthRuleAndFeeCache.Loader() {
+			@Override
+			public CompletableFuture<String> loadAuthRules() {
+				return authRules;
+			}
+
+			@Override
+			public CompletableFuture<String> loadFees() {
+				return CompletableFuture.completedFuture(fees);
+			}
+		}, "20000", 1, TimeUnit.HOURS);
+	}
+
+	private static void assertFails(CompletableFuture<?> future, Class<? extends Exception> type) throws Exception {
+		try {
+			future.get();
+			fail();
+		} catch (ExecutionException e) {
+			assertTrue(e.getCause().toString(), type.isInstance(e.getCause()));
+		}
+	}
+
+	@Test
+	public void testRoleConstraintMatchesLibindy() throws Exception {
+		JSONObject info = new JSONObject(cache.getRequestInfo("1", "ADD", "role", null, "0", TRUSTEE).get());
+
+		assertEquals(100, info.getLong("price"));
+		JSONObject requirement = info.getJSONArray("requirements").getJSONObject(0);
+		assertEquals("0", requirement.getString("role"));
+		assertEquals(1, requirement.getInt("sig_count"));
+		assertFalse(requirement.getBoolean("need_to_be_owner"));
+		assertFalse(requirement.has("off_ledger_signature"));
+
+		assertFails(cache.getRequestInfo("1", "ADD", "role", null, "0", STEWARD), TransactionNotAllowedException.class);
+	}
+
+	@Test
+	public void testCombinedConstraintsAndWildcards() throws Exception {
+		assertEquals(10, new JSONObject(cache.getRequestInfo("1", "ADD", "role", null, "101", STEWARD).get()).getLong("price"));
+		assertFails(cache.getRequestInfo("1", "ADD", "role", null, "101", ENDORSER), TransactionNotAllowedException.class);
+
+		JSONObject info = new JSONObject(cache.getRequestInfo("101", "ADD", "ref", null, "5", "{\"role\": \"0\", \"sig_count\": 2}").get());
+		assertEquals(2, info.getJSONArray("requirements").length());
+		assertFails(cache.getRequestInfo("101", "ADD", "ref", null, "5", TRUSTEE), TransactionNotAllowedException.class);
+
+		assertFails(cache.getRequestInfo("1", "EDIT", "verkey", "a", "b", TRUSTEE), TransactionNotAllowedException.class);
+		assertFails(cache.getRequestInfo("102", "ADD", "ref", null, "5", TRUSTEE), LedgerInvalidTransactionException.class);
+	}
+
+	@Test
+	public void testRulesAreLoadedOnceUntilInvalidated() throws Exception {
+		authRules = new CompletableFuture<>();
+		CompletableFuture<String> first = cache.getRequestInfo("1", "ADD", "role", null, "0", TRUSTEE);
+		CompletableFuture<String> second = cache.getFees();
+		assertFalse(first.isDone());
+
+		authRules.complete(new JSONObject().put("result", new JSONObject().put("data", new JSONArray().put(rule("1", "ADD", "role", null, "0", role("0", 1, "1"))))).toString());
+		assertEquals(100, new JSONObject(first.get()).getLong("price"));
+		assertEquals(10, new JSONObject(second.get()).getLong("2"));
+		assertEquals(1, cache.getLoadCount());
+
+		cache.onWrite("{\"reqId\": 1, \"operation\": {\"type\": \"1\"}}");
+		cache.getFees().get();
+		assertEquals(1, cache.getLoadCount());
+
+		fees = "{\"1\": 50}";
+		cache.onWrite("{\"reqId\": 2, \"operation\": {\"type\": \"20000\"}}");
+		assertEquals(50, new JSONObject(cache.getRequestInfo("1", "ADD", "role", null, "0", TRUSTEE).get()).getLong("price"));
+		assertEquals(2, cache.getLoadCount());
+	}
+}
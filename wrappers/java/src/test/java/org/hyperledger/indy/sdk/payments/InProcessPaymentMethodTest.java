@@ -0,0 +1,198 @@
+package org.hyperledger.indy.sdk.payments;
+
+import org.hyperledger.indy.sdk.InvalidStateException;
+import org.hyperledger.indy.sdk.InvalidStructureException;
+import org.hyperledger.indy.sdk.payments.PaymentsResults.ParseGetPaymentSourcesWithFromResponseResult;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class InProcessPaymentMethodTest {
+
+	private InProcessPaymentMethod method;
+
+	@Before
+	public void createMethod() {
+		method = new InProcessPaymentMethod("java", 2);
+	}
+
+	@After
+	public void closeMethod() throws Exception {
+		method.close();
+	}
+
+	private static String outputs(String recipient, long amount) {
+		return new JSONArray().put(new JSONObject().put("recipient", recipient).put("amount", amount)).toString();
+	}
+
+	private String mint(String recipient, long amount) throws Exception {
+		String request = method.buildMintRequest(1, null, outputs(recipient, amount), null).get();
+		return new JSONArray(method.parsePaymentResponse(request).get()).getJSONObject(0).getString("receipt");
+	}
+
+	private static void assertFails(CompletableFuture<?> future, Class<? extends Exception> type) throws Exception {
+		try {
+			future.get();
+			fail();
+		} catch (ExecutionException e) {
+			assertTrue(e.getCause().toString(), type.isInstance(e.getCause()));
+		}
+	}
+
+	@Test
+	public void testPaymentMovesFunds() throws Exception {
+		String alice = method.createPaymentAddress(1, "{}").get();
+		String bob = method.createPaymentAddress(1, "{}").get();
+		String source = mint(alice, 10);
+
+		String request = method.buildPaymentRequest(1, null, new JSONArray().put(source).toString(), outputs(bob, 10), "memo").get();
+		JSONArray receipts = new JSONArray(method.parsePaymentResponse(request).get());
+		assertEquals(1, receipts.length());
+		assertEquals(bob, receipts.getJSONObject(0).getString("recipient"));
+
+		ParseGetPaymentSourcesWithFromResponseResult aliceSources = method.parseGetPaymentSourcesResponse(method.buildGetPaymentSourcesRequest(1, null, alice, -1).get()).get();
+		assertEquals(0, new JSONArray(aliceSources.getSourcesJson()).length());
+
+		String receipt = receipts.getJSONObject(0).getString("receipt");
+		JSONObject info = new JSONObject(method.parseVerifyPaymentResponse(method.buildVerifyPaymentRequest(1, null, receipt).get()).get());
+		assertEquals(source, info.getJSONArray("sources").getString(0));
+		assertEquals("memo", info.getString("extra"));
+
+		assertFails(method.buildPaymentRequest(1, null, new JSONArray().put(source).toString(), outputs(bob, 10), null), PaymentSourceDoesNotExistException.class);
+	}
+
+	@Test
+	public void testBuiltRequestsTakeEffectWhenParsed() throws Exception {
+		String alice = method.createPaymentAddress(1, "{}").get();
+		String bob = method.createPaymentAddress(1, "{}").get();
+		String source = mint(alice, 10);
+		String inputs = new JSONArray().put(source).toString();
+
+		method.buildPaymentRequest(1, null, inputs, outputs(bob, 10), null).get();
+		ParseGetPaymentSourcesWithFromResponseResult aliceSources = method.parseGetPaymentSourcesResponse(method.buildGetPaymentSourcesRequest(1, null, alice, -1).get()).get();
+		assertEquals(source, new JSONArray(aliceSources.getSourcesJson()).getJSONObject(0).getString("source"));
+
+		String first = method.buildPaymentRequest(1, null, inputs, outputs(bob, 10), null).get();
+		String second = method.buildPaymentRequest(1, null, inputs, outputs(alice, 10), null).get();
+		assertEquals(bob, new JSONArray(method.parsePaymentResponse(first).get()).getJSONObject(0).getString("recipient"));
+		assertFails(method.parsePaymentResponse(second), PaymentSourceDoesNotExistException.class);
+	}
+
+	@Test
+	public void testUnparsedRequestsAreBounded() throws Exception {
+		method.close();
+		method = new InProcessPaymentMethod("java", 2, 2);
+		String alice = method.createPaymentAddress(1, "{}").get();
+
+		String dropped = method.buildMintRequest(1, null, outputs(alice, 1), null).get();
+		method.buildMintRequest(1, null, outputs(alice, 2), null).get();
+		method.buildMintRequest(1, null, outputs(alice, 3), null).get();
+
+		assertFails(method.parsePaymentResponse(dropped), InvalidStructureException.class);
+	}
+
+	@Test
+	public void testFeesMustBalance() throws Exception {
+		String alice = method.createPaymentAddress(1, "{}").get();
+		method.buildSetTxnFeesRequest(1, null, "{\"1\": 2}").get();
+		assertEquals(2, new JSONObject(method.parseGetTxnFeesResponse(method.buildGetTxnFeesRequest(1, null).get()).get()).getLong("1"));
+
+		String nym = "{\"reqId\": 123456789, \"operation\": {\"type\": \"1\"}}";
+		String inputs = new JSONArray().put(mint(alice, 5)).toString();
+
+		assertFails(method.addRequestFees(1, null, nym, inputs, outputs(alice, 4), null), InsufficientFundsException.class);
+		assertFails(method.addRequestFees(1, null, nym, inputs, outputs(alice, 2), null), ExtraFundsException.class);
+
+		String request = method.addRequestFees(1, null, nym, inputs, outputs(alice, 3), null).get();
+		assertTrue(new JSONObject(request).has("fees"));
+
+		String response = "{\"op\": \"REPLY\", \"result\": {\"reqId\": 123456789}}";
+		assertEquals(3, new JSONArray(method.parseResponseWithFees(response).get()).getJSONObject(0).getLong("amount"));
+	}
+
+	@Test
+	public void testLedgerRequestIdsDoNotCollideWithGeneratedOnes() throws Exception {
+		String alice = method.createPaymentAddress(1, "{}").get();
+		String bob = method.createPaymentAddress(1, "{}").get();
+		String source = mint(alice, 10);
+
+		// A counter starting at 1 would have given the mint request id 1 and the payment id 2
+		String payment = method.buildPaymentRequest(1, null, new JSONArray().put(source).toString(), outputs(bob, 10), null).get();
+		String nym = "{\"reqId\": 2, \"operation\": {\"type\": \"1\"}}";
+		method.addRequestFees(1, null, nym, "[]", "[]", null).get();
+
+		assertEquals(bob, new JSONArray(method.parsePaymentResponse(payment).get()).getJSONObject(0).getString("recipient"));
+		assertEquals(0, new JSONArray(method.parseResponseWithFees("{\"op\": \"REPLY\", \"result\": {\"reqId\": 2}}").get()).length());
+
+		try {
+			method.addRequestFees(1, null, "{\"reqId\": -1, \"operation\": {\"type\": \"1\"}}", "[]", "[]", null);
+			fail();
+		} catch (InvalidStructureException expected) {
+		}
+	}
+
+	@Test
+	public void testSourcesArePaged() throws Exception {
+		String alice = method.createPaymentAddress(1, "{}").get();
+		for (int i = 1; i <= 5; i++) mint(alice, i);
+
+		long total = 0;
+		int pages = 0;
+		long from = -1;
+		do {
+			ParseGetPaymentSourcesWithFromResponseResult page = method.parseGetPaymentSourcesResponse(method.buildGetPaymentSourcesRequest(1, null, alice, from).get()).get();
+			JSONArray sources = new JSONArray(page.getSourcesJson());
+			for (int i = 0; i < sources.length(); i++) total += sources.getJSONObject(i).getLong("amount");
+			from = page.getNext();
+			pages++;
+		} while (from != -1);
+
+		assertEquals(15, total);
+		assertEquals(3, pages);
+	}
+
+	@Test
+	public void testConcurrentOperationsAreBatched() throws Exception {
+		String alice = method.createPaymentAddress(1, "{}").get();
+
+		List<CompletableFuture<String>> futures = new ArrayList<>();
+		for (int i = 0; i < 1000; i++) futures.add(method.buildMintRequest(1, null, outputs(alice, 1), null));
+		for (CompletableFuture<String> future : futures) method.parsePaymentResponse(future.get()).get();
+
+		assertEquals(2000, method.getOperationCount());
+		assertTrue(method.getBatchCount() < method.getOperationCount());
+	}
+
+	@Test
+	public void testSignatureIsBoundToAddress() throws Exception {
+		byte[] message = {1, 2, 3};
+		byte[] signature = method.signWithAddress(1, "pay:java:1", message).get();
+
+		assertTrue(method.verifyWithAddress("pay:java:1", message, signature).get());
+		assertFalse(method.verifyWithAddress("pay:java:2", message, signature).get());
+	}
+
+	@Test
+	public void testOperationsFailAfterClose() throws Exception {
+		method.close();
+
+		try {
+			method.buildGetTxnFeesRequest(1, null);
+			fail();
+		} catch (InvalidStateException e) {
+			// expected
+		}
+	}
+}
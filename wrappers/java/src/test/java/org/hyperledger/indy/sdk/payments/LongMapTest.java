@@ -0,0 +1,48 @@
+package org.hyperledger.indy.sdk.payments;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class LongMapTest {
+
+	@Test
+	public void testMatchesHashMapUnderRandomOperations() {
+		LongMap<Long> map = new LongMap<>();
+		Map<Long, Long> expected = new HashMap<>();
+		Random random = new Random(42);
+
+		for (int i = 0; i < 100000; i++) {
+			long key = random.nextInt(2000) - 1000;
+			if (random.nextInt(3) == 0) {
+				assertEquals(expected.remove(key), map.remove(key));
+			} else {
+				assertEquals(expected.put(key, (long) i), map.put(key, (long) i));
+			}
+		}
+
+		assertEquals(expected.size(), map.size());
+		for (Map.Entry<Long, Long> entry : expected.entrySet()) {
+			assertEquals(entry.getValue(), map.get(entry.getKey()));
+		}
+	}
+
+	@Test
+	public void testSortedKeys() {
+		LongMap<String> map = new LongMap<>();
+		map.put(30, "c");
+		map.put(-5, "a");
+		map.put(0, "b");
+		map.remove(30);
+		map.put(7, "d");
+
+		assertArrayEquals(new long[] {-5, 0, 7}, map.sortedKeys());
+		assertNull(map.get(30));
+	}
+}
@@ -0,0 +1,88 @@
+package org.hyperledger.indy.sdk.payments;
+
+import com.sun.jna.Callback;
+import com.sun.jna.Memory;
+import org.hyperledger.indy.sdk.ErrorCode;
+import org.junit.Test;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class PaymentMethodBridgeTest {
+
+	private static int call(Callback callback, Object... args) throws Exception {
+		for (Method method : callback.getClass().getMethods()) {
+			if (method.getName().equals("callback")) {
+				method.setAccessible(true);
+				return (Integer) method.invoke(callback, args);
+			}
+		}
+		throw new AssertionError("No callback method");
+	}
+
+	private static final class StringResult implements PaymentMethodBridge.StringResultCallback {
+
+		final CompletableFuture<String> result = new CompletableFuture<>();
+		int err;
+
+		@Override
+		public int callback(int command_handle, int err, String result) {
+			this.err = err;
+			this.result.complete(result);
+			return 0;
+		}
+	}
+
+	@Test
+	public void testResultIsPassedToCallback() throws Exception {
+		try (InProcessPaymentMethod method = new InProcessPaymentMethod()) {
+			PaymentMethodBridge bridge = new PaymentMethodBridge(method);
+
+			StringResult address = new StringResult();
+			assertEquals(ErrorCode.Success.value(), call(bridge.createPaymentAddressCb, 1, 2, "{}", address));
+			assertEquals("pay:java:1", address.result.get(5, TimeUnit.SECONDS));
+			assertEquals(ErrorCode.Success.value(), address.err);
+		}
+	}
+
+	@Test
+	public void testErrorsAreMappedToErrorCodes() throws Exception {
+		try (InProcessPaymentMethod method = new InProcessPaymentMethod()) {
+			PaymentMethodBridge bridge = new PaymentMethodBridge(method);
+
+			assertEquals(ErrorCode.CommonInvalidStructure.value(), call(bridge.buildMintReqCb, 1, 2, null, "not json", null, new StringResult()));
+
+			StringResult payment = new StringResult();
+			String outputs = "[{\"recipient\": \"pay:java:1\", \"amount\": 1}]";
+			assertEquals(ErrorCode.Success.value(), call(bridge.buildPaymentReqCb, 1, 2, null, "[\"txo:java:7\"]", outputs, null, payment));
+			payment.result.get(5, TimeUnit.SECONDS);
+			assertEquals(ErrorCode.PaymentSourceDoesNotExistError.value(), payment.err);
+		}
+	}
+
+	@Test
+	public void testSignatureIsCopiedFromNativeMemory() throws Exception {
+		try (InProcessPaymentMethod method = new InProcessPaymentMethod()) {
+			PaymentMethodBridge bridge = new PaymentMethodBridge(method);
+
+			Memory message = new Memory(3);
+			message.write(0, new byte[] {1, 2, 3}, 0, 3);
+
+			final CompletableFuture<byte[]> signature = new CompletableFuture<>();
+			assertEquals(ErrorCode.Success.value(), call(bridge.signWithAddressCb, 1, 2, "pay:java:1", message, 3, new PaymentMethodBridge.BytesResultCallback() {
+				@Override
+				public int callback(int command_handle, int err, byte[] raw, int len) {
+					signature.complete(raw);
+					return 0;
+				}
+			}));
+
+			byte[] expected = method.signWithAddress(2, "pay:java:1", new byte[] {1, 2, 3}).get();
+			assertArrayEquals(expected, signature.get(5, TimeUnit.SECONDS));
+		}
+	}
+}
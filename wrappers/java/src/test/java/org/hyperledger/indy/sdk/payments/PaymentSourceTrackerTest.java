@@ -0,0 +1,149 @@
+package org.hyperledger.indy.sdk.payments;
+
+import org.hyperledger.indy.sdk.IndyException;
+import org.hyperledger.indy.sdk.payments.PaymentsResults.ParseGetPaymentSourcesWithFromResponseResult;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class PaymentSourceTrackerTest {
+
+	private InProcessPaymentMethod method;
+	private AtomicInteger fetches;
+	private PaymentSourceTracker tracker;
+	private volatile CompletableFuture<Void> gate;
+
+	@Before
+	public void createTracker() {
+		method = new InProcessPaymentMethod("java", 3);
+		fetches = new AtomicInteger();
+		gate = CompletableFuture.completedFuture(null);
+		tracker = new PaymentSourceTracker(new PaymentSourceTracker.PageFetcher() {
+			@Override
+			public CompletableFuture<ParseGetPaymentSourcesWithFromResponseResult> fetch(String paymentAddress, long from) throws IndyException {
+				fetches.incrementAndGet();
+				// The page is read from the ledger right away, but is only delivered once the gate opens
+				ParseGetPaymentSourcesWithFromResponseResult page;
+				try {
+					page = method.buildGetPaymentSourcesRequest(1, null, paymentAddress, from).thenCompose(new Function<String, CompletableFuture<ParseGetPaymentSourcesWithFromResponseResult>>() {
+						@Override
+						public CompletableFuture<ParseGetPaymentSourcesWithFromResponseResult> apply(String request) {
+							try {
+								return method.parseGetPaymentSourcesResponse(request);
+							} catch (IndyException e) {
+								throw new RuntimeException(e);
+							}
+						}
+					}).get();
+				} catch (Exception e) {
+					throw new RuntimeException(e);
+				}
+				return gate.thenApply(v -> page);
+			}
+		});
+	}
+
+	@After
+	public void closeMethod() throws Exception {
+		method.close();
+	}
+
+	private static String outputs(String recipient, long amount) {
+		return new JSONArray().put(new JSONObject().put("recipient", recipient).put("amount", amount)).toString();
+	}
+
+	private void mint(String recipient, long amount) throws Exception {
+		method.parsePaymentResponse(method.buildMintRequest(1, null, outputs(recipient, amount), null).get()).get();
+	}
+
+	@Test
+	public void testRefreshStreamsAllPagesInOrder() throws Exception {
+		String alice = method.createPaymentAddress(1, "{}").get();
+		for (int i = 1; i <= 10; i++) mint(alice, i);
+
+		List<PaymentSourceTracker.Source> sources = tracker.refresh(alice).get();
+
+		assertEquals(10, sources.size());
+		for (int i = 0; i < 10; i++) assertEquals(i + 1, sources.get(i).getAmount());
+		assertEquals(4, fetches.get());
+		assertEquals(55, tracker.getAvailableBalance(alice));
+	}
+
+	@Test
+	public void testPaymentsUpdateCacheWithoutRefresh() throws Exception {
+		String alice = method.createPaymentAddress(1, "{}").get();
+		String bob = method.createPaymentAddress(1, "{}").get();
+		mint(alice, 4);
+		mint(alice, 6);
+		tracker.refreshAll(Arrays.asList(alice, bob)).get();
+
+		List<PaymentSourceTracker.Source> inputs = tracker.select(alice, 5);
+		assertEquals(2, inputs.size());
+		assertEquals(0, tracker.getAvailableBalance(alice));
+
+		String inputsJson = PaymentSourceTracker.toInputsJson(inputs);
+		JSONArray outputs = new JSONArray(outputs(bob, 5)).put(new JSONObject().put("recipient", alice).put("amount", 5));
+		String request = method.buildPaymentRequest(1, null, inputsJson, outputs.toString(), null).get();
+		tracker.applyReceipts(inputsJson, method.parsePaymentResponse(request).get());
+
+		int fetched = fetches.get();
+		assertEquals(5, tracker.getAvailableBalance(alice));
+		assertEquals(5, tracker.getAvailableBalance(bob));
+		assertEquals(tracker.getSources(alice), tracker.refresh(alice).get());
+		assertEquals(fetched + 1, fetches.get());
+	}
+
+	@Test
+	public void testPaymentsAppliedDuringRefreshAreKept() throws Exception {
+		String alice = method.createPaymentAddress(1, "{}").get();
+		String bob = method.createPaymentAddress(1, "{}").get();
+		mint(alice, 4);
+		mint(alice, 6);
+		tracker.refreshAll(Arrays.asList(alice, bob)).get();
+
+		gate = new CompletableFuture<>();
+		CompletableFuture<List<PaymentSourceTracker.Source>> refreshed = tracker.refresh(alice);
+
+		String inputsJson = PaymentSourceTracker.toInputsJson(tracker.select(alice, 10));
+		JSONArray outputs = new JSONArray(outputs(bob, 3)).put(new JSONObject().put("recipient", alice).put("amount", 7));
+		String request = method.buildPaymentRequest(1, null, inputsJson, outputs.toString(), null).get();
+		tracker.applyReceipts(inputsJson, method.parsePaymentResponse(request).get());
+
+		gate.complete(null);
+		List<PaymentSourceTracker.Source> sources = refreshed.get();
+
+		assertEquals(1, sources.size());
+		assertEquals(7, sources.get(0).getAmount());
+		assertEquals(sources, tracker.getSources(alice));
+		assertEquals(7, tracker.getAvailableBalance(alice));
+	}
+
+	@Test
+	public void testReleasedSourcesCanBeSelectedAgain() throws Exception {
+		String alice = method.createPaymentAddress(1, "{}").get();
+		mint(alice, 10);
+		tracker.refresh(alice).get();
+
+		List<PaymentSourceTracker.Source> inputs = tracker.select(alice, 10);
+		try {
+			tracker.select(alice, 1);
+			fail();
+		} catch (InsufficientFundsException e) {
+			// expected
+		}
+
+		tracker.release(inputs);
+		assertEquals(inputs, tracker.select(alice, 1));
+	}
+}
@@ -0,0 +1,97 @@
+package org.hyperledger.indy.sdk.wallet;
+
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class InMemoryWalletStorageTest {
+
+	@Test
+	public void testRecordsCanBeModified() throws Exception {
+		InMemoryWalletStorage storage = new InMemoryWalletStorage();
+		storage.create("wallet", null, null, "bWV0YQ==");
+		WalletStorage.Session session = storage.open("wallet", null, null);
+
+		session.addRecord("dHlwZQ==", "aWQ=", new byte[] {1}, Collections.singletonMap("~dGFn", "a"));
+		session.updateRecordValue("dHlwZQ==", "aWQ=", new byte[] {2});
+		session.addRecordTags("dHlwZQ==", "aWQ=", Collections.singletonMap("~b3RoZXI=", "b"));
+		session.deleteRecordTags("dHlwZQ==", "aWQ=", Collections.singletonList("~dGFn"));
+
+		WalletStorage.Record record = session.getRecord("dHlwZQ==", "aWQ=");
+		assertArrayEquals(new byte[] {2}, record.getValue());
+		assertEquals(Collections.singletonMap("~b3RoZXI=", "b"), record.getTags());
+		assertEquals("bWV0YQ==", session.getStorageMetadata());
+
+		session.deleteRecord("dHlwZQ==", "aWQ=");
+		assertTrue(session.searchAllRecords().isEmpty());
+	}
+
+	@Test
+	public void testSearchFiltersByTypeAndQuery() throws Exception {
+		InMemoryWalletStorage storage = new InMemoryWalletStorage();
+		storage.create("wallet", null, null, "");
+		WalletStorage.Session session = storage.open("wallet", null, null);
+
+		for (int i = 0; i < 10; i++) {
+			Map<String, String> tags = new HashMap<>();
+			tags.put("~aQ==", String.valueOf(i % 2));
+			session.addRecord("dHlwZQ==", "id" + i, new byte[] {(byte) i}, tags);
+		}
+		session.addRecord("b3RoZXI=", "id", new byte[] {1}, Collections.singletonMap("~aQ==", "0"));
+
+		assertEquals(5, session.searchRecords("dHlwZQ==", WalletStorageQuery.parse("{\"~aQ==\": \"0\"}")).size());
+		assertEquals(11, session.searchAllRecords().size());
+	}
+
+	@Test
+	public void testDuplicateAndMissingItemsAreReported() throws Exception {
+		InMemoryWalletStorage storage = new InMemoryWalletStorage();
+		storage.create("wallet", null, null, "");
+		WalletStorage.Session session = storage.open("wallet", null, null);
+		session.addRecord("dHlwZQ==", "aWQ=", new byte[] {1}, Collections.<String, String>emptyMap());
+
+		try {
+			session.addRecord("dHlwZQ==", "aWQ=", new byte[] {1}, Collections.<String, String>emptyMap());
+			fail();
+		} catch (WalletItemAlreadyExistsException e) {
+			// expected
+		}
+
+		try {
+			session.getRecord("dHlwZQ==", "bWlzc2luZw==");
+			fail();
+		} catch (WalletItemNotFoundException e) {
+			// expected
+		}
+	}
+
+	@Test
+	public void testWalletsAreCreatedAndDeletedByName() throws Exception {
+		InMemoryWalletStorage storage = new InMemoryWalletStorage();
+		storage.create("wallet", null, null, "");
+
+		try {
+			storage.create("wallet", null, null, "");
+			fail();
+		} catch (WalletExistsException e) {
+			// expected
+		}
+
+		storage.delete("wallet", null, null);
+		assertEquals(0, storage.size());
+
+		try {
+			storage.open("wallet", null, null);
+			fail();
+		} catch (WalletNotFoundException e) {
+			// expected
+		}
+	}
+}
@@ -0,0 +1,106 @@
+package org.hyperledger.indy.sdk.wallet;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.util.Collections;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class LogWalletStorageTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void testRecordsSurviveReopening() throws Exception {
+		LogWalletStorage storage = new LogWalletStorage(folder.getRoot());
+		storage.create("wallet", null, null, "bWV0YQ==");
+
+		WalletStorage.Session session = storage.open("wallet", null, null);
+		session.addRecord("dHlwZQ==", "aWQx", new byte[] {1, 2, 3}, Collections.singletonMap("~dGFn", "a"));
+		session.addRecord("dHlwZQ==", "aWQy", new byte[] {4}, Collections.<String, String>emptyMap());
+		session.updateRecordTags("dHlwZQ==", "aWQx", Collections.singletonMap("~dGFn", "b"));
+		session.deleteRecord("dHlwZQ==", "aWQy");
+		session.setStorageMetadata("bmV3");
+		session.close();
+
+		session = storage.open("wallet", null, null);
+		WalletStorage.Record record = session.getRecord("dHlwZQ==", "aWQx");
+		assertArrayEquals(new byte[] {1, 2, 3}, record.getValue());
+		assertEquals(Collections.singletonMap("~dGFn", "b"), record.getTags());
+		assertEquals(1, session.searchAllRecords().size());
+		assertEquals("bmV3", session.getStorageMetadata());
+		session.close();
+	}
+
+	@Test
+	public void testLogGrowsAndIsCompacted() throws Exception {
+		LogWalletStorage storage = new LogWalletStorage(folder.getRoot());
+		storage.create("wallet", null, null, "");
+
+		WalletStorage.Session session = storage.open("wallet", null, null);
+		session.addRecord("dHlwZQ==", "aWQ=", new byte[0], Collections.<String, String>emptyMap());
+		byte[] value = new byte[1024];
+		for (int i = 0; i < 5000; i++) {
+			value[0] = (byte) i;
+			session.updateRecordValue("dHlwZQ==", "aWQ=", value);
+		}
+		session.close();
+
+		File log = new File(new File(folder.getRoot(), "wallet"), LogWalletStorage.LOG_FILE_NAME);
+		assertTrue(log.length() < 5000 * 1024);
+
+		session = storage.open("wallet", null, null);
+		assertEquals((byte) 4999, session.getRecord("dHlwZQ==", "aWQ=").getValue()[0]);
+		session.close();
+	}
+
+	@Test
+	public void testTornEntryIsDropped() throws Exception {
+		LogWalletStorage storage = new LogWalletStorage(folder.getRoot());
+		storage.create("wallet", null, null, "");
+
+		WalletStorage.Session session = storage.open("wallet", null, null);
+		session.addRecord("dHlwZQ==", "aWQx", new byte[] {1}, Collections.<String, String>emptyMap());
+		session.addRecord("dHlwZQ==", "aWQy", new byte[] {2}, Collections.<String, String>emptyMap());
+		session.close();
+
+		File log = new File(new File(folder.getRoot(), "wallet"), LogWalletStorage.LOG_FILE_NAME);
+		try (RandomAccessFile file = new RandomAccessFile(log, "rw")) {
+			long position = 0;
+			while (true) {
+				file.seek(position);
+				int length = file.readInt();
+				if (length == 0) break;
+				position += 8 + length;
+			}
+			file.seek(position - 1);
+			byte last = file.readByte();
+			file.seek(position - 1);
+			file.writeByte(last ^ 0xff);
+		}
+
+		session = storage.open("wallet", null, null);
+		assertEquals(1, session.searchAllRecords().size());
+		session.close();
+	}
+
+	@Test
+	public void testStorageConfigPathIsUsed() throws Exception {
+		LogWalletStorage storage = new LogWalletStorage(new File(folder.getRoot(), "default"));
+		String config = "{\"path\": \"" + folder.getRoot().getAbsolutePath().replace("\\", "\\\\") + "\"}";
+		storage.create("wallet", config, null, "");
+
+		assertTrue(new File(new File(folder.getRoot(), "wallet"), LogWalletStorage.LOG_FILE_NAME).isFile());
+
+		storage.delete("wallet", config, null);
+		assertFalse(new File(folder.getRoot(), "wallet").exists());
+	}
+}
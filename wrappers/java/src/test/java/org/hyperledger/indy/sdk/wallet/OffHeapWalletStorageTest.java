@@ -0,0 +1,109 @@
+package org.hyperledger.indy.sdk.wallet;
+
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class OffHeapWalletStorageTest {
+
+	private static final long CAPACITY = 4L << 20;
+
+	private static Map<String, String> tags(int i) {
+		Map<String, String> tags = new HashMap<>();
+		tags.put("~cGFyaXR5", String.valueOf(i % 2));
+		tags.put("~bW9k", String.valueOf(i % 5));
+		return tags;
+	}
+
+	@Test
+	public void testRecordsCanBeModified() throws Exception {
+		OffHeapWalletStorage storage = new OffHeapWalletStorage(CAPACITY);
+		storage.create("wallet", null, null, "bWV0YQ==");
+		WalletStorage.Session session = storage.open("wallet", null, null);
+
+		session.addRecord("dHlwZQ==", "aWQ=", new byte[] {1}, Collections.singletonMap("~dGFn", "a"));
+		session.updateRecordValue("dHlwZQ==", "aWQ=", new byte[] {2, 3});
+		session.addRecordTags("dHlwZQ==", "aWQ=", Collections.singletonMap("~b3RoZXI=", "b"));
+		session.deleteRecordTags("dHlwZQ==", "aWQ=", Collections.singletonList("~dGFn"));
+
+		WalletStorage.Record record = session.getRecord("dHlwZQ==", "aWQ=");
+		assertArrayEquals(new byte[] {2, 3}, record.getValue());
+		assertEquals(Collections.singletonMap("~b3RoZXI=", "b"), record.getTags());
+		assertTrue(session.searchRecords("dHlwZQ==", WalletStorageQuery.parse("{\"~dGFn\": \"a\"}")).isEmpty());
+		assertEquals(1, session.searchRecords("dHlwZQ==", WalletStorageQuery.parse("{\"~b3RoZXI=\": \"b\"}")).size());
+
+		session.deleteRecord("dHlwZQ==", "aWQ=");
+		assertTrue(session.searchAllRecords().isEmpty());
+		assertEquals(0, storage.getUsedBytes());
+	}
+
+	@Test
+	public void testSearchUsesTagIndexAndFullQuery() throws Exception {
+		OffHeapWalletStorage storage = new OffHeapWalletStorage(CAPACITY);
+		storage.create("wallet", null, null, "");
+		WalletStorage.Session session = storage.open("wallet", null, null);
+
+		for (int i = 0; i < 100; i++) {
+			session.addRecord("dHlwZQ==", "id" + i, new byte[] {(byte) i}, tags(i));
+		}
+
+		assertEquals(50, session.searchRecords("dHlwZQ==", WalletStorageQuery.parse("{\"~cGFyaXR5\": \"0\"}")).size());
+		assertEquals(10, session.searchRecords("dHlwZQ==", WalletStorageQuery.parse("{\"~cGFyaXR5\": \"0\", \"~bW9k\": \"0\"}")).size());
+		assertEquals(40, session.searchRecords("dHlwZQ==", WalletStorageQuery.parse("{\"~bW9k\": {\"$in\": [\"1\", \"2\"]}}")).size());
+		assertEquals(80, session.searchRecords("dHlwZQ==", WalletStorageQuery.parse("{\"~bW9k\": {\"$neq\": \"3\"}}")).size());
+		assertTrue(session.searchRecords("b3RoZXI=", WalletStorageQuery.parse("{}")).isEmpty());
+	}
+
+	@Test
+	public void testCapacityIsBounded() throws Exception {
+		OffHeapWalletStorage storage = new OffHeapWalletStorage(1 << 20);
+		storage.create("wallet", null, null, "");
+		WalletStorage.Session session = storage.open("wallet", null, null);
+
+		byte[] value = new byte[100 * 1024];
+		int stored = 0;
+		try {
+			for (; stored < 100; stored++) {
+				session.addRecord("dHlwZQ==", "id" + stored, value, Collections.<String, String>emptyMap());
+			}
+			fail();
+		} catch (WalletStorageException e) {
+			// expected
+		}
+
+		assertEquals(stored, session.searchAllRecords().size());
+		assertEquals(1 << 20, storage.getReservedBytes());
+
+		storage.delete("wallet", null, null);
+		assertEquals(0, storage.getUsedBytes());
+
+		storage.create("wallet", null, null, "");
+		storage.open("wallet", null, null).addRecord("dHlwZQ==", "aWQ=", value, Collections.<String, String>emptyMap());
+		assertEquals(1 << 20, storage.getReservedBytes());
+	}
+
+	@Test
+	public void testFailedUpdateKeepsPreviousVersion() throws Exception {
+		OffHeapWalletStorage storage = new OffHeapWalletStorage(CAPACITY);
+		storage.create("wallet", null, null, "");
+		WalletStorage.Session session = storage.open("wallet", null, null);
+		session.addRecord("dHlwZQ==", "aWQ=", new byte[] {1}, Collections.singletonMap("~dGFn", "a"));
+
+		try {
+			session.updateRecordValue("dHlwZQ==", "aWQ=", new byte[OffHeapArena.CHUNK_SIZE]);
+			fail();
+		} catch (WalletStorageException e) {
+			// expected
+		}
+
+		assertArrayEquals(new byte[] {1}, session.getRecord("dHlwZQ==", "aWQ=").getValue());
+		assertEquals(1, session.searchRecords("dHlwZQ==", WalletStorageQuery.parse("{\"~dGFn\": \"a\"}")).size());
+	}
+}
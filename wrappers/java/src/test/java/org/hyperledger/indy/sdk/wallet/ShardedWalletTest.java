@@ -0,0 +1,156 @@
+package org.hyperledger.indy.sdk.wallet;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ShardedWalletTest {
+
+	/**
+	 * Serves {@code sizes[shard]} items per shard and records every request.
+	 */
+	private static class FakeShards implements ShardedWallet.PageMerger.Fetcher {
+
+		private final int[] sizes;
+		private final int[] served;
+		private final List<String> requests = new ArrayList<>();
+
+		FakeShards(int... sizes) {
+			this.sizes = sizes;
+			this.served = new int[sizes.length];
+		}
+
+		@Override
+		public CompletableFuture<JSONArray> fetch(int shard, int count) {
+			this.requests.add(shard + ":" + count);
+			JSONArray page = new JSONArray();
+			while (page.length() < count && this.served[shard] < this.sizes[shard]) {
+				page.put(shard + "-" + this.served[shard]++);
+			}
+			return CompletableFuture.completedFuture(page);
+		}
+	}
+
+	@Test
+	public void testShardIndexIsStableAndSpread() {
+		int[] counts = new int[8];
+		for (int i = 0; i < 8000; i++) {
+			int shard = ShardedWallet.shardIndex(ShardedWallet.CREDENTIAL_TYPE, "cred-" + i, 8);
+			assertEquals(shard, ShardedWallet.shardIndex(ShardedWallet.CREDENTIAL_TYPE, "cred-" + i, 8));
+			counts[shard]++;
+		}
+		for (int count : counts) {
+			assertTrue("unbalanced shard: " + count, count > 800 && count < 1200);
+		}
+	}
+
+	private static String requestedCredentials(String attrCredId, String predicateCredId) {
+		return new JSONObject()
+				.put("self_attested_attributes", new JSONObject().put("attr3_referent", "8-800-300"))
+				.put("requested_attributes", new JSONObject().put("attr1_referent", new JSONObject().put("cred_id", attrCredId).put("revealed", true)))
+				.put("requested_predicates", new JSONObject().put("predicate1_referent", new JSONObject().put("cred_id", predicateCredId)))
+				.toString();
+	}
+
+	@Test
+	public void testColocatedCredentialsShareTheProofShard() {
+		String credId = ShardedWallet.newCredentialId("cred-1", 8);
+		int shard = ShardedWallet.shardIndex(ShardedWallet.CREDENTIAL_TYPE, "cred-1", 8);
+
+		assertEquals(shard, ShardedWallet.shardIndex(ShardedWallet.CREDENTIAL_TYPE, credId, 8));
+		assertEquals(shard, ShardedWallet.proofShardIndex(requestedCredentials("cred-1", credId), 8));
+		assertEquals(0, ShardedWallet.proofShardIndex(new JSONObject().put("self_attested_attributes", new JSONObject()).toString(), 8));
+	}
+
+	@Test
+	public void testProofOverSeveralShardsFailsFast() {
+		String other = "cred-2";
+		for (int i = 3; ShardedWallet.shardIndex(ShardedWallet.CREDENTIAL_TYPE, other, 8) == ShardedWallet.shardIndex(ShardedWallet.CREDENTIAL_TYPE, "cred-1", 8); i++) {
+			other = "cred-" + i;
+		}
+
+		try {
+			ShardedWallet.proofShardIndex(requestedCredentials("cred-1", other), 8);
+			fail("expected the credentials to be rejected");
+		} catch (IllegalArgumentException e) {
+			assertTrue(e.getMessage(), e.getMessage().contains("newCredentialId"));
+		}
+	}
+
+	@Test
+	public void testShardConfigSuffixesIdAndKeepsStorage() {
+		String config = new JSONObject().put("id", "prover").put("storage_type", "default").toString();
+		JSONObject shardConfig = new JSONObject(ShardedWallet.shardConfig(config, 3));
+		assertEquals("prover-shard-3", shardConfig.getString("id"));
+		assertEquals("default", shardConfig.getString("storage_type"));
+	}
+
+	@Test
+	public void testMergerFillsPagesAcrossShardsUntilExhausted() throws Exception {
+		FakeShards shards = new FakeShards(5, 0, 12);
+		ShardedWallet.PageMerger merger = new ShardedWallet.PageMerger(3, shards);
+
+		Set<Object> seen = new HashSet<>();
+		JSONArray page;
+		do {
+			page = merger.next(4).get();
+			for (int i = 0; i < page.length(); i++) {
+				assertTrue(seen.add(page.get(i)));
+			}
+		} while (page.length() == 4);
+
+		assertEquals(17, seen.size());
+		assertEquals(0, merger.next(4).get().length());
+	}
+
+	@Test
+	public void testMergerOnlyFetchesWhatThePageNeeds() throws Exception {
+		FakeShards shards = new FakeShards(100, 100, 100, 100);
+		ShardedWallet.PageMerger merger = new ShardedWallet.PageMerger(4, shards);
+
+		assertEquals(8, merger.next(8).get().length());
+		assertEquals("[0:2, 1:2, 2:2, 3:2]", shards.requests.toString());
+
+		shards.requests.clear();
+		assertEquals(3, merger.next(3).get().length());
+		assertEquals("[0:1, 1:1, 2:1, 3:1]", shards.requests.toString());
+
+		shards.requests.clear();
+		assertEquals(1, merger.next(1).get().length());
+		assertTrue(shards.requests.isEmpty());
+	}
+
+	@Test
+	public void testMergerPropagatesShardFailures() throws Exception {
+		ShardedWallet.PageMerger merger = new ShardedWallet.PageMerger(2, new ShardedWallet.PageMerger.Fetcher() {
+			@Override
+			public CompletableFuture<JSONArray> fetch(int shard, int count) {
+				CompletableFuture<JSONArray> future = new CompletableFuture<>();
+				if (shard == 1) {
+					future.completeExceptionally(new WalletInvalidQueryException());
+				} else {
+					future.complete(new JSONArray());
+				}
+				return future;
+			}
+		});
+
+		try {
+			merger.next(10).get();
+			fail("expected the shard failure");
+		} catch (ExecutionException e) {
+			assertTrue(e.getCause() instanceof WalletInvalidQueryException);
+		}
+	}
+}
@@ -0,0 +1,139 @@
+package org.hyperledger.indy.sdk.wallet;
+
+import com.sun.jna.Callback;
+import com.sun.jna.Memory;
+import com.sun.jna.Native;
+import com.sun.jna.ptr.IntByReference;
+import com.sun.jna.ptr.PointerByReference;
+import org.hyperledger.indy.sdk.ErrorCode;
+import org.json.JSONObject;
+import org.junit.Test;
+
+import java.lang.reflect.Method;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class WalletStorageBridgeTest {
+
+	private static int call(Callback callback, Object... args) throws Exception {
+		for (Method method : callback.getClass().getMethods()) {
+			if (method.getName().equals("callback")) {
+				method.setAccessible(true);
+				return (Integer) method.invoke(callback, args);
+			}
+		}
+		throw new AssertionError("No callback method");
+	}
+
+	private static int open(WalletStorageBridge bridge) throws Exception {
+		assertEquals(ErrorCode.Success.value(), call(bridge.createCb, "wallet", null, null, "bWV0YQ=="));
+
+		IntByReference storageHandle = new IntByReference();
+		assertEquals(ErrorCode.Success.value(), call(bridge.openCb, "wallet", null, null, storageHandle));
+		return storageHandle.getValue();
+	}
+
+	private static int addRecord(int storageHandle, String id, byte[] value, String tagsJson) throws Exception {
+		Memory memory = new Memory(value.length);
+		memory.write(0, value, 0, value.length);
+		return call(WalletStorageBridge.addRecordCb, storageHandle, "dHlwZQ==", id, memory, new WalletStorageBridge.SizeT(value.length), tagsJson);
+	}
+
+	private static long sizeT(Memory memory) {
+		return Native.SIZE_T_SIZE == 8 ? memory.getLong(0) : memory.getInt(0);
+	}
+
+	@Test
+	public void testRecordFieldsAreCopiedToNativeMemory() throws Exception {
+		WalletStorageBridge bridge = new WalletStorageBridge(new InMemoryWalletStorage());
+		int storageHandle = open(bridge);
+
+		assertEquals(ErrorCode.Success.value(), addRecord(storageHandle, "aWQ=", new byte[] {1, 2, 3}, "{\"~dGFn\": \"a\"}"));
+
+		IntByReference recordHandle = new IntByReference();
+		assertEquals(ErrorCode.Success.value(), call(WalletStorageBridge.getRecordCb, storageHandle, "dHlwZQ==", "aWQ=", "{}", recordHandle));
+
+		PointerByReference value = new PointerByReference();
+		Memory valueLen = new Memory(Native.SIZE_T_SIZE);
+		assertEquals(ErrorCode.Success.value(), call(WalletStorageBridge.getRecordValueCb, storageHandle, recordHandle.getValue(), value, valueLen));
+		assertEquals(3, sizeT(valueLen));
+		assertArrayEquals(new byte[] {1, 2, 3}, value.getValue().getByteArray(0, 3));
+
+		PointerByReference tags = new PointerByReference();
+		assertEquals(ErrorCode.Success.value(), call(WalletStorageBridge.getRecordTagsCb, storageHandle, recordHandle.getValue(), tags));
+		assertEquals("a", new JSONObject(tags.getValue().getString(0, "UTF-8")).getString("~dGFn"));
+
+		PointerByReference id = new PointerByReference();
+		assertEquals(ErrorCode.Success.value(), call(WalletStorageBridge.getRecordIdCb, storageHandle, recordHandle.getValue(), id));
+		assertEquals("aWQ=", id.getValue().getString(0, "UTF-8"));
+
+		assertEquals(ErrorCode.Success.value(), call(WalletStorageBridge.freeRecordCb, storageHandle, recordHandle.getValue()));
+		assertEquals(ErrorCode.WalletInputError.value(), call(WalletStorageBridge.freeRecordCb, storageHandle, recordHandle.getValue()));
+		assertEquals(ErrorCode.Success.value(), call(WalletStorageBridge.closeCb, storageHandle));
+	}
+
+	@Test
+	public void testSearchEndsWithItemNotFound() throws Exception {
+		WalletStorageBridge bridge = new WalletStorageBridge(new InMemoryWalletStorage());
+		int storageHandle = open(bridge);
+		addRecord(storageHandle, "aWQx", new byte[] {1}, "{\"~dGFn\": \"a\"}");
+		addRecord(storageHandle, "aWQy", new byte[] {2}, "{\"~dGFn\": \"b\"}");
+
+		IntByReference searchHandle = new IntByReference();
+		assertEquals(ErrorCode.Success.value(), call(WalletStorageBridge.searchRecordsCb, storageHandle, "dHlwZQ==", "{\"~dGFn\": \"b\"}", "{}", searchHandle));
+
+		Memory totalCount = new Memory(Native.SIZE_T_SIZE);
+		assertEquals(ErrorCode.Success.value(), call(WalletStorageBridge.getSearchTotalCountCb, storageHandle, searchHandle.getValue(), totalCount));
+		assertEquals(1, sizeT(totalCount));
+
+		IntByReference recordHandle = new IntByReference();
+		assertEquals(ErrorCode.Success.value(), call(WalletStorageBridge.fetchSearchNextRecordCb, storageHandle, searchHandle.getValue(), recordHandle));
+		assertEquals(ErrorCode.Success.value(), call(WalletStorageBridge.freeRecordCb, storageHandle, recordHandle.getValue()));
+		assertEquals(ErrorCode.WalletItemNotFound.value(), call(WalletStorageBridge.fetchSearchNextRecordCb, storageHandle, searchHandle.getValue(), recordHandle));
+		assertEquals(ErrorCode.Success.value(), call(WalletStorageBridge.freeSearchCb, storageHandle, searchHandle.getValue()));
+	}
+
+	@Test
+	public void testValueLengthsAreReadAsSizeT() throws Exception {
+		WalletStorageBridge bridge = new WalletStorageBridge(new InMemoryWalletStorage());
+		int storageHandle = open(bridge);
+		assertEquals(Native.SIZE_T_SIZE, Native.getNativeSize(WalletStorageBridge.SizeT.class));
+
+		assertEquals(ErrorCode.Success.value(), addRecord(storageHandle, "aWQ=", new byte[] {1, 2, 3}, "{}"));
+		Memory memory = new Memory(4);
+		memory.write(0, new byte[] {4, 5, 6, 7}, 0, 4);
+		assertEquals(ErrorCode.Success.value(), call(WalletStorageBridge.updateRecordValueCb, storageHandle, "dHlwZQ==", "aWQ=", memory, new WalletStorageBridge.SizeT(4)));
+
+		IntByReference recordHandle = new IntByReference();
+		assertEquals(ErrorCode.Success.value(), call(WalletStorageBridge.getRecordCb, storageHandle, "dHlwZQ==", "aWQ=", "{}", recordHandle));
+		PointerByReference value = new PointerByReference();
+		Memory valueLen = new Memory(Native.SIZE_T_SIZE);
+		assertEquals(ErrorCode.Success.value(), call(WalletStorageBridge.getRecordValueCb, storageHandle, recordHandle.getValue(), value, valueLen));
+		assertArrayEquals(new byte[] {4, 5, 6, 7}, value.getValue().getByteArray(0, (int) sizeT(valueLen)));
+	}
+
+	@Test
+	public void testExceptionsAreMappedToErrorCodes() throws Exception {
+		WalletStorageBridge bridge = new WalletStorageBridge(new InMemoryWalletStorage());
+		int storageHandle = open(bridge);
+
+		assertEquals(ErrorCode.WalletAlreadyExistsError.value(), call(bridge.createCb, "wallet", null, null, ""));
+		assertEquals(ErrorCode.WalletItemNotFound.value(), call(WalletStorageBridge.getRecordCb, storageHandle, "dHlwZQ==", "aWQ=", "{}", new IntByReference()));
+		assertEquals(ErrorCode.WalletInputError.value(), addRecord(storageHandle, "aWQ=", new byte[] {1}, "not json"));
+		assertEquals(ErrorCode.WalletQueryError.value(), call(WalletStorageBridge.searchRecordsCb, storageHandle, "dHlwZQ==", "{\"$nope\": 1}", "{}", new IntByReference()));
+		assertEquals(ErrorCode.WalletInvalidHandle.value(), call(WalletStorageBridge.closeCb, -1));
+	}
+
+	@Test
+	public void testMetadataIsKeptUntilFreed() throws Exception {
+		WalletStorageBridge bridge = new WalletStorageBridge(new InMemoryWalletStorage());
+		int storageHandle = open(bridge);
+
+		PointerByReference metadata = new PointerByReference();
+		IntByReference metadataHandle = new IntByReference();
+		assertEquals(ErrorCode.Success.value(), call(WalletStorageBridge.getStorageMetadataCb, storageHandle, metadata, metadataHandle));
+		assertEquals("bWV0YQ==", metadata.getValue().getString(0, "UTF-8"));
+		assertEquals(ErrorCode.Success.value(), call(WalletStorageBridge.freeStorageMetadataCb, storageHandle, metadataHandle.getValue()));
+	}
+}
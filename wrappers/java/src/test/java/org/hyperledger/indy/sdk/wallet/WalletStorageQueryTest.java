@@ -0,0 +1,67 @@
+package org.hyperledger.indy.sdk.wallet;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class WalletStorageQueryTest {
+
+	private static Map<String, String> tags() {
+		Map<String, String> tags = new HashMap<>();
+		tags.put("ZW5j", "dmFsdWU=");
+		tags.put("~bmFtZQ==", "alice");
+		tags.put("~YWdl", "30");
+		return tags;
+	}
+
+	@Test
+	public void testEmptyQueryMatchesAll() throws Exception {
+		assertTrue(WalletStorageQuery.parse("{}").matches(tags()));
+		assertTrue(WalletStorageQuery.parse(null).matches(new HashMap<String, String>()));
+	}
+
+	@Test
+	public void testEqualityTermsMustAllMatch() throws Exception {
+		assertTrue(WalletStorageQuery.parse("{\"ZW5j\": \"dmFsdWU=\", \"~bmFtZQ==\": \"alice\"}").matches(tags()));
+		assertFalse(WalletStorageQuery.parse("{\"ZW5j\": \"dmFsdWU=\", \"~bmFtZQ==\": \"bob\"}").matches(tags()));
+		assertFalse(WalletStorageQuery.parse("{\"~bWlzc2luZw==\": \"alice\"}").matches(tags()));
+	}
+
+	@Test
+	public void testComparisonOperators() throws Exception {
+		assertTrue(WalletStorageQuery.parse("{\"~YWdl\": {\"$gt\": \"29\"}}").matches(tags()));
+		assertTrue(WalletStorageQuery.parse("{\"~YWdl\": {\"$gte\": \"30\"}}").matches(tags()));
+		assertFalse(WalletStorageQuery.parse("{\"~YWdl\": {\"$lt\": \"30\"}}").matches(tags()));
+		assertTrue(WalletStorageQuery.parse("{\"~YWdl\": {\"$lte\": \"30\"}}").matches(tags()));
+		assertTrue(WalletStorageQuery.parse("{\"~YWdl\": {\"$neq\": \"31\"}}").matches(tags()));
+		assertTrue(WalletStorageQuery.parse("{\"~YWdl\": {\"$in\": [\"29\", \"30\"]}}").matches(tags()));
+	}
+
+	@Test
+	public void testLikeSupportsWildcards() throws Exception {
+		assertTrue(WalletStorageQuery.parse("{\"~bmFtZQ==\": {\"$like\": \"al%\"}}").matches(tags()));
+		assertTrue(WalletStorageQuery.parse("{\"~bmFtZQ==\": {\"$like\": \"_lice\"}}").matches(tags()));
+		assertFalse(WalletStorageQuery.parse("{\"~bmFtZQ==\": {\"$like\": \"a.ice\"}}").matches(tags()));
+	}
+
+	@Test
+	public void testBooleanOperators() throws Exception {
+		assertTrue(WalletStorageQuery.parse("{\"$or\": [{\"~bmFtZQ==\": \"bob\"}, {\"~YWdl\": \"30\"}]}").matches(tags()));
+		assertFalse(WalletStorageQuery.parse("{\"$and\": [{\"~bmFtZQ==\": \"bob\"}, {\"~YWdl\": \"30\"}]}").matches(tags()));
+		assertTrue(WalletStorageQuery.parse("{\"$not\": {\"~bmFtZQ==\": \"bob\"}}").matches(tags()));
+	}
+
+	@Test(expected = WalletInvalidQueryException.class)
+	public void testUnknownOperatorIsRejected() throws Exception {
+		WalletStorageQuery.parse("{\"~YWdl\": {\"$between\": \"30\"}}");
+	}
+
+	@Test(expected = WalletInvalidQueryException.class)
+	public void testMalformedJsonIsRejected() throws Exception {
+		WalletStorageQuery.parse("{\"~YWdl\": ");
+	}
+}